@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+// $Id: FactoryConfigurationError.java 569980 2007-08-27 03:58:15Z mrglavas $
+
+package javax.xml.parsers;
+
+/**
+ * Thrown when a problem with configuration with the Parser Factories
+ * exists. This error will typically be thrown when the class of a
+ * parser factory specified in the system properties cannot be found
+ * or instantiated.
+ *
+ * @author <a href="mailto:Jeff.Suttor@Sun.com">Jeff Suttor</a>
+ * @version $Revision: 569980 $, $Date: 2007-08-26 23:58:15 -0400 (Sun, 26 Aug 2007) $
+ */
+
+public class FactoryConfigurationError extends Error {
+
+    /**
+     *<code>Exception</code> that represents the error.
+     */
+    private Exception exception;
+
+    /**
+     * Create a new <code>FactoryConfigurationError</code> with no
+     * detail message.
+     */
+
+    public FactoryConfigurationError() {
+        super();
+        this.exception = null;
+    }
+
+    /**
+     * Create a new <code>FactoryConfigurationError</code> with
+     * the <code>String </code> specified as an error message.
+     *
+     * @param msg The error message for the exception.
+     */
+    
+    public FactoryConfigurationError(String msg) {
+        super(msg);
+        this.exception = null;
+    }
+
+
+    /**
+     * Create a new <code>FactoryConfigurationError</code> with a
+     * given <code>Exception</code> base cause of the error.
+     *
+     * @param e The exception to be encapsulated in a
+     * FactoryConfigurationError.
+     */
+    
+    public FactoryConfigurationError(Exception e) {
+        super(e.toString());
+        this.exception = e;
+    }
+
+    /**
+     * Create a new <code>FactoryConfigurationError</code> with the
+     * given <code>Exception</code> base cause and detail message.
+     *
+     * @param e The exception to be encapsulated in a
+     * FactoryConfigurationError
+     * @param msg The detail message.
+     */
+    
+    public FactoryConfigurationError(Exception e, String msg) {
+        super(msg);
+        this.exception = e;
+    }
+
+
+    /**
+     * Return the message (if any) for this error . If there is no
+     * message for the exception and there is an encapsulated
+     * exception then the message of that exception, if it exists will be 
+     * returned. Else the name of the encapsulated exception will be
+     * returned.
+     *
+     * @return The error message.
+     */
+    
+    public String getMessage () {
+        String message = super.getMessage ();
+  
+        if (message == null && exception != null) {
+            return exception.getMessage();
+        }
+
+        return message;
+    }
+  
+    /**
+     * Return the actual exception (if any) that caused this exception to
+     * be raised.
+     *
+     * @return The encapsulated exception, or null if there is none.
+     */
+    
+    public Exception getException () {
+        return exception;
+    }
+}
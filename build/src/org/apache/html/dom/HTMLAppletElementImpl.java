@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.html.dom;
+
+import org.w3c.dom.html.HTMLAppletElement;
+
+/**
+ * @xerces.internal
+ * @version $Revision$ $Date$
+ * @author <a href="mailto:arkin@exoffice.com">Assaf Arkin</a>
+ * @see org.w3c.dom.html.HTMLAppletElement
+ * @see HTMLElementImpl
+ */
+public class HTMLAppletElementImpl
+    extends HTMLElementImpl
+    implements HTMLAppletElement
+{
+
+    private static final long serialVersionUID = 8375794094117740967L;
+
+    public String getAlign()
+    {
+        return getAttribute( "align" );
+    }
+    
+    
+    public void setAlign( String align )
+    {
+        setAttribute( "align", align );
+    }
+  
+  
+    public String getAlt()
+    {
+        return getAttribute( "alt" );
+    }
+    
+    
+    public void setAlt( String alt )
+    {
+        setAttribute( "alt", alt );
+    }
+
+    
+    public String getArchive()
+    {
+        return getAttribute( "archive" );
+    }
+    
+    
+    public void setArchive( String archive )
+    {
+        setAttribute( "archive", archive );
+    }
+
+
+    public String getCode()
+    {
+        return getAttribute( "code" );
+    }
+    
+    
+    public void setCode( String code )
+    {
+        setAttribute( "code", code );
+    }
+
+
+    public String getCodeBase()
+    {
+        return getAttribute( "codebase" );
+    }
+    
+    
+    public void setCodeBase( String codeBase )
+    {
+        setAttribute( "codebase", codeBase );
+    }
+
+
+    public String getHeight()
+    {
+        return getAttribute( "height" );
+    }
+    
+    
+    public void setHeight( String height )
+    {
+        setAttribute( "height", height );
+    }
+
+
+    public String getHspace()
+    {
+        return getAttribute( "height" );
+    }
+    
+    
+    public void setHspace( String height )
+    {
+        setAttribute( "height", height );
+    }
+
+
+    public String getName()
+    {
+        return getAttribute( "name" );
+    }
+    
+    
+    public void setName( String name )
+    {
+        setAttribute( "name", name );
+    }
+
+
+    public String getObject()
+    {
+        return getAttribute( "object" );
+    }
+    
+    
+    public void setObject( String object )
+    {
+        setAttribute( "object", object );
+    }
+
+
+    public String getVspace()
+    {
+        return getAttribute( "vspace" );
+    }
+    
+    
+    public void setVspace( String vspace )
+    {
+        setAttribute( "vspace", vspace );
+    }
+
+
+    public String getWidth()
+    {
+        return getAttribute( "width" );
+    }
+    
+    
+    public void setWidth( String width )
+    {
+        setAttribute( "width", width );
+    }
+
+
+    /**
+     * Constructor requires owner document.
+     *
+     * @param owner the HTML document in which this element appears
+     * @param name the tag name of the element
+     */
+    public HTMLAppletElementImpl( HTMLDocumentImpl owner, String name )
+    {
+        super( owner, name );
+    }
+    
+}
+
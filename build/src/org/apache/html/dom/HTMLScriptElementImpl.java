@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.html.dom;
+
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+import org.w3c.dom.html.HTMLScriptElement;
+
+/**
+ * @xerces.internal
+ * @version $Revision$ $Date$
+ * @author <a href="mailto:arkin@exoffice.com">Assaf Arkin</a>
+ * @see org.w3c.dom.html.HTMLScriptElement
+ * @see org.apache.xerces.dom.ElementImpl
+ */
+public class HTMLScriptElementImpl
+    extends HTMLElementImpl
+    implements HTMLScriptElement
+{
+
+    private static final long serialVersionUID = 5090330049085326558L;
+
+    public String getText()
+    {
+        Node child;
+        StringBuffer text = new StringBuffer();
+        
+        // Find the Text nodes contained within this element and return their
+        // concatenated value. Required to go around comments, entities, etc.
+        child = getFirstChild();
+        while ( child != null )
+        {
+            if ( child instanceof Text ) {
+                text.append(( (Text) child ).getData());
+            }
+            child = child.getNextSibling();
+        }
+        return text.toString();
+    }
+    
+    
+    public void setText( String text )
+    {
+        Node    child;
+        Node    next;
+        
+        // Delete all the nodes and replace them with a single Text node.
+        // This is the only approach that can handle comments and other nodes.
+        child = getFirstChild();
+        while ( child != null )
+        {
+            next = child.getNextSibling();
+            removeChild( child );
+            child = next;
+        }
+        insertBefore( getOwnerDocument().createTextNode( text ), getFirstChild() );
+    }
+
+    
+       public String getHtmlFor()
+    {
+        return getAttribute( "for" );
+    }
+    
+    
+    public void setHtmlFor( String htmlFor )
+    {
+        setAttribute( "for", htmlFor );
+    }
+
+    
+       public String getEvent()
+    {
+        return getAttribute( "event" );
+    }
+    
+    
+    public void setEvent( String event )
+    {
+        setAttribute( "event", event );
+    }
+    
+       public String getCharset()
+    {
+        return getAttribute( "charset" );
+    }
+    
+    
+    public void setCharset( String charset )
+    {
+        setAttribute( "charset", charset );
+    }
+
+    
+    public boolean getDefer()
+    {
+        return getBinary( "defer" );
+    }
+    
+    
+    public void setDefer( boolean defer )
+    {
+        setAttribute( "defer", defer );
+    }
+
+  
+       public String getSrc()
+    {
+        return getAttribute( "src" );
+    }
+    
+    
+    public void setSrc( String src )
+    {
+        setAttribute( "src", src );
+    }
+
+  
+    public String getType()
+    {
+        return getAttribute( "type" );
+    }
+    
+    
+    public void setType( String type )
+    {
+        setAttribute( "type", type );
+    }
+    
+    
+    /**
+     * Constructor requires owner document.
+     *
+     * @param owner the HTML document in which this element appears
+     * @param name the tag name of the element
+     */
+    public HTMLScriptElementImpl( HTMLDocumentImpl owner, String name )
+    {
+        super( owner, name );
+    }
+
+  
+}
+
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.html.dom;
+
+import org.w3c.dom.html.HTMLUListElement;
+
+/**
+ * @xerces.internal
+ * @version $Revision$ $Date$
+ * @author <a href="mailto:arkin@exoffice.com">Assaf Arkin</a>
+ * @see org.w3c.dom.html.HTMLUListElement
+ * @see org.apache.xerces.dom.ElementImpl
+ */
+public class HTMLUListElementImpl
+    extends HTMLElementImpl
+    implements HTMLUListElement
+{
+
+    private static final long serialVersionUID = -3220401442015109211L;
+
+    public boolean getCompact()
+    {
+        return getBinary( "compact" );
+    }
+    
+    
+    public void setCompact( boolean compact )
+    {
+        setAttribute( "compact", compact );
+    }
+    
+    
+    public String getType()
+    {
+        return getAttribute( "type" );
+    }
+    
+    
+    public void setType( String type )
+    {
+        setAttribute( "type", type );
+    }
+    
+    
+    /**
+     * Constructor requires owner document.
+     *
+     * @param owner the HTML document in which this element appears
+     * @param name the tag name of the element
+     */
+    public HTMLUListElementImpl( HTMLDocumentImpl owner, String name )
+    {
+        super( owner, name );
+    }
+
+  
+}
+
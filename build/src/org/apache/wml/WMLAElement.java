@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wml;
+
+/**
+ * The interface is modeled after DOM1 Spec for HTML from W3C.
+ * The DTD used in this DOM model is from 
+ * <a href="https://www.wapforum.org/DTD/wml_1.1.xml">https://www.wapforum.org/DTD/wml_1.1.xml</a>
+ *
+ * @version $Id$
+ * @author <a href="mailto:david@topware.com.tw">David Li</a>
+ * @deprecated WML (Wireless Markup Language) is obsolete. The org.apache.wml package may be removed in a future release.
+ */
+@Deprecated
+public interface WMLAElement extends WMLElement {
+
+    public void setHref(String newValue);
+    public String getHref();
+
+    public void setTitle(String newValue);
+    public String getTitle();
+
+    public void setId(String newValue);
+    public String getId();
+
+    /**
+     * 'xml:lang' specifics the natural or formal language in which
+     * the document is written.
+     * <p>
+     * Language identifiers are defined in <a href="https://www.w3.org/TR/xml/#RFC1766">IETF BCP 47</a>
+     * </p>
+     * <p>(Section 8.8, WAP WML Version 16-Jun-1999)</p>
+     *
+     * @param newValue a language identifier as defined by <a href="https://www.w3.org/TR/xml/#RFC1766">IETF BCP 47</a> or an empty string
+     */
+    public void setXmlLang(String newValue);
+    public String getXmlLang();
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.dom;
+
+import org.w3c.dom.CDATASection;
+import org.w3c.dom.Node;
+
+/**
+ * XML provides the CDATA markup to allow a region of text in which
+ * most of the XML delimiter recognition does not take place. This is
+ * intended to ease the task of quoting XML fragments and other
+ * programmatic information in a document's text without needing to
+ * escape these special characters. It's primarily a convenience feature
+ * for those who are hand-editing XML.
+ * <p>
+ * CDATASection is an Extended DOM feature, and is not used in HTML 
+ * contexts.
+ * </p>
+ * <p>
+ * Within the DOM, CDATASections are treated essentially as Text
+ * blocks. Their distinct type is retained in order to allow us to
+ * properly recreate the XML syntax when we write them out.
+ * </p>
+ * <p>
+ * Reminder: CDATA IS NOT A COMPLETELY GENERAL SOLUTION; it can't
+ * quote its own end-of-block marking. If you need to write out a
+ * CDATA that contains the ]]> sequence, it's your responsibility to
+ * split that string over two successive CDATAs at that time.
+ * </p>
+ * <p>
+ * CDATA does not participate in Element.normalize() processing.
+ * </p>
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ * @since  PR-DOM-Level-1-19980818.
+ */
+public class CDATASectionImpl 
+    extends TextImpl 
+    implements CDATASection {
+
+    //
+    // Constants
+    //
+
+    /** Serialization version. */
+    static final long serialVersionUID = 2372071297878177780L;
+
+    //
+    // Constructors
+    //
+
+    /** Factory constructor for creating a CDATA section. */
+    public CDATASectionImpl(CoreDocumentImpl ownerDoc, String data) {
+        super(ownerDoc, data);
+    }  
+    
+    //
+    // Node methods
+    //
+
+    /** 
+     * A short integer indicating what type of node this is. The named
+     * constants for this value are defined in the org.w3c.dom.Node interface.
+     */
+    public short getNodeType() {
+        return Node.CDATA_SECTION_NODE;
+    }
+  
+    /** Returns the node name. */
+    public String getNodeName() {
+        return "#cdata-section";
+    }
+
+} // class CDATASectionImpl
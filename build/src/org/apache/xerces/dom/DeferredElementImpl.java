@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/*
+ * WARNING: because java doesn't support multi-inheritance some code is
+ * duplicated. If you're changing this file you probably want to change
+ * DeferredElementNSImpl.java at the same time.
+ */
+
+package org.apache.xerces.dom;
+
+import org.w3c.dom.NamedNodeMap;
+
+/**
+ * Elements represent most of the "markup" and structure of the
+ * document.  They contain both the data for the element itself
+ * (element name and attributes), and any contained nodes, including
+ * document text (as children).
+ * <p>
+ * Elements may have Attributes associated with them; the API for this is
+ * defined in Node, but the function is implemented here. In general, XML
+ * applications should retrive Attributes as Nodes, since they may contain
+ * entity references and hence be a fairly complex sub-tree. HTML users will
+ * be dealing with simple string values, and convenience methods are provided
+ * to work in terms of Strings.
+ * </p>
+ * <p>
+ * DeferredElementImpl inherits from ElementImpl which does not support
+ * Namespaces. DeferredElementNSImpl, which inherits from ElementNSImpl, does.
+ * </p>
+ * @see DeferredElementNSImpl
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ * @since  PR-DOM-Level-1-19980818.
+ */
+public class DeferredElementImpl
+    extends ElementImpl
+    implements DeferredNode {
+
+    //
+    // Constants
+    //
+
+    /** Serialization version. */
+    static final long serialVersionUID = -7670981133940934842L;
+
+    //
+    // Data
+    //
+
+    /** Node index. */
+    protected transient int fNodeIndex;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * This is the deferred constructor. Only the fNodeIndex is given here. All
+     * other data, can be requested from the ownerDocument via the index.
+     */
+    DeferredElementImpl(DeferredDocumentImpl ownerDoc, int nodeIndex) {
+        super(ownerDoc, null);
+
+        fNodeIndex = nodeIndex;
+        needsSyncChildren(true);
+
+    } // <init>(DocumentImpl,int)
+
+    //
+    // DeferredNode methods
+    //
+
+    /** Returns the node index. */
+    public final int getNodeIndex() {
+        return fNodeIndex;
+    }
+
+    //
+    // Protected methods
+    //
+
+    /** Synchronizes the data (name and value) for fast nodes. */
+    protected final void synchronizeData() {
+
+        // no need to sync in the future
+        needsSyncData(false);
+
+        // fluff data
+        DeferredDocumentImpl ownerDocument =
+            (DeferredDocumentImpl)this.ownerDocument;
+
+        // we don't want to generate any event for this so turn them off
+        boolean orig = ownerDocument.mutationEvents;
+        ownerDocument.mutationEvents = false;
+
+        name = ownerDocument.getNodeName(fNodeIndex);
+
+        // attributes
+        setupDefaultAttributes();
+        int index = ownerDocument.getNodeExtra(fNodeIndex);
+        if (index != -1) {
+            NamedNodeMap attrs = getAttributes();
+            do {
+                NodeImpl attr = (NodeImpl)ownerDocument.getNodeObject(index);
+                attrs.setNamedItem(attr);
+                index = ownerDocument.getPrevSibling(index);
+            } while (index != -1);
+        }
+
+        // set mutation events flag back to its original value
+        ownerDocument.mutationEvents = orig;
+
+    } // synchronizeData()
+
+    protected final void synchronizeChildren() {
+        DeferredDocumentImpl ownerDocument =
+            (DeferredDocumentImpl) ownerDocument();
+        ownerDocument.synchronizeChildren(this, fNodeIndex);
+    } // synchronizeChildren()
+
+} // class DeferredElementImpl
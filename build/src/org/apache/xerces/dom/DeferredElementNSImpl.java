@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/*
+ * WARNING: because java doesn't support multi-inheritance some code is
+ * duplicated. If you're changing this file you probably want to change
+ * DeferredElementImpl.java at the same time.
+ *
+ * @version $Id$
+ */
+
+package org.apache.xerces.dom;
+
+import org.apache.xerces.xni.NamespaceContext;
+import org.apache.xerces.xs.XSTypeDefinition;
+import org.w3c.dom.NamedNodeMap;
+
+/**
+ * DeferredElementNSImpl is to ElementNSImpl, what DeferredElementImpl is to
+ * ElementImpl. 
+ * 
+ * @xerces.internal
+ * 
+ * @see DeferredElementImpl
+ */
+public class DeferredElementNSImpl
+    extends ElementNSImpl
+    implements DeferredNode {
+
+    //
+    // Constants
+    //
+
+    /** Serialization version. */
+    static final long serialVersionUID = -5001885145370927385L;
+
+    //
+    // Data
+    //
+
+    /** Node index. */
+    protected transient int fNodeIndex;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * This is the deferred constructor. Only the fNodeIndex is given here. All
+     * other data, can be requested from the ownerDocument via the index.
+     */
+    DeferredElementNSImpl(DeferredDocumentImpl ownerDoc, int nodeIndex) {
+        super(ownerDoc, null);
+
+        fNodeIndex = nodeIndex;
+        needsSyncChildren(true);
+
+    } // <init>(DocumentImpl,int)
+
+    //
+    // DeferredNode methods
+    //
+
+    /** Returns the node index. */
+    public final int getNodeIndex() {
+        return fNodeIndex;
+    }
+
+    //
+    // Protected methods
+    //
+
+    /** Synchronizes the data (name and value) for fast nodes. */
+    protected final void synchronizeData() {
+
+        // no need to sync in the future
+        needsSyncData(false);
+
+        // fluff data
+        DeferredDocumentImpl ownerDocument =
+            (DeferredDocumentImpl) this.ownerDocument;
+
+        // we don't want to generate any event for this so turn them off
+        boolean orig = ownerDocument.mutationEvents;
+        ownerDocument.mutationEvents = false;
+
+        name = ownerDocument.getNodeName(fNodeIndex);
+
+        // extract local part from QName
+        int index = name.indexOf(':');
+        if (index < 0) {
+            localName = name;
+        } 
+        else {
+            localName = name.substring(index + 1);
+        }
+
+	    namespaceURI = ownerDocument.getNodeURI(fNodeIndex);
+        type = (XSTypeDefinition)ownerDocument.getTypeInfo(fNodeIndex);
+
+        // attributes
+        setupDefaultAttributes();
+        int attrIndex = ownerDocument.getNodeExtra(fNodeIndex);
+        if (attrIndex != -1) {
+            NamedNodeMap attrs = getAttributes();
+            boolean seenSchemaDefault = false;
+            do {
+                AttrImpl attr = (AttrImpl) ownerDocument.getNodeObject(attrIndex);
+                // Take special care of schema defaulted attributes. Calling the 
+                // non-namespace aware setAttributeNode() method could overwrite
+                // another attribute with the same local name.
+                if (!attr.getSpecified() && (seenSchemaDefault ||
+                    (attr.getNamespaceURI() != null &&
+                    attr.getNamespaceURI() != NamespaceContext.XMLNS_URI &&
+                    attr.getName().indexOf(':') < 0))) {
+                    seenSchemaDefault = true;
+                    attrs.setNamedItemNS(attr);
+                }
+                else {
+                    attrs.setNamedItem(attr);
+                }
+                attrIndex = ownerDocument.getPrevSibling(attrIndex);
+            } while (attrIndex != -1);
+        }
+
+        // set mutation events flag back to its original value
+        ownerDocument.mutationEvents = orig;
+
+    } // synchronizeData()
+
+    /**
+     * Synchronizes the node's children with the internal structure.
+     * Fluffing the children at once solves a lot of work to keep
+     * the two structures in sync. The problem gets worse when
+     * editing the tree -- this makes it a lot easier.
+     */
+    protected final void synchronizeChildren() {
+        DeferredDocumentImpl ownerDocument =
+            (DeferredDocumentImpl) ownerDocument();
+        ownerDocument.synchronizeChildren(this, fNodeIndex);
+    } // synchronizeChildren()
+
+} // class DeferredElementImpl
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.dom;
+
+/**
+ * Processing Instructions (PIs) permit documents to carry
+ * processor-specific information alongside their actual content. PIs
+ * are most common in XML, but they are supported in HTML as well.
+ * 
+ * @xerces.internal
+ *
+ * @version $Id$
+ * @since  PR-DOM-Level-1-19980818.
+ */
+public class DeferredProcessingInstructionImpl
+    extends ProcessingInstructionImpl 
+    implements DeferredNode {
+
+    //
+    // Constants
+    //
+
+    /** Serialization version. */
+    static final long serialVersionUID = -4643577954293565388L;
+    
+    //
+    // Data
+    //
+
+    /** Node index. */
+    protected transient int fNodeIndex;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * This is the deferred constructor. Only the fNodeIndex is given here. 
+     * All other data, can be requested from the ownerDocument via the index.
+     */
+    DeferredProcessingInstructionImpl(DeferredDocumentImpl ownerDocument,
+                                      int nodeIndex) {
+        super(ownerDocument, null, null);
+
+        fNodeIndex = nodeIndex;
+        needsSyncData(true);
+
+    } // <init>(DeferredDocumentImpl,int)
+
+    //
+    // DeferredNode methods
+    //
+
+    /** Returns the node index. */
+    public int getNodeIndex() {
+        return fNodeIndex;
+    }
+
+    //
+    // Protected methods
+    //
+
+    /** Synchronizes the data. */
+    protected void synchronizeData() {
+
+        // no need to sync in the future
+        needsSyncData(false);
+
+        // fluff data
+        DeferredDocumentImpl ownerDocument =
+            (DeferredDocumentImpl) this.ownerDocument();
+        target  = ownerDocument.getNodeName(fNodeIndex);
+        data = ownerDocument.getNodeValueString(fNodeIndex);
+
+    } // synchronizeData()
+
+} // class DeferredProcessingInstructionImpl
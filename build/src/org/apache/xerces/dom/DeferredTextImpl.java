@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.dom;
+
+/**
+ * Text nodes hold the non-markup, non-Entity content of
+ * an Element or Attribute.
+ * <p>
+ * When a document is first made available to the DOM, there is only
+ * one Text object for each block of adjacent plain-text. Users (ie,
+ * applications) may create multiple adjacent Texts during editing --
+ * see {@link org.w3c.dom.Element#normalize} for discussion.
+ * </p>
+ * <p>
+ * Note that CDATASection is a subclass of Text. This is conceptually
+ * valid, since they're really just two different ways of quoting
+ * characters when they're written out as part of an XML stream.
+ * </p>
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ * @since  PR-DOM-Level-1-19980818.
+ */
+public class DeferredTextImpl
+    extends TextImpl
+    implements DeferredNode {
+
+    //
+    // Constants
+    //
+
+    /** Serialization version. */
+    static final long serialVersionUID = 2310613872100393425L;
+
+    //
+    // Data
+    //
+
+    /** Node index. */
+    protected transient int fNodeIndex;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * This is the deferred constructor. Only the fNodeIndex is given here.
+     * All other data, can be requested from the ownerDocument via the index.
+     */
+    DeferredTextImpl(DeferredDocumentImpl ownerDocument, int nodeIndex) {
+        super(ownerDocument, null);
+
+        fNodeIndex = nodeIndex;
+        needsSyncData(true);
+
+    } // <init>(DeferredDocumentImpl,int)
+
+    //
+    // DeferredNode methods
+    //
+
+    /** Returns the node index. */
+    public int getNodeIndex() {
+        return fNodeIndex;
+    }
+
+    //
+    // Protected methods
+    //
+
+    /** Synchronizes the underlying data. */
+    protected void synchronizeData() {
+
+        // no need for future synchronizations
+        needsSyncData(false);
+
+        // get initial text value
+        DeferredDocumentImpl ownerDocument =
+            (DeferredDocumentImpl) this.ownerDocument();
+        data = ownerDocument.getNodeValueString(fNodeIndex);
+
+        // NOTE: We used to normalize adjacent text node values here.
+        //       This code has moved to the DeferredDocumentImpl
+        //       getNodeValueString() method. -Ac
+
+        // ignorable whitespace
+        isIgnorableWhitespace(ownerDocument.getNodeExtra(fNodeIndex) == 1);
+
+    } // synchronizeData()
+
+} // class DeferredTextImpl
@@ -0,0 +1,410 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import org.apache.xerces.impl.io.ASCIIReader;
+import org.apache.xerces.impl.io.ByteBufferInputStream;
+import org.apache.xerces.impl.io.MalformedByteSequenceException;
+import org.apache.xerces.impl.io.UTF8Reader;
+import org.apache.xerces.impl.msg.XMLMessageFormatter;
+
+/**
+ * An XML 1.0 entity scanner which decodes entities encoded in UTF-8
+ * or US-ASCII directly from the entity's byte stream into its character
+ * buffer. Decoding is performed as part of each buffer load, so the
+ * bytes of the entity are examined once, without a call through the
+ * <code>Reader</code> and without an intermediate copy.
+ * <p>
+ * The reader created by the entity manager is still used to read the
+ * XML or text declaration, during which the input must be consumed
+ * one byte at a time. Direct decoding takes over on the first load
+ * after that, provided the reader holds no input of its own. Entities
+ * in any other encoding are read through their reader as before.
+ * <p>
+ * An entity read from a {@link org.apache.xerces.util.ByteBufferInputSource}
+ * is decoded from the <code>ByteBuffer</code> itself, from its backing
+ * array or from the mapped region of the file, so its bytes are not
+ * copied into a byte array first.
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public class UTF8EntityScanner extends XMLEntityScanner {
+
+    //
+    // Data
+    //
+
+    /** The array holding the bytes read by readBytes. */
+    private byte[] fBytes;
+
+    /** The buffer holding the bytes read by readBytes, if it has no array. */
+    private ByteBuffer fDirectBytes;
+
+    /** The index of the first byte read by readBytes. */
+    private int fBytesOffset;
+
+    //
+    // Constructors
+    //
+
+    /** Default constructor. */
+    public UTF8EntityScanner() {
+        super();
+    } // <init>()
+
+    //
+    // Protected methods
+    //
+
+    /**
+     * Reads characters from the current entity, decoding them
+     * directly from its byte stream if the entity is eligible.
+     */
+    protected int readCharacters(char[] ch, int offset, int length)
+        throws IOException {
+
+        final XMLEntityManager.ScannedEntity entity = fCurrentEntity;
+        if (!entity.directDecoding) {
+            if (!entity.mayReadChunks || entity.stream == null ||
+                entity.getByteBuffer() == null) {
+                return super.readCharacters(ch, offset, length);
+            }
+            final Reader reader = entity.reader;
+            if (!(reader instanceof ASCIIReader) &&
+                !(reader instanceof UTF8Reader && !((UTF8Reader) reader).hasBufferedInput())) {
+                return super.readCharacters(ch, offset, length);
+            }
+            entity.directDecoding = true;
+        }
+        if (length <= 0) {
+            return 0;
+        }
+        if (entity.reader instanceof ASCIIReader) {
+            return decodeASCII(entity, ch, offset, length);
+        }
+        return decodeUTF8(entity, ch, offset, length);
+
+    } // readCharacters(char[],int,int):int
+
+    //
+    // Private methods
+    //
+
+    /**
+     * Reads up to the given number of bytes from the entity's stream. The
+     * bytes are left in <code>fBytes</code>, or in <code>fDirectBytes</code>
+     * if they are in a buffer without a backing array, starting at
+     * <code>fBytesOffset</code>. The bytes of a buffer stream are not
+     * copied: as many as remain in its current buffer, up to the given
+     * number, are consumed and decoded where they are.
+     */
+    private int readBytes(XMLEntityManager.ScannedEntity entity, int length)
+        throws IOException {
+        final ByteBufferInputStream input = entity.getByteBufferInputStream();
+        if (input == null) {
+            fBytes = entity.getByteBuffer();
+            fBytesOffset = 0;
+            return entity.stream.read(fBytes, 0, length);
+        }
+        final ByteBuffer buffer = input.getBuffer();
+        if (buffer == null) {
+            return -1;
+        }
+        final int position = buffer.position();
+        final int count = Math.min(length, buffer.limit() - position);
+        ((Buffer) buffer).position(position + count);
+        if (buffer.hasArray()) {
+            fBytes = buffer.array();
+            fBytesOffset = buffer.arrayOffset() + position;
+        }
+        else {
+            fDirectBytes = buffer;
+            fBytesOffset = position;
+        }
+        return count;
+    } // readBytes(ScannedEntity,int):int
+
+    /** Decodes US-ASCII bytes from the entity's stream. */
+    private int decodeASCII(XMLEntityManager.ScannedEntity entity,
+            char[] ch, int offset, int length) throws IOException {
+        if (length > entity.getByteBuffer().length) {
+            length = entity.getByteBuffer().length;
+        }
+        final int count = readBytes(entity, length);
+        final byte[] bytes = fBytes;
+        final ByteBuffer direct = fDirectBytes;
+        final int base = fBytesOffset;
+        fBytes = null;
+        fDirectBytes = null;
+        for (int i = 0; i < count; ++i) {
+            final int b0 = (bytes != null) ? bytes[base + i] : direct.get(base + i);
+            if (b0 < 0) {
+                throw new MalformedByteSequenceException(
+                    fErrorReporter.getMessageFormatter(XMLMessageFormatter.XML_DOMAIN),
+                    fErrorReporter.getLocale(), XMLMessageFormatter.XML_DOMAIN,
+                    "InvalidASCII", new Object [] {Integer.toString(b0 & 0x0FF)});
+            }
+            ch[offset + i] = (char) b0;
+        }
+        return count;
+    } // decodeASCII(ScannedEntity,char[],int,int):int
+
+    /**
+     * Decodes UTF-8 bytes from the entity's stream, reading them the way
+     * UTF8Reader does so that the characters are returned in the same
+     * pieces and errors are reported at the same point: at most one
+     * buffer of bytes is read per call, a sequence which runs past the
+     * bytes read is completed with single byte reads, and a malformed
+     * sequence which follows decoded characters is kept at the start of
+     * the byte buffer and reported by the next call.
+     */
+    private int decodeUTF8(XMLEntityManager.ScannedEntity entity,
+            char[] ch, int offset, int length) throws IOException {
+
+        final InputStream stream = entity.stream;
+        byte[] bytes = entity.getByteBuffer();
+        ByteBuffer direct = null;
+        int base = 0;
+        int out = offset;
+        int total;
+        if (entity.byteCount == 0) {
+            if (length > bytes.length) {
+                length = bytes.length;
+            }
+            if (entity.surrogate != -1) {
+                ch[out++] = (char) entity.surrogate;
+                entity.surrogate = -1;
+                length--;
+            }
+            total = readBytes(entity, length);
+            if (total == -1) {
+                // the low surrogate may be the last character
+                return (out > offset) ? out - offset : -1;
+            }
+            bytes = fBytes;
+            direct = fDirectBytes;
+            base = fBytesOffset;
+            fBytes = null;
+            fDirectBytes = null;
+        }
+        else {
+            // the malformed sequence kept by the previous call
+            total = entity.byteCount;
+            entity.byteCount = 0;
+        }
+
+        int in = 0;
+        while (in < total) {
+            int b0 = (bytes != null) ? bytes[base + in] : direct.get(base + in);
+
+            // UTF-8:   [0xxx xxxx]
+            // Unicode: [0000 0000] [0xxx xxxx]
+            if (b0 >= 0) {
+                if (bytes != null) {
+                    final int end = in + asciiRunLength(bytes, base + in, base + total);
+                    for (; in < end; ++in) {
+                        ch[out++] = (char) bytes[base + in];
+                    }
+                }
+                else {
+                    do {
+                        ch[out++] = (char) b0;
+                    }
+                    while (++in < total && (b0 = direct.get(base + in)) >= 0);
+                }
+                continue;
+            }
+            b0 &= 0xFF;
+
+            // UTF-8:   [110y yyyy] [10xx xxxx]
+            // UTF-8:   [1110 zzzz] [10yy yyyy] [10xx xxxx]
+            // UTF-8:   [1111 0uuu] [10uu zzzz] [10yy yyyy] [10xx xxxx]
+            final int needed;
+            if ((b0 & 0xE0) == 0xC0 && (b0 & 0x1E) != 0) {
+                needed = 2;
+            }
+            else if ((b0 & 0xF0) == 0xE0) {
+                needed = 3;
+            }
+            else if ((b0 & 0xF8) == 0xF0) {
+                needed = 4;
+            }
+            else {
+                if (out > offset) {
+                    return keepBytes(entity, 1, b0, 0, 0, 0, out - offset);
+                }
+                invalidByte(1, 1);
+                return -1;
+            }
+
+            // read and check the following bytes
+            int b1 = 0;
+            int b2 = 0;
+            int b3 = 0;
+            for (int position = 2; position <= needed; ++position) {
+                int b;
+                if (++in < total) {
+                    b = ((bytes != null) ? bytes[base + in] : direct.get(base + in)) & 0xFF;
+                }
+                else {
+                    b = stream.read();
+                    if (b == -1) {
+                        if (out > offset) {
+                            return keepBytes(entity, position - 1, b0, b1, b2, b3, out - offset);
+                        }
+                        expectedByte(position, needed);
+                    }
+                }
+                boolean valid = (b & 0xC0) == 0x80;
+                if (position == 2) {
+                    if (needed == 3) {
+                        valid = valid && !(b0 == 0xED && b >= 0xA0) &&
+                            !((b0 & 0x0F) == 0 && (b & 0x20) == 0);
+                    }
+                    else if (needed == 4) {
+                        valid = valid && !((b & 0x30) == 0 && (b0 & 0x07) == 0);
+                    }
+                    b1 = b;
+                }
+                else if (position == 3) {
+                    b2 = b;
+                }
+                else {
+                    b3 = b;
+                }
+                if (!valid) {
+                    if (out > offset) {
+                        return keepBytes(entity, position, b0, b1, b2, b3, out - offset);
+                    }
+                    invalidByte(position, needed);
+                }
+            }
+            ++in;
+
+            // Unicode: [0000 0yyy] [yyxx xxxx]
+            if (needed == 2) {
+                ch[out++] = (char) (((b0 << 6) & 0x07C0) | (b1 & 0x003F));
+                continue;
+            }
+
+            // Unicode: [zzzz yyyy] [yyxx xxxx]
+            if (needed == 3) {
+                ch[out++] = (char) (((b0 << 12) & 0xF000) |
+                    ((b1 << 6) & 0x0FC0) | (b2 & 0x003F));
+                continue;
+            }
+
+            // Unicode: [1101 10ww] [wwzz zzyy] (high surrogate)
+            //          [1101 11yy] [yyxx xxxx] (low surrogate)
+            //          * uuuuu = wwww + 1
+            final int uuuuu = ((b0 << 2) & 0x001C) | ((b1 >> 4) & 0x0003);
+            if (uuuuu > 0x10) {
+                if (out > offset) {
+                    return keepBytes(entity, 4, b0, b1, b2, b3, out - offset);
+                }
+                invalidSurrogate(uuuuu);
+            }
+            final int wwww = uuuuu - 1;
+            ch[out++] = (char) (0xD800 | ((wwww << 6) & 0x03C0) |
+                ((b1 << 2) & 0x003C) | ((b2 >> 4) & 0x0003));
+            final int ls = 0xDC00 | ((b2 << 6) & 0x03C0) | (b3 & 0x003F);
+            // keep the low surrogate for the next call if the characters
+            // still to be decoded from this buffer might not fit
+            if (out - offset + 1 + Math.max(total - in, 0) <= length) {
+                ch[out++] = (char) ls;
+            }
+            else {
+                entity.surrogate = ls;
+            }
+        }
+        return out - offset;
+
+    } // decodeUTF8(ScannedEntity,char[],int,int):int
+
+    /**
+     * Keeps the bytes of a malformed sequence at the start of the byte
+     * buffer, so that the next call reports it, and returns the number
+     * of characters decoded before it.
+     */
+    private static int keepBytes(XMLEntityManager.ScannedEntity entity, int count,
+            int b0, int b1, int b2, int b3, int decoded) {
+        final byte[] buffer = entity.getByteBuffer();
+        buffer[0] = (byte) b0;
+        buffer[1] = (byte) b1;
+        buffer[2] = (byte) b2;
+        buffer[3] = (byte) b3;
+        entity.byteCount = count;
+        return decoded;
+    } // keepBytes(ScannedEntity,int,int,int,int,int,int):int
+
+    /**
+     * Returns the length of the run of ASCII bytes in the buffer
+     * starting at the given position.
+     */
+    private static int asciiRunLength(byte[] buffer, int from, int to) {
+        int i = from;
+        for (final int end = to - 7; i < end; i += 8) {
+            if ((buffer[i] | buffer[i + 1] | buffer[i + 2] | buffer[i + 3] |
+                buffer[i + 4] | buffer[i + 5] | buffer[i + 6] | buffer[i + 7]) < 0) {
+                break;
+            }
+        }
+        while (i < to && buffer[i] >= 0) {
+            ++i;
+        }
+        return i - from;
+    } // asciiRunLength(byte[],int,int):int
+
+    /** Throws an exception for expected byte. */
+    private void expectedByte(int position, int count)
+        throws MalformedByteSequenceException {
+        throw new MalformedByteSequenceException(
+            fErrorReporter.getMessageFormatter(XMLMessageFormatter.XML_DOMAIN),
+            fErrorReporter.getLocale(), XMLMessageFormatter.XML_DOMAIN,
+            "ExpectedByte",
+            new Object[] {Integer.toString(position), Integer.toString(count)});
+    } // expectedByte(int,int)
+
+    /** Throws an exception for invalid byte. */
+    private void invalidByte(int position, int count)
+        throws MalformedByteSequenceException {
+        throw new MalformedByteSequenceException(
+            fErrorReporter.getMessageFormatter(XMLMessageFormatter.XML_DOMAIN),
+            fErrorReporter.getLocale(), XMLMessageFormatter.XML_DOMAIN,
+            "InvalidByte",
+            new Object [] {Integer.toString(position), Integer.toString(count)});
+    } // invalidByte(int,int)
+
+    /** Throws an exception for invalid surrogate bits. */
+    private void invalidSurrogate(int uuuuu) throws MalformedByteSequenceException {
+        throw new MalformedByteSequenceException(
+            fErrorReporter.getMessageFormatter(XMLMessageFormatter.XML_DOMAIN),
+            fErrorReporter.getLocale(), XMLMessageFormatter.XML_DOMAIN,
+            "InvalidHighSurrogate",
+            new Object[] {Integer.toHexString(uuuuu)});
+    } // invalidSurrogate(int)
+
+} // class UTF8EntityScanner
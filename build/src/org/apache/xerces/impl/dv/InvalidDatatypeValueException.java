@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.dv;
+
+/**
+ * Datatype exception for invalid values.
+ *
+ * @xerces.internal 
+ *
+ * @author Sandy Gao, IBM
+ *
+ * @version $Id$
+ */
+public class InvalidDatatypeValueException extends DatatypeException {
+
+    /** Serialization version. */
+    static final long serialVersionUID = -5523739426958236125L;
+    
+    /**
+     * Create a new datatype exception by providing an error code and a list
+     * of error message substitution arguments.
+     *
+     * @param key  error code
+     * @param args error arguments
+     */
+    public InvalidDatatypeValueException(String key, Object[] args) {
+        super(key, args);
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.dv.dtd;
+
+import org.apache.xerces.impl.dv.InvalidDatatypeValueException;
+import org.apache.xerces.impl.dv.ValidationContext;
+import org.apache.xerces.util.XML11Char;
+
+/**
+ * <p>IDDatatypeValidator - ID represents the ID attribute
+ * type from XML 1.1 Recommendation. The value space
+ * of ID is the set of all strings that match the
+ * NCName production and have been used in an XML
+ * document. The lexical space of ID is the set of all
+ * strings that match the NCName production.</p>
+ * <p>The value space of ID is scoped to a specific
+ * instance document.</p>
+ * <p>The following constraint applies:
+ * An ID must not appear more than once in an XML
+ * document as a value of this type; i.e., ID values
+ * must uniquely identify the elements which bear
+ * them.</p>
+ * 
+ * @xerces.internal  
+ * 
+ * @author Jeffrey Rodriguez, IBM
+ * @author Sandy Gao, IBM
+ * @author Neil Graham, IBM
+ * 
+ * @version $Id$
+ */
+public class XML11IDDatatypeValidator extends IDDatatypeValidator {
+
+    // construct an ID datatype validator
+    public XML11IDDatatypeValidator() {
+        super();
+    }
+
+    /**
+     * Checks that "content" string is valid ID value.
+     * If invalid, a Datatype validation exception is thrown.
+     * 
+     * @param content the string value that needs to be validated
+     * @param context the validation context
+     * @throws InvalidDatatypeValueException if the content is invalid according to the rules for the validators
+     */
+    public void validate(String content, ValidationContext context) throws InvalidDatatypeValueException {
+
+        //Check if is valid key-[81] EncName ::= [A-Za-z] ([A-Za-z0-9._] | '-')*
+        if(context.useNamespaces()) {
+            if (!XML11Char.isXML11ValidNCName(content)) {
+                throw new InvalidDatatypeValueException("IDInvalidWithNamespaces", new Object[]{content});
+            }
+        }
+        else {
+            if (!XML11Char.isXML11ValidName(content)) {
+                throw new InvalidDatatypeValueException("IDInvalid", new Object[]{content});
+            }
+        }
+
+        if (context.isIdDeclared(content)) {
+            throw new InvalidDatatypeValueException("IDNotUnique", new Object[]{content});
+        }
+        
+        context.addId(content);
+    }
+    
+}
+
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.io;
+
+import java.io.IOException;
+
+/**
+ * <p>Signals that a read from a {@link FeedInputStream} could not be
+ * satisfied because the bytes it requires have not been fed yet. The
+ * stream is left unchanged, so the read can be retried once more input
+ * has arrived.</p>
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class InputPendingException extends IOException {
+
+    /** Serialization version. */
+    static final long serialVersionUID = -3146387437271652717L;
+
+    //
+    // Constructors
+    //
+
+    /** Default constructor. */
+    public InputPendingException() {
+        super();
+    } // <init>()
+
+} // class InputPendingException
@@ -0,0 +1,351 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+
+/**
+ * <p>A reader which reads and decodes its input on a helper thread,
+ * ahead of the thread consuming the characters.</p>
+ *
+ * <p>The helper thread fills a bounded ring of character buffers from
+ * the underlying reader. The consuming thread takes characters from
+ * the buffer at the head of the ring and only blocks when the ring is
+ * empty, so reading from a slow stream and decoding overlap with the
+ * work done on the characters already read. An exception thrown by the
+ * underlying reader is rethrown to the consumer once the characters read
+ * before it have been consumed.</p>
+ *
+ * <p>This reader must only be read by one thread at a time.</p>
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class ReadAheadReader
+    extends Reader implements Runnable {
+
+    //
+    // Constants
+    //
+
+    /**
+     * Number of milliseconds close() waits for the helper thread
+     * to stop after the underlying reader has been closed.
+     */
+    public static final long CLOSE_TIMEOUT = 100;
+
+    //
+    // Data
+    //
+
+    /** The underlying reader. */
+    private final Reader fReader;
+
+    /** Ring of character buffers. */
+    private final char[][] fBuffers;
+
+    /** Number of characters in each buffer of the ring. */
+    private final int[] fCounts;
+
+    /** Index of the buffer being consumed. */
+    private int fHead;
+
+    /** Index of the buffer being filled. */
+    private int fTail;
+
+    /** Number of filled buffers. */
+    private int fFilled;
+
+    /** Offset of the next character in the buffer being consumed. */
+    private int fOffset;
+
+    /** True if the end of the underlying reader has been reached. */
+    private boolean fEOF;
+
+    /** True if this reader has been closed. */
+    private boolean fClosed;
+
+    /** Exception thrown by the underlying reader. */
+    private Throwable fException;
+
+    /** The helper thread. */
+    private final Thread fThread;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs a read-ahead reader and starts its helper thread.
+     *
+     * @param reader     The underlying reader.
+     * @param bufferSize The size of each character buffer.
+     * @param depth      The number of buffers which may be filled
+     *                   ahead of the consumer.
+     */
+    public ReadAheadReader(Reader reader, int bufferSize, int depth) {
+        fReader = reader;
+        fBuffers = new char[depth][bufferSize];
+        fCounts = new int[depth];
+        fThread = new Thread(this, "Xerces read-ahead");
+        fThread.setDaemon(true);
+        fThread.start();
+    } // <init>(Reader,int,int)
+
+    //
+    // Runnable methods
+    //
+
+    /** Fills the ring from the underlying reader. */
+    public void run() {
+        final int depth = fBuffers.length;
+        try {
+            while (true) {
+                int tail;
+                synchronized (this) {
+                    while (fFilled == depth && !fClosed) {
+                        wait();
+                    }
+                    if (fClosed) {
+                        return;
+                    }
+                    tail = fTail;
+                }
+                // the consumer does not touch the tail buffer
+                // until it has been handed off
+                final char[] buffer = fBuffers[tail];
+                int count = 0;
+                while (count == 0) {
+                    count = fReader.read(buffer, 0, buffer.length);
+                }
+                synchronized (this) {
+                    if (count == -1) {
+                        fEOF = true;
+                        notifyAll();
+                        return;
+                    }
+                    fCounts[tail] = count;
+                    fTail = (tail + 1) % depth;
+                    fFilled++;
+                    notifyAll();
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            synchronized (this) {
+                fException = new InterruptedIOException();
+                notifyAll();
+            }
+        }
+        catch (Throwable e) {
+            synchronized (this) {
+                fException = e;
+                notifyAll();
+            }
+        }
+    } // run()
+
+    //
+    // Reader methods
+    //
+
+    /**
+     * Read a single character.
+     *
+     * @return     The character read, or -1 if the end of the stream has
+     *             been reached
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public int read() throws IOException {
+        if (!await()) {
+            return -1;
+        }
+        final char c = fBuffers[fHead][fOffset];
+        consumed(1);
+        return c;
+    } // read():int
+
+    /**
+     * Read characters into a portion of an array.  This method will block
+     * until some input is available, an I/O error occurs, or the end of the
+     * stream is reached.
+     *
+     * @param      ch     Destination buffer
+     * @param      offset Offset at which to start storing characters
+     * @param      length Maximum number of characters to read
+     *
+     * @return     The number of characters read, or -1 if the end of the
+     *             stream has been reached
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public int read(char ch[], int offset, int length) throws IOException {
+        if (length <= 0) {
+            return 0;
+        }
+        if (!await()) {
+            return -1;
+        }
+        final int available = fCounts[fHead] - fOffset;
+        if (length > available) {
+            length = available;
+        }
+        System.arraycopy(fBuffers[fHead], fOffset, ch, offset, length);
+        consumed(length);
+        return length;
+    } // read(char[],int,int)
+
+    /**
+     * Skip characters.  This method will block until some characters are
+     * available, an I/O error occurs, or the end of the stream is reached.
+     *
+     * @param  n  The number of characters to skip
+     *
+     * @return    The number of characters actually skipped
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public long skip(long n) throws IOException {
+        if (n <= 0 || !await()) {
+            return 0;
+        }
+        int length = fCounts[fHead] - fOffset;
+        if (n < length) {
+            length = (int) n;
+        }
+        consumed(length);
+        return length;
+    } // skip(long):long
+
+    /**
+     * Tell whether this stream is ready to be read.
+     *
+     * @return True if the next read() is guaranteed not to block for input,
+     * false otherwise.  Note that returning false does not guarantee that the
+     * next read will block.
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public synchronized boolean ready() throws IOException {
+        return fFilled > 0;
+    } // ready()
+
+    /**
+     * Close the stream. The underlying reader is closed first, so that
+     * a helper thread blocked reading from it is released, and the
+     * helper thread is then given CLOSE_TIMEOUT milliseconds to stop.
+     * If the underlying input does not release it, this method returns
+     * anyway and {@link #isStopped()} returns false: the buffers of the
+     * underlying reader may then still be written to by the helper
+     * thread and must not be reused.
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public void close() throws IOException {
+        synchronized (this) {
+            if (fClosed) {
+                return;
+            }
+            fClosed = true;
+            notifyAll();
+        }
+        fThread.interrupt();
+        try {
+            fReader.close();
+        }
+        finally {
+            boolean interrupted = false;
+            final long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT;
+            long timeout = CLOSE_TIMEOUT;
+            while (fThread.isAlive() && timeout > 0) {
+                try {
+                    fThread.join(timeout);
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+                timeout = deadline - System.currentTimeMillis();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    } // close()
+
+    //
+    // Public methods
+    //
+
+    /** Returns true if the helper thread has stopped. */
+    public boolean isStopped() {
+        return !fThread.isAlive();
+    } // isStopped():boolean
+
+    //
+    // Private methods
+    //
+
+    /**
+     * Waits until there is a filled buffer to consume. Returns false
+     * if the end of the input has been reached.
+     */
+    private synchronized boolean await() throws IOException {
+        try {
+            while (fFilled == 0 && !fEOF && fException == null && !fClosed) {
+                wait();
+            }
+        }
+        catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+        if (fFilled > 0) {
+            return true;
+        }
+        if (fException instanceof IOException) {
+            throw (IOException) fException;
+        }
+        if (fException instanceof RuntimeException) {
+            throw (RuntimeException) fException;
+        }
+        if (fException instanceof Error) {
+            throw (Error) fException;
+        }
+        return false;
+    } // await():boolean
+
+    /**
+     * Advances past characters in the head buffer, handing
+     * the buffer back to the helper thread once it is empty.
+     */
+    private void consumed(int length) {
+        fOffset += length;
+        if (fOffset == fCounts[fHead]) {
+            fOffset = 0;
+            synchronized (this) {
+                fHead = (fHead + 1) % fBuffers.length;
+                fFilled--;
+                notifyAll();
+            }
+        }
+    } // consumed(int)
+
+} // class ReadAheadReader
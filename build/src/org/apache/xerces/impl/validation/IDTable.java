@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * The IDs and IDREFs of a validation root, held in a single open addressed
+ * hash table. Each name is stored once, with flags telling whether it was
+ * declared as an ID and referenced as an IDREF, so that no entry objects
+ * are allocated. An IDREF is resolved as soon as its ID is declared, and
+ * the table counts the IDREFs which are not, so that the check at the end
+ * of the validation root is immediate when all of them are.
+ * <p>
+ * The arrays are kept when the table is cleared, unless they grew too
+ * large, so that a parser which is reused does not allocate them again.
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+final class IDTable {
+
+    //
+    // Constants
+    //
+
+    /** Flag set on names declared as IDs. */
+    private static final byte ID = 0x01;
+
+    /** Flag set on names referenced as IDREFs. */
+    private static final byte IDREF = 0x02;
+
+    /** Initial number of names the table can hold. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Largest number of names for which the arrays are kept on clear. */
+    private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+
+    //
+    // Data
+    //
+
+    /** The names, in the order they were added. */
+    private String[] fNames = new String[INITIAL_CAPACITY];
+
+    /** The flags of the names. */
+    private byte[] fFlags = new byte[INITIAL_CAPACITY];
+
+    /** Number of names. */
+    private int fCount = 0;
+
+    /**
+     * The hash table, holding the index of a name plus one, or zero for
+     * an empty slot. It has twice as many slots as the names it can hold.
+     */
+    private int[] fSlots = new int[INITIAL_CAPACITY * 2];
+
+    /** Number of IDREFs without a matching ID. */
+    private int fUnresolvedCount = 0;
+
+    //
+    // Public methods
+    //
+
+    /** Returns true if the name was declared as an ID. */
+    public boolean containsId(String name) {
+        final int index = fSlots[findSlot(name)] - 1;
+        return index >= 0 && (fFlags[index] & ID) != 0;
+    } // containsId(String):boolean
+
+    /** Declares the name as an ID, resolving the IDREFs to it. */
+    public void addId(String name) {
+        final int index = addName(name);
+        final byte flags = fFlags[index];
+        if (flags == IDREF) {
+            --fUnresolvedCount;
+        }
+        fFlags[index] = (byte) (flags | ID);
+    } // addId(String)
+
+    /** References the name as an IDREF. */
+    public void addIdRef(String name) {
+        final int index = addName(name);
+        final byte flags = fFlags[index];
+        if (flags == 0) {
+            ++fUnresolvedCount;
+        }
+        fFlags[index] = (byte) (flags | IDREF);
+    } // addIdRef(String)
+
+    /**
+     * Returns null if all IDREFs have a matching ID; otherwise returns an
+     * iterator over the IDREFs without one, in the order they were first
+     * referenced.
+     */
+    public Iterator getUnresolvedIdRefs() {
+        if (fUnresolvedCount == 0) {
+            return null;
+        }
+        final ArrayList names = new ArrayList(fUnresolvedCount);
+        for (int i = 0; i < fCount; ++i) {
+            if (fFlags[i] == IDREF) {
+                names.add(fNames[i]);
+            }
+        }
+        return names.iterator();
+    } // getUnresolvedIdRefs():Iterator
+
+    /** Removes all the names. */
+    public void clear() {
+        if (fNames.length > MAX_RETAINED_CAPACITY) {
+            fNames = new String[INITIAL_CAPACITY];
+            fFlags = new byte[INITIAL_CAPACITY];
+            fSlots = new int[INITIAL_CAPACITY * 2];
+        }
+        else if (fCount > 0) {
+            Arrays.fill(fNames, 0, fCount, null);
+            Arrays.fill(fFlags, 0, fCount, (byte) 0);
+            Arrays.fill(fSlots, 0);
+        }
+        fCount = 0;
+        fUnresolvedCount = 0;
+    } // clear()
+
+    //
+    // Private methods
+    //
+
+    /** Returns the index of the name, adding it if it is not there. */
+    private int addName(String name) {
+        int slot = findSlot(name);
+        if (fSlots[slot] != 0) {
+            return fSlots[slot] - 1;
+        }
+        if (fCount == fNames.length) {
+            grow();
+            slot = findSlot(name);
+        }
+        fNames[fCount] = name;
+        fSlots[slot] = ++fCount;
+        return fCount - 1;
+    } // addName(String):int
+
+    /** Returns the slot of the name, or the empty slot where it belongs. */
+    private int findSlot(String name) {
+        final int mask = fSlots.length - 1;
+        int hash = name.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        int index;
+        while ((index = fSlots[slot]) != 0 && !name.equals(fNames[index - 1])) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    } // findSlot(String):int
+
+    /** Doubles the capacity of the table. */
+    private void grow() {
+        final int capacity = fNames.length * 2;
+        final String[] names = new String[capacity];
+        System.arraycopy(fNames, 0, names, 0, fCount);
+        fNames = names;
+        final byte[] flags = new byte[capacity];
+        System.arraycopy(fFlags, 0, flags, 0, fCount);
+        fFlags = flags;
+        fSlots = new int[capacity * 2];
+        for (int i = 0; i < fCount; ++i) {
+            fSlots[findSlot(fNames[i])] = i + 1;
+        }
+    } // grow()
+
+} // class IDTable
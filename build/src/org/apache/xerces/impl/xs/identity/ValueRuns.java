@@ -0,0 +1,520 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.xs.identity;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.xerces.xs.ShortList;
+
+/**
+ * The value tuples of an identity constraint which did not fit in memory,
+ * stored in temporary files as runs sorted by the hash codes of the
+ * tuples. Runs are merged by levels: once there are enough runs of the
+ * same size, they are merged into one of the next level. The
+ * tuples of all the runs, together with the tuples still in memory, can
+ * be read back in the order of their hash codes, so that equal tuples
+ * are read next to one another.
+ * <p>
+ * Tuples with the same hash code are read in the order in which they
+ * were stored, provided the tuples still in memory are the last ones.
+ * The temporary files are added to a list of files, from which they are
+ * removed when deleted. The owner of the list deletes the files which
+ * are left once they are no longer needed.
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class ValueRuns {
+
+    //
+    // Constants
+    //
+
+    /** Number of runs of the same level merged into one. */
+    private static final int MERGE_FACTOR = 16;
+
+    /** Number of runs at which all the runs are merged into one. */
+    private static final int MAX_RUNS = 64;
+
+    /** Number of tuples after which the object streams are reset. */
+    private static final int RESET_INTERVAL = 1024;
+
+    /** Size of the buffers of the files. */
+    private static final int BUFFER_SIZE = 8192;
+
+    //
+    // Data
+    //
+
+    /** The number of fields of each tuple. */
+    private final int fFieldCount;
+
+    /** The temporary files holding runs. */
+    private final List fFiles;
+
+    /** The runs, from the oldest to the newest. */
+    private final ArrayList fRuns = new ArrayList();
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs an empty set of runs.
+     *
+     * @param fieldCount the number of fields of each tuple
+     * @param files the list to which the temporary files are added
+     */
+    public ValueRuns(int fieldCount, List files) {
+        fFieldCount = fieldCount;
+        fFiles = files;
+    } // <init>(int,List)
+
+    //
+    // Public methods
+    //
+
+    /** Returns true if no tuples have been stored. */
+    public boolean isEmpty() {
+        return fRuns.isEmpty();
+    } // isEmpty():boolean
+
+    /**
+     * Stores tuples as a new run, merging the runs as needed.
+     *
+     * @param tuples the tuples, sorted
+     */
+    public void addRun(Tuples tuples) throws IOException {
+        final Run run = createRun();
+        final ObjectOutputStream out = run.openOutput();
+        try {
+            for (int i = 0; i < tuples.fCount; ++i) {
+                tuples.write(out, i);
+                if ((i + 1) % RESET_INTERVAL == 0) {
+                    out.reset();
+                }
+            }
+            run.fCount = tuples.fCount;
+        }
+        finally {
+            out.close();
+        }
+        fRuns.add(run);
+        mergeRuns();
+    } // addRun(Tuples)
+
+    /**
+     * Adds the runs of another set of runs to these runs. Both sets then
+     * share the files of these runs, which are never deleted by either
+     * of them.
+     */
+    public void addAll(ValueRuns runs) throws IOException {
+        for (int i = 0; i < runs.fRuns.size(); ++i) {
+            final Run run = (Run) runs.fRuns.get(i);
+            run.fShared = true;
+            fRuns.add(run);
+        }
+        mergeRuns();
+    } // addAll(ValueRuns)
+
+    /**
+     * Opens a cursor over all the tuples of the runs, followed by the
+     * given tuples, in the order of their hash codes.
+     *
+     * @param tuples the tuples still in memory, sorted, or null
+     */
+    public Cursor open(Tuples tuples) throws IOException {
+        return new Cursor(fRuns, tuples);
+    } // open(Tuples):Cursor
+
+    /** Forgets the runs, deleting the files which are not shared. */
+    public void clear() {
+        for (int i = 0; i < fRuns.size(); ++i) {
+            ((Run) fRuns.get(i)).delete();
+        }
+        fRuns.clear();
+    } // clear()
+
+    //
+    // Private methods
+    //
+
+    /**
+     * Merges the newest runs while they are enough of the same level,
+     * or all the runs if there are too many of them.
+     */
+    private void mergeRuns() throws IOException {
+        if (fRuns.size() >= MAX_RUNS) {
+            merge(0, fRuns.size());
+        }
+        int size;
+        while ((size = fRuns.size()) >= MERGE_FACTOR) {
+            final int level = ((Run) fRuns.get(size - 1)).fLevel;
+            for (int i = size - MERGE_FACTOR; i < size - 1; ++i) {
+                if (((Run) fRuns.get(i)).fLevel != level) {
+                    return;
+                }
+            }
+            merge(size - MERGE_FACTOR, size);
+        }
+    } // mergeRuns()
+
+    /**
+     * Merges a range of runs into one. As the runs are merged from the
+     * oldest to the newest, so are the tuples with the same hash code.
+     */
+    private void merge(int from, int to) throws IOException {
+        final List runs = fRuns.subList(from, to);
+        final Run merged = createRun();
+        final ObjectOutputStream out = merged.openOutput();
+        final Cursor cursor = new Cursor(runs, null);
+        int count = 0;
+        int level = 0;
+        try {
+            while (cursor.next()) {
+                cursor.write(out);
+                if (++count % RESET_INTERVAL == 0) {
+                    out.reset();
+                }
+            }
+            merged.fCount = count;
+        }
+        finally {
+            cursor.close();
+            out.close();
+        }
+        for (int i = 0; i < runs.size(); ++i) {
+            final Run run = (Run) runs.get(i);
+            level = Math.max(level, run.fLevel + 1);
+            run.delete();
+        }
+        runs.clear();
+        merged.fLevel = level;
+        fRuns.add(from, merged);
+    } // merge(int,int)
+
+    private Run createRun() throws IOException {
+        final File file = File.createTempFile("xerces-idc", ".run");
+        fFiles.add(file);
+        return new Run(file);
+    } // createRun():Run
+
+    //
+    // Classes
+    //
+
+    /**
+     * Tuples held in memory, with their hash codes. The tuples can be
+     * sorted by hash code, keeping tuples with the same hash code in the
+     * order in which they were added.
+     */
+    public static final class Tuples {
+
+        private final int fFieldCount;
+        private int fCount = 0;
+        private int[] fHashes;
+        private Object[] fValues;
+        private short[] fValueTypes;
+        private ShortList[] fItemValueTypes;
+
+        /** Constructs an empty list of tuples. */
+        public Tuples(int fieldCount, int capacity) {
+            fFieldCount = fieldCount;
+            capacity = Math.max(capacity, 1);
+            fHashes = new int[capacity];
+            fValues = new Object[capacity * fieldCount];
+            fValueTypes = new short[capacity * fieldCount];
+            fItemValueTypes = new ShortList[capacity * fieldCount];
+        } // <init>(int,int)
+
+        /** Adds a tuple, whose arrays are copied. */
+        public void add(int hash, Object[] values, short[] valueTypes, ShortList[] itemValueTypes) {
+            if (fCount == fHashes.length) {
+                final int capacity = fCount << 1;
+                final int[] hashes = new int[capacity];
+                System.arraycopy(fHashes, 0, hashes, 0, fCount);
+                fHashes = hashes;
+                final Object[] newValues = new Object[capacity * fFieldCount];
+                System.arraycopy(fValues, 0, newValues, 0, fCount * fFieldCount);
+                fValues = newValues;
+                final short[] types = new short[capacity * fFieldCount];
+                System.arraycopy(fValueTypes, 0, types, 0, fCount * fFieldCount);
+                fValueTypes = types;
+                final ShortList[] itemTypes = new ShortList[capacity * fFieldCount];
+                System.arraycopy(fItemValueTypes, 0, itemTypes, 0, fCount * fFieldCount);
+                fItemValueTypes = itemTypes;
+            }
+            final int start = fCount * fFieldCount;
+            fHashes[fCount] = hash;
+            System.arraycopy(values, 0, fValues, start, fFieldCount);
+            System.arraycopy(valueTypes, 0, fValueTypes, start, fFieldCount);
+            System.arraycopy(itemValueTypes, 0, fItemValueTypes, start, fFieldCount);
+            ++fCount;
+        } // add(int,Object[],short[],ShortList[])
+
+        /** Sorts the tuples by hash code. */
+        public void sort() {
+            // the index in the low bits keeps the order of equal hash codes
+            final long[] keys = new long[fCount];
+            for (int i = 0; i < fCount; ++i) {
+                keys[i] = ((long) fHashes[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            final int[] hashes = new int[fHashes.length];
+            final Object[] values = new Object[fValues.length];
+            final short[] types = new short[fValueTypes.length];
+            final ShortList[] itemTypes = new ShortList[fItemValueTypes.length];
+            for (int i = 0; i < fCount; ++i) {
+                final int index = (int) keys[i];
+                hashes[i] = fHashes[index];
+                System.arraycopy(fValues, index * fFieldCount, values, i * fFieldCount, fFieldCount);
+                System.arraycopy(fValueTypes, index * fFieldCount, types, i * fFieldCount, fFieldCount);
+                System.arraycopy(fItemValueTypes, index * fFieldCount, itemTypes, i * fFieldCount, fFieldCount);
+            }
+            fHashes = hashes;
+            fValues = values;
+            fValueTypes = types;
+            fItemValueTypes = itemTypes;
+        } // sort()
+
+        private void write(ObjectOutputStream out, int index) throws IOException {
+            out.writeInt(fHashes[index]);
+            final int start = index * fFieldCount;
+            for (int k = 0; k < fFieldCount; ++k) {
+                out.writeObject(fValues[start + k]);
+                out.writeShort(fValueTypes[start + k]);
+                out.writeObject(fItemValueTypes[start + k]);
+            }
+        } // write(ObjectOutputStream,int)
+
+    } // class Tuples
+
+    /**
+     * Reads the tuples of the runs and of the tuples in memory in the
+     * order of their hash codes. The arrays returned hold the current
+     * tuple, and are overwritten by the next one.
+     */
+    public final class Cursor {
+
+        /** The readers of the runs, then of the tuples in memory. */
+        private final Source[] fSources;
+
+        /** The source of the current tuple. */
+        private Source fCurrent = null;
+
+        private Cursor(List runs, Tuples tuples) throws IOException {
+            final int count = runs.size() + (tuples != null ? 1 : 0);
+            fSources = new Source[count];
+            try {
+                for (int i = 0; i < runs.size(); ++i) {
+                    fSources[i] = new RunSource((Run) runs.get(i));
+                    fSources[i].next();
+                }
+                if (tuples != null) {
+                    fSources[count - 1] = new TuplesSource(tuples);
+                    fSources[count - 1].next();
+                }
+            }
+            catch (IOException e) {
+                close();
+                throw e;
+            }
+        } // <init>(List,Tuples)
+
+        /** Moves to the next tuple, returning false at the end. */
+        public boolean next() throws IOException {
+            if (fCurrent != null) {
+                fCurrent.next();
+            }
+            // the oldest source wins among equal hash codes
+            fCurrent = null;
+            for (int i = 0; i < fSources.length; ++i) {
+                final Source source = fSources[i];
+                if (source.fHasTuple && (fCurrent == null || source.fHash < fCurrent.fHash)) {
+                    fCurrent = source;
+                }
+            }
+            return fCurrent != null;
+        } // next():boolean
+
+        /** Returns the hash code of the current tuple. */
+        public int getHash() {
+            return fCurrent.fHash;
+        } // getHash():int
+
+        /** Returns the values of the current tuple. */
+        public Object[] getValues() {
+            return fCurrent.fValues;
+        } // getValues():Object[]
+
+        /** Returns the types of the values of the current tuple. */
+        public short[] getValueTypes() {
+            return fCurrent.fValueTypes;
+        } // getValueTypes():short[]
+
+        /** Returns the item types of the values of the current tuple. */
+        public ShortList[] getItemValueTypes() {
+            return fCurrent.fItemValueTypes;
+        } // getItemValueTypes():ShortList[]
+
+        /** Closes the files of the runs. */
+        public void close() {
+            for (int i = 0; i < fSources.length; ++i) {
+                if (fSources[i] != null) {
+                    fSources[i].close();
+                }
+            }
+        } // close()
+
+        private void write(ObjectOutputStream out) throws IOException {
+            out.writeInt(fCurrent.fHash);
+            for (int k = 0; k < fFieldCount; ++k) {
+                out.writeObject(fCurrent.fValues[k]);
+                out.writeShort(fCurrent.fValueTypes[k]);
+                out.writeObject(fCurrent.fItemValueTypes[k]);
+            }
+        } // write(ObjectOutputStream)
+
+    } // class Cursor
+
+    /** A run stored in a temporary file. */
+    private final class Run {
+
+        final File fFile;
+        int fCount = 0;
+        int fLevel = 0;
+        boolean fShared = false;
+
+        Run(File file) {
+            fFile = file;
+        } // <init>(File)
+
+        ObjectOutputStream openOutput() throws IOException {
+            return new ObjectOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(fFile), BUFFER_SIZE));
+        } // openOutput():ObjectOutputStream
+
+        ObjectInputStream openInput() throws IOException {
+            return new ObjectInputStream(new BufferedInputStream(
+                    new FileInputStream(fFile), BUFFER_SIZE));
+        } // openInput():ObjectInputStream
+
+        void delete() {
+            if (!fShared) {
+                fFile.delete();
+                fFiles.remove(fFile);
+            }
+        } // delete()
+
+    } // class Run
+
+    /** A source of tuples in the order of their hash codes. */
+    private abstract class Source {
+
+        boolean fHasTuple = false;
+        int fHash;
+        final Object[] fValues = new Object[fFieldCount];
+        final short[] fValueTypes = new short[fFieldCount];
+        final ShortList[] fItemValueTypes = new ShortList[fFieldCount];
+
+        /** Reads the next tuple, if any. */
+        abstract void next() throws IOException;
+
+        void close() {
+        } // close()
+
+    } // class Source
+
+    /** Reads the tuples of a run. */
+    private final class RunSource extends Source {
+
+        private final ObjectInputStream fIn;
+        private int fRemaining;
+
+        RunSource(Run run) throws IOException {
+            fIn = run.openInput();
+            fRemaining = run.fCount;
+        } // <init>(Run)
+
+        void next() throws IOException {
+            fHasTuple = fRemaining > 0;
+            if (!fHasTuple) {
+                return;
+            }
+            --fRemaining;
+            fHash = fIn.readInt();
+            try {
+                for (int k = 0; k < fFieldCount; ++k) {
+                    fValues[k] = fIn.readObject();
+                    fValueTypes[k] = fIn.readShort();
+                    fItemValueTypes[k] = (ShortList) fIn.readObject();
+                }
+            }
+            catch (ClassNotFoundException e) {
+                throw new IOException(e.getMessage());
+            }
+        } // next()
+
+        void close() {
+            try {
+                fIn.close();
+            }
+            catch (IOException e) {
+                // ignore
+            }
+        } // close()
+
+    } // class RunSource
+
+    /** Reads tuples held in memory. */
+    private final class TuplesSource extends Source {
+
+        private final Tuples fTuples;
+        private int fIndex = 0;
+
+        TuplesSource(Tuples tuples) {
+            fTuples = tuples;
+        } // <init>(Tuples)
+
+        void next() {
+            fHasTuple = fIndex < fTuples.fCount;
+            if (!fHasTuple) {
+                return;
+            }
+            final int start = fIndex * fFieldCount;
+            fHash = fTuples.fHashes[fIndex];
+            System.arraycopy(fTuples.fValues, start, fValues, 0, fFieldCount);
+            System.arraycopy(fTuples.fValueTypes, start, fValueTypes, 0, fFieldCount);
+            System.arraycopy(fTuples.fItemValueTypes, start, fItemValueTypes, 0, fFieldCount);
+            ++fIndex;
+        } // next()
+
+    } // class TuplesSource
+
+} // class ValueRuns
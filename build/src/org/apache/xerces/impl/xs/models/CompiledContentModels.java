@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.xs.models;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.StringTokenizer;
+
+import org.apache.xerces.impl.xs.SubstitutionGroupHandler;
+import org.apache.xerces.impl.xs.XSElementDecl;
+import org.apache.xerces.impl.xs.XSModelGroupImpl;
+import org.apache.xerces.impl.xs.XSParticleDecl;
+import org.apache.xerces.impl.xs.XSWildcardDecl;
+import org.apache.xerces.xni.QName;
+
+/**
+ * The base class of the content models generated by
+ * {@link ContentModelCompiler}. A subclass holds the DFAs of the content
+ * models of a set of schemas as Java code: each transition compares the
+ * name of the element with the names the state accepts, instead of looking
+ * them up in a transition table.
+ * <p>
+ * A content model is identified by a hash of its particle tree, so a
+ * generated DFA is only used for a content model which is identical to
+ * the one it was generated from. The other content models are built as
+ * usual. The declarations matched are those of the grammar being used.
+ * <p>
+ * An instance is set on a parser configuration with the
+ * <code>http://apache.org/xml/properties/internal/validation/schema/compiled-content-models</code>
+ * property.
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public abstract class CompiledContentModels {
+
+    //
+    // Constants
+    //
+
+    /** Returned by the generated transitions when the element is not accepted. */
+    protected static final int NO_TRANSITION = -1;
+
+    //
+    // Data
+    //
+
+    /** The generated content models, by key. */
+    private final HashMap<String, Integer> fModels;
+
+    /** The ids of the particles of the input symbols of each model. */
+    private final int[][] fParticleIds;
+
+    /** The final states of each model. */
+    private final boolean[][] fFinalStates;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs the content models. The numbers are given as strings of
+     * numbers separated by spaces, which keeps the generated class small.
+     *
+     * @param keys        The keys of the particle trees of the models.
+     * @param particleIds For each model, the ids of the particles of its input symbols.
+     * @param finalStates For each model, the final states.
+     */
+    protected CompiledContentModels(String[] keys, String[] particleIds, String[] finalStates) {
+        fModels = new HashMap<String, Integer>(keys.length * 2);
+        fParticleIds = new int[keys.length][];
+        fFinalStates = new boolean[keys.length][];
+        for (int i = 0; i < keys.length; ++i) {
+            fModels.put(keys[i], Integer.valueOf(i));
+            fParticleIds[i] = parseInts(particleIds[i]);
+            final int[] states = parseInts(finalStates[i]);
+            int stateCount = 0;
+            for (int j = 0; j < states.length; ++j) {
+                stateCount = Math.max(stateCount, states[j] + 1);
+            }
+            fFinalStates[i] = new boolean[stateCount];
+            for (int j = 0; j < states.length; ++j) {
+                fFinalStates[i][states[j]] = true;
+            }
+        }
+    } // <init>(String[],String[],String[])
+
+    //
+    // Public methods
+    //
+
+    /**
+     * Returns the compiled content model of a particle, or null if none
+     * was generated for it.
+     */
+    public XSCMValidator getContentModel(XSParticleDecl particle) {
+        if (fModels.isEmpty()) {
+            return null;
+        }
+        final ArrayList<XSParticleDecl> leaves = new ArrayList<XSParticleDecl>();
+        final Integer model = fModels.get(getKey(particle, leaves));
+        if (model == null) {
+            return null;
+        }
+        final int[] ids = fParticleIds[model.intValue()];
+        final Object[] decls = new Object[ids.length];
+        for (int i = 0; i < ids.length; ++i) {
+            decls[i] = leaves.get(ids[i]).fValue;
+        }
+        return new XSCompiledCM(this, model.intValue(), decls, particle);
+    } // getContentModel(XSParticleDecl):XSCMValidator
+
+    //
+    // Protected methods
+    //
+
+    /**
+     * Makes one transition of a model. The declarations are those of the
+     * input symbols of the model, in the order of the generated code.
+     *
+     * @return <code>NO_TRANSITION</code> if the element is not accepted
+     *         in the state; otherwise the value of {@link #next(int,int)}.
+     */
+    protected abstract int transition(int model, int state, QName name,
+            Object[] decls, SubstitutionGroupHandler subGroupHandler);
+
+    /** Encodes the state reached and the input symbol matched. */
+    protected static int next(int state, int elemIndex) {
+        return (state << 16) | elemIndex;
+    } // next(int,int):int
+
+    /**
+     * Returns true if the element may substitute for the global element
+     * declaration of an input symbol.
+     */
+    protected static boolean substitutes(QName name, Object[] decls, int elemIndex,
+            SubstitutionGroupHandler subGroupHandler) {
+        return subGroupHandler.getMatchingElemDecl(name, (XSElementDecl) decls[elemIndex]) != null;
+    } // substitutes(QName,Object[],int,SubstitutionGroupHandler):boolean
+
+    /** Returns true if the wildcard of an input symbol allows the namespace. */
+    protected static boolean allowsNamespace(String uri, Object[] decls, int elemIndex) {
+        return ((XSWildcardDecl) decls[elemIndex]).allowNamespace(uri);
+    } // allowsNamespace(String,Object[],int):boolean
+
+    //
+    // Package methods
+    //
+
+    boolean isFinalState(int model, int state) {
+        final boolean[] finalStates = fFinalStates[model];
+        return state >= 0 && state < finalStates.length && finalStates[state];
+    } // isFinalState(int,int):boolean
+
+    /**
+     * Returns the key of a particle tree, and adds its element and wildcard
+     * particles to a list, in the order of their particle ids.
+     */
+    static String getKey(XSParticleDecl particle, ArrayList<XSParticleDecl> leaves) {
+        final StringBuffer buffer = new StringBuffer();
+        appendKey(particle, leaves, buffer);
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(buffer.toString().getBytes("UTF-8"));
+            buffer.setLength(0);
+            for (int i = 0; i < digest.length; ++i) {
+                buffer.append(Character.forDigit((digest[i] >> 4) & 0xF, 16));
+                buffer.append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return buffer.toString();
+        }
+        catch (NoSuchAlgorithmException e) {
+            return buffer.toString();
+        }
+        catch (UnsupportedEncodingException e) {
+            return buffer.toString();
+        }
+    } // getKey(XSParticleDecl,ArrayList):String
+
+    //
+    // Private static methods
+    //
+
+    private static int[] parseInts(String s) {
+        final StringTokenizer tokenizer = new StringTokenizer(s);
+        final int[] ints = new int[tokenizer.countTokens()];
+        for (int i = 0; i < ints.length; ++i) {
+            ints[i] = Integer.parseInt(tokenizer.nextToken());
+        }
+        return ints;
+    } // parseInts(String):int[]
+
+    /**
+     * Appends everything the DFA of a particle depends on: the shape of the
+     * tree, the occurrences, the names of the elements and whether they may
+     * be substituted, and the namespace constraints of the wildcards.
+     */
+    private static void appendKey(XSParticleDecl particle, ArrayList<XSParticleDecl> leaves, StringBuffer buffer) {
+        buffer.append('(').append(particle.fType).append(' ');
+        buffer.append(particle.fMinOccurs).append(' ').append(particle.fMaxOccurs).append(' ');
+        switch (particle.fType) {
+            case XSParticleDecl.PARTICLE_ELEMENT: {
+                final XSElementDecl element = (XSElementDecl) particle.fValue;
+                leaves.add(particle);
+                buffer.append(element.fScope).append(' ').append(element.fBlock).append(' ');
+                appendString(element.fTargetNamespace, buffer);
+                appendString(element.fName, buffer);
+                break;
+            }
+            case XSParticleDecl.PARTICLE_WILDCARD: {
+                final XSWildcardDecl wildcard = (XSWildcardDecl) particle.fValue;
+                leaves.add(particle);
+                buffer.append(wildcard.fType).append(' ');
+                if (wildcard.fNamespaceList != null) {
+                    for (int i = 0; i < wildcard.fNamespaceList.length; ++i) {
+                        appendString(wildcard.fNamespaceList[i], buffer);
+                    }
+                }
+                break;
+            }
+            case XSParticleDecl.PARTICLE_MODELGROUP: {
+                final XSModelGroupImpl group = (XSModelGroupImpl) particle.fValue;
+                buffer.append(group.fCompositor);
+                for (int i = 0; i < group.fParticleCount; ++i) {
+                    appendKey(group.fParticles[i], leaves, buffer);
+                }
+                break;
+            }
+        }
+        buffer.append(')');
+    } // appendKey(XSParticleDecl,ArrayList,StringBuffer)
+
+    private static void appendString(String s, StringBuffer buffer) {
+        if (s == null) {
+            buffer.append('-');
+        }
+        else {
+            buffer.append(s.length()).append(':').append(s);
+        }
+        buffer.append(' ');
+    } // appendString(String,StringBuffer)
+
+} // class CompiledContentModels
@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.xs.traversers;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.xerces.impl.XMLEntityManager;
+import org.apache.xerces.impl.xs.SchemaSymbols;
+import org.apache.xerces.impl.xs.opti.SchemaDOMParser;
+import org.apache.xerces.impl.xs.opti.SchemaParsingConfig;
+import org.apache.xerces.util.DOMUtil;
+import org.apache.xerces.util.URI.MalformedURIException;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.parser.XMLConfigurationException;
+import org.apache.xerces.xni.parser.XMLErrorHandler;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.apache.xerces.xni.parser.XMLParseException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Loads the schema documents referenced by <code>&lt;import&gt;</code>,
+ * <code>&lt;include&gt;</code> and <code>&lt;redefine&gt;</code> ahead of
+ * XSDHandler, on a fork-join pool shared by all the schema loaders.
+ * <p>
+ * Once a schema document is loaded, the documents it references are
+ * parsed in parallel, and so on recursively. XSDHandler still resolves
+ * and traverses the documents one after the other, in document order,
+ * but takes the documents already parsed instead of parsing them again.
+ * A document is only prefetched by its location, relative to the
+ * document referencing it; XSDHandler only takes it when it resolves
+ * to the same location, so the result of loading a schema is the same
+ * as when the documents are parsed sequentially.
+ * <p>
+ * A document whose parsing reported an error or a warning is dropped,
+ * and is parsed again by XSDHandler, so that errors are reported in the
+ * usual order and through the usual error handler.
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+final class SchemaDocumentPrefetcher {
+
+    //
+    // Constants
+    //
+
+    /** The features of the schema parser given to the parsers of the pool. */
+    private static final String[] FEATURES = {
+        XSDHandler.ALLOW_JAVA_ENCODINGS,
+        XSDHandler.CONTINUE_AFTER_FATAL_ERROR,
+        XSDHandler.STANDARD_URI_CONFORMANT_FEATURE,
+        XSDHandler.DISALLOW_DOCTYPE,
+        XSDHandler.GENERATE_SYNTHETIC_ANNOTATIONS
+    };
+
+    /** The properties of the schema parser given to the parsers of the pool. */
+    private static final String[] PROPERTIES = {
+        XSDHandler.SECURITY_MANAGER,
+        XSDHandler.LOCALE
+    };
+
+    /** The pool on which the documents are parsed. */
+    private static ForkJoinPool gPool;
+
+    //
+    // Data
+    //
+
+    /** The values of the features, or null if not recognized. */
+    private final Boolean[] fFeatures = new Boolean[FEATURES.length];
+
+    /** The values of the properties. */
+    private final Object[] fProperties = new Object[PROPERTIES.length];
+
+    /** The documents prefetched, by expanded system id. */
+    private final ConcurrentHashMap<String, Prefetch> fPrefetched = new ConcurrentHashMap<String, Prefetch>();
+
+    /** The parsers not in use. */
+    private final ConcurrentLinkedQueue<Parser> fParsers = new ConcurrentLinkedQueue<Parser>();
+
+    /** The pool of this prefetcher. */
+    private final ForkJoinPool fPool;
+
+    /** Whether the documents are no longer needed. */
+    private volatile boolean fCancelled = false;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs a prefetcher whose parsers are configured like the
+     * parser of XSDHandler.
+     */
+    SchemaDocumentPrefetcher(SchemaDOMParser schemaParser) {
+        for (int i = 0; i < FEATURES.length; ++i) {
+            try {
+                fFeatures[i] = schemaParser.getFeature(FEATURES[i]) ? Boolean.TRUE : Boolean.FALSE;
+            }
+            catch (XMLConfigurationException e) {
+            }
+        }
+        for (int i = 0; i < PROPERTIES.length; ++i) {
+            try {
+                fProperties[i] = schemaParser.getProperty(PROPERTIES[i]);
+            }
+            catch (XMLConfigurationException e) {
+            }
+        }
+        fPool = getPool();
+    } // <init>(SchemaDOMParser)
+
+    //
+    // Package methods
+    //
+
+    /**
+     * Starts loading the documents referenced by a schema document which
+     * have not been prefetched yet.
+     *
+     * @param schemaRoot the &lt;schema&gt; element of the document
+     * @param baseSystemId the system id of the document
+     */
+    void prefetchReferences(Element schemaRoot, String baseSystemId) {
+        for (Element child = DOMUtil.getFirstChildElement(schemaRoot);
+            child != null && !fCancelled;
+            child = DOMUtil.getNextSiblingElement(child)) {
+            String localName = DOMUtil.getLocalName(child);
+            if (localName.equals(SchemaSymbols.ELT_ANNOTATION)) {
+                continue;
+            }
+            if (!localName.equals(SchemaSymbols.ELT_IMPORT) &&
+                    !localName.equals(SchemaSymbols.ELT_INCLUDE) &&
+                    !localName.equals(SchemaSymbols.ELT_REDEFINE)) {
+                // no references after the first global component
+                break;
+            }
+            String location = DOMUtil.getAttrValue(child, SchemaSymbols.ATT_SCHEMALOCATION).trim();
+            if (location.length() == 0) {
+                continue;
+            }
+            String systemId;
+            try {
+                systemId = XMLEntityManager.expandSystemId(location, baseSystemId, false);
+            }
+            catch (MalformedURIException e) {
+                // reported when XSDHandler resolves the document
+                continue;
+            }
+            if (systemId == null || fPrefetched.containsKey(systemId)) {
+                continue;
+            }
+            Prefetch prefetch = new Prefetch(location, baseSystemId);
+            if (fPrefetched.putIfAbsent(systemId, prefetch) == null) {
+                Thread thread = Thread.currentThread();
+                if (thread instanceof ForkJoinWorkerThread &&
+                        ((ForkJoinWorkerThread) thread).getPool() == fPool) {
+                    prefetch.fork();
+                }
+                else {
+                    fPool.execute(prefetch);
+                }
+            }
+        }
+    } // prefetchReferences(Element,String)
+
+    /**
+     * Returns the root of a prefetched document, waiting for it to be
+     * parsed if it is being parsed, or null if the caller has to parse
+     * the document itself. A document is only returned once.
+     */
+    Element take(String systemId) {
+        Prefetch prefetch = fPrefetched.get(systemId);
+        return (prefetch != null) ? prefetch.take() : null;
+    } // take(String):Element
+
+    /** Stops prefetching and drops the documents not taken. */
+    void cancel() {
+        fCancelled = true;
+        Iterator<Prefetch> i = fPrefetched.values().iterator();
+        while (i.hasNext()) {
+            i.next().cancel(false);
+        }
+        fPrefetched.clear();
+    } // cancel()
+
+    //
+    // Private methods
+    //
+
+    private static synchronized ForkJoinPool getPool() {
+        if (gPool == null) {
+            // parsing is partly I/O bound
+            gPool = new ForkJoinPool(2 * Runtime.getRuntime().availableProcessors());
+        }
+        return gPool;
+    } // getPool():ForkJoinPool
+
+    private Parser getParser() {
+        Parser parser = fParsers.poll();
+        if (parser == null) {
+            SchemaDOMParser schemaParser = new SchemaDOMParser(new SchemaParsingConfig());
+            for (int i = 0; i < FEATURES.length; ++i) {
+                if (fFeatures[i] != null) {
+                    try {
+                        schemaParser.setFeature(FEATURES[i], fFeatures[i].booleanValue());
+                    }
+                    catch (XMLConfigurationException e) {
+                    }
+                }
+            }
+            for (int i = 0; i < PROPERTIES.length; ++i) {
+                if (fProperties[i] != null) {
+                    try {
+                        schemaParser.setProperty(PROPERTIES[i], fProperties[i]);
+                    }
+                    catch (XMLConfigurationException e) {
+                    }
+                }
+            }
+            parser = new Parser(schemaParser);
+        }
+        return parser;
+    } // getParser():Parser
+
+    //
+    // Classes
+    //
+
+    /**
+     * A document being prefetched. Either a thread of the pool parses the
+     * document, or XSDHandler does when it needs the document before any
+     * thread of the pool has started parsing it.
+     */
+    private final class Prefetch extends RecursiveAction {
+
+        private static final long serialVersionUID = -5326815024651387520L;
+
+        /** The location of the document. */
+        private final String fLocation;
+
+        /** The system id of the document referencing it. */
+        private final String fBaseSystemId;
+
+        /** Set by the first thread to claim the document. */
+        private final AtomicBoolean fClaimed = new AtomicBoolean();
+
+        /** The root of the document, if parsed without errors. */
+        private Element fRoot;
+
+        /** Whether the document was taken. */
+        private boolean fTaken = false;
+
+        Prefetch(String location, String baseSystemId) {
+            fLocation = location;
+            fBaseSystemId = baseSystemId;
+        } // <init>(String,String)
+
+        protected void compute() {
+            if (fCancelled || !fClaimed.compareAndSet(false, true)) {
+                return;
+            }
+            Parser parser = getParser();
+            try {
+                fRoot = parser.parse(fLocation, fBaseSystemId);
+            }
+            finally {
+                fParsers.offer(parser);
+            }
+            if (fRoot != null && !fCancelled) {
+                prefetchReferences(fRoot, fRoot.getOwnerDocument().getDocumentURI());
+            }
+        } // compute()
+
+        Element take() {
+            if (fTaken) {
+                return null;
+            }
+            fTaken = true;
+            if (fClaimed.compareAndSet(false, true)) {
+                // not started yet: parsing it here is faster than waiting
+                return null;
+            }
+            join();
+            return fRoot;
+        } // take():Element
+
+    } // class Prefetch
+
+    /**
+     * A parser of the pool, which records whether an error was reported
+     * while parsing a document.
+     */
+    private static final class Parser implements XMLErrorHandler {
+
+        private final SchemaDOMParser fSchemaParser;
+
+        private boolean fFailed;
+
+        Parser(SchemaDOMParser schemaParser) {
+            fSchemaParser = schemaParser;
+            fSchemaParser.setProperty(XSDHandler.ERROR_HANDLER, this);
+        } // <init>(SchemaDOMParser)
+
+        /** Returns the root of a document, or null if an error occurred. */
+        Element parse(String location, String baseSystemId) {
+            fFailed = false;
+            try {
+                fSchemaParser.parse(new XMLInputSource(null, location, baseSystemId));
+            }
+            catch (Exception e) {
+                return null;
+            }
+            Document document = fSchemaParser.getDocument();
+            return (!fFailed && document != null) ? DOMUtil.getRoot(document) : null;
+        } // parse(String,String):Element
+
+        //
+        // XMLErrorHandler methods
+        //
+
+        public void warning(String domain, String key, XMLParseException exception) throws XNIException {
+            fFailed = true;
+        } // warning(String,String,XMLParseException)
+
+        public void error(String domain, String key, XMLParseException exception) throws XNIException {
+            fFailed = true;
+        } // error(String,String,XMLParseException)
+
+        public void fatalError(String domain, String key, XMLParseException exception) throws XNIException {
+            fFailed = true;
+            throw exception;
+        } // fatalError(String,String,XMLParseException)
+
+    } // class Parser
+
+} // class SchemaDocumentPrefetcher
@@ -0,0 +1,562 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.xs.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.Vector;
+
+import org.apache.xerces.impl.xs.SchemaGrammar;
+import org.apache.xerces.impl.xs.XSDDescription;
+import org.apache.xerces.util.XMLSymbols;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLSchemaDescription;
+import org.apache.xerces.xs.StringList;
+
+/**
+ * A grammar pool which keeps the schema grammars it caches in a directory,
+ * so that they can be read instead of compiled when the application is
+ * started again.
+ * <p>
+ * Each file of the directory holds a group of grammars which import one
+ * another, and is named after a hash of the contents of their schema
+ * documents. When a validator asks for a grammar which is not in memory,
+ * the file which holds it is read if the schema documents it was compiled
+ * from are unchanged; otherwise the file is deleted and the grammar is
+ * compiled as usual. When a validator hands new grammars to the pool, their
+ * group is written to the directory, replacing the files of the groups
+ * it contains.
+ * <p>
+ * Only the grammars whose schema documents can be read again from their
+ * system identifiers are written. Errors while reading or writing files
+ * are ignored: the grammars are then compiled, as with any other pool. A
+ * group of grammars which cannot be written, for instance because it is
+ * nested too deeply, is kept in memory only. A file which cannot be read,
+ * whatever the reason, is deleted.
+ *
+ * @see SchemaGrammarSerializer
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public class PersistentGrammarPool extends XSGrammarPool {
+
+    //
+    // Constants
+    //
+
+    /** Magic number of the files. */
+    private static final int MAGIC = 0x58534731;
+
+    /** Suffix of the files. */
+    private static final String SUFFIX = ".xsg";
+
+    /** Algorithm of the hash of the schema documents. */
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    //
+    // Data
+    //
+
+    /** The cache directory. */
+    private final File fDirectory;
+
+    /** The files of the directory, by namespace; read when first needed. */
+    private HashMap<String, ArrayList<CacheFile>> fFiles;
+
+    /** The grammars which are in the directory, or cannot be written there. */
+    private final IdentityHashMap<Grammar, Grammar> fPersistedGrammars = new IdentityHashMap<Grammar, Grammar>();
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs a grammar pool which keeps its schema grammars in the
+     * given directory. The directory is created if it does not exist.
+     *
+     * @param directory The cache directory.
+     */
+    public PersistentGrammarPool(File directory) {
+        fDirectory = directory;
+    } // <init>(File)
+
+    //
+    // XMLGrammarPool methods
+    //
+
+    public void cacheGrammars(String grammarType, Grammar[] grammars) {
+        super.cacheGrammars(grammarType, grammars);
+        if (!fPoolIsLocked && XMLGrammarDescription.XML_SCHEMA.equals(grammarType)) {
+            writeGrammars(grammars);
+        }
+    } // cacheGrammars(String,Grammar[])
+
+    public Grammar retrieveGrammar(XMLGrammarDescription desc) {
+        final Grammar grammar = super.retrieveGrammar(desc);
+        if (grammar == null && desc instanceof XMLSchemaDescription) {
+            return readGrammar(((XMLSchemaDescription) desc).getTargetNamespace());
+        }
+        return grammar;
+    } // retrieveGrammar(XMLGrammarDescription):Grammar
+
+    //
+    // Public methods
+    //
+
+    /** Returns the cache directory. */
+    public File getDirectory() {
+        return fDirectory;
+    } // getDirectory():File
+
+    //
+    // Private methods
+    //
+
+    /**
+     * Reads the grammar of the given namespace from the directory, along
+     * with the grammars stored with it, and puts them into the pool.
+     */
+    private Grammar readGrammar(String namespace) {
+        synchronized (fPersistedGrammars) {
+            // another thread may have read it meanwhile
+            final XSDDescription desc = new XSDDescription();
+            desc.setNamespace(namespace);
+            Grammar grammar = getGrammar(desc);
+            if (grammar != null) {
+                return grammar;
+            }
+            final ArrayList<CacheFile> files = getFiles().get(getKey(namespace));
+            if (files == null) {
+                return null;
+            }
+            for (int i = files.size() - 1; i >= 0; --i) {
+                final CacheFile file = files.get(i);
+                final SchemaGrammar[] grammars = file.readGrammars();
+                if (grammars == null) {
+                    removeFile(file);
+                    file.fFile.delete();
+                    continue;
+                }
+                for (int j = 0; j < grammars.length; ++j) {
+                    // The grammars of the file can only be mixed with grammars which
+                    // do not refer to them; otherwise they are compiled again.
+                    if (getGrammar(grammars[j].getGrammarDescription()) != null) {
+                        return null;
+                    }
+                }
+                for (int j = 0; j < grammars.length; ++j) {
+                    putGrammar(grammars[j]);
+                    fPersistedGrammars.put(grammars[j], grammars[j]);
+                    if (grammar == null && equals(grammars[j].getGrammarDescription(), desc)) {
+                        grammar = grammars[j];
+                    }
+                }
+                return grammar;
+            }
+            return null;
+        }
+    } // readGrammar(String):Grammar
+
+    /**
+     * Writes the groups of grammars which contain the given grammars, unless
+     * all of them are already in the directory.
+     */
+    private void writeGrammars(Grammar[] grammars) {
+        synchronized (fPersistedGrammars) {
+            for (int i = 0; i < grammars.length; ++i) {
+                if (!(grammars[i] instanceof SchemaGrammar.BuiltinSchemaGrammar)
+                    && !fPersistedGrammars.containsKey(grammars[i])) {
+                    final SchemaGrammar[] group = getGroup((SchemaGrammar) grammars[i]);
+                    for (int j = 0; j < group.length; ++j) {
+                        fPersistedGrammars.put(group[j], group[j]);
+                    }
+                    writeFile(group);
+                }
+            }
+        }
+    } // writeGrammars(Grammar[])
+
+    /**
+     * Returns the grammars which are related to the given grammar through
+     * imports, directly or not, whether they are imported by it or import it.
+     */
+    private SchemaGrammar[] getGroup(SchemaGrammar grammar) {
+        final Grammar[] pool = retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA);
+        final IdentityHashMap<SchemaGrammar, SchemaGrammar> group = new IdentityHashMap<SchemaGrammar, SchemaGrammar>();
+        final ArrayList<SchemaGrammar> stack = new ArrayList<SchemaGrammar>();
+        stack.add(grammar);
+        group.put(grammar, grammar);
+        while (!stack.isEmpty()) {
+            final SchemaGrammar current = stack.remove(stack.size() - 1);
+            final ArrayList<SchemaGrammar> related = new ArrayList<SchemaGrammar>();
+            addImportedGrammars(current, related);
+            for (int i = 0; i < pool.length; ++i) {
+                final ArrayList<SchemaGrammar> imported = new ArrayList<SchemaGrammar>();
+                addImportedGrammars((SchemaGrammar) pool[i], imported);
+                if (imported.contains(current)) {
+                    related.add((SchemaGrammar) pool[i]);
+                }
+            }
+            for (int i = 0; i < related.size(); ++i) {
+                final SchemaGrammar next = related.get(i);
+                if (!group.containsKey(next)) {
+                    group.put(next, next);
+                    stack.add(next);
+                }
+            }
+        }
+        return group.keySet().toArray(new SchemaGrammar[group.size()]);
+    } // getGroup(SchemaGrammar):SchemaGrammar[]
+
+    /** Writes a group of grammars to a new file, replacing the files of its subgroups. */
+    private void writeFile(SchemaGrammar[] grammars) {
+        final CacheFile file = CacheFile.create(fDirectory, grammars);
+        if (file == null) {
+            return;
+        }
+        final HashSet<String> namespaces = new HashSet<String>(Arrays.asList(file.fNamespaces));
+        final HashMap<String, ArrayList<CacheFile>> files = getFiles();
+        for (int i = 0; i < file.fNamespaces.length; ++i) {
+            final ArrayList<CacheFile> list = files.get(file.fNamespaces[i]);
+            if (list != null) {
+                final CacheFile[] others = list.toArray(new CacheFile[list.size()]);
+                for (int j = 0; j < others.length; ++j) {
+                    if (namespaces.containsAll(Arrays.asList(others[j].fNamespaces))
+                        && !others[j].fFile.equals(file.fFile)) {
+                        removeFile(others[j]);
+                        others[j].fFile.delete();
+                    }
+                }
+            }
+        }
+        if (file.write(grammars)) {
+            addFile(file);
+        }
+    } // writeFile(SchemaGrammar[])
+
+    /** Returns the files of the directory, by namespace. */
+    private HashMap<String, ArrayList<CacheFile>> getFiles() {
+        if (fFiles == null) {
+            fFiles = new HashMap<String, ArrayList<CacheFile>>();
+            final File[] files = fDirectory.listFiles();
+            if (files != null) {
+                for (int i = 0; i < files.length; ++i) {
+                    if (files[i].getName().endsWith(SUFFIX)) {
+                        final CacheFile file = CacheFile.open(files[i]);
+                        if (file != null) {
+                            addFile(file);
+                        }
+                    }
+                }
+            }
+        }
+        return fFiles;
+    } // getFiles():HashMap
+
+    private void addFile(CacheFile file) {
+        for (int i = 0; i < file.fNamespaces.length; ++i) {
+            ArrayList<CacheFile> list = fFiles.get(file.fNamespaces[i]);
+            if (list == null) {
+                list = new ArrayList<CacheFile>();
+                fFiles.put(file.fNamespaces[i], list);
+            }
+            list.remove(file);
+            list.add(file);
+        }
+    } // addFile(CacheFile)
+
+    private void removeFile(CacheFile file) {
+        for (int i = 0; i < file.fNamespaces.length; ++i) {
+            final ArrayList<CacheFile> list = fFiles.get(file.fNamespaces[i]);
+            if (list != null) {
+                list.remove(file);
+            }
+        }
+    } // removeFile(CacheFile)
+
+    //
+    // Private static methods
+    //
+
+    /** Returns the key of a namespace in the index of the files. */
+    private static String getKey(String namespace) {
+        return namespace != null ? namespace : XMLSymbols.EMPTY_STRING;
+    } // getKey(String):String
+
+    /** Adds the grammars imported by a grammar, except the built-in ones, to a list. */
+    private static void addImportedGrammars(SchemaGrammar grammar, ArrayList<SchemaGrammar> list) {
+        final Vector imported = grammar.getImportedGrammars();
+        if (imported != null) {
+            for (int i = 0; i < imported.size(); ++i) {
+                final Object next = imported.elementAt(i);
+                if (!(next instanceof SchemaGrammar.BuiltinSchemaGrammar)) {
+                    list.add((SchemaGrammar) next);
+                }
+            }
+        }
+    } // addImportedGrammars(SchemaGrammar,ArrayList)
+
+    /** Returns the hash of the contents of a document, or null if it cannot be read. */
+    public static byte[] getDocumentHash(String location) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            final InputStream in = new URL(location).openStream();
+            try {
+                final byte[] buffer = new byte[8192];
+                int count;
+                while ((count = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, count);
+                }
+            }
+            finally {
+                in.close();
+            }
+            return digest.digest();
+        }
+        catch (IOException e) {
+            return null;
+        }
+        catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    } // getDocumentHash(String):byte[]
+
+    //
+    // Classes
+    //
+
+    /**
+     * A file of the cache directory. The file starts with the namespaces of
+     * its grammars and with the locations and hashes of their documents.
+     */
+    private static final class CacheFile {
+
+        /** The file. */
+        final File fFile;
+
+        /** The keys of the namespaces of the grammars. */
+        final String[] fNamespaces;
+
+        /** The locations of the documents of the grammars. */
+        final String[] fLocations;
+
+        /** The hashes of the contents of the documents. */
+        final byte[][] fHashes;
+
+        CacheFile(File file, String[] namespaces, String[] locations, byte[][] hashes) {
+            fFile = file;
+            fNamespaces = namespaces;
+            fLocations = locations;
+            fHashes = hashes;
+        }
+
+        /**
+         * Creates the description of the file of a group of grammars, or
+         * returns null if one of their documents cannot be read.
+         */
+        static CacheFile create(File directory, SchemaGrammar[] grammars) {
+            final String[] namespaces = new String[grammars.length];
+            final TreeSet<String> locations = new TreeSet<String>();
+            for (int i = 0; i < grammars.length; ++i) {
+                namespaces[i] = getKey(grammars[i].getTargetNamespace());
+                final StringList documents = grammars[i].getDocumentLocations();
+                for (int j = 0; j < documents.getLength(); ++j) {
+                    if (documents.item(j) == null) {
+                        return null;
+                    }
+                    locations.add(documents.item(j));
+                }
+            }
+            if (locations.isEmpty()) {
+                return null;
+            }
+            final MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            }
+            catch (NoSuchAlgorithmException e) {
+                return null;
+            }
+            final byte[][] hashes = new byte[locations.size()][];
+            final Iterator<String> iter = locations.iterator();
+            for (int i = 0; iter.hasNext(); ++i) {
+                final String location = iter.next();
+                hashes[i] = getDocumentHash(location);
+                if (hashes[i] == null) {
+                    return null;
+                }
+                digest.update(hashes[i]);
+            }
+            final StringBuffer name = new StringBuffer();
+            final byte[] key = digest.digest();
+            for (int i = 0; i < key.length; ++i) {
+                name.append(Character.forDigit((key[i] >> 4) & 0xF, 16));
+                name.append(Character.forDigit(key[i] & 0xF, 16));
+            }
+            name.append(SUFFIX);
+            return new CacheFile(new File(directory, name.toString()), namespaces,
+                    locations.toArray(new String[locations.size()]), hashes);
+        }
+
+        /** Reads the start of a file, or returns null if it is not a cache file. */
+        static CacheFile open(File file) {
+            try {
+                final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                try {
+                    return readHeader(file, in);
+                }
+                finally {
+                    in.close();
+                }
+            }
+            catch (IOException e) {
+                return null;
+            }
+            catch (RuntimeException e) {
+                // a damaged file
+                return null;
+            }
+            catch (OutOfMemoryError e) {
+                // a damaged count
+                return null;
+            }
+        }
+
+        private static CacheFile readHeader(File file, DataInputStream in) throws IOException {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            final String[] namespaces = new String[in.readInt()];
+            for (int i = 0; i < namespaces.length; ++i) {
+                namespaces[i] = in.readUTF();
+            }
+            final String[] locations = new String[in.readInt()];
+            final byte[][] hashes = new byte[locations.length][];
+            for (int i = 0; i < locations.length; ++i) {
+                locations[i] = in.readUTF();
+                hashes[i] = new byte[in.readInt()];
+                in.readFully(hashes[i]);
+            }
+            return new CacheFile(file, namespaces, locations, hashes);
+        }
+
+        /**
+         * Reads the grammars of the file, or returns null if the file
+         * cannot be read or if one of the documents has changed.
+         */
+        SchemaGrammar[] readGrammars() {
+            for (int i = 0; i < fLocations.length; ++i) {
+                if (!Arrays.equals(fHashes[i], getDocumentHash(fLocations[i]))) {
+                    return null;
+                }
+            }
+            try {
+                final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fFile)));
+                try {
+                    final CacheFile header = readHeader(fFile, in);
+                    if (header == null || !Arrays.equals(header.fLocations, fLocations)) {
+                        return null;
+                    }
+                    return SchemaGrammarSerializer.readGrammars(in);
+                }
+                finally {
+                    in.close();
+                }
+            }
+            catch (Throwable e) {
+                // a damaged file, which may make deserialization fail
+                // in any way; the grammars will be compiled instead
+                return null;
+            }
+        }
+
+        /** Writes the grammars to the file; returns false if it failed. */
+        boolean write(SchemaGrammar[] grammars) {
+            final File directory = fFile.getParentFile();
+            directory.mkdirs();
+            File temp = null;
+            boolean written = false;
+            try {
+                temp = File.createTempFile("grammar", ".tmp", directory);
+                final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+                try {
+                    out.writeInt(MAGIC);
+                    out.writeInt(fNamespaces.length);
+                    for (int i = 0; i < fNamespaces.length; ++i) {
+                        out.writeUTF(fNamespaces[i]);
+                    }
+                    out.writeInt(fLocations.length);
+                    for (int i = 0; i < fLocations.length; ++i) {
+                        out.writeUTF(fLocations[i]);
+                        out.writeInt(fHashes[i].length);
+                        out.write(fHashes[i]);
+                    }
+                    SchemaGrammarSerializer.writeGrammars(grammars, out);
+                }
+                finally {
+                    out.close();
+                }
+                // replace the file at once, for other readers of the directory
+                fFile.delete();
+                written = temp.renameTo(fFile);
+            }
+            catch (IOException e) {
+                // the grammars will be compiled again next time
+            }
+            catch (RuntimeException e) {
+                // the grammars will be compiled again next time
+            }
+            finally {
+                if (!written && temp != null) {
+                    temp.delete();
+                }
+            }
+            return written;
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof CacheFile && fFile.equals(((CacheFile) o).fFile);
+        }
+
+        public int hashCode() {
+            return fFile.hashCode();
+        }
+
+    } // class CacheFile
+
+} // class PersistentGrammarPool
@@ -0,0 +1,411 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.xs.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.xerces.impl.Constants;
+import org.apache.xerces.impl.Version;
+import org.apache.xerces.impl.dv.xs.XSSimpleTypeDecl;
+import org.apache.xerces.impl.xs.SchemaGrammar;
+import org.apache.xerces.impl.xs.SchemaSymbols;
+import org.apache.xerces.impl.xs.XSAttributeDecl;
+
+/**
+ * Writes compiled schema grammars to a stream and reads them back, so
+ * that they need not be compiled again.
+ * <p>
+ * The grammars are written with Java serialization, compressed. The
+ * components of the schema and schema instance namespaces are written as
+ * references and resolved to the built-in components when read, and all
+ * strings are interned when read, so that the grammars read behave as
+ * the grammars written. The grammars imported by the grammars written
+ * are written with them, so they should be written together with the
+ * grammars which import them. The content models which were built for
+ * the complex types, when they were used for validation, are written
+ * with the grammars.
+ * <p>
+ * Grammars can only be read by the version of Xerces which wrote them.
+ * Only the classes which make up a grammar may be read from the stream.
+ * <p>
+ * Java serialization recurses through the references between objects,
+ * and a schema may hold long chains of components, for instance elements
+ * whose content refers to the next element. Grammars are therefore written
+ * and read on a thread with a large stack. A grammar nested too deeply
+ * even for that stack cannot be written; this is reported as an
+ * <code>IOException</code>.
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class SchemaGrammarSerializer {
+
+    //
+    // Constants
+    //
+
+    /** The format of the stream; incremented whenever the grammar classes change. */
+    private static final int FORMAT = 1;
+
+    /** Built-in grammar: schema namespace. */
+    private static final short SCHEMA_NS = 0;
+
+    /** Built-in grammar: extended schema namespace. */
+    private static final short SCHEMA_NS_EXTENDED = 1;
+
+    /** Built-in grammar: schema instance namespace. */
+    private static final short SCHEMA_INSTANCE_NS = 2;
+
+    /** Size of the stack of the threads which write and read grammars, in bytes. */
+    private static final long STACK_SIZE = 64L * 1024 * 1024;
+
+    /** Packages of the classes of schema components, whose classes may be read. */
+    private static final String[] ALLOWED_PACKAGES = {
+        "org.apache.xerces.impl.dv.", "org.apache.xerces.impl.xpath.",
+        "org.apache.xerces.impl.xs.",
+    };
+
+    /** Other classes which grammars refer to, which may be read. */
+    private static final String[] ALLOWED_CLASSES = {
+        "java.lang.Boolean", "java.lang.Object", "java.lang.String", "java.util.Vector",
+        "org.apache.xerces.util.CompactPrefixedSymbolHash", "org.apache.xerces.util.CompactSymbolHash",
+        "org.apache.xerces.util.SymbolHash", "org.apache.xerces.util.SymbolHash$Entry",
+        "org.apache.xerces.util.XMLResourceIdentifierImpl", "org.apache.xerces.xni.QName",
+        "org.apache.xerces.xs.XSObject",
+    };
+
+    //
+    // Constructors
+    //
+
+    private SchemaGrammarSerializer() {}
+
+    //
+    // Public static methods
+    //
+
+    /**
+     * Writes schema grammars to a stream. The stream is not closed.
+     *
+     * @param grammars The grammars.
+     * @param out      The stream.
+     *
+     * @throws IOException Thrown if the stream cannot be written to, or if a
+     *                     grammar holds an object which cannot be written.
+     */
+    public static void writeGrammars(final SchemaGrammar[] grammars, final OutputStream out)
+        throws IOException {
+        run(new Task() {
+            Object run() throws IOException {
+                write(grammars, out);
+                return null;
+            }
+        });
+    } // writeGrammars(SchemaGrammar[],OutputStream)
+
+    /**
+     * Reads schema grammars from a stream. The stream is not closed.
+     *
+     * @param in The stream.
+     *
+     * @return The grammars.
+     *
+     * @throws IOException Thrown if the stream cannot be read, was not
+     *                     written by this version of Xerces, or is damaged.
+     */
+    public static SchemaGrammar[] readGrammars(final InputStream in) throws IOException {
+        return (SchemaGrammar[]) run(new Task() {
+            Object run() throws IOException {
+                return read(in);
+            }
+        });
+    } // readGrammars(InputStream):SchemaGrammar[]
+
+    //
+    // Private static methods
+    //
+
+    private static void write(SchemaGrammar[] grammars, OutputStream out)
+        throws IOException {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            final DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, deflater);
+            final ObjectOutputStream objectOut = new GrammarOutputStream(deflaterOut);
+            objectOut.writeUTF(Version.getVersion());
+            objectOut.writeInt(FORMAT);
+            objectOut.writeObject(grammars);
+            objectOut.flush();
+            deflaterOut.finish();
+        }
+        finally {
+            deflater.end();
+        }
+    } // write(SchemaGrammar[],OutputStream)
+
+    private static SchemaGrammar[] read(InputStream in) throws IOException {
+        final ObjectInputStream objectIn = new GrammarInputStream(new InflaterInputStream(in));
+        if (!Version.getVersion().equals(objectIn.readUTF()) || objectIn.readInt() != FORMAT) {
+            throw new InvalidClassException("SchemaGrammar", "incompatible version");
+        }
+        try {
+            return (SchemaGrammar[]) objectIn.readObject();
+        }
+        catch (ClassNotFoundException e) {
+            throw new InvalidClassException(e.getMessage());
+        }
+        catch (ClassCastException e) {
+            throw new StreamCorruptedException(e.getMessage());
+        }
+    } // read(InputStream):SchemaGrammar[]
+
+    /**
+     * Runs a task on a new thread with a large stack and waits for it.
+     * Whatever the task throws is reported as an IOException.
+     */
+    private static Object run(final Task task) throws IOException {
+        final Object[] result = new Object[1];
+        final Throwable[] failure = new Throwable[1];
+        final Thread thread = new Thread(null, new Runnable() {
+            public void run() {
+                try {
+                    result[0] = task.run();
+                }
+                catch (Throwable e) {
+                    failure[0] = e;
+                }
+            }
+        }, "Xerces grammar serializer", STACK_SIZE);
+        thread.setDaemon(true);
+        thread.start();
+        // the task uses the caller's stream, so it must end before this method
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        final Throwable e = failure[0];
+        if (e == null) {
+            return result[0];
+        }
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        final IOException ioe = new IOException(e instanceof StackOverflowError ?
+                "The grammar is nested too deeply to be serialized." : String.valueOf(e));
+        ioe.initCause(e);
+        throw ioe;
+    } // run(Task):Object
+
+    /** Returns the built-in grammar of the given kind. */
+    private static SchemaGrammar getBuiltinGrammar(short kind) {
+        switch (kind) {
+            case SCHEMA_NS:
+                return SchemaGrammar.SG_SchemaNS;
+            case SCHEMA_NS_EXTENDED:
+                return SchemaGrammar.getS4SGrammar(Constants.SCHEMA_VERSION_1_0_EXTENDED);
+            default:
+                return SchemaGrammar.SG_XSI;
+        }
+    } // getBuiltinGrammar(short):SchemaGrammar
+
+    /**
+     * Returns a reference to a built-in grammar or component, or null if
+     * the object is not built-in.
+     */
+    private static BuiltinReference getBuiltinReference(Object obj) {
+        if (obj instanceof SchemaGrammar.BuiltinSchemaGrammar) {
+            for (short kind = SCHEMA_NS; kind <= SCHEMA_INSTANCE_NS; ++kind) {
+                if (obj == getBuiltinGrammar(kind)) {
+                    return new BuiltinReference(kind, BuiltinReference.GRAMMAR, null);
+                }
+            }
+        }
+        else if (obj == SchemaGrammar.fAnyType) {
+            return new BuiltinReference(SCHEMA_NS, BuiltinReference.TYPE, SchemaSymbols.ATTVAL_ANYTYPE);
+        }
+        else if (obj instanceof XSSimpleTypeDecl) {
+            final XSSimpleTypeDecl type = (XSSimpleTypeDecl) obj;
+            final String name = type.getName();
+            if (name != null && SchemaSymbols.URI_SCHEMAFORSCHEMA.equals(type.getNamespace())) {
+                for (short kind = SCHEMA_NS; kind <= SCHEMA_NS_EXTENDED; ++kind) {
+                    if (obj == getBuiltinGrammar(kind).getGlobalTypeDecl(name)) {
+                        return new BuiltinReference(kind, BuiltinReference.TYPE, name);
+                    }
+                }
+            }
+        }
+        else if (obj instanceof XSAttributeDecl) {
+            final XSAttributeDecl attr = (XSAttributeDecl) obj;
+            if (SchemaSymbols.URI_XSI.equals(attr.getNamespace())
+                && obj == SchemaGrammar.SG_XSI.getGlobalAttributeDecl(attr.getName())) {
+                return new BuiltinReference(SCHEMA_INSTANCE_NS, BuiltinReference.ATTRIBUTE, attr.getName());
+            }
+        }
+        return null;
+    } // getBuiltinReference(Object):BuiltinReference
+
+    /** Returns true if objects of the given class may be read. */
+    private static boolean isAllowed(String className) {
+        int start = 0;
+        while (start < className.length() && className.charAt(start) == '[') {
+            ++start;
+        }
+        if (start > 0) {
+            // an array of a primitive type or of a class
+            if (className.charAt(start) != 'L') {
+                return className.length() == start + 1;
+            }
+            className = className.substring(start + 1, className.length() - 1);
+        }
+        for (int i = 0; i < ALLOWED_PACKAGES.length; ++i) {
+            if (className.startsWith(ALLOWED_PACKAGES[i])) {
+                return true;
+            }
+        }
+        for (int i = 0; i < ALLOWED_CLASSES.length; ++i) {
+            if (className.equals(ALLOWED_CLASSES[i])) {
+                return true;
+            }
+        }
+        return false;
+    } // isAllowed(String):boolean
+
+    //
+    // Classes
+    //
+
+    /** Writes built-in objects as references. */
+    private static final class GrammarOutputStream extends ObjectOutputStream {
+
+        GrammarOutputStream(OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        protected Object replaceObject(Object obj) throws IOException {
+            final BuiltinReference ref = getBuiltinReference(obj);
+            return ref != null ? ref : obj;
+        }
+
+    } // class GrammarOutputStream
+
+    /** Reads only grammar classes, and interns strings. */
+    private static final class GrammarInputStream extends ObjectInputStream {
+
+        GrammarInputStream(InputStream in) throws IOException {
+            super(in);
+            enableResolveObject(true);
+        }
+
+        protected Class<?> resolveClass(ObjectStreamClass desc)
+            throws IOException, ClassNotFoundException {
+            if (!isAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "not a grammar class");
+            }
+            return super.resolveClass(desc);
+        }
+
+        protected Class<?> resolveProxyClass(String[] interfaces)
+            throws IOException, ClassNotFoundException {
+            throw new InvalidClassException("proxy", "not a grammar class");
+        }
+
+        protected Object resolveObject(Object obj) throws IOException {
+            // symbols are compared by reference
+            return obj instanceof String ? ((String) obj).intern() : obj;
+        }
+
+    } // class GrammarInputStream
+
+    /** Work done on the thread of a serializer. */
+    private static abstract class Task {
+
+        abstract Object run() throws IOException;
+
+    } // class Task
+
+    /** A reference to a built-in grammar or component. */
+    private static final class BuiltinReference implements Serializable {
+
+        private static final long serialVersionUID = 4437217213957367561L;
+
+        /** Kind of object: grammar. */
+        static final short GRAMMAR = 0;
+
+        /** Kind of object: type definition. */
+        static final short TYPE = 1;
+
+        /** Kind of object: attribute declaration. */
+        static final short ATTRIBUTE = 2;
+
+        /** The built-in grammar. */
+        private final short fGrammar;
+
+        /** The kind of object. */
+        private final short fKind;
+
+        /** The name of the component. */
+        private final String fName;
+
+        BuiltinReference(short grammar, short kind, String name) {
+            fGrammar = grammar;
+            fKind = kind;
+            fName = name;
+        }
+
+        private Object readResolve() throws IOException {
+            final SchemaGrammar grammar = getBuiltinGrammar(fGrammar);
+            final Object obj;
+            switch (fKind) {
+                case GRAMMAR:
+                    return grammar;
+                case TYPE:
+                    obj = grammar.getGlobalTypeDecl(fName);
+                    break;
+                default:
+                    obj = grammar.getGlobalAttributeDecl(fName);
+            }
+            if (obj == null) {
+                throw new InvalidClassException(fName, "not a built-in component");
+            }
+            return obj;
+        }
+
+    } // class BuiltinReference
+
+} // class SchemaGrammarSerializer
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.parsers;
+
+import java.io.IOException;
+
+import org.apache.xerces.impl.Constants;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.apache.xerces.xni.parser.XMLParserConfiguration;
+
+/**
+ * Base class of all XML-related parsers.
+ * <p>
+ * In addition to the features and properties recognized by the parser
+ * configuration, this parser recognizes these additional features and
+ * properties:
+ * <ul>
+ * <li>Properties
+ *  <ul>
+ *   <li>http://apache.org/xml/properties/internal/error-handler</li>
+ *   <li>http://apache.org/xml/properties/internal/entity-resolver</li>
+ *  </ul>
+ * </ul>
+ *
+ * @author Arnaud  Le Hors, IBM
+ * @author Andy Clark, IBM
+ *
+ * @version $Id$
+ */
+public abstract class XMLParser {
+
+    //
+    // Constants
+    //
+
+    // properties
+
+    /** Property identifier: entity resolver. */
+    protected static final String ENTITY_RESOLVER = 
+        Constants.XERCES_PROPERTY_PREFIX + Constants.ENTITY_RESOLVER_PROPERTY;
+
+    /** Property identifier: error handler. */
+    protected static final String ERROR_HANDLER = 
+        Constants.XERCES_PROPERTY_PREFIX + Constants.ERROR_HANDLER_PROPERTY;
+
+    /** Recognized properties. */
+    private static final String[] RECOGNIZED_PROPERTIES = {
+        ENTITY_RESOLVER,
+        ERROR_HANDLER,
+    };
+
+    //
+    // Data
+    //
+
+    /** The parser configuration. */
+    protected final XMLParserConfiguration fConfiguration;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Default Constructor.
+     *
+     * @param config the parser configuration from which properties and features can be retrieved
+     */
+    protected XMLParser(XMLParserConfiguration config) {
+
+        // save configuration
+        fConfiguration = config;
+
+        // add default recognized properties
+        fConfiguration.addRecognizedProperties(RECOGNIZED_PROPERTIES);
+
+    } // <init>(XMLParserConfiguration)
+
+    //
+    // Public methods
+    //
+
+    /**
+     * Parse an XML document.
+     *
+     * @param inputSource the input source for the top-level of the XML document
+     *
+     * @throws XNIException any XNI exception, possibly wrapping another exception
+     * @throws IOException if an IO error occurs while parsing the input source
+     * @see org.apache.xerces.xni.parser.XMLParseException
+     * @see org.apache.xerces.xni.parser.XMLConfigurationException
+     */
+    public void parse(XMLInputSource inputSource) 
+        throws XNIException, IOException {
+
+        reset();
+        fConfiguration.parse(inputSource);
+
+    } // parse(XMLInputSource) 
+
+    //
+    // Protected methods
+    //
+
+    /**
+     * Reset all components before parsing.
+     *
+     * @throws XNIException any XNI exception but likely to be <code>XMLConfigurationException</code> if
+     * resetting requires access to properties and features held within the <code>XMLParserConfiguration</code>
+     * @see XMLParserConfiguration
+     * @see org.apache.xerces.xni.parser.XMLConfigurationException
+     */
+    protected void reset() throws XNIException {
+    } // reset()
+
+} // class XMLParser
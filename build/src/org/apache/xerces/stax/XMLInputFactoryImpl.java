@@ -0,0 +1,452 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.stax;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.EventFilter;
+import javax.xml.stream.StreamFilter;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLReporter;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.util.EventReaderDelegate;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.stream.util.XMLEventAllocator;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.xerces.impl.Constants;
+import org.apache.xerces.parsers.XIncludeAwareParserConfiguration;
+import org.apache.xerces.xni.parser.XMLConfigurationException;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.apache.xerces.xni.parser.XMLPullParserConfiguration;
+
+/**
+ * <p>Implementation of XMLInputFactory which creates readers
+ * that pull documents through a Xerces parser pipeline.</p>
+ *
+ * <p>In addition to the properties defined by StAX, the features and
+ * properties of the Xerces parser configuration, such as those for
+ * schema validation or the security manager, may be set on this factory
+ * using their URIs. A feature is set by passing a <code>Boolean</code>.
+ * Setting <code>XMLInputFactory.SUPPORT_DTD</code> to false causes a
+ * document type declaration to be reported as a fatal error. Entity
+ * references are always replaced.</p>
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class XMLInputFactoryImpl extends XMLInputFactory {
+
+    /** Feature identifier: namespaces. */
+    private static final String NAMESPACES =
+        Constants.SAX_FEATURE_PREFIX + Constants.NAMESPACES_FEATURE;
+
+    /** Feature identifier: validation. */
+    private static final String VALIDATION =
+        Constants.SAX_FEATURE_PREFIX + Constants.VALIDATION_FEATURE;
+
+    /** Feature identifier: external general entities. */
+    private static final String EXTERNAL_GENERAL_ENTITIES =
+        Constants.SAX_FEATURE_PREFIX + Constants.EXTERNAL_GENERAL_ENTITIES_FEATURE;
+
+    /** Feature identifier: external parameter entities. */
+    private static final String EXTERNAL_PARAMETER_ENTITIES =
+        Constants.SAX_FEATURE_PREFIX + Constants.EXTERNAL_PARAMETER_ENTITIES_FEATURE;
+
+    /** Feature identifier: disallow doctype declarations. */
+    private static final String DISALLOW_DOCTYPE_DECL =
+        Constants.XERCES_FEATURE_PREFIX + Constants.DISALLOW_DOCTYPE_DECL_FEATURE;
+
+    /** The properties of this factory. */
+    private final Properties fProperties = new Properties();
+
+    public XMLInputFactoryImpl() {}
+
+    //
+    // XMLInputFactory methods
+    //
+
+    public XMLStreamReader createXMLStreamReader(Reader reader)
+            throws XMLStreamException {
+        return createXMLStreamReader(null, reader);
+    }
+
+    public XMLStreamReader createXMLStreamReader(Source source)
+            throws XMLStreamException {
+        if (source instanceof StreamSource) {
+            final StreamSource streamSource = (StreamSource) source;
+            final XMLInputSource inputSource = new XMLInputSource(
+                    streamSource.getPublicId(), streamSource.getSystemId(), null);
+            inputSource.setByteStream(streamSource.getInputStream());
+            inputSource.setCharacterStream(streamSource.getReader());
+            return createReader(inputSource);
+        }
+        throw new UnsupportedOperationException("Source type " +
+                (source != null ? source.getClass().getName() : null) + " is not supported.");
+    }
+
+    public XMLStreamReader createXMLStreamReader(InputStream stream)
+            throws XMLStreamException {
+        return createXMLStreamReader(null, stream);
+    }
+
+    public XMLStreamReader createXMLStreamReader(InputStream stream,
+            String encoding) throws XMLStreamException {
+        return createReader(new XMLInputSource(null, null, null, stream, encoding));
+    }
+
+    public XMLStreamReader createXMLStreamReader(String systemId,
+            InputStream stream) throws XMLStreamException {
+        return createReader(new XMLInputSource(null, systemId, null, stream, null));
+    }
+
+    public XMLStreamReader createXMLStreamReader(String systemId, Reader reader)
+            throws XMLStreamException {
+        return createReader(new XMLInputSource(null, systemId, null, reader, null));
+    }
+
+    public XMLEventReader createXMLEventReader(Reader reader)
+            throws XMLStreamException {
+        return createXMLEventReader(createXMLStreamReader(reader));
+    }
+
+    public XMLEventReader createXMLEventReader(String systemId, Reader reader)
+            throws XMLStreamException {
+        return createXMLEventReader(createXMLStreamReader(systemId, reader));
+    }
+
+    public XMLEventReader createXMLEventReader(XMLStreamReader reader)
+            throws XMLStreamException {
+        return new XMLEventReaderImpl(reader, fProperties.allocator);
+    }
+
+    public XMLEventReader createXMLEventReader(Source source)
+            throws XMLStreamException {
+        return createXMLEventReader(createXMLStreamReader(source));
+    }
+
+    public XMLEventReader createXMLEventReader(InputStream stream)
+            throws XMLStreamException {
+        return createXMLEventReader(createXMLStreamReader(stream));
+    }
+
+    public XMLEventReader createXMLEventReader(InputStream stream,
+            String encoding) throws XMLStreamException {
+        return createXMLEventReader(createXMLStreamReader(stream, encoding));
+    }
+
+    public XMLEventReader createXMLEventReader(String systemId,
+            InputStream stream) throws XMLStreamException {
+        return createXMLEventReader(createXMLStreamReader(systemId, stream));
+    }
+
+    public XMLStreamReader createFilteredReader(XMLStreamReader reader,
+            final StreamFilter filter) throws XMLStreamException {
+        final XMLStreamReader filtered = new StreamReaderDelegate(reader) {
+            public int next() throws XMLStreamException {
+                int type;
+                do {
+                    type = super.next();
+                }
+                while (!filter.accept(this) && super.hasNext());
+                return type;
+            }
+            public int nextTag() throws XMLStreamException {
+                int type;
+                do {
+                    type = super.nextTag();
+                }
+                while (!filter.accept(this) && super.hasNext());
+                return type;
+            }
+        };
+        // move to the first event accepted by the filter
+        while (!filter.accept(filtered) && filtered.hasNext()) {
+            filtered.next();
+        }
+        return filtered;
+    }
+
+    public XMLEventReader createFilteredReader(XMLEventReader reader,
+            final EventFilter filter) throws XMLStreamException {
+        return new EventReaderDelegate(reader) {
+            public XMLEvent nextEvent() throws XMLStreamException {
+                XMLEvent event;
+                do {
+                    event = super.nextEvent();
+                }
+                while (!filter.accept(event));
+                return event;
+            }
+            public boolean hasNext() {
+                try {
+                    return peek() != null;
+                }
+                catch (XMLStreamException e) {
+                    return false;
+                }
+            }
+            public XMLEvent peek() throws XMLStreamException {
+                XMLEvent event = super.peek();
+                while (event != null && !filter.accept(event)) {
+                    super.nextEvent();
+                    event = super.peek();
+                }
+                return event;
+            }
+            public Object next() {
+                try {
+                    return nextEvent();
+                }
+                catch (XMLStreamException e) {
+                    final java.util.NoSuchElementException nse =
+                        new java.util.NoSuchElementException(e.getMessage());
+                    nse.initCause(e);
+                    throw nse;
+                }
+            }
+        };
+    }
+
+    public XMLResolver getXMLResolver() {
+        return fProperties.resolver;
+    }
+
+    public void setXMLResolver(XMLResolver resolver) {
+        fProperties.resolver = resolver;
+    }
+
+    public XMLReporter getXMLReporter() {
+        return fProperties.reporter;
+    }
+
+    public void setXMLReporter(XMLReporter reporter) {
+        fProperties.reporter = reporter;
+    }
+
+    public void setProperty(String name, Object value)
+            throws IllegalArgumentException {
+        if (name == null) {
+            throw new IllegalArgumentException("Property name cannot be null.");
+        }
+        if (IS_NAMESPACE_AWARE.equals(name)) {
+            fProperties.namespaceAware = booleanValue(name, value);
+        }
+        else if (IS_VALIDATING.equals(name)) {
+            fProperties.validating = booleanValue(name, value);
+        }
+        else if (IS_COALESCING.equals(name)) {
+            fProperties.coalescing = booleanValue(name, value);
+        }
+        else if (IS_REPLACING_ENTITY_REFERENCES.equals(name)) {
+            if (!booleanValue(name, value)) {
+                throw new IllegalArgumentException("Property " + name +
+                        " cannot be set to false.");
+            }
+        }
+        else if (IS_SUPPORTING_EXTERNAL_ENTITIES.equals(name)) {
+            fProperties.externalEntities = booleanValue(name, value);
+        }
+        else if (SUPPORT_DTD.equals(name)) {
+            fProperties.supportDTD = booleanValue(name, value);
+        }
+        else if (REPORTER.equals(name)) {
+            fProperties.reporter = (XMLReporter) value;
+        }
+        else if (RESOLVER.equals(name)) {
+            fProperties.resolver = (XMLResolver) value;
+        }
+        else if (ALLOCATOR.equals(name)) {
+            fProperties.allocator = (XMLEventAllocator) value;
+        }
+        else {
+            // check that the parser configuration accepts the setting
+            try {
+                apply(createConfiguration(), name, value);
+            }
+            catch (XMLConfigurationException e) {
+                throw new IllegalArgumentException("Property " + name + " is not supported.");
+            }
+            fProperties.settings.put(name, value);
+        }
+    }
+
+    public Object getProperty(String name) throws IllegalArgumentException {
+        if (name == null) {
+            throw new IllegalArgumentException("Property name cannot be null.");
+        }
+        return fProperties.getProperty(name);
+    }
+
+    public boolean isPropertySupported(String name) {
+        if (name == null) {
+            return false;
+        }
+        if (fProperties.isStandardProperty(name) || fProperties.settings.containsKey(name)) {
+            return true;
+        }
+        final XMLPullParserConfiguration configuration = createConfiguration();
+        try {
+            configuration.getFeature(name);
+            return true;
+        }
+        catch (XMLConfigurationException e) {}
+        try {
+            configuration.getProperty(name);
+            return true;
+        }
+        catch (XMLConfigurationException e) {}
+        return false;
+    }
+
+    public void setEventAllocator(XMLEventAllocator allocator) {
+        fProperties.allocator = allocator;
+    }
+
+    public XMLEventAllocator getEventAllocator() {
+        return fProperties.allocator;
+    }
+
+    //
+    // Private methods
+    //
+
+    /** Creates a stream reader for the given input. */
+    private XMLStreamReader createReader(XMLInputSource inputSource)
+            throws XMLStreamException {
+        final Properties properties = fProperties.copy();
+        final XMLPullParserConfiguration configuration = createConfiguration();
+        configuration.setFeature(NAMESPACES, properties.namespaceAware);
+        configuration.setFeature(VALIDATION, properties.validating);
+        configuration.setFeature(EXTERNAL_GENERAL_ENTITIES, properties.externalEntities);
+        configuration.setFeature(EXTERNAL_PARAMETER_ENTITIES, properties.externalEntities);
+        configuration.setFeature(DISALLOW_DOCTYPE_DECL, !properties.supportDTD);
+        final Iterator entries = properties.settings.entrySet().iterator();
+        while (entries.hasNext()) {
+            final Map.Entry entry = (Map.Entry) entries.next();
+            apply(configuration, (String) entry.getKey(), entry.getValue());
+        }
+        return new XMLStreamReaderImpl(configuration, properties, inputSource);
+    }
+
+    private static XMLPullParserConfiguration createConfiguration() {
+        return new XIncludeAwareParserConfiguration();
+    }
+
+    private static void apply(XMLPullParserConfiguration configuration,
+            String name, Object value) throws XMLConfigurationException {
+        if (value instanceof Boolean) {
+            configuration.setFeature(name, ((Boolean) value).booleanValue());
+        }
+        else {
+            configuration.setProperty(name, value);
+        }
+    }
+
+    private static boolean booleanValue(String name, Object value) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value).booleanValue();
+        }
+        throw new IllegalArgumentException("Property " + name + " requires a Boolean value.");
+    }
+
+    //
+    // Classes
+    //
+
+    /** The properties of a factory, copied into each reader it creates. */
+    static final class Properties {
+
+        boolean namespaceAware = true;
+        boolean validating = false;
+        boolean coalescing = false;
+        boolean externalEntities = true;
+        boolean supportDTD = true;
+        XMLReporter reporter;
+        XMLResolver resolver;
+        XMLEventAllocator allocator;
+
+        /** Features and properties of the parser configuration. */
+        LinkedHashMap<String, Object> settings = new LinkedHashMap<String, Object>();
+
+        Properties copy() {
+            final Properties copy = new Properties();
+            copy.namespaceAware = namespaceAware;
+            copy.validating = validating;
+            copy.coalescing = coalescing;
+            copy.externalEntities = externalEntities;
+            copy.supportDTD = supportDTD;
+            copy.reporter = reporter;
+            copy.resolver = resolver;
+            copy.allocator = allocator;
+            copy.settings = new LinkedHashMap<String, Object>(settings);
+            return copy;
+        }
+
+        boolean isStandardProperty(String name) {
+            return IS_NAMESPACE_AWARE.equals(name) || IS_VALIDATING.equals(name) ||
+                IS_COALESCING.equals(name) || IS_REPLACING_ENTITY_REFERENCES.equals(name) ||
+                IS_SUPPORTING_EXTERNAL_ENTITIES.equals(name) || SUPPORT_DTD.equals(name) ||
+                REPORTER.equals(name) || RESOLVER.equals(name) || ALLOCATOR.equals(name);
+        }
+
+        Object getProperty(String name) {
+            if (IS_NAMESPACE_AWARE.equals(name)) {
+                return namespaceAware ? Boolean.TRUE : Boolean.FALSE;
+            }
+            if (IS_VALIDATING.equals(name)) {
+                return validating ? Boolean.TRUE : Boolean.FALSE;
+            }
+            if (IS_COALESCING.equals(name)) {
+                return coalescing ? Boolean.TRUE : Boolean.FALSE;
+            }
+            if (IS_REPLACING_ENTITY_REFERENCES.equals(name)) {
+                return Boolean.TRUE;
+            }
+            if (IS_SUPPORTING_EXTERNAL_ENTITIES.equals(name)) {
+                return externalEntities ? Boolean.TRUE : Boolean.FALSE;
+            }
+            if (SUPPORT_DTD.equals(name)) {
+                return supportDTD ? Boolean.TRUE : Boolean.FALSE;
+            }
+            if (REPORTER.equals(name)) {
+                return reporter;
+            }
+            if (RESOLVER.equals(name)) {
+                return resolver;
+            }
+            if (ALLOCATOR.equals(name)) {
+                return allocator;
+            }
+            if (settings.containsKey(name)) {
+                return settings.get(name);
+            }
+            throw new IllegalArgumentException("Property " + name + " is not supported.");
+        }
+    }
+}
@@ -0,0 +1,1325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.stax;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLReporter;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.xerces.impl.Constants;
+import org.apache.xerces.util.NamespaceSupport;
+import org.apache.xerces.util.XMLAttributesImpl;
+import org.apache.xerces.util.XMLChar;
+import org.apache.xerces.util.XMLStringBuffer;
+import org.apache.xerces.util.XMLSymbols;
+import org.apache.xerces.xni.Augmentations;
+import org.apache.xerces.xni.XMLAttributes;
+import org.apache.xerces.xni.XMLDTDHandler;
+import org.apache.xerces.xni.XMLDocumentHandler;
+import org.apache.xerces.xni.XMLLocator;
+import org.apache.xerces.xni.XMLResourceIdentifier;
+import org.apache.xerces.xni.XMLString;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.parser.XMLDTDSource;
+import org.apache.xerces.xni.parser.XMLDocumentSource;
+import org.apache.xerces.xni.parser.XMLEntityResolver;
+import org.apache.xerces.xni.parser.XMLErrorHandler;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.apache.xerces.xni.parser.XMLParseException;
+import org.apache.xerces.xni.parser.XMLPullParserConfiguration;
+
+/**
+ * <p>Implementation of XMLStreamReader which pulls a document through
+ * a Xerces parser pipeline.</p>
+ *
+ * <p>Each call to <code>next()</code> asks the parser configuration to
+ * scan the next portion of the document, so validation and all of the
+ * other features of the configuration apply. The document information
+ * delivered by the pipeline is held in a small queue of reusable events
+ * rather than in new event objects. Names and attributes refer to the
+ * scanner's own objects until the scanner is about to reuse them. Text
+ * is copied into the storage of its event when it is reported, since the
+ * scanner may overwrite or reload its buffers before it returns.</p>
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class XMLStreamReaderImpl
+    implements XMLStreamReader, XMLDocumentHandler, XMLErrorHandler {
+
+    /** Initial number of queued events. */
+    private static final int INITIAL_EVENT_COUNT = 4;
+
+    /** The namespace of namespace declaration attributes. */
+    private static final String XMLNS_URI = XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+
+    //
+    // Data
+    //
+
+    /** The parser configuration. */
+    private final XMLPullParserConfiguration fConfiguration;
+
+    /** The factory properties in effect for this reader. */
+    private final XMLInputFactoryImpl.Properties fProperties;
+
+    /** The current event. */
+    private Event fCurrent = new Event();
+
+    /** Events reported by the pipeline which have not been delivered. */
+    private Event[] fEvents = new Event[INITIAL_EVENT_COUNT];
+
+    /** Index of the next event to deliver. */
+    private int fEventIndex;
+
+    /** Number of queued events. */
+    private int fEventCount;
+
+    /** True once the parser configuration has nothing more to scan. */
+    private boolean fDone;
+
+    /** True if this reader has been closed. */
+    private boolean fClosed;
+
+    /** True while inside a CDATA section. */
+    private boolean fInCDATA;
+
+    /** The DTD event whose internal subset is being scanned. */
+    private Event fDTD;
+
+    /** The text of the DTD event being scanned. */
+    private final StringBuffer fDTDText = new StringBuffer();
+
+    /** The locator of the document. */
+    private XMLLocator fLocator;
+
+    /** The encoding of the input. */
+    private String fInputEncoding;
+
+    /** Version from the XML declaration. */
+    private String fVersion;
+
+    /** Encoding from the XML declaration. */
+    private String fEncodingScheme;
+
+    /** Standalone pseudo-attribute from the XML declaration. */
+    private String fStandalone;
+
+    /** The namespaces in scope at the current event. */
+    private final NamespaceSupport fNamespaceSupport = new NamespaceSupport();
+
+    /** True if the namespace context must be popped before the next event. */
+    private boolean fPopContext;
+
+    /** Indexes of the attributes of the current element which are not namespace declarations. */
+    private int[] fAttributeIndexes = new int[8];
+
+    /** Number of attributes of the current element which are not namespace declarations. */
+    private int fAttributeCount;
+
+    /** Number of namespace declarations of the current element. */
+    private int fNamespaceCount;
+
+    /** Buffer used to coalesce text. */
+    private final XMLStringBuffer fCoalesceBuffer = new XMLStringBuffer();
+
+    /** Buffer used by getElementText(). */
+    private final StringBuffer fElementText = new StringBuffer();
+
+    /** Location of the current position of the parser. */
+    private final Location fLocation = new Location() {
+        public int getCharacterOffset() {
+            return fLocator != null ? fLocator.getCharacterOffset() : -1;
+        }
+        public int getColumnNumber() {
+            return fLocator != null ? fLocator.getColumnNumber() : -1;
+        }
+        public int getLineNumber() {
+            return fLocator != null ? fLocator.getLineNumber() : -1;
+        }
+        public String getPublicId() {
+            return fLocator != null ? fLocator.getPublicId() : null;
+        }
+        public String getSystemId() {
+            return fLocator != null ? fLocator.getExpandedSystemId() : null;
+        }
+    };
+
+    /** The namespace context of the current event. */
+    private final NamespaceContext fNamespaceContext = new NamespaceContext() {
+        public String getNamespaceURI(String prefix) {
+            if (prefix == null) {
+                throw new IllegalArgumentException("Prefix cannot be null.");
+            }
+            String uri = fNamespaceSupport.getURI(prefix.intern());
+            return uri != null ? uri : XMLConstants.NULL_NS_URI;
+        }
+        public String getPrefix(String namespaceURI) {
+            if (namespaceURI == null) {
+                throw new IllegalArgumentException("Namespace URI cannot be null.");
+            }
+            String prefix = fNamespaceSupport.getPrefix(namespaceURI.intern());
+            if (prefix == null && XMLConstants.NULL_NS_URI.equals(namespaceURI) &&
+                    fNamespaceSupport.getURI(XMLSymbols.EMPTY_STRING) == null) {
+                prefix = XMLConstants.DEFAULT_NS_PREFIX;
+            }
+            return prefix;
+        }
+        public Iterator getPrefixes(String namespaceURI) {
+            if (namespaceURI == null) {
+                throw new IllegalArgumentException("Namespace URI cannot be null.");
+            }
+            ArrayList<String> prefixes = new ArrayList<String>();
+            java.util.Enumeration all = fNamespaceSupport.getAllPrefixes();
+            while (all.hasMoreElements()) {
+                String prefix = (String) all.nextElement();
+                if (namespaceURI.equals(fNamespaceSupport.getURI(prefix))) {
+                    prefixes.add(prefix);
+                }
+            }
+            return prefixes.iterator();
+        }
+    };
+
+    //
+    // Constructors
+    //
+
+    XMLStreamReaderImpl(XMLPullParserConfiguration configuration,
+            XMLInputFactoryImpl.Properties properties, XMLInputSource inputSource)
+        throws XMLStreamException {
+        fConfiguration = configuration;
+        fProperties = properties;
+        for (int i = 0; i < fEvents.length; ++i) {
+            fEvents[i] = new Event();
+        }
+        fConfiguration.setDocumentHandler(this);
+        fConfiguration.setDTDHandler(new InternalSubsetHandler());
+        fConfiguration.setErrorHandler(this);
+        if (properties.resolver != null) {
+            fConfiguration.setEntityResolver(new Resolver(properties.resolver));
+        }
+        try {
+            fConfiguration.setInputSource(inputSource);
+        }
+        catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+        catch (XNIException e) {
+            throw toStreamException(e);
+        }
+        // scan past the XML declaration so that its
+        // values are available from the start document
+        fill(2);
+        deliver();
+    }
+
+    //
+    // XMLStreamReader methods
+    //
+
+    public Object getProperty(String name) throws IllegalArgumentException {
+        if (name == null) {
+            throw new IllegalArgumentException("Property name cannot be null.");
+        }
+        return fProperties.getProperty(name);
+    }
+
+    public int next() throws XMLStreamException {
+        if (fCurrent.type == END_DOCUMENT || fClosed) {
+            throw new NoSuchElementException();
+        }
+        if (fPopContext) {
+            fNamespaceSupport.popContext();
+            fPopContext = false;
+        }
+        fill(1);
+        deliver();
+        if (fProperties.coalescing && isText(fCurrent.type)) {
+            coalesce();
+        }
+        return fCurrent.type;
+    }
+
+    public void require(int type, String namespaceURI, String localName)
+            throws XMLStreamException {
+        if (type != fCurrent.type) {
+            throw new XMLStreamException("Event type " + getEventTypeString(type) +
+                    " specified did not match with current parser event " +
+                    getEventTypeString(fCurrent.type), fLocation);
+        }
+        if (namespaceURI != null && !namespaceURI.equals(getNamespaceURI())) {
+            throw new XMLStreamException("Namespace URI " + namespaceURI +
+                    " specified did not match with current namespace URI", fLocation);
+        }
+        if (localName != null && !localName.equals(getLocalName())) {
+            throw new XMLStreamException("Local name " + localName +
+                    " specified did not match with current local name", fLocation);
+        }
+    }
+
+    public String getElementText() throws XMLStreamException {
+        if (fCurrent.type != START_ELEMENT) {
+            throw new XMLStreamException(
+                    "Parser must be on START_ELEMENT to read next text.", fLocation);
+        }
+        fElementText.setLength(0);
+        int eventType = next();
+        while (eventType != END_ELEMENT) {
+            if (eventType == CHARACTERS || eventType == CDATA ||
+                    eventType == SPACE || eventType == ENTITY_REFERENCE) {
+                fElementText.append(fCurrent.ch, fCurrent.offset, fCurrent.length);
+            }
+            else if (eventType == END_DOCUMENT) {
+                throw new XMLStreamException(
+                        "Unexpected end of document when reading element text content.", fLocation);
+            }
+            else if (eventType == START_ELEMENT) {
+                throw new XMLStreamException(
+                        "Element text content may not contain START_ELEMENT.", fLocation);
+            }
+            else if (eventType != PROCESSING_INSTRUCTION && eventType != COMMENT) {
+                throw new XMLStreamException(
+                        "Unexpected event type " + getEventTypeString(eventType), fLocation);
+            }
+            eventType = next();
+        }
+        return fElementText.toString();
+    }
+
+    public int nextTag() throws XMLStreamException {
+        int eventType = next();
+        while ((eventType == CHARACTERS && isWhiteSpace()) ||
+                (eventType == CDATA && isWhiteSpace()) ||
+                eventType == SPACE ||
+                eventType == PROCESSING_INSTRUCTION ||
+                eventType == COMMENT) {
+            eventType = next();
+        }
+        if (eventType != START_ELEMENT && eventType != END_ELEMENT) {
+            throw new XMLStreamException("Expected start or end tag.", fLocation);
+        }
+        return eventType;
+    }
+
+    public boolean hasNext() throws XMLStreamException {
+        return fCurrent.type != END_DOCUMENT && !fClosed;
+    }
+
+    public void close() throws XMLStreamException {
+        if (!fClosed) {
+            fClosed = true;
+            if (!fDone) {
+                fDone = true;
+                fConfiguration.cleanup();
+            }
+        }
+    }
+
+    public String getNamespaceURI(String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Prefix cannot be null.");
+        }
+        return fNamespaceSupport.getURI(prefix.intern());
+    }
+
+    public boolean isStartElement() {
+        return fCurrent.type == START_ELEMENT;
+    }
+
+    public boolean isEndElement() {
+        return fCurrent.type == END_ELEMENT;
+    }
+
+    public boolean isCharacters() {
+        return fCurrent.type == CHARACTERS;
+    }
+
+    public boolean isWhiteSpace() {
+        final Event event = fCurrent;
+        if (event.type == SPACE) {
+            return true;
+        }
+        if (isText(event.type)) {
+            for (int i = event.offset, end = event.offset + event.length; i < end; ++i) {
+                if (!XMLChar.isSpace(event.ch[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public String getAttributeValue(String namespaceURI, String localName) {
+        checkStartElement();
+        final XMLAttributes attributes = fCurrent.attributes;
+        for (int i = 0; i < fAttributeCount; ++i) {
+            final int index = fAttributeIndexes[i];
+            if (localName.equals(attributes.getLocalName(index))) {
+                if (namespaceURI == null) {
+                    return attributes.getValue(index);
+                }
+                final String uri = attributes.getURI(index);
+                if (namespaceURI.equals(uri != null ? uri : XMLConstants.NULL_NS_URI)) {
+                    return attributes.getValue(index);
+                }
+            }
+        }
+        return null;
+    }
+
+    public int getAttributeCount() {
+        checkStartElement();
+        return fAttributeCount;
+    }
+
+    public QName getAttributeName(int index) {
+        return new QName(getAttributeNamespace(index),
+                getAttributeLocalName(index), getAttributePrefix(index));
+    }
+
+    public String getAttributeNamespace(int index) {
+        final String uri = fCurrent.attributes.getURI(attributeIndex(index));
+        return uri != null ? uri : XMLConstants.NULL_NS_URI;
+    }
+
+    public String getAttributeLocalName(int index) {
+        return fCurrent.attributes.getLocalName(attributeIndex(index));
+    }
+
+    public String getAttributePrefix(int index) {
+        final String prefix = fCurrent.attributes.getPrefix(attributeIndex(index));
+        return prefix != null ? prefix : XMLConstants.DEFAULT_NS_PREFIX;
+    }
+
+    public String getAttributeType(int index) {
+        final String type = fCurrent.attributes.getType(attributeIndex(index));
+        if (type != null && type.length() > 0 && type.charAt(0) == '(') {
+            return "ENUMERATION";
+        }
+        return type;
+    }
+
+    public String getAttributeValue(int index) {
+        return fCurrent.attributes.getValue(attributeIndex(index));
+    }
+
+    public boolean isAttributeSpecified(int index) {
+        return fCurrent.attributes.isSpecified(attributeIndex(index));
+    }
+
+    public int getNamespaceCount() {
+        checkElement();
+        return fNamespaceCount;
+    }
+
+    public String getNamespacePrefix(int index) {
+        final String prefix = fNamespaceSupport.getDeclaredPrefixAt(namespaceIndex(index));
+        return prefix != XMLSymbols.EMPTY_STRING ? prefix : null;
+    }
+
+    public String getNamespaceURI(int index) {
+        return fNamespaceSupport.getURI(fNamespaceSupport.getDeclaredPrefixAt(namespaceIndex(index)));
+    }
+
+    public NamespaceContext getNamespaceContext() {
+        return fNamespaceContext;
+    }
+
+    /**
+     * Returns a copy of the namespace context of the current event,
+     * which does not change as the reader moves on.
+     */
+    NamespaceContext getNamespaceContextSnapshot() {
+        final ArrayList<String> bindings = new ArrayList<String>();
+        final java.util.Enumeration all = fNamespaceSupport.getAllPrefixes();
+        while (all.hasMoreElements()) {
+            final String prefix = (String) all.nextElement();
+            final String uri = fNamespaceSupport.getURI(prefix);
+            if (uri != null) {
+                bindings.add(prefix);
+                bindings.add(uri);
+            }
+        }
+        return new NamespaceContextSnapshot(bindings.toArray(new String[bindings.size()]));
+    }
+
+    public int getEventType() {
+        return fCurrent.type;
+    }
+
+    public String getText() {
+        final Event event = fCurrent;
+        if (event.type == DTD) {
+            return event.target;
+        }
+        checkText();
+        return new String(event.ch, event.offset, event.length);
+    }
+
+    public char[] getTextCharacters() {
+        checkTextCharacters();
+        return fCurrent.ch;
+    }
+
+    public int getTextCharacters(int sourceStart, char[] target,
+            int targetStart, int length) throws XMLStreamException {
+        checkTextCharacters();
+        if (target == null) {
+            throw new NullPointerException();
+        }
+        if (targetStart < 0 || targetStart > target.length || length < 0 ||
+                targetStart + length > target.length || targetStart + length < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        final Event event = fCurrent;
+        if (sourceStart < 0 || sourceStart > event.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        final int count = Math.min(length, event.length - sourceStart);
+        System.arraycopy(event.ch, event.offset + sourceStart, target, targetStart, count);
+        return count;
+    }
+
+    public int getTextStart() {
+        checkTextCharacters();
+        return fCurrent.offset;
+    }
+
+    public int getTextLength() {
+        checkTextCharacters();
+        return fCurrent.length;
+    }
+
+    public String getEncoding() {
+        return fInputEncoding;
+    }
+
+    public boolean hasText() {
+        final int type = fCurrent.type;
+        return isText(type) || type == COMMENT || type == DTD || type == ENTITY_REFERENCE;
+    }
+
+    public Location getLocation() {
+        return fLocation;
+    }
+
+    public QName getName() {
+        checkElement();
+        final org.apache.xerces.xni.QName name = fCurrent.name;
+        return new QName(name.uri != null ? name.uri : XMLConstants.NULL_NS_URI,
+                name.localpart, name.prefix != null ? name.prefix : XMLConstants.DEFAULT_NS_PREFIX);
+    }
+
+    public String getLocalName() {
+        if (fCurrent.type == ENTITY_REFERENCE) {
+            return fCurrent.target;
+        }
+        checkElement();
+        return fCurrent.name.localpart;
+    }
+
+    public boolean hasName() {
+        return fCurrent.type == START_ELEMENT || fCurrent.type == END_ELEMENT;
+    }
+
+    public String getNamespaceURI() {
+        if (hasName()) {
+            return fCurrent.name.uri;
+        }
+        return null;
+    }
+
+    public String getPrefix() {
+        if (hasName()) {
+            final String prefix = fCurrent.name.prefix;
+            return prefix != null ? prefix : XMLConstants.DEFAULT_NS_PREFIX;
+        }
+        return null;
+    }
+
+    public String getVersion() {
+        return fVersion;
+    }
+
+    public boolean isStandalone() {
+        return "yes".equals(fStandalone);
+    }
+
+    public boolean standaloneSet() {
+        return fStandalone != null;
+    }
+
+    public String getCharacterEncodingScheme() {
+        return fEncodingScheme;
+    }
+
+    public String getPITarget() {
+        return fCurrent.type == PROCESSING_INSTRUCTION ? fCurrent.target : null;
+    }
+
+    public String getPIData() {
+        final Event event = fCurrent;
+        return event.type == PROCESSING_INSTRUCTION ?
+                new String(event.ch, event.offset, event.length) : null;
+    }
+
+    //
+    // XMLDocumentHandler methods
+    //
+
+    public void startDocument(XMLLocator locator, String encoding,
+            org.apache.xerces.xni.NamespaceContext namespaceContext, Augmentations augs)
+            throws XNIException {
+        fLocator = locator;
+        fInputEncoding = encoding;
+        add(START_DOCUMENT);
+    }
+
+    public void xmlDecl(String version, String encoding, String standalone,
+            Augmentations augs) throws XNIException {
+        fVersion = version;
+        fEncodingScheme = encoding;
+        fStandalone = standalone;
+    }
+
+    public void doctypeDecl(String rootElement, String publicId, String systemId,
+            Augmentations augs) throws XNIException {
+        final StringBuffer buffer = fDTDText;
+        buffer.setLength(0);
+        buffer.append("<!DOCTYPE ").append(rootElement);
+        if (publicId != null) {
+            buffer.append(" PUBLIC \"").append(publicId).append("\" \"").append(systemId).append('"');
+        }
+        else if (systemId != null) {
+            buffer.append(" SYSTEM \"").append(systemId).append('"');
+        }
+        // the event is completed by the DTD handler once the internal
+        // subset has been scanned and is not delivered before then
+        fDTD = add(DTD);
+    }
+
+    public void comment(XMLString text, Augmentations augs) throws XNIException {
+        add(COMMENT).setText(text);
+    }
+
+    public void processingInstruction(String target, XMLString data,
+            Augmentations augs) throws XNIException {
+        final Event event = add(PROCESSING_INSTRUCTION);
+        event.target = target;
+        event.setText(data);
+    }
+
+    public void startElement(org.apache.xerces.xni.QName element,
+            XMLAttributes attributes, Augmentations augs) throws XNIException {
+        final Event event = add(START_ELEMENT);
+        event.name.setValues(element);
+        event.attributes = attributes;
+    }
+
+    public void emptyElement(org.apache.xerces.xni.QName element,
+            XMLAttributes attributes, Augmentations augs) throws XNIException {
+        startElement(element, attributes, augs);
+        add(END_ELEMENT).name.setValues(element);
+    }
+
+    public void startGeneralEntity(String name, XMLResourceIdentifier identifier,
+            String encoding, Augmentations augs) throws XNIException {}
+
+    public void textDecl(String version, String encoding, Augmentations augs)
+            throws XNIException {}
+
+    public void endGeneralEntity(String name, Augmentations augs)
+            throws XNIException {}
+
+    public void characters(XMLString text, Augmentations augs) throws XNIException {
+        if (text.length > 0) {
+            add(fInCDATA ? CDATA : CHARACTERS).setText(text);
+        }
+    }
+
+    public void ignorableWhitespace(XMLString text, Augmentations augs)
+            throws XNIException {
+        if (text.length > 0) {
+            add(SPACE).setText(text);
+        }
+    }
+
+    public void endElement(org.apache.xerces.xni.QName element, Augmentations augs)
+            throws XNIException {
+        add(END_ELEMENT).name.setValues(element);
+    }
+
+    public void startCDATA(Augmentations augs) throws XNIException {
+        fInCDATA = true;
+    }
+
+    public void endCDATA(Augmentations augs) throws XNIException {
+        fInCDATA = false;
+    }
+
+    public void endDocument(Augmentations augs) throws XNIException {
+        add(END_DOCUMENT);
+    }
+
+    public void setDocumentSource(XMLDocumentSource source) {}
+
+    public XMLDocumentSource getDocumentSource() {
+        return null;
+    }
+
+    //
+    // XMLErrorHandler methods
+    //
+
+    public void warning(String domain, String key, XMLParseException exception)
+            throws XNIException {
+        report(key, exception);
+    }
+
+    public void error(String domain, String key, XMLParseException exception)
+            throws XNIException {
+        report(key, exception);
+    }
+
+    public void fatalError(String domain, String key, XMLParseException exception)
+            throws XNIException {
+        // the error reporter throws the exception once this method returns
+    }
+
+    //
+    // Private methods
+    //
+
+    /**
+     * Queues a new event reported by the pipeline. The attributes of
+     * start elements already queued are reused by the scanner for the
+     * next start element, so they are copied first.
+     */
+    private Event add(int type) {
+        if (type == START_ELEMENT) {
+            for (int i = fEventIndex; i < fEventCount; ++i) {
+                fEvents[i].materialize();
+            }
+        }
+        if (fEventCount == fEvents.length) {
+            final Event[] events = new Event[fEventCount << 1];
+            System.arraycopy(fEvents, 0, events, 0, fEventCount);
+            for (int i = fEventCount; i < events.length; ++i) {
+                events[i] = new Event();
+            }
+            fEvents = events;
+        }
+        final Event event = fEvents[fEventCount++];
+        event.clear(type);
+        return event;
+    }
+
+    /**
+     * Scans the document until the given number of
+     * events are queued or there is nothing more to scan.
+     */
+    private void fill(int count) throws XMLStreamException {
+        if (fEventIndex == fEventCount) {
+            fEventIndex = 0;
+            fEventCount = 0;
+        }
+        try {
+            while ((fEventCount - fEventIndex < count || fDTD != null) && !fDone) {
+                if (!fConfiguration.parse(false)) {
+                    fDone = true;
+                    fConfiguration.cleanup();
+                }
+            }
+        }
+        catch (IOException e) {
+            cleanup();
+            throw new XMLStreamException(e);
+        }
+        catch (XNIException e) {
+            cleanup();
+            throw toStreamException(e);
+        }
+        if (fEventIndex == fEventCount) {
+            throw new XMLStreamException("Unexpected end of document.", fLocation);
+        }
+    }
+
+    /** Makes the next queued event the current event. */
+    private void deliver() {
+        final Event event = fEvents[fEventIndex];
+        fEvents[fEventIndex++] = fCurrent;
+        fCurrent = event;
+        if (event.type == START_ELEMENT) {
+            startNamespaceScope(event);
+        }
+        else if (event.type == END_ELEMENT) {
+            fNamespaceCount = fNamespaceSupport.getDeclaredPrefixCount();
+            fPopContext = true;
+        }
+    }
+
+    /**
+     * Declares the namespaces of the given element and
+     * records which of its attributes are not declarations.
+     */
+    private void startNamespaceScope(Event event) {
+        fNamespaceSupport.pushContext();
+        final XMLAttributes attributes = event.attributes;
+        final int length = attributes.getLength();
+        if (fAttributeIndexes.length < length) {
+            fAttributeIndexes = new int[length];
+        }
+        int count = 0;
+        for (int i = 0; i < length; ++i) {
+            if (attributes.getURI(i) == XMLNS_URI) {
+                final String prefix = attributes.getPrefix(i) == XMLSymbols.PREFIX_XMLNS ?
+                        attributes.getLocalName(i) : XMLSymbols.EMPTY_STRING;
+                final String uri = attributes.getValue(i);
+                fNamespaceSupport.declarePrefix(prefix, uri.length() > 0 ?
+                        uri.intern() : null);
+            }
+            else {
+                fAttributeIndexes[count++] = i;
+            }
+        }
+        fAttributeCount = count;
+        fNamespaceCount = fNamespaceSupport.getDeclaredPrefixCount();
+    }
+
+    /** Appends the text of the adjacent text events to the current event. */
+    private void coalesce() throws XMLStreamException {
+        XMLStringBuffer buffer = null;
+        while (true) {
+            if (fEventIndex == fEventCount) {
+                if (fDone) {
+                    break;
+                }
+                fill(1);
+            }
+            final Event event = fEvents[fEventIndex];
+            if (!isText(event.type)) {
+                break;
+            }
+            if (buffer == null) {
+                buffer = fCoalesceBuffer;
+                buffer.clear();
+                buffer.append(fCurrent.ch, fCurrent.offset, fCurrent.length);
+            }
+            buffer.append(event.ch, event.offset, event.length);
+            ++fEventIndex;
+        }
+        if (buffer != null) {
+            fCurrent.type = CHARACTERS;
+            fCurrent.ch = buffer.ch;
+            fCurrent.offset = buffer.offset;
+            fCurrent.length = buffer.length;
+        }
+        else if (fCurrent.type != SPACE) {
+            fCurrent.type = CHARACTERS;
+        }
+    }
+
+    /** Reports a warning or error to the application. */
+    private void report(String key, XMLParseException exception) {
+        final XMLReporter reporter = fProperties.reporter;
+        if (reporter != null) {
+            try {
+                reporter.report(exception.getMessage(), key, exception,
+                        new ImmutableLocation(exception.getCharacterOffset(),
+                                exception.getColumnNumber(), exception.getLineNumber(),
+                                exception.getPublicId(), exception.getExpandedSystemId()));
+            }
+            catch (XMLStreamException e) {
+                throw new XNIException(e);
+            }
+        }
+    }
+
+    /** Releases the resources of the parser after an error. */
+    private void cleanup() {
+        fDone = true;
+        fConfiguration.cleanup();
+    }
+
+    private int attributeIndex(int index) {
+        checkStartElement();
+        if (index < 0 || index >= fAttributeCount) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return fAttributeIndexes[index];
+    }
+
+    private int namespaceIndex(int index) {
+        checkElement();
+        if (index < 0 || index >= fNamespaceCount) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return index;
+    }
+
+    private void checkStartElement() {
+        if (fCurrent.type != START_ELEMENT) {
+            throw new IllegalStateException("Current state " +
+                    getEventTypeString(fCurrent.type) + " is not START_ELEMENT.");
+        }
+    }
+
+    private void checkElement() {
+        if (!hasName()) {
+            throw new IllegalStateException("Current state " +
+                    getEventTypeString(fCurrent.type) + " is not START_ELEMENT or END_ELEMENT.");
+        }
+    }
+
+    private void checkText() {
+        final int type = fCurrent.type;
+        if (!isText(type) && type != COMMENT && type != ENTITY_REFERENCE) {
+            throw new IllegalStateException("Current state " +
+                    getEventTypeString(type) + " is not a valid text state.");
+        }
+    }
+
+    private void checkTextCharacters() {
+        final int type = fCurrent.type;
+        if (!isText(type) && type != COMMENT) {
+            throw new IllegalStateException("Current state " +
+                    getEventTypeString(type) + " is not a valid text state.");
+        }
+    }
+
+    private static boolean isText(int type) {
+        return type == CHARACTERS || type == CDATA || type == SPACE;
+    }
+
+    static XMLStreamException toStreamException(XNIException e) {
+        final Exception cause = e.getException();
+        if (cause instanceof XMLStreamException) {
+            return (XMLStreamException) cause;
+        }
+        if (e instanceof XMLParseException) {
+            final XMLParseException pe = (XMLParseException) e;
+            final XMLStreamException se = new XMLStreamException(e.getMessage(),
+                    new ImmutableLocation(pe.getCharacterOffset(), pe.getColumnNumber(),
+                            pe.getLineNumber(), pe.getPublicId(), pe.getExpandedSystemId()));
+            se.initCause(cause != null ? cause : e);
+            return se;
+        }
+        return new XMLStreamException(e.getMessage(), cause != null ? cause : e);
+    }
+
+    static String getEventTypeString(int type) {
+        switch (type) {
+            case START_ELEMENT: return "START_ELEMENT";
+            case END_ELEMENT: return "END_ELEMENT";
+            case PROCESSING_INSTRUCTION: return "PROCESSING_INSTRUCTION";
+            case CHARACTERS: return "CHARACTERS";
+            case COMMENT: return "COMMENT";
+            case SPACE: return "SPACE";
+            case START_DOCUMENT: return "START_DOCUMENT";
+            case END_DOCUMENT: return "END_DOCUMENT";
+            case ENTITY_REFERENCE: return "ENTITY_REFERENCE";
+            case ATTRIBUTE: return "ATTRIBUTE";
+            case DTD: return "DTD";
+            case CDATA: return "CDATA";
+            case NAMESPACE: return "NAMESPACE";
+            case NOTATION_DECLARATION: return "NOTATION_DECLARATION";
+            case ENTITY_DECLARATION: return "ENTITY_DECLARATION";
+        }
+        return "UNKNOWN_EVENT_TYPE, " + type;
+    }
+
+    //
+    // Classes
+    //
+
+    /**
+     * An event reported by the pipeline. Names and attributes refer to
+     * the objects passed by the pipeline until the event is materialized,
+     * after which they are held in the event's own storage. Text is always
+     * held in the event's own storage. Events are reused.
+     */
+    private static final class Event {
+
+        /** The event type. */
+        int type;
+
+        /** The element name. */
+        final org.apache.xerces.xni.QName name = new org.apache.xerces.xni.QName();
+
+        /** The attributes of the element. */
+        XMLAttributes attributes;
+
+        /** Storage for attributes copied from the pipeline. */
+        XMLAttributesImpl ownAttributes;
+
+        /** The target of a processing instruction, or the text of a DTD. */
+        String target;
+
+        /** The text. */
+        char[] ch;
+        int offset;
+        int length;
+
+        /** Storage for text copied from the pipeline. */
+        char[] buffer;
+
+        void clear(int type) {
+            this.type = type;
+            attributes = null;
+            target = null;
+            ch = null;
+            offset = 0;
+            length = 0;
+        }
+
+        /**
+         * Copies the given text. The pipeline may overwrite its buffers
+         * as soon as the event has been reported, even within a CDATA
+         * section or before a markup which crosses the end of the buffer.
+         */
+        void setText(XMLString text) {
+            if (buffer == null || buffer.length < text.length) {
+                buffer = new char[Math.max(text.length, 64)];
+            }
+            System.arraycopy(text.ch, text.offset, buffer, 0, text.length);
+            ch = buffer;
+            offset = 0;
+            length = text.length;
+        }
+
+        /** Copies the attributes of this event, which the pipeline is about to reuse. */
+        void materialize() {
+            if (attributes != null && attributes != ownAttributes) {
+                if (ownAttributes == null) {
+                    ownAttributes = new XMLAttributesImpl();
+                }
+                ownAttributes.removeAllAttributes();
+                final org.apache.xerces.xni.QName attrName = new org.apache.xerces.xni.QName();
+                for (int i = 0, length = attributes.getLength(); i < length; ++i) {
+                    attributes.getName(i, attrName);
+                    ownAttributes.addAttributeNS(attrName, attributes.getType(i), attributes.getValue(i));
+                    ownAttributes.setNonNormalizedValue(i, attributes.getNonNormalizedValue(i));
+                    ownAttributes.setSpecified(i, attributes.isSpecified(i));
+                }
+                attributes = ownAttributes;
+            }
+        }
+    }
+
+    /** An immutable namespace context. */
+    private static final class NamespaceContextSnapshot implements NamespaceContext {
+
+        /** Pairs of prefixes and namespace URIs. */
+        private final String[] fBindings;
+
+        NamespaceContextSnapshot(String[] bindings) {
+            fBindings = bindings;
+        }
+
+        public String getNamespaceURI(String prefix) {
+            if (prefix == null) {
+                throw new IllegalArgumentException("Prefix cannot be null.");
+            }
+            for (int i = 0; i < fBindings.length; i += 2) {
+                if (prefix.equals(fBindings[i])) {
+                    return fBindings[i + 1];
+                }
+            }
+            return XMLConstants.NULL_NS_URI;
+        }
+
+        public String getPrefix(String namespaceURI) {
+            final Iterator prefixes = getPrefixes(namespaceURI);
+            if (prefixes.hasNext()) {
+                return (String) prefixes.next();
+            }
+            return XMLConstants.NULL_NS_URI.equals(namespaceURI) ?
+                    XMLConstants.DEFAULT_NS_PREFIX : null;
+        }
+
+        public Iterator getPrefixes(String namespaceURI) {
+            if (namespaceURI == null) {
+                throw new IllegalArgumentException("Namespace URI cannot be null.");
+            }
+            final ArrayList<String> prefixes = new ArrayList<String>();
+            for (int i = 0; i < fBindings.length; i += 2) {
+                if (namespaceURI.equals(fBindings[i + 1]) &&
+                        namespaceURI.equals(getNamespaceURI(fBindings[i]))) {
+                    prefixes.add(fBindings[i]);
+                }
+            }
+            return prefixes.iterator();
+        }
+    }
+
+    /**
+     * Rebuilds the internal subset of the DTD from the declarations
+     * reported by the pipeline, as the DOM parser does, and completes
+     * the text of the DTD event at the end of the DTD.
+     */
+    private final class InternalSubsetHandler implements XMLDTDHandler {
+
+        /** The internal subset. */
+        private final StringBuffer fInternalSubset = new StringBuffer();
+
+        /** True while inside the external subset. */
+        private boolean fInExternalSubset;
+
+        public void startDTD(XMLLocator locator, Augmentations augs) throws XNIException {
+            fInternalSubset.setLength(0);
+            fInExternalSubset = false;
+        }
+
+        public void startParameterEntity(String name, XMLResourceIdentifier identifier,
+                String encoding, Augmentations augs) throws XNIException {
+            if (augs != null && !fInExternalSubset &&
+                    Boolean.TRUE.equals(augs.getItem(Constants.ENTITY_SKIPPED))) {
+                fInternalSubset.append(name).append(";\n");
+            }
+        }
+
+        public void textDecl(String version, String encoding, Augmentations augs)
+                throws XNIException {}
+
+        public void endParameterEntity(String name, Augmentations augs)
+                throws XNIException {}
+
+        public void startExternalSubset(XMLResourceIdentifier identifier, Augmentations augs)
+                throws XNIException {
+            fInExternalSubset = true;
+        }
+
+        public void endExternalSubset(Augmentations augs) throws XNIException {
+            fInExternalSubset = false;
+        }
+
+        public void comment(XMLString text, Augmentations augs) throws XNIException {
+            if (!fInExternalSubset) {
+                fInternalSubset.append("<!--").append(text.ch, text.offset, text.length).append("-->");
+            }
+        }
+
+        public void processingInstruction(String target, XMLString data,
+                Augmentations augs) throws XNIException {
+            if (!fInExternalSubset) {
+                fInternalSubset.append("<?").append(target);
+                if (data.length > 0) {
+                    fInternalSubset.append(' ').append(data.ch, data.offset, data.length);
+                }
+                fInternalSubset.append("?>");
+            }
+        }
+
+        public void elementDecl(String name, String contentModel, Augmentations augs)
+                throws XNIException {
+            if (!fInExternalSubset) {
+                fInternalSubset.append("<!ELEMENT ").append(name).append(' ')
+                    .append(contentModel).append(">\n");
+            }
+        }
+
+        public void startAttlist(String elementName, Augmentations augs)
+                throws XNIException {}
+
+        public void attributeDecl(String elementName, String attributeName,
+                String type, String[] enumeration, String defaultType,
+                XMLString defaultValue, XMLString nonNormalizedDefaultValue,
+                Augmentations augs) throws XNIException {
+            if (fInExternalSubset) {
+                return;
+            }
+            final StringBuffer buffer = fInternalSubset;
+            buffer.append("<!ATTLIST ").append(elementName).append(' ')
+                .append(attributeName).append(' ');
+            if (enumeration != null) {
+                if (type.equals("NOTATION")) {
+                    buffer.append("NOTATION ");
+                }
+                buffer.append('(');
+                for (int i = 0; i < enumeration.length; ++i) {
+                    if (i > 0) {
+                        buffer.append('|');
+                    }
+                    buffer.append(enumeration[i]);
+                }
+                buffer.append(')');
+            }
+            else {
+                buffer.append(type);
+            }
+            if (defaultType != null) {
+                buffer.append(' ').append(defaultType);
+            }
+            if (defaultValue != null) {
+                buffer.append(" '");
+                for (int i = 0; i < defaultValue.length; ++i) {
+                    final char c = defaultValue.ch[defaultValue.offset + i];
+                    if (c == '\'') {
+                        buffer.append("&apos;");
+                    }
+                    else {
+                        buffer.append(c);
+                    }
+                }
+                buffer.append('\'');
+            }
+            buffer.append(">\n");
+        }
+
+        public void endAttlist(Augmentations augs) throws XNIException {}
+
+        public void internalEntityDecl(String name, XMLString text,
+                XMLString nonNormalizedText, Augmentations augs) throws XNIException {
+            if (!fInExternalSubset) {
+                appendEntityName(name);
+                final String value = nonNormalizedText.toString();
+                final char quote = value.indexOf('\'') == -1 ? '\'' : '"';
+                fInternalSubset.append(quote).append(value).append(quote).append(">\n");
+            }
+        }
+
+        public void externalEntityDecl(String name, XMLResourceIdentifier identifier,
+                Augmentations augs) throws XNIException {
+            if (!fInExternalSubset) {
+                appendEntityName(name);
+                appendExternalID(identifier);
+                fInternalSubset.append(">\n");
+            }
+        }
+
+        public void unparsedEntityDecl(String name, XMLResourceIdentifier identifier,
+                String notation, Augmentations augs) throws XNIException {
+            if (!fInExternalSubset) {
+                appendEntityName(name);
+                appendExternalID(identifier);
+                fInternalSubset.append(" NDATA ").append(notation).append(">\n");
+            }
+        }
+
+        public void notationDecl(String name, XMLResourceIdentifier identifier,
+                Augmentations augs) throws XNIException {
+            if (!fInExternalSubset) {
+                fInternalSubset.append("<!NOTATION ").append(name).append(' ');
+                appendExternalID(identifier);
+                fInternalSubset.append(">\n");
+            }
+        }
+
+        public void startConditional(short type, Augmentations augs) throws XNIException {}
+
+        public void ignoredCharacters(XMLString text, Augmentations augs) throws XNIException {}
+
+        public void endConditional(Augmentations augs) throws XNIException {}
+
+        public void endDTD(Augmentations augs) throws XNIException {
+            final Event event = fDTD;
+            if (event != null) {
+                final StringBuffer buffer = fDTDText;
+                if (fInternalSubset.length() > 0) {
+                    buffer.append(" [\n").append(fInternalSubset).append(']');
+                }
+                buffer.append('>');
+                event.target = buffer.toString();
+                fDTD = null;
+            }
+        }
+
+        public void setDTDSource(XMLDTDSource source) {}
+
+        public XMLDTDSource getDTDSource() {
+            return null;
+        }
+
+        private void appendEntityName(String name) {
+            fInternalSubset.append("<!ENTITY ");
+            if (name.startsWith("%")) {
+                fInternalSubset.append("% ").append(name.substring(1));
+            }
+            else {
+                fInternalSubset.append(name);
+            }
+            fInternalSubset.append(' ');
+        }
+
+        private void appendExternalID(XMLResourceIdentifier identifier) {
+            final String publicId = identifier.getPublicId();
+            final String systemId = identifier.getLiteralSystemId();
+            if (publicId != null) {
+                fInternalSubset.append("PUBLIC '").append(publicId).append('\'');
+                if (systemId != null) {
+                    fInternalSubset.append(" '").append(systemId).append('\'');
+                }
+            }
+            else {
+                fInternalSubset.append("SYSTEM '").append(systemId).append('\'');
+            }
+        }
+    }
+
+    /** Adapts a StAX resolver to the XNI entity resolver interface. */
+    private static final class Resolver implements XMLEntityResolver {
+
+        private final XMLResolver fResolver;
+
+        Resolver(XMLResolver resolver) {
+            fResolver = resolver;
+        }
+
+        public XMLInputSource resolveEntity(XMLResourceIdentifier identifier)
+                throws XNIException, IOException {
+            final Object source;
+            try {
+                source = fResolver.resolveEntity(identifier.getPublicId(),
+                        identifier.getLiteralSystemId(), identifier.getBaseSystemId(),
+                        identifier.getNamespace());
+            }
+            catch (XMLStreamException e) {
+                throw new XNIException(e);
+            }
+            if (source == null) {
+                return null;
+            }
+            final XMLInputSource inputSource = new XMLInputSource(identifier);
+            if (source instanceof InputStream) {
+                inputSource.setByteStream((InputStream) source);
+            }
+            else if (source instanceof Reader) {
+                inputSource.setCharacterStream((Reader) source);
+            }
+            else {
+                throw new XNIException("Unsupported entity source " + source.getClass().getName() + ".");
+            }
+            return inputSource;
+        }
+    }
+}
@@ -0,0 +1,454 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.xerces.impl.dtd.DTDGrammar;
+import org.apache.xerces.impl.xs.SchemaGrammar;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.apache.xerces.xs.XSConstants;
+
+/**
+ * A grammar pool with a fixed budget, which evicts the least recently
+ * used grammars when the budget is exceeded.
+ * <p>
+ * The budget is a maximum number of grammars, a maximum estimated size
+ * of the grammars, or both. A grammar is used when it is retrieved from
+ * the pool or put into it again. A grammar whose estimated size exceeds
+ * the whole budget is not cached at all.
+ * <p>
+ * The estimated size of a grammar is computed once, when it is put into
+ * the pool, by <code>sizeOf</code>. The default estimate is proportional
+ * to the number of global components of a schema grammar or to the number
+ * of element declarations of a DTD grammar; applications which know more
+ * about their grammars may override it.
+ * <p>
+ * Unlike <code>XMLGrammarPoolImpl</code>, this pool gives validators no
+ * initial set of grammars: they ask for the grammars they need with
+ * <code>retrieveGrammar</code>, so that only those are marked as used.
+ * <p>
+ * The pool counts hits, misses and evictions, which may be used to
+ * choose its budget. It is safe for use by several threads.
+ *
+ * @see XMLGrammarPoolImpl
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public class BoundedGrammarPool implements XMLGrammarPool {
+
+    //
+    // Constants
+    //
+
+    /** Default maximum number of grammars. */
+    public static final int DEFAULT_MAX_GRAMMARS = 256;
+
+    /** No limit on the estimated size of the grammars. */
+    public static final long UNLIMITED_SIZE = Long.MAX_VALUE;
+
+    /** Estimated size of a grammar with no components. */
+    protected static final long GRAMMAR_SIZE = 4096;
+
+    /** Estimated size of a global component of a schema grammar. */
+    protected static final long SCHEMA_COMPONENT_SIZE = 1024;
+
+    /** Estimated size of an element declaration of a DTD grammar. */
+    protected static final long DTD_ELEMENT_SIZE = 512;
+
+    /** Zero length grammar array. */
+    private static final Grammar[] ZERO_LENGTH_GRAMMAR_ARRAY = new Grammar[0];
+
+    /** The kinds of global components of a schema grammar. */
+    private static final short[] SCHEMA_COMPONENT_TYPES = {
+        XSConstants.ELEMENT_DECLARATION, XSConstants.ATTRIBUTE_DECLARATION,
+        XSConstants.TYPE_DEFINITION, XSConstants.ATTRIBUTE_GROUP,
+        XSConstants.MODEL_GROUP_DEFINITION, XSConstants.NOTATION_DECLARATION,
+        XSConstants.IDENTITY_CONSTRAINT,
+    };
+
+    //
+    // Data
+    //
+
+    /** Grammars, from the least to the most recently used. */
+    private final LinkedHashMap<Key, Entry> fGrammars = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+
+    /** The maximum number of grammars. */
+    private final int fMaxGrammars;
+
+    /** The maximum estimated size of the grammars. */
+    private final long fMaxSize;
+
+    /** The estimated size of the grammars. */
+    private long fSize;
+
+    /** Whether this pool is locked. */
+    private volatile boolean fPoolIsLocked;
+
+    // statistics
+
+    private long fHitCount;
+    private long fMissCount;
+    private long fEvictionCount;
+
+    //
+    // Constructors
+    //
+
+    /** Constructs a grammar pool with the default maximum number of grammars. */
+    public BoundedGrammarPool() {
+        this(DEFAULT_MAX_GRAMMARS, UNLIMITED_SIZE);
+    } // <init>()
+
+    /**
+     * Constructs a grammar pool with the specified budget.
+     *
+     * @param maxGrammars The maximum number of grammars.
+     * @param maxSize     The maximum estimated size of the grammars, in
+     *                    bytes, or <code>UNLIMITED_SIZE</code>.
+     */
+    public BoundedGrammarPool(int maxGrammars, long maxSize) {
+        if (maxGrammars <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException();
+        }
+        fMaxGrammars = maxGrammars;
+        fMaxSize = maxSize;
+    } // <init>(int,long)
+
+    //
+    // XMLGrammarPool methods
+    //
+
+    public Grammar[] retrieveInitialGrammarSet(String grammarType) {
+        // Return no grammars, so that grammars are marked as used only
+        // when a validator actually needs them.
+        return ZERO_LENGTH_GRAMMAR_ARRAY;
+    } // retrieveInitialGrammarSet(String):Grammar[]
+
+    public void cacheGrammars(String grammarType, Grammar[] grammars) {
+        if (!fPoolIsLocked) {
+            for (int i = 0; i < grammars.length; ++i) {
+                putGrammar(grammars[i]);
+            }
+        }
+    } // cacheGrammars(String,Grammar[])
+
+    public Grammar retrieveGrammar(XMLGrammarDescription desc) {
+        synchronized (fGrammars) {
+            final Entry entry = fGrammars.get(new Key(desc));
+            if (entry != null) {
+                ++fHitCount;
+                return entry.grammar;
+            }
+            ++fMissCount;
+            return null;
+        }
+    } // retrieveGrammar(XMLGrammarDescription):Grammar
+
+    public void lockPool() {
+        fPoolIsLocked = true;
+    } // lockPool()
+
+    public void unlockPool() {
+        fPoolIsLocked = false;
+    } // unlockPool()
+
+    public void clear() {
+        synchronized (fGrammars) {
+            fGrammars.clear();
+            fSize = 0;
+        }
+    } // clear()
+
+    //
+    // Public methods
+    //
+
+    /**
+     * Puts the specified grammar into the grammar pool, unless the pool
+     * is locked, and evicts the least recently used grammars if the
+     * budget is exceeded.
+     *
+     * @param grammar The Grammar.
+     */
+    public void putGrammar(Grammar grammar) {
+        if (fPoolIsLocked) {
+            return;
+        }
+        final Key key = new Key(grammar.getGrammarDescription());
+        synchronized (fGrammars) {
+            final Entry entry = fGrammars.get(key);
+            if (entry != null && entry.grammar == grammar) {
+                return;
+            }
+        }
+        // estimate the size outside of the lock
+        final long size = sizeOf(grammar);
+        synchronized (fGrammars) {
+            final Entry old = fGrammars.remove(key);
+            if (old != null) {
+                fSize -= old.size;
+            }
+            if (size > fMaxSize) {
+                ++fEvictionCount;
+                return;
+            }
+            fGrammars.put(key, new Entry(grammar, size));
+            fSize += size;
+            evict();
+        }
+    } // putGrammar(Grammar)
+
+    /**
+     * Returns the grammar associated to the specified grammar description,
+     * or null if it is not in the pool. Unlike <code>retrieveGrammar</code>,
+     * this method neither marks the grammar as used nor counts a hit or a
+     * miss.
+     *
+     * @param desc The Grammar Description.
+     */
+    public Grammar getGrammar(XMLGrammarDescription desc) {
+        synchronized (fGrammars) {
+            // LinkedHashMap.get() would move the grammar to the end of the list
+            final Key key = new Key(desc);
+            final Iterator<Map.Entry<Key, Entry>> entries = fGrammars.entrySet().iterator();
+            while (entries.hasNext()) {
+                final Map.Entry<Key, Entry> entry = entries.next();
+                if (key.equals(entry.getKey())) {
+                    return entry.getValue().grammar;
+                }
+            }
+            return null;
+        }
+    } // getGrammar(XMLGrammarDescription):Grammar
+
+    /**
+     * Removes the grammar associated to the specified grammar description
+     * from the grammar pool and returns the removed grammar.
+     *
+     * @param desc The Grammar Description.
+     * @return     The removed grammar.
+     */
+    public Grammar removeGrammar(XMLGrammarDescription desc) {
+        synchronized (fGrammars) {
+            final Entry entry = fGrammars.remove(new Key(desc));
+            if (entry != null) {
+                fSize -= entry.size;
+                return entry.grammar;
+            }
+            return null;
+        }
+    } // removeGrammar(XMLGrammarDescription):Grammar
+
+    /**
+     * Returns true if the grammar pool contains a grammar associated
+     * to the specified grammar description.
+     *
+     * @param desc The Grammar Description.
+     */
+    public boolean containsGrammar(XMLGrammarDescription desc) {
+        synchronized (fGrammars) {
+            return fGrammars.containsKey(new Key(desc));
+        }
+    } // containsGrammar(XMLGrammarDescription):boolean
+
+    /** Returns the number of grammars in the pool. */
+    public int getGrammarCount() {
+        synchronized (fGrammars) {
+            return fGrammars.size();
+        }
+    } // getGrammarCount():int
+
+    /** Returns the estimated size of the grammars in the pool. */
+    public long getSize() {
+        synchronized (fGrammars) {
+            return fSize;
+        }
+    } // getSize():long
+
+    /** Returns the maximum number of grammars. */
+    public int getMaxGrammars() {
+        return fMaxGrammars;
+    } // getMaxGrammars():int
+
+    /** Returns the maximum estimated size of the grammars. */
+    public long getMaxSize() {
+        return fMaxSize;
+    } // getMaxSize():long
+
+    /** Returns the number of grammars retrieved from the pool. */
+    public long getHitCount() {
+        synchronized (fGrammars) {
+            return fHitCount;
+        }
+    } // getHitCount():long
+
+    /** Returns the number of grammars asked for which were not in the pool. */
+    public long getMissCount() {
+        synchronized (fGrammars) {
+            return fMissCount;
+        }
+    } // getMissCount():long
+
+    /** Returns the ratio of hits to retrievals, or 0 if there were none. */
+    public double getHitRate() {
+        synchronized (fGrammars) {
+            final long total = fHitCount + fMissCount;
+            return total > 0 ? (double) fHitCount / total : 0;
+        }
+    } // getHitRate():double
+
+    /** Returns the number of grammars evicted, or not cached because of their size. */
+    public long getEvictionCount() {
+        synchronized (fGrammars) {
+            return fEvictionCount;
+        }
+    } // getEvictionCount():long
+
+    /** Resets the statistics. */
+    public void resetStatistics() {
+        synchronized (fGrammars) {
+            fHitCount = 0;
+            fMissCount = 0;
+            fEvictionCount = 0;
+        }
+    } // resetStatistics()
+
+    /**
+     * This method checks whether two grammars are the same. Currently, we compare
+     * the root element names for DTD grammars and the target namespaces for Schema grammars.
+     * The application can override this behaviour and add its own logic.
+     *
+     * @param desc1 The grammar description
+     * @param desc2 The grammar description of the grammar to be compared to
+     * @return      True if the grammars are equal, otherwise false
+     */
+    public boolean equals(XMLGrammarDescription desc1, XMLGrammarDescription desc2) {
+        return desc1.equals(desc2);
+    } // equals(XMLGrammarDescription,XMLGrammarDescription):boolean
+
+    /**
+     * Returns the hash code value for the given grammar description.
+     *
+     * @param desc The grammar description
+     * @return     The hash code value
+     */
+    public int hashCode(XMLGrammarDescription desc) {
+        return desc.hashCode();
+    } // hashCode(XMLGrammarDescription):int
+
+    //
+    // Protected methods
+    //
+
+    /**
+     * Returns the estimated size of a grammar, in bytes. This method is
+     * called once for each grammar put into the pool, without holding
+     * the pool's lock. The application can override this behaviour and
+     * add its own logic.
+     *
+     * @param grammar The grammar.
+     * @return        The estimated size of the grammar.
+     */
+    protected long sizeOf(Grammar grammar) {
+        long size = GRAMMAR_SIZE;
+        if (grammar instanceof SchemaGrammar) {
+            final SchemaGrammar schemaGrammar = (SchemaGrammar) grammar;
+            for (int i = 0; i < SCHEMA_COMPONENT_TYPES.length; ++i) {
+                size += schemaGrammar.getComponents(SCHEMA_COMPONENT_TYPES[i]).getLength()
+                        * SCHEMA_COMPONENT_SIZE;
+            }
+        }
+        else if (grammar instanceof DTDGrammar) {
+            final DTDGrammar dtdGrammar = (DTDGrammar) grammar;
+            for (int i = dtdGrammar.getFirstElementDeclIndex(); i != -1;
+                 i = dtdGrammar.getNextElementDeclIndex(i)) {
+                size += DTD_ELEMENT_SIZE;
+            }
+        }
+        return size;
+    } // sizeOf(Grammar):long
+
+    //
+    // Private methods
+    //
+
+    /** Evicts the least recently used grammars until the budget is met. */
+    private void evict() {
+        final Iterator<Entry> entries = fGrammars.values().iterator();
+        while ((fGrammars.size() > fMaxGrammars || fSize > fMaxSize) && entries.hasNext()) {
+            final Entry entry = entries.next();
+            entries.remove();
+            fSize -= entry.size;
+            ++fEvictionCount;
+        }
+    } // evict()
+
+    //
+    // Classes
+    //
+
+    /** A grammar and its estimated size. */
+    private static final class Entry {
+
+        final Grammar grammar;
+        final long size;
+
+        Entry(Grammar grammar, long size) {
+            this.grammar = grammar;
+            this.size = size;
+        }
+
+    } // class Entry
+
+    /** A grammar description, compared with the methods of the pool. */
+    private final class Key {
+
+        /** The description. */
+        private final XMLGrammarDescription fDesc;
+
+        /** The hash code of the description. */
+        private final int fHash;
+
+        Key(XMLGrammarDescription desc) {
+            fDesc = desc;
+            fHash = BoundedGrammarPool.this.hashCode(desc);
+        }
+
+        public int hashCode() {
+            return fHash;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return fHash == other.fHash && BoundedGrammarPool.this.equals(fDesc, other.fDesc);
+        }
+
+    } // class Key
+
+} // class BoundedGrammarPool
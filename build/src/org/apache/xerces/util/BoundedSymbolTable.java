@@ -0,0 +1,498 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.util;
+
+/**
+ * A symbol table which holds a bounded number of symbols, for parsers
+ * which are reused for a long time on documents containing many
+ * different names.
+ * <p>
+ * The symbols are held in two generations. The core generation holds
+ * the symbols which are pinned, such as those in <code>XMLSymbols</code>
+ * and any added with <code>pin</code>, and the symbols promoted from
+ * the cold generation; it grows up to a given capacity and is never
+ * cleared. New symbols are added to the cold generation. When the cold
+ * generation is full, or when <code>recycle</code> is called (typically
+ * between documents), the cold symbols which have been looked up often
+ * enough are promoted to the core generation, while there is room, and
+ * the others are discarded.
+ * <p>
+ * Since every symbol is an interned string, discarding a symbol does not
+ * break reference comparisons: adding the same name again returns the
+ * same string object. Discarded symbols only cost the time needed to
+ * add them again.
+ * <p>
+ * Like <code>SymbolTable</code>, this class is not thread-safe.
+ *
+ * @see org.apache.xerces.parsers.BoundedSymbolTableConfiguration
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public class BoundedSymbolTable extends SymbolTable {
+
+    //
+    // Constants
+    //
+
+    /** Default capacity of the core generation. */
+    public static final int DEFAULT_CORE_CAPACITY = 2048;
+
+    /** Default capacity of the cold generation. */
+    public static final int DEFAULT_COLD_CAPACITY = 8192;
+
+    /** Default number of lookups after which a cold symbol is promoted. */
+    public static final int DEFAULT_PROMOTION_THRESHOLD = 8;
+
+    /** The symbols which are always pinned. */
+    private static final String[] PINNED_SYMBOLS = {
+        XMLSymbols.EMPTY_STRING, XMLSymbols.PREFIX_XML, XMLSymbols.PREFIX_XMLNS,
+        XMLSymbols.fANYSymbol, XMLSymbols.fCDATASymbol, XMLSymbols.fIDSymbol,
+        XMLSymbols.fIDREFSymbol, XMLSymbols.fIDREFSSymbol, XMLSymbols.fENTITYSymbol,
+        XMLSymbols.fENTITIESSymbol, XMLSymbols.fNMTOKENSymbol, XMLSymbols.fNMTOKENSSymbol,
+        XMLSymbols.fNOTATIONSymbol, XMLSymbols.fENUMERATIONSymbol, XMLSymbols.fIMPLIEDSymbol,
+        XMLSymbols.fREQUIREDSymbol, XMLSymbols.fFIXEDSymbol,
+    };
+
+    //
+    // Data
+    //
+
+    /** Maximum number of symbols promoted to the core generation. */
+    protected final int fCoreCapacity;
+
+    /** Number of symbols promoted to the core generation. */
+    private int fPromotedCount;
+
+    /** Maximum number of symbols in the cold generation. */
+    protected final int fColdCapacity;
+
+    /** Number of lookups after which a cold symbol may be promoted. */
+    protected int fPromotionThreshold = DEFAULT_PROMOTION_THRESHOLD;
+
+    /** Buckets of the cold generation. */
+    private ColdEntry[] fColdBuckets;
+
+    /** Number of symbols in the cold generation. */
+    private int fColdCount;
+
+    /** Empty buckets to which the cold generation is switched when it is recycled. */
+    private ColdEntry[] fSpareBuckets;
+
+    // statistics
+
+    /** Number of lookups which found a symbol. */
+    private long fHitCount;
+
+    /** Number of lookups which added a symbol. */
+    private long fMissCount;
+
+    /** Number of symbols promoted to the core generation. */
+    private long fPromotionCount;
+
+    /** Number of symbols discarded from the cold generation. */
+    private long fEvictionCount;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs a bounded symbol table with the default capacities.
+     */
+    public BoundedSymbolTable() {
+        this(DEFAULT_CORE_CAPACITY, DEFAULT_COLD_CAPACITY);
+    } // <init>()
+
+    /**
+     * Constructs a bounded symbol table.
+     *
+     * @param coreCapacity The maximum number of symbols promoted to the
+     *                     core generation. Pinned symbols are not counted.
+     * @param coldCapacity The maximum number of symbols in the cold
+     *                     generation.
+     */
+    public BoundedSymbolTable(int coreCapacity, int coldCapacity) {
+        super(TABLE_SIZE);
+        if (coreCapacity < 0) {
+            throw new IllegalArgumentException("Illegal Capacity: " + coreCapacity);
+        }
+        if (coldCapacity <= 0) {
+            throw new IllegalArgumentException("Illegal Capacity: " + coldCapacity);
+        }
+        fColdCapacity = coldCapacity;
+        fColdBuckets = new ColdEntry[(int) (coldCapacity / fLoadFactor) + 1];
+        fSpareBuckets = new ColdEntry[fColdBuckets.length];
+        fCoreCapacity = coreCapacity;
+        for (int i = 0; i < PINNED_SYMBOLS.length; ++i) {
+            super.addSymbol(PINNED_SYMBOLS[i]);
+        }
+    } // <init>(int,int)
+
+    //
+    // Public methods
+    //
+
+    /**
+     * Adds the given symbol to the core generation, where it is never
+     * discarded, and returns the unique reference to it. Pinned symbols
+     * do not count against the capacity of the core generation.
+     */
+    public String pin(String symbol) {
+        final String existing = coreGet(symbol, hash(symbol));
+        if (existing != null) {
+            return existing;
+        }
+        final String result = super.addSymbol(symbol);
+        removeCold(result);
+        return result;
+    } // pin(String):String
+
+    /**
+     * Moves all of the symbols in the cold generation to the core
+     * generation, where they are never discarded. This may be used, for
+     * instance, after grammars have been loaded so that their names
+     * remain in the table.
+     */
+    public void pinColdSymbols() {
+        final ColdEntry[] buckets = detachCold();
+        for (int i = 0; i < buckets.length; ++i) {
+            for (ColdEntry entry = buckets[i]; entry != null; entry = entry.next) {
+                super.addSymbol(entry.symbol);
+            }
+            buckets[i] = null;
+        }
+        fSpareBuckets = buckets;
+    } // pinColdSymbols()
+
+    /**
+     * Discards the cold generation, first promoting to the core
+     * generation, while there is room, the symbols which were looked up
+     * at least as many times as the promotion threshold.
+     */
+    public void recycle() {
+        final ColdEntry[] buckets = detachCold();
+        for (int i = 0; i < buckets.length; ++i) {
+            for (ColdEntry entry = buckets[i]; entry != null; entry = entry.next) {
+                if (entry.hits >= fPromotionThreshold && fPromotedCount < fCoreCapacity) {
+                    super.addSymbol(entry.symbol);
+                    ++fPromotedCount;
+                    ++fPromotionCount;
+                }
+                else {
+                    ++fEvictionCount;
+                }
+            }
+            buckets[i] = null;
+        }
+        fSpareBuckets = buckets;
+    } // recycle()
+
+    /**
+     * Sets the number of times a cold symbol must be looked up before it
+     * may be promoted to the core generation.
+     */
+    public void setPromotionThreshold(int threshold) {
+        fPromotionThreshold = threshold;
+    } // setPromotionThreshold(int)
+
+    /** Returns the number of symbols in the table. */
+    public int getSize() {
+        return fCount + fColdCount;
+    } // getSize():int
+
+    /** Returns the number of symbols in the core generation. */
+    public int getCoreSize() {
+        return fCount;
+    } // getCoreSize():int
+
+    /** Returns the number of symbols in the cold generation. */
+    public int getColdSize() {
+        return fColdCount;
+    } // getColdSize():int
+
+    /** Returns the number of lookups which found a symbol in the table. */
+    public long getHitCount() {
+        return fHitCount;
+    } // getHitCount():long
+
+    /** Returns the number of lookups which added a symbol to the table. */
+    public long getMissCount() {
+        return fMissCount;
+    } // getMissCount():long
+
+    /** Returns the fraction of lookups which found a symbol in the table. */
+    public double getHitRate() {
+        final long lookups = fHitCount + fMissCount;
+        return lookups > 0 ? (double) fHitCount / lookups : 0;
+    } // getHitRate():double
+
+    /** Returns the number of symbols promoted to the core generation. */
+    public long getPromotionCount() {
+        return fPromotionCount;
+    } // getPromotionCount():long
+
+    /** Returns the number of symbols discarded from the cold generation. */
+    public long getEvictionCount() {
+        return fEvictionCount;
+    } // getEvictionCount():long
+
+    /** Resets the lookup, promotion and eviction counts. */
+    public void resetStatistics() {
+        fHitCount = 0;
+        fMissCount = 0;
+        fPromotionCount = 0;
+        fEvictionCount = 0;
+    } // resetStatistics()
+
+    //
+    // SymbolTable methods
+    //
+
+    /**
+     * Adds the specified symbol to the symbol table and returns a
+     * reference to the unique symbol. If the symbol already exists,
+     * the previous symbol reference is returned instead, in order
+     * guarantee that symbol references remain unique.
+     *
+     * @param symbol The new symbol.
+     */
+    public String addSymbol(String symbol) {
+        final int hash = hash(symbol);
+        String result = coreGet(symbol, hash);
+        if (result != null) {
+            ++fHitCount;
+            return result;
+        }
+        final int length = symbol.length();
+        final int bucket = hash % fColdBuckets.length;
+        OUTER: for (ColdEntry entry = fColdBuckets[bucket]; entry != null; entry = entry.next) {
+            if (length == entry.characters.length) {
+                for (int i = 0; i < length; ++i) {
+                    if (symbol.charAt(i) != entry.characters[i]) {
+                        continue OUTER;
+                    }
+                }
+                ++entry.hits;
+                ++fHitCount;
+                return entry.symbol;
+            }
+        }
+        ++fMissCount;
+        final char[] characters = new char[length];
+        symbol.getChars(0, length, characters, 0);
+        return addCold(symbol.intern(), characters, hash);
+    } // addSymbol(String):String
+
+    /**
+     * Adds the specified symbol to the symbol table and returns a
+     * reference to the unique symbol. If the symbol already exists,
+     * the previous symbol reference is returned instead, in order
+     * guarantee that symbol references remain unique.
+     *
+     * @param buffer The buffer containing the new symbol.
+     * @param offset The offset into the buffer of the new symbol.
+     * @param length The length of the new symbol in the buffer.
+     */
+    public String addSymbol(char[] buffer, int offset, int length) {
+        final int hash = hash(buffer, offset, length);
+        String result = coreGet(buffer, offset, length, hash);
+        if (result != null) {
+            ++fHitCount;
+            return result;
+        }
+        final int bucket = hash % fColdBuckets.length;
+        OUTER: for (ColdEntry entry = fColdBuckets[bucket]; entry != null; entry = entry.next) {
+            if (length == entry.characters.length) {
+                for (int i = 0; i < length; ++i) {
+                    if (buffer[offset + i] != entry.characters[i]) {
+                        continue OUTER;
+                    }
+                }
+                ++entry.hits;
+                ++fHitCount;
+                return entry.symbol;
+            }
+        }
+        ++fMissCount;
+        final char[] characters = new char[length];
+        System.arraycopy(buffer, offset, characters, 0, length);
+        return addCold(new String(characters).intern(), characters, hash);
+    } // addSymbol(char[],int,int):String
+
+    /**
+     * Returns true if the symbol table already contains the specified
+     * symbol.
+     *
+     * @param symbol The symbol to look for.
+     */
+    public boolean containsSymbol(String symbol) {
+        return super.containsSymbol(symbol) || coldGet(symbol) != null;
+    } // containsSymbol(String):boolean
+
+    /**
+     * Returns true if the symbol table already contains the specified
+     * symbol.
+     *
+     * @param buffer The buffer containing the symbol to look for.
+     * @param offset The offset into the buffer.
+     * @param length The length of the symbol in the buffer.
+     */
+    public boolean containsSymbol(char[] buffer, int offset, int length) {
+        return super.containsSymbol(buffer, offset, length) ||
+            coldGet(new String(buffer, offset, length)) != null;
+    } // containsSymbol(char[],int,int):boolean
+
+    /**
+     * Randomly selects a new hash function and reorganizes both
+     * generations.
+     */
+    protected void rebalance() {
+        super.rebalance();
+        final ColdEntry[] oldBuckets = fColdBuckets;
+        final ColdEntry[] buckets = new ColdEntry[oldBuckets.length];
+        for (int i = 0; i < oldBuckets.length; ++i) {
+            for (ColdEntry entry = oldBuckets[i]; entry != null;) {
+                final ColdEntry next = entry.next;
+                final int bucket = hash(entry.symbol) % buckets.length;
+                entry.next = buckets[bucket];
+                buckets[bucket] = entry;
+                entry = next;
+            }
+        }
+        fColdBuckets = buckets;
+    } // rebalance()
+
+    //
+    // Private methods
+    //
+
+    /** Returns the symbol equal to the given string in the core generation, or null. */
+    private String coreGet(String symbol, int hash) {
+        final int length = symbol.length();
+        OUTER: for (Entry entry = fBuckets[hash % fTableSize]; entry != null; entry = entry.next) {
+            if (length == entry.characters.length) {
+                for (int i = 0; i < length; ++i) {
+                    if (symbol.charAt(i) != entry.characters[i]) {
+                        continue OUTER;
+                    }
+                }
+                return entry.symbol;
+            }
+        }
+        return null;
+    } // coreGet(String,int):String
+
+    /** Returns the symbol equal to the given characters in the core generation, or null. */
+    private String coreGet(char[] buffer, int offset, int length, int hash) {
+        OUTER: for (Entry entry = fBuckets[hash % fTableSize]; entry != null; entry = entry.next) {
+            if (length == entry.characters.length) {
+                for (int i = 0; i < length; ++i) {
+                    if (buffer[offset + i] != entry.characters[i]) {
+                        continue OUTER;
+                    }
+                }
+                return entry.symbol;
+            }
+        }
+        return null;
+    } // coreGet(char[],int,int,int):String
+
+    /** Returns the entry for the given symbol in the cold generation, or null. */
+    private ColdEntry coldGet(String symbol) {
+        for (ColdEntry entry = fColdBuckets[hash(symbol) % fColdBuckets.length];
+                entry != null; entry = entry.next) {
+            if (entry.symbol.equals(symbol)) {
+                return entry;
+            }
+        }
+        return null;
+    } // coldGet(String):ColdEntry
+
+    /**
+     * Replaces the cold generation with an empty one and returns its
+     * buckets, so that the core generation can be reorganized while
+     * they are visited.
+     */
+    private ColdEntry[] detachCold() {
+        final ColdEntry[] buckets = fColdBuckets;
+        fColdBuckets = fSpareBuckets;
+        fSpareBuckets = null;
+        fColdCount = 0;
+        return buckets;
+    } // detachCold():ColdEntry[]
+
+    /** Adds a symbol to the cold generation, recycling it first if it is full. */
+    private String addCold(String symbol, char[] characters, int hash) {
+        if (fColdCount >= fColdCapacity) {
+            recycle();
+        }
+        final int bucket = hash % fColdBuckets.length;
+        fColdBuckets[bucket] = new ColdEntry(symbol, characters, fColdBuckets[bucket]);
+        ++fColdCount;
+        return symbol;
+    } // addCold(String,char[],int):String
+
+    /** Removes a symbol from the cold generation. */
+    private void removeCold(String symbol) {
+        final int bucket = hash(symbol) % fColdBuckets.length;
+        ColdEntry previous = null;
+        for (ColdEntry entry = fColdBuckets[bucket]; entry != null; entry = entry.next) {
+            if (entry.symbol == symbol) {
+                if (previous == null) {
+                    fColdBuckets[bucket] = entry.next;
+                }
+                else {
+                    previous.next = entry.next;
+                }
+                --fColdCount;
+                return;
+            }
+            previous = entry;
+        }
+    } // removeCold(String)
+
+    //
+    // Classes
+    //
+
+    /** An entry of the cold generation. */
+    private static final class ColdEntry {
+
+        /** Symbol. */
+        final String symbol;
+
+        /** Symbol characters. */
+        final char[] characters;
+
+        /** The next entry. */
+        ColdEntry next;
+
+        /** The number of times the symbol was looked up. */
+        int hits;
+
+        ColdEntry(String symbol, char[] characters, ColdEntry next) {
+            this.symbol = symbol;
+            this.characters = characters;
+            this.next = next;
+        }
+
+    } // class ColdEntry
+
+} // class BoundedSymbolTable
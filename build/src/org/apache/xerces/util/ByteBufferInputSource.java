@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.xerces.impl.io.ByteBufferInputStream;
+import org.apache.xerces.xni.parser.XMLInputSource;
+
+/**
+ * This class represents an input source for an XML resource
+ * whose bytes are already available in a <code>java.nio.ByteBuffer</code>
+ * or which should be read by memory mapping a <code>FileChannel</code>.
+ * The entity manager reads the content directly from the buffer or
+ * the mapped regions of the file without opening a connection to the
+ * system identifier and without any read system calls. The system
+ * identifier is still used for resolving relative URIs and for error
+ * reporting.
+ * <p>
+ * With the <code>http://apache.org/xml/features/scanner/direct-byte-decoding</code>
+ * feature enabled, UTF-8 and US-ASCII content is decoded straight from
+ * the buffer or the mapped regions into the scanner's character buffer.
+ * Otherwise the bytes are copied into the reader's byte array, a buffer
+ * at a time, as for any other byte stream.
+ * <p>
+ * As with any other byte stream supplied to the parser, the file
+ * channel is closed once the parser is done reading the input.
+ *
+ * @version $Id$
+ */
+public final class ByteBufferInputSource extends XMLInputSource {
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs an input source over the bytes remaining in the given
+     * buffer. The position and limit of the buffer are not modified
+     * while it is read, so the same buffer may be parsed again.
+     *
+     * @param publicId     the public identifier, if known
+     * @param systemId     the system identifier. This value should
+     *                     always be set, if possible, and can be
+     *                     relative or absolute. If the system identifier
+     *                     is relative, then the base system identifier
+     *                     should also be set.
+     * @param baseSystemId the base system identifier. This value should
+     *                     always be an absolute base URI applicable to the system identifier.
+     * @param byteBuffer   the buffer containing the document
+     * @param encoding     the encoding of the bytes, if known
+     */
+    public ByteBufferInputSource(String publicId, String systemId,
+            String baseSystemId, ByteBuffer byteBuffer, String encoding) {
+        super(publicId, systemId, baseSystemId, new ByteBufferInputStream(byteBuffer), encoding);
+    } // <init>(String,String,String,ByteBuffer,String)
+
+    /**
+     * Constructs an input source which memory maps the given file
+     * channel from its current position to its end. Files larger than
+     * the maximum size of a single mapping are mapped region by region
+     * as they are read.
+     *
+     * @param publicId     the public identifier, if known
+     * @param systemId     the system identifier. This value should
+     *                     always be set, if possible, and can be
+     *                     relative or absolute. If the system identifier
+     *                     is relative, then the base system identifier
+     *                     should also be set.
+     * @param baseSystemId the base system identifier. This value should
+     *                     always be an absolute base URI applicable to the system identifier.
+     * @param channel      the file channel to map
+     * @param encoding     the encoding of the file, if known
+     *
+     * @throws IOException if the file channel could not be mapped
+     */
+    public ByteBufferInputSource(String publicId, String systemId,
+            String baseSystemId, FileChannel channel, String encoding) throws IOException {
+        super(publicId, systemId, baseSystemId, new ByteBufferInputStream(channel), encoding);
+    } // <init>(String,String,String,FileChannel,String)
+
+    //
+    // Public methods
+    //
+
+    /**
+     * Returns the number of bytes of the document which have not yet
+     * been read, or -1 if the byte stream of this input source has been
+     * replaced by one of unknown length.
+     */
+    public long getRemaining() {
+        if (fByteStream instanceof ByteBufferInputStream) {
+            return ((ByteBufferInputStream) fByteStream).getRemaining();
+        }
+        return -1;
+    } // getRemaining():long
+
+} // class ByteBufferInputSource
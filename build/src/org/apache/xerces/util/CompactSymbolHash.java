@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.util;
+
+/**
+ * A SymbolHash which stores its keys and values in two flat arrays,
+ * using open addressing with linear probing, instead of chaining an
+ * entry object per mapping. It takes about a third of the memory of
+ * a SymbolHash with the same mappings, and a lookup reads the arrays
+ * only.
+ * <p>
+ * It is meant for tables which are mostly read once filled, such as
+ * the component tables of grammars kept in a grammar pool, but still
+ * supports adding mappings.
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class CompactSymbolHash extends SymbolHash {
+
+    private static final long serialVersionUID = 3640217263453931386L;
+
+    //
+    // Constants
+    //
+
+    /** Minimum capacity of the arrays. */
+    private static final int MIN_CAPACITY = 2;
+
+    //
+    // Data
+    //
+
+    /** The keys; the capacity is a power of two. */
+    private Object[] fKeys;
+
+    /** The values, at the index of their keys. */
+    private Object[] fValues;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs a table with the mappings of another.
+     *
+     * @param table the table to copy
+     */
+    public CompactSymbolHash(SymbolHash table) {
+        super(0);
+        if (table instanceof CompactSymbolHash) {
+            final CompactSymbolHash compact = (CompactSymbolHash) table;
+            fKeys = (Object[]) compact.fKeys.clone();
+            fValues = (Object[]) compact.fValues.clone();
+            fNum = compact.fNum;
+            fHashMultipliers = compact.fHashMultipliers != null ? (int[]) compact.fHashMultipliers.clone() : null;
+            return;
+        }
+        fHashMultipliers = table.fHashMultipliers != null ? (int[]) table.fHashMultipliers.clone() : null;
+        final int capacity = getCapacity(table.getLength());
+        fKeys = new Object[capacity];
+        fValues = new Object[capacity];
+        for (int i = 0; i < table.fTableSize; ++i) {
+            for (Entry entry = table.fBuckets[i]; entry != null; entry = entry.next) {
+                final int index = indexOf(entry.key);
+                fKeys[index] = entry.key;
+                fValues[index] = entry.value;
+                ++fNum;
+            }
+        }
+    }
+
+    //
+    // SymbolHash methods
+    //
+
+    public void put(Object key, Object value) {
+        int index = indexOf(key);
+        if (fKeys[index] != null) {
+            fValues[index] = value;
+            return;
+        }
+        if ((fNum + 1) << 2 > fKeys.length * 3) {
+            // keep the arrays at most three quarters full
+            resize(fKeys.length << 1);
+            index = indexOf(key);
+        }
+        else if (key instanceof String && getProbeCount(key, index) >= MAX_HASH_COLLISIONS) {
+            // select a new hash function, as SymbolHash does
+            if (fHashMultipliers == null) {
+                fHashMultipliers = new int[MULTIPLIERS_SIZE];
+            }
+            PrimeNumberSequenceGenerator.generateSequence(fHashMultipliers);
+            resize(fKeys.length);
+            index = indexOf(key);
+        }
+        fKeys[index] = key;
+        fValues[index] = value;
+        ++fNum;
+    }
+
+    public Object get(Object key) {
+        return fValues[indexOf(key)];
+    }
+
+    public int getValues(Object[] elements, int from) {
+        for (int i = 0, j = 0; i < fKeys.length && j < fNum; ++i) {
+            if (fKeys[i] != null) {
+                elements[from + j++] = fValues[i];
+            }
+        }
+        return fNum;
+    }
+
+    public Object[] getEntries() {
+        final Object[] entries = new Object[fNum << 1];
+        for (int i = 0, j = 0; i < fKeys.length && j < entries.length; ++i) {
+            if (fKeys[i] != null) {
+                entries[j++] = fKeys[i];
+                entries[j++] = fValues[i];
+            }
+        }
+        return entries;
+    }
+
+    public SymbolHash makeClone() {
+        return new CompactSymbolHash(this);
+    }
+
+    public void clear() {
+        for (int i = 0; i < fKeys.length; ++i) {
+            fKeys[i] = null;
+            fValues[i] = null;
+        }
+        fNum = 0;
+        fHashMultipliers = null;
+    }
+
+    //
+    // Private methods
+    //
+
+    /** Returns the index of a key, or of the free slot where it belongs. */
+    private int indexOf(Object key) {
+        final int mask = fKeys.length - 1;
+        int index = spread(hash(key)) & mask;
+        Object current;
+        while ((current = fKeys[index]) != null) {
+            if (current == key || key.equals(current)) {
+                break;
+            }
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /** Returns the number of slots probed to find the slot of a key. */
+    private int getProbeCount(Object key, int index) {
+        return (index - (spread(hash(key)) & (fKeys.length - 1))) & (fKeys.length - 1);
+    }
+
+    private void resize(int capacity) {
+        final Object[] keys = fKeys;
+        final Object[] values = fValues;
+        fKeys = new Object[capacity];
+        fValues = new Object[capacity];
+        for (int i = 0; i < keys.length; ++i) {
+            if (keys[i] != null) {
+                final int index = indexOf(keys[i]);
+                fKeys[index] = keys[i];
+                fValues[index] = values[i];
+            }
+        }
+    }
+
+    /** Mixes the high bits of a hash code into the bits used as index. */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /** Returns the capacity of the arrays for a number of mappings. */
+    private static int getCapacity(int count) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 < count << 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+} // class CompactSymbolHash
@@ -0,0 +1,415 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.util;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * A compact, replayable record of SAX events.
+ * <p>
+ * The events received through the <code>ContentHandler</code>,
+ * <code>DTDHandler</code> and <code>ErrorHandler</code> interfaces are
+ * stored as a list of operation codes, a list of the strings they refer
+ * to and a single character array holding all of the character data, so
+ * that recording a document does not create an object per event. The
+ * events can then be replayed, any number of times and on any thread, to
+ * another set of handlers. Warnings and errors are recorded in order with
+ * the other events; fatal errors are not recorded, they are rethrown.
+ * The document locator is not recorded.
+ * <p>
+ * A buffer must only be used by one thread at a time.
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class SAXEventBuffer
+    implements ContentHandler, DTDHandler, ErrorHandler {
+
+    //
+    // Constants
+    //
+
+    // operation codes
+
+    private static final int START_DOCUMENT = 0;
+    private static final int END_DOCUMENT = 1;
+    private static final int START_PREFIX_MAPPING = 2;
+    private static final int END_PREFIX_MAPPING = 3;
+    private static final int START_ELEMENT = 4;
+    private static final int END_ELEMENT = 5;
+    private static final int CHARACTERS = 6;
+    private static final int IGNORABLE_WHITESPACE = 7;
+    private static final int PROCESSING_INSTRUCTION = 8;
+    private static final int SKIPPED_ENTITY = 9;
+    private static final int NOTATION_DECL = 10;
+    private static final int UNPARSED_ENTITY_DECL = 11;
+    private static final int WARNING = 12;
+    private static final int ERROR = 13;
+
+    //
+    // Data
+    //
+
+    /** Operation codes, each followed by its integer arguments. */
+    private int[] fOps = new int[64];
+
+    /** Number of entries in the operation list. */
+    private int fOpCount;
+
+    /** Strings and exceptions referred to by the operations. */
+    private Object[] fObjects = new Object[64];
+
+    /** Number of entries in the object list. */
+    private int fObjectCount;
+
+    /** Character data. */
+    private char[] fChars = new char[256];
+
+    /** Number of characters of character data. */
+    private int fCharCount;
+
+    /** Number of events recorded. */
+    private int fEventCount;
+
+    /** Index of the operation code of the last run of characters. */
+    private int fLastChars = -1;
+
+    /** Attributes passed to the handler during a replay. */
+    private AttributesImpl fAttributes;
+
+    //
+    // Constructors
+    //
+
+    /** Default constructor. */
+    public SAXEventBuffer() {}
+
+    //
+    // Public methods
+    //
+
+    /** Discards the recorded events. */
+    public void clear() {
+        for (int i = 0; i < fObjectCount; ++i) {
+            fObjects[i] = null;
+        }
+        fOpCount = 0;
+        fObjectCount = 0;
+        fCharCount = 0;
+        fEventCount = 0;
+        fLastChars = -1;
+    } // clear()
+
+    /** Returns the number of events recorded. */
+    public int getEventCount() {
+        return fEventCount;
+    } // getEventCount():int
+
+    /** Returns the number of characters of character data recorded. */
+    public int getCharacterCount() {
+        return fCharCount;
+    } // getCharacterCount():int
+
+    /**
+     * Replays the recorded events, in order, to the given handlers.
+     * Any of the handlers may be null, in which case the events for
+     * it are skipped.
+     */
+    public void replay(ContentHandler contentHandler, DTDHandler dtdHandler,
+            ErrorHandler errorHandler) throws SAXException {
+        final int[] ops = fOps;
+        final Object[] objects = fObjects;
+        final char[] chars = fChars;
+        int op = 0;
+        int object = 0;
+        while (op < fOpCount) {
+            switch (ops[op++]) {
+                case START_DOCUMENT:
+                    if (contentHandler != null) {
+                        contentHandler.startDocument();
+                    }
+                    break;
+                case END_DOCUMENT:
+                    if (contentHandler != null) {
+                        contentHandler.endDocument();
+                    }
+                    break;
+                case START_PREFIX_MAPPING:
+                    if (contentHandler != null) {
+                        contentHandler.startPrefixMapping((String) objects[object],
+                                (String) objects[object + 1]);
+                    }
+                    object += 2;
+                    break;
+                case END_PREFIX_MAPPING:
+                    if (contentHandler != null) {
+                        contentHandler.endPrefixMapping((String) objects[object]);
+                    }
+                    object += 1;
+                    break;
+                case START_ELEMENT: {
+                    final int length = ops[op++];
+                    if (contentHandler != null) {
+                        if (fAttributes == null) {
+                            fAttributes = new AttributesImpl();
+                        }
+                        final AttributesImpl attributes = fAttributes;
+                        attributes.clear();
+                        for (int i = 0, a = object + 3; i < length; ++i, a += 5) {
+                            attributes.addAttribute((String) objects[a], (String) objects[a + 1],
+                                    (String) objects[a + 2], (String) objects[a + 3],
+                                    (String) objects[a + 4]);
+                        }
+                        contentHandler.startElement((String) objects[object],
+                                (String) objects[object + 1], (String) objects[object + 2],
+                                attributes);
+                    }
+                    object += 3 + length * 5;
+                    break;
+                }
+                case END_ELEMENT:
+                    if (contentHandler != null) {
+                        contentHandler.endElement((String) objects[object],
+                                (String) objects[object + 1], (String) objects[object + 2]);
+                    }
+                    object += 3;
+                    break;
+                case CHARACTERS:
+                    if (contentHandler != null) {
+                        contentHandler.characters(chars, ops[op], ops[op + 1]);
+                    }
+                    op += 2;
+                    break;
+                case IGNORABLE_WHITESPACE:
+                    if (contentHandler != null) {
+                        contentHandler.ignorableWhitespace(chars, ops[op], ops[op + 1]);
+                    }
+                    op += 2;
+                    break;
+                case PROCESSING_INSTRUCTION:
+                    if (contentHandler != null) {
+                        contentHandler.processingInstruction((String) objects[object],
+                                (String) objects[object + 1]);
+                    }
+                    object += 2;
+                    break;
+                case SKIPPED_ENTITY:
+                    if (contentHandler != null) {
+                        contentHandler.skippedEntity((String) objects[object]);
+                    }
+                    object += 1;
+                    break;
+                case NOTATION_DECL:
+                    if (dtdHandler != null) {
+                        dtdHandler.notationDecl((String) objects[object],
+                                (String) objects[object + 1], (String) objects[object + 2]);
+                    }
+                    object += 3;
+                    break;
+                case UNPARSED_ENTITY_DECL:
+                    if (dtdHandler != null) {
+                        dtdHandler.unparsedEntityDecl((String) objects[object],
+                                (String) objects[object + 1], (String) objects[object + 2],
+                                (String) objects[object + 3]);
+                    }
+                    object += 4;
+                    break;
+                case WARNING:
+                    if (errorHandler != null) {
+                        errorHandler.warning((SAXParseException) objects[object]);
+                    }
+                    object += 1;
+                    break;
+                case ERROR:
+                    if (errorHandler != null) {
+                        errorHandler.error((SAXParseException) objects[object]);
+                    }
+                    object += 1;
+                    break;
+            }
+        }
+    } // replay(ContentHandler,DTDHandler,ErrorHandler)
+
+    //
+    // ContentHandler methods
+    //
+
+    public void setDocumentLocator(Locator locator) {}
+
+    public void startDocument() throws SAXException {
+        addOp(START_DOCUMENT);
+    }
+
+    public void endDocument() throws SAXException {
+        addOp(END_DOCUMENT);
+    }
+
+    public void startPrefixMapping(String prefix, String uri)
+            throws SAXException {
+        addOp(START_PREFIX_MAPPING);
+        addObject(prefix);
+        addObject(uri);
+    }
+
+    public void endPrefixMapping(String prefix) throws SAXException {
+        addOp(END_PREFIX_MAPPING);
+        addObject(prefix);
+    }
+
+    public void startElement(String uri, String localName, String qName,
+            Attributes atts) throws SAXException {
+        final int length = atts.getLength();
+        addOp(START_ELEMENT);
+        addInt(length);
+        addObject(uri);
+        addObject(localName);
+        addObject(qName);
+        for (int i = 0; i < length; ++i) {
+            addObject(atts.getURI(i));
+            addObject(atts.getLocalName(i));
+            addObject(atts.getQName(i));
+            addObject(atts.getType(i));
+            addObject(atts.getValue(i));
+        }
+    }
+
+    public void endElement(String uri, String localName, String qName)
+            throws SAXException {
+        addOp(END_ELEMENT);
+        addObject(uri);
+        addObject(localName);
+        addObject(qName);
+    }
+
+    public void characters(char[] ch, int start, int length)
+            throws SAXException {
+        addChars(CHARACTERS, ch, start, length);
+    }
+
+    public void ignorableWhitespace(char[] ch, int start, int length)
+            throws SAXException {
+        addChars(IGNORABLE_WHITESPACE, ch, start, length);
+    }
+
+    public void processingInstruction(String target, String data)
+            throws SAXException {
+        addOp(PROCESSING_INSTRUCTION);
+        addObject(target);
+        addObject(data);
+    }
+
+    public void skippedEntity(String name) throws SAXException {
+        addOp(SKIPPED_ENTITY);
+        addObject(name);
+    }
+
+    //
+    // DTDHandler methods
+    //
+
+    public void notationDecl(String name, String publicId, String systemId)
+            throws SAXException {
+        addOp(NOTATION_DECL);
+        addObject(name);
+        addObject(publicId);
+        addObject(systemId);
+    }
+
+    public void unparsedEntityDecl(String name, String publicId,
+            String systemId, String notationName) throws SAXException {
+        addOp(UNPARSED_ENTITY_DECL);
+        addObject(name);
+        addObject(publicId);
+        addObject(systemId);
+        addObject(notationName);
+    }
+
+    //
+    // ErrorHandler methods
+    //
+
+    public void warning(SAXParseException exception) throws SAXException {
+        addOp(WARNING);
+        addObject(exception);
+    }
+
+    public void error(SAXParseException exception) throws SAXException {
+        addOp(ERROR);
+        addObject(exception);
+    }
+
+    public void fatalError(SAXParseException exception) throws SAXException {
+        throw exception;
+    }
+
+    //
+    // Private methods
+    //
+
+    private void addOp(int op) {
+        addInt(op);
+        ++fEventCount;
+    }
+
+    private void addInt(int value) {
+        if (fOpCount == fOps.length) {
+            final int[] ops = new int[fOpCount << 1];
+            System.arraycopy(fOps, 0, ops, 0, fOpCount);
+            fOps = ops;
+        }
+        fOps[fOpCount++] = value;
+    }
+
+    private void addObject(Object object) {
+        if (fObjectCount == fObjects.length) {
+            final Object[] objects = new Object[fObjectCount << 1];
+            System.arraycopy(fObjects, 0, objects, 0, fObjectCount);
+            fObjects = objects;
+        }
+        fObjects[fObjectCount++] = object;
+    }
+
+    private void addChars(int op, char[] ch, int start, int length) {
+        // adjacent runs of the same kind are merged
+        if (fLastChars >= 0 && fLastChars == fOpCount - 3 && fOps[fLastChars] == op) {
+            fOps[fOpCount - 1] += length;
+        }
+        else {
+            fLastChars = fOpCount;
+            addOp(op);
+            addInt(fCharCount);
+            addInt(length);
+        }
+        if (fCharCount + length > fChars.length) {
+            final char[] chars = new char[Math.max(fChars.length << 1, fCharCount + length)];
+            System.arraycopy(fChars, 0, chars, 0, fCharCount);
+            fChars = chars;
+        }
+        System.arraycopy(ch, start, fChars, fCharCount, length);
+        fCharCount += length;
+    }
+
+} // class SAXEventBuffer
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 1998 World Wide Web Consortium, (Massachusetts Institute of
+ * Technology, Institut National de Recherche en Informatique et en
+ * Automatique, Keio University).
+ * All Rights Reserved. http://www.w3.org/Consortium/Legal/
+ */
+
+package org.w3c.dom.html;
+
+import org.w3c.dom.*;
+
+/**
+ * Generic block container. See the DIV element definition in HTML 4.0.
+ */
+public interface HTMLDivElement extends HTMLElement {
+  /**
+   * Horizontal text alignment. See the align attribute definition in HTML 
+   * 4.0. This attribute is deprecated in HTML 4.0.
+   */
+  public String             getAlign();
+  public void               setAlign(String align);
+}
+
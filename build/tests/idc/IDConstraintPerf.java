@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package idc;
+
+import java.io.InputStream;
+import java.io.StringReader;
+
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+
+import org.apache.xerces.jaxp.validation.XMLSchemaFactory;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXParseException;
+
+/**
+ * This program measures the time taken to check the identity constraints
+ * of documents with a growing number of rows, each having a string key,
+ * a unique integer and a key reference to another row. The time per row
+ * should stay about the same as the number of rows doubles. If a spill
+ * threshold is given, the values of the identity constraints are stored
+ * in temporary files once there are more of them.
+ * <p>
+ * Usage: java idc.IDConstraintPerf [rows [iterations [threshold]]]
+ *
+ * @version $Id$
+ */
+public class IDConstraintPerf {
+
+    //
+    // Constants
+    //
+
+    /** Property identifier: identity constraint spill threshold. */
+    private static final String IDC_SPILL_THRESHOLD =
+        "http://apache.org/xml/properties/validation/schema/identity-constraint-spill-threshold";
+
+    /** The schema of the documents. */
+    private static final String SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>\n" +
+        "  <xs:element name='table'>\n" +
+        "    <xs:complexType>\n" +
+        "      <xs:sequence>\n" +
+        "        <xs:element name='row' maxOccurs='unbounded'>\n" +
+        "          <xs:complexType>\n" +
+        "            <xs:attribute name='id' type='xs:string'/>\n" +
+        "            <xs:attribute name='number' type='xs:integer'/>\n" +
+        "            <xs:attribute name='ref' type='xs:string'/>\n" +
+        "          </xs:complexType>\n" +
+        "        </xs:element>\n" +
+        "      </xs:sequence>\n" +
+        "    </xs:complexType>\n" +
+        "    <xs:key name='id'>\n" +
+        "      <xs:selector xpath='row'/>\n" +
+        "      <xs:field xpath='@id'/>\n" +
+        "    </xs:key>\n" +
+        "    <xs:unique name='number'>\n" +
+        "      <xs:selector xpath='row'/>\n" +
+        "      <xs:field xpath='@number'/>\n" +
+        "    </xs:unique>\n" +
+        "    <xs:keyref name='ref' refer='id'>\n" +
+        "      <xs:selector xpath='row'/>\n" +
+        "      <xs:field xpath='@ref'/>\n" +
+        "    </xs:keyref>\n" +
+        "  </xs:element>\n" +
+        "</xs:schema>\n";
+
+    //
+    // MAIN
+    //
+
+    /** Main program entry. */
+    public static void main(String[] argv) throws Exception {
+
+        int rows = argv.length > 0 ? Integer.parseInt(argv[0]) : 1000000;
+        int iterations = argv.length > 1 ? Integer.parseInt(argv[1]) : 3;
+        int threshold = argv.length > 2 ? Integer.parseInt(argv[2]) : 0;
+
+        Schema schema = new XMLSchemaFactory().newSchema(
+                new StreamSource(new StringReader(SCHEMA)));
+        Validator validator = schema.newValidator();
+        if (threshold > 0) {
+            validator.setProperty(IDC_SPILL_THRESHOLD, Integer.valueOf(threshold));
+        }
+        validator.setErrorHandler(new ErrorHandler() {
+            public void warning(SAXParseException e) {}
+            public void error(SAXParseException e) {
+                throw new RuntimeException(e.getMessage());
+            }
+            public void fatalError(SAXParseException e) {
+                throw new RuntimeException(e.getMessage());
+            }
+        });
+
+        // warm up
+        test(validator, rows / 16, iterations, false);
+
+        for (int count = rows / 16; count <= rows; count <<= 1) {
+            test(validator, count, iterations, true);
+        }
+
+    } // main(String[])
+
+    //
+    // Public static methods
+    //
+
+    /** Validates a document with the given number of rows and reports the best time. */
+    public static void test(Validator validator, int rows, int iterations,
+            boolean report) throws Exception {
+        long time = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long before = System.currentTimeMillis();
+            validator.validate(new StreamSource(new DocumentInputStream(rows)));
+            time = Math.min(time, System.currentTimeMillis() - before);
+        }
+        if (report) {
+            System.err.println(rows + " rows: " + time + " ms ("
+                    + (time * 1000000L / rows) + " ns per row)");
+        }
+    } // test(Validator,int,int,boolean)
+
+    //
+    // Classes
+    //
+
+    /**
+     * A document with the given number of rows, generated as it is read
+     * so that documents of any size can be validated.
+     */
+    public static class DocumentInputStream extends InputStream {
+
+        private final int fRows;
+        private int fRow = -1;
+        private byte[] fBuffer = "<table>\n".getBytes();
+        private int fOffset = 0;
+
+        public DocumentInputStream(int rows) {
+            fRows = rows;
+        } // <init>(int)
+
+        public int read() {
+            if (fOffset == fBuffer.length && !fill()) {
+                return -1;
+            }
+            return fBuffer[fOffset++];
+        } // read():int
+
+        public int read(byte[] b, int off, int len) {
+            if (fOffset == fBuffer.length && !fill()) {
+                return -1;
+            }
+            int count = Math.min(len, fBuffer.length - fOffset);
+            System.arraycopy(fBuffer, fOffset, b, off, count);
+            fOffset += count;
+            return count;
+        } // read(byte[],int,int):int
+
+        /** Generates the next row, or the end of the document. */
+        private boolean fill() {
+            if (++fRow > fRows) {
+                return false;
+            }
+            if (fRow == fRows) {
+                fBuffer = "</table>\n".getBytes();
+            }
+            else {
+                fBuffer = ("<row id='r" + fRow + "' number='" + fRow
+                        + "' ref='r" + ((fRow * 7L) % fRows) + "'/>\n").getBytes();
+            }
+            fOffset = 0;
+            return true;
+        } // fill():boolean
+
+    } // class DocumentInputStream
+
+} // class IDConstraintPerf
@@ -0,0 +1,393 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package idc;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.Constants;
+import org.apache.xerces.parsers.SAXParser;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests that identity constraints whose values are stored in temporary
+ * files, once more than the spill threshold are held in memory, report
+ * the same errors as when all the values are held in memory, and that
+ * the temporary files are deleted at the end of a document, including
+ * when the parse is aborted.
+ *
+ * @version $Id$
+ */
+public class IDConstraintSpillTest extends TestCase {
+
+    private static final String IDC_SPILL_THRESHOLD =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.IDC_SPILL_THRESHOLD_PROPERTY;
+
+    private static final String SCHEMA_NONS_LOCATION =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_NONS_LOCATION;
+
+    private static final File TEMP_DIRECTORY = new File(System.getProperty("java.io.tmpdir"));
+
+    /** Matches the temporary files of the value stores. */
+    private static final FilenameFilter RUN_FILES = new FilenameFilter() {
+        public boolean accept(File directory, String name) {
+            return name.startsWith("xerces-idc") && name.endsWith(".run");
+        }
+    };
+
+    private Set<String> fFilesBefore;
+
+    public IDConstraintSpillTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() {
+        fFilesBefore = listRunFiles();
+    }
+
+    protected void tearDown() {
+        assertEquals(Collections.EMPTY_SET, getNewRunFiles());
+    }
+
+    /** Duplicates stored in different runs are each reported. */
+    public void testDuplicatesInDifferentRuns() throws Exception {
+        Document document = new Document();
+        document.startGroup();
+        for (int i = 0; i < 40; ++i) {
+            document.item(i, "n" + i);
+        }
+        // the same key as the first item, and the same name as the second
+        document.item(0, "other");
+        document.item(100, "n1");
+        // names with the same hash code, which are not duplicates
+        document.item(101, "Aa");
+        document.item(102, "BB");
+        document.endGroup();
+        document.ref(39);
+
+        Result result = validate(document.toString(), 4);
+        assertTrue(result.fRunCount > 1);
+        List<String> errors = result.fErrors;
+        assertEquals(errors.toString(), 2, errors.size());
+        assertContains(errors, "Duplicate key value [0]");
+        assertContains(errors, "Duplicate unique value [n1]");
+        assertEquals(validate(document.toString(), 0).fErrors, errors);
+    }
+
+    /** A keyref whose key is only in a spilled run resolves. */
+    public void testKeyRefToSpilledRun() throws Exception {
+        Document document = new Document();
+        document.startGroup();
+        for (int i = 0; i < 50; ++i) {
+            document.item(i, null);
+        }
+        document.endGroup();
+        for (int i = 0; i < 50; i += 7) {
+            document.ref(i);
+        }
+        document.ref(0);
+        Result result = validate(document.toString(), 3);
+        assertTrue(result.fRunCount > 1);
+        assertEquals(Collections.EMPTY_LIST, result.fErrors);
+    }
+
+    /** A keyref without key is reported once, as in memory. */
+    public void testMissingKey() throws Exception {
+        Document document = new Document();
+        document.startGroup();
+        for (int i = 0; i < 30; ++i) {
+            document.item(i, null);
+        }
+        document.endGroup();
+        for (int i = 0; i < 30; ++i) {
+            document.ref(i);
+            if (i == 10 || i == 20) {
+                document.ref(1000);
+            }
+        }
+        Result result = validate(document.toString(), 3);
+        assertTrue(result.fRunCount > 1);
+        assertEquals(result.fErrors.toString(), 1, result.fErrors.size());
+        assertContains(result.fErrors, "Key 'itemRef' with value '1000' not found");
+        assertEquals(validate(document.toString(), 0).fErrors, result.fErrors);
+    }
+
+    /**
+     * Enough runs are stored for several levels of runs to be merged
+     * sixteen at a time; the errors are the same as in memory.
+     */
+    public void testMergedRuns() throws Exception {
+        Document document = new Document();
+        document.startGroup();
+        for (int i = 0; i < 700; ++i) {
+            document.item(i, "n" + (i % 350));
+        }
+        document.item(3, null);
+        document.item(650, null);
+        document.endGroup();
+        for (int i = 699; i >= 0; i -= 3) {
+            document.ref(i);
+        }
+        document.ref(700);
+        Result result = validate(document.toString(), 2);
+        assertTrue(String.valueOf(result.fRunCount), result.fRunCount > 16 * 2);
+        // runs were merged and deleted while parsing
+        assertTrue(result.fMaxRunFiles < result.fRunCount);
+        assertEquals(350 + 2 + 1, result.fErrors.size());
+        assertEquals(validate(document.toString(), 0).fErrors, result.fErrors);
+    }
+
+    /**
+     * Random documents get the same errors as in memory, except that the
+     * keyref value reported as not found may be another missing value.
+     */
+    public void testRandomDocuments() throws Exception {
+        Random random = new Random(1515);
+        for (int d = 0; d < 60; ++d) {
+            Document document = new Document();
+            Set<String> ids = new HashSet<String>();
+            int keys = 1 + random.nextInt(200);
+            int groups = 1 + random.nextInt(4);
+            for (int g = 0; g < groups; ++g) {
+                document.startGroup();
+                int items = random.nextInt(80);
+                for (int i = 0; i < items; ++i) {
+                    int id = random.nextInt(keys);
+                    int name = random.nextInt(keys);
+                    document.item(id, name % 5 == 0 ? null : "n" + name);
+                    ids.add(String.valueOf(id));
+                }
+                document.endGroup();
+            }
+            int refs = random.nextInt(100);
+            for (int i = 0; i < refs; ++i) {
+                document.ref(random.nextInt(keys + 5));
+            }
+            List<String> expected = validate(document.toString(), 0).fErrors;
+            int threshold = 1 + random.nextInt(8);
+            List<String> actual = validate(document.toString(), threshold).fErrors;
+            String message = "document " + d + ", threshold " + threshold;
+            String expectedKeyRef = removeKeyRefError(expected);
+            String actualKeyRef = removeKeyRefError(actual);
+            assertEquals(message, expected, actual);
+            assertEquals(message, expectedKeyRef == null, actualKeyRef == null);
+            if (actualKeyRef != null) {
+                assertFalse(message, ids.contains(actualKeyRef));
+            }
+        }
+    }
+
+    /** The temporary files of a parse stopped by an error are deleted. */
+    public void testAbortedParse() throws Exception {
+        Document document = new Document();
+        document.startGroup();
+        for (int i = 0; i < 100; ++i) {
+            document.item(i, "n" + i);
+        }
+        final String valid = document.toString();
+        SAXParser parser = createParser(2);
+        parser.setContentHandler(new DefaultHandler() {
+            public void startElement(String uri, String localName, String qName, org.xml.sax.Attributes attributes)
+                throws SAXException {
+                if ("item".equals(localName) && "90".equals(attributes.getValue("id"))) {
+                    assertFalse(getNewRunFiles().isEmpty());
+                    throw new SAXException("stopped");
+                }
+            }
+        });
+        try {
+            parser.parse(new InputSource(new StringReader(valid)));
+            fail("the parse was not stopped");
+        }
+        catch (SAXException e) {
+            assertEquals("stopped", e.getMessage());
+        }
+        assertEquals(Collections.EMPTY_SET, getNewRunFiles());
+
+        // a document which is not well-formed
+        parser.setContentHandler(new DefaultHandler());
+        String malformed = valid.substring(0, valid.length() - "</root>".length()) + "<item id='1'></group>";
+        try {
+            parser.parse(new InputSource(new StringReader(malformed)));
+            fail("the document is well-formed");
+        }
+        catch (SAXParseException e) {
+        }
+        assertEquals(Collections.EMPTY_SET, getNewRunFiles());
+
+        // the parser can be used again
+        Document next = new Document();
+        next.startGroup();
+        for (int i = 0; i < 20; ++i) {
+            next.item(i, null);
+        }
+        next.item(5, null);
+        next.endGroup();
+        final List<String> errors = new ArrayList<String>();
+        parser.setErrorHandler(new DefaultHandler() {
+            public void error(SAXParseException e) {
+                errors.add(e.getMessage());
+            }
+        });
+        parser.parse(new InputSource(new StringReader(next.toString())));
+        assertEquals(1, errors.size());
+        assertContains(errors, "Duplicate key value [5]");
+    }
+
+    //
+    // Private methods
+    //
+
+    private static SAXParser createParser(int threshold) throws Exception {
+        SAXParser parser = new SAXParser();
+        parser.setFeature("http://xml.org/sax/features/validation", true);
+        parser.setFeature(Constants.XERCES_FEATURE_PREFIX + Constants.SCHEMA_VALIDATION_FEATURE, true);
+        parser.setProperty(SCHEMA_NONS_LOCATION, new File("tests/idc/idc_spill.xsd").toURI().toString());
+        if (threshold > 0) {
+            parser.setProperty(IDC_SPILL_THRESHOLD, Integer.valueOf(threshold));
+        }
+        return parser;
+    }
+
+    /**
+     * Validates a document, returning its errors in a stable order, since
+     * errors found in the temporary files are reported at the end of the
+     * scope of their identity constraint, and counting the temporary
+     * files seen while parsing.
+     */
+    private Result validate(String document, int threshold) throws Exception {
+        final Result result = new Result();
+        final Set<String> seen = new HashSet<String>();
+        SAXParser parser = createParser(threshold);
+        parser.setContentHandler(new DefaultHandler() {
+            public void endElement(String uri, String localName, String qName) {
+                Set<String> files = getNewRunFiles();
+                seen.addAll(files);
+                result.fMaxRunFiles = Math.max(result.fMaxRunFiles, files.size());
+            }
+        });
+        parser.setErrorHandler(new DefaultHandler() {
+            public void error(SAXParseException e) {
+                result.fErrors.add(e.getMessage());
+            }
+        });
+        parser.parse(new InputSource(new StringReader(document)));
+        assertEquals(Collections.EMPTY_SET, getNewRunFiles());
+        if (threshold == 0) {
+            assertTrue(seen.isEmpty());
+        }
+        result.fRunCount = seen.size();
+        Collections.sort(result.fErrors);
+        return result;
+    }
+
+    private static Set<String> listRunFiles() {
+        Set<String> files = new HashSet<String>();
+        String[] names = TEMP_DIRECTORY.list(RUN_FILES);
+        for (int i = 0; names != null && i < names.length; ++i) {
+            files.add(names[i]);
+        }
+        return files;
+    }
+
+    private Set<String> getNewRunFiles() {
+        Set<String> files = listRunFiles();
+        files.removeAll(fFilesBefore);
+        return files;
+    }
+
+    /** Removes the error of a keyref value not found, returning the value. */
+    private static String removeKeyRefError(List<String> errors) {
+        for (int i = 0; i < errors.size(); ++i) {
+            String error = errors.get(i);
+            int start = error.indexOf("with value '");
+            if (error.startsWith("cvc-identity-constraint.4.3:") && start != -1) {
+                errors.remove(i);
+                start += "with value '".length();
+                return error.substring(start, error.indexOf('\'', start));
+            }
+        }
+        return null;
+    }
+
+    private static void assertContains(List<String> errors, String text) {
+        for (int i = 0; i < errors.size(); ++i) {
+            if (errors.get(i).indexOf(text) != -1) {
+                return;
+            }
+        }
+        fail(text + " not in " + errors);
+    }
+
+    //
+    // Classes
+    //
+
+    private static final class Result {
+        final List<String> fErrors = new ArrayList<String>();
+        int fRunCount;
+        int fMaxRunFiles;
+    }
+
+    /** Builds a document of the schema idc_spill.xsd. */
+    private static final class Document {
+
+        private final StringBuffer fBuffer = new StringBuffer("<root>");
+        private boolean fInGroup = false;
+
+        void startGroup() {
+            fBuffer.append("<group>");
+            fInGroup = true;
+        }
+
+        void item(int id, String name) {
+            fBuffer.append("<item id='").append(id).append('\'');
+            if (name != null) {
+                fBuffer.append(" name='").append(name).append('\'');
+            }
+            fBuffer.append("/>");
+        }
+
+        void endGroup() {
+            fBuffer.append("</group>");
+            fInGroup = false;
+        }
+
+        void ref(int to) {
+            fBuffer.append("<ref to='").append(to).append("'/>");
+        }
+
+        public String toString() {
+            return fBuffer.toString() + (fInGroup ? "</group>" : "") + "</root>";
+        }
+
+    } // class Document
+
+} // class IDConstraintSpillTest
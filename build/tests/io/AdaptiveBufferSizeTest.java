@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.InputStream;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.XMLEntityManager;
+import org.apache.xerces.parsers.SAXParser;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests turning the adaptive-buffer-size feature on and off on a
+ * parser which is reused.
+ *
+ * @version $Id$
+ */
+public class AdaptiveBufferSizeTest extends TestCase {
+
+    private static final String ADAPTIVE_BUFFER_SIZE =
+        "http://apache.org/xml/features/adaptive-buffer-size";
+
+    private static final String ENTITY_MANAGER =
+        "http://apache.org/xml/properties/internal/entity-manager";
+
+    private SAXParser fParser;
+    private XMLEntityManager fEntityManager;
+    private Counter fCounter;
+
+    public AdaptiveBufferSizeTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        fParser = new SAXParser();
+        fCounter = new Counter();
+        fParser.setContentHandler(fCounter);
+        fEntityManager = (XMLEntityManager) fParser.getProperty(ENTITY_MANAGER);
+    }
+
+    public void testDefault() throws Exception {
+        assertFalse(fParser.getFeature(ADAPTIVE_BUFFER_SIZE));
+        parse(createDocument(40000), false);
+        assertEquals(XMLEntityManager.DEFAULT_BUFFER_SIZE, fEntityManager.getBufferSize());
+    }
+
+    /** The buffers are sized from the length of the document. */
+    public void testKnownLength() throws Exception {
+        final byte[] document = createDocument(40000);
+        parse(document, false);
+        final String expected = fCounter.toString();
+        final long loads = fEntityManager.getBufferLoadCount();
+
+        fParser.setFeature(ADAPTIVE_BUFFER_SIZE, true);
+        assertTrue(fParser.getFeature(ADAPTIVE_BUFFER_SIZE));
+        fEntityManager.resetBufferStatistics();
+        parse(document, false);
+        assertEquals(expected, fCounter.toString());
+        assertEquals(XMLEntityManager.MAX_ADAPTIVE_BUFFER_SIZE, fEntityManager.getBufferSize());
+        assertTrue(fEntityManager.getBufferLoadCount() < loads);
+
+        // small documents keep the grown buffers
+        parse(createDocument(100), false);
+        assertEquals(XMLEntityManager.MAX_ADAPTIVE_BUFFER_SIZE, fEntityManager.getBufferSize());
+
+        // turning the feature off restores the configured size
+        fParser.setFeature(ADAPTIVE_BUFFER_SIZE, false);
+        parse(document, false);
+        assertEquals(expected, fCounter.toString());
+        assertEquals(XMLEntityManager.DEFAULT_BUFFER_SIZE, fEntityManager.getBufferSize());
+    }
+
+    /** The buffers grow after a document of unknown length needing many loads. */
+    public void testUnknownLength() throws Exception {
+        final byte[] document = createDocument(400000);
+        fParser.setFeature(ADAPTIVE_BUFFER_SIZE, true);
+        parse(document, true);
+        final String expected = fCounter.toString();
+        assertEquals(XMLEntityManager.DEFAULT_BUFFER_SIZE, fEntityManager.getBufferSize());
+        assertTrue(fEntityManager.getBufferLoadCount() > XMLEntityManager.ADAPTIVE_LOAD_THRESHOLD);
+        parse(document, true);
+        assertEquals(expected, fCounter.toString());
+        assertEquals(XMLEntityManager.DEFAULT_BUFFER_SIZE * 2, fEntityManager.getBufferSize());
+    }
+
+    //
+    // Private methods
+    //
+
+    private void parse(byte[] document, boolean hideLength) throws Exception {
+        InputStream stream = new ByteArrayInputStream(document);
+        if (hideLength) {
+            stream = new FilterInputStream(stream) {
+                public int available() {
+                    return 0;
+                }
+            };
+        }
+        fCounter.reset();
+        fParser.parse(new InputSource(stream));
+    }
+
+    private static byte[] createDocument(int length) throws Exception {
+        StringBuffer buffer = new StringBuffer("<root>");
+        for (int i = 0; buffer.length() < length; ++i) {
+            buffer.append("<item id='").append(i).append("'>text \u00e9 ").append(i).append("</item>\n");
+        }
+        buffer.append("</root>");
+        return buffer.toString().getBytes("UTF-8");
+    }
+
+    //
+    // Classes
+    //
+
+    /** Counts the elements and characters, and sums the characters. */
+    static final class Counter extends DefaultHandler {
+
+        private int fElements;
+        private int fCharacters;
+        private long fSum;
+
+        public void reset() {
+            fElements = fCharacters = 0;
+            fSum = 0;
+        }
+
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            ++fElements;
+            for (int i = 0; i < attributes.getLength(); ++i) {
+                characters(attributes.getValue(i).toCharArray(), 0, attributes.getValue(i).length());
+            }
+        }
+
+        public void characters(char[] ch, int start, int length) {
+            fCharacters += length;
+            for (int i = 0; i < length; ++i) {
+                fSum = fSum * 31 + ch[start + i];
+            }
+        }
+
+        public String toString() {
+            return fElements + "/" + fCharacters + "/" + fSum;
+        }
+
+    } // class Counter
+
+} // class AdaptiveBufferSizeTest
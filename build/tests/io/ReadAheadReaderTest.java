@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.io.ReadAheadReader;
+import org.apache.xerces.parsers.SAXParser;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests the input-read-ahead property and ReadAheadReader, including
+ * closing it while its helper thread is blocked on the input.
+ *
+ * @version $Id$
+ */
+public class ReadAheadReaderTest extends TestCase {
+
+    private static final String READ_AHEAD =
+        "http://apache.org/xml/properties/input-read-ahead";
+
+    private static final String BUFFER_SIZE =
+        "http://apache.org/xml/properties/input-buffer-size";
+
+    public ReadAheadReaderTest(String name) {
+        super(name);
+    }
+
+    public void testRead() throws IOException {
+        StringBuffer text = new StringBuffer();
+        for (int i = 0; i < 10000; ++i) {
+            text.append((char) ('a' + i % 26));
+        }
+        Reader reader = new ReadAheadReader(new StringReader(text.toString()), 64, 3);
+        StringBuffer read = new StringBuffer();
+        char[] ch = new char[100];
+        int count;
+        assertEquals(5, reader.skip(5));
+        read.append(text.substring(0, 5));
+        while ((count = reader.read(ch, 0, 1 + read.length() % ch.length)) != -1) {
+            read.append(ch, 0, count);
+            int c = reader.read();
+            if (c == -1) {
+                break;
+            }
+            read.append((char) c);
+        }
+        assertEquals(text.toString(), read.toString());
+        assertEquals(-1, reader.read());
+        reader.close();
+        assertTrue(((ReadAheadReader) reader).isStopped());
+    }
+
+    /** An error from the underlying reader follows the characters read before it. */
+    public void testError() throws IOException {
+        Reader reader = new ReadAheadReader(new FailingReader("abc"), 64, 2);
+        assertEquals('a', reader.read());
+        assertEquals('b', reader.read());
+        assertEquals('c', reader.read());
+        try {
+            reader.read();
+            fail("expected IOException");
+        }
+        catch (IOException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        reader.close();
+    }
+
+    /** Closing releases a helper thread blocked in a reader which is unblocked by close. */
+    public void testCloseBlocked() throws Exception {
+        StalledStream stream = new StalledStream(new byte[0], true);
+        ReadAheadReader reader = new ReadAheadReader(new InputStreamReaderWrapper(stream), 64, 2);
+        stream.awaitBlocked();
+        final long start = System.currentTimeMillis();
+        reader.close();
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertTrue(reader.isStopped());
+    }
+
+    /** Closing returns even if the helper thread is never released. */
+    public void testCloseStalled() throws Exception {
+        StalledStream stream = new StalledStream(new byte[0], false);
+        ReadAheadReader reader = new ReadAheadReader(new InputStreamReaderWrapper(stream), 64, 2);
+        stream.awaitBlocked();
+        final long start = System.currentTimeMillis();
+        reader.close();
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertFalse(reader.isStopped());
+        stream.release();
+    }
+
+    public void testParse() throws Exception {
+        StringBuffer document = new StringBuffer("<?xml version='1.0' encoding='UTF-8'?><root>");
+        for (int i = 0; i < 5000; ++i) {
+            document.append("<item n='").append(i).append("'>\u00e9\u4e2d&amp;").append(i).append("</item>\r\n");
+        }
+        document.append("</root>");
+        byte[] bytes = document.toString().getBytes("UTF-8");
+        assertEquals(parse(bytes, 0), parse(bytes, 1));
+        assertEquals(parse(bytes, 0), parse(bytes, 4));
+    }
+
+    public void testParseMalformed() throws Exception {
+        StringBuffer document = new StringBuffer("<root>");
+        for (int i = 0; i < 2000; ++i) {
+            document.append("<item>").append(i).append("</item>");
+        }
+        byte[] head = document.toString().getBytes("UTF-8");
+        byte[] bytes = new byte[head.length + 10];
+        System.arraycopy(head, 0, bytes, 0, head.length);
+        bytes[head.length] = (byte) 0xFF;
+        System.arraycopy("</root>".getBytes("UTF-8"), 0, bytes, head.length + 1, 7);
+        String expected = parse(bytes, 0);
+        assertTrue(expected, expected.indexOf("!error") != -1);
+        assertEquals(expected, parse(bytes, 3));
+    }
+
+    /** A parse stopped by the application returns while the input is stalled. */
+    public void testParseAborted() throws Exception {
+        final StalledStream stream = new StalledStream("<root><a/><b/>".getBytes("UTF-8"), false);
+        final SAXParser parser = new SAXParser();
+        parser.setProperty(READ_AHEAD, Integer.valueOf(2));
+        parser.setContentHandler(new DefaultHandler() {
+            public void startElement(String uri, String localName, String qName, Attributes attributes)
+                throws SAXException {
+                if ("b".equals(qName)) {
+                    throw new SAXException("stop");
+                }
+            }
+        });
+        final Throwable[] thrown = new Throwable[1];
+        Thread thread = new Thread() {
+            public void run() {
+                try {
+                    parser.parse(new InputSource(stream));
+                }
+                catch (Throwable e) {
+                    thrown[0] = e;
+                }
+            }
+        };
+        thread.start();
+        thread.join(10000);
+        assertFalse("parse did not return", thread.isAlive());
+        assertEquals("stop", thrown[0].getMessage());
+        stream.release();
+    }
+
+    //
+    // Private methods
+    //
+
+    private static String parse(byte[] bytes, int readAhead) throws Exception {
+        SAXParser parser = new SAXParser();
+        parser.setProperty(READ_AHEAD, Integer.valueOf(readAhead));
+        parser.setProperty(BUFFER_SIZE, Integer.valueOf(100));
+        final StringBuffer events = new StringBuffer();
+        DefaultHandler handler = new DefaultHandler() {
+            public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                events.append('<').append(qName).append(attributes.getLength() > 0 ? attributes.getValue(0) : "");
+            }
+            public void characters(char[] ch, int start, int length) {
+                events.append(ch, start, length);
+            }
+        };
+        parser.setContentHandler(handler);
+        parser.setErrorHandler(handler);
+        try {
+            parser.parse(new InputSource(new SlowStream(bytes)));
+        }
+        catch (SAXParseException e) {
+            events.append("!error ").append(e.getLineNumber()).append(':')
+                .append(e.getColumnNumber()).append(' ').append(e.getMessage());
+        }
+        return events.toString();
+    }
+
+    //
+    // Classes
+    //
+
+    /** A stream which returns its bytes a few at a time. */
+    static final class SlowStream extends ByteArrayInputStream {
+
+        SlowStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 7));
+        }
+
+    } // class SlowStream
+
+    /**
+     * A stream which blocks once its bytes have been read, until it is
+     * released or, if requested, closed.
+     */
+    static final class StalledStream extends InputStream {
+
+        private final byte[] fBytes;
+        private final boolean fReleaseOnClose;
+        private int fPosition;
+        private boolean fBlocked;
+        private boolean fReleased;
+
+        StalledStream(byte[] bytes, boolean releaseOnClose) {
+            fBytes = bytes;
+            fReleaseOnClose = releaseOnClose;
+        }
+
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (fPosition < fBytes.length) {
+                len = Math.min(len, fBytes.length - fPosition);
+                System.arraycopy(fBytes, fPosition, b, off, len);
+                fPosition += len;
+                return len;
+            }
+            fBlocked = true;
+            notifyAll();
+            while (!fReleased) {
+                try {
+                    wait();
+                }
+                catch (InterruptedException e) {
+                    // only released by release() or close()
+                }
+            }
+            throw new IOException("closed");
+        }
+
+        public synchronized void close() {
+            if (fReleaseOnClose) {
+                release();
+            }
+        }
+
+        synchronized void release() {
+            fReleased = true;
+            notifyAll();
+        }
+
+        synchronized void awaitBlocked() throws InterruptedException {
+            while (!fBlocked) {
+                wait();
+            }
+        }
+
+    } // class StalledStream
+
+    /** A reader over the bytes of a stream, as ASCII. */
+    static final class InputStreamReaderWrapper extends Reader {
+
+        private final InputStream fStream;
+
+        InputStreamReaderWrapper(InputStream stream) {
+            fStream = stream;
+        }
+
+        public int read(char[] ch, int offset, int length) throws IOException {
+            byte[] b = new byte[length];
+            int count = fStream.read(b, 0, length);
+            for (int i = 0; i < count; ++i) {
+                ch[offset + i] = (char) b[i];
+            }
+            return count;
+        }
+
+        public void close() throws IOException {
+            fStream.close();
+        }
+
+    } // class InputStreamReaderWrapper
+
+    /** A reader which fails after returning its characters. */
+    static final class FailingReader extends Reader {
+
+        private final String fText;
+        private boolean fDone;
+
+        FailingReader(String text) {
+            fText = text;
+        }
+
+        public int read(char[] ch, int offset, int length) throws IOException {
+            if (fDone) {
+                throw new IOException("failed");
+            }
+            fDone = true;
+            fText.getChars(0, fText.length(), ch, offset);
+            return fText.length();
+        }
+
+        public void close() {
+        }
+
+    } // class FailingReader
+
+} // class ReadAheadReaderTest
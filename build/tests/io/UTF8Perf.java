@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+import org.apache.xerces.impl.io.UTF8Reader;
+
+/**
+ * This program measures the throughput of the customized UTF-8 reader
+ * for the parser, comparing it with the reader as it was before runs of
+ * ASCII were decoded in bulk ({@link BaselineUTF8Reader}), on pure ASCII
+ * input, on mostly ASCII input with occasional multi-byte sequences and
+ * on input made up entirely of multi-byte sequences. Both readers must
+ * produce the same characters as the Java UTF-8 decoder for every input.
+ * <p>
+ * Usage: java io.UTF8Perf [megabytes [iterations]]
+ *
+ * @version $Id$
+ */
+public class UTF8Perf {
+
+    //
+    // Constants
+    //
+
+    /** Block read size. */
+    private static final int BLOCK_READ_SIZE = 2048;
+
+    //
+    // MAIN
+    //
+
+    /** Main program entry. */
+    public static void main(String[] argv) throws Exception {
+
+        int megabytes = argv.length > 0 ? Integer.parseInt(argv[0]) : 16;
+        int iterations = argv.length > 1 ? Integer.parseInt(argv[1]) : 5;
+
+        test("ASCII", createData(megabytes, 0), iterations);
+        test("mostly ASCII", createData(megabytes, 64), iterations);
+        test("non-ASCII", createData(megabytes, 1), iterations);
+
+    } // main(String[])
+
+    //
+    // Public static methods
+    //
+
+    /**
+     * Creates UTF-8 encoded data of the given size. If <code>frequency</code>
+     * is greater than zero, every <code>frequency</code>'th character is
+     * one which requires a multi-byte sequence.
+     */
+    public static byte[] createData(int megabytes, int frequency) throws Exception {
+        final int size = megabytes * 1024 * 1024;
+        StringBuffer str = new StringBuffer(size);
+        for (int i = 0; str.length() < size; i++) {
+            if (frequency > 0 && i % frequency == 0) {
+                str.append((char) (0x00C0 + (i & 0x3F)));
+                if ((i & 1) == 0) {
+                    str.append((char) (0x4E00 + (i & 0xFF)));
+                }
+            }
+            else {
+                str.append((char) ('a' + (i % 26)));
+            }
+        }
+        return str.toString().getBytes("UTF-8");
+    } // createData(int,int):byte[]
+
+    /**
+     * Checks that both readers agree with the Java decoder on the given
+     * data and times them.
+     */
+    public static void test(String name, byte[] data, int iterations) throws Exception {
+        System.err.println("# Testing " + name + " input (" + data.length + " bytes)");
+        long javaChecksum = checksum(new InputStreamReader(new ByteArrayInputStream(data), "UTF8"));
+        long baselineChecksum = checksum(new BaselineUTF8Reader(new ByteArrayInputStream(data)));
+        long xercesChecksum = checksum(new UTF8Reader(new ByteArrayInputStream(data)));
+        if (javaChecksum != baselineChecksum || javaChecksum != xercesChecksum) {
+            System.err.println("FAIL: checksums differ (" + javaChecksum + ", "
+                    + baselineChecksum + ", " + xercesChecksum + ')');
+            System.exit(1);
+        }
+        long baselineTime = Long.MAX_VALUE;
+        long xercesTime = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long before = System.currentTimeMillis();
+            readAll(new BaselineUTF8Reader(new ByteArrayInputStream(data)));
+            baselineTime = Math.min(baselineTime, System.currentTimeMillis() - before);
+
+            before = System.currentTimeMillis();
+            readAll(new UTF8Reader(new ByteArrayInputStream(data)));
+            xercesTime = Math.min(xercesTime, System.currentTimeMillis() - before);
+        }
+        System.err.println("baseline reader: " + baselineTime + " ms");
+        System.err.println("custom reader:   " + xercesTime + " ms");
+    } // test(String,byte[],int)
+
+    /** Reads the stream to the end, returning the number of characters read. */
+    public static long readAll(Reader reader) throws Exception {
+        final char[] ch = new char[BLOCK_READ_SIZE];
+        long total = 0;
+        int count;
+        while ((count = reader.read(ch, 0, ch.length)) != -1) {
+            total += count;
+        }
+        reader.close();
+        return total;
+    } // readAll(Reader):long
+
+    /** Reads the stream to the end, returning a checksum of the characters. */
+    public static long checksum(Reader reader) throws Exception {
+        final char[] ch = new char[BLOCK_READ_SIZE];
+        long checksum = 0;
+        int count;
+        while ((count = reader.read(ch, 0, ch.length)) != -1) {
+            for (int i = 0; i < count; i++) {
+                checksum = checksum * 31 + ch[i];
+            }
+        }
+        reader.close();
+        return checksum;
+    } // checksum(Reader):long
+
+} // class UTF8Perf
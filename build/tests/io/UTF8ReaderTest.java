@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.io.MalformedByteSequenceException;
+import org.apache.xerces.impl.io.UTF8Reader;
+import org.apache.xerces.impl.msg.XMLMessageFormatter;
+
+/**
+ * Tests that UTF8Reader decodes runs of ASCII of every length up to
+ * and past the eight bytes tested at a time, starting at every
+ * alignment, followed by multi-byte and malformed sequences, as the
+ * Java UTF-8 decoder does.
+ *
+ * @version $Id$
+ */
+public class UTF8ReaderTest extends TestCase {
+
+    /** Sequences which follow the run of ASCII. */
+    private static final byte[][] VALID = {
+        {},
+        {(byte) 0xC3, (byte) 0xA9},
+        {(byte) 0xE4, (byte) 0xB8, (byte) 0x80},
+        {(byte) 0xF0, (byte) 0x9F, (byte) 0x98, (byte) 0x80},
+    };
+
+    /** Malformed sequences which follow the run of ASCII. */
+    private static final byte[][] MALFORMED = {
+        {(byte) 0x80},
+        {(byte) 0xF8},
+        {(byte) 0xC3, 'a'},
+        {(byte) 0xC0, (byte) 0x80},
+        {(byte) 0xE0, (byte) 0x80, (byte) 0x80},
+        {(byte) 0xE4, (byte) 0xB8, 'a'},
+        {(byte) 0xED, (byte) 0xA0, (byte) 0x80},
+        {(byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80},
+    };
+
+    /** Lengths of the reads. */
+    private static final int[] READ_LENGTHS = {1, 2, 3, 5, 7, 8, 9, 16, 17, 2048};
+
+    /** Sizes of the byte buffer of the reader. */
+    private static final int[] BUFFER_SIZES = {8, 64, UTF8Reader.DEFAULT_BUFFER_SIZE};
+
+    public UTF8ReaderTest(String name) {
+        super(name);
+    }
+
+    public void testValid() throws Exception {
+        for (int prefix = -1; prefix < 8; ++prefix) {
+            for (int run = 0; run <= 17; ++run) {
+                for (int i = 0; i < VALID.length; ++i) {
+                    byte[] document = createDocument(prefix, run, VALID[i], true);
+                    String expected = new String(document, "UTF-8");
+                    for (int size = 0; size < BUFFER_SIZES.length; ++size) {
+                        for (int length = 0; length < READ_LENGTHS.length; ++length) {
+                            StringBuffer decoded = new StringBuffer();
+                            decode(document, BUFFER_SIZES[size], READ_LENGTHS[length], decoded);
+                            assertEquals(describe(prefix, run, VALID[i], BUFFER_SIZES[size],
+                                    READ_LENGTHS[length]), expected, decoded.toString());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void testMalformed() throws Exception {
+        for (int prefix = -1; prefix < 8; ++prefix) {
+            for (int run = 0; run <= 17; ++run) {
+                for (int i = 0; i < MALFORMED.length; ++i) {
+                    for (int more = 0; more < 2; ++more) {
+                        byte[] document = createDocument(prefix, run, MALFORMED[i], more == 1);
+                        int valid = document.length - MALFORMED[i].length - (more == 1 ? run : 0);
+                        String expected = new String(document, 0, valid, "UTF-8");
+                        for (int size = 0; size < BUFFER_SIZES.length; ++size) {
+                            for (int length = 0; length < READ_LENGTHS.length; ++length) {
+                                String message = describe(prefix, run, MALFORMED[i],
+                                        BUFFER_SIZES[size], READ_LENGTHS[length]);
+                                StringBuffer decoded = new StringBuffer();
+                                try {
+                                    decode(document, BUFFER_SIZES[size], READ_LENGTHS[length], decoded);
+                                    fail(message + ": no error, decoded " + decoded);
+                                }
+                                catch (MalformedByteSequenceException e) {
+                                    // expected
+                                }
+                                assertEquals(message, expected, decoded.toString());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void testTruncated() throws Exception {
+        for (int prefix = -1; prefix < 8; ++prefix) {
+            for (int run = 0; run <= 17; ++run) {
+                for (int i = 1; i < VALID.length; ++i) {
+                    byte[] sequence = new byte[VALID[i].length - 1];
+                    System.arraycopy(VALID[i], 0, sequence, 0, sequence.length);
+                    byte[] document = createDocument(prefix, run, sequence, false);
+                    String expected = new String(document, 0, document.length - sequence.length, "UTF-8");
+                    for (int length = 0; length < READ_LENGTHS.length; ++length) {
+                        StringBuffer decoded = new StringBuffer();
+                        try {
+                            decode(document, UTF8Reader.DEFAULT_BUFFER_SIZE, READ_LENGTHS[length], decoded);
+                            fail("no error, decoded " + decoded);
+                        }
+                        catch (MalformedByteSequenceException e) {
+                            // expected
+                        }
+                        assertEquals(describe(prefix, run, sequence, UTF8Reader.DEFAULT_BUFFER_SIZE,
+                                READ_LENGTHS[length]), expected, decoded.toString());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a document made up of the prefix, a run of ASCII of the
+     * given length and the sequence, followed by another run of ASCII
+     * if <code>more</code> is true. A negative prefix puts the run at
+     * the start of the document; otherwise the prefix is that many
+     * bytes of ASCII followed by a two byte sequence, so the run starts
+     * at every alignment in the reader's buffer.
+     */
+    private static byte[] createDocument(int prefix, int run, byte[] sequence, boolean more) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < prefix; ++i) {
+            out.write('p');
+        }
+        if (prefix >= 0) {
+            out.write(0xC3);
+            out.write(0xA9);
+        }
+        for (int i = 0; i < run; ++i) {
+            out.write('a' + i);
+        }
+        out.write(sequence, 0, sequence.length);
+        if (more) {
+            for (int i = 0; i < run; ++i) {
+                out.write('A' + i);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /** Reads the document to the end, appending the characters read. */
+    private static void decode(byte[] document, int bufferSize, int length,
+            StringBuffer decoded) throws IOException {
+        UTF8Reader reader = new UTF8Reader(new ByteArrayInputStream(document),
+                bufferSize, new XMLMessageFormatter(), Locale.ENGLISH);
+        char[] ch = new char[length + 1];
+        int count;
+        while ((count = reader.read(ch, 1, length)) != -1) {
+            decoded.append(ch, 1, count);
+        }
+    }
+
+    private static String describe(int prefix, int run, byte[] sequence, int bufferSize, int length) {
+        StringBuffer str = new StringBuffer();
+        str.append("prefix ").append(prefix).append(", run ").append(run).append(", sequence");
+        for (int i = 0; i < sequence.length; ++i) {
+            str.append(' ').append(Integer.toHexString(sequence[i] & 0xFF));
+        }
+        str.append(", buffer ").append(bufferSize).append(", read ").append(length);
+        return str.toString();
+    }
+
+}
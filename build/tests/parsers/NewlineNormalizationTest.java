@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package parsers;
+
+import java.io.ByteArrayInputStream;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.parsers.SAXParser;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests the normalization of line ends in content and attribute values,
+ * and the line and column numbers reported by the locator, with line
+ * ends at every position relative to the end of the scanner's buffer.
+ *
+ * @version $Id$
+ */
+public class NewlineNormalizationTest extends TestCase {
+
+    private static final String BUFFER_SIZE =
+        "http://apache.org/xml/properties/input-buffer-size";
+
+    /** Buffer sizes; the smallest allowed is 65. */
+    private static final int[] BUFFER_SIZES = {65, 66, 67, 128, 2048};
+
+    /** Number of elements, each with one more character before its line ends. */
+    private static final int ELEMENTS = 140;
+
+    public NewlineNormalizationTest(String name) {
+        super(name);
+    }
+
+    public void testLF() throws Exception {
+        check("1.0", "\n");
+    }
+
+    public void testCR() throws Exception {
+        check("1.0", "\r");
+    }
+
+    public void testCRLF() throws Exception {
+        check("1.0", "\r\n");
+    }
+
+    public void testCRCR() throws Exception {
+        check("1.0", "\r\r");
+    }
+
+    public void testMixed() throws Exception {
+        check("1.0", "\r\n\n\r");
+    }
+
+    /** NEL and LS are not line ends in XML 1.0. */
+    public void testNELAndLS10() throws Exception {
+        check("1.0", "\u0085");
+        check("1.0", "\u2028");
+        check("1.0", "\r\u0085");
+    }
+
+    public void testNEL11() throws Exception {
+        check("1.1", "\u0085");
+        check("1.1", "\r\u0085");
+    }
+
+    public void testLS11() throws Exception {
+        check("1.1", "\u2028");
+    }
+
+    public void testCRLF11() throws Exception {
+        check("1.1", "\r\n");
+        check("1.1", "\r");
+    }
+
+    //
+    // Private methods
+    //
+
+    /**
+     * Parses a document with the given line end in its content and
+     * attribute values (the prolog, in which NEL and LS are not allowed
+     * in XML 1.0, is ended by an LF) at each buffer size and checks the characters,
+     * attribute values and locations reported against those computed
+     * from the document.
+     */
+    private static void check(String version, String newline) throws Exception {
+        StringBuffer document = new StringBuffer();
+        document.append("<?xml version='").append(version).append("' encoding='UTF-8'?>")
+            .append('\n').append("<root>").append(newline);
+        for (int i = 0; i < ELEMENTS; ++i) {
+            document.append("<e a='");
+            for (int j = 0; j < i % 7; ++j) {
+                document.append('v');
+            }
+            document.append(newline).append("w").append(newline).append("'>");
+            for (int j = 0; j < i; ++j) {
+                document.append((char) ('a' + j % 26));
+            }
+            document.append(newline).append(newline).append("\u00e9x").append(newline)
+                .append("</e>").append(newline);
+        }
+        document.append("</root>");
+        final String text = document.toString();
+        final String expected = expect(text, version.equals("1.1"));
+        for (int i = 0; i < BUFFER_SIZES.length; ++i) {
+            String message = "version " + version + ", newline " + escape(newline)
+                + ", buffer size " + BUFFER_SIZES[i];
+            assertEquals(message, expected, parse(text, BUFFER_SIZES[i]));
+        }
+    }
+
+    /** Parses the document, recording its elements, attributes and text. */
+    private static String parse(String document, int bufferSize) throws Exception {
+        SAXParser parser = new SAXParser();
+        parser.setProperty(BUFFER_SIZE, Integer.valueOf(bufferSize));
+        Recorder recorder = new Recorder();
+        parser.setContentHandler(recorder);
+        parser.parse(new InputSource(new ByteArrayInputStream(document.getBytes("UTF-8"))));
+        return recorder.fEvents.toString();
+    }
+
+    /**
+     * Computes the events for the document independently of the parser:
+     * line ends are normalized to LF, those in attribute values are then
+     * replaced by spaces, and each start tag is located after its '>'.
+     */
+    private static String expect(String document, boolean xml11) {
+        StringBuffer events = new StringBuffer();
+        StringBuffer normalized = new StringBuffer();
+        int line = 1;
+        int lineStart = 0;
+        final int root = document.indexOf("<root>");
+        int i = document.indexOf("?>") + 2;
+        while (i < document.length()) {
+            char c = document.charAt(i);
+            int newline = newlineLength(document, i, xml11);
+            if (newline > 0) {
+                if (i > root) {
+                    normalized.append('\n');
+                }
+                i += newline;
+                ++line;
+                lineStart = i;
+                continue;
+            }
+            if (c == '<') {
+                flush(events, normalized);
+                int end = document.indexOf('>', i);
+                String tag = document.substring(i + 1, end);
+                // line ends inside the tag are all in attribute values
+                for (int j = i; j < end; ) {
+                    int length = newlineLength(document, j, xml11);
+                    if (length > 0) {
+                        j += length;
+                        ++line;
+                        lineStart = j;
+                    }
+                    else {
+                        ++j;
+                    }
+                }
+                i = end + 1;
+                if (tag.charAt(0) == '/') {
+                    events.append("</").append(tag.substring(1)).append(">\n");
+                    continue;
+                }
+                int space = tag.indexOf(' ');
+                events.append('<').append(space == -1 ? tag : tag.substring(0, space));
+                if (space != -1) {
+                    String value = tag.substring(tag.indexOf('\'') + 1, tag.lastIndexOf('\''));
+                    StringBuffer attribute = new StringBuffer();
+                    for (int j = 0; j < value.length(); ) {
+                        int length = newlineLength(value, j, xml11);
+                        if (length > 0) {
+                            attribute.append(' ');
+                            j += length;
+                        }
+                        else {
+                            attribute.append(value.charAt(j++));
+                        }
+                    }
+                    events.append(" a=\"").append(escape(attribute.toString())).append('"');
+                }
+                events.append("> ").append(line).append(':').append(i - lineStart + 1).append('\n');
+                continue;
+            }
+            normalized.append(c);
+            ++i;
+        }
+        flush(events, normalized);
+        return events.toString();
+    }
+
+    /** Returns the length of the line end at the given index, or 0. */
+    private static int newlineLength(String str, int index, boolean xml11) {
+        char c = str.charAt(index);
+        if (c == '\r') {
+            if (index + 1 < str.length()) {
+                char next = str.charAt(index + 1);
+                if (next == '\n' || (xml11 && next == '\u0085')) {
+                    return 2;
+                }
+            }
+            return 1;
+        }
+        if (c == '\n' || (xml11 && (c == '\u0085' || c == '\u2028'))) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static void flush(StringBuffer events, StringBuffer text) {
+        if (text.length() > 0) {
+            events.append('"').append(escape(text.toString())).append("\"\n");
+            text.setLength(0);
+        }
+    }
+
+    private static String escape(String str) {
+        StringBuffer escaped = new StringBuffer();
+        for (int i = 0; i < str.length(); ++i) {
+            char c = str.charAt(i);
+            if (c < 0x20 || c > 0x7E) {
+                escaped.append("\\u").append(Integer.toHexString(0x10000 | c).substring(1));
+            }
+            else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    //
+    // Classes
+    //
+
+    /** Records elements with their locations, attributes and text. */
+    private static final class Recorder extends DefaultHandler {
+
+        final StringBuffer fEvents = new StringBuffer();
+        private final StringBuffer fText = new StringBuffer();
+        private Locator fLocator;
+
+        public void setDocumentLocator(Locator locator) {
+            fLocator = locator;
+        }
+
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            flush(fEvents, fText);
+            fEvents.append('<').append(qName);
+            for (int i = 0; i < attributes.getLength(); ++i) {
+                fEvents.append(' ').append(attributes.getQName(i)).append("=\"")
+                    .append(escape(attributes.getValue(i))).append('"');
+            }
+            fEvents.append("> ").append(fLocator.getLineNumber()).append(':')
+                .append(fLocator.getColumnNumber()).append('\n');
+        }
+
+        public void endElement(String uri, String localName, String qName) {
+            flush(fEvents, fText);
+            fEvents.append("</").append(qName).append(">\n");
+        }
+
+        public void characters(char[] ch, int start, int length) {
+            fText.append(ch, start, length);
+        }
+    }
+
+}
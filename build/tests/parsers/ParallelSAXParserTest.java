@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package parsers;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.parsers.ParallelSAXParser;
+import org.apache.xerces.parsers.SAXParser;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests that ParallelSAXParser reports the same events as SAXParser
+ * for every chunk size, from chunks smaller than a record to a single
+ * chunk.
+ *
+ * @version $Id$
+ */
+public class ParallelSAXParserTest extends TestCase {
+
+    private ExecutorService fExecutor;
+
+    public ParallelSAXParserTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() {
+        fExecutor = Executors.newFixedThreadPool(4);
+    }
+
+    protected void tearDown() {
+        fExecutor.shutdownNow();
+    }
+
+    public void testChunkSizes() throws Exception {
+        StringBuffer document = new StringBuffer("<?xml version='1.0' encoding='UTF-8'?>\n" +
+                "<!DOCTYPE root [<!ENTITY e 'entity text'>]>\n" +
+                "<root xmlns='urn:root' xmlns:p='urn:p'>\n");
+        for (int i = 0; i < 40; ++i) {
+            document.append("<record id='").append(i).append("'>");
+            switch (i % 8) {
+                case 0: document.append("text ").append(i); break;
+                case 1: document.append("<p:field a='&e;'>\u00e9\u4e2d</p:field>"); break;
+                case 2: document.append("<![CDATA[<record>]]>&amp;"); break;
+                case 3: document.append("<!-- <record> -->tail"); break;
+                case 4: document.append("<?pi data?>&e;"); break;
+                case 5: document.append("<empty/>"); break;
+                case 6: document.append("<x xmlns='urn:x'>y</x>"); break;
+                default: break;
+            }
+            document.append("</record>\n");
+        }
+        document.append("</root>\n");
+        byte[] bytes = document.toString().getBytes("UTF-8");
+        String expected = parse(new SAXParser(), bytes);
+        for (int chunkSize = 1; chunkSize <= bytes.length + 1; ++chunkSize) {
+            ParallelSAXParser parser = new ParallelSAXParser(fExecutor, 3);
+            parser.setChunkSize(chunkSize);
+            assertEquals("chunk size " + chunkSize, expected, parse(parser, bytes));
+        }
+    }
+
+    /** Records containing only text, so that chunks may begin with text. */
+    public void testTextRecords() throws Exception {
+        StringBuffer document = new StringBuffer("<root>");
+        for (int i = 0; i < 60; ++i) {
+            document.append("<r>").append(i).append("</r>").append(i % 3 == 0 ? "\n" : "");
+        }
+        document.append("</root>");
+        byte[] bytes = document.toString().getBytes("UTF-8");
+        String expected = parse(new SAXParser(), bytes);
+        for (int chunkSize = 1; chunkSize <= bytes.length + 1; ++chunkSize) {
+            ParallelSAXParser parser = new ParallelSAXParser(fExecutor, 2);
+            parser.setChunkSize(chunkSize);
+            assertEquals("chunk size " + chunkSize, expected, parse(parser, bytes));
+        }
+    }
+
+    /** An error in a record is reported at the same place. */
+    public void testError() throws Exception {
+        StringBuffer document = new StringBuffer("<root>\n");
+        for (int i = 0; i < 30; ++i) {
+            document.append(i == 20 ? "<record>x</recrd>\n" : "<record>x</record>\n");
+        }
+        document.append("</root>");
+        byte[] bytes = document.toString().getBytes("UTF-8");
+        String expected = parse(new SAXParser(), bytes);
+        assertTrue(expected, expected.indexOf("!error 22:") != -1);
+        for (int chunkSize = 1; chunkSize <= bytes.length + 1; chunkSize += 7) {
+            ParallelSAXParser parser = new ParallelSAXParser(fExecutor, 2);
+            parser.setChunkSize(chunkSize);
+            String actual = parse(parser, bytes);
+            assertEquals("chunk size " + chunkSize, expected.substring(expected.indexOf("!error")),
+                    actual.substring(actual.indexOf("!error")));
+        }
+    }
+
+    //
+    // Private methods
+    //
+
+    private static String parse(XMLReader parser, byte[] bytes) throws Exception {
+        Recorder recorder = new Recorder();
+        parser.setContentHandler(recorder);
+        parser.setErrorHandler(recorder);
+        try {
+            parser.parse(new InputSource(new ByteArrayInputStream(bytes)));
+        }
+        catch (SAXParseException e) {
+            recorder.flush();
+            recorder.fEvents.append("!error ").append(e.getLineNumber()).append(": ")
+                .append(e.getMessage());
+        }
+        return recorder.toString();
+    }
+
+    //
+    // Classes
+    //
+
+    /** Records the events, merging adjacent character events. */
+    static final class Recorder extends DefaultHandler {
+
+        final StringBuffer fEvents = new StringBuffer();
+        private final StringBuffer fText = new StringBuffer();
+
+        public void startDocument() {
+            fEvents.append("[start]");
+        }
+
+        public void endDocument() {
+            flush();
+            fEvents.append("[end]");
+        }
+
+        public void startPrefixMapping(String prefix, String uri) {
+            flush();
+            fEvents.append("[ns ").append(prefix).append('=').append(uri).append(']');
+        }
+
+        public void endPrefixMapping(String prefix) {
+            flush();
+            fEvents.append("[/ns ").append(prefix).append(']');
+        }
+
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            flush();
+            fEvents.append("<{").append(uri).append('}').append(localName).append(' ').append(qName);
+            for (int i = 0; i < attributes.getLength(); ++i) {
+                fEvents.append(' ').append(attributes.getQName(i)).append('=').append(attributes.getValue(i));
+            }
+            fEvents.append('>');
+        }
+
+        public void endElement(String uri, String localName, String qName) {
+            flush();
+            fEvents.append("</").append(qName).append('>');
+        }
+
+        public void characters(char[] ch, int start, int length) {
+            fText.append(ch, start, length);
+        }
+
+        public void ignorableWhitespace(char[] ch, int start, int length) {
+            flush();
+            fEvents.append("[ws ").append(length).append(']');
+        }
+
+        public void processingInstruction(String target, String data) {
+            flush();
+            fEvents.append("<?").append(target).append(' ').append(data).append("?>");
+        }
+
+        public void skippedEntity(String name) {
+            flush();
+            fEvents.append("[skipped ").append(name).append(']');
+        }
+
+        void flush() {
+            fEvents.append(fText);
+            fText.setLength(0);
+        }
+
+        public String toString() {
+            return fEvents.toString();
+        }
+
+    } // class Recorder
+
+} // class ParallelSAXParserTest
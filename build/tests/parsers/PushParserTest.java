@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package parsers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.parsers.SAXParser;
+import org.apache.xerces.parsers.XML11Configuration;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.ext.DefaultHandler2;
+
+/**
+ * Tests that feeding a document to XML11Configuration in chunks of
+ * every size, from a single byte to the whole document, reports the
+ * same events, locations and errors as parsing it from a stream.
+ *
+ * @version $Id$
+ */
+public class PushParserTest extends TestCase {
+
+    public PushParserTest(String name) {
+        super(name);
+    }
+
+    public void testAttributeValues() throws Exception {
+        check("<?xml version='1.0' encoding='UTF-8'?>\n"
+            + "<root a='x>y' b=\"p>q>\" c='&gt;&#62;'>\n"
+            + "  <e a=\"&lt;>\" b='>'/>text > more &amp; &#x3E; text\n"
+            + "</root>\n", "UTF-8");
+    }
+
+    public void testCommentsAndPIs() throws Exception {
+        check("<?xml version='1.0'?>\n"
+            + "<!-- before > the root - element -->\n"
+            + "<?pi data > more ? data?>\n"
+            + "<root><!--> in - comment >--><?target ?>?> ?><e/>"
+            + "text<!---->text<?t?></root>\n"
+            + "<!-- after -->", "UTF-8");
+    }
+
+    public void testCDATA() throws Exception {
+        check("<root><![CDATA[ x > ] ]> <y> ]] > & ]]>after"
+            + "<![CDATA[]]><![CDATA[]]]]><![CDATA[>]]></root>", "UTF-8");
+    }
+
+    public void testInternalSubset() throws Exception {
+        check("<?xml version='1.0' standalone='yes'?>\n"
+            + "<!DOCTYPE root [\n"
+            + "  <!ENTITY e 'entity > text &#x3E; with <b>markup</b>'>\n"
+            + "  <!ENTITY f \"&e; and ']' and '>'\">\n"
+            + "  <!-- comment > ] in the subset -->\n"
+            + "  <?pi > ] in the subset?>\n"
+            + "  <!ATTLIST root a CDATA 'default > value' b CDATA #IMPLIED>\n"
+            + "  <!ELEMENT root ANY>\n"
+            + "]>\n"
+            + "<root b='&e;'>&e;|&f;|&lt;&amp;</root>\n", "UTF-8");
+    }
+
+    public void testCRLF() throws Exception {
+        check("<?xml version='1.0'?>\r\n<root\r\n a='x\r\ny'>\r\n"
+            + "line\r\nline\r\rline\r\n<!-- \r\n -->\r\n<?pi \r\n?>"
+            + "<![CDATA[\r\n]]>\r\n</root>\r\n", "UTF-8");
+    }
+
+    public void testMultibyteUTF8() throws Exception {
+        check("<?xml version='1.0' encoding='UTF-8'?>\n"
+            + "<r\u00E9sum\u00E9 \u4E2D='\u00E9\u4E2D\uD83D\uDE00'>"
+            + "caf\u00E9 \u4E2D\u6587 \uD83D\uDE00 \u20AC&#x20AC;"
+            + "<\u4E2D>\u00E9</\u4E2D></r\u00E9sum\u00E9>", "UTF-8");
+    }
+
+    public void testUTF8WithBOM() throws Exception {
+        check("\uFEFF<?xml version='1.0' encoding='UTF-8'?><root>caf\u00E9</root>", "UTF-8");
+    }
+
+    public void testISO88591() throws Exception {
+        check("<?xml version='1.0' encoding='ISO-8859-1'?>\n"
+            + "<caf\u00E9 a='\u00E0\u00FF'>\u00E9t\u00E9 \u00BD &#xE9;</caf\u00E9>", "ISO-8859-1");
+    }
+
+    public void testUTF16() throws Exception {
+        check("\uFEFF<?xml version='1.0' encoding='UTF-16'?>\n"
+            + "<root a='\u00E9>\u4E2D'>\u3C3C\u263C\uD83D\uDE00<!-- < --></root>", "UTF-16BE");
+        check("\uFEFF<?xml version='1.0' encoding='UTF-16'?>\n"
+            + "<root a='\u00E9>\u4E2D'>\u3C3C\u263C\uD83D\uDE00<!-- < --></root>", "UTF-16LE");
+    }
+
+    /**
+     * In GB18030 the second and fourth bytes of four byte
+     * characters are ASCII digits.
+     */
+    public void testGB18030() throws Exception {
+        check("<?xml version='1.0' encoding='GB18030'?>\n"
+            + "<root a='\u0080\u00E9'>\u0080 \u00A2 \u4E00 \uD83D\uDE00 \u0081;\u0082<e/>\u0083</root>", "GB18030");
+    }
+
+    /**
+     * In ISO-2022-JP the bytes of Japanese and Cyrillic characters are
+     * ASCII characters, including quotes, '&lt;', '&gt;' and '&amp;',
+     * so the lexer must not look for markup in them.
+     */
+    public void testISO2022JP() throws Exception {
+        String text = "\u4E03\u4E08\u4E0A\u4E0B \u65E5\u672C\u8A9E\u306E\u30C6\u30AD\u30B9\u30C8";
+        byte[] bytes = text.getBytes("ISO-2022-JP");
+        boolean delimiters = false;
+        for (int i = 0; i < bytes.length; ++i) {
+            delimiters |= bytes[i] == '<' || bytes[i] == '>' || bytes[i] == '&';
+        }
+        assertTrue("text with delimiter bytes", delimiters);
+        check("<?xml version='1.0' encoding='ISO-2022-JP'?>\n"
+            + "<root a='" + text + "'>" + text + "<e/>" + text
+            + "<e a='\u0410\u4E0A\u0410\u4E0A' b='x'>" + text + "</e></root>", "ISO-2022-JP");
+    }
+
+    public void testExternalEncoding() throws Exception {
+        String document = "<?xml version='1.0' encoding='UTF-8'?>\n"
+            + "<root>\u0080 \u00E9 \uD83D\uDE00 \u0081;</root>";
+        check(document.getBytes("GB18030"), "GB18030");
+        check(document.getBytes("ISO-8859-1"), "ISO-8859-1");
+    }
+
+    public void testXML11() throws Exception {
+        check("<?xml version='1.1' encoding='UTF-8'?>\u0085"
+            + "<root a='x\u0085y\u2028z'>\u0085line\r\u0085line\u2028"
+            + "&#x1;\u00E9<e\u2028/></root>\u0085", "UTF-8");
+    }
+
+    public void testMalformed() throws Exception {
+        check("<?xml version='1.0'?>\n<root>\n  <a>text</a>\n  <b>text</c>\n</root>", "UTF-8");
+        check("<?xml version='1.0'?>\n<root a='1' a='2'>text</root>", "UTF-8");
+        check("<root>&undefined;</root>", "UTF-8");
+        check("<root>text]]>text</root>", "UTF-8");
+        check("<root>text</root>\n<second/>", "UTF-8");
+        check("<root>text", "UTF-8");
+        check("<?xml version='1.0' encoding='UTF-8'?><root>\u00E9</root>", "ISO-8859-1");
+    }
+
+    //
+    // Private methods
+    //
+
+    private static void check(String document, String encoding) throws Exception {
+        check(document.getBytes(encoding), null);
+    }
+
+    /**
+     * Parses the document from a stream and then by feeding it in
+     * chunks of each size, checking that the same events are reported.
+     */
+    private static void check(byte[] document, String encoding) throws Exception {
+        String expected = parse(document, encoding);
+        for (int size = 1; size <= document.length; ++size) {
+            assertEquals("chunk size " + size, expected, feed(document, encoding, size, size % 2 == 0));
+        }
+    }
+
+    private static String parse(byte[] document, String encoding) throws Exception {
+        Recorder recorder = new Recorder();
+        SAXParser parser = new PushSAXParser(new XML11Configuration());
+        parser.setContentHandler(recorder);
+        parser.setErrorHandler(recorder);
+        parser.setProperty("http://xml.org/sax/properties/lexical-handler", recorder);
+        InputSource source = new InputSource(new ByteArrayInputStream(document));
+        source.setEncoding(encoding);
+        try {
+            parser.parse(source);
+        }
+        catch (SAXParseException e) {
+            // recorded by the error handler
+        }
+        return recorder.toString();
+    }
+
+    private static String feed(byte[] document, String encoding, int size, boolean buffers)
+        throws Exception {
+        Recorder recorder = new Recorder();
+        XML11Configuration configuration = new XML11Configuration();
+        PushSAXParser parser = new PushSAXParser(configuration);
+        parser.setContentHandler(recorder);
+        parser.setErrorHandler(recorder);
+        parser.setProperty("http://xml.org/sax/properties/lexical-handler", recorder);
+        parser.reset();
+        if (encoding != null) {
+            XMLInputSource source = new XMLInputSource(null, null, null);
+            source.setEncoding(encoding);
+            configuration.setInputSource(source);
+        }
+        try {
+            for (int offset = 0; offset < document.length; offset += size) {
+                int length = Math.min(size, document.length - offset);
+                if (buffers) {
+                    configuration.feed(ByteBuffer.wrap(document, offset, length));
+                }
+                else {
+                    configuration.feed(document, offset, length);
+                }
+            }
+            configuration.endOfInput();
+        }
+        catch (XNIException e) {
+            if (!(e.getException() instanceof SAXParseException)) {
+                throw e;
+            }
+        }
+        return recorder.toString();
+    }
+
+    //
+    // Classes
+    //
+
+    /** A SAX parser which can be reset before its configuration is fed. */
+    private static final class PushSAXParser extends SAXParser {
+
+        PushSAXParser(XML11Configuration configuration) {
+            super(configuration);
+        }
+
+        public void reset() throws XNIException {
+            super.reset();
+        }
+    }
+
+    /** Records events with their locations, and errors. */
+    private static final class Recorder extends DefaultHandler2 {
+
+        private final StringBuffer fEvents = new StringBuffer();
+        private final StringBuffer fText = new StringBuffer();
+        private Locator fLocator;
+
+        public void setDocumentLocator(Locator locator) {
+            fLocator = locator;
+        }
+
+        public void startDocument() {
+            event("startDocument");
+        }
+
+        public void endDocument() {
+            event("endDocument");
+        }
+
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            event("<" + qName);
+            for (int i = 0; i < attributes.getLength(); ++i) {
+                fEvents.append(' ').append(attributes.getQName(i)).append("=\"")
+                    .append(attributes.getValue(i)).append('"');
+            }
+            fEvents.append('>');
+        }
+
+        public void endElement(String uri, String localName, String qName) {
+            event("</" + qName + ">");
+        }
+
+        public void characters(char[] ch, int start, int length) {
+            fText.append(ch, start, length);
+        }
+
+        public void ignorableWhitespace(char[] ch, int start, int length) {
+            fText.append(ch, start, length);
+        }
+
+        public void processingInstruction(String target, String data) {
+            event("<?" + target + " " + data + "?>");
+        }
+
+        public void comment(char[] ch, int start, int length) {
+            event("<!--" + new String(ch, start, length) + "-->");
+        }
+
+        public void startCDATA() {
+            event("<![CDATA[");
+        }
+
+        public void endCDATA() {
+            event("]]>");
+        }
+
+        public void startDTD(String name, String publicId, String systemId) {
+            event("<!DOCTYPE " + name);
+        }
+
+        public void endDTD() {
+            event("]>");
+        }
+
+        public void startEntity(String name) {
+            event("startEntity " + name);
+        }
+
+        public void endEntity(String name) {
+            event("endEntity " + name);
+        }
+
+        public void warning(SAXParseException e) {
+            error("warning", e);
+        }
+
+        public void error(SAXParseException e) {
+            error("error", e);
+        }
+
+        public void fatalError(SAXParseException e) throws SAXException {
+            error("fatal", e);
+            throw e;
+        }
+
+        public String toString() {
+            flush();
+            return fEvents.toString();
+        }
+
+        private void event(String event) {
+            flush();
+            fEvents.append('\n').append(fLocator.getLineNumber()).append(':')
+                .append(fLocator.getColumnNumber()).append(' ').append(event);
+        }
+
+        private void error(String type, SAXParseException e) {
+            flush();
+            fEvents.append("\n!").append(type).append(' ').append(e.getLineNumber())
+                .append(':').append(e.getColumnNumber()).append(' ').append(e.getMessage());
+        }
+
+        private void flush() {
+            if (fText.length() > 0) {
+                fEvents.append("\n\"").append(fText).append('"');
+                fText.setLength(0);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package parsers;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.jaxp.validation.XMLSchemaFactory;
+import org.apache.xerces.parsers.RecordHandler;
+import org.apache.xerces.parsers.RecordParser;
+import org.apache.xerces.parsers.SAXParser;
+import org.apache.xerces.parsers.XMLRecord;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests that RecordParser passes each record of a document to the
+ * handler exactly once, with the namespace bindings in scope and the
+ * same events as a document holding the record alone, delivers the
+ * results in the documented order, reports errors to the caller and
+ * leaves the executor running.
+ *
+ * @version $Id$
+ */
+public class RecordParserTest extends TestCase {
+
+    /** Number of records in the generated documents. */
+    private static final int RECORDS = 200;
+
+    private ExecutorService fExecutor;
+
+    public RecordParserTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() {
+        fExecutor = Executors.newFixedThreadPool(4);
+    }
+
+    protected void tearDown() {
+        fExecutor.shutdownNow();
+    }
+
+    /** Results are delivered once each, in document order. */
+    public void testOrdered() throws Exception {
+        RecordParser parser = new RecordParser("/{urn:d}root/group/r", fExecutor);
+        parser.setMaxPendingRecords(5);
+        Collector collector = parse(parser, createDocument());
+        assertEquals(RECORDS, collector.fProcessed.get());
+        assertEquals(RECORDS, collector.fIndexes.size());
+        for (int i = 0; i < RECORDS; ++i) {
+            assertEquals(Long.valueOf(i), collector.fIndexes.get(i));
+            assertEquals("record " + i, expectRecord(i), collector.fResults.get(i));
+        }
+    }
+
+    /** Results are delivered once each, in any order. */
+    public void testUnordered() throws Exception {
+        RecordParser parser = new RecordParser("/root/*/r", fExecutor);
+        parser.setOrdered(false);
+        parser.setMaxPendingRecords(7);
+        Collector collector = parse(parser, createDocument());
+        assertEquals(RECORDS, collector.fProcessed.get());
+        assertEquals(RECORDS, collector.fIndexes.size());
+        String[] results = new String[RECORDS];
+        for (int i = 0; i < RECORDS; ++i) {
+            int index = (int) collector.fIndexes.get(i).longValue();
+            assertNull("record " + index + " delivered twice", results[index]);
+            results[index] = collector.fResults.get(i);
+        }
+        for (int i = 0; i < RECORDS; ++i) {
+            assertEquals("record " + i, expectRecord(i), results[i]);
+        }
+    }
+
+    /** Records are delivered on the calling thread by an executor which runs them at once. */
+    public void testCallerRunsExecutor() throws Exception {
+        final Thread caller = Thread.currentThread();
+        RecordParser parser = new RecordParser("/root/group/r", new java.util.concurrent.Executor() {
+            public void execute(Runnable command) {
+                assertSame(caller, Thread.currentThread());
+                command.run();
+            }
+        });
+        Collector collector = parse(parser, createDocument());
+        assertEquals(RECORDS, collector.fIndexes.size());
+        assertEquals(expectRecord(RECORDS - 1), collector.fResults.get(RECORDS - 1));
+    }
+
+    /** The DOM document of a record resolves the bindings in scope. */
+    public void testDocument() throws Exception {
+        RecordParser parser = new RecordParser("/root/group/r", fExecutor);
+        final List<Element> roots = Collections.synchronizedList(new ArrayList<Element>());
+        parser.parse(new InputSource(new ByteArrayInputStream(createDocument().getBytes("UTF-8"))),
+            new RecordHandler() {
+                public Object processRecord(XMLRecord record) throws Exception {
+                    return record.getDocument().getDocumentElement();
+                }
+                public void recordProcessed(XMLRecord record, Object result) {
+                    roots.add((Element) result);
+                }
+            });
+        Element first = roots.get(0);
+        assertEquals("urn:d", first.getNamespaceURI());
+        assertEquals("urn:a2", first.getAttributeNodeNS("urn:a2", "x").getNamespaceURI());
+        assertEquals("urn:b", first.lookupNamespaceURI("b"));
+        Element second = roots.get(1);
+        assertNull(second.getNamespaceURI());
+        assertEquals("urn:a", second.lookupNamespaceURI("a"));
+    }
+
+    /** An exception thrown by processRecord stops the parse and reaches the caller. */
+    public void testProcessingError() throws Exception {
+        final Exception failure = new Exception("record 3");
+        RecordParser parser = new RecordParser("/root/group/r", fExecutor);
+        Collector collector = new Collector() {
+            public Object processRecord(XMLRecord record) throws Exception {
+                if (record.getIndex() == 3) {
+                    throw failure;
+                }
+                return super.processRecord(record);
+            }
+        };
+        try {
+            parser.parse(new InputSource(new ByteArrayInputStream(createDocument().getBytes("UTF-8"))),
+                    collector);
+            fail("no exception");
+        }
+        catch (SAXException e) {
+            assertSame(failure, e.getException());
+        }
+        // the results before the failure were delivered, in order
+        assertEquals(3, collector.fIndexes.size());
+        assertEquals(Long.valueOf(2), collector.fIndexes.get(2));
+        // the parser and executor may be used again
+        assertFalse(fExecutor.isShutdown());
+        collector = parse(parser, createDocument());
+        assertEquals(RECORDS, collector.fIndexes.size());
+    }
+
+    /** An exception thrown by recordProcessed stops the parse and reaches the caller. */
+    public void testDeliveryError() throws Exception {
+        RecordParser parser = new RecordParser("/root/group/r", fExecutor);
+        parser.setOrdered(false);
+        final AtomicInteger delivered = new AtomicInteger();
+        Collector collector = new Collector() {
+            public void recordProcessed(XMLRecord record, Object result) throws Exception {
+                if (delivered.incrementAndGet() == 10) {
+                    throw new IllegalStateException("tenth result");
+                }
+                super.recordProcessed(record, result);
+            }
+        };
+        try {
+            parser.parse(new InputSource(new ByteArrayInputStream(createDocument().getBytes("UTF-8"))),
+                    collector);
+            fail("no exception");
+        }
+        catch (SAXException e) {
+            assertTrue(e.getException() instanceof IllegalStateException);
+        }
+        assertEquals(10, delivered.get());
+        assertEquals(9, collector.fIndexes.size());
+    }
+
+    /** A well-formedness error after some records reaches the caller. */
+    public void testParseError() throws Exception {
+        String document = createDocument();
+        int end = document.indexOf("</r>", document.indexOf("<r id='20'"));
+        document = document.substring(0, end) + "</s>" + document.substring(end + 4);
+        RecordParser parser = new RecordParser("/root/group/r", fExecutor);
+        parser.setErrorHandler(new DefaultHandler());
+        Collector collector = new Collector();
+        try {
+            parser.parse(new InputSource(new ByteArrayInputStream(document.getBytes("UTF-8"))), collector);
+            fail("no exception");
+        }
+        catch (SAXParseException e) {
+            // expected
+        }
+        for (int i = 0; i < collector.fIndexes.size(); ++i) {
+            assertEquals(Long.valueOf(i), collector.fIndexes.get(i));
+        }
+        assertTrue(collector.fIndexes.size() <= 20);
+        assertFalse(fExecutor.isShutdown());
+    }
+
+    /** Validation errors are attached to the record in which they occur. */
+    public void testValidationErrors() throws Exception {
+        Schema schema = new XMLSchemaFactory().newSchema(new StreamSource(new StringReader(
+            "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>" +
+            "<xs:element name='item'><xs:complexType><xs:sequence>" +
+            "<xs:element name='n' type='xs:int'/>" +
+            "</xs:sequence></xs:complexType></xs:element></xs:schema>")));
+        StringBuffer document = new StringBuffer("<items>");
+        for (int i = 0; i < 50; ++i) {
+            document.append("<item><n>").append(i % 7 == 0 ? "x" + i : String.valueOf(i)).append("</n></item>");
+        }
+        document.append("</items>");
+        RecordParser parser = new RecordParser("/items/item", fExecutor);
+        parser.setSchema(schema);
+        final List<XMLRecord> records = new ArrayList<XMLRecord>();
+        parser.parse(new InputSource(new StringReader(document.toString())), new RecordHandler() {
+            public Object processRecord(XMLRecord record) {
+                return null;
+            }
+            public void recordProcessed(XMLRecord record, Object result) {
+                records.add(record);
+            }
+        });
+        assertEquals(50, records.size());
+        for (int i = 0; i < 50; ++i) {
+            XMLRecord record = records.get(i);
+            assertEquals("record " + i, i % 7 != 0, record.isValid());
+            if (i % 7 == 0) {
+                assertFalse(record.getErrors().isEmpty());
+                assertTrue(record.getErrors().get(0).getMessage(),
+                        record.getErrors().get(0).getMessage().indexOf("x" + i) != -1);
+            }
+        }
+    }
+
+    //
+    // Private methods
+    //
+
+    private static Collector parse(RecordParser parser, String document) throws Exception {
+        Collector collector = new Collector();
+        parser.parse(new InputSource(new ByteArrayInputStream(document.getBytes("UTF-8"))), collector);
+        return collector;
+    }
+
+    /**
+     * Creates a document whose records, in alternate groups, are in
+     * the scope of a redeclared prefix and of an undeclared default
+     * namespace. Content outside of the records looks like records.
+     */
+    private static String createDocument() {
+        StringBuffer document = new StringBuffer("<?xml version='1.0'?>\n" +
+                "<root xmlns='urn:d' xmlns:a='urn:a' xmlns:b='urn:b'>\n<r>outside</r>\n");
+        for (int i = 0; i < RECORDS; ++i) {
+            document.append(i % 2 == 0 ? "<group xmlns:a='urn:a2'>" : "<group xmlns=''>");
+            document.append(createRecord(i, ""));
+            document.append("<other><r>not a record</r></other></group>\n");
+        }
+        document.append("</root>");
+        return document.toString();
+    }
+
+    /** Creates a record with the given namespace declarations. */
+    private static String createRecord(int index, String declarations) {
+        StringBuffer record = new StringBuffer();
+        record.append("<r id='").append(index).append("' a:x='").append(index).append('\'')
+            .append(declarations).append('>').append("text ").append(index)
+            .append("<a:c b:y='").append(index % 5).append("'><r>nested</r></a:c>")
+            .append("<c xmlns:p='urn:p'><p:d/>\u00e9</c><?pi ").append(index).append("?></r>");
+        return record.toString();
+    }
+
+    /**
+     * Returns the events of a document holding only the record, whose
+     * root declares the bindings in scope in the generated document.
+     */
+    private static String expectRecord(int index) throws Exception {
+        String declarations = index % 2 == 0
+            ? " xmlns='urn:d' xmlns:b='urn:b' xmlns:a='urn:a2'"
+            : " xmlns:a='urn:a' xmlns:b='urn:b'";
+        ParallelSAXParserTest.Recorder recorder = new ParallelSAXParserTest.Recorder();
+        SAXParser parser = new SAXParser();
+        parser.setContentHandler(recorder);
+        parser.parse(new InputSource(new StringReader(createRecord(index, declarations))));
+        return recorder.toString();
+    }
+
+    //
+    // Classes
+    //
+
+    /** Records the events of each record and the order of delivery. */
+    private static class Collector implements RecordHandler {
+
+        final AtomicInteger fProcessed = new AtomicInteger();
+        final List<Long> fIndexes = new ArrayList<Long>();
+        final List<String> fResults = new ArrayList<String>();
+        private Thread fDeliveryThread;
+
+        public Object processRecord(XMLRecord record) throws Exception {
+            fProcessed.incrementAndGet();
+            // finish out of order
+            Thread.sleep((record.getIndex() * 7) % 4);
+            ParallelSAXParserTest.Recorder recorder = new ParallelSAXParserTest.Recorder();
+            record.replay(recorder);
+            return recorder.toString();
+        }
+
+        public void recordProcessed(XMLRecord record, Object result) throws Exception {
+            if (fDeliveryThread == null) {
+                fDeliveryThread = Thread.currentThread();
+            }
+            assertSame(fDeliveryThread, Thread.currentThread());
+            fIndexes.add(Long.valueOf(record.getIndex()));
+            fResults.add((String) result);
+        }
+
+    } // class Collector
+
+} // class RecordParserTest
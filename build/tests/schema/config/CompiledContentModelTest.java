@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package schema.config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.xs.SchemaGrammar;
+import org.apache.xerces.impl.xs.XMLSchemaLoader;
+import org.apache.xerces.impl.xs.XSComplexTypeDecl;
+import org.apache.xerces.impl.xs.models.CMBuilder;
+import org.apache.xerces.impl.xs.models.CMNodeFactory;
+import org.apache.xerces.impl.xs.models.CompiledContentModels;
+import org.apache.xerces.impl.xs.models.ContentModelCompiler;
+import org.apache.xerces.impl.xs.models.XSCMValidator;
+import org.apache.xerces.impl.xs.models.XSCompiledCM;
+import org.apache.xerces.impl.xs.models.XSDFACM;
+import org.apache.xerces.parsers.SAXParser;
+import org.apache.xerces.util.XMLGrammarPoolImpl;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.apache.xerces.xs.XSConstants;
+import org.apache.xerces.xs.XSElementDeclaration;
+import org.apache.xerces.xs.XSNamedMap;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Tests the content models generated by ContentModelCompiler: the
+ * generated source is compiled and loaded, and random documents are
+ * validated with the loaded content models and with the DFAs built by
+ * XSDFACM, which must accept and reject the same documents with the
+ * same errors.
+ *
+ * @version $Id$
+ */
+public class CompiledContentModelTest extends TestCase {
+
+    private static final String COMPILED_CONTENT_MODELS =
+        "http://apache.org/xml/properties/internal/validation/schema/compiled-content-models";
+
+    private static final String GRAMMAR_POOL =
+        "http://apache.org/xml/properties/internal/grammar-pool";
+
+    private static final String SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:t='urn:t'\n" +
+        "           targetNamespace='urn:t' elementFormDefault='qualified'>\n" +
+        "  <xs:element name='seq'><xs:complexType><xs:sequence>\n" +
+        "    <xs:element name='a' type='xs:string'/><xs:element name='b' minOccurs='0' type='xs:string'/>\n" +
+        "    <xs:element name='c' maxOccurs='unbounded' type='xs:string'/>\n" +
+        "  </xs:sequence></xs:complexType></xs:element>\n" +
+        "  <xs:element name='choice'><xs:complexType><xs:choice maxOccurs='unbounded'>\n" +
+        "    <xs:element name='a' type='xs:string'/><xs:element ref='t:h'/>\n" +
+        "    <xs:any namespace='##other' processContents='skip'/>\n" +
+        "  </xs:choice></xs:complexType></xs:element>\n" +
+        "  <xs:element name='nested'><xs:complexType><xs:sequence>\n" +
+        "    <xs:choice minOccurs='0'><xs:sequence><xs:element name='a' type='xs:string'/>\n" +
+        "      <xs:element name='b' type='xs:string'/></xs:sequence><xs:element name='c' type='xs:string'/></xs:choice>\n" +
+        "    <xs:group ref='t:g'/><xs:element ref='t:k' minOccurs='0'/>\n" +
+        "  </xs:sequence></xs:complexType></xs:element>\n" +
+        "  <xs:group name='g'><xs:sequence><xs:element name='b' maxOccurs='2' type='xs:string'/>\n" +
+        "    <xs:any namespace='urn:w ##local' processContents='skip' minOccurs='0'/>\n" +
+        "  </xs:sequence></xs:group>\n" +
+        "  <xs:element name='mixed'><xs:complexType mixed='true'><xs:sequence maxOccurs='unbounded'>\n" +
+        "    <xs:element name='a' type='xs:string'/><xs:element name='c' minOccurs='0' type='xs:string'/>\n" +
+        "  </xs:sequence></xs:complexType></xs:element>\n" +
+        "  <xs:complexType name='base'><xs:sequence><xs:element ref='t:h'/></xs:sequence></xs:complexType>\n" +
+        "  <xs:complexType name='derived'><xs:complexContent><xs:extension base='t:base'>\n" +
+        "    <xs:sequence><xs:element name='b' minOccurs='0' type='xs:string'/></xs:sequence>\n" +
+        "  </xs:extension></xs:complexContent></xs:complexType>\n" +
+        "  <xs:element name='ext' type='t:derived'/>\n" +
+        "  <xs:element name='all'><xs:complexType><xs:all>\n" +
+        "    <xs:element name='a' type='xs:string'/><xs:element name='b' minOccurs='0' type='xs:string'/>\n" +
+        "  </xs:all></xs:complexType></xs:element>\n" +
+        "  <xs:element name='counted'><xs:complexType><xs:sequence>\n" +
+        "    <xs:element name='a' minOccurs='2' maxOccurs='200' type='xs:string'/><xs:element name='b' type='xs:string'/>\n" +
+        "  </xs:sequence></xs:complexType></xs:element>\n" +
+        "  <xs:element name='h' type='xs:string'/>\n" +
+        "  <xs:element name='i' type='xs:string' substitutionGroup='t:h'/>\n" +
+        "  <xs:element name='j' type='xs:string' substitutionGroup='t:i'/>\n" +
+        "  <xs:element name='k' type='xs:string' block='substitution'/>\n" +
+        "  <xs:element name='l' type='xs:string' substitutionGroup='t:k'/>\n" +
+        "</xs:schema>\n";
+
+    /** The roots of the documents; all and counted are not compiled. */
+    private static final String[] ROOTS = { "seq", "choice", "nested", "mixed", "ext", "all", "counted" };
+
+    /** The content of the documents; z is not declared. */
+    private static final String[] TOKENS = {
+        "<a/>", "<b/>", "<c/>", "<h/>", "<i/>", "<j/>", "<k/>", "<l/>", "<z/>",
+        "<w:x xmlns:w='urn:w'/>", "<o:x xmlns:o='urn:o'/>", "<x xmlns=''/>", "text",
+    };
+
+    public CompiledContentModelTest(String name) {
+        super(name);
+    }
+
+    public void testCompiledModels() throws Exception {
+        ContentModelCompiler compiler = new ContentModelCompiler();
+        compiler.addGrammar(loadGrammar());
+        // seq, choice, nested, mixed, derived, base
+        assertEquals(6, compiler.getModelCount());
+        assertEquals(1, compiler.getSkippedCount());
+        CompiledContentModels models = compile(compiler);
+
+        // a grammar loaded again uses the generated models for its types
+        SchemaGrammar grammar = loadGrammar();
+        CMBuilder builder = new CMBuilder(new CMNodeFactory());
+        builder.setCompiledContentModels(models);
+        XSNamedMap elements = grammar.getComponents(XSConstants.ELEMENT_DECLARATION);
+        int compiled = 0;
+        for (int i = 0; i < elements.getLength(); ++i) {
+            XSElementDeclaration element = (XSElementDeclaration) elements.item(i);
+            if (element.getTypeDefinition() instanceof XSComplexTypeDecl) {
+                XSComplexTypeDecl type = (XSComplexTypeDecl) element.getTypeDefinition();
+                XSCMValidator cm = builder.getContentModel(type, false);
+                String name = element.getName();
+                if (name.equals("all") || name.equals("counted")) {
+                    assertFalse(name, cm instanceof XSCompiledCM);
+                }
+                else {
+                    assertTrue(name, cm instanceof XSCompiledCM);
+                    ++compiled;
+                }
+            }
+        }
+        assertEquals(5, compiled);
+
+        // the same documents are accepted and rejected with the same errors
+        SAXParser expected = createParser(null);
+        SAXParser actual = createParser(models);
+        Random random = new Random(1);
+        int valid = 0;
+        for (int n = 0; n < 3000; ++n) {
+            String root = ROOTS[random.nextInt(ROOTS.length)];
+            StringBuffer document = new StringBuffer();
+            document.append('<').append(root).append(" xmlns='urn:t'>");
+            int length = random.nextInt(6);
+            for (int i = 0; i < length; ++i) {
+                document.append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+            document.append("</").append(root).append('>');
+            String errors = validate(expected, document.toString());
+            assertEquals(document.toString(), errors, validate(actual, document.toString()));
+            if (errors.length() == 0) {
+                ++valid;
+            }
+        }
+        // both outcomes are covered
+        assertTrue(String.valueOf(valid), valid > 100 && valid < 2900);
+        assertTrue(getContentModel(actual, "seq") instanceof XSCompiledCM);
+        assertTrue(getContentModel(expected, "seq") instanceof XSDFACM);
+    }
+
+    //
+    // Private methods
+    //
+
+    private static SchemaGrammar loadGrammar() throws Exception {
+        return (SchemaGrammar) new XMLSchemaLoader().loadGrammar(
+                new XMLInputSource(null, "compiled.xsd", null, new StringReader(SCHEMA), null));
+    }
+
+    /** Compiles the generated source and loads the class. */
+    private static CompiledContentModels compile(ContentModelCompiler compiler) throws Exception {
+        File dir = File.createTempFile("compiled", "");
+        assertTrue(dir.delete() && dir.mkdir());
+        try {
+            File source = new File(dir, "GeneratedModels.java");
+            Writer out = new OutputStreamWriter(new FileOutputStream(source), "UTF-8");
+            try {
+                compiler.writeSource(null, "GeneratedModels", out);
+            }
+            finally {
+                out.close();
+            }
+            JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+            assertNotNull("no Java compiler", javac);
+            assertEquals(0, javac.run(null, null, null, "-nowarn", "-encoding", "UTF-8",
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", dir.getPath(), source.getPath()));
+            URLClassLoader loader = new URLClassLoader(new URL[] {dir.toURI().toURL()},
+                    CompiledContentModelTest.class.getClassLoader());
+            return (CompiledContentModels) loader.loadClass("GeneratedModels").newInstance();
+        }
+        finally {
+            File[] files = dir.listFiles();
+            for (int i = 0; i < files.length; ++i) {
+                files[i].delete();
+            }
+            dir.delete();
+        }
+    }
+
+    /**
+     * Creates a validating parser with its own grammar pool, so that the
+     * content models cached in the types are built by this parser.
+     */
+    private static SAXParser createParser(CompiledContentModels models) throws Exception {
+        XMLGrammarPoolImpl pool = new XMLGrammarPoolImpl();
+        pool.putGrammar(loadGrammar());
+        SAXParser parser = new SAXParser();
+        parser.setFeature("http://xml.org/sax/features/validation", true);
+        parser.setFeature("http://apache.org/xml/features/validation/schema", true);
+        parser.setProperty(GRAMMAR_POOL, pool);
+        if (models != null) {
+            parser.setProperty(COMPILED_CONTENT_MODELS, models);
+        }
+        return parser;
+    }
+
+    /** Returns the content model the parser built for a global element. */
+    private static XSCMValidator getContentModel(SAXParser parser, String name) throws Exception {
+        XMLGrammarPoolImpl pool = (XMLGrammarPoolImpl) parser.getProperty(GRAMMAR_POOL);
+        SchemaGrammar grammar = (SchemaGrammar) pool.retrieveInitialGrammarSet(
+                "http://www.w3.org/2001/XMLSchema")[0];
+        XSComplexTypeDecl type = (XSComplexTypeDecl) grammar.getGlobalElementDecl(name).getTypeDefinition();
+        // returns the content model cached in the type
+        return type.getContentModel(new CMBuilder(new CMNodeFactory()));
+    }
+
+    /** Validates a document, returning its errors. */
+    private static String validate(SAXParser parser, String document) throws Exception {
+        final List<String> errors = new ArrayList<String>();
+        parser.setErrorHandler(new ErrorHandler() {
+            public void warning(SAXParseException e) {
+                errors.add("warning " + e.getColumnNumber() + ": " + e.getMessage());
+            }
+            public void error(SAXParseException e) {
+                errors.add("error " + e.getColumnNumber() + ": " + e.getMessage());
+            }
+            public void fatalError(SAXParseException e) throws SAXParseException {
+                throw e;
+            }
+        });
+        parser.parse(new InputSource(new StringReader(document)));
+        StringBuffer buffer = new StringBuffer();
+        for (int i = 0; i < errors.size(); ++i) {
+            buffer.append(errors.get(i)).append('\n');
+        }
+        return buffer.toString();
+    }
+
+} // class CompiledContentModelTest
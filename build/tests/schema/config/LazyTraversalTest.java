@@ -0,0 +1,428 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package schema.config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.jaxp.validation.XMLSchemaFactory;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Tests that a schema loaded with lazy traversal reports the same errors
+ * as one loaded eagerly, including when several validators look up the
+ * components of the schema for the first time concurrently.
+ *
+ * @version $Id$
+ */
+public class LazyTraversalTest extends TestCase {
+
+    private static final String LAZY_SCHEMA_TRAVERSAL =
+        "http://apache.org/xml/features/validation/schema/lazy-traversal";
+
+    private static final String SCHEMA_FULL_CHECKING =
+        "http://apache.org/xml/features/validation/schema-full-checking";
+
+    private static final String MAIN_SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:m='urn:main'\n" +
+        "           xmlns:o='urn:other' targetNamespace='urn:main'\n" +
+        "           elementFormDefault='qualified'>\n" +
+        "  <xs:import namespace='urn:other' schemaLocation='other.xsd'/>\n" +
+        "  <xs:element name='root'>\n" +
+        "    <xs:complexType>\n" +
+        "      <xs:choice maxOccurs='unbounded'>\n" +
+        "        <xs:element ref='m:head'/>\n" +
+        "        <xs:element ref='m:order'/>\n" +
+        "        <xs:element ref='o:item'/>\n" +
+        "        <xs:any namespace='urn:any' processContents='lax'/>\n" +
+        "      </xs:choice>\n" +
+        "    </xs:complexType>\n" +
+        "  </xs:element>\n" +
+        "  <xs:element name='head' type='m:Base'/>\n" +
+        "  <xs:element name='member' type='m:Derived' substitutionGroup='m:head'/>\n" +
+        "  <xs:element name='second' type='m:Derived' substitutionGroup='m:member'/>\n" +
+        "  <xs:complexType name='Base'>\n" +
+        "    <xs:sequence>\n" +
+        "      <xs:element name='a' type='m:Code'/>\n" +
+        "    </xs:sequence>\n" +
+        "    <xs:attributeGroup ref='m:common'/>\n" +
+        "  </xs:complexType>\n" +
+        "  <xs:complexType name='Derived'>\n" +
+        "    <xs:complexContent>\n" +
+        "      <xs:extension base='m:Base'>\n" +
+        "        <xs:sequence>\n" +
+        "          <xs:element name='b' type='xs:int' minOccurs='0'/>\n" +
+        "        </xs:sequence>\n" +
+        "      </xs:extension>\n" +
+        "    </xs:complexContent>\n" +
+        "  </xs:complexType>\n" +
+        "  <xs:simpleType name='Code'>\n" +
+        "    <xs:restriction base='xs:string'>\n" +
+        "      <xs:pattern value='[A-Z]{3}'/>\n" +
+        "    </xs:restriction>\n" +
+        "  </xs:simpleType>\n" +
+        "  <xs:attributeGroup name='common'>\n" +
+        "    <xs:attribute name='id' type='xs:ID'/>\n" +
+        "    <xs:attribute ref='m:lang'/>\n" +
+        "  </xs:attributeGroup>\n" +
+        "  <xs:attribute name='lang' type='xs:language'/>\n" +
+        "  <xs:element name='order'>\n" +
+        "    <xs:complexType>\n" +
+        "      <xs:group ref='m:lines'/>\n" +
+        "    </xs:complexType>\n" +
+        "    <xs:key name='lineKey'>\n" +
+        "      <xs:selector xpath='m:line'/>\n" +
+        "      <xs:field xpath='@n'/>\n" +
+        "    </xs:key>\n" +
+        "    <xs:keyref name='lineRef' refer='m:lineKey'>\n" +
+        "      <xs:selector xpath='m:see'/>\n" +
+        "      <xs:field xpath='@n'/>\n" +
+        "    </xs:keyref>\n" +
+        "  </xs:element>\n" +
+        "  <xs:group name='lines'>\n" +
+        "    <xs:sequence>\n" +
+        "      <xs:element name='line' maxOccurs='unbounded'>\n" +
+        "        <xs:complexType>\n" +
+        "          <xs:attribute name='n' type='xs:int' use='required'/>\n" +
+        "        </xs:complexType>\n" +
+        "      </xs:element>\n" +
+        "      <xs:element name='see' minOccurs='0' maxOccurs='unbounded'>\n" +
+        "        <xs:complexType>\n" +
+        "          <xs:attribute name='n' type='xs:int'/>\n" +
+        "        </xs:complexType>\n" +
+        "      </xs:element>\n" +
+        "    </xs:sequence>\n" +
+        "  </xs:group>\n" +
+        "  <xs:element name='note'>\n" +
+        "    <xs:simpleType>\n" +
+        "      <xs:restriction base='xs:NOTATION'>\n" +
+        "        <xs:enumeration value='m:gif'/>\n" +
+        "      </xs:restriction>\n" +
+        "    </xs:simpleType>\n" +
+        "  </xs:element>\n" +
+        "  <xs:notation name='gif' public='image/gif'/>\n" +
+        "</xs:schema>\n";
+
+    private static final String OTHER_SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:o='urn:other'\n" +
+        "           targetNamespace='urn:other'>\n" +
+        "  <xs:element name='item' type='o:Item'/>\n" +
+        "  <xs:complexType name='Item'>\n" +
+        "    <xs:simpleContent>\n" +
+        "      <xs:extension base='xs:decimal'>\n" +
+        "        <xs:attribute name='unit' type='o:Unit' default='kg'/>\n" +
+        "      </xs:extension>\n" +
+        "    </xs:simpleContent>\n" +
+        "  </xs:complexType>\n" +
+        "  <xs:complexType name='Small'>\n" +
+        "    <xs:simpleContent>\n" +
+        "      <xs:restriction base='o:Item'>\n" +
+        "        <xs:maxInclusive value='10'/>\n" +
+        "      </xs:restriction>\n" +
+        "    </xs:simpleContent>\n" +
+        "  </xs:complexType>\n" +
+        "  <xs:simpleType name='Unit'>\n" +
+        "    <xs:restriction base='xs:token'>\n" +
+        "      <xs:enumeration value='kg'/>\n" +
+        "      <xs:enumeration value='lb'/>\n" +
+        "    </xs:restriction>\n" +
+        "  </xs:simpleType>\n" +
+        "</xs:schema>\n";
+
+    /** Errors in components, all of which are used by the root element. */
+    private static final String ERROR_SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:m='urn:main'\n" +
+        "           targetNamespace='urn:main'>\n" +
+        "  <xs:element name='root' type='m:Root'/>\n" +
+        "  <xs:complexType name='Root'>\n" +
+        "    <xs:sequence>\n" +
+        "      <xs:element name='x' type='m:Missing'/>\n" +
+        "      <xs:group ref='m:missingGroup'/>\n" +
+        "      <xs:element ref='m:bad' minOccurs='0'/>\n" +
+        "    </xs:sequence>\n" +
+        "    <xs:attribute ref='m:att'/>\n" +
+        "  </xs:complexType>\n" +
+        "  <xs:attribute name='att' type='m:MissingType' default='x'/>\n" +
+        "  <xs:simpleType name='Bad'>\n" +
+        "    <xs:restriction base='xs:int'>\n" +
+        "      <xs:length value='2'/>\n" +
+        "    </xs:restriction>\n" +
+        "  </xs:simpleType>\n" +
+        "  <xs:element name='bad' type='m:Bad'/>\n" +
+        "</xs:schema>\n";
+
+    private static final String ROOT =
+        "<m:root xmlns:m='urn:main' xmlns:o='urn:other'" +
+        " xmlns:xsi='http://www.w3.org/2001/XMLSchema-instance'>";
+
+    private static final String[] DOCUMENTS = {
+        ROOT + "<m:head id='h1' m:lang='en'><m:a>ABC</m:a></m:head>" +
+            "<m:member><m:a>DEF</m:a><m:b>1</m:b></m:member>" +
+            "<m:order><m:line n='1'/><m:line n='2'/><m:see n='2'/></m:order>" +
+            "<o:item unit='lb'>1.5</o:item><x xmlns='urn:any'/></m:root>",
+        ROOT + "<m:head><m:a>abc</m:a></m:head></m:root>",
+        ROOT + "<m:member m:lang='!'><m:a>ABC</m:a><m:b>x</m:b><m:c/></m:member></m:root>",
+        ROOT + "<m:second><m:a>ABC</m:a><m:b/></m:second></m:root>",
+        ROOT + "<m:order><m:line n='1'/><m:line n='1'/><m:see n='3'/></m:order></m:root>",
+        ROOT + "<o:item unit='g'>1</o:item><o:item xsi:type='o:Small'>11</o:item>" +
+            "<o:item xsi:type='o:Missing'>1</o:item></m:root>",
+        ROOT + "<m:nope/></m:root>",
+        ROOT + "<m:head id='a'><m:a>ABC</m:a></m:head><m:head id='a'><m:a>ABC</m:a></m:head>" +
+            "<m:order/></m:root>",
+        "<m:member xmlns:m='urn:main'><m:b>1</m:b></m:member>",
+        "<o:item xmlns:o='urn:other'>x</o:item>",
+        "<m:note xmlns:m='urn:main'>m:png</m:note>",
+        "<m:none xmlns:m='urn:main'/>",
+    };
+
+    private File fDirectory;
+    private File fMain;
+    private File fOther;
+    private File fErrors;
+
+    public LazyTraversalTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        fDirectory = File.createTempFile("lazy", "");
+        fDirectory.delete();
+        fDirectory.mkdir();
+        fMain = new File(fDirectory, "main.xsd");
+        fOther = new File(fDirectory, "other.xsd");
+        fErrors = new File(fDirectory, "errors.xsd");
+        write(fMain, MAIN_SCHEMA);
+        write(fOther, OTHER_SCHEMA);
+        write(fErrors, ERROR_SCHEMA);
+    }
+
+    protected void tearDown() throws Exception {
+        fMain.delete();
+        fOther.delete();
+        fErrors.delete();
+        fDirectory.delete();
+    }
+
+    /** Each document validated with its own schema, so that it makes the first lookups. */
+    public void testSameErrors() throws Exception {
+        for (int i = 0; i < DOCUMENTS.length; ++i) {
+            String expected = validate(fMain, false, DOCUMENTS[i]);
+            if (i == 0) {
+                assertEquals("", expected);
+            }
+            else {
+                assertTrue(DOCUMENTS[i], expected.length() > 0);
+            }
+            assertEquals(DOCUMENTS[i], expected, validate(fMain, true, DOCUMENTS[i]));
+        }
+    }
+
+    /** All the documents validated with the same schema, in both orders. */
+    public void testSameErrorsSharedSchema() throws Exception {
+        Schema eager = newFactory(false, null).newSchema(fMain);
+        Schema lazy = newFactory(true, null).newSchema(fMain);
+        for (int i = 0; i < DOCUMENTS.length; ++i) {
+            assertEquals(DOCUMENTS[i], validate(eager, DOCUMENTS[i]), validate(lazy, DOCUMENTS[i]));
+        }
+        lazy = newFactory(true, null).newSchema(fMain);
+        for (int i = DOCUMENTS.length - 1; i >= 0; --i) {
+            assertEquals(DOCUMENTS[i], validate(eager, DOCUMENTS[i]), validate(lazy, DOCUMENTS[i]));
+        }
+    }
+
+    /** Errors in the schema are reported once the components are used. */
+    public void testSchemaErrors() throws Exception {
+        final String document = "<m:root xmlns:m='urn:main' m:att='1'><x/></m:root>";
+        String eager = validate(fErrors, false, document);
+        assertTrue(eager, eager.indexOf("src-resolve") != -1);
+        assertTrue(eager, eager.indexOf("length") != -1);
+        assertEquals(eager, validate(fErrors, true, document));
+
+        // the errors in the components which are never used are not reported
+        String lazy = validate(fErrors, true, "<m:bad xmlns:m='urn:main'>1</m:bad>");
+        assertTrue(lazy, lazy.indexOf("length") != -1);
+        assertTrue(lazy, lazy.indexOf("src-resolve") == -1);
+    }
+
+    /** Several validators make the first lookups of the same schema at once. */
+    public void testConcurrentFirstLookups() throws Exception {
+        final Schema eager = newFactory(false, null).newSchema(fMain);
+        final String[] expected = new String[DOCUMENTS.length];
+        for (int i = 0; i < DOCUMENTS.length; ++i) {
+            expected[i] = validate(eager, DOCUMENTS[i]);
+        }
+        final int threadCount = 8;
+        for (int n = 0; n < 20; ++n) {
+            final Schema lazy = newFactory(true, null).newSchema(fMain);
+            final Object lock = new Object();
+            final boolean[] started = new boolean[1];
+            final List failures = Collections.synchronizedList(new ArrayList());
+            Thread[] threads = new Thread[threadCount];
+            for (int t = 0; t < threadCount; ++t) {
+                final int first = (t + n) % DOCUMENTS.length;
+                threads[t] = new Thread() {
+                    public void run() {
+                        try {
+                            synchronized (lock) {
+                                while (!started[0]) {
+                                    lock.wait();
+                                }
+                            }
+                            for (int i = 0; i < DOCUMENTS.length; ++i) {
+                                int d = (first + i) % DOCUMENTS.length;
+                                String actual = validate(lazy, DOCUMENTS[d]);
+                                if (!expected[d].equals(actual)) {
+                                    failures.add(DOCUMENTS[d] + ": expected <" + expected[d] +
+                                            "> but was <" + actual + ">");
+                                }
+                            }
+                        }
+                        catch (Throwable e) {
+                            failures.add(e.toString());
+                        }
+                    }
+                };
+                threads[t].start();
+            }
+            synchronized (lock) {
+                started[0] = true;
+                lock.notifyAll();
+            }
+            for (int t = 0; t < threadCount; ++t) {
+                threads[t].join();
+            }
+            assertTrue(failures.toString(), failures.isEmpty());
+        }
+    }
+
+    /** Through a schema factory, full checking must be turned off for the feature to apply. */
+    public void testFullChecking() throws Exception {
+        final String document = "<m:root xmlns:m='urn:main' m:att='1'><x/></m:root>";
+        Recorder recorder = new Recorder();
+        SchemaFactory factory = new XMLSchemaFactory();
+        factory.setFeature(LAZY_SCHEMA_TRAVERSAL, true);
+        factory.setErrorHandler(recorder);
+        factory.newSchema(fErrors);
+        // full checking needs every component when the schema is loaded
+        assertTrue(recorder.toString(), recorder.toString().indexOf("length") != -1);
+
+        // the errors in the components are reported to the error handler
+        // of the factory once they are used
+        recorder = new Recorder();
+        Schema schema = newFactory(true, recorder).newSchema(fErrors);
+        assertEquals("", recorder.toString());
+        Validator validator = schema.newValidator();
+        validator.setErrorHandler(new Recorder());
+        validator.validate(new StreamSource(new StringReader(document)));
+        assertTrue(recorder.toString(), recorder.toString().indexOf("src-resolve") != -1);
+    }
+
+    //
+    // Private methods
+    //
+
+    private static SchemaFactory newFactory(boolean lazy, ErrorHandler errorHandler) throws SAXException {
+        SchemaFactory factory = new XMLSchemaFactory();
+        factory.setFeature(SCHEMA_FULL_CHECKING, false);
+        factory.setFeature(LAZY_SCHEMA_TRAVERSAL, lazy);
+        factory.setErrorHandler(errorHandler);
+        return factory;
+    }
+
+    /**
+     * Loads the schema and validates the document, returning the errors
+     * reported while loading the schema and while validating, sorted.
+     */
+    private static String validate(File schemaFile, boolean lazy, String document) throws Exception {
+        Recorder recorder = new Recorder();
+        Schema schema = newFactory(lazy, recorder).newSchema(schemaFile);
+        Validator validator = schema.newValidator();
+        validator.setErrorHandler(recorder);
+        validator.validate(new StreamSource(new StringReader(document)));
+        return recorder.sorted();
+    }
+
+    private static String validate(Schema schema, String document) throws Exception {
+        Recorder recorder = new Recorder();
+        Validator validator = schema.newValidator();
+        validator.setErrorHandler(recorder);
+        validator.validate(new StreamSource(new StringReader(document)));
+        return recorder.toString();
+    }
+
+    private static void write(File file, String contents) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(contents);
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    //
+    // Classes
+    //
+
+    /** Records the errors reported. */
+    static final class Recorder implements ErrorHandler {
+
+        private final List fErrors = new ArrayList();
+
+        public synchronized void warning(SAXParseException e) {
+            fErrors.add("warning " + e.getMessage());
+        }
+
+        public synchronized void error(SAXParseException e) {
+            fErrors.add("error " + e.getMessage());
+        }
+
+        public synchronized void fatalError(SAXParseException e) throws SAXException {
+            fErrors.add("fatal " + e.getMessage());
+            throw e;
+        }
+
+        synchronized String sorted() {
+            List errors = new ArrayList(fErrors);
+            Collections.sort(errors);
+            return errors.isEmpty() ? "" : errors.toString();
+        }
+
+        public synchronized String toString() {
+            return fErrors.isEmpty() ? "" : fErrors.toString();
+        }
+
+    } // class Recorder
+
+} // class LazyTraversalTest
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package schema.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.xs.SchemaGrammar;
+import org.apache.xerces.impl.xs.util.XSGrammarPool;
+import org.apache.xerces.jaxp.validation.XMLSchemaFactory;
+import org.apache.xerces.jaxp.validation.XSGrammarPoolContainer;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.w3c.dom.Document;
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+import org.xml.sax.SAXException;
+
+/**
+ * Tests the sharing of schema grammars between schema factories.
+ *
+ * @version $Id$
+ */
+public class SharedGrammarsTest extends TestCase {
+
+    private static final String SHARED_SCHEMA_GRAMMARS =
+        "http://apache.org/xml/features/validation/schema/shared-grammars";
+
+    private static final String MAIN_SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'\n" +
+        "           xmlns:o='urn:other' targetNamespace='urn:main'>\n" +
+        "  <xs:import namespace='urn:other' schemaLocation='other.xsd'/>\n" +
+        "  <xs:element name='root' type='o:T'/>\n" +
+        "</xs:schema>\n";
+
+    private static final String OTHER_SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'\n" +
+        "           targetNamespace='urn:other'>\n" +
+        "  <xs:complexType name='T'/>\n" +
+        "</xs:schema>\n";
+
+    private File fDirectory;
+    private File fMain;
+    private File fOther;
+
+    public SharedGrammarsTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        fDirectory = File.createTempFile("shared", "");
+        fDirectory.delete();
+        fDirectory.mkdir();
+        fMain = new File(fDirectory, "main.xsd");
+        fOther = new File(fDirectory, "other.xsd");
+        write(fMain, MAIN_SCHEMA);
+        write(fOther, OTHER_SCHEMA);
+    }
+
+    protected void tearDown() throws Exception {
+        fMain.delete();
+        fOther.delete();
+        fDirectory.delete();
+    }
+
+    public void testSharedBetweenFactories() throws Exception {
+        Schema schema1 = newFactory(true).newSchema(fMain);
+        Schema schema2 = newFactory(true).newSchema(fMain);
+        assertSameGrammars(schema1, schema2);
+
+        // one model for all the schemas sharing the grammars
+        XMLGrammarPool pool1 = ((XSGrammarPoolContainer) schema1).getGrammarPool();
+        XMLGrammarPool pool2 = ((XSGrammarPoolContainer) schema2).getGrammarPool();
+        assertTrue(pool1 instanceof XSGrammarPool);
+        assertSame(((XSGrammarPool) pool1).toXSModel(), ((XSGrammarPool) pool2).toXSModel());
+
+        schema2.newValidator().validate(new StreamSource(
+                new StringReader("<m:root xmlns:m='urn:main'/>")));
+    }
+
+    public void testSharedBetweenSources() throws Exception {
+        // the documents are compared by contents
+        Schema schema1 = newFactory(true).newSchema(fMain);
+        StreamSource source = new StreamSource(new StringReader(MAIN_SCHEMA));
+        source.setSystemId(fMain.toURI().toString());
+        Schema schema2 = newFactory(true).newSchema(source);
+        assertSameGrammars(schema1, schema2);
+    }
+
+    /** A document given as a stream with other contents than at its system identifier. */
+    public void testNotSharedWithOtherContents() throws Exception {
+        final String contents = MAIN_SCHEMA.replace("type='o:T'", "type='xs:string'");
+        final String systemId = fMain.toURI().toString();
+        Schema schema1 = newFactory(true).newSchema(new StreamSource(new StringReader(contents), systemId));
+        Schema schema2 = newFactory(true).newSchema(fMain);
+        assertNotSame(getGrammar(schema1, "urn:main"), getGrammar(schema2, "urn:main"));
+
+        // each schema validates according to the contents it was loaded from
+        final String document = "<m:root xmlns:m='urn:main'>text</m:root>";
+        schema1.newValidator().validate(new StreamSource(new StringReader(document)));
+        try {
+            schema2.newValidator().validate(new StreamSource(new StringReader(document)));
+            fail("Text should not be allowed by the schema loaded from the file.");
+        }
+        catch (SAXException e) {
+        }
+
+        // the same contents as bytes are shared with the characters, not with the file
+        Schema schema3 = newFactory(true).newSchema(new StreamSource(
+                new ByteArrayInputStream(contents.getBytes("UTF-8")), systemId));
+        assertSame(getGrammar(schema1, "urn:main"), getGrammar(schema3, "urn:main"));
+        assertSame(getGrammar(schema2, "urn:main"),
+                getGrammar(newFactory(true).newSchema(fMain), "urn:main"));
+    }
+
+    /** The grammars of a DOM are not shared, since its contents are not hashed. */
+    public void testNotSharedFromDOMSource() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        Document document = dbf.newDocumentBuilder().parse(fMain);
+        Schema schema1 = newFactory(true).newSchema(new DOMSource(document, fMain.toURI().toString()));
+        Schema schema2 = newFactory(true).newSchema(fMain);
+        assertNotSame(getGrammar(schema1, "urn:main"), getGrammar(schema2, "urn:main"));
+    }
+
+    public void testNotSharedByDefault() throws Exception {
+        Schema schema1 = newFactory(false).newSchema(fMain);
+        Schema schema2 = newFactory(false).newSchema(fMain);
+        assertNotSame(getGrammars(schema1)[0], getGrammars(schema2)[0]);
+    }
+
+    public void testNotSharedWithDifferentSettings() throws Exception {
+        Schema schema1 = newFactory(true).newSchema(fMain);
+        SchemaFactory factory = newFactory(true);
+        factory.setFeature("http://apache.org/xml/features/generate-synthetic-annotations", true);
+        Schema schema2 = factory.newSchema(fMain);
+        assertNotSame(getGrammars(schema1)[0], getGrammars(schema2)[0]);
+    }
+
+    public void testNotSharedWithResourceResolver() throws Exception {
+        Schema schema1 = newFactory(true).newSchema(fMain);
+        SchemaFactory factory = newFactory(true);
+        factory.setResourceResolver(new LSResourceResolver() {
+            public LSInput resolveResource(String type, String namespaceURI,
+                    String publicId, String systemId, String baseURI) {
+                return null;
+            }
+        });
+        Schema schema2 = factory.newSchema(fMain);
+        assertNotSame(getGrammars(schema1)[0], getGrammars(schema2)[0]);
+    }
+
+    public void testChangedDocument() throws Exception {
+        Schema schema1 = newFactory(true).newSchema(fMain);
+        write(fOther, OTHER_SCHEMA.replace("<xs:complexType name='T'/>",
+                "<xs:complexType name='T'><xs:attribute name='a'/></xs:complexType>"));
+        Schema schema2 = newFactory(true).newSchema(fMain);
+        assertNotSame(getGrammars(schema1)[0], getGrammars(schema2)[0]);
+        schema2.newValidator().validate(new StreamSource(
+                new StringReader("<m:root xmlns:m='urn:main' a='1'/>")));
+        try {
+            schema1.newValidator().validate(new StreamSource(
+                    new StringReader("<m:root xmlns:m='urn:main' a='1'/>")));
+            fail("Attribute a should not be allowed by the previous schema.");
+        }
+        catch (SAXException e) {
+        }
+    }
+
+    private SchemaFactory newFactory(boolean shared) throws SAXException {
+        SchemaFactory factory = new XMLSchemaFactory();
+        factory.setFeature(SHARED_SCHEMA_GRAMMARS, shared);
+        return factory;
+    }
+
+    private void assertSameGrammars(Schema schema1, Schema schema2) {
+        Grammar[] grammars1 = getGrammars(schema1);
+        Grammar[] grammars2 = getGrammars(schema2);
+        assertEquals(2, grammars1.length);
+        assertEquals(grammars1.length, grammars2.length);
+        for (int i = 0; i < grammars1.length; ++i) {
+            boolean found = false;
+            for (int j = 0; j < grammars2.length; ++j) {
+                found = found || grammars1[i] == grammars2[j];
+            }
+            assertTrue("Grammars not shared.", found);
+        }
+    }
+
+    private Grammar getGrammar(Schema schema, String namespace) {
+        Grammar[] grammars = getGrammars(schema);
+        for (int i = 0; i < grammars.length; ++i) {
+            if (namespace.equals(((SchemaGrammar) grammars[i]).getTargetNamespace())) {
+                return grammars[i];
+            }
+        }
+        fail("No grammar for " + namespace + ".");
+        return null;
+    }
+
+    private Grammar[] getGrammars(Schema schema) {
+        return ((XSGrammarPoolContainer) schema).getGrammarPool()
+            .retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA);
+    }
+
+    private static void write(File file, String contents) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(contents);
+        }
+        finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package stax;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.Random;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.parsers.SAXParser;
+import org.apache.xerces.stax.XMLInputFactoryImpl;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests that the text reported by the StAX stream reader is not
+ * affected by the scanner reusing its buffers, and the text of the
+ * DTD event.
+ *
+ * @version $Id$
+ */
+public class XMLStreamReaderTest extends TestCase {
+
+    private static final String BUFFER_SIZE =
+        "http://apache.org/xml/properties/input-buffer-size";
+
+    private static final int[] BUFFER_SIZES = { 64, 100, 2048 };
+
+    public XMLStreamReaderTest(String name) {
+        super(name);
+    }
+
+    /** A CDATA section much larger than the buffer, read from a stream. */
+    public void testLargeCDATA() throws Exception {
+        StringBuffer text = new StringBuffer();
+        for (int i = 0; i < 30000; ++i) {
+            text.append((char) ('a' + i % 26));
+        }
+        byte[] document = ("<r><![CDATA[" + text + "]]></r>").getBytes("UTF-8");
+        for (int i = 0; i < BUFFER_SIZES.length; ++i) {
+            XMLStreamReader reader = createFactory(BUFFER_SIZES[i])
+                .createXMLStreamReader(new ByteArrayInputStream(document));
+            StringBuffer read = new StringBuffer();
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.CDATA) {
+                    read.append(reader.getText());
+                }
+            }
+            assertEquals("buffer size " + BUFFER_SIZES[i], text.toString(), read.toString());
+        }
+    }
+
+    /** Text mixed with CDATA sections and markup crossing the end of the buffer. */
+    public void testLargeText() throws Exception {
+        Random random = new Random(1);
+        for (int n = 0; n < 50; ++n) {
+            byte[] document = createDocument(random);
+            String expected = parseSAX(document);
+            for (int i = 0; i < BUFFER_SIZES.length; ++i) {
+                assertEquals("buffer size " + BUFFER_SIZES[i], expected,
+                        parseStAX(document, BUFFER_SIZES[i], false));
+                assertEquals("buffer size " + BUFFER_SIZES[i], expected,
+                        parseStAX(document, BUFFER_SIZES[i], true));
+            }
+        }
+    }
+
+    public void testDTDWithoutInternalSubset() throws Exception {
+        assertEquals("<!DOCTYPE r>", getDTDText("<!DOCTYPE r><r/>", null));
+        assertEquals("<!DOCTYPE r SYSTEM \"r.dtd\">",
+                getDTDText("<!DOCTYPE r SYSTEM 'r.dtd'><r/>", ""));
+    }
+
+    public void testDTDInternalSubset() throws Exception {
+        String text = getDTDText("<!DOCTYPE r [\n" +
+                "<!ELEMENT r (a|b)*>\n" +
+                "<!ATTLIST r x CDATA 'v' y (p|q) #IMPLIED>\n" +
+                "<!ENTITY e 'value'>\n" +
+                "<!-- note -->\n" +
+                "]><r/>", null);
+        assertTrue(text, text.startsWith("<!DOCTYPE r ["));
+        assertTrue(text, text.endsWith("]>"));
+        assertTrue(text, text.indexOf("<!ELEMENT r (a|b)*>") != -1);
+        assertTrue(text, text.indexOf("<!ATTLIST r x CDATA 'v'>") != -1);
+        assertTrue(text, text.indexOf("<!ATTLIST r y (p|q) #IMPLIED>") != -1);
+        assertTrue(text, text.indexOf("<!ENTITY e 'value'>") != -1);
+        assertTrue(text, text.indexOf("<!-- note -->") != -1);
+    }
+
+    /** Declarations from the external subset are not part of the text. */
+    public void testDTDExternalSubset() throws Exception {
+        String text = getDTDText("<!DOCTYPE r SYSTEM 'r.dtd' [<!ELEMENT r ANY>]><r/>",
+                "<!ELEMENT external EMPTY>");
+        assertTrue(text, text.startsWith("<!DOCTYPE r SYSTEM \"r.dtd\" ["));
+        assertTrue(text, text.indexOf("<!ELEMENT r ANY>") != -1);
+        assertTrue(text, text.indexOf("external") == -1);
+    }
+
+    //
+    // Private methods
+    //
+
+    private static XMLInputFactory createFactory(int bufferSize) {
+        XMLInputFactory factory = new XMLInputFactoryImpl();
+        factory.setProperty(BUFFER_SIZE, Integer.valueOf(bufferSize));
+        return factory;
+    }
+
+    /** Returns the text of the DTD event, resolving any external subset to the given text. */
+    private static String getDTDText(String document, final String externalSubset) throws Exception {
+        XMLInputFactory factory = new XMLInputFactoryImpl();
+        factory.setXMLResolver(new XMLResolver() {
+            public Object resolveEntity(String publicID, String systemID,
+                    String baseURI, String namespace) {
+                return new ByteArrayInputStream(externalSubset.getBytes());
+            }
+        });
+        XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(document));
+        while (reader.next() != XMLStreamConstants.DTD) {
+        }
+        String text = reader.getText();
+        assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+        return text;
+    }
+
+    private static byte[] createDocument(Random random) throws Exception {
+        StringBuffer document = new StringBuffer("<r>");
+        final int length = random.nextInt(3000);
+        for (int i = 0; i < length; ++i) {
+            switch (random.nextInt(12)) {
+                case 0:
+                    document.append("<![CDATA[").append("abc]]d<e>\u00e9".substring(random.nextInt(10))).append("]]>");
+                    break;
+                case 1:
+                    document.append("<elementWithALongName").append(i)
+                        .append(" attribute='value").append(i).append("'/>");
+                    break;
+                case 2: document.append(']'); break;
+                case 3: document.append("<!--c").append(i).append("-->"); break;
+                case 4: document.append("&amp;"); break;
+                case 5: document.append("\r\n"); break;
+                default: document.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        if (random.nextBoolean()) {
+            document.append("<![CDATA[");
+            for (int i = 0; i < 5000; ++i) {
+                document.append((char) ('a' + i % 26));
+            }
+            document.append("]]>");
+        }
+        document.append("</r>");
+        return document.toString().getBytes("UTF-8");
+    }
+
+    private static String parseSAX(byte[] document) throws Exception {
+        final StringBuffer events = new StringBuffer();
+        final StringBuffer text = new StringBuffer();
+        SAXParser parser = new SAXParser();
+        parser.setContentHandler(new DefaultHandler() {
+            public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                events.append(text).append('<').append(qName).append('>');
+                text.setLength(0);
+            }
+            public void endElement(String uri, String localName, String qName) {
+                events.append(text).append("</").append(qName).append('>');
+                text.setLength(0);
+            }
+            public void characters(char[] ch, int start, int length) {
+                text.append(ch, start, length);
+            }
+        });
+        parser.parse(new InputSource(new ByteArrayInputStream(document)));
+        return events.toString();
+    }
+
+    private static String parseStAX(byte[] document, int bufferSize, boolean coalescing) throws Exception {
+        XMLInputFactory factory = createFactory(bufferSize);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.valueOf(coalescing));
+        XMLStreamReader reader = factory.createXMLStreamReader(new ByteArrayInputStream(document));
+        final StringBuffer events = new StringBuffer();
+        final StringBuffer text = new StringBuffer();
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    events.append(text).append('<').append(reader.getLocalName()).append('>');
+                    text.setLength(0);
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    events.append(text).append("</").append(reader.getLocalName()).append('>');
+                    text.setLength(0);
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+            }
+        }
+        return events.toString();
+    }
+
+} // class XMLStreamReaderTest
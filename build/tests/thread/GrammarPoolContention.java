@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package thread;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.xerces.impl.xs.XMLSchemaLoader;
+import org.apache.xerces.impl.xs.XSDDescription;
+import org.apache.xerces.parsers.CachingParserPool;
+import org.apache.xerces.parsers.SAXParser;
+import org.apache.xerces.util.ConcurrentGrammarPool;
+import org.apache.xerces.util.XMLGrammarPoolImpl;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * This program measures the contention on a grammar pool shared by
+ * several threads, comparing a synchronized <code>XMLGrammarPoolImpl</code>
+ * with a <code>ConcurrentGrammarPool</code>. Each thread repeatedly
+ * validates the documents listed on the command line against the schemas
+ * cached in the pool, and looks up the cached grammars between parses.
+ * <p>
+ * It then checks that concurrent misses on a <code>ConcurrentGrammarPool</code>
+ * with a loader compile the schema only once: the threads start together
+ * on an empty pool and the loader counts the loads.
+ * <p>
+ * Usage: java thread.GrammarPoolContention [-threads nnn] [-time nnn]
+ *        [-schema uri] xmlfile ...
+ * <p>
+ * The schema given with <code>-schema</code> is the one loaded for
+ * documents with no target namespace; it defaults to
+ * <code>data/personal.xsd</code>.
+ *
+ * @see Test
+ *
+ * @version $Id$
+ */
+public class GrammarPoolContention {
+
+    //
+    // Constants
+    //
+
+    /** Grammar pool property id. */
+    private static final String GRAMMAR_POOL =
+        "http://apache.org/xml/properties/internal/grammar-pool";
+
+    /** Validation feature id. */
+    private static final String VALIDATION =
+        "http://xml.org/sax/features/validation";
+
+    /** Schema validation feature id. */
+    private static final String SCHEMA_VALIDATION =
+        "http://apache.org/xml/features/validation/schema";
+
+    /** Number of grammar lookups between parses. */
+    private static final int LOOKUPS = 100;
+
+    //
+    // MAIN
+    //
+
+    /** Main program entry. */
+    public static void main(String[] argv) throws Exception {
+
+        int threads = 4;
+        int time = 5;
+        String schema = "data/personal.xsd";
+        int i = 0;
+        for (; i < argv.length && argv[i].startsWith("-"); i++) {
+            if (argv[i].equals("-threads") && i + 1 < argv.length) {
+                threads = Integer.parseInt(argv[++i]);
+            }
+            else if (argv[i].equals("-time") && i + 1 < argv.length) {
+                time = Integer.parseInt(argv[++i]);
+            }
+            else if (argv[i].equals("-schema") && i + 1 < argv.length) {
+                schema = argv[++i];
+            }
+            else {
+                printUsage();
+                return;
+            }
+        }
+        if (i == argv.length) {
+            printUsage();
+            return;
+        }
+        final byte[][] documents = new byte[argv.length - i][];
+        final String[] systemIds = new String[documents.length];
+        for (int j = 0; j < documents.length; j++) {
+            systemIds[j] = argv[i + j];
+            documents[j] = readFile(systemIds[j]);
+        }
+
+        XMLGrammarPool pool = new XMLGrammarPoolImpl();
+        test("synchronized", new CachingParserPool.SynchronizedGrammarPool(pool),
+             documents, systemIds, threads, time);
+        test("concurrent", new ConcurrentGrammarPool(),
+             documents, systemIds, threads, time);
+
+        testSingleFlight(schema, documents, systemIds, threads);
+
+    } // main(String[])
+
+    //
+    // Public static methods
+    //
+
+    /**
+     * Runs the given number of threads for the given number of seconds,
+     * each of them parsing the documents with a parser which shares the
+     * grammar pool and looking up the grammars between parses, and prints
+     * the rates of parses and lookups.
+     */
+    public static void test(String name, final XMLGrammarPool pool,
+                            final byte[][] documents, final String[] systemIds,
+                            int threads, int time) throws Exception {
+
+        // warm up, and fill the pool
+        parse(createParser(pool), documents, systemIds);
+
+        final long end = System.currentTimeMillis() + time * 1000L;
+        final AtomicInteger parses = new AtomicInteger();
+        final AtomicInteger lookups = new AtomicInteger();
+        final Exception[] failure = new Exception[1];
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread() {
+                public void run() {
+                    try {
+                        SAXParser parser = createParser(pool);
+                        XSDDescription desc = new XSDDescription();
+                        desc.setNamespace(null);
+                        while (System.currentTimeMillis() < end) {
+                            parse(parser, documents, systemIds);
+                            parses.addAndGet(documents.length);
+                            for (int j = 0; j < LOOKUPS; j++) {
+                                if (pool.retrieveGrammar(desc) == null) {
+                                    throw new Exception("grammar not cached");
+                                }
+                            }
+                            lookups.addAndGet(LOOKUPS);
+                        }
+                    }
+                    catch (Exception e) {
+                        synchronized (failure) {
+                            failure[0] = e;
+                        }
+                    }
+                }
+            };
+        }
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < threads; i++) {
+            workers[i].start();
+        }
+        for (int i = 0; i < threads; i++) {
+            workers[i].join();
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+
+        System.out.println(name + " (" + threads + " threads): "
+                           + (parses.get() * 1000L / elapsed) + " parses/s, "
+                           + (lookups.get() * 1000L / elapsed) + " lookups/s");
+
+    } // test(String,XMLGrammarPool,byte[][],String[],int,int)
+
+    /**
+     * Starts the given number of threads together on an empty
+     * <code>ConcurrentGrammarPool</code> whose loader counts the schemas
+     * it compiles, and checks that the schema was compiled only once.
+     */
+    public static void testSingleFlight(final String schema,
+                                        final byte[][] documents, final String[] systemIds,
+                                        int threads) throws Exception {
+
+        final AtomicInteger loads = new AtomicInteger();
+        final ConcurrentGrammarPool pool = new ConcurrentGrammarPool(new ConcurrentGrammarPool.Loader() {
+            public Grammar loadGrammar(XMLGrammarDescription desc) throws Exception {
+                if (!XMLGrammarDescription.XML_SCHEMA.equals(desc.getGrammarType())
+                    || desc.getNamespace() != null) {
+                    return null;
+                }
+                loads.incrementAndGet();
+                return new XMLSchemaLoader().loadGrammar(new XMLInputSource(null, schema, null));
+            }
+        });
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Exception[] failure = new Exception[1];
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread() {
+                public void run() {
+                    try {
+                        SAXParser parser = createParser(pool);
+                        latch.await();
+                        parse(parser, documents, systemIds);
+                    }
+                    catch (Exception e) {
+                        synchronized (failure) {
+                            failure[0] = e;
+                        }
+                    }
+                }
+            };
+            workers[i].start();
+        }
+        latch.countDown();
+        for (int i = 0; i < threads; i++) {
+            workers[i].join();
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+
+        System.out.println("single-flight (" + threads + " threads): "
+                           + loads.get() + " load(s)"
+                           + (loads.get() == 1 ? "" : " -- expected 1"));
+
+    } // testSingleFlight(String,byte[][],String[],int)
+
+    //
+    // Private static methods
+    //
+
+    /** Creates a schema validating parser which uses the grammar pool. */
+    private static SAXParser createParser(XMLGrammarPool pool) throws Exception {
+        SAXParser parser = new SAXParser();
+        parser.setProperty(GRAMMAR_POOL, pool);
+        parser.setFeature(VALIDATION, true);
+        parser.setFeature(SCHEMA_VALIDATION, true);
+        parser.setErrorHandler(new DefaultHandler() {
+            public void error(SAXParseException e) throws SAXParseException {
+                throw e;
+            }
+        });
+        return parser;
+    } // createParser(XMLGrammarPool):SAXParser
+
+    /** Parses the documents. */
+    private static void parse(SAXParser parser, byte[][] documents, String[] systemIds)
+        throws Exception {
+        for (int i = 0; i < documents.length; i++) {
+            InputSource source = new InputSource(new ByteArrayInputStream(documents[i]));
+            source.setSystemId(systemIds[i]);
+            parser.parse(source);
+        }
+    } // parse(SAXParser,byte[][],String[])
+
+    /** Reads the contents of a file. */
+    private static byte[] readFile(String name) throws Exception {
+        InputStream in = new FileInputStream(name);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        }
+        finally {
+            in.close();
+        }
+    } // readFile(String):byte[]
+
+    /** Prints the usage. */
+    private static void printUsage() {
+        System.err.println("usage: java thread.GrammarPoolContention [-threads nnn] [-time nnn] [-schema uri] xmlfile ...");
+    } // printUsage()
+
+} // class GrammarPoolContention
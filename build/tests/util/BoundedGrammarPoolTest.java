@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util;
+
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.xs.XMLSchemaLoader;
+import org.apache.xerces.impl.xs.XSDDescription;
+import org.apache.xerces.util.BoundedGrammarPool;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.parser.XMLInputSource;
+
+/**
+ * Tests that BoundedGrammarPool evicts the least recently used grammars
+ * when its budget is exceeded, neither evicts nor accepts grammars while
+ * locked, and counts hits, misses and evictions.
+ *
+ * @version $Id$
+ */
+public class BoundedGrammarPoolTest extends TestCase {
+
+    public BoundedGrammarPoolTest(String name) {
+        super(name);
+    }
+
+    /** At capacity, the grammar used least recently is evicted first. */
+    public void testEvictionOrder() {
+        BoundedGrammarPool pool = new BoundedGrammarPool(3, BoundedGrammarPool.UNLIMITED_SIZE);
+        Grammar a = createGrammar("urn:a");
+        Grammar b = createGrammar("urn:b");
+        Grammar c = createGrammar("urn:c");
+        pool.putGrammar(a);
+        pool.putGrammar(b);
+        pool.putGrammar(c);
+        assertEquals(3, pool.getGrammarCount());
+        assertEquals(0, pool.getEvictionCount());
+
+        // a is retrieved and c put again, so b is the least recently used
+        assertSame(a, pool.retrieveGrammar(createDescription("urn:a")));
+        Grammar c2 = createGrammar("urn:c");
+        pool.putGrammar(c2);
+        pool.putGrammar(createGrammar("urn:d"));
+        assertEquals(3, pool.getGrammarCount());
+        assertEquals(1, pool.getEvictionCount());
+        assertFalse(pool.containsGrammar(createDescription("urn:b")));
+        assertSame(c2, pool.getGrammar(createDescription("urn:c")));
+
+        // getGrammar and containsGrammar do not mark a grammar as used
+        assertSame(a, pool.getGrammar(createDescription("urn:a")));
+        assertTrue(pool.containsGrammar(createDescription("urn:a")));
+        pool.putGrammar(createGrammar("urn:e"));
+        assertFalse(pool.containsGrammar(createDescription("urn:a")));
+        pool.putGrammar(createGrammar("urn:f"));
+        assertFalse(pool.containsGrammar(createDescription("urn:c")));
+        assertTrue(pool.containsGrammar(createDescription("urn:d")));
+        assertEquals(3, pool.getEvictionCount());
+    }
+
+    /** A grammar which has been evicted is a miss and may be put again. */
+    public void testRetrieveAfterEviction() {
+        BoundedGrammarPool pool = new BoundedGrammarPool(1, BoundedGrammarPool.UNLIMITED_SIZE);
+        Grammar a = createGrammar("urn:a");
+        pool.putGrammar(a);
+        assertSame(a, pool.retrieveGrammar(createDescription("urn:a")));
+        pool.putGrammar(createGrammar("urn:b"));
+        assertNull(pool.retrieveGrammar(createDescription("urn:a")));
+        assertNull(pool.getGrammar(createDescription("urn:a")));
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+        pool.putGrammar(a);
+        assertSame(a, pool.retrieveGrammar(createDescription("urn:a")));
+        assertNull(pool.retrieveGrammar(createDescription("urn:b")));
+        assertEquals(2, pool.getHitCount());
+        assertEquals(2, pool.getMissCount());
+        assertEquals(2, pool.getEvictionCount());
+    }
+
+    /** A locked pool accepts no grammar, so it evicts none. */
+    public void testLocked() {
+        BoundedGrammarPool pool = new BoundedGrammarPool(2, BoundedGrammarPool.UNLIMITED_SIZE);
+        Grammar a = createGrammar("urn:a");
+        Grammar b = createGrammar("urn:b");
+        pool.putGrammar(a);
+        pool.putGrammar(b);
+        pool.lockPool();
+        pool.putGrammar(createGrammar("urn:c"));
+        pool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA,
+                new Grammar[] {createGrammar("urn:d"), createGrammar("urn:a")});
+        assertEquals(2, pool.getGrammarCount());
+        assertEquals(0, pool.getEvictionCount());
+        assertSame(a, pool.retrieveGrammar(createDescription("urn:a")));
+        assertSame(b, pool.retrieveGrammar(createDescription("urn:b")));
+        assertNull(pool.retrieveGrammar(createDescription("urn:c")));
+        // retrieving while locked still marks grammars as used
+        assertSame(a, pool.retrieveGrammar(createDescription("urn:a")));
+        pool.unlockPool();
+        pool.putGrammar(createGrammar("urn:c"));
+        assertFalse(pool.containsGrammar(createDescription("urn:b")));
+        assertTrue(pool.containsGrammar(createDescription("urn:a")));
+        assertEquals(1, pool.getEvictionCount());
+        // validators get no initial grammars
+        assertEquals(0, pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA).length);
+    }
+
+    /** The estimated size of the grammars is kept within the budget. */
+    public void testSizeBudget() {
+        BoundedGrammarPool pool = new BoundedGrammarPool(100, 10) {
+            protected long sizeOf(Grammar grammar) {
+                // the size is the number in the namespace name
+                return Long.parseLong(grammar.getGrammarDescription().getNamespace().substring(4));
+            }
+        };
+        pool.putGrammar(createGrammar("urn:4"));
+        pool.putGrammar(createGrammar("urn:5"));
+        assertEquals(9, pool.getSize());
+        pool.putGrammar(createGrammar("urn:3"));
+        assertEquals(8, pool.getSize());
+        assertFalse(pool.containsGrammar(createDescription("urn:4")));
+        // a grammar larger than the whole budget is not cached
+        pool.putGrammar(createGrammar("urn:11"));
+        assertFalse(pool.containsGrammar(createDescription("urn:11")));
+        assertEquals(8, pool.getSize());
+        assertEquals(2, pool.getEvictionCount());
+        pool.removeGrammar(createDescription("urn:5"));
+        assertEquals(3, pool.getSize());
+        pool.clear();
+        assertEquals(0, pool.getSize());
+        assertEquals(0, pool.getGrammarCount());
+    }
+
+    public void testStatistics() {
+        BoundedGrammarPool pool = new BoundedGrammarPool(2, BoundedGrammarPool.UNLIMITED_SIZE);
+        assertEquals(0.0, pool.getHitRate(), 0.0);
+        pool.putGrammar(createGrammar("urn:a"));
+        for (int i = 0; i < 3; ++i) {
+            pool.retrieveGrammar(createDescription("urn:a"));
+        }
+        pool.retrieveGrammar(createDescription("urn:x"));
+        assertEquals(3, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+        assertEquals(0.75, pool.getHitRate(), 0.0);
+        pool.putGrammar(createGrammar("urn:b"));
+        pool.putGrammar(createGrammar("urn:c"));
+        assertEquals(1, pool.getEvictionCount());
+        pool.resetStatistics();
+        assertEquals(0, pool.getHitCount());
+        assertEquals(0, pool.getMissCount());
+        assertEquals(0, pool.getEvictionCount());
+        assertEquals(2, pool.getGrammarCount());
+    }
+
+    /** The default estimate grows with the components of a schema grammar. */
+    public void testSchemaGrammarSize() throws Exception {
+        XMLSchemaLoader loader = new XMLSchemaLoader();
+        Grammar small = loader.loadGrammar(new XMLInputSource(null, "small.xsd", null,
+                new StringReader("<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' targetNamespace='urn:small'>" +
+                        "<xs:element name='e'/></xs:schema>"), null));
+        Grammar large = loader.loadGrammar(new XMLInputSource(null, "large.xsd", null,
+                new StringReader("<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' targetNamespace='urn:large'>" +
+                        "<xs:element name='e'/><xs:element name='f'/><xs:attribute name='a'/>" +
+                        "<xs:simpleType name='t'><xs:restriction base='xs:int'/></xs:simpleType>" +
+                        "</xs:schema>"), null));
+        BoundedGrammarPool pool = new BoundedGrammarPool();
+        pool.putGrammar(small);
+        long smallSize = pool.getSize();
+        pool.putGrammar(large);
+        assertTrue(smallSize > 0);
+        assertTrue(pool.getSize() - smallSize > smallSize);
+        assertSame(large, pool.retrieveGrammar(large.getGrammarDescription()));
+    }
+
+    //
+    // Private methods
+    //
+
+    private static XSDDescription createDescription(String namespace) {
+        XSDDescription desc = new XSDDescription();
+        desc.setNamespace(namespace);
+        return desc;
+    }
+
+    private static Grammar createGrammar(String namespace) {
+        final XSDDescription desc = createDescription(namespace);
+        return new Grammar() {
+            public XMLGrammarDescription getGrammarDescription() {
+                return desc;
+            }
+        };
+    }
+
+} // class BoundedGrammarPoolTest
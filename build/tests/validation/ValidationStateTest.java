@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package validation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.validation.ValidationState;
+
+/**
+ * Tests the IDs and IDREFs held by ValidationState against a map, with
+ * random names, as the table grows, is reused once cleared and is
+ * shrunk after holding many names.
+ *
+ * @version $Id$
+ */
+public class ValidationStateTest extends TestCase {
+
+    private static final int ID = 1;
+    private static final int IDREF = 2;
+
+    public ValidationStateTest(String name) {
+        super(name);
+    }
+
+    public void testUnresolvedOrder() {
+        ValidationState state = new ValidationState();
+        assertNull(state.checkIDRefID());
+        state.addIdRef("c");
+        state.addIdRef("a");
+        state.addId("x");
+        state.addIdRef("b");
+        state.addIdRef("x");
+        state.addIdRef("c");
+        state.addId("a");
+        assertTrue(state.isIdDeclared("a"));
+        assertFalse(state.isIdDeclared("b"));
+        assertFalse(state.isIdDeclared("c"));
+        assertTrue(state.isIdDeclared("x"));
+        assertEquals("[c, b]", toList(state.checkIDRefID()).toString());
+        state.addId("b");
+        state.addId("c");
+        assertNull(state.checkIDRefID());
+    }
+
+    /** Random names, in tables of several sizes, each reused after being cleared. */
+    public void testRandom() {
+        final int[] sizes = { 1, 10, 63, 64, 65, 200, 1000, 5000 };
+        ValidationState state = new ValidationState();
+        Random random = new Random(1);
+        for (int n = 0; n < 5; ++n) {
+            for (int i = 0; i < sizes.length; ++i) {
+                run(state, random, sizes[i], sizes[i] * 3, false);
+                if (random.nextBoolean()) {
+                    state.resetIDTables();
+                }
+                else {
+                    state.reset();
+                }
+            }
+        }
+    }
+
+    /** Names which all have the same hash code. */
+    public void testCollidingNames() {
+        ValidationState state = new ValidationState();
+        Random random = new Random(2);
+        for (int n = 0; n < 3; ++n) {
+            run(state, random, 512, 2000, true);
+            state.resetIDTables();
+        }
+    }
+
+    /** The table is shrunk when cleared after holding many names, and is still correct. */
+    public void testShrink() {
+        ValidationState state = new ValidationState();
+        Random random = new Random(3);
+        run(state, random, 100000, 150000, false);
+        state.resetIDTables();
+        assertNull(state.checkIDRefID());
+        assertFalse(state.isIdDeclared("n0"));
+        run(state, random, 100, 300, false);
+        state.resetIDTables();
+        run(state, random, 70000, 100000, false);
+        state.reset();
+        run(state, random, 1000, 3000, false);
+    }
+
+    //
+    // Private methods
+    //
+
+    /**
+     * Adds random IDs and IDREFs, from the given number of names, to the
+     * state and to a map, and checks that they agree along the way.
+     */
+    private static void run(ValidationState state, Random random, int names, int operations, boolean colliding) {
+        assertNull(state.checkIDRefID());
+        final Map model = new LinkedHashMap();
+        final int checkInterval = Math.max(1, operations / 8);
+        for (int i = 0; i < operations; ++i) {
+            final String name = colliding ? collidingName(random.nextInt(names)) : "n" + random.nextInt(names);
+            final boolean id = random.nextInt(3) == 0;
+            if (id) {
+                state.addId(name);
+            }
+            else {
+                state.addIdRef(name);
+            }
+            final Integer flags = (Integer) model.get(name);
+            final int value = (flags != null ? flags.intValue() : 0) | (id ? ID : IDREF);
+            model.put(name, Integer.valueOf(value));
+            if (i % checkInterval == 0) {
+                check(state, model, random, names, colliding);
+            }
+        }
+        check(state, model, random, names, colliding);
+
+        // every name is found, and referencing all of them again adds none
+        for (Iterator i = model.entrySet().iterator(); i.hasNext();) {
+            final Map.Entry entry = (Map.Entry) i.next();
+            final String name = (String) entry.getKey();
+            final int flags = ((Integer) entry.getValue()).intValue();
+            assertEquals(name, (flags & ID) != 0, state.isIdDeclared(name));
+            state.addIdRef(name);
+            entry.setValue(Integer.valueOf(flags | IDREF));
+        }
+        check(state, model, random, names, colliding);
+    }
+
+    private static void check(ValidationState state, Map model, Random random, int names, boolean colliding) {
+        final List unresolved = new ArrayList();
+        for (Iterator i = model.entrySet().iterator(); i.hasNext();) {
+            final Map.Entry entry = (Map.Entry) i.next();
+            final int flags = ((Integer) entry.getValue()).intValue();
+            if (flags == IDREF) {
+                unresolved.add(entry.getKey());
+            }
+        }
+        final Iterator actual = state.checkIDRefID();
+        if (unresolved.isEmpty()) {
+            assertNull(actual);
+        }
+        else {
+            assertNotNull(actual);
+            assertEquals(unresolved, toList(actual));
+        }
+        for (int i = 0; i < 50; ++i) {
+            final String name = colliding ? collidingName(random.nextInt(names + 10)) : "n" + random.nextInt(names + 10);
+            final Integer flags = (Integer) model.get(name);
+            assertEquals(name, flags != null && (flags.intValue() & ID) != 0, state.isIdDeclared(name));
+        }
+    }
+
+    /** Returns a name made of blocks of "Aa" and "BB", which have the same hash code. */
+    private static String collidingName(int n) {
+        StringBuffer name = new StringBuffer();
+        for (int i = 0; i < 10; ++i) {
+            name.append((n & (1 << i)) != 0 ? "Aa" : "BB");
+        }
+        return name.toString();
+    }
+
+    private static List toList(Iterator i) {
+        final List list = new ArrayList();
+        while (i.hasNext()) {
+            list.add(i.next());
+        }
+        return list;
+    }
+
+} // class ValidationStateTest
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package xni;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Vector;
+
+import org.apache.xerces.impl.Constants;
+import org.apache.xerces.impl.xs.SchemaGrammar;
+import org.apache.xerces.impl.xs.models.ContentModelCompiler;
+import org.apache.xerces.parsers.XMLGrammarPreparser;
+import org.apache.xerces.util.XMLGrammarPoolImpl;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.parser.XMLInputSource;
+
+/**
+ * This sample program compiles the content models of a set of schemas
+ * ahead of time. It preparses the schemas, and writes the Java source of
+ * a class which holds the DFAs of their content models as code. Once
+ * compiled with the application, an instance of the class is set on the
+ * parser configuration:
+ * <pre>
+ * parser.setProperty(
+ *     "http://apache.org/xml/properties/internal/validation/schema/compiled-content-models",
+ *     new MyContentModels());
+ * </pre>
+ * and the schema validator uses the generated DFAs for the content models
+ * which are identical to the ones they were generated from, instead of
+ * building and interpreting transition tables.
+ *
+ * @version $Id$
+ */
+public class SchemaCompiler {
+
+    //
+    // Constants
+    //
+
+    // property IDs:
+
+    /** Property identifier: grammar pool. */
+    public static final String GRAMMAR_POOL =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.XMLGRAMMAR_POOL_PROPERTY;
+
+    // feature ids
+
+    /** Namespaces feature id (http://xml.org/sax/features/namespaces). */
+    protected static final String NAMESPACES_FEATURE_ID = "http://xml.org/sax/features/namespaces";
+
+    /** Honour all schema locations feature id (http://apache.org/xml/features/honour-all-schemaLocations). */
+    protected static final String HONOUR_ALL_SCHEMA_LOCATIONS_ID = "http://apache.org/xml/features/honour-all-schemaLocations";
+
+    // default settings
+
+    /** Default output directory. */
+    protected static final String DEFAULT_OUTPUT_DIRECTORY = ".";
+
+    //
+    // MAIN
+    //
+
+    /** Main program entry point. */
+    public static void main(String argv[]) {
+
+        String packageName = null;
+        String className = null;
+        String directory = DEFAULT_OUTPUT_DIRECTORY;
+        Vector schemas = new Vector();
+        for (int i = 0; i < argv.length; i++) {
+            String arg = argv[i];
+            if (arg.equals("-p") && i + 1 < argv.length) {
+                packageName = argv[++i];
+            }
+            else if (arg.equals("-c") && i + 1 < argv.length) {
+                className = argv[++i];
+            }
+            else if (arg.equals("-d") && i + 1 < argv.length) {
+                directory = argv[++i];
+            }
+            else if (arg.equals("-h")) {
+                printUsage();
+                System.exit(0);
+            }
+            else if (arg.startsWith("-")) {
+                printUsage();
+                System.exit(1);
+            }
+            else {
+                schemas.addElement(arg);
+            }
+        }
+        if (className == null || schemas.size() == 0) {
+            printUsage();
+            System.exit(1);
+        }
+
+        // preparse the schemas
+        XMLGrammarPreparser preparser = new XMLGrammarPreparser();
+        XMLGrammarPoolImpl grammarPool = new XMLGrammarPoolImpl();
+        preparser.registerPreparser(XMLGrammarDescription.XML_SCHEMA, null);
+        preparser.setProperty(GRAMMAR_POOL, grammarPool);
+        preparser.setFeature(NAMESPACES_FEATURE_ID, true);
+        preparser.setFeature(HONOUR_ALL_SCHEMA_LOCATIONS_ID, true);
+        try {
+            for (int i = 0; i < schemas.size(); i++) {
+                preparser.preparseGrammar(XMLGrammarDescription.XML_SCHEMA,
+                        new XMLInputSource(null, (String) schemas.elementAt(i), null));
+            }
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+
+        // generate the content models of all the grammars preparsed
+        ContentModelCompiler compiler = new ContentModelCompiler();
+        Grammar[] grammars = grammarPool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA);
+        for (int i = 0; i < grammars.length; i++) {
+            compiler.addGrammar((SchemaGrammar) grammars[i]);
+        }
+        File dir = new File(directory);
+        if (packageName != null) {
+            dir = new File(dir, packageName.replace('.', File.separatorChar));
+        }
+        dir.mkdirs();
+        File file = new File(dir, className + ".java");
+        try {
+            Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+            try {
+                compiler.writeSource(packageName, className, out);
+            }
+            finally {
+                out.close();
+            }
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.out.println(file + ": " + compiler.getModelCount() + " content models, "
+                + compiler.getSkippedCount() + " skipped");
+
+    } // main(String[])
+
+    //
+    // Private static methods
+    //
+
+    /** Prints the usage. */
+    private static void printUsage() {
+
+        System.err.println("usage: java xni.SchemaCompiler [-p package] -c class [-d dir] uri ...");
+        System.err.println();
+
+        System.err.println("options:");
+        System.err.println("  -p package  Package of the generated class");
+        System.err.println("  -c class    Name of the generated class");
+        System.err.println("  -d dir      Source directory to write to (default "
+                + DEFAULT_OUTPUT_DIRECTORY + ")");
+        System.err.println("  -h          This help screen");
+
+    } // printUsage()
+
+} // class SchemaCompiler
@@ -286,6 +286,15 @@ public final class Constants {
     /** Tolerate duplicates feature ("internal/tolerate-duplicates"). */
     public static final String TOLERATE_DUPLICATES_FEATURE = "internal/tolerate-duplicates";
     
+    /** Parallel schema loading feature ("validation/schema/parallel-loading"). */
+    public static final String PARALLEL_SCHEMA_LOADING_FEATURE = "validation/schema/parallel-loading";
+    
+    /** Lazy schema traversal feature ("validation/schema/lazy-traversal"). */
+    public static final String LAZY_SCHEMA_TRAVERSAL_FEATURE = "validation/schema/lazy-traversal";
+    
+    /** Shared schema grammars feature ("validation/schema/shared-grammars"). */
+    public static final String SHARED_SCHEMA_GRAMMARS_FEATURE = "validation/schema/shared-grammars";
+    
     /** String interned feature ("internal/strings-interned"). */
     public static final String STRINGS_INTERNED_FEATURE = "internal/strings-interned";
     
@@ -338,6 +347,12 @@ public final class Constants {
      */
     public static final String USE_GRAMMAR_POOL_ONLY_FEATURE = "internal/validation/schema/use-grammar-pool-only";
     
+    /** Adaptive input buffer size feature ("adaptive-buffer-size"). */
+    public static final String ADAPTIVE_BUFFER_SIZE_FEATURE = "adaptive-buffer-size";
+    
+    /** Direct byte decoding feature ("scanner/direct-byte-decoding"). */
+    public static final String DIRECT_BYTE_DECODING_FEATURE = "scanner/direct-byte-decoding";
+    
     /** Internal performance related feature: 
      * false - the parser settings (features/properties) have not changed between 2 parses
      * true - the parser settings have changed between 2 parses  
@@ -377,6 +392,9 @@ public final class Constants {
     /** Input buffer size property ("input-buffer-size"). */
     public static final String BUFFER_SIZE_PROPERTY = "input-buffer-size";
     
+    /** Input read-ahead property ("input-read-ahead"). */
+    public static final String READ_AHEAD_PROPERTY = "input-read-ahead";
+    
     /** Security manager property ("security-manager"). */
     public static final String SECURITY_MANAGER_PROPERTY = "security-manager";
     
@@ -434,6 +452,12 @@ public final class Constants {
     /** Schema element declaration for the root element in a document ("internal/validation/schema/dv-factory"). */
     public static final String SCHEMA_DV_FACTORY_PROPERTY = "internal/validation/schema/dv-factory";
     
+    /** Generated content models used for schema validation ("internal/validation/schema/compiled-content-models"). */
+    public static final String SCHEMA_COMPILED_CONTENT_MODELS_PROPERTY = "internal/validation/schema/compiled-content-models";
+    
+    /** Number of identity constraint values kept in memory ("validation/schema/identity-constraint-spill-threshold"). */
+    public static final String IDC_SPILL_THRESHOLD_PROPERTY = "validation/schema/identity-constraint-spill-threshold";
+    
     // general constants
     
     /** Element PSVI is stored in augmentations using string "ELEMENT_PSVI" */
@@ -531,7 +555,12 @@ public final class Constants {
             UNPARSED_ENTITY_CHECKING_FEATURE,
             NAMESPACE_GROWTH_FEATURE,
             TOLERATE_DUPLICATES_FEATURE,
+            PARALLEL_SCHEMA_LOADING_FEATURE,
+            LAZY_SCHEMA_TRAVERSAL_FEATURE,
+            SHARED_SCHEMA_GRAMMARS_FEATURE,
             STRINGS_INTERNED_FEATURE,
+            ADAPTIVE_BUFFER_SIZE_FEATURE,
+            DIRECT_BYTE_DECODING_FEATURE,
     };
     
     /** Xerces properties. */
@@ -552,11 +581,14 @@ public final class Constants {
             SCHEMA_NONS_LOCATION,
             VALIDATION_MANAGER_PROPERTY,
             BUFFER_SIZE_PROPERTY,
+            READ_AHEAD_PROPERTY,
             SECURITY_MANAGER_PROPERTY,
             LOCALE_PROPERTY,
             ROOT_TYPE_DEFINITION_PROPERTY,
             ROOT_ELEMENT_DECLARATION_PROPERTY,
             SCHEMA_DV_FACTORY_PROPERTY,
+            SCHEMA_COMPILED_CONTENT_MODELS_PROPERTY,
+            IDC_SPILL_THRESHOLD_PROPERTY,
     };
     
     /** Empty enumeration. */
@@ -117,9 +117,11 @@ public class XML11EntityScanner
             }
             c = '\n';
         }
+        else {
+            fCurrentEntity.columnNumber++;
+        }
 
         // return character that was scanned
-        fCurrentEntity.columnNumber++;
         return c;
 
     } // scanChar():int
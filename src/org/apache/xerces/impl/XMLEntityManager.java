@@ -38,7 +38,10 @@ import java.util.Stack;
 import java.util.StringTokenizer;
 
 import org.apache.xerces.impl.io.ASCIIReader;
+import org.apache.xerces.impl.io.ByteBufferInputStream;
+import org.apache.xerces.impl.io.FeedInputStream;
 import org.apache.xerces.impl.io.Latin1Reader;
+import org.apache.xerces.impl.io.ReadAheadReader;
 import org.apache.xerces.impl.io.UCSReader;
 import org.apache.xerces.impl.io.UTF16Reader;
 import org.apache.xerces.impl.io.UTF8Reader;
@@ -107,6 +110,15 @@ public class XMLEntityManager
     /** Default internal entity buffer size (512). */
     public static final int DEFAULT_INTERNAL_BUFFER_SIZE = 512;
 
+    /** Largest buffer size chosen in adaptive mode (65536). */
+    public static final int MAX_ADAPTIVE_BUFFER_SIZE = 65536;
+
+    /** 
+     * Number of buffer loads in a single document after which the
+     * buffer size is doubled for the next document in adaptive mode.
+     */
+    public static final int ADAPTIVE_LOAD_THRESHOLD = 64;
+
     // feature identifiers
 
     /** Feature identifier: validation. */
@@ -132,6 +144,14 @@ public class XMLEntityManager
     /** Feature identifier: standard uri conformant */
     protected static final String STANDARD_URI_CONFORMANT =
     Constants.XERCES_FEATURE_PREFIX +Constants.STANDARD_URI_CONFORMANT_FEATURE;
+
+    /** Feature identifier: adaptive buffer size */
+    protected static final String ADAPTIVE_BUFFER_SIZE =
+        Constants.XERCES_FEATURE_PREFIX + Constants.ADAPTIVE_BUFFER_SIZE_FEATURE;
+
+    /** Feature identifier: direct byte decoding */
+    protected static final String DIRECT_BYTE_DECODING =
+        Constants.XERCES_FEATURE_PREFIX + Constants.DIRECT_BYTE_DECODING_FEATURE;
     
 	protected static final String PARSER_SETTINGS = 
 		Constants.XERCES_FEATURE_PREFIX + Constants.PARSER_SETTINGS;	
@@ -158,6 +178,10 @@ public class XMLEntityManager
     protected static final String BUFFER_SIZE =
         Constants.XERCES_PROPERTY_PREFIX + Constants.BUFFER_SIZE_PROPERTY;
 
+    /** property identifier: read-ahead. */
+    protected static final String READ_AHEAD =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.READ_AHEAD_PROPERTY;
+
     /** property identifier: security manager. */
     protected static final String SECURITY_MANAGER =
         Constants.XERCES_PROPERTY_PREFIX + Constants.SECURITY_MANAGER_PROPERTY;
@@ -171,7 +195,9 @@ public class XMLEntityManager
         EXTERNAL_PARAMETER_ENTITIES,
         ALLOW_JAVA_ENCODINGS,
         WARN_ON_DUPLICATE_ENTITYDEF,
-        STANDARD_URI_CONFORMANT
+        STANDARD_URI_CONFORMANT,
+        ADAPTIVE_BUFFER_SIZE,
+        DIRECT_BYTE_DECODING
     };
 
     /** Feature defaults. */
@@ -181,6 +207,8 @@ public class XMLEntityManager
         Boolean.TRUE,
         Boolean.FALSE,
         Boolean.FALSE,
+        Boolean.FALSE,
+        Boolean.FALSE,
         Boolean.FALSE
     };
 
@@ -192,6 +220,7 @@ public class XMLEntityManager
         VALIDATION_MANAGER,
         BUFFER_SIZE,
         SECURITY_MANAGER,
+        READ_AHEAD,
     };
 
     /** Property defaults. */
@@ -202,6 +231,7 @@ public class XMLEntityManager
         null,
         Integer.valueOf(DEFAULT_BUFFER_SIZE),
         null,
+        Integer.valueOf(0),
     };
 
     private static final String XMLEntity = "[xml]".intern();
@@ -266,6 +296,28 @@ public class XMLEntityManager
      */
     protected boolean fStrictURI;
 
+    /**
+     * Adaptive buffer size. When true, the size of the buffers used
+     * for external entities is chosen from the length of the document
+     * entity, if known, and is doubled for the next document whenever
+     * a document needed more than ADAPTIVE_LOAD_THRESHOLD buffer loads.
+     * <p>
+     * This feature is:
+     * http://apache.org/xml/features/adaptive-buffer-size
+     */
+    protected boolean fAdaptiveBufferSize;
+
+    /**
+     * Direct byte decoding. When true, XML 1.0 entities encoded in
+     * UTF-8 or US-ASCII are decoded by the entity scanner directly
+     * from the byte stream into the entity's character buffer once the
+     * XML or text declaration has been read, bypassing the Reader.
+     * <p>
+     * This feature is:
+     * http://apache.org/xml/features/scanner/direct-byte-decoding
+     */
+    protected boolean fDirectByteDecoding;
+
     // properties
 
     /**
@@ -301,6 +353,20 @@ public class XMLEntityManager
      */
     protected int fBufferSize = DEFAULT_BUFFER_SIZE;
 
+    /** 
+     * Buffer size specified by the input buffer size property. In
+     * adaptive mode this is the smallest buffer size used.
+     */
+    protected int fConfiguredBufferSize = DEFAULT_BUFFER_SIZE;
+
+    /**
+     * Number of buffers of an external entity which may be read and
+     * decoded ahead of the scanner on a helper thread, once the XML or
+     * text declaration has been read. Read-ahead is disabled if this is
+     * zero. We get this value from the input read-ahead property.
+     */
+    protected int fReadAhead = 0;
+
     // stores defaults for entity expansion limit if it has
     // been set on the configuration.
     protected SecurityManager fSecurityManager = null;
@@ -336,6 +402,9 @@ public class XMLEntityManager
     /** XML 1.1 entity scanner. */
     protected XMLEntityScanner fXML11EntityScanner;
 
+    /** XML 1.0 entity scanner which decodes UTF-8 directly. */
+    protected XMLEntityScanner fUTF8EntityScanner;
+
     // entity expansion limit (contains useful data if and only if
     // fSecurityManager is non-null)
     protected int fEntityExpansionLimit = 0;
@@ -378,6 +447,17 @@ public class XMLEntityManager
     /** Pool of character buffers. */
     private final CharacterBufferPool fCharacterBufferPool = new CharacterBufferPool(fBufferSize, DEFAULT_INTERNAL_BUFFER_SIZE);
 
+    // buffer statistics
+
+    /** Number of external entities started. */
+    protected long fExternalEntityCount;
+
+    /** Number of times the buffer of an external entity was loaded. */
+    protected long fBufferLoadCount;
+
+    /** Value of fBufferLoadCount when the current document was started. */
+    private long fDocumentBufferLoadCount;
+
     //
     // Constructors
     //
@@ -996,6 +1076,7 @@ public class XMLEntityManager
 
         // create reader
         InputStream stream = null;
+        long streamLength = -1;
         Reader reader = xmlInputSource.getCharacterStream();
         // First chance checking strict URI
         String expandedSystemId = expandSystemId(literalSystemId, baseSystemId, fStrictURI);
@@ -1009,6 +1090,7 @@ public class XMLEntityManager
                 URLConnection connect = location.openConnection();
                 if (!(connect instanceof HttpURLConnection)) {
                     stream = connect.getInputStream();
+                    streamLength = connect.getContentLength();
                 }
                 else {
                     boolean followRedirects = true;
@@ -1033,6 +1115,7 @@ public class XMLEntityManager
                     }
                     
                     stream = connect.getInputStream();
+                    streamLength = connect.getContentLength();
                     
                     // REVISIT: If the URLConnection has external encoding
                     // information, we should be reading it here. It's located
@@ -1049,6 +1132,22 @@ public class XMLEntityManager
                     }
                 }
             }
+            else if (stream instanceof ByteBufferInputStream) {
+                streamLength = ((ByteBufferInputStream) stream).getRemaining();
+            }
+            else if (fAdaptiveBufferSize) {
+                // exact for files and byte arrays, a lower bound otherwise
+                try {
+                    streamLength = stream.available();
+                }
+                catch (IOException e) {
+                    // ignore
+                }
+            }
+            if (fAdaptiveBufferSize && fCurrentEntity == null) {
+                adaptBufferSize(streamLength);
+            }
+
             // wrap this stream in RewindableInputStream
             RewindableInputStream rewindableStream = new RewindableInputStream(stream);
             stream = rewindableStream;
@@ -1224,6 +1323,10 @@ public class XMLEntityManager
             fEntityStack.push(fCurrentEntity);
         }
 
+        if (isExternal) {
+            ++fExternalEntityCount;
+        }
+
         // create entity
         fCurrentEntity = new ScannedEntity(name,
                 new XMLResourceIdentifierImpl(publicId, literalSystemId, baseSystemId, expandedSystemId),
@@ -1236,7 +1339,15 @@ public class XMLEntityManager
 
     // set version of scanner to use
     public void setScannerVersion(short version) {
-        if(version == Constants.XML_VERSION_1_0) {
+        if(version == Constants.XML_VERSION_1_0 && fDirectByteDecoding) {
+            if(fUTF8EntityScanner == null) {
+                fUTF8EntityScanner = new UTF8EntityScanner();
+                fUTF8EntityScanner.setBufferSize(fBufferSize);
+            }
+            fUTF8EntityScanner.reset(fSymbolTable, this, fErrorReporter);
+            fEntityScanner = fUTF8EntityScanner;
+            fEntityScanner.setCurrentEntity(fCurrentEntity);
+        } else if(version == Constants.XML_VERSION_1_0) {
             if(fXML10EntityScanner == null) {
                 fXML10EntityScanner = new XMLEntityScanner();
             }
@@ -1266,9 +1377,71 @@ public class XMLEntityManager
         return fEntityScanner;
     } // getEntityScanner():XMLEntityScanner
 
+    /** Returns the entity resolver, or null if entities are resolved by default. */
+    public XMLEntityResolver getEntityResolver() {
+        return fEntityResolver;
+    } // getEntityResolver():XMLEntityResolver
+
+    /** 
+     * Returns the size of the character buffers currently used
+     * for external entities.
+     */
+    public int getBufferSize() {
+        return fBufferSize;
+    } // getBufferSize():int
+
+    /** Returns the number of external entities started. */
+    public long getExternalEntityCount() {
+        return fExternalEntityCount;
+    } // getExternalEntityCount():long
+
+    /** 
+     * Returns the number of times the buffer of an external entity
+     * was loaded with more characters.
+     */
+    public long getBufferLoadCount() {
+        return fBufferLoadCount;
+    } // getBufferLoadCount():long
+
+    /** 
+     * Returns the number of character buffers for external entities
+     * which had to be allocated because none was available in the pool.
+     */
+    public long getBufferAllocationCount() {
+        return fCharacterBufferPool.fExternalAllocationCount;
+    } // getBufferAllocationCount():long
+
+    /** Resets the buffer statistics. */
+    public void resetBufferStatistics() {
+        fExternalEntityCount = 0;
+        fBufferLoadCount = 0;
+        fDocumentBufferLoadCount = 0;
+        fCharacterBufferPool.fExternalAllocationCount = 0;
+    } // resetBufferStatistics()
+
     // A stack containing all the open readers
     protected Stack fReaderStack = new Stack();
 
+    /**
+     * Starts reading the given entity ahead of the scanner. The
+     * entity's reader is replaced, both in the entity and on the
+     * reader stack, by one which reads on a helper thread.
+     */
+    void startReadAhead(ScannedEntity entity) {
+        entity.readAhead = true;
+        // input fed by a push parser must be read on the parser's thread
+        if (entity.stream instanceof RewindableInputStream &&
+            ((RewindableInputStream) entity.stream).fInputStream instanceof FeedInputStream) {
+            return;
+        }
+        final Reader reader = new ReadAheadReader(entity.reader, fBufferSize, fReadAhead);
+        final int index = fReaderStack.lastIndexOf(entity.reader);
+        if (index != -1) {
+            fReaderStack.set(index, reader);
+        }
+        entity.reader = reader;
+    } // startReadAhead(ScannedEntity)
+
     /**
      * Close all opened InputStreams and Readers opened by this parser.
      */
@@ -1345,6 +1518,20 @@ public class XMLEntityManager
             fStrictURI = false;
         }
 
+        try {
+            fAdaptiveBufferSize = componentManager.getFeature(ADAPTIVE_BUFFER_SIZE);
+        }
+        catch (XMLConfigurationException e) {
+            fAdaptiveBufferSize = false;
+        }
+
+        try {
+            fDirectByteDecoding = componentManager.getFeature(DIRECT_BYTE_DECODING);
+        }
+        catch (XMLConfigurationException e) {
+            fDirectByteDecoding = false;
+        }
+
         // xerces properties
         fSymbolTable = (SymbolTable)componentManager.getProperty(SYMBOL_TABLE);
         fErrorReporter = (XMLErrorReporter)componentManager.getProperty(ERROR_REPORTER);
@@ -1386,6 +1573,18 @@ public class XMLEntityManager
         fEntityExpansionCount = 0;
 
         fCurrentEntity = null;
+
+        // grow the buffers if the last document needed many loads
+        if (fAdaptiveBufferSize) {
+            if (fBufferLoadCount - fDocumentBufferLoadCount > ADAPTIVE_LOAD_THRESHOLD) {
+                adaptBufferSize((long) fBufferSize << 1);
+            }
+        }
+        else if (fBufferSize != fConfiguredBufferSize) {
+            setBufferSize(fConfiguredBufferSize);
+        }
+        fDocumentBufferLoadCount = fBufferLoadCount;
+
         // reset scanner
         if(fXML10EntityScanner != null){ 
             fXML10EntityScanner.reset(fSymbolTable, this, fErrorReporter);
@@ -1393,6 +1592,9 @@ public class XMLEntityManager
         if(fXML11EntityScanner != null) {
             fXML11EntityScanner.reset(fSymbolTable, this, fErrorReporter);
         }
+        if(fUTF8EntityScanner != null) {
+            fUTF8EntityScanner.reset(fSymbolTable, this, fErrorReporter);
+        }
 
         // DEBUG
         if (DEBUG_ENTITIES) {
@@ -1461,6 +1663,14 @@ public class XMLEntityManager
                 featureId.endsWith(Constants.ALLOW_JAVA_ENCODINGS_FEATURE)) {
                 fAllowJavaEncodings = state;
             }
+            if (suffixLength == Constants.ADAPTIVE_BUFFER_SIZE_FEATURE.length() && 
+                featureId.endsWith(Constants.ADAPTIVE_BUFFER_SIZE_FEATURE)) {
+                fAdaptiveBufferSize = state;
+            }
+            if (suffixLength == Constants.DIRECT_BYTE_DECODING_FEATURE.length() && 
+                featureId.endsWith(Constants.DIRECT_BYTE_DECODING_FEATURE)) {
+                fDirectByteDecoding = state;
+            }
         }
 
     } // setFeature(String,boolean)
@@ -1513,11 +1723,8 @@ public class XMLEntityManager
                 Integer bufferSize = (Integer)value;
                 if (bufferSize != null &&
                     bufferSize.intValue() > DEFAULT_XMLDECL_BUFFER_SIZE) {
-                    fBufferSize = bufferSize.intValue();
-                    fEntityScanner.setBufferSize(fBufferSize);
-                    fSmallByteBufferPool.setBufferSize(fBufferSize);
-                    fLargeByteBufferPool.setBufferSize(fBufferSize << 1);
-                    fCharacterBufferPool.setExternalBufferSize(fBufferSize);
+                    fConfiguredBufferSize = bufferSize.intValue();
+                    setBufferSize(fConfiguredBufferSize);
                 }
             }
             if (suffixLength == Constants.SECURITY_MANAGER_PROPERTY.length() && 
@@ -1525,6 +1732,11 @@ public class XMLEntityManager
                 fSecurityManager = (SecurityManager)value; 
                 fEntityExpansionLimit = (fSecurityManager != null)?fSecurityManager.getEntityExpansionLimit():0;
             }
+            if (suffixLength == Constants.READ_AHEAD_PROPERTY.length() && 
+                propertyId.endsWith(Constants.READ_AHEAD_PROPERTY)) {
+                Integer readAhead = (Integer)value;
+                fReadAhead = (readAhead != null && readAhead.intValue() > 0) ? readAhead.intValue() : 0;
+            }
         }
 
     } // setProperty(String,Object)
@@ -1983,8 +2195,11 @@ public class XMLEntityManager
         // Release the character buffer back to the pool for reuse
         fCharacterBufferPool.returnBuffer(fCurrentEntity.fCharacterBuffer);
         
-        // Release the byte buffer back to the pool for reuse
-        if (fCurrentEntity.fByteBuffer != null) {
+        // Release the byte buffer back to the pool for reuse, unless
+        // a read-ahead thread is still blocked reading into it
+        if (fCurrentEntity.fByteBuffer != null &&
+            !(fCurrentEntity.reader instanceof ReadAheadReader &&
+              !((ReadAheadReader) fCurrentEntity.reader).isStopped())) {
             if (fCurrentEntity.fByteBuffer.length == fBufferSize) {
                 fSmallByteBufferPool.returnBuffer(fCurrentEntity.fByteBuffer);
             }
@@ -2005,6 +2220,46 @@ public class XMLEntityManager
 
     } // endEntity()
     
+    /**
+     * Sets the size of the buffers used for external entities and
+     * dumps the buffers currently pooled.
+     */
+    private void setBufferSize(int bufferSize) {
+        fBufferSize = bufferSize;
+        if (fXML10EntityScanner != null) {
+            fXML10EntityScanner.setBufferSize(bufferSize);
+        }
+        if (fXML11EntityScanner != null) {
+            fXML11EntityScanner.setBufferSize(bufferSize);
+        }
+        if (fUTF8EntityScanner != null) {
+            fUTF8EntityScanner.setBufferSize(bufferSize);
+        }
+        fSmallByteBufferPool.setBufferSize(bufferSize);
+        fLargeByteBufferPool.setBufferSize(bufferSize << 1);
+        fCharacterBufferPool.setExternalBufferSize(bufferSize);
+    } // setBufferSize(int)
+
+    /**
+     * Grows the buffers used for external entities to the smallest 
+     * power of two multiple of the configured size which holds the
+     * given number of bytes, up to MAX_ADAPTIVE_BUFFER_SIZE. Buffers
+     * are never shrunk in adaptive mode so that the pooled buffers 
+     * can be reused by every subsequent parse.
+     */
+    private void adaptBufferSize(long length) {
+        int bufferSize = fBufferSize;
+        while (bufferSize < length && bufferSize < MAX_ADAPTIVE_BUFFER_SIZE) {
+            bufferSize <<= 1;
+        }
+        if (bufferSize > MAX_ADAPTIVE_BUFFER_SIZE) {
+            bufferSize = MAX_ADAPTIVE_BUFFER_SIZE;
+        }
+        if (bufferSize > fBufferSize) {
+            setBufferSize(bufferSize);
+        }
+    } // adaptBufferSize(long)
+
     /**
      * Returns the IANA encoding name that is auto-detected from
      * the bytes specified, with the endian-ness of that encoding where appropriate.
@@ -2712,6 +2967,20 @@ public class XMLEntityManager
         
         /** Byte buffer. */
         private byte [] fByteBuffer;
+
+        // direct decoding
+
+        /** True if characters are being decoded directly from the stream. */
+        boolean directDecoding;
+
+        /** Number of bytes of a malformed sequence kept at the start of the byte buffer. */
+        int byteCount;
+
+        /** Low surrogate which did not fit in the character buffer, or -1. */
+        int surrogate = -1;
+
+        /** True if the reader has been replaced by a read-ahead reader. */
+        boolean readAhead;
         
         //
         // Constructors
@@ -2749,6 +3018,23 @@ public class XMLEntityManager
             return false;
         } // isUnparsed():boolean
 
+        /** Returns the byte buffer of the reader, if any. */
+        final byte[] getByteBuffer() {
+            return fByteBuffer;
+        }
+
+        /**
+         * Returns the buffer stream this entity is read from, if it is
+         * one and the bytes buffered while reading the XML or text
+         * declaration have all been read.
+         */
+        final ByteBufferInputStream getByteBufferInputStream() {
+            if (stream instanceof RewindableInputStream) {
+                return ((RewindableInputStream) stream).getByteBufferInputStream();
+            }
+            return null;
+        }
+
         public void setReader(InputStream stream, String encoding, Boolean isBigEndian) throws IOException {
             fTempByteBuffer = fByteBuffer;
             reader = createReader(stream, encoding, isBigEndian);
@@ -2981,6 +3267,10 @@ public class XMLEntityManager
         
         /** Returns byte buffer to pool. **/
         public void returnBuffer(byte[] buffer) {
+            // drop buffers allocated before the size was changed
+            if (buffer.length != fBufferSize) {
+                return;
+            }
             if (fDepth < fByteBufferPool.length) {
                 fByteBufferPool[fDepth++] = buffer;
             }
@@ -3038,6 +3328,9 @@ public class XMLEntityManager
         private int fInternalTop;
         private int fExternalTop;
 
+        /** Number of external buffers allocated. */
+        long fExternalAllocationCount;
+
         public CharacterBufferPool(int externalBufferSize, int internalBufferSize) {
             this(DEFAULT_POOL_SIZE, externalBufferSize, internalBufferSize);
         }
@@ -3064,6 +3357,7 @@ public class XMLEntityManager
                     return (CharacterBuffer)fExternalBufferPool[fExternalTop--];
                 }
                 else {
+                    ++fExternalAllocationCount;
                     return new CharacterBuffer(true, fExternalBufferSize);
                 }
             }
@@ -3080,7 +3374,9 @@ public class XMLEntityManager
         /** Returns buffer to pool. **/
         public void returnBuffer(CharacterBuffer buffer) {
             if (buffer.isExternal) {
-                if (fExternalTop < fExternalBufferPool.length - 1) {
+                // drop buffers allocated before the size was changed
+                if (fExternalTop < fExternalBufferPool.length - 1 &&
+                    buffer.ch.length == fExternalBufferSize) {
                     fExternalBufferPool[++fExternalTop] = buffer;
                 }
             }
@@ -3143,6 +3439,18 @@ public class XMLEntityManager
             fStartOffset = offset;
         }
 
+        /**
+         * Returns the stream read from if it is a buffer stream and no
+         * buffered bytes remain to be read; otherwise null.
+         */
+        public ByteBufferInputStream getByteBufferInputStream() {
+            if (fOffset == fLength && fEndOffset == -1 &&
+                fInputStream instanceof ByteBufferInputStream) {
+                return (ByteBufferInputStream) fInputStream;
+            }
+            return null;
+        }
+
         public void rewind() {
             fOffset = fStartOffset;
         }
@@ -21,6 +21,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.util.Locale;
 
+import org.apache.xerces.impl.io.InputPendingException;
 import org.apache.xerces.impl.io.UCSReader;
 import org.apache.xerces.impl.msg.XMLMessageFormatter;
 import org.apache.xerces.util.SymbolTable;
@@ -265,6 +266,9 @@ public class XMLEntityScanner implements XMLLocator {
                 c = '\n';
             }
         }
+        else {
+            fCurrentEntity.columnNumber++;
+        }
 
         // return character that was scanned
         if (DEBUG_BUFFER) {
@@ -272,7 +276,6 @@ public class XMLEntityScanner implements XMLLocator {
             XMLEntityManager.print(fCurrentEntity);
             System.out.println(" -> '"+(char)c+"'");
         }
-        fCurrentEntity.columnNumber++;
         return c;
 
     } // scanChar():int
@@ -748,16 +751,70 @@ public class XMLEntityScanner implements XMLLocator {
             }
         }
 
-        // inner loop, scanning for content
-        while (fCurrentEntity.position < fCurrentEntity.count) {
-            c = fCurrentEntity.ch[fCurrentEntity.position++];
-            if (!XMLChar.isContent(c)) {
-                fCurrentEntity.position--;
+        // inner loop, scanning for content; newlines within the
+        // content are normalized in place so that the run does not
+        // end at each line
+        int out = fCurrentEntity.position;
+        int lineStart = newlines > 0 ? out : -1;
+        while (true) {
+            final char[] ch = fCurrentEntity.ch;
+            final int count = fCurrentEntity.count;
+            int pos = fCurrentEntity.position;
+            while (pos < count) {
+                final int start = pos;
+                while (pos < count && XMLChar.isContent(ch[pos])) {
+                    pos++;
+                }
+                if (out != start) {
+                    System.arraycopy(ch, start, ch, out, pos - start);
+                }
+                out += pos - start;
+                if (pos == count) {
+                    break;
+                }
+                c = ch[pos];
+                if (c == '\n') {
+                    pos++;
+                }
+                else if (c == '\r' && external && pos < count - 1) {
+                    if (ch[++pos] == '\n') {
+                        pos++;
+                    }
+                }
+                else {
+                    break;
+                }
+                ch[out++] = '\n';
+                fCurrentEntity.lineNumber++;
+                lineStart = out;
+            }
+            fCurrentEntity.position = pos;
+            if (pos < count || offset == 0) {
+                break;
+            }
+            // move the content to the start of the buffer and fill
+            // the rest of it, so that a larger run can be returned
+            int length = out - offset;
+            System.arraycopy(ch, offset, ch, 0, length);
+            if (lineStart != -1) {
+                lineStart -= offset;
+            }
+            offset = 0;
+            out = length;
+            fCurrentEntity.baseCharOffset += (fCurrentEntity.position - fCurrentEntity.startPosition);
+            fCurrentEntity.position = length;
+            fCurrentEntity.startPosition = length;
+            if (load(length, false)) {
                 break;
             }
         }
-        int length = fCurrentEntity.position - offset;
-        fCurrentEntity.columnNumber += length - newlines;
+        int length = out - offset;
+        if (lineStart != -1) {
+            fCurrentEntity.columnNumber = 1 + out - lineStart;
+        }
+        else {
+            fCurrentEntity.columnNumber += length;
+        }
         content.setValues(fCurrentEntity.ch, offset, length);
 
         // return next character
@@ -903,19 +960,61 @@ public class XMLEntityScanner implements XMLLocator {
             }
         }
 
-        // scan literal value
-        while (fCurrentEntity.position < fCurrentEntity.count) {
-            c = fCurrentEntity.ch[fCurrentEntity.position++];
-            if ((c == quote &&
-                 (!fCurrentEntity.literal || external))
-                || c == '%' || !(XMLChar.isContent(c) || c == '\r' && !external)) {
-                fCurrentEntity.position--;
+        // scan literal value; newlines within the value are
+        // normalized in place so that the run does not end at
+        // each line
+        final char[] ch = fCurrentEntity.ch;
+        final int count = fCurrentEntity.count;
+        final boolean stopAtQuote = !fCurrentEntity.literal || external;
+        int pos = fCurrentEntity.position;
+        int out = pos;
+        int lineStart = newlines > 0 ? out : -1;
+        while (pos < count) {
+            final int start = pos;
+            while (pos < count) {
+                c = ch[pos];
+                if (!XMLChar.isContent(c) || c == '%' || (c == quote && stopAtQuote)) {
+                    break;
+                }
+                pos++;
+            }
+            if (out != start) {
+                System.arraycopy(ch, start, ch, out, pos - start);
+            }
+            out += pos - start;
+            if (pos == count) {
                 break;
             }
+            c = ch[pos];
+            if (c == '\r' && !external) {
+                ch[out++] = '\r';
+                pos++;
+                continue;
+            }
+            if (c == '\n') {
+                pos++;
+            }
+            else if (c == '\r' && pos < count - 1) {
+                if (ch[++pos] == '\n') {
+                    pos++;
+                }
+            }
+            else {
+                break;
+            }
+            ch[out++] = '\n';
+            fCurrentEntity.lineNumber++;
+            lineStart = out;
         }
-        int length = fCurrentEntity.position - offset;
-        fCurrentEntity.columnNumber += length - newlines;
-        content.setValues(fCurrentEntity.ch, offset, length);
+        fCurrentEntity.position = pos;
+        int length = out - offset;
+        if (lineStart != -1) {
+            fCurrentEntity.columnNumber = 1 + out - lineStart;
+        }
+        else {
+            fCurrentEntity.columnNumber += length;
+        }
+        content.setValues(ch, offset, length);
 
         // return next character
         if (fCurrentEntity.position != fCurrentEntity.count) {
@@ -1736,13 +1835,39 @@ public class XMLEntityScanner implements XMLLocator {
         }
 
         fCurrentEntity.baseCharOffset += (fCurrentEntity.position - fCurrentEntity.startPosition);
+        // the read may fail without consuming anything, in which
+        // case the load will be repeated from the same position
+        fCurrentEntity.startPosition = fCurrentEntity.position;
         // read characters
         int length = fCurrentEntity.ch.length - offset;
         if (!fCurrentEntity.mayReadChunks && length > XMLEntityManager.DEFAULT_XMLDECL_BUFFER_SIZE) {
             length = XMLEntityManager.DEFAULT_XMLDECL_BUFFER_SIZE;
         }
         if (DEBUG_BUFFER) System.out.println("  length to try to read: "+length);
-        int count = fCurrentEntity.reader.read(fCurrentEntity.ch, offset, length);
+        if (fCurrentEntity.isExternal) {
+            ++fEntityManager.fBufferLoadCount;
+            if (fEntityManager.fReadAhead > 0 && fCurrentEntity.mayReadChunks &&
+                !fCurrentEntity.readAhead) {
+                fEntityManager.startReadAhead(fCurrentEntity);
+            }
+        }
+        int count;
+        try {
+            count = readCharacters(fCurrentEntity.ch, offset, length);
+        }
+        catch (InputPendingException e) {
+            // the input is being fed to the parser and no more of it is
+            // available yet; the characters carried over are returned as
+            // though the end of the entity had been reached, so that the
+            // caller can finish with them before the parse is suspended
+            if (offset == 0) {
+                throw e;
+            }
+            fCurrentEntity.count = offset;
+            fCurrentEntity.position = offset;
+            fCurrentEntity.startPosition = offset;
+            return true;
+        }
         if (DEBUG_BUFFER) System.out.println("  length actually read:  "+count);
 
         // reset count and position
@@ -1781,6 +1906,22 @@ public class XMLEntityScanner implements XMLLocator {
         return entityChanged;
 
     } // load(int, boolean):boolean
+
+    /**
+     * Reads characters from the current entity into the given
+     * character buffer.
+     * 
+     * @param ch     The destination buffer.
+     * @param offset The offset at which to start storing characters.
+     * @param length The maximum number of characters to read.
+     * 
+     * @return Returns the number of characters read or -1 if the
+     *         end of the entity has been reached.
+     */
+    protected int readCharacters(char[] ch, int offset, int length)
+        throws IOException {
+        return fCurrentEntity.reader.read(ch, offset, length);
+    } // readCharacters(char[],int,int):int
     
     /**
      * This method is invoked to increase the size of the current entity's
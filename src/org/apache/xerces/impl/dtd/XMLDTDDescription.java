@@ -36,6 +36,8 @@ import org.apache.xerces.xni.parser.XMLInputSource;
 public class XMLDTDDescription extends XMLResourceIdentifierImpl
         implements org.apache.xerces.xni.grammars.XMLDTDDescription {
 
+    private static final long serialVersionUID = -779537593209760317L;
+
     // Data
 
     // pieces of information needed to make this usable as a Grammar key
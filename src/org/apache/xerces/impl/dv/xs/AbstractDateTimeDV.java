@@ -17,6 +17,7 @@
 
 package org.apache.xerces.impl.dv.xs;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 
 import javax.xml.datatype.DatatypeFactory;
@@ -47,6 +48,8 @@ import org.apache.xerces.xs.datatypes.XSDateTime;
  * @version $Id$
  */
 public abstract class AbstractDateTimeDV extends TypeValidator {
+
+	private static final long serialVersionUID = 1473713246595816261L;
 	
 	//debugging
 	private static final boolean DEBUG=false;
@@ -920,7 +923,10 @@ public abstract class AbstractDateTimeDV extends TypeValidator {
 	/**
 	 * Represents date time data
 	 */
-	static final class DateTimeData implements XSDateTime {
+	static final class DateTimeData implements XSDateTime, Serializable {
+
+		private static final long serialVersionUID = -7007189141284809029L;
+
 		int year, month, day, hour, minute, utc;
 		double second;
 		int timezoneHr, timezoneMin;
@@ -963,6 +969,18 @@ public abstract class AbstractDateTimeDV extends TypeValidator {
 				return false;
 			return type.compareDates(this, (DateTimeData)obj, true)==0;
 		}
+		public int hashCode() {
+			// equal durations have the same number of months; other
+			// equal values have the same fields, from the day onwards
+			if (type instanceof DurationDV) {
+				return year * 12 + month;
+			}
+			int code = day;
+			code = code * 31 + hour;
+			code = code * 31 + minute;
+			code = code * 31 + (int) second;
+			return code * 31 + utc;
+		}
 		public synchronized String toString() {
 			if (canonical == null) {
 				canonical = type.dateToString(this);
@@ -30,6 +30,8 @@ import org.apache.xerces.impl.dv.ValidationContext;
  * @version $Id$
  */
 class AnyAtomicDV extends TypeValidator {
+
+    private static final long serialVersionUID = -7272670569017746102L;
     
     public short getAllowedFacets() {
         return 0;
@@ -32,6 +32,8 @@ import org.apache.xerces.impl.dv.ValidationContext;
  */
 public class AnySimpleDV extends TypeValidator {
 
+    private static final long serialVersionUID = 47136100291616900L;
+
     public short getAllowedFacets() {
         // anySimpleType doesn't allow any facet, not even whiteSpace
         return 0;
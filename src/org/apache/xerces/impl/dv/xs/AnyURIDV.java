@@ -33,6 +33,8 @@ import org.apache.xerces.util.URI;
  */
 public class AnyURIDV extends TypeValidator {
 
+    private static final long serialVersionUID = 3320659204426668963L;
+
     private static final URI BASE_URI;
     static {
         URI uri = null;
@@ -34,6 +34,8 @@ import org.apache.xerces.impl.dv.util.ByteListImpl;
  */
 public class Base64BinaryDV extends TypeValidator {
 
+    private static final long serialVersionUID = 8544791371815326295L;
+
     public short getAllowedFacets(){
         return (XSSimpleTypeDecl.FACET_LENGTH | XSSimpleTypeDecl.FACET_MINLENGTH | XSSimpleTypeDecl.FACET_MAXLENGTH | XSSimpleTypeDecl.FACET_PATTERN | XSSimpleTypeDecl.FACET_ENUMERATION | XSSimpleTypeDecl.FACET_WHITESPACE );
     }
@@ -56,6 +58,8 @@ public class Base64BinaryDV extends TypeValidator {
      */
     private static final class XBase64 extends ByteListImpl {
 
+        private static final long serialVersionUID = -8735852076922340188L;
+
         public XBase64(byte[] data) {
             super(data);
         }
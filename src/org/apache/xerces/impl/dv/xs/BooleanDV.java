@@ -32,6 +32,8 @@ import org.apache.xerces.impl.dv.ValidationContext;
  */
 public class BooleanDV extends TypeValidator {
 
+    private static final long serialVersionUID = -583307890082034696L;
+
     public short getAllowedFacets() {
         return (XSSimpleTypeDecl.FACET_PATTERN | XSSimpleTypeDecl.FACET_WHITESPACE);
     }
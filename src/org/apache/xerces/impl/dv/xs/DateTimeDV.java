@@ -37,6 +37,8 @@ import org.apache.xerces.impl.dv.ValidationContext;
  */
 public class DateTimeDV extends AbstractDateTimeDV {
 
+    private static final long serialVersionUID = -2661093852131459783L;
+
     public Object getActualValue(String content, ValidationContext context) throws InvalidDatatypeValueException {
         try{
             return parse(content);
@@ -34,6 +34,8 @@ import org.apache.xerces.impl.dv.ValidationContext;
  */
 public class DayDV extends AbstractDateTimeDV {
 
+    private static final long serialVersionUID = 66714755251362544L;
+
     //size without time zone: ---09
     private final static int DAY_SIZE=5;
 
@@ -17,6 +17,7 @@
 
 package org.apache.xerces.impl.dv.xs;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
@@ -36,6 +37,8 @@ import org.apache.xerces.xs.datatypes.XSDecimal;
  */
 public class DecimalDV extends TypeValidator {
 
+    private static final long serialVersionUID = -2930561527373249067L;
+
     public final short getAllowedFacets(){
         return ( XSSimpleTypeDecl.FACET_PATTERN | XSSimpleTypeDecl.FACET_WHITESPACE | XSSimpleTypeDecl.FACET_ENUMERATION |XSSimpleTypeDecl.FACET_MAXINCLUSIVE |XSSimpleTypeDecl.FACET_MININCLUSIVE | XSSimpleTypeDecl.FACET_MAXEXCLUSIVE  | XSSimpleTypeDecl.FACET_MINEXCLUSIVE | XSSimpleTypeDecl.FACET_TOTALDIGITS | XSSimpleTypeDecl.FACET_FRACTIONDIGITS);
     }
@@ -61,7 +64,10 @@ public class DecimalDV extends TypeValidator {
     }
     
     // Avoid using the heavy-weight java.math.BigDecimal
-    static class XDecimal implements XSDecimal {
+    static class XDecimal implements XSDecimal, Serializable {
+
+        private static final long serialVersionUID = 313736876748837026L;
+
         // sign: 0 for vlaue 0; 1 for positive values; -1 for negative values
         int sign = 1;
         // total digits. >= 1
@@ -230,6 +236,11 @@ public class DecimalDV extends TypeValidator {
             return intDigits == oval.intDigits && fracDigits == oval.fracDigits &&
                    ivalue.equals(oval.ivalue) && fvalue.equals(oval.fvalue);
         }
+        public int hashCode() {
+            if (sign == 0)
+                return 0;
+            return (sign * 31 + ivalue.hashCode()) * 31 + fvalue.hashCode();
+        }
         public int compareTo(XDecimal val) {
             if (sign != val.sign)
                 return sign > val.sign ? 1 : -1;
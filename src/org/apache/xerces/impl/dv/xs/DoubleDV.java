@@ -17,6 +17,8 @@
 
 package org.apache.xerces.impl.dv.xs;
 
+import java.io.Serializable;
+
 import org.apache.xerces.impl.dv.InvalidDatatypeValueException;
 import org.apache.xerces.impl.dv.ValidationContext;
 import org.apache.xerces.xs.datatypes.XSDouble;
@@ -33,6 +35,8 @@ import org.apache.xerces.xs.datatypes.XSDouble;
  */
 public class DoubleDV extends TypeValidator {
 
+    private static final long serialVersionUID = -7828992741347343985L;
+
     public short getAllowedFacets(){
         return ( XSSimpleTypeDecl.FACET_PATTERN | XSSimpleTypeDecl.FACET_WHITESPACE | XSSimpleTypeDecl.FACET_ENUMERATION |XSSimpleTypeDecl.FACET_MAXINCLUSIVE |XSSimpleTypeDecl.FACET_MININCLUSIVE | XSSimpleTypeDecl.FACET_MAXEXCLUSIVE  | XSSimpleTypeDecl.FACET_MINEXCLUSIVE  );
     }//getAllowedFacets()
@@ -77,7 +81,10 @@ public class DoubleDV extends TypeValidator {
         return true;
     }
 
-    private static final class XDouble implements XSDouble {
+    private static final class XDouble implements XSDouble, Serializable {
+
+        private static final long serialVersionUID = -1248694174769723978L;
+
         private final double value;
         public XDouble(String s) throws NumberFormatException {
             if (isPossibleFP(s)) {
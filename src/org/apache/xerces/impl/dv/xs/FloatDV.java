@@ -17,6 +17,8 @@
 
 package org.apache.xerces.impl.dv.xs;
 
+import java.io.Serializable;
+
 import org.apache.xerces.impl.dv.InvalidDatatypeValueException;
 import org.apache.xerces.impl.dv.ValidationContext;
 import org.apache.xerces.xs.datatypes.XSFloat;
@@ -33,6 +35,8 @@ import org.apache.xerces.xs.datatypes.XSFloat;
  */
 public class FloatDV extends TypeValidator {
 
+    private static final long serialVersionUID = 126779998045528104L;
+
     public short getAllowedFacets(){
         return ( XSSimpleTypeDecl.FACET_PATTERN | XSSimpleTypeDecl.FACET_WHITESPACE | XSSimpleTypeDecl.FACET_ENUMERATION |XSSimpleTypeDecl.FACET_MAXINCLUSIVE |XSSimpleTypeDecl.FACET_MININCLUSIVE | XSSimpleTypeDecl.FACET_MAXEXCLUSIVE  | XSSimpleTypeDecl.FACET_MINEXCLUSIVE  );
     }//getAllowedFacets()
@@ -60,7 +64,9 @@ public class FloatDV extends TypeValidator {
         return false;
     }//isIdentical()
 
-    private static final class XFloat implements XSFloat {
+    private static final class XFloat implements XSFloat, Serializable {
+
+        private static final long serialVersionUID = 4105826462426308026L;
 
         private final float value;
         public XFloat(String s) throws NumberFormatException {
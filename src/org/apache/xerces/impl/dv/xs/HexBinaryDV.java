@@ -34,6 +34,8 @@ import org.apache.xerces.impl.dv.util.HexBin;
  */
 public class HexBinaryDV extends TypeValidator {
 
+    private static final long serialVersionUID = -8506068500439414183L;
+
     public short getAllowedFacets(){
         return (XSSimpleTypeDecl.FACET_LENGTH | XSSimpleTypeDecl.FACET_MINLENGTH | XSSimpleTypeDecl.FACET_MAXLENGTH | XSSimpleTypeDecl.FACET_PATTERN | XSSimpleTypeDecl.FACET_ENUMERATION | XSSimpleTypeDecl.FACET_WHITESPACE );
     }
@@ -53,6 +55,8 @@ public class HexBinaryDV extends TypeValidator {
 
     private static final class XHex extends ByteListImpl {
 
+        private static final long serialVersionUID = -187800593266817059L;
+
         public XHex(byte[] data) {
             super(data);
         }
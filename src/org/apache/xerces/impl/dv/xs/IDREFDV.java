@@ -33,6 +33,8 @@ import org.apache.xerces.util.XMLChar;
  */
 public class IDREFDV extends TypeValidator{
 
+    private static final long serialVersionUID = -550911380622262335L;
+
     public short getAllowedFacets(){
         return (XSSimpleTypeDecl.FACET_LENGTH | XSSimpleTypeDecl.FACET_MINLENGTH | XSSimpleTypeDecl.FACET_MAXLENGTH | XSSimpleTypeDecl.FACET_PATTERN | XSSimpleTypeDecl.FACET_ENUMERATION | XSSimpleTypeDecl.FACET_WHITESPACE );
     }
@@ -17,6 +17,7 @@
 
 package org.apache.xerces.impl.dv.xs;
 
+import java.io.Serializable;
 import java.util.AbstractList;
 
 import org.apache.xerces.impl.dv.InvalidDatatypeValueException;
@@ -35,6 +36,8 @@ import org.apache.xerces.xs.datatypes.ObjectList;
  */
 public class ListDV extends TypeValidator{
 
+    private static final long serialVersionUID = 6163903769264375133L;
+
     public short getAllowedFacets(){
           return (XSSimpleTypeDecl.FACET_LENGTH | XSSimpleTypeDecl.FACET_MINLENGTH | XSSimpleTypeDecl.FACET_MAXLENGTH | XSSimpleTypeDecl.FACET_PATTERN | XSSimpleTypeDecl.FACET_ENUMERATION | XSSimpleTypeDecl.FACET_WHITESPACE );
     }
@@ -50,7 +53,10 @@ public class ListDV extends TypeValidator{
         return ((ListData)value).getLength();
     }
 
-    final static class ListData extends AbstractList implements ObjectList {
+    final static class ListData extends AbstractList implements ObjectList, Serializable {
+
+        private static final long serialVersionUID = -6445571538632006387L;
+
         final Object[] data;
         private String canonical;
         public ListData(Object[] data) {
@@ -36,6 +36,8 @@ import org.apache.xerces.impl.dv.ValidationContext;
 
 public class MonthDV extends AbstractDateTimeDV {
 
+    private static final long serialVersionUID = -7580153092230719265L;
+
     /**
      * Convert a string to a compiled form
      *
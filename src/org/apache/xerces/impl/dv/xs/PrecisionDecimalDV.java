@@ -17,6 +17,8 @@
 
 package org.apache.xerces.impl.dv.xs;
 
+import java.io.Serializable;
+
 import org.apache.xerces.impl.dv.InvalidDatatypeValueException;
 import org.apache.xerces.impl.dv.ValidationContext;
 
@@ -30,8 +32,12 @@ import org.apache.xerces.impl.dv.ValidationContext;
  * @version $Id$
  */
 class PrecisionDecimalDV extends TypeValidator {
+
+    private static final long serialVersionUID = -8048953122046069174L;
     
-    static class XPrecisionDecimal {
+    static class XPrecisionDecimal implements Serializable {
+
+        private static final long serialVersionUID = 7508991422980041834L;
         
         // sign: 0 for absent; 1 for positive values; -1 for negative values (except in case of INF, -INF)
         int sign = 1;
@@ -155,6 +161,12 @@ class PrecisionDecimalDV extends TypeValidator {
             return this.compareTo(oval) == EQUAL;
         }
         
+        public int hashCode() {
+            // equal values have the same position of their most significant
+            // digit, whatever their exponents
+            return sign * 31 + intDigits + pvalue;
+        }
+        
         /**
          * @return
          */
@@ -35,6 +35,8 @@ import org.apache.xerces.xs.datatypes.XSQName;
  */
 public class QNameDV extends TypeValidator {
 
+    private static final long serialVersionUID = -5263478327998872380L;
+
     private static final String EMPTY_STRING = "".intern();
 
     public short getAllowedFacets() {
@@ -82,6 +84,9 @@ public class QNameDV extends TypeValidator {
      * represent QName data
      */
     private static final class XQName extends QName implements XSQName {
+
+        private static final long serialVersionUID = 6782082295258365103L;
+
         /** Constructs a QName with the specified values. */
         public XQName(String prefix, String localpart, String rawname, String uri) {
             setValues(prefix, localpart, rawname, uri);
@@ -96,6 +101,21 @@ public class QNameDV extends TypeValidator {
             return false;
         } // equals(Object):boolean
 
+        /** Returns a hash code consistent with equals. */
+        public int hashCode() {
+            return ((uri != null) ? uri.hashCode() * 31 : 0) +
+                ((localpart != null) ? localpart.hashCode() : 0);
+        } // hashCode():int
+
+        /** Interns the names once deserialized, as they are compared by reference. */
+        private Object readResolve() {
+            setValues(prefix != null ? prefix.intern() : null,
+                    localpart != null ? localpart.intern() : null,
+                    rawname != null ? rawname.intern() : null,
+                    uri != null ? uri.intern() : null);
+            return this;
+        } // readResolve():Object
+
         public String toString() {
             return rawname;
         }
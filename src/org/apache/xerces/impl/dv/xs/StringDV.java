@@ -32,6 +32,8 @@ import org.apache.xerces.impl.dv.ValidationContext;
  */
 public class StringDV extends TypeValidator {
 
+    private static final long serialVersionUID = -6692617545506871019L;
+
     public short getAllowedFacets(){
         return (XSSimpleTypeDecl.FACET_LENGTH | XSSimpleTypeDecl.FACET_MINLENGTH | XSSimpleTypeDecl.FACET_MAXLENGTH | XSSimpleTypeDecl.FACET_PATTERN | XSSimpleTypeDecl.FACET_ENUMERATION | XSSimpleTypeDecl.FACET_WHITESPACE );
     }
@@ -35,6 +35,8 @@ import org.apache.xerces.impl.dv.ValidationContext;
  */
 public class TimeDV extends AbstractDateTimeDV {
 
+    private static final long serialVersionUID = 2199378221019851970L;
+
     /**
      * Convert a string to a compiled form
      *
@@ -32,6 +32,8 @@ import org.apache.xerces.impl.dv.ValidationContext;
  */
 public class UnionDV extends TypeValidator{
 
+    private static final long serialVersionUID = 1753638944266068376L;
+
     public short getAllowedFacets(){
           return (XSSimpleTypeDecl.FACET_PATTERN | XSSimpleTypeDecl.FACET_ENUMERATION );
     }
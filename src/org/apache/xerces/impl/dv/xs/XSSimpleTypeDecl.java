@@ -17,6 +17,9 @@
 
 package org.apache.xerces.impl.dv.xs;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.math.BigInteger;
 import java.util.AbstractList;
 import java.util.Locale;
@@ -61,7 +64,9 @@ import org.w3c.dom.TypeInfo;
  *
  * @version $Id$
  */
-public class XSSimpleTypeDecl implements XSSimpleType, TypeInfo {
+public class XSSimpleTypeDecl implements XSSimpleType, TypeInfo, Serializable {
+
+    private static final long serialVersionUID = -8426429734184723664L;
 
     protected static final short DV_STRING        = PRIMITIVE_STRING;
     protected static final short DV_BOOLEAN       = PRIMITIVE_BOOLEAN;
@@ -233,10 +238,14 @@ public class XSSimpleTypeDecl implements XSSimpleType, TypeInfo {
     protected static TypeValidator[] getGDVs() {
         return (TypeValidator[])gDVs.clone();
     }
-    private TypeValidator[] fDVs = gDVs;
+    private transient TypeValidator[] fDVs = gDVs;
     protected void setDVs(TypeValidator[] dvs) {
         fDVs = dvs;
     }
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        fDVs = gDVs;
+    }
     
     // this will be true if this is a static XSSimpleTypeDecl
     // and hence must remain immutable (i.e., applyFacets
@@ -294,10 +303,10 @@ public class XSSimpleTypeDecl implements XSSimpleType, TypeInfo {
     public XSAnnotation minExclusiveAnnotation;
 
     // facets as objects
-    private XSObjectListImpl fFacets;
+    private transient XSObjectListImpl fFacets;
 
     // enumeration and pattern facets
-    private XSObjectListImpl fMultiValueFacets;
+    private transient XSObjectListImpl fMultiValueFacets;
 
     // simpleType annotations
     private XSObjectList fAnnotations = null;
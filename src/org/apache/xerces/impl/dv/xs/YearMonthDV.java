@@ -35,6 +35,8 @@ import org.apache.xerces.impl.dv.ValidationContext;
  */
 public class YearMonthDV extends AbstractDateTimeDV{
 
+    private static final long serialVersionUID = -2884353089699151121L;
+
     /**
      * Convert a string to a compiled form
      *
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>An input stream which reads directly from a <code>java.nio.ByteBuffer</code>
+ * or from successive memory-mapped regions of a <code>FileChannel</code>.</p>
+ *
+ * <p>Bytes are transferred from the buffer into the reader's byte array
+ * with a single bulk copy per read. When the entity is decoded by the
+ * scanner directly, the bytes are read from the buffer returned by
+ * {@link #getBuffer()} instead, without being copied. No read system
+ * calls are made and no additional intermediate buffering is performed. Since the number of
+ * bytes remaining is always known, {@link #available()} is exact and
+ * {@link #getRemaining()} reports the full length of the unread input.</p>
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class ByteBufferInputStream
+    extends InputStream {
+
+    //
+    // Constants
+    //
+
+    /** Size of each region mapped from a file channel (64 MB). */
+    public static final int DEFAULT_MAPPING_SIZE = 64 * 1024 * 1024;
+
+    //
+    // Data
+    //
+
+    /** The current buffer. */
+    private ByteBuffer fBuffer;
+
+    /** File channel, or null if reading from a buffer. */
+    private FileChannel fChannel;
+
+    /** Position in the file channel following the current buffer. */
+    private long fChannelPosition;
+
+    /** Size of the file channel. */
+    private long fChannelSize;
+
+    /** Size of each mapped region. */
+    private final int fMappingSize;
+
+    /** Position in the file channel of the start of the current buffer. */
+    private long fBufferOffset;
+
+    /** Marked position, relative to the start of the input, or -1. */
+    private long fMark = -1;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs an input stream over the bytes remaining
+     * in the given buffer. The position and limit of the
+     * given buffer are not modified.
+     *
+     * @param buffer the buffer to read from
+     */
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        fBuffer = buffer.slice();
+        fMappingSize = 0;
+        fBufferOffset = 0;
+    } // <init>(ByteBuffer)
+
+    /**
+     * Constructs an input stream which memory maps the given
+     * file channel, from its current position to its end,
+     * using the default mapping size.
+     *
+     * @param channel the file channel to read from
+     *
+     * @throws IOException if the channel could not be mapped
+     */
+    public ByteBufferInputStream(FileChannel channel) throws IOException {
+        this(channel, DEFAULT_MAPPING_SIZE);
+    } // <init>(FileChannel)
+
+    /**
+     * Constructs an input stream which memory maps the given
+     * file channel, from its current position to its end, in
+     * regions of the given size.
+     *
+     * @param channel     the file channel to read from
+     * @param mappingSize the size of each mapped region
+     *
+     * @throws IOException if the channel could not be mapped
+     */
+    public ByteBufferInputStream(FileChannel channel, int mappingSize) throws IOException {
+        fChannel = channel;
+        fChannelPosition = channel.position();
+        fChannelSize = channel.size();
+        fMappingSize = mappingSize;
+        fBufferOffset = fChannelPosition;
+        fBuffer = ByteBuffer.allocate(0);
+        mapNextRegion();
+    } // <init>(FileChannel, int)
+
+    //
+    // Public methods
+    //
+
+    /**
+     * Returns the number of bytes remaining in the input,
+     * including those not yet mapped from the file channel.
+     */
+    public long getRemaining() {
+        long remaining = fBuffer.remaining();
+        if (fChannel != null) {
+            remaining += fChannelSize - fChannelPosition;
+        }
+        return remaining;
+    } // getRemaining():long
+
+    /**
+     * Returns the buffer holding the next bytes of the input, mapping
+     * the next region of the file channel if the current one has been
+     * read, or null if there is no more input. Reading from the buffer
+     * and moving its position on consumes the bytes from this stream.
+     */
+    public ByteBuffer getBuffer() throws IOException {
+        if (!fBuffer.hasRemaining() && !mapNextRegion()) {
+            return null;
+        }
+        return fBuffer;
+    } // getBuffer():ByteBuffer
+
+    //
+    // InputStream methods
+    //
+
+    public int read() throws IOException {
+        if (!fBuffer.hasRemaining() && !mapNextRegion()) {
+            return -1;
+        }
+        return fBuffer.get() & 0xFF;
+    } // read():int
+
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len <= 0) {
+            return 0;
+        }
+        if (!fBuffer.hasRemaining() && !mapNextRegion()) {
+            return -1;
+        }
+        final int remaining = fBuffer.remaining();
+        if (len > remaining) {
+            len = remaining;
+        }
+        fBuffer.get(b, off, len);
+        return len;
+    } // read(byte[],int,int):int
+
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        long skipped = 0;
+        while (n > 0 && (fBuffer.hasRemaining() || mapNextRegion())) {
+            final int step = (int) Math.min(n, fBuffer.remaining());
+            ((Buffer) fBuffer).position(fBuffer.position() + step);
+            skipped += step;
+            n -= step;
+        }
+        return skipped;
+    } // skip(long):long
+
+    public int available() throws IOException {
+        return (int) Math.min(getRemaining(), Integer.MAX_VALUE);
+    } // available():int
+
+    /**
+     * Marks the current position in the stream. The mark is kept
+     * whatever the number of bytes read: if the stream has moved on
+     * to another mapped region of a file channel, {@link #reset()}
+     * maps the region starting at the mark again.
+     */
+    public void mark(int readLimit) {
+        fMark = fBufferOffset + fBuffer.position();
+    } // mark(int)
+
+    public void reset() throws IOException {
+        if (fMark < 0) {
+            throw new IOException("Stream not marked");
+        }
+        if (fMark >= fBufferOffset && fMark <= fBufferOffset + fBuffer.limit()) {
+            ((Buffer) fBuffer).position((int) (fMark - fBufferOffset));
+        }
+        else {
+            fChannelPosition = fMark;
+            mapNextRegion();
+        }
+    } // reset()
+
+    public boolean markSupported() {
+        return true;
+    } // markSupported():boolean
+
+    public void close() throws IOException {
+        if (fChannel != null) {
+            fChannel.close();
+            fChannel = null;
+            fChannelPosition = fChannelSize = 0;
+        }
+        fBuffer = ByteBuffer.allocate(0);
+        fMark = -1;
+    } // close()
+
+    //
+    // Private methods
+    //
+
+    /**
+     * Maps the next region of the file channel. Returns
+     * false if there is no more input to be read.
+     */
+    private boolean mapNextRegion() throws IOException {
+        if (fChannel == null || fChannelPosition >= fChannelSize) {
+            return false;
+        }
+        final long length = Math.min(fChannelSize - fChannelPosition, fMappingSize);
+        fBuffer = fChannel.map(FileChannel.MapMode.READ_ONLY, fChannelPosition, length);
+        fBufferOffset = fChannelPosition;
+        fChannelPosition += length;
+        return true;
+    } // mapNextRegion():boolean
+
+} // class ByteBufferInputStream
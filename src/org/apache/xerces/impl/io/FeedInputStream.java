@@ -0,0 +1,666 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+import org.apache.xerces.util.EncodingMap;
+
+/**
+ * <p>An input stream over the bytes of a document which are supplied
+ * incrementally, as they arrive, by a push parser.</p>
+ *
+ * <p>The scanner cannot be stopped in the middle of a construct and
+ * resumed later. To avoid this, the stream only makes bytes available
+ * up to the last point at which the scanner can safely stop: after the
+ * end of a markup construct, or after a character in text content which
+ * cannot be part of a reference, a line break or a multi-byte character.
+ * These points are found with a small lexer over the bytes, which only
+ * needs to recognize the ASCII delimiters of markup. A read beyond the
+ * last such point throws an {@link InputPendingException} instead of
+ * blocking, at which point the scanner is at the start of the next
+ * construct or chunk of text and can be resumed once more bytes have
+ * been fed.</p>
+ *
+ * <p>The lexer handles UTF-8, US-ASCII and ISO-8859-x, in which every
+ * byte below 0x80 is a whole character, and UTF-16, which it reads by
+ * code unit. The encoding is the one given to the constructor, if any,
+ * or else the one declared by the XML declaration. The bytes of documents
+ * in other encodings, in which a byte of a multi-byte character may look
+ * like an ASCII delimiter, are only made available once the end of the
+ * input has been signalled.</p>
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class FeedInputStream
+    extends InputStream {
+
+    //
+    // Constants
+    //
+
+    /** Initial size of the byte buffer. */
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    // encodings of the lexer
+
+    /** The encoding has not been determined yet. */
+    private static final int ENCODING_UNKNOWN = 0;
+
+    /** ASCII characters are single bytes. */
+    private static final int ENCODING_SINGLE_BYTE = 1;
+
+    /** UTF-16, big endian. */
+    private static final int ENCODING_UTF16_BE = 2;
+
+    /** UTF-16, little endian. */
+    private static final int ENCODING_UTF16_LE = 3;
+
+    /** The lexer cannot recognize markup. */
+    private static final int ENCODING_OPAQUE = 4;
+
+    // states of the lexer
+
+    /** Text content. */
+    private static final int STATE_TEXT = 0;
+
+    /** Entity or character reference in text content. */
+    private static final int STATE_REFERENCE = 1;
+
+    /** After '&lt;'. */
+    private static final int STATE_LT = 2;
+
+    /** Start tag or end tag. */
+    private static final int STATE_TAG = 3;
+
+    /** Quoted value. */
+    private static final int STATE_QUOTE = 4;
+
+    /** Processing instruction or XML declaration. */
+    private static final int STATE_PI = 5;
+
+    /** After '&lt;!'. */
+    private static final int STATE_BANG = 6;
+
+    /** After '&lt;!-'. */
+    private static final int STATE_COMMENT_START = 7;
+
+    /** Comment. */
+    private static final int STATE_COMMENT = 8;
+
+    /** CDATA section. */
+    private static final int STATE_CDATA = 9;
+
+    /** Document type declaration, outside of the internal subset. */
+    private static final int STATE_DOCTYPE = 10;
+
+    /** Internal subset, between markup declarations. */
+    private static final int STATE_SUBSET = 11;
+
+    /** Markup declaration in the internal subset. */
+    private static final int STATE_SUBSET_DECL = 12;
+
+    //
+    // Data
+    //
+
+    /** The bytes which have been fed. */
+    private byte[] fData = new byte[INITIAL_BUFFER_SIZE];
+
+    /** Offset of the next byte to read. */
+    private int fStart;
+
+    /** Offset following the last byte fed. */
+    private int fEnd;
+
+    /** Offset following the last byte which may be read. */
+    private int fLimit;
+
+    /** True if the end of the input has been signalled. */
+    private boolean fEnded;
+
+    // lexer state
+
+    /** Offset following the last byte seen by the lexer. */
+    private int fScanned;
+
+    /** Encoding of the lexer. */
+    private int fEncoding = ENCODING_UNKNOWN;
+
+    /** Current state. */
+    private int fState = STATE_TEXT;
+
+    /** State to return to at the end of a quoted value. */
+    private int fReturnState;
+
+    /** The quote character of a quoted value. */
+    private int fQuote;
+
+    /** Number of delimiter characters matched so far. */
+    private int fMatch;
+
+    /** True if within the internal subset. */
+    private boolean fInSubset;
+
+    /** The encoding given to the constructor, or null. */
+    private final String fExternalEncoding;
+
+    /**
+     * True if the encoding declared by the XML declaration has not
+     * been checked yet.
+     */
+    private boolean fCheckDeclaration;
+
+    /** Offset of the XML declaration, following any byte order mark. */
+    private int fDeclarationStart;
+
+    //
+    // Constructors
+    //
+
+    /** Constructs a stream over input in the encoding it declares. */
+    public FeedInputStream() {
+        this(null);
+    } // <init>()
+
+    /**
+     * Constructs a stream over input in the given encoding.
+     *
+     * @param encoding The IANA name of the encoding, which overrides
+     *                 the encoding declared by the document, or null.
+     */
+    public FeedInputStream(String encoding) {
+        fExternalEncoding = encoding;
+    } // <init>(String)
+
+    //
+    // Public methods
+    //
+
+    /**
+     * Appends bytes to the input.
+     *
+     * @param buffer The array containing the bytes.
+     * @param offset The offset of the first byte in the array.
+     * @param length The number of bytes.
+     */
+    public void feed(byte[] buffer, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(buffer, offset, fData, fEnd, length);
+        fEnd += length;
+        scan();
+    } // feed(byte[],int,int)
+
+    /**
+     * Appends the bytes remaining in the given buffer to the input.
+     *
+     * @param buffer The buffer containing the bytes.
+     */
+    public void feed(ByteBuffer buffer) {
+        final int length = buffer.remaining();
+        ensureCapacity(length);
+        buffer.get(fData, fEnd, length);
+        fEnd += length;
+        scan();
+    } // feed(ByteBuffer)
+
+    /** Signals that all of the input has been fed. */
+    public void endOfInput() {
+        fEnded = true;
+        fLimit = fEnd;
+    } // endOfInput()
+
+    /** Returns true if the end of the input has been signalled. */
+    public boolean isEnded() {
+        return fEnded;
+    } // isEnded():boolean
+
+    //
+    // InputStream methods
+    //
+
+    public int read() throws IOException {
+        if (fStart == fLimit) {
+            if (fEnded) {
+                return -1;
+            }
+            throw new InputPendingException();
+        }
+        return fData[fStart++] & 0xFF;
+    } // read():int
+
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len <= 0) {
+            return 0;
+        }
+        final int available = fLimit - fStart;
+        if (available == 0) {
+            if (fEnded) {
+                return -1;
+            }
+            throw new InputPendingException();
+        }
+        if (len > available) {
+            len = available;
+        }
+        System.arraycopy(fData, fStart, b, off, len);
+        fStart += len;
+        return len;
+    } // read(byte[],int,int):int
+
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        final int available = fLimit - fStart;
+        if (available == 0 && !fEnded) {
+            throw new InputPendingException();
+        }
+        if (n > available) {
+            n = available;
+        }
+        fStart += (int) n;
+        return n;
+    } // skip(long):long
+
+    /**
+     * Returns the number of bytes which can be read without
+     * an {@link InputPendingException} being thrown.
+     */
+    public int available() throws IOException {
+        return fLimit - fStart;
+    } // available():int
+
+    public void close() throws IOException {
+        fData = new byte[0];
+        fStart = fEnd = fLimit = fScanned = 0;
+        fEnded = true;
+    } // close()
+
+    //
+    // Private methods
+    //
+
+    /**
+     * Makes room for the given number of bytes at the end of the
+     * buffer, discarding the bytes which have been read.
+     */
+    private void ensureCapacity(int length) {
+        if (fEnd + length <= fData.length) {
+            return;
+        }
+        byte[] data = fData;
+        final int size = fEnd - fStart + length;
+        if (size > data.length) {
+            data = new byte[Math.max(size, data.length << 1)];
+        }
+        System.arraycopy(fData, fStart, data, 0, fEnd - fStart);
+        fData = data;
+        fEnd -= fStart;
+        fLimit -= fStart;
+        fScanned -= fStart;
+        fStart = 0;
+    } // ensureCapacity(int)
+
+    /** Runs the lexer over the bytes fed since it last ran. */
+    private void scan() {
+        if (fEncoding == ENCODING_UNKNOWN) {
+            if (fEnd < 4) {
+                return;
+            }
+            detectEncoding();
+        }
+        if (fCheckDeclaration && !checkDeclaration()) {
+            // wait for the rest of the XML declaration
+            if (fEnded) {
+                fLimit = fEnd;
+            }
+            return;
+        }
+        final byte[] data = fData;
+        final int end = fEnd;
+        int scanned = fScanned;
+        switch (fEncoding) {
+            case ENCODING_SINGLE_BYTE: {
+                while (scanned < end) {
+                    if (step(data[scanned++] & 0xFF)) {
+                        fLimit = scanned;
+                    }
+                }
+                break;
+            }
+            case ENCODING_UTF16_BE: {
+                while (scanned < end - 1) {
+                    final int c = ((data[scanned] & 0xFF) << 8) | (data[scanned + 1] & 0xFF);
+                    scanned += 2;
+                    if (step(c)) {
+                        fLimit = scanned;
+                    }
+                }
+                break;
+            }
+            case ENCODING_UTF16_LE: {
+                while (scanned < end - 1) {
+                    final int c = ((data[scanned + 1] & 0xFF) << 8) | (data[scanned] & 0xFF);
+                    scanned += 2;
+                    if (step(c)) {
+                        fLimit = scanned;
+                    }
+                }
+                break;
+            }
+            default: {
+                scanned = end;
+            }
+        }
+        fScanned = scanned;
+        if (fEnded) {
+            fLimit = fEnd;
+        }
+    } // scan()
+
+    /**
+     * Determines how the lexer reads characters from the first four
+     * bytes of the document, in the same manner as the entity manager
+     * detects the encoding of an entity.
+     */
+    private void detectEncoding() {
+        final int b0 = fData[0] & 0xFF;
+        final int b1 = fData[1] & 0xFF;
+        final int b2 = fData[2] & 0xFF;
+        final int b3 = fData[3] & 0xFF;
+        if ((b0 == 0x00 && b1 == 0x00) || (b2 == 0x00 && b3 == 0x00)
+            || (b0 == 0x4C && b1 == 0x6F && b2 == 0xA7 && b3 == 0x94)) {
+            // UCS-4 or EBCDIC
+            fEncoding = ENCODING_OPAQUE;
+        }
+        else if (b0 == 0xFE && b1 == 0xFF) {
+            fEncoding = ENCODING_UTF16_BE;
+            fScanned = 2;
+        }
+        else if (b0 == 0xFF && b1 == 0xFE) {
+            fEncoding = ENCODING_UTF16_LE;
+            fScanned = 2;
+        }
+        else if (b0 == 0x00 && b1 == 0x3C) {
+            fEncoding = ENCODING_UTF16_BE;
+        }
+        else if (b0 == 0x3C && b1 == 0x00) {
+            fEncoding = ENCODING_UTF16_LE;
+        }
+        else {
+            fEncoding = ENCODING_SINGLE_BYTE;
+            if (b0 == 0xEF && b1 == 0xBB && b2 == 0xBF) {
+                fDeclarationStart = 3;
+            }
+        }
+        if (fExternalEncoding != null) {
+            if ((fEncoding == ENCODING_SINGLE_BYTE && !isSingleByteEncoding(fExternalEncoding)) ||
+                ((fEncoding == ENCODING_UTF16_BE || fEncoding == ENCODING_UTF16_LE) &&
+                !isUTF16Encoding(fExternalEncoding))) {
+                fEncoding = ENCODING_OPAQUE;
+            }
+        }
+        else if (fEncoding == ENCODING_SINGLE_BYTE) {
+            fCheckDeclaration = true;
+        }
+    } // detectEncoding()
+
+    /**
+     * Checks the encoding declared by the XML declaration, if there is
+     * one, giving up on the lexer if it cannot read that encoding.
+     * Returns false if the end of the XML declaration has not been fed.
+     */
+    private boolean checkDeclaration() {
+        final byte[] data = fData;
+        final int start = fDeclarationStart;
+        if (fEnd - start < 6) {
+            return fEnded;
+        }
+        final int c = data[start + 5];
+        if (data[start] != '<' || data[start + 1] != '?' || data[start + 2] != 'x' ||
+            data[start + 3] != 'm' || data[start + 4] != 'l' ||
+            (c != ' ' && c != '\t' && c != '\n' && c != '\r')) {
+            // no XML declaration; the document is in UTF-8
+            fCheckDeclaration = false;
+            return true;
+        }
+        int end = start + 6;
+        while (end < fEnd - 1 && (data[end] != '?' || data[end + 1] != '>')) {
+            ++end;
+        }
+        if (end >= fEnd - 1) {
+            return fEnded;
+        }
+        fCheckDeclaration = false;
+        final String encoding = declaredEncoding(start + 6, end);
+        if (encoding != null && !isSingleByteEncoding(encoding)) {
+            fEncoding = ENCODING_OPAQUE;
+        }
+        return true;
+    } // checkDeclaration():boolean
+
+    /**
+     * Returns the value of the encoding pseudo-attribute within the
+     * given range of the XML declaration, or null if there is none.
+     */
+    private String declaredEncoding(int start, int end) {
+        final StringBuffer decl = new StringBuffer(end - start);
+        for (int i = start; i < end; ++i) {
+            decl.append((char) (fData[i] & 0xFF));
+        }
+        int i = decl.toString().indexOf("encoding");
+        if (i == -1) {
+            return null;
+        }
+        i += 8;
+        while (i < decl.length() && decl.charAt(i) != '"' && decl.charAt(i) != '\'') {
+            ++i;
+        }
+        if (i == decl.length()) {
+            return null;
+        }
+        final int quote = decl.charAt(i);
+        final int valueEnd = decl.toString().indexOf(quote, i + 1);
+        return (valueEnd != -1) ? decl.substring(i + 1, valueEnd) : null;
+    } // declaredEncoding(int,int):String
+
+    /**
+     * Returns true if every byte below 0x80 is a whole
+     * character in the given encoding.
+     */
+    private static boolean isSingleByteEncoding(String encoding) {
+        final String javaName = EncodingMap.getIANA2JavaMapping(encoding.toUpperCase(Locale.ENGLISH));
+        return "UTF8".equals(javaName) || "ASCII".equals(javaName) ||
+            (javaName != null && javaName.startsWith("ISO8859_"));
+    } // isSingleByteEncoding(String):boolean
+
+    /** Returns true if the given encoding is UTF-16. */
+    private static boolean isUTF16Encoding(String encoding) {
+        final String javaName = EncodingMap.getIANA2JavaMapping(encoding.toUpperCase(Locale.ENGLISH));
+        return "UTF-16".equals(javaName) || "UnicodeBig".equals(javaName) ||
+            "UnicodeLittle".equals(javaName);
+    } // isUTF16Encoding(String):boolean
+
+    /**
+     * Advances the lexer over the given character. Returns true
+     * if the scanner may stop after this character.
+     */
+    private boolean step(int c) {
+        switch (fState) {
+            case STATE_TEXT: {
+                if (c == '<') {
+                    fState = STATE_LT;
+                    return false;
+                }
+                if (c == '&') {
+                    fState = STATE_REFERENCE;
+                    return false;
+                }
+                // in the encodings the lexer reads, a byte or code unit
+                // below 0x80 is a whole character; of those, the scanner
+                // may stop after the ones below 0x40 other than CR, which
+                // cannot begin a CR LF pair or be part of "]]>"
+                return c < 0x40 && c != '\r';
+            }
+            case STATE_REFERENCE: {
+                if (c == ';') {
+                    fState = STATE_TEXT;
+                    return true;
+                }
+                return false;
+            }
+            case STATE_LT: {
+                if (c == '!') {
+                    fState = STATE_BANG;
+                    return false;
+                }
+                if (c == '?') {
+                    fState = STATE_PI;
+                    fMatch = 0;
+                    return false;
+                }
+                fState = fInSubset ? STATE_SUBSET_DECL : STATE_TAG;
+                return step(c);
+            }
+            case STATE_TAG: {
+                if (c == '"' || c == '\'') {
+                    startQuote(c);
+                    return false;
+                }
+                if (c == '>') {
+                    fState = STATE_TEXT;
+                    return true;
+                }
+                return false;
+            }
+            case STATE_QUOTE: {
+                if (c == fQuote) {
+                    fState = fReturnState;
+                }
+                return false;
+            }
+            case STATE_PI: {
+                if (c == '>' && fMatch == 1) {
+                    return endConstruct();
+                }
+                fMatch = (c == '?') ? 1 : 0;
+                return false;
+            }
+            case STATE_BANG: {
+                if (c == '-') {
+                    fState = STATE_COMMENT_START;
+                    return false;
+                }
+                if (c == '[' && !fInSubset) {
+                    fState = STATE_CDATA;
+                    fMatch = 0;
+                    return false;
+                }
+                fState = fInSubset ? STATE_SUBSET_DECL : STATE_DOCTYPE;
+                return step(c);
+            }
+            case STATE_COMMENT_START: {
+                if (c == '-') {
+                    fState = STATE_COMMENT;
+                    fMatch = 0;
+                    return false;
+                }
+                fState = fInSubset ? STATE_SUBSET_DECL : STATE_DOCTYPE;
+                return step(c);
+            }
+            case STATE_COMMENT: {
+                if (c == '>' && fMatch >= 2) {
+                    return endConstruct();
+                }
+                fMatch = (c == '-') ? fMatch + 1 : 0;
+                return false;
+            }
+            case STATE_CDATA: {
+                if (c == '>' && fMatch >= 2) {
+                    fState = STATE_TEXT;
+                    return true;
+                }
+                fMatch = (c == ']') ? fMatch + 1 : 0;
+                return false;
+            }
+            case STATE_DOCTYPE: {
+                if (c == '"' || c == '\'') {
+                    startQuote(c);
+                    return false;
+                }
+                if (c == '[') {
+                    fState = STATE_SUBSET;
+                    fInSubset = true;
+                    return false;
+                }
+                if (c == '>') {
+                    fState = STATE_TEXT;
+                    return true;
+                }
+                return false;
+            }
+            case STATE_SUBSET: {
+                if (c == '<') {
+                    fState = STATE_LT;
+                }
+                else if (c == ']') {
+                    fState = STATE_DOCTYPE;
+                    fInSubset = false;
+                }
+                return false;
+            }
+            case STATE_SUBSET_DECL: {
+                if (c == '"' || c == '\'') {
+                    startQuote(c);
+                }
+                else if (c == '>') {
+                    fState = STATE_SUBSET;
+                }
+                return false;
+            }
+        }
+        return false;
+    } // step(int):boolean
+
+    /** Enters a quoted value, returning to the current state at its end. */
+    private void startQuote(int quote) {
+        fQuote = quote;
+        fReturnState = fState;
+        fState = STATE_QUOTE;
+    } // startQuote(int)
+
+    /**
+     * Ends a comment or processing instruction. Returns true if
+     * the scanner may stop after it.
+     */
+    private boolean endConstruct() {
+        if (fInSubset) {
+            fState = STATE_SUBSET;
+            return false;
+        }
+        fState = STATE_TEXT;
+        return true;
+    } // endConstruct():boolean
+
+} // class FeedInputStream
@@ -305,7 +305,8 @@ public final class UTF8Reader
             // perform read operation
             count = fInputStream.read(fBuffer, 0, length);
             if (count == -1) {
-                return -1;
+                // the low surrogate may be the last character
+                return (out > offset) ? out - offset : -1;
             }
             count += out - offset;
         }
@@ -322,8 +323,9 @@ public final class UTF8Reader
             fOffset = 0;
         }
 
-        // convert bytes to characters
-        final int total = count;
+        // convert bytes to characters; the count includes the surrogate
+        // character returned first, which is not in the byte buffer
+        final int total = count - (out - offset);
         int in;
         byte byte1;
         final byte byte0 = 0;
@@ -342,7 +344,13 @@ public final class UTF8Reader
             // UTF-8:   [0xxx xxxx]
             // Unicode: [0000 0000] [0xxx xxxx]
             if (byte1 >= byte0) {
+                // decode the rest of the run of ASCII bytes in a tight loop
+                // rather than through the multi-byte checks below
                 ch[out++] = (char)byte1;
+                while (++in < total && (byte1 = fBuffer[in]) >= byte0) {
+                    ch[out++] = (char)byte1;
+                }
+                in--;
                 continue;
             }
 
@@ -536,6 +544,14 @@ public final class UTF8Reader
                 // decode bytes into surrogate characters
                 int uuuuu = ((b0 << 2) & 0x001C) | ((b1 >> 4) & 0x0003);
                 if (uuuuu > 0x10) {
+                    if (out > offset) {
+                        fBuffer[0] = (byte)b0;
+                        fBuffer[1] = (byte)b1;
+                        fBuffer[2] = (byte)b2;
+                        fBuffer[3] = (byte)b3;
+                        fOffset = 4;
+                        return out - offset;
+                    }
                     invalidSurrogate(uuuuu);
                 }
                 int wwww = uuuuu - 1;
@@ -671,6 +687,16 @@ public final class UTF8Reader
         fInputStream.close();
     } // close()
 
+    /**
+     * Returns true if this reader holds bytes or characters which it
+     * has taken from the input stream but has not yet returned. If it
+     * does not, the remaining input can be decoded directly from the
+     * input stream without going through this reader.
+     */
+    public boolean hasBufferedInput() {
+        return fOffset != 0 || fSurrogate != -1;
+    } // hasBufferedInput():boolean
+
     //
     // Private methods
     //
@@ -17,8 +17,6 @@
 
 package org.apache.xerces.impl.validation;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Locale;
 
@@ -50,10 +48,7 @@ public class ValidationState implements ValidationContext {
     private SymbolTable fSymbolTable            = null;
     private Locale fLocale                      = null;
 
-    //REVISIT: Should replace with a lighter structure.
-    private final HashMap fIdTable    = new HashMap();
-    private final HashMap fIdRefTable = new HashMap();
-    private final static Object fNullValue = new Object();
+    private final IDTable fIdTable = new IDTable();
 
     //
     // public methods
@@ -92,19 +87,7 @@ public class ValidationState implements ValidationContext {
      * a matching ID value.
      */
     public Iterator checkIDRefID() {
-        HashSet missingIDs = null;
-        Iterator iter = fIdRefTable.keySet().iterator();
-        String key;
-        while (iter.hasNext()) {
-            key = (String) iter.next();
-            if (!fIdTable.containsKey(key)) {
-                if (missingIDs == null) {
-                    missingIDs = new HashSet();
-                }
-                missingIDs.add(key);
-            }
-        }
-        return (missingIDs != null) ? missingIDs.iterator() : null;
+        return fIdTable.getUnresolvedIdRefs();
     }
 
     public void reset () {
@@ -112,7 +95,6 @@ public class ValidationState implements ValidationContext {
         fFacetChecking = true;
         fNamespaces = true;
         fIdTable.clear();
-        fIdRefTable.clear();
         fEntityState = null;
         fNamespaceContext = null;
         fSymbolTable = null;
@@ -126,7 +108,6 @@ public class ValidationState implements ValidationContext {
      */
     public void resetIDTables() {
         fIdTable.clear();
-        fIdRefTable.clear();
     }
 
     //
@@ -167,15 +148,15 @@ public class ValidationState implements ValidationContext {
 
     // id
     public boolean isIdDeclared(String name) {
-        return fIdTable.containsKey(name);
+        return fIdTable.containsId(name);
     }
     public void addId(String name) {
-        fIdTable.put(name, fNullValue);
+        fIdTable.addId(name);
     }
 
     // idref
     public void addIdRef(String name) {
-        fIdRefTable.put(name, fNullValue);
+        fIdTable.addIdRef(name);
     }
     // get symbols
 
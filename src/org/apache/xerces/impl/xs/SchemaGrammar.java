@@ -17,6 +17,9 @@
 
 package org.apache.xerces.impl.xs;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.lang.ref.SoftReference;
 import java.util.Vector;
 
@@ -35,6 +38,8 @@ import org.apache.xerces.impl.xs.util.XSObjectListImpl;
 import org.apache.xerces.parsers.DOMParser;
 import org.apache.xerces.parsers.SAXParser;
 import org.apache.xerces.parsers.XML11Configuration;
+import org.apache.xerces.util.CompactPrefixedSymbolHash;
+import org.apache.xerces.util.CompactSymbolHash;
 import org.apache.xerces.util.SymbolHash;
 import org.apache.xerces.util.SymbolTable;
 import org.apache.xerces.xni.NamespaceContext;
@@ -76,7 +81,9 @@ import org.xml.sax.SAXException;
  * @version $Id$
  */
 
-public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
+public class SchemaGrammar implements XSGrammar, XSNamespaceItem, Serializable {
+
+    private static final long serialVersionUID = -253385808168919088L;
 
     // the target namespace of grammar
     String fTargetNamespace;
@@ -115,14 +122,18 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
     int fNumAnnotations;
 
     // symbol table for constructing parsers (annotation support)
-    private SymbolTable fSymbolTable = null;
+    private transient SymbolTable fSymbolTable = null;
     // parsers for annotation support
-    private SoftReference<SAXParser> fSAXParser = null;
-    private SoftReference<DOMParser> fDOMParser = null;
+    private transient SoftReference<SAXParser> fSAXParser = null;
+    private transient SoftReference<DOMParser> fDOMParser = null;
     
     // is this grammar immutable?  (fully constructed and not changeable)
     private boolean fIsImmutable = false;
 
+    // traverses the global components of this grammar on demand;
+    // null once all of them have been traversed
+    private transient volatile XSLazyTraverser fLazyTraverser = null;
+
     //
     // Constructors
     //
@@ -181,6 +192,7 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
     
     // Clone an existing schema grammar
     public SchemaGrammar(SchemaGrammar grammar) {
+        grammar.traverseAll();
         fTargetNamespace = grammar.fTargetNamespace;
         fGrammarDescription = grammar.fGrammarDescription.makeClone();
         //fGrammarDescription.fContextType |= XSDDescription.CONTEXT_COLLISION; // REVISIT
@@ -267,6 +279,8 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
     // are immutable.
     public static class BuiltinSchemaGrammar extends SchemaGrammar {
 
+        private static final long serialVersionUID = -8446774917285055814L;
+
         private static final String EXTENDED_SCHEMA_FACTORY_CLASS = "org.apache.xerces.impl.dv.xs.ExtendedSchemaDVFactoryImpl";
 
         /**
@@ -464,6 +478,9 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
         public void addRedefinedGroupDecl(XSGroupDecl derived, XSGroupDecl base, SimpleLocator locator) {
             // ignore
         }
+        public void compact() {
+            // ignore
+        }
         public synchronized void addDocument(Object document, String location) {
             // ignore
         }
@@ -485,6 +502,8 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
      * @author Michael Glavassevich, IBM
      */
     public static final class Schema4Annotations extends SchemaGrammar {
+
+        private static final long serialVersionUID = 8440856148296473906L;
         
         /**
          * Singleton instance.
@@ -715,6 +734,9 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
         public void addRedefinedGroupDecl(XSGroupDecl derived, XSGroupDecl base, SimpleLocator locator) {
             // ignore
         }
+        public void compact() {
+            // ignore
+        }
         public synchronized void addDocument(Object document, String location) {
             // ignore
         }
@@ -989,83 +1011,84 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
      * get one global attribute
      */
     public final XSAttributeDecl getGlobalAttributeDecl(String declName) {
-        return(XSAttributeDecl)fGlobalAttrDecls.get(declName);
+        return(XSAttributeDecl)getGlobalDecl(fGlobalAttrDecls, declName, XSConstants.ATTRIBUTE_DECLARATION, declName);
     }
 
     public final XSAttributeDecl getGlobalAttributeDecl(String declName, String location) {
-        return(XSAttributeDecl)fGlobalAttrDeclsExt.get(((location != null) ? location : "") + "," + declName);
+        return(XSAttributeDecl)getGlobalDecl(fGlobalAttrDeclsExt, ((location != null) ? location : "") + "," + declName, XSConstants.ATTRIBUTE_DECLARATION, declName);
     }
 
     /**
      * get one global attribute group
      */
     public final XSAttributeGroupDecl getGlobalAttributeGroupDecl(String declName) {
-        return(XSAttributeGroupDecl)fGlobalAttrGrpDecls.get(declName);
+        return(XSAttributeGroupDecl)getGlobalDecl(fGlobalAttrGrpDecls, declName, XSConstants.ATTRIBUTE_GROUP, declName);
     }
 
     public final XSAttributeGroupDecl getGlobalAttributeGroupDecl(String declName, String location) {
-        return(XSAttributeGroupDecl)fGlobalAttrGrpDeclsExt.get(((location != null) ? location : "") + "," + declName);
+        return(XSAttributeGroupDecl)getGlobalDecl(fGlobalAttrGrpDeclsExt, ((location != null) ? location : "") + "," + declName, XSConstants.ATTRIBUTE_GROUP, declName);
     }
 
     /**
      * get one global element
      */
     public final XSElementDecl getGlobalElementDecl(String declName) {
-        return(XSElementDecl)fGlobalElemDecls.get(declName);
+        return(XSElementDecl)getGlobalDecl(fGlobalElemDecls, declName, XSConstants.ELEMENT_DECLARATION, declName);
     }
 
     public final XSElementDecl getGlobalElementDecl(String declName, String location) {
-        return(XSElementDecl)fGlobalElemDeclsExt.get(((location != null) ? location : "") + "," + declName);
+        return(XSElementDecl)getGlobalDecl(fGlobalElemDeclsExt, ((location != null) ? location : "") + "," + declName, XSConstants.ELEMENT_DECLARATION, declName);
     }
     
     /**
      * get one global group
      */
     public final XSGroupDecl getGlobalGroupDecl(String declName) {
-        return(XSGroupDecl)fGlobalGroupDecls.get(declName);
+        return(XSGroupDecl)getGlobalDecl(fGlobalGroupDecls, declName, XSConstants.MODEL_GROUP_DEFINITION, declName);
     }
 
     public final XSGroupDecl getGlobalGroupDecl(String declName, String location) {
-        return(XSGroupDecl)fGlobalGroupDeclsExt.get(((location != null) ? location : "") + "," + declName);
+        return(XSGroupDecl)getGlobalDecl(fGlobalGroupDeclsExt, ((location != null) ? location : "") + "," + declName, XSConstants.MODEL_GROUP_DEFINITION, declName);
     }
 
     /**
      * get one global notation
      */
     public final XSNotationDecl getGlobalNotationDecl(String declName) {
-        return(XSNotationDecl)fGlobalNotationDecls.get(declName);
+        return(XSNotationDecl)getGlobalDecl(fGlobalNotationDecls, declName, XSConstants.NOTATION_DECLARATION, declName);
     }
 
     public final XSNotationDecl getGlobalNotationDecl(String declName, String location) {
-        return(XSNotationDecl)fGlobalNotationDeclsExt.get(((location != null) ? location : "") + "," + declName);
+        return(XSNotationDecl)getGlobalDecl(fGlobalNotationDeclsExt, ((location != null) ? location : "") + "," + declName, XSConstants.NOTATION_DECLARATION, declName);
     }
 
     /**
      * get one global type
      */
     public final XSTypeDefinition getGlobalTypeDecl(String declName) {
-        return(XSTypeDefinition)fGlobalTypeDecls.get(declName);
+        return(XSTypeDefinition)getGlobalDecl(fGlobalTypeDecls, declName, XSConstants.TYPE_DEFINITION, declName);
     }
 
     public final XSTypeDefinition getGlobalTypeDecl(String declName, String location) {
-        return(XSTypeDefinition)fGlobalTypeDeclsExt.get(((location != null) ? location : "") + "," + declName);
+        return(XSTypeDefinition)getGlobalDecl(fGlobalTypeDeclsExt, ((location != null) ? location : "") + "," + declName, XSConstants.TYPE_DEFINITION, declName);
     }
 
     /**
      * get one identity constraint
      */
     public final IdentityConstraint getIDConstraintDecl(String declName) {
-        return(IdentityConstraint)fGlobalIDConstraintDecls.get(declName);
+        return(IdentityConstraint)getGlobalDecl(fGlobalIDConstraintDecls, declName, XSConstants.IDENTITY_CONSTRAINT, declName);
     }
 
     public final IdentityConstraint getIDConstraintDecl(String declName, String location) {
-        return(IdentityConstraint)fGlobalIDConstraintDeclsExt.get(((location != null) ? location : "") + "," + declName);
+        return(IdentityConstraint)getGlobalDecl(fGlobalIDConstraintDeclsExt, ((location != null) ? location : "") + "," + declName, XSConstants.IDENTITY_CONSTRAINT, declName);
     }
 
     /**
      * get one identity constraint
      */
     public final boolean hasIDConstraints() {
+        traverseAll();
         return fGlobalIDConstraintDecls.getLength() > 0;
     }
 
@@ -1186,6 +1209,9 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
     // we need direct access to these two types
     public final static XSComplexTypeDecl fAnyType = new XSAnyType();
     private static class XSAnyType extends XSComplexTypeDecl {
+
+        private static final long serialVersionUID = -2697506547255388663L;
+
         public XSAnyType () {
             fName = SchemaSymbols.ATTVAL_ANYTYPE;
             super.fTargetNamespace = SchemaSymbols.URI_SCHEMAFORSCHEMA;
@@ -1275,6 +1301,9 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
         }
     }
     private static class BuiltinAttrDecl extends XSAttributeDecl {
+
+        private static final long serialVersionUID = 1219178853528301119L;
+
         public BuiltinAttrDecl(String name, String tns, 
                 XSSimpleType type, short scope) {
             fName = name;
@@ -1372,8 +1401,8 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
                                                  };
                                                  
     // store a certain kind of components from all namespaces
-    private XSNamedMap[] fComponents = null;
-    private ObjectList[] fComponentsExt = null;
+    private transient XSNamedMap[] fComponents = null;
+    private transient ObjectList[] fComponentsExt = null;
 
     // store the documents and their locations contributing to this namespace
     // REVISIT: use StringList and XSObjectList for there fields.
@@ -1471,6 +1500,7 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
             !GLOBAL_COMP[objectType]) {
             return XSNamedMapImpl.EMPTY_MAP;
         }
+        traverseAll();
         
         if (fComponents == null)
             fComponents = new XSNamedMap[MAX_COMP_IDX+1];
@@ -1523,6 +1553,7 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
             !GLOBAL_COMP[objectType]) {
             return ObjectListImpl.EMPTY_LIST;
         }
+        traverseAll();
         
         if (fComponentsExt == null)
             fComponentsExt = new ObjectList[MAX_COMP_IDX+1];
@@ -1701,6 +1732,52 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
         fAnnotations[fNumAnnotations++] = annotation;
     }
     
+    /**
+     * Replaces the tables of the global components with compact tables,
+     * which store the location and the name of the keys of the extended
+     * tables apart, and trims the arrays of annotations and of
+     * substitution group members. Called when the grammar is cached in a
+     * grammar pool, where it is mostly read from then on. Components may
+     * still be added afterwards.
+     */
+    public void compact() {
+        fGlobalAttrDecls = compact(fGlobalAttrDecls);
+        fGlobalAttrGrpDecls = compact(fGlobalAttrGrpDecls);
+        fGlobalElemDecls = compact(fGlobalElemDecls);
+        fGlobalGroupDecls = compact(fGlobalGroupDecls);
+        fGlobalNotationDecls = compact(fGlobalNotationDecls);
+        fGlobalIDConstraintDecls = compact(fGlobalIDConstraintDecls);
+        fGlobalTypeDecls = compact(fGlobalTypeDecls);
+
+        fGlobalAttrDeclsExt = compactExt(fGlobalAttrDeclsExt);
+        fGlobalAttrGrpDeclsExt = compactExt(fGlobalAttrGrpDeclsExt);
+        fGlobalElemDeclsExt = compactExt(fGlobalElemDeclsExt);
+        fGlobalGroupDeclsExt = compactExt(fGlobalGroupDeclsExt);
+        fGlobalNotationDeclsExt = compactExt(fGlobalNotationDeclsExt);
+        fGlobalIDConstraintDeclsExt = compactExt(fGlobalIDConstraintDeclsExt);
+        fGlobalTypeDeclsExt = compactExt(fGlobalTypeDeclsExt);
+
+        fAllGlobalElemDecls = compact(fAllGlobalElemDecls);
+
+        if (fAnnotations != null && fNumAnnotations < fAnnotations.length) {
+            XSAnnotationImpl[] annotations = new XSAnnotationImpl[Math.max(fNumAnnotations, 1)];
+            System.arraycopy(fAnnotations, 0, annotations, 0, fNumAnnotations);
+            fAnnotations = annotations;
+        }
+        if (fSubGroupCount < fSubGroups.length) {
+            fSubGroups = resize(fSubGroups, fSubGroupCount);
+        }
+    }
+
+    private static SymbolHash compact(SymbolHash table) {
+        return (table instanceof CompactSymbolHash) ? table : new CompactSymbolHash(table);
+    }
+
+    // the keys of the extended tables are the location and the name
+    private static SymbolHash compactExt(SymbolHash table) {
+        return (table instanceof CompactPrefixedSymbolHash) ? table : new CompactPrefixedSymbolHash(table);
+    }
+
     public void setImmutable(boolean isImmutable) {
         fIsImmutable = isImmutable;
     }
@@ -1709,4 +1786,52 @@ public class SchemaGrammar implements XSGrammar, XSNamespaceItem {
         return fIsImmutable;
     }
 
+    /**
+     * Sets the traverser of the global components of this grammar which
+     * have not been traversed yet, or null if all of them have been.
+     */
+    public void setLazyTraverser(XSLazyTraverser traverser) {
+        fLazyTraverser = traverser;
+    }
+
+    /**
+     * Traverses the global components of this grammar which have not
+     * been traversed yet, if it was loaded with lazy traversal.
+     */
+    public void traverseAll() {
+        final XSLazyTraverser traverser = fLazyTraverser;
+        if (traverser != null) {
+            synchronized (traverser) {
+                traverser.traverseAll();
+            }
+        }
+    }
+
+    /**
+     * Looks up a global component, traversing it first if this grammar
+     * was loaded with lazy traversal and the component was not traversed
+     * yet. The lookup is synchronized with the traversal of other
+     * components until all of them have been traversed.
+     */
+    private Object getGlobalDecl(SymbolHash decls, String key, short componentType, String name) {
+        final XSLazyTraverser traverser = fLazyTraverser;
+        if (traverser == null) {
+            return decls.get(key);
+        }
+        synchronized (traverser) {
+            Object decl = decls.get(key);
+            if (decl == null && fLazyTraverser != null) {
+                traverser.traverseGlobalDecl(this, componentType, name);
+                decl = decls.get(key);
+            }
+            return decl;
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // the components not traversed yet are not serialized
+        traverseAll();
+        out.defaultWriteObject();
+    }
+
 } // class SchemaGrammar
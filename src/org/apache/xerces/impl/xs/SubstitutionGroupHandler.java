@@ -82,6 +82,14 @@ public class SubstitutionGroupHandler {
         return null;
     }
 
+    /**
+     * Returns the global element declaration with the name of the given
+     * element, or null if there is none.
+     */
+    public XSElementDecl getGlobalElementDecl(QName element) {
+        return fXSElementDeclHelper.getGlobalElementDecl(element);
+    }
+
     // 3.3.6 Substitution Group OK (Transitive)
     // check whether element can substitute exemplar
     protected boolean substitutionGroupOK(XSElementDecl element, XSElementDecl exemplar, short blockingConstraint) {
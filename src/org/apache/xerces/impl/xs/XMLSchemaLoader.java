@@ -147,6 +147,14 @@ XSLoader, DOMConfiguration {
     protected static final String TOLERATE_DUPLICATES = 
         Constants.XERCES_FEATURE_PREFIX + Constants.TOLERATE_DUPLICATES_FEATURE;
     
+    /** Feature identifier: parallel schema loading */
+    protected static final String PARALLEL_SCHEMA_LOADING = 
+        Constants.XERCES_FEATURE_PREFIX + Constants.PARALLEL_SCHEMA_LOADING_FEATURE;
+    
+    /** Feature identifier: lazy schema traversal */
+    protected static final String LAZY_SCHEMA_TRAVERSAL = 
+        Constants.XERCES_FEATURE_PREFIX + Constants.LAZY_SCHEMA_TRAVERSAL_FEATURE;
+    
     /** Property identifier: Schema DV Factory */
     protected static final String SCHEMA_DV_FACTORY = 
         Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_DV_FACTORY_PROPERTY;
@@ -163,7 +171,9 @@ XSLoader, DOMConfiguration {
         VALIDATE_ANNOTATIONS,
         HONOUR_ALL_SCHEMALOCATIONS,
         NAMESPACE_GROWTH,
-        TOLERATE_DUPLICATES
+        TOLERATE_DUPLICATES,
+        PARALLEL_SCHEMA_LOADING,
+        LAZY_SCHEMA_TRAVERSAL
     };
     
     // property identifiers
@@ -544,7 +554,12 @@ XSLoader, DOMConfiguration {
         SchemaGrammar grammar = loadSchema(desc, source, locationPairs);
         
         if(grammar != null && fGrammarPool != null) {
-            fGrammarPool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, fGrammarBucket.getGrammars());
+            SchemaGrammar[] grammars = fGrammarBucket.getGrammars();
+            // the grammars are mostly read once in the pool
+            for (int i = 0; i < grammars.length; i++) {
+                grammars[i].compact();
+            }
+            fGrammarPool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, grammars);
             // NOTE: we only need to verify full checking in case the schema was not provided via JAXP
             // since full checking already verified for all JAXP schemas
             if(fIsCheckedFully && fJAXPCache.get(grammar) != grammar) {
@@ -1221,7 +1236,9 @@ XSLoader, DOMConfiguration {
                 name.equals(GENERATE_SYNTHETIC_ANNOTATIONS) ||
                 name.equals(HONOUR_ALL_SCHEMALOCATIONS) ||
                 name.equals(NAMESPACE_GROWTH) ||
-                name.equals(TOLERATE_DUPLICATES)) {
+                name.equals(TOLERATE_DUPLICATES) ||
+                name.equals(PARALLEL_SCHEMA_LOADING) ||
+                name.equals(LAZY_SCHEMA_TRAVERSAL)) {
                 return true;
                 
             }
@@ -1300,6 +1317,8 @@ XSLoader, DOMConfiguration {
             v.add(HONOUR_ALL_SCHEMALOCATIONS);
             v.add(NAMESPACE_GROWTH);
             v.add(TOLERATE_DUPLICATES);
+            v.add(PARALLEL_SCHEMA_LOADING);
+            v.add(LAZY_SCHEMA_TRAVERSAL);
             fRecognizedParameters = new DOMStringListImpl(v);      	
         }
         return fRecognizedParameters;
@@ -17,8 +17,10 @@
 
 package org.apache.xerces.impl.xs;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
@@ -47,10 +49,12 @@ import org.apache.xerces.impl.xs.identity.IdentityConstraint;
 import org.apache.xerces.impl.xs.identity.KeyRef;
 import org.apache.xerces.impl.xs.identity.Selector;
 import org.apache.xerces.impl.xs.identity.UniqueOrKey;
+import org.apache.xerces.impl.xs.identity.ValueRuns;
 import org.apache.xerces.impl.xs.identity.ValueStore;
 import org.apache.xerces.impl.xs.identity.XPathMatcher;
 import org.apache.xerces.impl.xs.models.CMBuilder;
 import org.apache.xerces.impl.xs.models.CMNodeFactory;
+import org.apache.xerces.impl.xs.models.CompiledContentModels;
 import org.apache.xerces.impl.xs.models.XSCMValidator;
 import org.apache.xerces.impl.xs.util.XS10TypeHelper;
 import org.apache.xerces.util.AugmentationsImpl;
@@ -189,6 +193,14 @@ public class XMLSchemaValidator
     protected static final String TOLERATE_DUPLICATES = 
         Constants.XERCES_FEATURE_PREFIX + Constants.TOLERATE_DUPLICATES_FEATURE;
 
+    /** Feature identifier: parallel schema loading */
+    protected static final String PARALLEL_SCHEMA_LOADING = 
+        Constants.XERCES_FEATURE_PREFIX + Constants.PARALLEL_SCHEMA_LOADING_FEATURE;
+
+    /** Feature identifier: lazy schema traversal */
+    protected static final String LAZY_SCHEMA_TRAVERSAL = 
+        Constants.XERCES_FEATURE_PREFIX + Constants.LAZY_SCHEMA_TRAVERSAL_FEATURE;
+
     /** Feature identifier: whether to ignore xsi:type attributes until a global element declaration is encountered */
     protected static final String IGNORE_XSI_TYPE =
         Constants.XERCES_FEATURE_PREFIX + Constants.IGNORE_XSI_TYPE_FEATURE;
@@ -256,6 +268,14 @@ public class XMLSchemaValidator
     /** Property identifier: Schema DV Factory */
     protected static final String SCHEMA_DV_FACTORY = 
         Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_DV_FACTORY_PROPERTY;
+
+    /** Property identifier: generated content models. */
+    protected static final String COMPILED_CONTENT_MODELS = 
+        Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_COMPILED_CONTENT_MODELS_PROPERTY;
+
+    /** Property identifier: identity constraint spill threshold. */
+    protected static final String IDC_SPILL_THRESHOLD = 
+        Constants.XERCES_PROPERTY_PREFIX + Constants.IDC_SPILL_THRESHOLD_PROPERTY;
     
     // recognized features and properties
 
@@ -278,7 +298,9 @@ public class XMLSchemaValidator
             IDENTITY_CONSTRAINT_CHECKING,
             UNPARSED_ENTITY_CHECKING,
             NAMESPACE_GROWTH,
-            TOLERATE_DUPLICATES
+            TOLERATE_DUPLICATES,
+            PARALLEL_SCHEMA_LOADING,
+            LAZY_SCHEMA_TRAVERSAL
         };
 
 
@@ -309,6 +331,8 @@ public class XMLSchemaValidator
         null,
         null,
         null,
+        null,
+        null,
         null
     };
 
@@ -326,10 +350,12 @@ public class XMLSchemaValidator
             ROOT_TYPE_DEF,
             ROOT_ELEMENT_DECL,
             SCHEMA_DV_FACTORY,
+            COMPILED_CONTENT_MODELS,
+            IDC_SPILL_THRESHOLD,
         };
 
     /** Property defaults. */
-    private static final Object[] PROPERTY_DEFAULTS = { null, null, null, null, null, null, null, null, null, null, null};
+    private static final Object[] PROPERTY_DEFAULTS = { null, null, null, null, null, null, null, null, null, null, null, null, null};
 
     // this is the number of valuestores of each kind
     // we expect an element to have.  It's almost
@@ -610,6 +636,12 @@ public class XMLSchemaValidator
                 fRootElementDeclQName = null;
             }
         }
+        else if (propertyId.equals(COMPILED_CONTENT_MODELS)) {
+            fCMBuilder.setCompiledContentModels((CompiledContentModels) value);
+        }
+        else if (propertyId.equals(IDC_SPILL_THRESHOLD)) {
+            fIDCSpillThreshold = (value != null) ? ((Integer) value).intValue() : 0;
+        }
     } // setProperty(String,Object)
 
     /**
@@ -1275,6 +1307,13 @@ public class XMLSchemaValidator
     private int fIgnoreXSITypeDepth;
     
     private boolean fIDCChecking;
+    
+    /** 
+     * Number of value tuples an identity constraint value store keeps in
+     * memory before storing them in temporary files, or 0 to keep them all
+     * in memory.
+     */
+    private int fIDCSpillThreshold = 0;
 
     /** temporary validated info */
     private ValidatedInfo fValidatedInfo = new ValidatedInfo();
@@ -1319,6 +1358,14 @@ public class XMLSchemaValidator
 
     } // <init>()
 
+    /**
+     * Deletes the temporary files holding identity constraint values,
+     * which are left when the document was not validated to its end.
+     */
+    public void deleteSpillFiles() {
+        fValueStoreCache.deleteSpillFiles();
+    } // deleteSpillFiles()
+
     /*
      * Resets the component. The component can query the component manager
      * about any features and properties that affect the operation of the
@@ -1570,6 +1617,20 @@ public class XMLSchemaValidator
             fGrammarPool = null;
         }
 
+        try {
+            fCMBuilder.setCompiledContentModels(
+                (CompiledContentModels) componentManager.getProperty(COMPILED_CONTENT_MODELS));
+        } catch (XMLConfigurationException e) {
+            fCMBuilder.setCompiledContentModels(null);
+        }
+
+        try {
+            final Integer threshold = (Integer) componentManager.getProperty(IDC_SPILL_THRESHOLD);
+            fIDCSpillThreshold = (threshold != null) ? threshold.intValue() : 0;
+        } catch (XMLConfigurationException e) {
+            fIDCSpillThreshold = 0;
+        }
+
         fState4XsiType.setSymbolTable(symbolTable);
         fState4ApplyDefault.setSymbolTable(symbolTable);
 
@@ -2289,11 +2350,7 @@ public class XMLSchemaValidator
         }
 
         // call all active identity constraints
-        int count = fMatcherStack.getMatcherCount();
-        for (int i = 0; i < count; i++) {
-            XPathMatcher matcher = fMatcherStack.getMatcherAt(i);
-            matcher.startElement( element, attributes);
-        }
+        fMatcherStack.startElement(element, attributes);
 
         if (fAugPSVI) {
             augs = getEmptyAugs(augs);
@@ -2375,8 +2432,8 @@ public class XMLSchemaValidator
             
             // call matchers and de-activate context
             int oldCount = fMatcherStack.getMatcherCount();
-            for (int i = oldCount - 1; i >= 0; i--) {
-                XPathMatcher matcher = fMatcherStack.getMatcherAt(i);
+            for (int i = fMatcherStack.getElementMatcherCount() - 1; i >= 0; i--) {
+                XPathMatcher matcher = fMatcherStack.getElementMatcherAt(i);
                 if (fCurrentElemDecl == null) {
                     matcher.endElement(element, fCurrentType, false, fValidatedInfo.actualValue, fValidatedInfo.actualValueType, fValidatedInfo.itemValueTypes);
                 }
@@ -2465,9 +2522,10 @@ public class XMLSchemaValidator
             grammars = fGrammarBucket.getGrammars();
             // return the final set of grammars validator ended up with
             if (fGrammarPool != null) {
-                // Set grammars as immutable
+                // Set grammars as immutable, and compact them
                 for (int k=0; k < grammars.length; k++) {
                     grammars[k].setImmutable(true);
+                    grammars[k].compact();
                 }
                 fGrammarPool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, grammars);
             }
@@ -3599,6 +3657,12 @@ public class XMLSchemaValidator
 
     /**
      * Stack of XPath matchers for identity constraints.
+     * <p>
+     * Element events are only sent to the matchers they may affect. For
+     * each context, the matchers which received the start of the element
+     * are indexed by the names their next steps expect of the children,
+     * so that the matchers receiving the start of a child are found by
+     * looking up its name, whatever the number of active matchers.
      *
      * @author Andy Clark, IBM
      */
@@ -3617,6 +3681,9 @@ public class XMLSchemaValidator
         /** Offset stack for contexts. */
         protected IntStack fContextStack = new IntStack();
 
+        /** The matchers of each context, indexed by child names. */
+        private MatcherIndex[] fIndexes = new MatcherIndex[8];
+
         //
         // Constructors
         //
@@ -3637,6 +3704,52 @@ public class XMLSchemaValidator
             fContextStack.clear();
         } // clear()
 
+        /**
+         * Sends the start of an element to the matchers it may affect,
+         * and indexes them for the children of the element.
+         */
+        public void startElement(QName element, XMLAttributes attributes) {
+            final int depth = fContextStack.size();
+            if (depth == 0) {
+                return;
+            }
+            final MatcherIndex index = fIndexes[depth - 1];
+            if (depth > 1) {
+                fIndexes[depth - 2].lookup(element, index);
+            }
+            // add the matchers activated by this element
+            final int count = fMatchersCount;
+            for (int i = fContextStack.peek(); i < count; i++) {
+                index.addMatcher(i);
+            }
+            final int matcherCount = index.fMatcherCount;
+            for (int i = 0; i < matcherCount; i++) {
+                fMatchers[index.fMatchers[i]].startElement(element, attributes);
+            }
+            // add the field matchers activated by selectors
+            for (int i = count; i < fMatchersCount; i++) {
+                index.addMatcher(i);
+            }
+            index.build(fMatchers);
+        } // startElement(QName,XMLAttributes)
+
+        /**
+         * Returns the count of XPath matchers which received the start of
+         * the current element.
+         */
+        public int getElementMatcherCount() {
+            final int depth = fContextStack.size();
+            return depth > 0 ? fIndexes[depth - 1].fMatcherCount : 0;
+        } // getElementMatcherCount():int
+
+        /**
+         * Returns the XPath matcher at the specified index among those
+         * which received the start of the current element.
+         */
+        public XPathMatcher getElementMatcherAt(int index) {
+            return fMatchers[fIndexes[fContextStack.size() - 1].fMatchers[index]];
+        } // getElementMatcherAt(int):XPathMatcher
+
         /** Returns the size of the stack. */
         public int size() {
             return fContextStack.size();
@@ -3661,6 +3774,16 @@ public class XMLSchemaValidator
         /** Pushes a new context onto the stack. */
         public void pushContext() {
             fContextStack.push(fMatchersCount);
+            final int depth = fContextStack.size();
+            if (depth > fIndexes.length) {
+                MatcherIndex[] array = new MatcherIndex[fIndexes.length * 2];
+                System.arraycopy(fIndexes, 0, array, 0, fIndexes.length);
+                fIndexes = array;
+            }
+            if (fIndexes[depth - 1] == null) {
+                fIndexes[depth - 1] = new MatcherIndex();
+            }
+            fIndexes[depth - 1].clear();
         } // pushContext()
 
         /** Pops a context off of the stack. */
@@ -3681,6 +3804,144 @@ public class XMLSchemaValidator
             }
         } // ensureMatcherCapacity()
 
+        //
+        // Classes
+        //
+
+        /**
+         * The matchers which received the start of an element, in the
+         * order of the stack, indexed by the names of the children which
+         * may advance them.
+         */
+        private static final class MatcherIndex {
+
+            /** Positions in the stack of the matchers. */
+            int[] fMatchers = new int[4];
+
+            /** Count of matchers. */
+            int fMatcherCount;
+
+            /** Matchers which any child may advance. */
+            private int[] fAnyChild = new int[4];
+
+            /** Count of matchers which any child may advance. */
+            private int fAnyChildCount;
+
+            /** The names of the children, with their matchers. */
+            private QName[] fNames = new QName[4];
+            private int[] fNamedMatchers = new int[4];
+            private int[] fNext = new int[4];
+            private int fNamedCount;
+
+            /** Hash table of the names, holding the first of each chain. */
+            private int[] fBuckets = new int[8];
+
+            /** Clears the index. */
+            void clear() {
+                fMatcherCount = 0;
+                fAnyChildCount = 0;
+                for (int i = 0; i < fNamedCount; i++) {
+                    fNames[i] = null;
+                }
+                fNamedCount = 0;
+            } // clear()
+
+            /** Adds a matcher, after all the matchers already added. */
+            void addMatcher(int matcher) {
+                if (fMatcherCount == fMatchers.length) {
+                    fMatchers = grow(fMatchers);
+                }
+                fMatchers[fMatcherCount++] = matcher;
+            } // addMatcher(int)
+
+            /** Indexes the matchers by the names of the children. */
+            void build(XPathMatcher[] matchers) {
+                for (int i = 0; i < fMatcherCount; i++) {
+                    final int matcher = fMatchers[i];
+                    final XPathMatcher m = matchers[matcher];
+                    final int count = m.getChildNameCount();
+                    if (count == XPathMatcher.ANY_CHILD) {
+                        if (fAnyChildCount == fAnyChild.length) {
+                            fAnyChild = grow(fAnyChild);
+                        }
+                        fAnyChild[fAnyChildCount++] = matcher;
+                    }
+                    for (int j = 0; j < count; j++) {
+                        if (fNamedCount == fNames.length) {
+                            QName[] names = new QName[fNamedCount * 2];
+                            System.arraycopy(fNames, 0, names, 0, fNamedCount);
+                            fNames = names;
+                            fNamedMatchers = grow(fNamedMatchers);
+                            fNext = grow(fNext);
+                        }
+                        fNames[fNamedCount] = m.getChildName(j);
+                        fNamedMatchers[fNamedCount++] = matcher;
+                    }
+                }
+                if (fNamedCount > 0) {
+                    int size = fBuckets.length;
+                    while (size < fNamedCount * 2) {
+                        size <<= 1;
+                    }
+                    if (size != fBuckets.length) {
+                        fBuckets = new int[size];
+                    }
+                    Arrays.fill(fBuckets, -1);
+                    // chain in reverse, so that chains are in stack order
+                    for (int i = fNamedCount - 1; i >= 0; i--) {
+                        final int bucket = hash(fNames[i].localpart) & (size - 1);
+                        fNext[i] = fBuckets[bucket];
+                        fBuckets[bucket] = i;
+                    }
+                }
+            } // build(XPathMatcher[])
+
+            /**
+             * Adds to the given index the matchers which a child element
+             * with the given name may affect, in the order of the stack.
+             */
+            void lookup(QName element, MatcherIndex index) {
+                int i = 0;
+                int entry = -1;
+                if (fNamedCount > 0) {
+                    entry = fBuckets[hash(element.localpart) & (fBuckets.length - 1)];
+                    while (entry != -1 && !fNames[entry].equals(element)) {
+                        entry = fNext[entry];
+                    }
+                }
+                // merge the matchers of the name with those of any child
+                while (i < fAnyChildCount || entry != -1) {
+                    int matcher;
+                    if (entry == -1 ||
+                        (i < fAnyChildCount && fAnyChild[i] < fNamedMatchers[entry])) {
+                        matcher = fAnyChild[i++];
+                    }
+                    else {
+                        matcher = fNamedMatchers[entry];
+                        do {
+                            entry = fNext[entry];
+                        }
+                        while (entry != -1 && !fNames[entry].equals(element));
+                    }
+                    if (index.fMatcherCount == 0 ||
+                        index.fMatchers[index.fMatcherCount - 1] != matcher) {
+                        index.addMatcher(matcher);
+                    }
+                }
+            } // lookup(QName,MatcherIndex)
+
+            private static int hash(String localpart) {
+                return localpart != null ? localpart.hashCode() : 0;
+            } // hash(String):int
+
+            private static int[] grow(int[] array) {
+                int[] newArray = new int[array.length * 2];
+                System.arraycopy(array, 0, newArray, 0, array.length);
+                return newArray;
+            } // grow(int[]):int[]
+
+        } // class MatcherIndex
+
     } // class XPathMatcherStack
 
     // value store implementations
@@ -3693,6 +3954,13 @@ public class XMLSchemaValidator
      */
     protected abstract class ValueStoreBase implements ValueStore {
 
+        //
+        // Constants
+        //
+
+        /** Initial number of buckets of the hash index. */
+        private static final int INITIAL_TUPLE_BUCKETS = 16;
+
         //
         // Data
         //
@@ -3723,6 +3991,29 @@ public class XMLSchemaValidator
         private int fItemValueTypesLength = 0;
         private ShortList fItemValueType = null;
 
+        /** 
+         * Hash index of the value tuples, by tuple number: the hash codes,
+         * the chains of tuples with the same bucket, and the first tuple
+         * of each bucket. Tuple numbers are stored plus one, so that zero
+         * ends a chain. It is only built for the stores which are looked
+         * up, and is brought up to date on each lookup.
+         */
+        private int fIndexedTupleCount = 0;
+        private int[] fTupleHashes = null;
+        private int[] fTupleNext = null;
+        private int[] fTupleBuckets = null;
+
+        /** 
+         * Tuples stored in temporary files, once more than the spill 
+         * threshold were in memory.
+         */
+        private ValueRuns fRuns = null;
+
+        /** tuple of another value store being looked up */
+        private final Object[] fTempValues;
+        private final short[] fTempValueTypes;
+        private final ShortList[] fTempItemValueTypes;
+
         /** buffer for error messages */
         final StringBuffer fTempBuffer = new StringBuffer();
 
@@ -3738,6 +4029,9 @@ public class XMLSchemaValidator
             fLocalValues = new Object[fFieldCount];
             fLocalValueTypes = new short[fFieldCount];
             fLocalItemValueTypes = new ShortList[fFieldCount];
+            fTempValues = new Object[fFieldCount];
+            fTempValueTypes = new short[fFieldCount];
+            fTempItemValueTypes = new ShortList[fFieldCount];
             for (int i = 0; i < fFieldCount; i++) {
                 fFields[i] = fIdentityConstraint.getFieldAt(i);
             }
@@ -3751,6 +4045,14 @@ public class XMLSchemaValidator
         // locally-scoped ID constraint is involved.
         public void clear() {
             fValuesCount = 0;
+            clearValues();
+            if (fRuns != null) {
+                fRuns.clear();
+            }
+        } // end clear():void
+
+        // removes the values held in memory.
+        private void clearValues() {
             fUseValueTypeVector = false;
             fValueTypesLength = 0; 
             fValueType = 0;
@@ -3764,13 +4066,28 @@ public class XMLSchemaValidator
             if (fItemValueTypes != null) {
                 fItemValueTypes.setSize(0);
             }
-        } // end clear():void
+            fIndexedTupleCount = 0;
+            fTupleHashes = null;
+            fTupleNext = null;
+            fTupleBuckets = null;
+        } // clearValues():void
 
         // appends the contents of one ValueStore to those of us.
         public void append(ValueStoreBase newVal) {
+            if (newVal.fRuns != null && !newVal.fRuns.isEmpty()) {
+                try {
+                    getRuns().addAll(newVal.fRuns);
+                }
+                catch (IOException e) {
+                    throw new XNIException(e);
+                }
+            }
             for (int i = 0; i < newVal.fValues.size(); i++) {
                 fValues.addElement(newVal.fValues.elementAt(i));
+                addValueType(newVal.getValueTypeAt(i));
+                addItemValueType(newVal.getItemValueTypeAt(i));
             }
+            spillValues();
         } // append(ValueStoreBase)
 
         /** Start scope for value store. */
@@ -3882,13 +4199,18 @@ public class XMLSchemaValidator
             fLocalValueTypes[i] = valueType;
             fLocalItemValueTypes[i] = itemValueType;
             if (fValuesCount == fFieldCount) {
-                checkDuplicateValues();
+                // duplicates are found at the end of the scope when 
+                // values may be stored in temporary files
+                if (fIDCSpillThreshold == 0) {
+                    checkDuplicateValues();
+                }
                 // store values
                 for (i = 0; i < fFieldCount; i++) {
                     fValues.addElement(fLocalValues[i]);
                     addValueType(fLocalValueTypes[i]);
                     addItemValueType(fLocalItemValueTypes[i]);
                 }
+                spillValues();
             }
         } // addValue(String,Field)
 
@@ -3896,33 +4218,7 @@ public class XMLSchemaValidator
          * Returns true if this value store contains the locally scoped value stores
          */
         public boolean contains() {
-            // REVISIT: we can improve performance by using hash codes, instead of
-            // traversing global vector that could be quite large.
-            int next = 0;
-            final int size = fValues.size();
-            LOOP : for (int i = 0; i < size; i = next) {
-                next = i + fFieldCount;
-                for (int j = 0; j < fFieldCount; j++) {
-                    Object value1 = fLocalValues[j];
-                    Object value2 = fValues.elementAt(i);
-                    short valueType1 = fLocalValueTypes[j];
-                    short valueType2 = getValueTypeAt(i);
-                    if (value1 == null || value2 == null || valueType1 != valueType2 || !(value1.equals(value2))) {
-                        continue LOOP;
-                    }
-                    else if(valueType1 == XSConstants.LIST_DT || valueType1 == XSConstants.LISTOFUNION_DT) {
-                        ShortList list1 = fLocalItemValueTypes[j];
-                        ShortList list2 = getItemValueTypeAt(i);
-                        if(list1 == null || list2 == null || !list1.equals(list2))
-                            continue LOOP;
-                    }
-                    i++;
-                }
-                // found it
-                return true;
-            }
-            // didn't find it
-            return false;
+            return containsTuple(fLocalValues, fLocalValueTypes, fLocalItemValueTypes, false);
         } // contains():boolean
 
         /**
@@ -3932,47 +4228,16 @@ public class XMLSchemaValidator
          */
         public int contains(ValueStoreBase vsb) {
             
-            final Vector values = vsb.fValues;         
-            final int size1 = values.size();
-            if (fFieldCount <= 1) {
-                for (int i = 0; i < size1; ++i) {
-                    short val = vsb.getValueTypeAt(i);
-                    if (!valueTypeContains(val) || !fValues.contains(values.elementAt(i))) {
-                        return i;
-                    }
-                    else if(val == XSConstants.LIST_DT || val == XSConstants.LISTOFUNION_DT) {
-                        ShortList list1 = vsb.getItemValueTypeAt(i);
-                        if (!itemValueTypeContains(list1)) {
-                            return i;
-                        }
-                    }
+            final Vector values = vsb.fValues;
+            final int size = values.size();
+            /** Check whether each set of fields is contained in the value store. **/
+            for (int i = 0; i < size; i += fFieldCount) {
+                for (int k = 0; k < fFieldCount; ++k) {
+                    fTempValues[k] = values.elementAt(i + k);
+                    fTempValueTypes[k] = vsb.getValueTypeAt(i + k);
+                    fTempItemValueTypes[k] = vsb.getItemValueTypeAt(i + k);
                 }
-            }
-            /** Handle n-tuples. **/
-            else {
-                final int size2 = fValues.size();
-                /** Iterate over each set of fields. **/
-                OUTER: for (int i = 0; i < size1; i += fFieldCount) {
-                    /** Check whether this set is contained in the value store. **/
-                    INNER: for (int j = 0; j < size2; j += fFieldCount) {
-                        for (int k = 0; k < fFieldCount; ++k) {
-                            final Object value1 = values.elementAt(i+k);
-                            final Object value2 = fValues.elementAt(j+k);
-                            final short valueType1 = vsb.getValueTypeAt(i+k);
-                            final short valueType2 = getValueTypeAt(j+k);
-                            if (value1 != value2 && (valueType1 != valueType2 || value1 == null || !value1.equals(value2))) {
-                                continue INNER;
-                            }
-                            else if(valueType1 == XSConstants.LIST_DT || valueType1 == XSConstants.LISTOFUNION_DT) {
-                                ShortList list1 = vsb.getItemValueTypeAt(i+k);
-                                ShortList list2 = getItemValueTypeAt(j+k);
-                                if (list1 == null || list2 == null || !list1.equals(list2)) {
-                                    continue INNER;
-                                }
-                            }
-                        }
-                        continue OUTER;
-                    }
+                if (!containsTuple(fTempValues, fTempValueTypes, fTempItemValueTypes, true)) {
                     return i;
                 }
             }
@@ -4083,13 +4348,6 @@ public class XMLSchemaValidator
             return fValueType;
         }
         
-        private boolean valueTypeContains(short value) {
-            if (fUseValueTypeVector) {
-                return fValueTypes.contains(value);
-            }
-            return fValueType == value;
-        }
-        
         private void addItemValueType(ShortList itemValueType) {
             if (fUseItemValueTypeVector) {
                 fItemValueTypes.add(itemValueType);
@@ -4117,12 +4375,267 @@ public class XMLSchemaValidator
             return fItemValueType;
         }
         
-        private boolean itemValueTypeContains(ShortList value) {
-            if (fUseItemValueTypeVector) {
-                return fItemValueTypes.contains(value);
+        /**
+         * Returns true if the value store contains the given tuple of values.
+         * Absent values only match absent values from another value store.
+         */
+        private boolean containsTuple(Object[] values, short[] valueTypes, 
+                ShortList[] itemValueTypes, boolean matchAbsent) {
+            indexTuples();
+            final int hash = hashTuple(values);
+            for (int tuple = fTupleBuckets[hash & (fTupleBuckets.length - 1)] - 1; 
+                tuple >= 0; tuple = fTupleNext[tuple] - 1) {
+                if (fTupleHashes[tuple] == hash && 
+                        tupleEquals(tuple, values, valueTypes, itemValueTypes, matchAbsent)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private boolean tupleEquals(int tuple, Object[] values, short[] valueTypes, 
+                ShortList[] itemValueTypes, boolean matchAbsent) {
+            final int start = tuple * fFieldCount;
+            for (int k = 0; k < fFieldCount; ++k) {
+                if (!valueEquals(values[k], valueTypes[k], itemValueTypes[k], 
+                        fValues.elementAt(start + k), getValueTypeAt(start + k), 
+                        getItemValueTypeAt(start + k), matchAbsent)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private boolean tupleEquals(Object[] values1, short[] valueTypes1, ShortList[] itemValueTypes1,
+                Object[] values2, short[] valueTypes2, ShortList[] itemValueTypes2, boolean matchAbsent) {
+            for (int k = 0; k < fFieldCount; ++k) {
+                if (!valueEquals(values1[k], valueTypes1[k], itemValueTypes1[k], 
+                        values2[k], valueTypes2[k], itemValueTypes2[k], matchAbsent)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private boolean valueEquals(Object value1, short valueType1, ShortList itemValueType1, 
+                Object value2, short valueType2, ShortList itemValueType2, boolean matchAbsent) {
+            if (value1 == null || value2 == null) {
+                return matchAbsent && value1 == value2;
+            }
+            if (valueType1 != valueType2 || !value1.equals(value2)) {
+                return false;
+            }
+            if (valueType1 == XSConstants.LIST_DT || valueType1 == XSConstants.LISTOFUNION_DT) {
+                return itemValueType1 != null && itemValueType2 != null && 
+                    itemValueType1.equals(itemValueType2);
+            }
+            return true;
+        }
+        
+        /**
+         * Reports each tuple equal to a tuple stored before it, once all the
+         * tuples of the scope have been stored.
+         */
+        protected void checkSpilledDuplicates(String code) {
+            ValueRuns.Cursor cursor = null;
+            try {
+                cursor = getRuns().open(getTuples());
+                // the distinct tuples with the current hash code
+                final ArrayList group = new ArrayList();
+                int hash = 0;
+                while (cursor.next()) {
+                    if (cursor.getHash() != hash) {
+                        group.clear();
+                        hash = cursor.getHash();
+                    }
+                    if (groupContains(group, cursor, false)) {
+                        String value = toString(cursor.getValues());
+                        String eName = fIdentityConstraint.getElementName();
+                        String cName = fIdentityConstraint.getIdentityConstraintName();
+                        reportSchemaError(code, new Object[] { value, eName, cName });
+                    }
+                    else {
+                        group.add(copyTuple(cursor));
+                    }
+                }
+            }
+            catch (IOException e) {
+                throw new XNIException(e);
+            }
+            finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            }
+        }
+        
+        /**
+         * Returns the values of the first tuple of this value store which
+         * is not contained in the given value store, or null, reading the 
+         * tuples of both stores from temporary files when needed.
+         */
+        protected Object[] findSpilledMissingTuple(ValueStoreBase vsb) {
+            ValueRuns.Cursor cursor = null;
+            ValueRuns.Cursor keys = null;
+            try {
+                cursor = getRuns().open(getTuples());
+                keys = vsb.getRuns().open(vsb.getTuples());
+                boolean hasKey = keys.next();
+                // the tuples of the other store with the current hash code
+                final ArrayList group = new ArrayList();
+                boolean hasGroup = false;
+                int hash = 0;
+                while (cursor.next()) {
+                    if (!hasGroup || cursor.getHash() != hash) {
+                        group.clear();
+                        hasGroup = true;
+                        hash = cursor.getHash();
+                        while (hasKey && keys.getHash() < hash) {
+                            hasKey = keys.next();
+                        }
+                        while (hasKey && keys.getHash() == hash) {
+                            if (!groupContains(group, keys, true)) {
+                                group.add(copyTuple(keys));
+                            }
+                            hasKey = keys.next();
+                        }
+                    }
+                    if (!groupContains(group, cursor, true)) {
+                        return (Object[]) cursor.getValues().clone();
+                    }
+                }
+                return null;
+            }
+            catch (IOException e) {
+                throw new XNIException(e);
+            }
+            finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+                if (keys != null) {
+                    keys.close();
+                }
+            }
+        }
+        
+        private boolean groupContains(ArrayList group, ValueRuns.Cursor cursor, boolean matchAbsent) {
+            for (int i = 0; i < group.size(); ++i) {
+                final Object[] tuple = (Object[]) group.get(i);
+                if (tupleEquals((Object[]) tuple[0], (short[]) tuple[1], (ShortList[]) tuple[2], 
+                        cursor.getValues(), cursor.getValueTypes(), cursor.getItemValueTypes(), matchAbsent)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private Object[] copyTuple(ValueRuns.Cursor cursor) {
+            return new Object[] { cursor.getValues().clone(), 
+                cursor.getValueTypes().clone(), cursor.getItemValueTypes().clone() };
+        }
+        
+        /** Stores the tuples in memory in a temporary file if there are too many. */
+        private void spillValues() {
+            if (fIDCSpillThreshold > 0 && fValues.size() / fFieldCount >= fIDCSpillThreshold) {
+                try {
+                    getRuns().addRun(getTuples());
+                }
+                catch (IOException e) {
+                    throw new XNIException(e);
+                }
+                clearValues();
+            }
+        }
+        
+        private ValueRuns getRuns() {
+            if (fRuns == null) {
+                fRuns = new ValueRuns(fFieldCount, fValueStoreCache.fSpillFiles);
+            }
+            return fRuns;
+        }
+        
+        /** Returns the tuples held in memory, sorted by hash code. */
+        private ValueRuns.Tuples getTuples() {
+            final int count = fValues.size() / fFieldCount;
+            final ValueRuns.Tuples tuples = new ValueRuns.Tuples(fFieldCount, count);
+            for (int tuple = 0; tuple < count; ++tuple) {
+                final int start = tuple * fFieldCount;
+                for (int k = 0; k < fFieldCount; ++k) {
+                    fTempValues[k] = fValues.elementAt(start + k);
+                    fTempValueTypes[k] = getValueTypeAt(start + k);
+                    fTempItemValueTypes[k] = getItemValueTypeAt(start + k);
+                }
+                tuples.add(hashTuple(fTempValues), fTempValues, fTempValueTypes, fTempItemValueTypes);
+            }
+            tuples.sort();
+            return tuples;
+        }
+        
+        /** Adds the tuples stored since the last lookup to the hash index. */
+        private void indexTuples() {
+            final int count = fValues.size() / fFieldCount;
+            if (fTupleBuckets == null) {
+                fTupleBuckets = new int[INITIAL_TUPLE_BUCKETS];
+                fTupleHashes = new int[INITIAL_TUPLE_BUCKETS];
+                fTupleNext = new int[INITIAL_TUPLE_BUCKETS];
+            }
+            if (count > fTupleHashes.length) {
+                final int length = Math.max(count, fTupleHashes.length << 1);
+                int[] newArray = new int[length];
+                System.arraycopy(fTupleHashes, 0, newArray, 0, fIndexedTupleCount);
+                fTupleHashes = newArray;
+                newArray = new int[length];
+                System.arraycopy(fTupleNext, 0, newArray, 0, fIndexedTupleCount);
+                fTupleNext = newArray;
+            }
+            if (count << 2 > fTupleBuckets.length * 3) {
+                // keep at most three tuples for four buckets
+                int length = fTupleBuckets.length << 1;
+                while (count << 2 > length * 3) {
+                    length <<= 1;
+                }
+                fTupleBuckets = new int[length];
+                for (int tuple = 0; tuple < fIndexedTupleCount; ++tuple) {
+                    linkTuple(tuple);
+                }
             }
-            return fItemValueType == value || 
-                (fItemValueType != null && fItemValueType.equals(value));
+            for (int tuple = fIndexedTupleCount; tuple < count; ++tuple) {
+                fTupleHashes[tuple] = hashTuple(fValues, tuple * fFieldCount);
+                linkTuple(tuple);
+            }
+            fIndexedTupleCount = count;
+        }
+        
+        private void linkTuple(int tuple) {
+            final int bucket = fTupleHashes[tuple] & (fTupleBuckets.length - 1);
+            fTupleNext[tuple] = fTupleBuckets[bucket];
+            fTupleBuckets[bucket] = tuple + 1;
+        }
+        
+        private int hashTuple(Object[] values) {
+            int hash = 0;
+            for (int k = 0; k < fFieldCount; ++k) {
+                hash = hash * 31 + hashValue(values[k]);
+            }
+            return hash;
+        }
+        
+        private int hashTuple(Vector values, int start) {
+            int hash = 0;
+            for (int k = 0; k < fFieldCount; ++k) {
+                hash = hash * 31 + hashValue(values.elementAt(start + k));
+            }
+            return hash;
+        }
+        
+        private int hashValue(Object value) {
+            if (value == null) {
+                return 0;
+            }
+            // spread the high bits of the hash code to the buckets
+            final int hash = value.hashCode();
+            return hash ^ (hash >>> 16);
         }
 
     } // class ValueStoreBase
@@ -4161,6 +4674,14 @@ public class XMLSchemaValidator
             }
         } // duplicateValue(Hashtable)
 
+        /** Checks the values stored in temporary files, if any. */
+        public void endDocumentFragment() {
+            super.endDocumentFragment();
+            if (fIDCSpillThreshold > 0) {
+                checkSpilledDuplicates("DuplicateUnique");
+            }
+        } // endDocumentFragment()
+
     } // class UniqueValueStore
 
     /**
@@ -4198,6 +4719,14 @@ public class XMLSchemaValidator
             }
         } // duplicateValue(Hashtable)
 
+        /** Checks the values stored in temporary files, if any. */
+        public void endDocumentFragment() {
+            super.endDocumentFragment();
+            if (fIDCSpillThreshold > 0) {
+                checkSpilledDuplicates("DuplicateKey");
+            }
+        } // endDocumentFragment()
+
     } // class KeyValueStore
 
     /**
@@ -4248,6 +4777,17 @@ public class XMLSchemaValidator
                 reportSchemaError(code, new Object[] { value });
                 return;
             }
+            if (fIDCSpillThreshold > 0) {
+                Object[] missing = findSpilledMissingTuple(fKeyValueStore);
+                if (missing != null) {
+                    String code = "KeyNotFound";
+                    String values = toString(missing);
+                    String element = fIdentityConstraint.getElementName();
+                    String name = fIdentityConstraint.getName();
+                    reportSchemaError(code, new Object[] { name, values, element });
+                }
+                return;
+            }
             int errorIndex = fKeyValueStore.contains(this);
             if (errorIndex != -1) {
                 String code = "KeyNotFound";
@@ -4319,6 +4859,9 @@ public class XMLSchemaValidator
         protected final Stack fGlobalMapStack = new Stack();
         protected final HashMap fGlobalIDConstraintMap = new HashMap();
 
+        /** The temporary files of the value stores of the document. */
+        final ArrayList fSpillFiles = new ArrayList();
+
         //
         // Constructors
         //
@@ -4333,6 +4876,7 @@ public class XMLSchemaValidator
 
         /** Resets the identity constraint cache. */
         public void startDocument() {
+            deleteSpillFiles();
             fValueStores.clear();
             fIdentityConstraint2ValueStoreMap.clear();
             fGlobalIDConstraintMap.clear();
@@ -4462,6 +5006,9 @@ public class XMLSchemaValidator
                 (ValueStoreBase) fIdentityConstraint2ValueStoreMap.get(fLocalId);
             if (id.getCategory() == IdentityConstraint.IC_KEYREF)
                 return;
+            if (newVals.fHasValue) {
+                newVals.endDocumentFragment();
+            }
             ValueStoreBase currVals = (ValueStoreBase) fGlobalIDConstraintMap.get(id);
             if (currVals != null) {
                 currVals.append(newVals);
@@ -4479,9 +5026,18 @@ public class XMLSchemaValidator
                 ValueStoreBase valueStore = (ValueStoreBase) fValueStores.get(i);
                 valueStore.endDocument();
             }
+            deleteSpillFiles();
 
         } // endDocument()
 
+        /** Deletes the temporary files of the value stores. */
+        private void deleteSpillFiles() {
+            for (int i = 0; i < fSpillFiles.size(); i++) {
+                ((File) fSpillFiles.get(i)).delete();
+            }
+            fSpillFiles.clear();
+        } // deleteSpillFiles()
+
         //
         // Object methods
         //
@@ -17,6 +17,8 @@
 
 package org.apache.xerces.impl.xs;
 
+import java.io.Serializable;
+
 import org.apache.xerces.impl.dv.ValidatedInfo;
 import org.apache.xerces.impl.xs.util.XSObjectListImpl;
 import org.apache.xerces.xs.XSAnnotation;
@@ -38,7 +40,9 @@ import org.apache.xerces.xs.XSWildcard;
  *
  * @version $Id$
  */
-public class XSAttributeGroupDecl implements XSAttributeGroupDefinition {
+public class XSAttributeGroupDecl implements XSAttributeGroupDefinition, Serializable {
+
+    private static final long serialVersionUID = 3038188531082090887L;
 
     // name of the attribute group
     public String fName = null;
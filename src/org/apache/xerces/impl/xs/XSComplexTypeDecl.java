@@ -17,6 +17,8 @@
 
 package org.apache.xerces.impl.xs;
 
+import java.io.Serializable;
+
 import org.apache.xerces.impl.dv.XSSimpleType;
 import org.apache.xerces.impl.dv.xs.XSSimpleTypeDecl;
 import org.apache.xerces.impl.xs.models.CMBuilder;
@@ -43,7 +45,9 @@ import org.w3c.dom.TypeInfo;
  * @author Sandy Gao, IBM
  * @version $Id$
  */
-public class XSComplexTypeDecl implements XSComplexTypeDefinition, TypeInfo {
+public class XSComplexTypeDecl implements XSComplexTypeDefinition, TypeInfo, Serializable {
+
+    private static final long serialVersionUID = -650452145756450181L;
 
     // name of the complexType
     String fName = null;
@@ -83,7 +87,7 @@ public class XSComplexTypeDecl implements XSComplexTypeDefinition, TypeInfo {
     XSCMValidator fCMValidator = null;
 
     // the content model that's sufficient for computing UPA
-    XSCMValidator fUPACMValidator = null;
+    transient XSCMValidator fUPACMValidator = null;
 
     // list of annotations affiliated with this type
     XSObjectListImpl fAnnotations = null;
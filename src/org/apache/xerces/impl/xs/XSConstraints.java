@@ -357,6 +357,9 @@ public class XSConstraints {
         // get all grammars, and put all substitution group information
         // in the substitution group handler
         SchemaGrammar[] grammars = grammarBucket.getGrammars();
+        for (int i = grammars.length-1; i >= 0; i--) {
+            grammars[i].traverseAll();
+        }
         for (int i = grammars.length-1; i >= 0; i--) {
             SGHandler.addSubstitutionGroup(grammars[i].getSubstitutionGroups());
         }
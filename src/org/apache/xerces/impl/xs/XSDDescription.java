@@ -35,6 +35,9 @@ import org.apache.xerces.xni.grammars.XMLSchemaDescription;
  */
 public class XSDDescription extends XMLResourceIdentifierImpl 
                 implements XMLSchemaDescription {
+
+    private static final long serialVersionUID = -4423727813941541210L;
+
     // used to indicate what triggered the call
     /**
      * Indicate that this description was just initialized. 
@@ -96,7 +99,7 @@ public class XSDDescription extends XMLResourceIdentifierImpl
     protected String [] fLocationHints ;
     protected QName fTriggeringComponent;
     protected QName fEnclosedElementName;
-    protected XMLAttributes  fAttributes;
+    protected transient XMLAttributes  fAttributes;
         
     /**
      * the type of the grammar (e.g., DTD or XSD);
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.xs;
+
+/**
+ * Traverses the global components of schema grammars on demand. A grammar
+ * loaded with lazy traversal only holds the components traversed so far;
+ * when a component is looked up and not found, the grammar asks its
+ * traverser to traverse it.
+ * <p>
+ * The grammars synchronize on the traverser when calling its methods, and
+ * when looking up their components, until all of them are traversed.
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public interface XSLazyTraverser {
+
+    /**
+     * Traverses a global component of a grammar, unless it was traversed
+     * already or does not exist.
+     *
+     * @param grammar the grammar holding the component
+     * @param componentType the type of the component, one of the
+     *   <code>XSConstants</code> component types
+     * @param name the name of the component
+     */
+    public void traverseGlobalDecl(SchemaGrammar grammar, short componentType, String name);
+
+    /**
+     * Traverses all the components not traversed yet, and removes this
+     * traverser from its grammars.
+     */
+    public void traverseAll();
+}
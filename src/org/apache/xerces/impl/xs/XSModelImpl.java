@@ -178,6 +178,8 @@ public final class XSModelImpl extends AbstractList implements XSModel, XSNamesp
         // establish the mapping from namespace to grammars
         fGrammarMap = new SymbolHash(len*2);
         for (i = 0; i < len; i++) {
+            // the model reads the components of the grammars directly
+            fGrammarList[i].traverseAll();
             fGrammarMap.put(null2EmptyString(fNamespaces[i]), fGrammarList[i]);
             // update the idc field
             if (fGrammarList[i].hasIDConstraints()) {
@@ -17,6 +17,8 @@
 
 package org.apache.xerces.impl.xs;
 
+import java.io.Serializable;
+
 import org.apache.xerces.impl.xs.util.StringListImpl;
 import org.apache.xerces.impl.xs.util.XSObjectListImpl;
 import org.apache.xerces.xs.StringList;
@@ -37,7 +39,9 @@ import org.apache.xerces.xs.XSWildcard;
  *
  * @version $Id$
  */
-public class XSWildcardDecl implements XSWildcard {
+public class XSWildcardDecl implements XSWildcard, Serializable {
+
+    private static final long serialVersionUID = -8068738753862834996L;
 
     public static final String ABSENT = null;
 
@@ -17,6 +17,8 @@
 
 package org.apache.xerces.impl.xs.identity;
 
+import java.io.Serializable;
+
 import org.apache.xerces.impl.xpath.XPathException;
 import org.apache.xerces.util.SymbolTable;
 import org.apache.xerces.util.XMLChar;
@@ -34,7 +36,9 @@ import org.apache.xerces.xs.XSTypeDefinition;
  * @author Andy Clark, IBM
  * @version $Id$
  */
-public class Selector {
+public class Selector implements Serializable {
+
+    private static final long serialVersionUID = 6121358348747205456L;
 
     //
     // Data
@@ -108,6 +112,8 @@ public class Selector {
     public static class XPath
     extends org.apache.xerces.impl.xpath.XPath {
 
+        private static final long serialVersionUID = -4063587717335324904L;
+
         //
         // Constructors
         //
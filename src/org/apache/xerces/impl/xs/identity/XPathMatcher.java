@@ -80,6 +80,12 @@ public class XPathMatcher {
     // matched some previous (ancestor) node on the descendant-or-self-axis, but not this node
     protected static final int MATCHED_DESCENDANT_PREVIOUS = 13;
 
+    /**
+     * Returned by getChildNameCount() when any child element may
+     * advance the matcher.
+     */
+    public static final int ANY_CHILD = -1;
+
     //
     // Data
     //
@@ -107,6 +113,9 @@ public class XPathMatcher {
     
     final QName fQName = new QName();
 
+    /** The names of the child elements which may advance the matcher. */
+    private final QName[] fChildNames;
+
 
     //
     // Constructors
@@ -125,6 +134,7 @@ public class XPathMatcher {
         fCurrentStep = new int[fLocationPaths.length];
         fNoMatchDepth = new int[fLocationPaths.length];
         fMatched = new int[fLocationPaths.length];        
+        fChildNames = new QName[fLocationPaths.length];
     } // <init>(XPath)
 
     //
@@ -147,6 +157,46 @@ public class XPathMatcher {
         return false;
     } // isMatched():int
 
+    /**
+     * Returns the number of names a child element of the current element
+     * may have in order to advance this matcher, or ANY_CHILD if it may
+     * have any name. The subtree of a child element with any other name
+     * leaves this matcher unchanged, so that its events need not be sent
+     * to this matcher at all.
+     */
+    public int getChildNameCount() {
+        int count = 0;
+        for (int i = 0; i < fLocationPaths.length; i++) {
+            // paths which failed or matched ignore the children
+            if (fNoMatchDepth[i] > 0 || (fMatched[i] & MATCHED_DESCENDANT) == MATCHED) {
+                continue;
+            }
+            XPath.Step[] steps = fLocationPaths[i].steps;
+            if (fMatched[i] != 0 || fCurrentStep[i] == steps.length) {
+                return ANY_CHILD;
+            }
+            XPath.Step step = steps[fCurrentStep[i]];
+            if (step.axis.type != XPath.Axis.CHILD ||
+                step.nodeTest.type != XPath.NodeTest.QNAME) {
+                return ANY_CHILD;
+            }
+            int j = 0;
+            for (; j < count && !fChildNames[j].equals(step.nodeTest.name); j++);
+            if (j == count) {
+                fChildNames[count++] = step.nodeTest.name;
+            }
+        }
+        return count;
+    } // getChildNameCount():int
+
+    /**
+     * Returns a name a child element may have in order to advance this
+     * matcher, as counted by the last call to getChildNameCount().
+     */
+    public QName getChildName(int index) {
+        return fChildNames[index];
+    } // getChildName(int):QName
+
     //
     // Protected methods
     //
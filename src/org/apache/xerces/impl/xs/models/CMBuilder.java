@@ -49,6 +49,8 @@ public class CMBuilder {
     private int fParticleCount;
     //Factory to create Bin, Uni, Leaf nodes
     private final CMNodeFactory fNodeFactory;
+    // generated DFAs, used instead of building them when available
+    private CompiledContentModels fCompiledModels = null;
 
     public CMBuilder(CMNodeFactory nodeFactory) {
         fDeclPool = null;
@@ -59,6 +61,10 @@ public class CMBuilder {
         fDeclPool = declPool;
     }
 
+    public void setCompiledContentModels(CompiledContentModels compiledModels) {
+        fCompiledModels = compiledModels;
+    }
+
     /**
      * Get content model for the a given type
      *
@@ -90,7 +96,12 @@ public class CMBuilder {
             cmValidator = createAllCM(particle);
         }
         else {
-            cmValidator = createDFACM(particle, forUPA);
+            if (!forUPA && fCompiledModels != null) {
+                cmValidator = fCompiledModels.getContentModel(particle);
+            }
+            if (cmValidator == null) {
+                cmValidator = createDFACM(particle, forUPA);
+            }
         }
 
         //now we are throught building content model and have passed sucessfully of the nodecount check
@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.xs.models;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+
+import org.apache.xerces.impl.xs.SchemaGrammar;
+import org.apache.xerces.impl.xs.XSComplexTypeDecl;
+import org.apache.xerces.impl.xs.XSElementDecl;
+import org.apache.xerces.impl.xs.XSModelGroupImpl;
+import org.apache.xerces.impl.xs.XSParticleDecl;
+import org.apache.xerces.xs.XSComplexTypeDefinition;
+import org.apache.xerces.xs.XSConstants;
+import org.apache.xerces.xs.XSElementDeclaration;
+import org.apache.xerces.xs.XSModelGroupDefinition;
+import org.apache.xerces.xs.XSNamedMap;
+import org.apache.xerces.xs.XSTypeDefinition;
+
+/**
+ * Generates the Java source of a subclass of {@link CompiledContentModels}
+ * holding the DFAs of the content models of schema grammars.
+ * <p>
+ * The DFAs are those {@link XSDFACM} builds, so the generated content
+ * models accept the same documents and report the same errors. Content
+ * models which count occurrences, "all" groups, and DFAs too large for a
+ * Java method are not generated; they are built as usual.
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public class ContentModelCompiler {
+
+    //
+    // Constants
+    //
+
+    /** Maximum number of transitions of a generated DFA. */
+    private static final int MAX_TRANSITIONS = 2000;
+
+    /** Maximum number of states of a generated DFA. */
+    private static final int MAX_STATES = 0x7FFF;
+
+    /** Maximum number of generated DFAs. */
+    private static final int MAX_MODELS = 4000;
+
+    //
+    // Data
+    //
+
+    /** Builds the DFAs. */
+    private final CMBuilder fCMBuilder = new CMBuilder(new CMNodeFactory());
+
+    /** The keys of the generated DFAs. */
+    private final ArrayList<String> fKeys = new ArrayList<String>();
+
+    /** The generated DFAs. */
+    private final ArrayList<XSDFACM> fDFAs = new ArrayList<XSDFACM>();
+
+    /** The keys of the DFAs, to skip identical content models. */
+    private final HashSet<String> fKeySet = new HashSet<String>();
+
+    /** The types and groups already visited. */
+    private final IdentityHashMap<Object, Object> fVisited = new IdentityHashMap<Object, Object>();
+
+    /** The locations of the schema documents. */
+    private final ArrayList<String> fLocations = new ArrayList<String>();
+
+    /** The number of content models which cannot be generated. */
+    private int fSkippedCount = 0;
+
+    //
+    // Public methods
+    //
+
+    /** Adds the content models of the complex types of a grammar. */
+    public void addGrammar(SchemaGrammar grammar) {
+        for (int i = 0; i < grammar.getDocumentLocations().getLength(); ++i) {
+            fLocations.add(grammar.getDocumentLocations().item(i));
+        }
+        XSNamedMap components = grammar.getComponents(XSConstants.TYPE_DEFINITION);
+        for (int i = 0; i < components.getLength(); ++i) {
+            addType((XSTypeDefinition) components.item(i));
+        }
+        components = grammar.getComponents(XSConstants.ELEMENT_DECLARATION);
+        for (int i = 0; i < components.getLength(); ++i) {
+            addType(((XSElementDeclaration) components.item(i)).getTypeDefinition());
+        }
+        components = grammar.getComponents(XSConstants.MODEL_GROUP_DEFINITION);
+        for (int i = 0; i < components.getLength(); ++i) {
+            final XSModelGroupImpl group = (XSModelGroupImpl) ((XSModelGroupDefinition) components.item(i)).getModelGroup();
+            for (int j = 0; j < group.fParticleCount; ++j) {
+                addParticle(group.fParticles[j]);
+            }
+        }
+    } // addGrammar(SchemaGrammar)
+
+    /** Returns the number of content models which will be generated. */
+    public int getModelCount() {
+        return fDFAs.size();
+    } // getModelCount():int
+
+    /** Returns the number of content models which cannot be generated. */
+    public int getSkippedCount() {
+        return fSkippedCount;
+    } // getSkippedCount():int
+
+    /**
+     * Writes the source of the class.
+     *
+     * @param packageName The package of the class, or null.
+     * @param className   The name of the class.
+     * @param writer      Where to write the source.
+     */
+    public void writeSource(String packageName, String className, Writer writer) throws IOException {
+        final PrintWriter out = new PrintWriter(writer);
+        if (packageName != null && packageName.length() > 0) {
+            out.println("package " + packageName + ";");
+            out.println();
+        }
+        out.println("import org.apache.xerces.impl.xs.SubstitutionGroupHandler;");
+        out.println("import org.apache.xerces.impl.xs.models.CompiledContentModels;");
+        out.println("import org.apache.xerces.xni.QName;");
+        out.println();
+        out.println("/**");
+        out.println(" * Content models generated from the following schema documents; do not edit.");
+        out.println(" * <ul>");
+        for (int i = 0; i < fLocations.size(); ++i) {
+            out.println(" * <li>" + escapeComment(fLocations.get(i)) + "</li>");
+        }
+        out.println(" * </ul>");
+        out.println(" */");
+        out.println("public final class " + className + " extends CompiledContentModels {");
+        out.println();
+        writeTable(out, "KEYS", fKeys);
+        final ArrayList<String> ids = new ArrayList<String>();
+        final ArrayList<String> finals = new ArrayList<String>();
+        for (int i = 0; i < fDFAs.size(); ++i) {
+            final XSDFACM dfa = fDFAs.get(i);
+            final StringBuffer buffer = new StringBuffer();
+            for (int j = 0; j < dfa.getElemMapSize(); ++j) {
+                buffer.append(j > 0 ? " " : "").append(dfa.getElemParticleId(j));
+            }
+            ids.add(buffer.toString());
+            buffer.setLength(0);
+            for (int j = 0; j < dfa.getStateCount(); ++j) {
+                if (dfa.isFinalState(j)) {
+                    buffer.append(buffer.length() > 0 ? " " : "").append(j);
+                }
+            }
+            finals.add(buffer.toString());
+        }
+        writeTable(out, "PARTICLE_IDS", ids);
+        writeTable(out, "FINAL_STATES", finals);
+        out.println("    public " + className + "() {");
+        out.println("        super(KEYS, PARTICLE_IDS, FINAL_STATES);");
+        out.println("    }");
+        out.println();
+        out.println("    protected int transition(int model, int state, QName name,");
+        out.println("            Object[] decls, SubstitutionGroupHandler subGroupHandler) {");
+        out.println("        switch (model) {");
+        for (int i = 0; i < fDFAs.size(); ++i) {
+            out.println("            case " + i + ": return transition" + i + "(state, name, decls, subGroupHandler);");
+        }
+        out.println("        }");
+        out.println("        return NO_TRANSITION;");
+        out.println("    }");
+        for (int i = 0; i < fDFAs.size(); ++i) {
+            writeTransitions(out, i, fDFAs.get(i));
+        }
+        out.println();
+        out.println("}");
+        out.flush();
+    } // writeSource(String,String,Writer)
+
+    //
+    // Private methods
+    //
+
+    private void addType(XSTypeDefinition type) {
+        if (type == null || type.getTypeCategory() != XSTypeDefinition.COMPLEX_TYPE
+            || fVisited.put(type, type) != null) {
+            return;
+        }
+        final XSComplexTypeDecl complexType = (XSComplexTypeDecl) type;
+        final XSParticleDecl particle = (XSParticleDecl) complexType.getParticle();
+        if (particle == null) {
+            return;
+        }
+        final short contentType = complexType.getContentType();
+        if (contentType == XSComplexTypeDefinition.CONTENTTYPE_ELEMENT
+            || contentType == XSComplexTypeDefinition.CONTENTTYPE_MIXED) {
+            addModel(particle);
+        }
+        addParticle(particle);
+    } // addType(XSTypeDefinition)
+
+    private void addParticle(XSParticleDecl particle) {
+        if (particle.fType == XSParticleDecl.PARTICLE_ELEMENT) {
+            addType(((XSElementDecl) particle.fValue).fType);
+        }
+        else if (particle.fType == XSParticleDecl.PARTICLE_MODELGROUP) {
+            final XSModelGroupImpl group = (XSModelGroupImpl) particle.fValue;
+            if (fVisited.put(group, group) == null) {
+                for (int i = 0; i < group.fParticleCount; ++i) {
+                    addParticle(group.fParticles[i]);
+                }
+            }
+        }
+    } // addParticle(XSParticleDecl)
+
+    private void addModel(XSParticleDecl particle) {
+        if (particle.fType == XSParticleDecl.PARTICLE_MODELGROUP
+            && ((XSModelGroupImpl) particle.fValue).fCompositor == XSModelGroupImpl.MODELGROUP_ALL) {
+            return;
+        }
+        final String key = CompiledContentModels.getKey(particle, new ArrayList<XSParticleDecl>());
+        if (!fKeySet.add(key)) {
+            return;
+        }
+        final XSCMValidator cm = fCMBuilder.createDFACM(particle, false);
+        if (!(cm instanceof XSDFACM)) {
+            return;
+        }
+        final XSDFACM dfa = (XSDFACM) cm;
+        if (dfa.hasCountingStates() || dfa.getStateCount() > MAX_STATES
+            || getTransitionCount(dfa) > MAX_TRANSITIONS || fDFAs.size() == MAX_MODELS) {
+            ++fSkippedCount;
+            return;
+        }
+        fKeys.add(key);
+        fDFAs.add(dfa);
+    } // addModel(XSParticleDecl)
+
+    //
+    // Private static methods
+    //
+
+    private static int getTransitionCount(XSDFACM dfa) {
+        int count = 0;
+        for (int state = 0; state < dfa.getStateCount(); ++state) {
+            for (int elemIndex = 0; elemIndex < dfa.getElemMapSize(); ++elemIndex) {
+                if (dfa.getTransition(state, elemIndex) != -1) {
+                    ++count;
+                }
+            }
+        }
+        return count;
+    } // getTransitionCount(XSDFACM):int
+
+    private static void writeTable(PrintWriter out, String name, ArrayList<String> values) {
+        out.println("    private static final String[] " + name + " = {");
+        for (int i = 0; i < values.size(); ++i) {
+            out.println("        \"" + values.get(i) + "\",");
+        }
+        out.println("    };");
+        out.println();
+    } // writeTable(PrintWriter,String,ArrayList)
+
+    /**
+     * Writes the transitions of a DFA. The input symbols are tried in the
+     * order of the element map of the DFA, as XSDFACM does.
+     */
+    private static void writeTransitions(PrintWriter out, int model, XSDFACM dfa) {
+        out.println();
+        out.println("    private static int transition" + model + "(int state, QName name,");
+        out.println("            Object[] decls, SubstitutionGroupHandler subGroupHandler) {");
+        out.println("        final String localpart = name.localpart;");
+        out.println("        final String uri = name.uri;");
+        out.println("        switch (state) {");
+        for (int state = 0; state < dfa.getStateCount(); ++state) {
+            boolean written = false;
+            for (int elemIndex = 0; elemIndex < dfa.getElemMapSize(); ++elemIndex) {
+                final int next = dfa.getTransition(state, elemIndex);
+                if (next == -1) {
+                    continue;
+                }
+                if (!written) {
+                    out.println("            case " + state + ":");
+                    written = true;
+                }
+                final String result = "return next(" + next + ", " + elemIndex + ");";
+                final Object decl = dfa.getElem(elemIndex);
+                if (decl instanceof XSElementDecl) {
+                    final XSElementDecl element = (XSElementDecl) decl;
+                    String test = "localpart == " + toLiteral(element.fName) + " && uri == " + toLiteral(element.fTargetNamespace);
+                    if (element.fScope == XSConstants.SCOPE_GLOBAL
+                        && (element.fBlock & XSConstants.DERIVATION_SUBSTITUTION) == 0) {
+                        test = "(" + test + ") || substitutes(name, decls, " + elemIndex + ", subGroupHandler)";
+                    }
+                    out.println("                if (" + test + ") " + result);
+                }
+                else {
+                    out.println("                if (allowsNamespace(uri, decls, " + elemIndex + ")) " + result);
+                }
+            }
+            if (written) {
+                out.println("                break;");
+            }
+        }
+        out.println("        }");
+        out.println("        return NO_TRANSITION;");
+        out.println("    }");
+    } // writeTransitions(PrintWriter,int,XSDFACM)
+
+    /** Returns a Java literal of a string; symbols compare by reference with literals. */
+    private static String toLiteral(String s) {
+        if (s == null) {
+            return "null";
+        }
+        final StringBuffer buffer = new StringBuffer("\"");
+        for (int i = 0; i < s.length(); ++i) {
+            final char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.append('\\').append(c);
+            }
+            else if (c < 0x20) {
+                // a unicode escape of a line terminator would end the literal
+                buffer.append('\\').append(Integer.toOctalString(0x100 | c).substring(1));
+            }
+            else if (c > 0x7E) {
+                buffer.append("\\u");
+                final String hex = Integer.toHexString(c);
+                for (int j = hex.length(); j < 4; ++j) {
+                    buffer.append('0');
+                }
+                buffer.append(hex);
+            }
+            else {
+                buffer.append(c);
+            }
+        }
+        return buffer.append('"').toString();
+    } // toLiteral(String):String
+
+    private static String escapeComment(String s) {
+        return s == null ? "" : s.replace("\\", "&#92;").replace("*/", "*&#47;").replace("<", "&lt;");
+    } // escapeComment(String):String
+
+} // class ContentModelCompiler
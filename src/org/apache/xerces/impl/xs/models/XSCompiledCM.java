@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.impl.xs.models;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.Vector;
+
+import org.apache.xerces.impl.xs.SubstitutionGroupHandler;
+import org.apache.xerces.impl.xs.XMLSchemaException;
+import org.apache.xerces.impl.xs.XSElementDecl;
+import org.apache.xerces.impl.xs.XSParticleDecl;
+import org.apache.xerces.impl.xs.XSWildcardDecl;
+import org.apache.xerces.xni.QName;
+
+/**
+ * A DFA content model whose transitions are generated code.
+ * <p>
+ * The states and input symbols are those of the {@link XSDFACM} built
+ * for the same particle, which is built when it is needed to report
+ * errors, and which replaces this content model when it is serialized.
+ *
+ * @xerces.internal
+ *
+ * @see CompiledContentModels
+ *
+ * @version $Id$
+ */
+public final class XSCompiledCM implements XSCMValidator, Serializable {
+
+    private static final long serialVersionUID = -2227212569208802880L;
+
+    //
+    // Data
+    //
+
+    /** The generated content models. */
+    private final CompiledContentModels fModels;
+
+    /** The index of this model in the generated content models. */
+    private final int fModel;
+
+    /** The element and wildcard declarations of the input symbols. */
+    private final Object[] fDecls;
+
+    /** The particle of the content model. */
+    private final XSParticleDecl fParticle;
+
+    /** The DFA built from the particle, when needed. */
+    private XSCMValidator fDFA;
+
+    //
+    // Constructors
+    //
+
+    XSCompiledCM(CompiledContentModels models, int model, Object[] decls, XSParticleDecl particle) {
+        fModels = models;
+        fModel = model;
+        fDecls = decls;
+        fParticle = particle;
+    } // <init>(CompiledContentModels,int,Object[],XSParticleDecl)
+
+    //
+    // XSCMValidator methods
+    //
+
+    public int[] startContentModel() {
+        // same layout as XSDFACM: current state, last valid state, counter
+        return new int[3];
+    } // startContentModel():int[]
+
+    public Object oneTransition(QName curElem, int[] state, SubstitutionGroupHandler subGroupHandler) {
+        final int curState = state[0];
+        if (curState < 0) {
+            if (curState == XSCMValidator.FIRST_ERROR) {
+                state[0] = XSCMValidator.SUBSEQUENT_ERROR;
+            }
+            return findMatchingDecl(curElem, subGroupHandler);
+        }
+        final int next = fModels.transition(fModel, curState, curElem, fDecls, subGroupHandler);
+        if (next == CompiledContentModels.NO_TRANSITION) {
+            state[1] = curState;
+            state[0] = XSCMValidator.FIRST_ERROR;
+            return findMatchingDecl(curElem, subGroupHandler);
+        }
+        state[0] = next >>> 16;
+        final Object decl = fDecls[next & 0xFFFF];
+        if (decl instanceof XSElementDecl) {
+            final XSElementDecl element = (XSElementDecl) decl;
+            if (element.fName != curElem.localpart || element.fTargetNamespace != curElem.uri) {
+                // matched through a substitution group
+                return subGroupHandler.getMatchingElemDecl(curElem, element);
+            }
+        }
+        return decl;
+    } // oneTransition(QName,int[],SubstitutionGroupHandler):Object
+
+    public boolean endContentModel(int[] state) {
+        return fModels.isFinalState(fModel, state[0]);
+    } // endContentModel(int[]):boolean
+
+    public boolean checkUniqueParticleAttribution(SubstitutionGroupHandler subGroupHandler) throws XMLSchemaException {
+        return getDFA().checkUniqueParticleAttribution(subGroupHandler);
+    } // checkUniqueParticleAttribution(SubstitutionGroupHandler):boolean
+
+    public Vector whatCanGoHere(int[] state) {
+        return getDFA().whatCanGoHere(state);
+    } // whatCanGoHere(int[]):Vector
+
+    public int[] occurenceInfo(int[] state) {
+        // models with counting states are not compiled
+        return null;
+    } // occurenceInfo(int[]):int[]
+
+    public String getTermName(int termId) {
+        final Object term = fDecls[termId];
+        return (term != null) ? term.toString() : null;
+    } // getTermName(int):String
+
+    public boolean isCompactedForUPA() {
+        return false;
+    } // isCompactedForUPA():boolean
+
+    //
+    // Private methods
+    //
+
+    /** Returns the declaration matching an element in any state. */
+    private Object findMatchingDecl(QName curElem, SubstitutionGroupHandler subGroupHandler) {
+        for (int i = 0; i < fDecls.length; ++i) {
+            if (fDecls[i] instanceof XSElementDecl) {
+                final Object matchingDecl = subGroupHandler.getMatchingElemDecl(curElem, (XSElementDecl) fDecls[i]);
+                if (matchingDecl != null) {
+                    return matchingDecl;
+                }
+            }
+            else if (((XSWildcardDecl) fDecls[i]).allowNamespace(curElem.uri)) {
+                return fDecls[i];
+            }
+        }
+        return null;
+    } // findMatchingDecl(QName,SubstitutionGroupHandler):Object
+
+    /** Returns the DFA content model built from the particle. */
+    private synchronized XSCMValidator getDFA() {
+        if (fDFA == null) {
+            fDFA = new CMBuilder(new CMNodeFactory()).createDFACM(fParticle, false);
+        }
+        return fDFA;
+    } // getDFA():XSCMValidator
+
+    /** Serializes the DFA instead of the generated code. */
+    private Object writeReplace() throws ObjectStreamException {
+        return getDFA();
+    } // writeReplace():Object
+
+} // class XSCompiledCM
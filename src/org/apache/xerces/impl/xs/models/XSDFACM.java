@@ -17,6 +17,8 @@
 
 package org.apache.xerces.impl.xs.models;
 
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Vector;
 
@@ -31,6 +33,7 @@ import org.apache.xerces.impl.xs.XSModelGroupImpl;
 import org.apache.xerces.impl.xs.XSParticleDecl;
 import org.apache.xerces.impl.xs.XSWildcardDecl;
 import org.apache.xerces.xni.QName;
+import org.apache.xerces.xs.XSConstants;
 
 /**
  * DFAContentModel is the implementation of XSCMValidator that does
@@ -44,7 +47,9 @@ import org.apache.xerces.xni.QName;
  * @version $Id$
  */
 public class XSDFACM
-    implements XSCMValidator {
+    implements XSCMValidator, Serializable {
+
+    private static final long serialVersionUID = 8428484426977686674L;
 
     //
     // Constants
@@ -141,7 +146,83 @@ public class XSDFACM
      * which use counters to check minOccurs/maxOccurs.
      */
     private Occurence [] fCountingStates = null;
-    static final class Occurence {
+    /** The transitions of a state, as a key while minimizing the DFA. */
+    private static final class Signature {
+        private final int[] fSignature;
+        private final int fHashCode;
+        Signature(int[] signature) {
+            fSignature = signature;
+            fHashCode = Arrays.hashCode(signature);
+        }
+        public int hashCode() {
+            return fHashCode;
+        }
+        public boolean equals(Object o) {
+            return o instanceof Signature &&
+                Arrays.equals(fSignature, ((Signature) o).fSignature);
+        }
+    }
+
+    /** Finds the input symbols of the element map matching an element name. */
+    private static final class ElemMapIndex {
+
+        /**
+         * Hash table of the names of the element declarations in the element
+         * map, giving for each name the indexes of the declarations, in
+         * increasing order. The length of the arrays is a power of two.
+         */
+        private final String[] fNameSlotLocalparts;
+        private final String[] fNameSlotUris;
+        private final int[][] fNameSlotIndexes;
+
+        /** The indexes of the wildcards in the element map, in increasing order. */
+        final int[] fWildcardIndexes;
+
+        /**
+         * For each state, the lowest index in the element map of a global element
+         * declaration which may be substituted and which has a transition from
+         * the state, or fElemMapSize if there is none.
+         */
+        final int[] fFirstSubstitutable;
+
+        /**
+         * The lowest index in the element map of a global element declaration
+         * which may be substituted, or fElemMapSize if there is none.
+         */
+        final int fFirstSubstitutableAny;
+
+        ElemMapIndex(String[] nameSlotLocalparts, String[] nameSlotUris, int[][] nameSlotIndexes,
+                int[] wildcardIndexes, int[] firstSubstitutable, int firstSubstitutableAny) {
+            fNameSlotLocalparts = nameSlotLocalparts;
+            fNameSlotUris = nameSlotUris;
+            fNameSlotIndexes = nameSlotIndexes;
+            fWildcardIndexes = wildcardIndexes;
+            fFirstSubstitutable = firstSubstitutable;
+            fFirstSubstitutableAny = firstSubstitutableAny;
+        }
+
+        /**
+         * Returns the indexes in the element map of the element declarations
+         * with the given name, or null if there are none.
+         */
+        int[] getNameIndexes(String localpart, String uri) {
+            final int mask = fNameSlotLocalparts.length - 1;
+            int slot = hashName(localpart, uri) & mask;
+            String name;
+            while ((name = fNameSlotLocalparts[slot]) != null) {
+                if (name == localpart && fNameSlotUris[slot] == uri) {
+                    return fNameSlotIndexes[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    static final class Occurence implements Serializable {
+
+        private static final long serialVersionUID = -160300608262350401L;
+
         final int minOccurs;
         final int maxOccurs;
         final int elemIndex;
@@ -165,6 +246,19 @@ public class XSDFACM
     private int fTransTableSize = 0;
 
     private boolean fIsCompactedForUPA;
+
+    //
+    // Element map index, built again on first use when the DFA is
+    // deserialized: the element declarations may not have been read yet
+    // when this object is.
+    //
+
+    /**
+     * The index of the element map. It is immutable once built, and is
+     * published through this field only, so that threads sharing the
+     * grammar see either all of it or none of it.
+     */
+    private transient volatile ElemMapIndex fElemMapIndex;
     
     // temp variables
 
@@ -259,28 +353,11 @@ public class XSDFACM
             return findMatchingDecl(curElem, subGroupHandler);
         }
 
-        int nextState = 0;
-        int elemIndex = 0;
-        Object matchingDecl = null;
-
-        for (; elemIndex < fElemMapSize; elemIndex++) {
-            nextState = fTransTable[curState][elemIndex];
-            if (nextState == -1)
-                continue;
-            int type = fElemMapType[elemIndex] ;
-            if (type == XSParticleDecl.PARTICLE_ELEMENT) {
-                matchingDecl = subGroupHandler.getMatchingElemDecl(curElem, (XSElementDecl)fElemMap[elemIndex]);
-                if (matchingDecl != null) {
-                    break;
-                }
-            }
-            else if (type == XSParticleDecl.PARTICLE_WILDCARD) {
-                if (((XSWildcardDecl)fElemMap[elemIndex]).allowNamespace(curElem.uri)) {
-                    matchingDecl = fElemMap[elemIndex];
-                    break;
-                }
-            }
-        }
+        // find the first input symbol matching the element
+        // with a transition from the current state
+        final ElemMapIndex index = getElemMapIndex();
+        final int elemIndex = findElemIndex(index, curElem, fTransTable[curState],
+                index.fFirstSubstitutable[curState], subGroupHandler);
 
         // if we still can't find a match, set the state to first_error
         // and return null
@@ -289,6 +366,8 @@ public class XSDFACM
             state[0] = XSCMValidator.FIRST_ERROR;
             return findMatchingDecl(curElem, subGroupHandler);
         }
+        final int nextState = fTransTable[curState][elemIndex];
+        final Object matchingDecl = getMatchingDecl(curElem, elemIndex, subGroupHandler);
         
         if (fCountingStates != null) {
             Occurence o = fCountingStates[curState];
@@ -355,24 +434,93 @@ public class XSDFACM
     } // oneTransition(QName, int[], SubstitutionGroupHandler):  Object
 
     Object findMatchingDecl(QName curElem, SubstitutionGroupHandler subGroupHandler) {
-        Object matchingDecl = null;
+        final ElemMapIndex index = getElemMapIndex();
+        final int elemIndex = findElemIndex(index, curElem, null,
+                index.fFirstSubstitutableAny, subGroupHandler);
+        return (elemIndex < fElemMapSize)
+            ? getMatchingDecl(curElem, elemIndex, subGroupHandler) : null;
+    } // findMatchingDecl(QName, SubstitutionGroupHandler): Object
 
-        for (int elemIndex = 0; elemIndex < fElemMapSize; elemIndex++) {
-            int type = fElemMapType[elemIndex] ;
-            if (type == XSParticleDecl.PARTICLE_ELEMENT) {
-                matchingDecl = subGroupHandler.getMatchingElemDecl(curElem, (XSElementDecl)fElemMap[elemIndex]);
-                if (matchingDecl != null) {
-                    return matchingDecl;
+    /**
+     * Returns the lowest index in the element map of an input symbol matching
+     * the element, or fElemMapSize if none does. The symbols are looked up by
+     * name, so that this does not depend on the size of the element map.
+     *
+     * @param index the index of the element map
+     * @param curElem the name of the element
+     * @param transitions the transitions of the current state, to only consider
+     *                    the symbols with a transition; or null to consider all
+     * @param firstSubstitutable the lowest index of an element declaration which
+     *                           may be substituted, among those considered
+     * @param subGroupHandler the substitution group handler
+     */
+    private int findElemIndex(ElemMapIndex index, QName curElem, int[] transitions,
+            int firstSubstitutable, SubstitutionGroupHandler subGroupHandler) {
+        // the declarations with the name of the element always match
+        int elemIndex = fElemMapSize;
+        int[] indexes = index.getNameIndexes(curElem.localpart, curElem.uri);
+        if (indexes != null) {
+            for (int i = 0; i < indexes.length; i++) {
+                if (transitions == null || transitions[indexes[i]] != -1) {
+                    elemIndex = indexes[i];
+                    break;
                 }
             }
-            else if (type == XSParticleDecl.PARTICLE_WILDCARD) {
-                if(((XSWildcardDecl)fElemMap[elemIndex]).allowNamespace(curElem.uri))
-                    return fElemMap[elemIndex];
+        }
+        // a wildcard before them may match the element
+        final int[] wildcardIndexes = index.fWildcardIndexes;
+        for (int i = 0; i < wildcardIndexes.length; i++) {
+            final int wildcardIndex = wildcardIndexes[i];
+            if (wildcardIndex >= elemIndex) {
+                break;
+            }
+            if ((transitions == null || transitions[wildcardIndex] != -1) &&
+                ((XSWildcardDecl)fElemMap[wildcardIndex]).allowNamespace(curElem.uri)) {
+                elemIndex = wildcardIndex;
+                break;
+            }
+        }
+        // and so may the head of a substitution group the element belongs to
+        if (firstSubstitutable < elemIndex) {
+            final XSElementDecl elemDecl = subGroupHandler.getGlobalElementDecl(curElem);
+            if (elemDecl != null) {
+                for (XSElementDecl head = elemDecl.fSubGroup; head != null; head = head.fSubGroup) {
+                    indexes = index.getNameIndexes(head.fName, head.fTargetNamespace);
+                    if (indexes == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < indexes.length; i++) {
+                        final int headIndex = indexes[i];
+                        if (headIndex >= elemIndex) {
+                            break;
+                        }
+                        if ((transitions == null || transitions[headIndex] != -1) &&
+                            subGroupHandler.getMatchingElemDecl(curElem, (XSElementDecl)fElemMap[headIndex]) != null) {
+                            elemIndex = headIndex;
+                            break;
+                        }
+                    }
+                }
             }
         }
+        return elemIndex;
+    } // findElemIndex(QName, int[], int, SubstitutionGroupHandler): int
 
-        return null;
-    } // findMatchingDecl(QName, SubstitutionGroupHandler): Object
+    /** Returns the declaration matching the element at an index of the element map. */
+    private Object getMatchingDecl(QName curElem, int elemIndex, SubstitutionGroupHandler subGroupHandler) {
+        if (fElemMapType[elemIndex] == XSParticleDecl.PARTICLE_WILDCARD) {
+            return fElemMap[elemIndex];
+        }
+        return subGroupHandler.getMatchingElemDecl(curElem, (XSElementDecl)fElemMap[elemIndex]);
+    } // getMatchingDecl(QName, int, SubstitutionGroupHandler): Object
+
+    private static int hashName(String localpart, String uri) {
+        int hash = localpart.hashCode();
+        if (uri != null) {
+            hash = hash * 31 + uri.hashCode();
+        }
+        return hash ^ (hash >>> 16);
+    } // hashName(String, String): int
     
     Object findMatchingDecl(QName curElem, int[] state, SubstitutionGroupHandler subGroupHandler, int elemIndex) {    
         
@@ -792,6 +940,17 @@ public class XSDFACM
             }
         }
         
+        fTransTableSize = curState;
+
+        //
+        // Merge the states which accept the same sequences of input
+        // symbols. Counting states are left alone, as they count the
+        // transitions looping back to them.
+        //
+        if (elemOccurenceMap == null) {
+            minimize();
+        }
+
         //
         // Fill in the occurence information for each looping state 
         // if we're using counters.
@@ -819,9 +978,174 @@ public class XSDFACM
         fLeafList = null;
         fFollowList = null;
         fLeafListType = null;
-        fElemMapId = null;
+        // fElemMapId is kept: it maps the input symbols to the particles
+
+        fElemMapIndex = buildElemMapIndex();
     }
 
+    /**
+     * Minimizes the DFA by merging equivalent states. States are first
+     * split into final and non-final ones; each class is then split by
+     * the classes its states move to on each input symbol, until no class
+     * can be split. The start state remains state 0, and the remaining
+     * states are renumbered in the order they were built.
+     */
+    private void minimize() {
+        final int stateCount = fTransTableSize;
+        int[] classes = new int[stateCount];
+        int classCount = 0;
+        int finalClass = -1;
+        int nonFinalClass = -1;
+        for (int i = 0; i < stateCount; i++) {
+            if (fFinalStateFlags[i]) {
+                if (finalClass == -1) {
+                    finalClass = classCount++;
+                }
+                classes[i] = finalClass;
+            }
+            else {
+                if (nonFinalClass == -1) {
+                    nonFinalClass = classCount++;
+                }
+                classes[i] = nonFinalClass;
+            }
+        }
+        // refine the classes until they are stable
+        final HashMap signatures = new HashMap();
+        while (true) {
+            final int[] newClasses = new int[stateCount];
+            for (int i = 0; i < stateCount; i++) {
+                final int[] transitions = fTransTable[i];
+                final int[] signature = new int[fElemMapSize + 1];
+                signature[0] = classes[i];
+                for (int j = 0; j < fElemMapSize; j++) {
+                    signature[j + 1] = (transitions[j] == -1) ? -1 : classes[transitions[j]];
+                }
+                final Signature key = new Signature(signature);
+                Integer newClass = (Integer) signatures.get(key);
+                if (newClass == null) {
+                    newClass = Integer.valueOf(signatures.size());
+                    signatures.put(key, newClass);
+                }
+                newClasses[i] = newClass.intValue();
+            }
+            final int newClassCount = signatures.size();
+            signatures.clear();
+            classes = newClasses;
+            if (newClassCount == classCount) {
+                break;
+            }
+            classCount = newClassCount;
+        }
+        if (classCount == stateCount) {
+            return;
+        }
+        // build the transitions of the classes; as classes are numbered in
+        // the order of their first state, state 0 is in class 0
+        final int[][] transTable = new int[classCount][];
+        final boolean[] finalStateFlags = new boolean[classCount];
+        for (int i = 0; i < stateCount; i++) {
+            final int newState = classes[i];
+            if (transTable[newState] == null) {
+                final int[] transitions = fTransTable[i];
+                final int[] newTransitions = new int[fElemMapSize];
+                for (int j = 0; j < fElemMapSize; j++) {
+                    newTransitions[j] = (transitions[j] == -1) ? -1 : classes[transitions[j]];
+                }
+                transTable[newState] = newTransitions;
+                finalStateFlags[newState] = fFinalStateFlags[i];
+            }
+        }
+        fTransTable = transTable;
+        fFinalStateFlags = finalStateFlags;
+        fTransTableSize = classCount;
+    } // minimize()
+
+    /**
+     * Returns the index of the element map, building it if this DFA was
+     * deserialized. Threads racing to build it each publish a complete
+     * index, all of them equal.
+     */
+    private ElemMapIndex getElemMapIndex() {
+        ElemMapIndex index = fElemMapIndex;
+        if (index == null) {
+            index = buildElemMapIndex();
+            fElemMapIndex = index;
+        }
+        return index;
+    } // getElemMapIndex(): ElemMapIndex
+
+    /**
+     * Builds the index of the element map used to find the input symbols
+     * matching an element.
+     */
+    private ElemMapIndex buildElemMapIndex() {
+        int size = 2;
+        while (size < fElemMapSize * 2) {
+            size <<= 1;
+        }
+        final String[] nameSlotLocalparts = new String[size];
+        final String[] nameSlotUris = new String[size];
+        final int[][] nameSlotIndexes = new int[size][];
+        int wildcardCount = 0;
+        int firstSubstitutableAny = fElemMapSize;
+        for (int elemIndex = 0; elemIndex < fElemMapSize; elemIndex++) {
+            if (fElemMapType[elemIndex] == XSParticleDecl.PARTICLE_WILDCARD) {
+                wildcardCount++;
+                continue;
+            }
+            final XSElementDecl decl = (XSElementDecl) fElemMap[elemIndex];
+            if (isSubstitutable(decl) && firstSubstitutableAny == fElemMapSize) {
+                firstSubstitutableAny = elemIndex;
+            }
+            int slot = hashName(decl.fName, decl.fTargetNamespace) & (size - 1);
+            while (nameSlotLocalparts[slot] != null &&
+                   (nameSlotLocalparts[slot] != decl.fName ||
+                    nameSlotUris[slot] != decl.fTargetNamespace)) {
+                slot = (slot + 1) & (size - 1);
+            }
+            final int[] indexes = nameSlotIndexes[slot];
+            if (indexes == null) {
+                nameSlotLocalparts[slot] = decl.fName;
+                nameSlotUris[slot] = decl.fTargetNamespace;
+                nameSlotIndexes[slot] = new int[] {elemIndex};
+            }
+            else {
+                final int[] newIndexes = new int[indexes.length + 1];
+                System.arraycopy(indexes, 0, newIndexes, 0, indexes.length);
+                newIndexes[indexes.length] = elemIndex;
+                nameSlotIndexes[slot] = newIndexes;
+            }
+        }
+        final int[] wildcardIndexes = new int[wildcardCount];
+        wildcardCount = 0;
+        for (int elemIndex = 0; elemIndex < fElemMapSize; elemIndex++) {
+            if (fElemMapType[elemIndex] == XSParticleDecl.PARTICLE_WILDCARD) {
+                wildcardIndexes[wildcardCount++] = elemIndex;
+            }
+        }
+        final int[] firstSubstitutable = new int[fTransTableSize];
+        for (int state = 0; state < fTransTableSize; state++) {
+            int elemIndex = firstSubstitutableAny;
+            for (; elemIndex < fElemMapSize; elemIndex++) {
+                if (fTransTable[state][elemIndex] != -1 &&
+                    fElemMapType[elemIndex] == XSParticleDecl.PARTICLE_ELEMENT &&
+                    isSubstitutable((XSElementDecl) fElemMap[elemIndex])) {
+                    break;
+                }
+            }
+            firstSubstitutable[state] = elemIndex;
+        }
+        return new ElemMapIndex(nameSlotLocalparts, nameSlotUris, nameSlotIndexes,
+                wildcardIndexes, firstSubstitutable, firstSubstitutableAny);
+    } // buildElemMapIndex(): ElemMapIndex
+
+    /** Returns true if other elements may substitute for the element declaration. */
+    private static boolean isSubstitutable(XSElementDecl decl) {
+        return decl.fScope == XSConstants.SCOPE_GLOBAL &&
+            (decl.fBlock & XSConstants.DERIVATION_SUBSTITUTION) == 0;
+    } // isSubstitutable(XSElementDecl): boolean
+
     /**
      * Calculates the follow list of the current node.
      *
@@ -1170,4 +1494,39 @@ public class XSDFACM
     public boolean isCompactedForUPA() {
         return fIsCompactedForUPA;
     }
+
+    //
+    // Package methods: access to the built DFA, for ContentModelCompiler
+    //
+
+    /** Returns the number of states of the DFA. */
+    int getStateCount() {
+        return fTransTableSize;
+    } // getStateCount():int
+
+    /** Returns the number of unique input symbols of the DFA. */
+    int getElemMapSize() {
+        return fElemMapSize;
+    } // getElemMapSize():int
+
+    /** Returns the element or wildcard declaration of an input symbol. */
+    Object getElem(int elemIndex) {
+        return fElemMap[elemIndex];
+    } // getElem(int):Object
+
+    /** Returns the particle id of an input symbol. */
+    int getElemParticleId(int elemIndex) {
+        return fElemMapId[elemIndex];
+    } // getElemParticleId(int):int
+
+    /** Returns the state reached from a state on an input symbol, or -1. */
+    int getTransition(int state, int elemIndex) {
+        return fTransTable[state][elemIndex];
+    } // getTransition(int,int):int
+
+    /** Returns true if some states of the DFA count occurrences. */
+    boolean hasCountingStates() {
+        return fCountingStates != null;
+    } // hasCountingStates():boolean
+
 } // class DFAContentModel
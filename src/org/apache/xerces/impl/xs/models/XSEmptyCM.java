@@ -17,6 +17,7 @@
 
 package org.apache.xerces.impl.xs.models;
 
+import java.io.Serializable;
 import java.util.Vector;
 
 import org.apache.xerces.impl.xs.SubstitutionGroupHandler;
@@ -35,7 +36,9 @@ import org.apache.xerces.xni.QName;
  * @author Lisa Martin, IBM
  * @version $Id$
  */
-public class XSEmptyCM implements XSCMValidator {
+public class XSEmptyCM implements XSCMValidator, Serializable {
+
+    private static final long serialVersionUID = -5329458230148027209L;
 
     //
     // Constants
@@ -48,6 +48,7 @@ import org.apache.xerces.impl.xs.XSDeclarationPool;
 import org.apache.xerces.impl.xs.XSElementDecl;
 import org.apache.xerces.impl.xs.XSGrammarBucket;
 import org.apache.xerces.impl.xs.XSGroupDecl;
+import org.apache.xerces.impl.xs.XSLazyTraverser;
 import org.apache.xerces.impl.xs.XSMessageFormatter;
 import org.apache.xerces.impl.xs.XSModelGroupImpl;
 import org.apache.xerces.impl.xs.XSNotationDecl;
@@ -60,10 +61,14 @@ import org.apache.xerces.impl.xs.util.SimpleLocator;
 import org.apache.xerces.impl.xs.util.XSInputSource;
 import org.apache.xerces.parsers.SAXParser;
 import org.apache.xerces.parsers.XML11Configuration;
+import org.apache.xerces.util.DOMEntityResolverWrapper;
 import org.apache.xerces.util.DOMInputSource;
 import org.apache.xerces.util.DOMUtil;
 import org.apache.xerces.util.DefaultErrorHandler;
+import org.apache.xerces.util.EntityResolver2Wrapper;
+import org.apache.xerces.util.EntityResolverWrapper;
 import org.apache.xerces.util.ErrorHandlerWrapper;
+import org.apache.xerces.util.MessageFormatter;
 import org.apache.xerces.util.SAXInputSource;
 import org.apache.xerces.util.StAXInputSource;
 import org.apache.xerces.util.StAXLocationWrapper;
@@ -171,6 +176,18 @@ public class XSDHandler {
     protected static final String TOLERATE_DUPLICATES = 
       Constants.XERCES_FEATURE_PREFIX + Constants.TOLERATE_DUPLICATES_FEATURE;
     
+    /** Feature identifier: parallel schema loading */
+    protected static final String PARALLEL_SCHEMA_LOADING = 
+      Constants.XERCES_FEATURE_PREFIX + Constants.PARALLEL_SCHEMA_LOADING_FEATURE;
+    
+    /** Feature identifier: lazy schema traversal */
+    protected static final String LAZY_SCHEMA_TRAVERSAL = 
+      Constants.XERCES_FEATURE_PREFIX + Constants.LAZY_SCHEMA_TRAVERSAL_FEATURE;
+    
+    /** Feature identifier: schema full checking */
+    protected static final String SCHEMA_FULL_CHECKING =
+      Constants.XERCES_FEATURE_PREFIX + Constants.SCHEMA_FULL_CHECKING;
+    
     /** Feature identifier: namespace prefixes. */
     private static final String NAMESPACE_PREFIXES =
         Constants.SAX_FEATURE_PREFIX + Constants.NAMESPACE_PREFIXES_FEATURE;
@@ -374,6 +391,27 @@ public class XSDHandler {
     
     // handle tolerate duplicates feature
     boolean fTolerateDuplicates = false;
+    
+    // whether referenced schema documents are parsed ahead of time, in parallel
+    private boolean fParallelLoading = false;
+    
+    // loads the referenced schema documents while a schema is being parsed
+    private SchemaDocumentPrefetcher fPrefetcher = null;
+    
+    // whether the global components are traversed when first looked up
+    private boolean fLazyTraversal = false;
+    
+    // whether this handler was created to traverse the global components
+    // of the schema it loads on demand
+    private boolean fTraverseOnDemand = false;
+    
+    // traverses the global components of the grammars loaded by this
+    // handler on demand, once the schema is loaded
+    private LazyTraverser fLazyTraverser = null;
+    
+    // the number of global components not traversed yet, once the schema
+    // is loaded; the grammars release the handler when none is left
+    private int fRemainingComponents = 0;
 
     // the XMLErrorReporter
     private XMLErrorReporter fErrorReporter;
@@ -440,6 +478,10 @@ public class XSDHandler {
     // current position of the array (# of deferred keyrefs)
     private int fKeyrefStackPos = 0;
     
+    // the number of deferred local elements and keyrefs already traversed
+    private int fLocalElemCursor = 0;
+    private int fKeyrefCursor = 0;
+    
     private Element [] fKeyrefs = new Element[INIT_KEYREF_STACK];
     private XSDocumentInfo [] fKeyrefsMapXSDocumentInfo = new XSDocumentInfo[INIT_KEYREF_STACK];
     private XSElementDecl [] fKeyrefElems = new XSElementDecl [INIT_KEYREF_STACK];
@@ -472,6 +514,25 @@ public class XSDHandler {
         //       XMLSchemaValidator will be instantiating XSDHandler...
         fSchemaGrammarDescription = new XSDDescription();
     } // end constructor
+    
+    // creates a handler which loads a schema on behalf of another one and
+    // then traverses its global components on demand. It shares the parser
+    // of the other handler while loading the schema, but has its own symbol
+    // table, since it may be used afterwards by several threads.
+    private XSDHandler(XSDHandler handler) {
+        fHiddenNodes = new Hashtable<>();
+        fSchemaParser = handler.fSchemaParser;
+        fGrammarBucket = handler.fGrammarBucket;
+        fSchemaGrammarDescription = new XSDDescription();
+        fSymbolTable = new SymbolTable();
+        fEntityResolver = handler.fEntityResolver;
+        fErrorReporter = handler.fErrorReporter;
+        fGrammarPool = handler.fGrammarPool;
+        fDVFactory = handler.fDVFactory;
+        fHonourAllSchemaLocations = handler.fHonourAllSchemaLocations;
+        fParallelLoading = handler.fParallelLoading;
+        fTraverseOnDemand = true;
+    } // <init>(XSDHandler)
        
     /**
      * This method initiates the parse of a schema.  It will likely be
@@ -487,6 +548,53 @@ public class XSDHandler {
      */
     public SchemaGrammar parseSchema(XMLInputSource is, XSDDescription desc,
             Hashtable locationPairs)
+    throws IOException {
+        if (fLazyTraversal) {
+            // the documents and registries of the schema are kept by a
+            // handler of their own until all its components are traversed
+            return new XSDHandler(this).parseSchemaLazily(is, desc, locationPairs);
+        }
+        // the referenced documents are only prefetched by location, so not
+        // when the application resolves them; the application may set its
+        // entity resolver on the entity manager between two schemas
+        if (fParallelLoading && !isApplicationResolver(fEntityResolver)) {
+            fPrefetcher = new SchemaDocumentPrefetcher(fSchemaParser);
+        }
+        try {
+            return parseSchema0(is, desc, locationPairs);
+        }
+        finally {
+            cancelPrefetch();
+        }
+    } // parseSchema(XMLInputSource, XSDDescription, Hashtable): SchemaGrammar
+    
+    private SchemaGrammar parseSchemaLazily(XMLInputSource is, XSDDescription desc,
+            Hashtable locationPairs)
+    throws IOException {
+        SchemaGrammar[] loaded = fGrammarBucket.getGrammars();
+        SchemaGrammar grammar = parseSchema(is, desc, locationPairs);
+        
+        // find the grammars created by this load
+        Vector grammars = new Vector();
+        SchemaGrammar[] all = fGrammarBucket.getGrammars();
+        for (int i = 0; i < all.length; i++) {
+            int j = 0;
+            while (j < loaded.length && loaded[j] != all[i]) {
+                j++;
+            }
+            if (j == loaded.length) {
+                grammars.addElement(all[i]);
+            }
+        }
+        fRemainingComponents = countRemaining();
+        if (grammars.size() > 0 && fRemainingComponents > 0) {
+            fLazyTraverser = new LazyTraverser(grammars);
+        }
+        return grammar;
+    } // parseSchemaLazily(XMLInputSource, XSDDescription, Hashtable): SchemaGrammar
+    
+    private SchemaGrammar parseSchema0(XMLInputSource is, XSDDescription desc,
+            Hashtable locationPairs)
     throws IOException {
         fLocationPairs = locationPairs;
         fSchemaParser.resetNodePool();   
@@ -621,6 +729,8 @@ public class XSDHandler {
         prepareForTraverse();
         
         fRoot = constructTrees(schemaRoot, is.getSystemId(), desc, grammar != null);
+        // all the schema documents are loaded
+        cancelPrefetch();
         if (fRoot == null) {
             return null;
         }
@@ -632,11 +742,17 @@ public class XSDHandler {
         ArrayList annotationInfo = fValidateAnnotations ? new ArrayList() : null;
         traverseSchemas(annotationInfo);
         
-        // fourth phase: handle local element decls
-        traverseLocalElements();
-        
-        // fifth phase:  handle Keyrefs
-        resolveKeyRefs();
+        if (fTraverseOnDemand) {
+            // the local elements may refer to components not traversed yet
+            traverseDeferred();
+        }
+        else {
+            // fourth phase: handle local element decls
+            traverseLocalElements();
+
+            // fifth phase:  handle Keyrefs
+            resolveKeyRefs();
+        }
         
         // sixth phase:  validate attribute of non-schema namespaces
         // REVISIT: skip this for now. we really don't want to do it.
@@ -675,7 +791,35 @@ public class XSDHandler {
 
         // and return.
         return fGrammarBucket.getGrammar(fRoot.fTargetNamespace);
-    } // end parseSchema
+    } // parseSchema0(XMLInputSource, XSDDescription, Hashtable): SchemaGrammar
+    
+    private void cancelPrefetch() {
+        if (fPrefetcher != null) {
+            fPrefetcher.cancel();
+            fPrefetcher = null;
+        }
+    } // cancelPrefetch()
+    
+    /**
+     * Returns whether an entity resolver resolves documents on behalf of
+     * the application. An entity manager or a wrapper without an
+     * application resolver resolves them by default.
+     */
+    private static boolean isApplicationResolver(XMLEntityResolver er) {
+        while (er instanceof XMLEntityManager) {
+            er = ((XMLEntityManager) er).getEntityResolver();
+        }
+        if (er instanceof DOMEntityResolverWrapper) {
+            return ((DOMEntityResolverWrapper) er).getEntityResolver() != null;
+        }
+        if (er instanceof EntityResolverWrapper) {
+            return ((EntityResolverWrapper) er).getEntityResolver() != null;
+        }
+        if (er instanceof EntityResolver2Wrapper) {
+            return ((EntityResolver2Wrapper) er).getEntityResolver() != null;
+        }
+        return er != null;
+    } // isApplicationResolver(XMLEntityResolver): boolean
     
     private void validateAnnotations(ArrayList annotationInfo) {
         if (fAnnotationValidator == null) {
@@ -1389,8 +1533,12 @@ public class XSDHandler {
                 DOMUtil.getFirstVisibleChildElement(currRoot, fHiddenNodes);
             globalComp != null;
             globalComp = DOMUtil.getNextVisibleSiblingElement(globalComp, fHiddenNodes)) {
-                DOMUtil.setHidden(globalComp, fHiddenNodes); 
                 String componentType = DOMUtil.getLocalName(globalComp);
+                if (fTraverseOnDemand && isTraversedOnDemand(componentType)) {
+                    // traversed when first looked up
+                    continue;
+                }
+                DOMUtil.setHidden(globalComp, fHiddenNodes); 
                 // includes and imports will not show up here!
                 if (DOMUtil.getLocalName(globalComp).equals(SchemaSymbols.ELT_REDEFINE)) {
                     // use the namespace decls for the redefine, instead of for the parent <schema>
@@ -1481,6 +1629,19 @@ public class XSDHandler {
         } // while
     } // end traverseSchemas
     
+    // whether a global component is traversed when first looked up,
+    // rather than when the schema is loaded. The components of <redefine>s
+    // and the annotations are always traversed when loading the schema.
+    private static boolean isTraversedOnDemand(String componentType) {
+        return componentType.equals(SchemaSymbols.ELT_ATTRIBUTE) ||
+            componentType.equals(SchemaSymbols.ELT_ATTRIBUTEGROUP) ||
+            componentType.equals(SchemaSymbols.ELT_COMPLEXTYPE) ||
+            componentType.equals(SchemaSymbols.ELT_ELEMENT) ||
+            componentType.equals(SchemaSymbols.ELT_GROUP) ||
+            componentType.equals(SchemaSymbols.ELT_NOTATION) ||
+            componentType.equals(SchemaSymbols.ELT_SIMPLETYPE);
+    }
+    
     // store whether we have reported an error about that no grammar
     // is found for the given namespace uri
     private Vector fReportedTNS = null;
@@ -1737,6 +1898,13 @@ public class XSDHandler {
             reportSchemaError("Internal-Error", new Object [] {"XSDHandler asked to locate component of type " + declType + "; it does not recognize this type!"}, elmNode);
         }
 
+        // identity constraints are only registered as the elements declaring
+        // them are traversed
+        if (decl == null && retObj == null && fTraverseOnDemand &&
+                declType == IDENTITYCONSTRAINT_TYPE) {
+            retObj = traverseIdentityConstraint(currSchema, sGrammar, declToTraverse.localpart);
+        }
+
         // no DOM element found, so the component can't be located
         if (decl == null) {
             if (retObj == null) {
@@ -1873,12 +2041,14 @@ public class XSDHandler {
     protected Object traverseGlobalDecl(int declType, Element decl, XSDocumentInfo schemaDoc, SchemaGrammar grammar) {
         Object retObj = null;
 
-        DOMUtil.setHidden(decl, fHiddenNodes);
         SchemaNamespaceSupport nsSupport = null;
         // if the parent is <redefine> use the namespace delcs for it.
         Element parent = DOMUtil.getParent(decl);
         if (DOMUtil.getLocalName(parent).equals(SchemaSymbols.ELT_REDEFINE))
             nsSupport = (SchemaNamespaceSupport)fRedefine2NSSupport.get(parent);
+        else if (fLazyTraverser != null && !DOMUtil.isHidden(decl, fHiddenNodes))
+            fRemainingComponents--;
+        DOMUtil.setHidden(decl, fHiddenNodes);
         // back up the current SchemaNamespaceSupport, because we need to provide
         // a fresh one to the traverseGlobal methods.
         schemaDoc.backupNSSupport(nsSupport);
@@ -1921,6 +2091,76 @@ public class XSDHandler {
         return retObj;
     }
 
+    // when the components are traversed on demand, traverses all the
+    // components to find an identity constraint not registered yet
+    private Object traverseIdentityConstraint(XSDocumentInfo currSchema, SchemaGrammar grammar, String name) {
+        traverseRemaining();
+        // the identity constraint may belong to a local element; keep the
+        // namespace context of the caller, which the local elements change
+        currSchema.backupNSSupport(null);
+        traverseDeferredLocalElements();
+        currSchema.restoreNSSupport();
+        return grammar.getIDConstraintDecl(name);
+    }
+
+    // counts the global components which have not been traversed yet,
+    // when the components are traversed on demand
+    private int countRemaining() {
+        int count = 0;
+        Enumeration schemaDocs = fDoc2XSDocumentMap.elements();
+        while (schemaDocs.hasMoreElements()) {
+            XSDocumentInfo schemaDoc = (XSDocumentInfo) schemaDocs.nextElement();
+            for (Element globalComp = DOMUtil.getFirstChildElement(schemaDoc.fSchemaElement);
+            globalComp != null;
+            globalComp = DOMUtil.getNextSiblingElement(globalComp)) {
+                if (isTraversedOnDemand(DOMUtil.getLocalName(globalComp)) &&
+                        !DOMUtil.isHidden(globalComp, fHiddenNodes)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+    
+    // traverses the global components which have not been traversed yet,
+    // when the components are traversed on demand
+    private void traverseRemaining() {
+        Enumeration schemaDocs = fDoc2XSDocumentMap.elements();
+        while (schemaDocs.hasMoreElements()) {
+            XSDocumentInfo schemaDoc = (XSDocumentInfo) schemaDocs.nextElement();
+            SchemaGrammar grammar = fGrammarBucket.getGrammar(schemaDoc.fTargetNamespace);
+            for (Element globalComp = DOMUtil.getFirstChildElement(schemaDoc.fSchemaElement);
+            globalComp != null;
+            globalComp = DOMUtil.getNextSiblingElement(globalComp)) {
+                String componentType = DOMUtil.getLocalName(globalComp);
+                if (!isTraversedOnDemand(componentType) ||
+                        DOMUtil.isHidden(globalComp, fHiddenNodes)) {
+                    continue;
+                }
+                int declType;
+                if (componentType.equals(SchemaSymbols.ELT_ATTRIBUTE)) {
+                    declType = ATTRIBUTE_TYPE;
+                }
+                else if (componentType.equals(SchemaSymbols.ELT_ATTRIBUTEGROUP)) {
+                    declType = ATTRIBUTEGROUP_TYPE;
+                }
+                else if (componentType.equals(SchemaSymbols.ELT_ELEMENT)) {
+                    declType = ELEMENT_TYPE;
+                }
+                else if (componentType.equals(SchemaSymbols.ELT_GROUP)) {
+                    declType = GROUP_TYPE;
+                }
+                else if (componentType.equals(SchemaSymbols.ELT_NOTATION)) {
+                    declType = NOTATION_TYPE;
+                }
+                else {
+                    declType = TYPEDECL_TYPE;
+                }
+                traverseGlobalDecl(declType, globalComp, schemaDoc, grammar);
+            }
+        }
+    }
+    
     public String schemaDocument2SystemId(XSDocumentInfo schemaDoc) {
         return (String)fDoc2SystemId.get(schemaDoc.fSchemaElement);
     }
@@ -1977,7 +2217,8 @@ public class XSDHandler {
     // from the elementTraverser class (which must ignore keyrefs),
     // but there seems to be no efficient way around this...
     protected void resolveKeyRefs() {
-        for (int i=0; i<fKeyrefStackPos; i++) {
+        while (fKeyrefCursor < fKeyrefStackPos) {
+            int i = fKeyrefCursor++;
             XSDocumentInfo keyrefSchemaDoc = fKeyrefsMapXSDocumentInfo[i];
             keyrefSchemaDoc.fNamespaceSupport.makeGlobal();
             keyrefSchemaDoc.fNamespaceSupport.setEffectiveContext( fKeyrefNamespaceContext[i] );
@@ -2165,9 +2406,17 @@ public class XSDHandler {
                     }
                 }
                 
-                fSchemaParser.parse(schemaSource);
-                Document schemaDocument = fSchemaParser.getDocument();
-                schemaElement = schemaDocument != null ? DOMUtil.getRoot(schemaDocument) : null;
+                // take the document if it was loaded ahead of time
+                if (fPrefetcher != null && schemaId != null &&
+                        schemaSource.getByteStream() == null &&
+                        schemaSource.getCharacterStream() == null) {
+                    schemaElement = fPrefetcher.take(schemaId);
+                }
+                if (schemaElement == null) {
+                    fSchemaParser.parse(schemaSource);
+                    Document schemaDocument = fSchemaParser.getDocument();
+                    schemaElement = schemaDocument != null ? DOMUtil.getRoot(schemaDocument) : null;
+                }
                 return getSchemaDocument0(key, schemaId, schemaElement);
             }
             else {
@@ -2455,6 +2704,9 @@ public class XSDHandler {
         if (schemaId != null) {
             fDoc2SystemId.put(schemaElement, schemaId);
         }
+        if (fPrefetcher != null && schemaElement != null) {
+            fPrefetcher.prefetchReferences(schemaElement, doc2SystemId(schemaElement));
+        }
         fLastSchemaWasDuplicate = false;
         return schemaElement;
     } // getSchemaDocument0(XSDKey, String, Element): Element
@@ -3448,23 +3700,7 @@ public class XSDHandler {
         fImportMap.clear();
         fRoot = null;
         
-        // clear local element stack
-        for (int i = 0; i < fLocalElemStackPos; i++) {
-            fParticle[i] = null;
-            fLocalElementDecl[i] = null;
-            fLocalElementDecl_schema[i] = null;
-            fLocalElemNamespaceContext[i] = null;
-        }
-        fLocalElemStackPos = 0;
-        
-        // and do same for keyrefs.
-        for (int i = 0; i < fKeyrefStackPos; i++) {
-            fKeyrefs[i] = null;
-            fKeyrefElems[i] = null;
-            fKeyrefNamespaceContext[i] = null;
-            fKeyrefsMapXSDocumentInfo[i] = null;
-        }
-        fKeyrefStackPos = 0;
+        clearDeferred();
         
         // create traversers if necessary
         if (fAttributeChecker == null) {
@@ -3496,6 +3732,29 @@ public class XSDHandler {
         fGlobalIDConstraintDecls.clear();
         fGlobalTypeDecls.clear();
     }
+    // clears the stacks of deferred local elements and keyrefs
+    private void clearDeferred() {
+        // clear local element stack
+        for (int i = 0; i < fLocalElemStackPos; i++) {
+            fParticle[i] = null;
+            fLocalElementDecl[i] = null;
+            fLocalElementDecl_schema[i] = null;
+            fLocalElemNamespaceContext[i] = null;
+        }
+        fLocalElemStackPos = 0;
+        fLocalElemCursor = 0;
+        
+        // and do same for keyrefs.
+        for (int i = 0; i < fKeyrefStackPos; i++) {
+            fKeyrefs[i] = null;
+            fKeyrefElems[i] = null;
+            fKeyrefNamespaceContext[i] = null;
+            fKeyrefsMapXSDocumentInfo[i] = null;
+        }
+        fKeyrefStackPos = 0;
+        fKeyrefCursor = 0;
+    }
+    
     public void setDeclPool (XSDeclarationPool declPool){
         fDeclPool = declPool;
     }
@@ -3561,6 +3820,26 @@ public class XSDHandler {
         } catch (XMLConfigurationException e) {
             fTolerateDuplicates = false;
         }
+        
+        try {
+            fParallelLoading = componentManager.getFeature(PARALLEL_SCHEMA_LOADING);
+        } catch (XMLConfigurationException e) {
+            fParallelLoading = false;
+        }
+        try {
+            fLazyTraversal = componentManager.getFeature(LAZY_SCHEMA_TRAVERSAL);
+        } catch (XMLConfigurationException e) {
+            fLazyTraversal = false;
+        }
+        if (fLazyTraversal) {
+            // these need all the components of the schemas as they are loaded
+            try {
+                fLazyTraversal = !componentManager.getFeature(SCHEMA_FULL_CHECKING);
+            } catch (XMLConfigurationException e) {
+            }
+            fLazyTraversal = fLazyTraversal && !fValidateAnnotations &&
+                !fNamespaceGrowth && !fTolerateDuplicates;
+        }
 
         try {
             fSchemaParser.setFeature(
@@ -3605,14 +3884,34 @@ public class XSDHandler {
     } // reset(XMLComponentManager)
     
     
+    /**
+     * Traverses the local elements and keyrefs deferred when traversing the
+     * components on demand, along with the components they refer to, until
+     * none is left.
+     */
+    private void traverseDeferred() {
+        while (fLocalElemCursor < fLocalElemStackPos || fKeyrefCursor < fKeyrefStackPos) {
+            traverseDeferredLocalElements();
+            resolveKeyRefs();
+        }
+        clearDeferred();
+    }
+    
     /**
      * Traverse all the deferred local elements. This method should be called
      * by traverseSchemas after we've done with all the global declarations.
      */
     void traverseLocalElements() {
         fElementTraverser.fDeferTraversingLocalElements = false;
-        
-        for (int i = 0; i < fLocalElemStackPos; i++) {
+        traverseDeferredLocalElements();
+    }
+    
+    // traverses the local elements deferred and not traversed yet. When the
+    // components are traversed on demand, local elements are still
+    // deferred while doing so, and are traversed too.
+    private void traverseDeferredLocalElements() {
+        while (fLocalElemCursor < fLocalElemStackPos) {
+            int i = fLocalElemCursor++;
             Element currElem = fLocalElementDecl[i];
             //XSDocumentInfo currSchema = (XSDocumentInfo)fDoc2XSDocumentMap.get(DOMUtil.getDocument(currElem));
             //XSDocumentInfo currSchema = (XSDocumentInfo)fDoc2XSDocumentMap.get(DOMUtil.getRoot(DOMUtil.getDocument(currElem)));
@@ -4304,6 +4603,149 @@ public class XSDHandler {
         }
     }
     
+    /**
+     * Traverses the global components of the grammars loaded by a handler
+     * when they are first looked up. Once the schema is loaded, the handler
+     * is only used by its traverser, with a copy of the grammar bucket and
+     * an error reporter of its own.
+     */
+    private final class LazyTraverser implements XSLazyTraverser {
+        
+        // the grammars whose components are traversed on demand
+        private final Vector fGrammars;
+        
+        // whether components are being traversed
+        private boolean fTraversing = false;
+        
+        LazyTraverser(Vector grammars) {
+            fGrammars = grammars;
+            
+            // the bucket of the loader changes once the schema is loaded
+            XSGrammarBucket grammarBucket = new XSGrammarBucket();
+            SchemaGrammar[] all = fGrammarBucket.getGrammars();
+            for (int i = 0; i < all.length; i++) {
+                grammarBucket.putGrammar(all[i]);
+            }
+            fGrammarBucket = grammarBucket;
+            
+            // errors are reported to the error handler set when the schema
+            // was loaded
+            XMLErrorReporter errorReporter = new XMLErrorReporter();
+            errorReporter.setLocale(fErrorReporter.getLocale());
+            errorReporter.setProperty(ERROR_HANDLER, fErrorReporter.getErrorHandler());
+            MessageFormatter messageFormatter = fErrorReporter.getMessageFormatter(XSMessageFormatter.SCHEMA_DOMAIN);
+            errorReporter.putMessageFormatter(XSMessageFormatter.SCHEMA_DOMAIN,
+                    (messageFormatter != null) ? messageFormatter : new XSMessageFormatter());
+            fErrorReporter = errorReporter;
+            
+            // only needed to load the schema
+            fSchemaParser = null;
+            fXSContentHandler = null;
+            fStAXSchemaParser = null;
+            fEntityResolver = null;
+            fGrammarPool = null;
+            fLocationPairs = null;
+            fTraversed.clear();
+            
+            for (int i = 0; i < grammars.size(); i++) {
+                ((SchemaGrammar) grammars.elementAt(i)).setLazyTraverser(this);
+            }
+        } // <init>(Vector)
+        
+        public void traverseGlobalDecl(SchemaGrammar grammar, short componentType, String name) {
+            if (fTraversing) {
+                // looked up while traversing: the handler finds the component
+                // in its registries
+                return;
+            }
+            int declType;
+            Hashtable registry;
+            Hashtable registrySub;
+            switch (componentType) {
+            case XSConstants.ATTRIBUTE_DECLARATION :
+                declType = ATTRIBUTE_TYPE;
+                registry = fUnparsedAttributeRegistry;
+                registrySub = fUnparsedAttributeRegistrySub;
+                break;
+            case XSConstants.ATTRIBUTE_GROUP :
+                declType = ATTRIBUTEGROUP_TYPE;
+                registry = fUnparsedAttributeGroupRegistry;
+                registrySub = fUnparsedAttributeGroupRegistrySub;
+                break;
+            case XSConstants.ELEMENT_DECLARATION :
+                declType = ELEMENT_TYPE;
+                registry = fUnparsedElementRegistry;
+                registrySub = fUnparsedElementRegistrySub;
+                break;
+            case XSConstants.MODEL_GROUP_DEFINITION :
+                declType = GROUP_TYPE;
+                registry = fUnparsedGroupRegistry;
+                registrySub = fUnparsedGroupRegistrySub;
+                break;
+            case XSConstants.IDENTITY_CONSTRAINT :
+                // only registered as the elements declaring them are traversed
+                traverseAll();
+                return;
+            case XSConstants.NOTATION_DECLARATION :
+                declType = NOTATION_TYPE;
+                registry = fUnparsedNotationRegistry;
+                registrySub = fUnparsedNotationRegistrySub;
+                break;
+            case XSConstants.TYPE_DEFINITION :
+                declType = TYPEDECL_TYPE;
+                registry = fUnparsedTypeRegistry;
+                registrySub = fUnparsedTypeRegistrySub;
+                break;
+            default :
+                return;
+            }
+            String namespace = grammar.getTargetNamespace();
+            String declKey = (namespace == null) ? "," + name : namespace + "," + name;
+            Element decl = (Element) registry.get(declKey);
+            // hidden components have been traversed already
+            if (decl == null || DOMUtil.isHidden(decl, fHiddenNodes)) {
+                return;
+            }
+            XSDocumentInfo declDoc = (XSDocumentInfo) registrySub.get(declKey);
+            fTraversing = true;
+            try {
+                XSDHandler.this.traverseGlobalDecl(declType, decl, declDoc, grammar);
+                traverseDeferred();
+            }
+            finally {
+                fTraversing = false;
+            }
+            if (fRemainingComponents == 0) {
+                release();
+            }
+        } // traverseGlobalDecl(SchemaGrammar,short,String)
+        
+        public void traverseAll() {
+            if (fTraversing) {
+                return;
+            }
+            fTraversing = true;
+            try {
+                traverseRemaining();
+                traverseDeferred();
+            }
+            finally {
+                fTraversing = false;
+            }
+            release();
+        } // traverseAll()
+        
+        // removes this traverser from its grammars once all their components
+        // are traversed, so that the schema documents and the registries
+        // of the handler can be garbage collected
+        private void release() {
+            for (int i = 0; i < fGrammars.size(); i++) {
+                ((SchemaGrammar) fGrammars.elementAt(i)).setLazyTraverser(null);
+            }
+        } // release()
+        
+    } // class LazyTraverser
+    
     private static final class SAX2XNIUtil extends ErrorHandlerWrapper {
         public static XMLParseException createXMLParseException0(SAXParseException exception) {
             return createXMLParseException(exception);
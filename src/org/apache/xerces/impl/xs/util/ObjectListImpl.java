@@ -17,6 +17,7 @@
 
 package org.apache.xerces.impl.xs.util;
 
+import java.io.Serializable;
 import java.lang.reflect.Array;
 import java.util.AbstractList;
 
@@ -29,7 +30,9 @@ import org.apache.xerces.xs.datatypes.ObjectList;
  * 
  * @version $Id$
  */
-public final class ObjectListImpl extends AbstractList implements ObjectList {
+public final class ObjectListImpl extends AbstractList implements ObjectList, Serializable {
+
+    private static final long serialVersionUID = 191711155948690831L;
 
     /**
      * An immutable empty list.
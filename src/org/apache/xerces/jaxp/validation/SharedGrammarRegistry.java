@@ -0,0 +1,463 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.jaxp.validation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.apache.xerces.impl.XMLEntityManager;
+import org.apache.xerces.impl.xs.SchemaGrammar;
+import org.apache.xerces.impl.xs.util.PersistentGrammarPool;
+import org.apache.xerces.impl.xs.util.XSGrammarPool;
+import org.apache.xerces.util.URI.MalformedURIException;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.apache.xerces.xs.StringList;
+import org.apache.xerces.xs.XSModel;
+
+/**
+ * <p>A registry of schema grammars shared by all the schema factories
+ * of the virtual machine which have the shared grammars feature set.</p>
+ *
+ * <p>The grammars loaded for a schema are registered under a hash of
+ * the settings of the factory and of the contents of all the schema
+ * documents they were loaded from. A factory loading the same documents
+ * with the same settings gets a schema holding the registered grammars,
+ * and drops the ones it loaded. When the schema is loaded again from the
+ * same system identifiers, the registered grammars are used without
+ * loading the documents, as long as they have not changed. To find out,
+ * all the documents are read and hashed again each time, which is much
+ * cheaper than loading them but still reads every document.</p>
+ *
+ * <p>The documents given to the factory as streams are hashed as they are
+ * loaded, rather than as found at their system identifiers. Grammars
+ * loaded from other sources than system identifiers and streams are not
+ * shared.</p>
+ *
+ * <p>The registry counts the schemas using its grammars, and forgets
+ * the grammars once all of them have been garbage collected. Shared
+ * grammars are held by a frozen pool, whose <code>XSModel</code> is
+ * built once for all the schemas.</p>
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+final class SharedGrammarRegistry {
+
+    /** Algorithm of the hash of the grammars. */
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    /** Orders grammars by target namespace. */
+    private static final Comparator<SchemaGrammar> NAMESPACE_ORDER = new Comparator<SchemaGrammar>() {
+        public int compare(SchemaGrammar g1, SchemaGrammar g2) {
+            final String ns1 = g1.getTargetNamespace();
+            final String ns2 = g2.getTargetNamespace();
+            if (ns1 == null) {
+                return (ns2 == null) ? 0 : -1;
+            }
+            return (ns2 == null) ? 1 : ns1.compareTo(ns2);
+        }
+    };
+
+    /** The registry of the virtual machine. */
+    private static final SharedGrammarRegistry fgInstance = new SharedGrammarRegistry();
+
+    /** The registered grammars, by hash. */
+    private final HashMap<String, SharedGrammars> fGrammars = new HashMap<String, SharedGrammars>();
+
+    /** The registered grammars, by the sources they were loaded from. */
+    private final HashMap<String, SharedGrammars> fGrammarsBySources = new HashMap<String, SharedGrammars>();
+
+    /** The references to the schemas using registered grammars. */
+    private final HashSet<SchemaReference> fReferences = new HashSet<SchemaReference>();
+
+    /** The queue of the references to the schemas garbage collected. */
+    private final ReferenceQueue<AbstractXMLSchema> fQueue = new ReferenceQueue<AbstractXMLSchema>();
+
+    private SharedGrammarRegistry() {}
+
+    /** Returns the registry of the virtual machine. */
+    static SharedGrammarRegistry getInstance() {
+        return fgInstance;
+    }
+
+    /**
+     * Returns a schema holding the grammars loaded from the given sources,
+     * or null if none are registered or their documents have changed.
+     *
+     * @param sourceKey the settings of the factory and the system
+     * identifiers of the sources
+     */
+    AbstractXMLSchema getSchema(String sourceKey) {
+        final SharedGrammars grammars;
+        final AbstractXMLSchema schema;
+        synchronized (this) {
+            expunge();
+            grammars = fGrammarsBySources.get(sourceKey);
+            if (grammars == null) {
+                return null;
+            }
+            schema = newSchema(grammars);
+        }
+        // the documents are read again without holding the lock
+        if (!grammars.isCurrent()) {
+            synchronized (this) {
+                if (fGrammarsBySources.get(sourceKey) == grammars) {
+                    fGrammarsBySources.remove(sourceKey);
+                    grammars.fSourceKeys.remove(sourceKey);
+                }
+            }
+            return null;
+        }
+        return schema;
+    }
+
+    /**
+     * Registers grammars which were loaded without errors, and returns a
+     * schema holding them, or the grammars already registered for the
+     * same documents. Returns null if the grammars cannot be shared,
+     * because some of their documents cannot be read again.
+     *
+     * @param settings the settings of the factory
+     * @param sourceKey the settings of the factory and the system
+     * identifiers of the sources, or null if not loaded from system
+     * identifiers only
+     * @param grammars the grammars
+     * @param contentHashes the hashes of the documents given as streams,
+     * by expanded system identifier, as returned by {@link #readSources},
+     * or null if there are none
+     */
+    AbstractXMLSchema register(String settings, String sourceKey, SchemaGrammar[] grammars,
+            HashMap<String, byte[]> contentHashes) {
+        final SharedGrammars loaded = createSharedGrammars(settings, grammars, contentHashes);
+        if (loaded == null) {
+            return null;
+        }
+        synchronized (this) {
+            expunge();
+            SharedGrammars registered = fGrammars.get(loaded.fKey);
+            if (registered == null) {
+                registered = loaded;
+                fGrammars.put(registered.fKey, registered);
+            }
+            if (sourceKey != null && fGrammarsBySources.get(sourceKey) != registered) {
+                final SharedGrammars previous = fGrammarsBySources.put(sourceKey, registered);
+                if (previous != null) {
+                    previous.fSourceKeys.remove(sourceKey);
+                }
+                registered.fSourceKeys.add(sourceKey);
+            }
+            return newSchema(registered);
+        }
+    }
+
+    /**
+     * Reads the documents of the sources given as streams into memory, and
+     * replaces the streams with ones over the contents read, so that the
+     * grammars can be registered under the hash of the contents actually
+     * loaded. Characters are hashed as UTF-8, like a document read from its
+     * system identifier and encoded in UTF-8. Returns the hashes by expanded
+     * system identifier, or null if the grammars cannot be shared, because
+     * a source is neither a system identifier nor a stream with one.
+     */
+    static HashMap<String, byte[]> readSources(XMLInputSource[] sources) throws IOException {
+        final HashMap<String, byte[]> hashes = new HashMap<String, byte[]>();
+        for (int i = 0; i < sources.length; ++i) {
+            final XMLInputSource source = sources[i];
+            if (source.getClass() != XMLInputSource.class || source.getSystemId() == null) {
+                return null;
+            }
+            final Reader reader = source.getCharacterStream();
+            final InputStream stream = source.getByteStream();
+            if (reader == null && stream == null) {
+                continue;
+            }
+            final String systemId;
+            try {
+                systemId = XMLEntityManager.expandSystemId(source.getSystemId(), source.getBaseSystemId(), false);
+            }
+            catch (MalformedURIException e) {
+                return null;
+            }
+            final byte[] contents;
+            if (reader != null) {
+                // the byte stream is not read when there is a character stream
+                final CharArrayWriter writer = new CharArrayWriter();
+                final char[] buffer = new char[8192];
+                int count;
+                try {
+                    while ((count = reader.read(buffer)) != -1) {
+                        writer.write(buffer, 0, count);
+                    }
+                }
+                finally {
+                    reader.close();
+                }
+                source.setCharacterStream(new CharArrayReader(writer.toCharArray()));
+                contents = writer.toString().getBytes("UTF-8");
+            }
+            else {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[8192];
+                int count;
+                try {
+                    while ((count = stream.read(buffer)) != -1) {
+                        out.write(buffer, 0, count);
+                    }
+                }
+                finally {
+                    stream.close();
+                }
+                contents = out.toByteArray();
+                source.setByteStream(new ByteArrayInputStream(contents));
+            }
+            final MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            }
+            catch (NoSuchAlgorithmException e) {
+                return null;
+            }
+            // the same system identifier with two contents
+            if (hashes.put(systemId, digest.digest(contents)) != null) {
+                return null;
+            }
+        }
+        return hashes;
+    }
+
+    /*
+     * Private methods
+     */
+
+    private AbstractXMLSchema newSchema(SharedGrammars grammars) {
+        final AbstractXMLSchema schema = (grammars.fGrammars.length > 1) ?
+                (AbstractXMLSchema) new XMLSchema(grammars.fPool) :
+                (AbstractXMLSchema) new SimpleXMLSchema(grammars.fGrammars[0]);
+        ++grammars.fReferenceCount;
+        fReferences.add(new SchemaReference(schema, grammars, fQueue));
+        return schema;
+    }
+
+    /** Forgets the grammars no longer used by any schema. */
+    private void expunge() {
+        SchemaReference ref;
+        while ((ref = (SchemaReference) fQueue.poll()) != null) {
+            fReferences.remove(ref);
+            final SharedGrammars grammars = ref.fGrammars;
+            if (--grammars.fReferenceCount == 0) {
+                if (fGrammars.get(grammars.fKey) == grammars) {
+                    fGrammars.remove(grammars.fKey);
+                }
+                for (int i = 0; i < grammars.fSourceKeys.size(); ++i) {
+                    fGrammarsBySources.remove(grammars.fSourceKeys.get(i));
+                }
+                grammars.fSourceKeys.clear();
+            }
+        }
+    }
+
+    /**
+     * Hashes the settings and the documents of the grammars, or returns
+     * null if a document cannot be read. The documents given as streams
+     * are not read again; null is also returned if one of them is not a
+     * document of the grammars.
+     */
+    private static SharedGrammars createSharedGrammars(String settings, SchemaGrammar[] grammars,
+            HashMap<String, byte[]> contentHashes) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            digest.update(settings.getBytes("UTF-8"));
+        }
+        catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+        catch (UnsupportedEncodingException e) {
+            return null;
+        }
+        final SchemaGrammar[] sorted = (SchemaGrammar[]) grammars.clone();
+        Arrays.sort(sorted, NAMESPACE_ORDER);
+        final ArrayList<String> documents = new ArrayList<String>();
+        final ArrayList<byte[]> hashes = new ArrayList<byte[]>();
+        final HashSet<String> hashedContents = new HashSet<String>();
+        for (int i = 0; i < sorted.length; ++i) {
+            final String namespace = sorted[i].getTargetNamespace();
+            final StringList locations = sorted[i].getDocumentLocations();
+            if (locations.getLength() == 0) {
+                return null;
+            }
+            update(digest, (namespace != null) ? namespace : "");
+            for (int j = 0; j < locations.getLength(); ++j) {
+                final String location = locations.item(j);
+                byte[] hash = null;
+                if (contentHashes != null && contentHashes.containsKey(location)) {
+                    hash = contentHashes.get(location);
+                    hashedContents.add(location);
+                }
+                else if (location != null) {
+                    hash = PersistentGrammarPool.getDocumentHash(location);
+                }
+                if (hash == null) {
+                    return null;
+                }
+                update(digest, location);
+                digest.update(hash);
+                documents.add(location);
+                hashes.add(hash);
+            }
+            // the components read by the schemas are never changed again
+            sorted[i].traverseAll();
+        }
+        if (contentHashes != null && hashedContents.size() != contentHashes.size()) {
+            return null;
+        }
+        final byte[] key = digest.digest();
+        final StringBuffer buffer = new StringBuffer(key.length * 2);
+        for (int i = 0; i < key.length; ++i) {
+            buffer.append(Character.forDigit((key[i] >> 4) & 0xF, 16));
+            buffer.append(Character.forDigit(key[i] & 0xF, 16));
+        }
+        return new SharedGrammars(buffer.toString(), grammars,
+                (String[]) documents.toArray(new String[documents.size()]),
+                (byte[][]) hashes.toArray(new byte[hashes.size()][]));
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        try {
+            digest.update(s.getBytes("UTF-8"));
+        }
+        catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+        }
+        digest.update((byte) 0);
+    }
+
+    /*
+     * Classes
+     */
+
+    /**
+     * A set of registered grammars, with the documents they were loaded
+     * from. Guarded by the registry, except for the final fields.
+     */
+    private static final class SharedGrammars {
+
+        /** The hash of the settings and of the documents. */
+        final String fKey;
+
+        /** The grammars. */
+        final SchemaGrammar[] fGrammars;
+
+        /** The frozen pool of the grammars. */
+        final SharedGrammarPool fPool;
+
+        /** The documents of the grammars, and their hashes. */
+        final String[] fDocuments;
+        final byte[][] fHashes;
+
+        /** The keys of the sources the grammars were loaded from. */
+        final ArrayList<String> fSourceKeys = new ArrayList<String>();
+
+        /** The number of schemas not garbage collected holding the grammars. */
+        int fReferenceCount = 0;
+
+        SharedGrammars(String key, SchemaGrammar[] grammars, String[] documents, byte[][] hashes) {
+            fKey = key;
+            fGrammars = grammars;
+            fPool = new SharedGrammarPool(grammars);
+            fDocuments = documents;
+            fHashes = hashes;
+        }
+
+        /** Whether all the documents still have the same contents. */
+        boolean isCurrent() {
+            for (int i = 0; i < fDocuments.length; ++i) {
+                if (!Arrays.equals(fHashes[i], PersistentGrammarPool.getDocumentHash(fDocuments[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    } // SharedGrammarRegistry.SharedGrammars
+
+    /**
+     * A pool holding a set of shared grammars, to which no grammar can
+     * be added or removed. Its <code>XSModel</code> is only built once.
+     */
+    static final class SharedGrammarPool extends XSGrammarPool {
+
+        /** The model of the grammars, and the schema version it was built for. */
+        private XSModel fModel;
+        private short fModelVersion;
+
+        SharedGrammarPool(SchemaGrammar[] grammars) {
+            for (int i = 0; i < grammars.length; ++i) {
+                putGrammar(grammars[i]);
+            }
+            fPoolIsLocked = true;
+        }
+
+        public void unlockPool() {
+            // noop. this pool is always read-only.
+        }
+
+        public void clear() {
+            // noop. this pool is always read-only.
+        }
+
+        protected synchronized XSModel toXSModel(SchemaGrammar[] grammars, short schemaVersion) {
+            if (fModel == null || fModelVersion != schemaVersion) {
+                fModel = super.toXSModel(grammars, schemaVersion);
+                fModelVersion = schemaVersion;
+            }
+            return fModel;
+        }
+
+    } // SharedGrammarRegistry.SharedGrammarPool
+
+    /** A reference to a schema holding registered grammars. */
+    private static final class SchemaReference extends WeakReference<AbstractXMLSchema> {
+
+        final SharedGrammars fGrammars;
+
+        SchemaReference(AbstractXMLSchema schema, SharedGrammars grammars,
+                ReferenceQueue<AbstractXMLSchema> queue) {
+            super(schema, queue);
+            fGrammars = grammars;
+        }
+
+    } // SharedGrammarRegistry.SchemaReference
+
+} // SharedGrammarRegistry
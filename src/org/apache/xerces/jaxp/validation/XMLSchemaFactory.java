@@ -20,6 +20,7 @@ package org.apache.xerces.jaxp.validation;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.HashMap;
 
 import javax.xml.XMLConstants;
 import javax.xml.stream.XMLEventReader;
@@ -32,6 +33,8 @@ import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 
 import org.apache.xerces.impl.Constants;
+import org.apache.xerces.impl.XMLEntityManager;
+import org.apache.xerces.impl.xs.SchemaGrammar;
 import org.apache.xerces.impl.xs.XMLSchemaLoader;
 import org.apache.xerces.util.DOMEntityResolverWrapper;
 import org.apache.xerces.util.DOMInputSource;
@@ -40,13 +43,16 @@ import org.apache.xerces.util.SAXInputSource;
 import org.apache.xerces.util.SAXMessageFormatter;
 import org.apache.xerces.util.SecurityManager;
 import org.apache.xerces.util.StAXInputSource;
+import org.apache.xerces.util.URI.MalformedURIException;
 import org.apache.xerces.util.XMLGrammarPoolImpl;
 import org.apache.xerces.xni.XNIException;
 import org.apache.xerces.xni.grammars.Grammar;
 import org.apache.xerces.xni.grammars.XMLGrammarDescription;
 import org.apache.xerces.xni.grammars.XMLGrammarPool;
 import org.apache.xerces.xni.parser.XMLConfigurationException;
+import org.apache.xerces.xni.parser.XMLErrorHandler;
 import org.apache.xerces.xni.parser.XMLInputSource;
+import org.apache.xerces.xni.parser.XMLParseException;
 import org.w3c.dom.Node;
 import org.w3c.dom.ls.LSResourceResolver;
 import org.xml.sax.ErrorHandler;
@@ -77,6 +83,10 @@ public final class XMLSchemaFactory extends SchemaFactory {
     private static final String USE_GRAMMAR_POOL_ONLY =
         Constants.XERCES_FEATURE_PREFIX + Constants.USE_GRAMMAR_POOL_ONLY_FEATURE;
     
+    /** Feature identifier: shared schema grammars. */
+    private static final String SHARED_SCHEMA_GRAMMARS =
+        Constants.XERCES_FEATURE_PREFIX + Constants.SHARED_SCHEMA_GRAMMARS_FEATURE;
+    
     // property identifiers
     
     /** Property identifier: grammar pool. */
@@ -87,6 +97,14 @@ public final class XMLSchemaFactory extends SchemaFactory {
     private static final String SECURITY_MANAGER =
         Constants.XERCES_PROPERTY_PREFIX + Constants.SECURITY_MANAGER_PROPERTY;
     
+    /** Property identifier: schema location. */
+    private static final String SCHEMA_LOCATION =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_LOCATION;
+    
+    /** Property identifier: no namespace schema location. */
+    private static final String SCHEMA_NONS_LOCATION =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_NONS_LOCATION;
+    
     //
     // Data
     //
@@ -115,6 +133,9 @@ public final class XMLSchemaFactory extends SchemaFactory {
     /** Whether or not to allow new schemas to be added to the grammar pool */
     private boolean fUseGrammarPoolOnly;
     
+    /** Whether or not to share the grammars of the schemas with other factories */
+    private boolean fSharedGrammars;
+    
     public XMLSchemaFactory() {
         fErrorHandlerWrapper = new ErrorHandlerWrapper(DraconianErrorHandler.getInstance());
         fDOMEntityResolverWrapper = new DOMEntityResolverWrapper();
@@ -124,6 +145,7 @@ public final class XMLSchemaFactory extends SchemaFactory {
         fXMLSchemaLoader.setEntityResolver(fDOMEntityResolverWrapper);
         fXMLSchemaLoader.setErrorHandler(fErrorHandlerWrapper);
         fUseGrammarPoolOnly = true;
+        fSharedGrammars = false;
     }
     
     /**
@@ -230,6 +252,39 @@ public final class XMLSchemaFactory extends SchemaFactory {
             }
         }
         
+        // the grammars can only be shared if the documents are found
+        // from their system identifiers alone
+        String settings = null;
+        String sourceKey = null;
+        HashMap<String, byte[]> contentHashes = null;
+        ErrorCounter errorCounter = null;
+        if (fSharedGrammars && fUseGrammarPoolOnly && fLSResourceResolver == null) {
+            settings = getSettings();
+            sourceKey = getSourceKey(settings, xmlInputSources);
+            if (sourceKey != null) {
+                AbstractXMLSchema schema = SharedGrammarRegistry.getInstance().getSchema(sourceKey);
+                if (schema != null) {
+                    fXMLGrammarPoolWrapper.setGrammarPool(null);
+                    propagateFeatures(schema);
+                    return schema;
+                }
+            }
+            else {
+                // the documents given as streams are hashed as they are loaded
+                try {
+                    contentHashes = SharedGrammarRegistry.readSources(xmlInputSources);
+                }
+                catch (IOException e) {
+                    fXMLGrammarPoolWrapper.setGrammarPool(null);
+                    throw reportIOException(e);
+                }
+            }
+            if (sourceKey != null || contentHashes != null) {
+                errorCounter = new ErrorCounter(fErrorHandlerWrapper);
+                fXMLSchemaLoader.setErrorHandler(errorCounter);
+            }
+        }
+        
         try {
             fXMLSchemaLoader.loadGrammar(xmlInputSources);
         } 
@@ -238,12 +293,12 @@ public final class XMLSchemaFactory extends SchemaFactory {
             throw Util.toSAXException(e);
         } 
         catch (IOException e) {
-            // this hasn't been reported, so do so now.
-            SAXParseException se = new SAXParseException(e.getMessage(),null,e);
-            if (fErrorHandler != null) {
-                fErrorHandler.error(se);
+            throw reportIOException(e);
+        }
+        finally {
+            if (errorCounter != null) {
+                fXMLSchemaLoader.setErrorHandler(fErrorHandlerWrapper);
             }
-            throw se; // and we must throw it.
         }
         
         // Clear reference to grammar pool.
@@ -252,21 +307,30 @@ public final class XMLSchemaFactory extends SchemaFactory {
         // Select Schema implementation based on grammar count.
         final int grammarCount = pool.getGrammarCount();
         AbstractXMLSchema schema = null;
-        if (fUseGrammarPoolOnly) {
-            if (grammarCount > 1) {
-                schema = new XMLSchema(new ReadOnlyGrammarPool(pool));
-            }
-            else if (grammarCount == 1) {
-                Grammar[] grammars = pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA);
-                schema = new SimpleXMLSchema(grammars[0]);
+        if (errorCounter != null && errorCounter.fCount == 0 && grammarCount > 0) {
+            Grammar[] grammars = pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA);
+            SchemaGrammar[] schemaGrammars = new SchemaGrammar[grammars.length];
+            System.arraycopy(grammars, 0, schemaGrammars, 0, grammars.length);
+            schema = SharedGrammarRegistry.getInstance().register(settings, sourceKey,
+                    schemaGrammars, contentHashes);
+        }
+        if (schema == null) {
+            if (fUseGrammarPoolOnly) {
+                if (grammarCount > 1) {
+                    schema = new XMLSchema(new ReadOnlyGrammarPool(pool));
+                }
+                else if (grammarCount == 1) {
+                    Grammar[] grammars = pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA);
+                    schema = new SimpleXMLSchema(grammars[0]);
+                }
+                else {
+                    schema = new EmptyXMLSchema();
+                }
             }
             else {
-                schema = new EmptyXMLSchema();
+                schema = new XMLSchema(new ReadOnlyGrammarPool(pool), false);
             }
         }
-        else {
-            schema = new XMLSchema(new ReadOnlyGrammarPool(pool), false);
-        }
         propagateFeatures(schema);
         return schema;
     }
@@ -318,6 +382,9 @@ public final class XMLSchemaFactory extends SchemaFactory {
         else if (name.equals(USE_GRAMMAR_POOL_ONLY)) {
             return fUseGrammarPoolOnly;
         }
+        else if (name.equals(SHARED_SCHEMA_GRAMMARS)) {
+            return fSharedGrammars;
+        }
         try {
             return fXMLSchemaLoader.getFeature(name);
         }
@@ -393,6 +460,10 @@ public final class XMLSchemaFactory extends SchemaFactory {
             fUseGrammarPoolOnly = value;
             return;
         }
+        else if (name.equals(SHARED_SCHEMA_GRAMMARS)) {
+            fSharedGrammars = value;
+            return;
+        }
         try {
             fXMLSchemaLoader.setFeature(name, value);
         }
@@ -454,6 +525,67 @@ public final class XMLSchemaFactory extends SchemaFactory {
         }
     }
     
+    /**
+     * Returns the settings of the loader which affect the grammars it
+     * loads, under which they are shared.
+     */
+    private String getSettings() {
+        StringBuffer settings = new StringBuffer();
+        String[] features = fXMLSchemaLoader.getRecognizedFeatures();
+        for (int i = 0; i < features.length; ++i) {
+            settings.append(features[i]).append('=');
+            settings.append(fXMLSchemaLoader.getFeature(features[i])).append('\n');
+        }
+        if (fSecurityManager != null) {
+            settings.append(SECURITY_MANAGER).append('=');
+            settings.append(fSecurityManager.getEntityExpansionLimit()).append(',');
+            settings.append(fSecurityManager.getMaxOccurNodeLimit()).append('\n');
+        }
+        settings.append(SCHEMA_LOCATION).append('=');
+        settings.append(fXMLSchemaLoader.getProperty(SCHEMA_LOCATION)).append('\n');
+        settings.append(SCHEMA_NONS_LOCATION).append('=');
+        settings.append(fXMLSchemaLoader.getProperty(SCHEMA_NONS_LOCATION)).append('\n');
+        return settings.toString();
+    }
+    
+    /**
+     * Reports an I/O error which happened while reading the schema
+     * documents, and returns it as an exception to throw.
+     */
+    private SAXParseException reportIOException(IOException e) throws SAXException {
+        // this hasn't been reported, so do so now.
+        SAXParseException se = new SAXParseException(e.getMessage(),null,e);
+        if (fErrorHandler != null) {
+            fErrorHandler.error(se);
+        }
+        return se; // and we must throw it.
+    }
+    
+    /**
+     * Returns the settings and the expanded system identifiers of the
+     * sources, or null if a source is not only a system identifier.
+     */
+    private static String getSourceKey(String settings, XMLInputSource[] sources) {
+        StringBuffer key = new StringBuffer(settings);
+        for (int i = 0; i < sources.length; ++i) {
+            XMLInputSource source = sources[i];
+            if (source.getClass() != XMLInputSource.class || 
+                source.getByteStream() != null ||
+                source.getCharacterStream() != null ||
+                source.getSystemId() == null) {
+                return null;
+            }
+            try {
+                key.append(XMLEntityManager.expandSystemId(source.getSystemId(), null, false));
+            }
+            catch (MalformedURIException e) {
+                return null;
+            }
+            key.append('\n');
+        }
+        return key.toString();
+    }
+    
     /** 
      * Extension of XMLGrammarPoolImpl which exposes the number of
      * grammars stored in the grammar pool.
@@ -526,4 +658,35 @@ public final class XMLSchemaFactory extends SchemaFactory {
         
     } // XMLSchemaFactory.XMLGrammarPoolWrapper
     
+    /**
+     * An error handler which counts the warnings and errors
+     * reported to another.
+     */
+    static final class ErrorCounter implements XMLErrorHandler {
+        
+        private final XMLErrorHandler fErrorHandler;
+        
+        int fCount = 0;
+        
+        ErrorCounter(XMLErrorHandler errorHandler) {
+            fErrorHandler = errorHandler;
+        }
+        
+        public void warning(String domain, String key, XMLParseException exception) throws XNIException {
+            ++fCount;
+            fErrorHandler.warning(domain, key, exception);
+        }
+        
+        public void error(String domain, String key, XMLParseException exception) throws XNIException {
+            ++fCount;
+            fErrorHandler.error(domain, key, exception);
+        }
+        
+        public void fatalError(String domain, String key, XMLParseException exception) throws XNIException {
+            ++fCount;
+            fErrorHandler.fatalError(domain, key, exception);
+        }
+        
+    } // XMLSchemaFactory.ErrorCounter
+    
 } // XMLSchemaFactory
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.parsers;
+
+import org.apache.xerces.util.BoundedSymbolTable;
+import org.apache.xerces.util.SymbolTable;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.apache.xerces.xni.parser.XMLComponentManager;
+
+/**
+ * This parser configuration extends the default configuration allowing Xerces to 
+ * be reused for a long time on documents whose names are mostly unique, such as
+ * generated identifiers used as element or attribute names, by installing a
+ * <code>SymbolTable</code> of bounded size. The symbols which were not used often
+ * during a parse are discarded before the next one.
+ * 
+ * @see org.apache.xerces.util.BoundedSymbolTable
+ *
+ * @version $Id$
+ */
+public class BoundedSymbolTableConfiguration extends
+    XIncludeAwareParserConfiguration {
+    
+    /** Default constructor. */
+    public BoundedSymbolTableConfiguration() {
+        this(new BoundedSymbolTable(), null, null);
+    } // <init>()
+    
+    /** 
+     * Constructs a parser configuration using the specified symbol table. 
+     *
+     * @param symbolTable The symbol table to use.
+     */
+    public BoundedSymbolTableConfiguration(SymbolTable symbolTable) {
+        this(symbolTable, null, null);
+    } // <init>(SymbolTable)
+    
+    /**
+     * Constructs a parser configuration using the specified symbol table and
+     * grammar pool.
+     *
+     * @param symbolTable the symbol table to use
+     * @param grammarPool the grammar pool to use
+     */
+    public BoundedSymbolTableConfiguration(
+            SymbolTable symbolTable,
+            XMLGrammarPool grammarPool) {
+        this(symbolTable, grammarPool, null);
+    } // <init>(SymbolTable,XMLGrammarPool)
+    
+    /**
+     * Constructs a parser configuration using the specified symbol table,
+     * grammar pool, and parent settings.
+     *
+     * @param symbolTable the symbol table to use
+     * @param grammarPool the grammar pool to use
+     * @param parentSettings the parent settings
+     */
+    public BoundedSymbolTableConfiguration(
+            SymbolTable symbolTable,
+            XMLGrammarPool grammarPool,
+            XMLComponentManager parentSettings) {
+        super(symbolTable, grammarPool, parentSettings);
+    } // <init>(SymbolTable,XMLGrammarPool,XMLComponentManager)
+    
+    /** Recycles the cold symbols of the previous parse before resetting. */
+    protected void resetCommon() throws XNIException {
+        if (fSymbolTable instanceof BoundedSymbolTable) {
+            ((BoundedSymbolTable) fSymbolTable).recycle();
+        }
+        super.resetCommon();
+    } // resetCommon()
+}
@@ -17,6 +17,8 @@
 
 package org.apache.xerces.parsers;
 
+import org.apache.xerces.util.ConcurrentGrammarPool;
+import org.apache.xerces.util.ConcurrentSymbolTable;
 import org.apache.xerces.util.ShadowedSymbolTable;
 import org.apache.xerces.util.SymbolTable;
 import org.apache.xerces.util.SynchronizedSymbolTable;
@@ -38,7 +40,11 @@ import org.apache.xerces.xni.grammars.XMLGrammarPool;
  * <strong>Note:</strong> There is a performance penalty for using
  * a caching parser pool due to thread safety. Access to the symbol 
  * table and grammar pool must be synchronized to ensure the safe
- * operation of the symbol table and grammar pool.
+ * operation of the symbol table and grammar pool. The default symbol
+ * table is a <code>ConcurrentSymbolTable</code>, which does not need
+ * to be synchronized, so that lookups by parsers on different threads
+ * do not contend with one another. Likewise, the default grammar pool
+ * is a <code>ConcurrentGrammarPool</code>, whose lookups take no lock.
  * <p>
  * <strong>Note:</strong> If performance is critical, then another
  * mechanism needs to be used instead of the caching parser pool.
@@ -75,14 +81,16 @@ public class CachingParserPool {
     /** 
      * Symbol table. The symbol table that the caching parser pool is
      * constructed with is automatically wrapped in a synchronized
-     * version for thread-safety.
+     * version for thread-safety, unless it is a concurrent symbol
+     * table.
      */
     protected SymbolTable fSynchronizedSymbolTable;
 
     /** 
      * Grammar pool. The grammar pool that the caching parser pool is
      * constructed with is automatically wrapped in a synchronized
-     * version for thread-safety.
+     * version for thread-safety, unless it is a concurrent grammar
+     * pool.
      */
     protected XMLGrammarPool fSynchronizedGrammarPool;
 
@@ -110,7 +118,7 @@ public class CachingParserPool {
 
     /** Default constructor. */
     public CachingParserPool() {
-        this(new SymbolTable(), new XMLGrammarPoolImpl());
+        this(new ConcurrentSymbolTable(), new ConcurrentGrammarPool());
     } // <init>()
 
     /**
@@ -121,8 +129,12 @@ public class CachingParserPool {
      * @param grammarPool The grammar pool.
      */
     public CachingParserPool(SymbolTable symbolTable, XMLGrammarPool grammarPool) {
-        fSynchronizedSymbolTable = new SynchronizedSymbolTable(symbolTable);
-        fSynchronizedGrammarPool = new SynchronizedGrammarPool(grammarPool);
+        fSynchronizedSymbolTable = symbolTable instanceof ConcurrentSymbolTable
+                                 ? symbolTable
+                                 : new SynchronizedSymbolTable(symbolTable);
+        fSynchronizedGrammarPool = grammarPool instanceof ConcurrentGrammarPool
+                                 ? grammarPool
+                                 : new SynchronizedGrammarPool(grammarPool);
     } // <init>(SymbolTable,XMLGrammarPool)
 
     //
@@ -0,0 +1,1123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.parsers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.apache.xerces.impl.XMLEntityManager;
+import org.apache.xerces.util.SAXEventBuffer;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+
+/**
+ * A SAX parser which parses a single large document on several threads.
+ * It is intended for documents whose root element contains a very large
+ * number of sibling records.
+ * <p>
+ * The byte stream of the document is split into chunks of roughly the
+ * configured size. Each chunk ends just before a start tag with the same
+ * name as the first child of the root element. Each chunk is parsed by
+ * a separate <code>SAXParser</code>, with its own scanner, on a thread of
+ * the supplied executor. The parser for a chunk is given the prologue and
+ * the start tag of the root element of the document before the chunk,
+ * so entity declarations and namespace bindings are in scope. After the
+ * chunk it is given an end tag for the root element. The events inside
+ * the root element are recorded, then replayed to the application's
+ * handlers in document order on the thread which called
+ * <code>parse</code>.
+ * <p>
+ * A split point is only a guess, because a start tag may also appear in a
+ * comment, a CDATA section or a processing instruction. A guess is
+ * confirmed when the chunk before it parses cleanly up to the synthetic
+ * end tag, which means the split fell between records. When a chunk
+ * fails after all of its bytes have been read, it is merged with the
+ * next chunk and parsed again. Any other fatal error is a genuine error
+ * in the document and is reported as usual. Its line number is
+ * relative to the document.
+ * <p>
+ * Only documents encoded in UTF-8 or in an ASCII based single byte
+ * encoding are split; other documents, and documents supplied as a
+ * character stream, are parsed on the calling thread. Since each chunk
+ * is parsed separately, checks which span records, such as the content
+ * model of the root element, identity constraints or ID and IDREF
+ * validation, cannot be performed reliably in this mode, and no
+ * document locator is supplied to the content handler. The entity
+ * resolver may be called on several threads at once.
+ *
+ * @author Xerces team
+ *
+ * @version $Id$
+ */
+public class ParallelSAXParser implements XMLReader {
+
+    //
+    // Constants
+    //
+
+    /** Default chunk size (4 megabytes). */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    //
+    // Data
+    //
+
+    /** Executor on which chunks are parsed. */
+    protected final Executor fExecutor;
+
+    /** Maximum number of chunks which may be read ahead of the one being replayed. */
+    protected final int fMaxPendingChunks;
+
+    /** Target size of a chunk, in bytes. */
+    protected int fChunkSize = DEFAULT_CHUNK_SIZE;
+
+    /** Content handler. */
+    protected ContentHandler fContentHandler;
+
+    /** DTD handler. */
+    protected DTDHandler fDTDHandler;
+
+    /** Error handler. */
+    protected ErrorHandler fErrorHandler;
+
+    /** Entity resolver. */
+    protected EntityResolver fEntityResolver;
+
+    /** Features set on this parser. */
+    private final LinkedHashMap<String, Boolean> fFeatures = new LinkedHashMap<String, Boolean>();
+
+    /** Properties set on this parser. */
+    private final LinkedHashMap<String, Object> fProperties = new LinkedHashMap<String, Object>();
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs a parallel parser which parses chunks on the given
+     * executor, reading ahead at most two chunks per processor.
+     */
+    public ParallelSAXParser(Executor executor) {
+        this(executor, Runtime.getRuntime().availableProcessors() * 2);
+    } // <init>(Executor)
+
+    /**
+     * Constructs a parallel parser which parses chunks on the given
+     * executor.
+     *
+     * @param executor         The executor on which chunks are parsed.
+     * @param maxPendingChunks The maximum number of chunks which may be
+     *                         read and parsed ahead of the chunk whose
+     *                         events are being delivered.
+     */
+    public ParallelSAXParser(Executor executor, int maxPendingChunks) {
+        if (executor == null) {
+            throw new NullPointerException();
+        }
+        fExecutor = executor;
+        fMaxPendingChunks = Math.max(1, maxPendingChunks);
+    } // <init>(Executor,int)
+
+    //
+    // Public methods
+    //
+
+    /** Sets the target size of a chunk, in bytes. */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        fChunkSize = chunkSize;
+    } // setChunkSize(int)
+
+    /** Returns the target size of a chunk, in bytes. */
+    public int getChunkSize() {
+        return fChunkSize;
+    } // getChunkSize():int
+
+    //
+    // XMLReader methods
+    //
+
+    public boolean getFeature(String name)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+        final Boolean state = (Boolean) fFeatures.get(name);
+        if (state != null) {
+            return state.booleanValue();
+        }
+        return new SAXParser().getFeature(name);
+    } // getFeature(String):boolean
+
+    public void setFeature(String name, boolean value)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+        // let a parser check the feature
+        new SAXParser().setFeature(name, value);
+        fFeatures.put(name, value ? Boolean.TRUE : Boolean.FALSE);
+    } // setFeature(String,boolean)
+
+    public Object getProperty(String name)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+        if (fProperties.containsKey(name)) {
+            return fProperties.get(name);
+        }
+        return new SAXParser().getProperty(name);
+    } // getProperty(String):Object
+
+    public void setProperty(String name, Object value)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+        // let a parser check the property
+        new SAXParser().setProperty(name, value);
+        fProperties.put(name, value);
+    } // setProperty(String,Object)
+
+    public void setEntityResolver(EntityResolver resolver) {
+        fEntityResolver = resolver;
+    }
+
+    public EntityResolver getEntityResolver() {
+        return fEntityResolver;
+    }
+
+    public void setDTDHandler(DTDHandler handler) {
+        fDTDHandler = handler;
+    }
+
+    public DTDHandler getDTDHandler() {
+        return fDTDHandler;
+    }
+
+    public void setContentHandler(ContentHandler handler) {
+        fContentHandler = handler;
+    }
+
+    public ContentHandler getContentHandler() {
+        return fContentHandler;
+    }
+
+    public void setErrorHandler(ErrorHandler handler) {
+        fErrorHandler = handler;
+    }
+
+    public ErrorHandler getErrorHandler() {
+        return fErrorHandler;
+    }
+
+    public void parse(String systemId) throws IOException, SAXException {
+        parse(new InputSource(systemId));
+    } // parse(String)
+
+    public void parse(InputSource input) throws IOException, SAXException {
+        if (input.getCharacterStream() != null) {
+            parseSequentially(input);
+            return;
+        }
+        InputStream stream = input.getByteStream();
+        boolean close = false;
+        if (stream == null) {
+            final String expanded = XMLEntityManager.expandSystemId(input.getSystemId(), null, false);
+            stream = new URL(expanded != null ? expanded : input.getSystemId()).openStream();
+            close = true;
+        }
+        try {
+            final Splitter splitter = new Splitter(stream, fChunkSize);
+            if (!splitter.scanPrologue()) {
+                // the document cannot be split
+                final InputSource source = copy(input);
+                source.setByteStream(new SequenceInputStream(
+                    new ByteArrayInputStream(splitter.fBuffer, 0, splitter.fLength), stream));
+                parseSequentially(source);
+                return;
+            }
+            parseChunks(input, splitter);
+        }
+        finally {
+            if (close) {
+                stream.close();
+            }
+        }
+    } // parse(InputSource)
+
+    //
+    // Protected methods
+    //
+
+    /**
+     * Creates the parser used for a chunk. The features and properties
+     * set on this parser are applied to it.
+     */
+    protected XMLReader createChunkParser() throws SAXException {
+        final SAXParser parser = new SAXParser();
+        Iterator entries = fFeatures.entrySet().iterator();
+        while (entries.hasNext()) {
+            final Map.Entry entry = (Map.Entry) entries.next();
+            parser.setFeature((String) entry.getKey(), ((Boolean) entry.getValue()).booleanValue());
+        }
+        entries = fProperties.entrySet().iterator();
+        while (entries.hasNext()) {
+            final Map.Entry entry = (Map.Entry) entries.next();
+            parser.setProperty((String) entry.getKey(), entry.getValue());
+        }
+        parser.setEntityResolver(fEntityResolver);
+        return parser;
+    } // createChunkParser():XMLReader
+
+    //
+    // Private methods
+    //
+
+    /** Parses a document which cannot be split on the calling thread. */
+    private void parseSequentially(InputSource input) throws IOException, SAXException {
+        final XMLReader parser = createChunkParser();
+        parser.setContentHandler(fContentHandler);
+        parser.setDTDHandler(fDTDHandler);
+        parser.setErrorHandler(fErrorHandler);
+        parser.parse(input);
+    } // parseSequentially(InputSource)
+
+    /** Parses the chunks of a document and replays their events in order. */
+    private void parseChunks(InputSource input, Splitter splitter)
+        throws IOException, SAXException {
+
+        if (fContentHandler != null) {
+            fContentHandler.startDocument();
+        }
+        final ArrayDeque<Chunk> pending = new ArrayDeque<Chunk>();
+        try {
+            while (true) {
+                // keep the executor busy
+                while (pending.size() < fMaxPendingChunks && splitter.hasMore()) {
+                    final Chunk chunk = splitter.nextChunk();
+                    chunk.fTask = new FutureTask<ChunkResult>(new ChunkParse(input, splitter, chunk));
+                    fExecutor.execute(chunk.fTask);
+                    pending.addLast(chunk);
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+                Chunk chunk = pending.removeFirst();
+                ChunkResult result = await(chunk);
+
+                // a chunk which fails once all of its bytes have been read
+                // may have been split in the wrong place: parse it again
+                // together with the next chunk
+                while (isMisplacedSplit(splitter, chunk, result)) {
+                    final Chunk next = !pending.isEmpty() ? pending.removeFirst() : splitter.nextChunk();
+                    if (next.fTask != null) {
+                        next.fTask.cancel(false);
+                    }
+                    chunk = Chunk.merge(chunk, next);
+                    result = new ChunkParse(input, splitter, chunk).call();
+                }
+
+                // deliver the events of the chunk
+                final ErrorHandler errorHandler = chunk.fLineOffset != 0 && fErrorHandler != null ?
+                    new LineOffsetErrorHandler(fErrorHandler, chunk.fLineOffset) : fErrorHandler;
+                result.fEvents.replay(fContentHandler, fDTDHandler, errorHandler);
+                if (result.fException != null) {
+                    if (result.fException instanceof IOException) {
+                        throw (IOException) result.fException;
+                    }
+                    if (result.fException instanceof RuntimeException) {
+                        throw (RuntimeException) result.fException;
+                    }
+                    throw (SAXException) result.fException;
+                }
+                if (result.fFatalError != null) {
+                    final SAXParseException e = LineOffsetErrorHandler.adjust(result.fFatalError, chunk.fLineOffset);
+                    if (fErrorHandler != null) {
+                        fErrorHandler.fatalError(e);
+                    }
+                    throw e;
+                }
+            }
+        }
+        finally {
+            final Iterator chunks = pending.iterator();
+            while (chunks.hasNext()) {
+                ((Chunk) chunks.next()).fTask.cancel(false);
+            }
+        }
+        if (fContentHandler != null) {
+            fContentHandler.endDocument();
+        }
+
+    } // parseChunks(InputSource,Splitter)
+
+    /**
+     * Returns true if the parse of a chunk failed in a way which shows
+     * that it was not split between records: at its end, after all of
+     * its bytes had been read.
+     */
+    private static boolean isMisplacedSplit(Splitter splitter, Chunk chunk, ChunkResult result) {
+        if (result.fFatalError == null || !result.fInputConsumed || chunk.fLast) {
+            return false;
+        }
+        final int line = result.fFatalError.getLineNumber();
+        final int lastLine = (chunk.fFirst ? 0 : splitter.fPrologueLines) + chunk.fLines + 1;
+        return line <= 0 || line >= lastLine;
+    } // isMisplacedSplit(Splitter,Chunk,ChunkResult):boolean
+
+    /** Waits for the parse of a chunk to complete. */
+    private static ChunkResult await(Chunk chunk) throws IOException {
+        try {
+            return chunk.fTask.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    } // await(Chunk):ChunkResult
+
+    /** Returns a copy of the given input source without its streams. */
+    private static InputSource copy(InputSource input) {
+        final InputSource source = new InputSource(input.getSystemId());
+        source.setPublicId(input.getPublicId());
+        source.setEncoding(input.getEncoding());
+        return source;
+    } // copy(InputSource):InputSource
+
+    //
+    // Classes
+    //
+
+    /** A range of the bytes of the document. */
+    static final class Chunk {
+
+        /** The bytes of the chunk. */
+        final byte[] fBytes;
+
+        /** The number of bytes in the chunk. */
+        final int fLength;
+
+        /** True if this is the first chunk of the document. */
+        final boolean fFirst;
+
+        /** True if this is the last chunk of the document. */
+        final boolean fLast;
+
+        /**
+         * Difference between the line numbers in the document and
+         * those seen by the parser of this chunk.
+         */
+        final int fLineOffset;
+
+        /** Number of lines ended within the chunk. */
+        final int fLines;
+
+        /** The parse of this chunk. */
+        FutureTask<ChunkResult> fTask;
+
+        Chunk(byte[] bytes, int length, boolean first, boolean last,
+                int lineOffset, int lines) {
+            fBytes = bytes;
+            fLength = length;
+            fFirst = first;
+            fLast = last;
+            fLineOffset = lineOffset;
+            fLines = lines;
+        }
+
+        static Chunk merge(Chunk a, Chunk b) {
+            final byte[] bytes = new byte[a.fLength + b.fLength];
+            System.arraycopy(a.fBytes, 0, bytes, 0, a.fLength);
+            System.arraycopy(b.fBytes, 0, bytes, a.fLength, b.fLength);
+            return new Chunk(bytes, bytes.length, a.fFirst, b.fLast,
+                    a.fLineOffset, a.fLines + b.fLines);
+        }
+
+    } // class Chunk
+
+    /** Reads the document and splits it into chunks. */
+    static final class Splitter {
+
+        /** The document. */
+        private final InputStream fStream;
+
+        /** Target size of a chunk. */
+        private final int fChunkSize;
+
+        /** Bytes read but not yet returned in a chunk. */
+        byte[] fBuffer;
+
+        /** Number of bytes in the buffer. */
+        int fLength;
+
+        /** True once the end of the stream has been reached. */
+        private boolean fEOF;
+
+        /** True until the first chunk has been returned. */
+        private boolean fFirst = true;
+
+        /** The bytes of the document up to the end of the root start tag. */
+        byte[] fPrologue;
+
+        /** Number of lines ended within the prologue. */
+        int fPrologueLines;
+
+        /** An end tag for the root element. */
+        byte[] fRootEndTag;
+
+        /** The name of the elements at which the document is split. */
+        private byte[] fRecordName;
+
+        /** Number of lines ended before the next chunk. */
+        private int fLines;
+
+        Splitter(InputStream stream, int chunkSize) {
+            fStream = stream;
+            fChunkSize = chunkSize;
+            fBuffer = new byte[Math.max(8192, Math.min(chunkSize, 1 << 20))];
+        }
+
+        boolean hasMore() {
+            return fLength > 0 || !fEOF;
+        }
+
+        /**
+         * Reads the prologue of the document, the start tag of the root
+         * element and the name of its first child. Returns false if the
+         * document cannot be split.
+         */
+        boolean scanPrologue() throws IOException {
+            int i = 0;
+            if (byteAt(0) == 0xEF && byteAt(1) == 0xBB && byteAt(2) == 0xBF) {
+                i = 3;
+            }
+            // only ASCII based encodings are split
+            if (byteAt(i) != '<' || byteAt(i + 1) == 0) {
+                return false;
+            }
+            while (true) {
+                i = skipSpaces(i);
+                if (byteAt(i) != '<') {
+                    return false;
+                }
+                final int b = byteAt(i + 1);
+                if (b == '?') {
+                    final int end = indexOf(i + 2, "?>");
+                    if (end == -1) {
+                        return false;
+                    }
+                    if (startsWith(i, "<?xml") && isSpace(byteAt(i + 5)) &&
+                        !isSplittableEncoding(i + 5, end)) {
+                        return false;
+                    }
+                    i = end + 2;
+                }
+                else if (b == '!') {
+                    if (startsWith(i, "<!--")) {
+                        final int end = indexOf(i + 4, "-->");
+                        if (end == -1) {
+                            return false;
+                        }
+                        i = end + 3;
+                    }
+                    else if (startsWith(i, "<!DOCTYPE")) {
+                        i = skipDoctype(i + 9);
+                        if (i == -1) {
+                            return false;
+                        }
+                    }
+                    else {
+                        return false;
+                    }
+                }
+                else {
+                    break;
+                }
+            }
+
+            // root start tag
+            final int nameEnd = scanName(i + 1);
+            if (nameEnd == i + 1) {
+                return false;
+            }
+            final int tagEnd = skipTag(nameEnd);
+            if (tagEnd == -1 || byteAt(tagEnd - 2) == '/') {
+                return false;
+            }
+            fPrologue = new byte[tagEnd];
+            System.arraycopy(fBuffer, 0, fPrologue, 0, tagEnd);
+            fPrologueLines = countLines(fPrologue, 0, tagEnd);
+            final int nameLength = nameEnd - (i + 1);
+            fRootEndTag = new byte[nameLength + 3];
+            fRootEndTag[0] = '<';
+            fRootEndTag[1] = '/';
+            System.arraycopy(fBuffer, i + 1, fRootEndTag, 2, nameLength);
+            fRootEndTag[nameLength + 2] = '>';
+
+            // name of the first record
+            i = tagEnd;
+            while (true) {
+                i = indexOf(i, "<");
+                if (i == -1 || i > fChunkSize + tagEnd) {
+                    return false;
+                }
+                final int b = byteAt(i + 1);
+                if (b == '!') {
+                    if (startsWith(i, "<!--")) {
+                        i = indexOf(i + 4, "-->");
+                    }
+                    else if (startsWith(i, "<![CDATA[")) {
+                        i = indexOf(i + 9, "]]>");
+                    }
+                    else {
+                        return false;
+                    }
+                }
+                else if (b == '?') {
+                    i = indexOf(i + 2, "?>");
+                }
+                else if (b == '/') {
+                    // no child elements
+                    return false;
+                }
+                else {
+                    final int end = scanName(i + 1);
+                    if (end == i + 1) {
+                        return false;
+                    }
+                    fRecordName = new byte[end - (i + 1)];
+                    System.arraycopy(fBuffer, i + 1, fRecordName, 0, fRecordName.length);
+                    return true;
+                }
+                if (i == -1) {
+                    return false;
+                }
+            }
+        } // scanPrologue():boolean
+
+        /** Returns the next chunk of the document. */
+        Chunk nextChunk() throws IOException {
+            int from = fFirst ? Math.max(fChunkSize, fPrologue.length) : Math.max(1, fChunkSize);
+            int cut = -1;
+            final int nameLength = fRecordName.length;
+            while (cut == -1) {
+                fill(from + nameLength + 2);
+                final int end = fLength - nameLength - 1;
+                for (int i = from; i < end; ++i) {
+                    if (fBuffer[i] == '<' && isRecordStart(i + 1)) {
+                        cut = i;
+                        break;
+                    }
+                }
+                if (cut == -1) {
+                    if (fEOF) {
+                        cut = fLength;
+                    }
+                    else {
+                        from = Math.max(from, end);
+                        fill(fLength << 1);
+                    }
+                }
+            }
+            final byte[] bytes = new byte[cut];
+            System.arraycopy(fBuffer, 0, bytes, 0, cut);
+            System.arraycopy(fBuffer, cut, fBuffer, 0, fLength - cut);
+            fLength -= cut;
+            final int lines = countLines(bytes, 0, cut);
+            final Chunk chunk = new Chunk(bytes, cut, fFirst, fEOF && fLength == 0,
+                    fFirst ? 0 : fLines - fPrologueLines, lines);
+            fLines += lines;
+            fFirst = false;
+            return chunk;
+        } // nextChunk():Chunk
+
+        /** Returns true if a record's start tag begins at the given index. */
+        private boolean isRecordStart(int index) {
+            final byte[] name = fRecordName;
+            for (int j = 0; j < name.length; ++j) {
+                if (fBuffer[index + j] != name[j]) {
+                    return false;
+                }
+            }
+            final int b = fBuffer[index + name.length];
+            return b == '>' || b == '/' || isSpace(b);
+        } // isRecordStart(int):boolean
+
+        /** Reads until the buffer holds the given number of bytes. */
+        private void fill(int length) throws IOException {
+            while (fLength < length && !fEOF) {
+                if (fLength == fBuffer.length) {
+                    final byte[] buffer = new byte[Math.max(fLength << 1, length)];
+                    System.arraycopy(fBuffer, 0, buffer, 0, fLength);
+                    fBuffer = buffer;
+                }
+                final int count = fStream.read(fBuffer, fLength, fBuffer.length - fLength);
+                if (count == -1) {
+                    fEOF = true;
+                }
+                else {
+                    fLength += count;
+                }
+            }
+        } // fill(int)
+
+        /** Returns the byte at the given index, or -1 past the end of the document. */
+        private int byteAt(int index) throws IOException {
+            fill(index + 1);
+            return index < fLength ? fBuffer[index] & 0xFF : -1;
+        } // byteAt(int):int
+
+        private boolean startsWith(int index, String s) throws IOException {
+            for (int j = 0; j < s.length(); ++j) {
+                if (byteAt(index + j) != s.charAt(j)) {
+                    return false;
+                }
+            }
+            return true;
+        } // startsWith(int,String):boolean
+
+        private int indexOf(int index, String s) throws IOException {
+            while (byteAt(index) != -1) {
+                if (startsWith(index, s)) {
+                    return index;
+                }
+                ++index;
+            }
+            return -1;
+        } // indexOf(int,String):int
+
+        private int skipSpaces(int index) throws IOException {
+            while (isSpace(byteAt(index))) {
+                ++index;
+            }
+            return index;
+        } // skipSpaces(int):int
+
+        private int scanName(int index) throws IOException {
+            int b = byteAt(index);
+            while (b != -1 && b != '>' && b != '/' && b != '=' && !isSpace(b)) {
+                b = byteAt(++index);
+            }
+            return index;
+        } // scanName(int):int
+
+        /** Skips the rest of a tag, returning the index after its '>'. */
+        private int skipTag(int index) throws IOException {
+            int quote = -1;
+            for (int b = byteAt(index); b != -1; b = byteAt(++index)) {
+                if (quote != -1) {
+                    if (b == quote) {
+                        quote = -1;
+                    }
+                }
+                else if (b == '"' || b == '\'') {
+                    quote = b;
+                }
+                else if (b == '>') {
+                    return index + 1;
+                }
+            }
+            return -1;
+        } // skipTag(int):int
+
+        /** Skips the rest of a document type declaration. */
+        private int skipDoctype(int index) throws IOException {
+            int quote = -1;
+            boolean subset = false;
+            for (int b = byteAt(index); b != -1; b = byteAt(++index)) {
+                if (quote != -1) {
+                    if (b == quote) {
+                        quote = -1;
+                    }
+                }
+                else if (b == '"' || b == '\'') {
+                    quote = b;
+                }
+                else if (subset && b == '<' && startsWith(index, "<!--")) {
+                    index = indexOf(index + 4, "-->");
+                    if (index == -1) {
+                        return -1;
+                    }
+                    index += 2;
+                }
+                else if (subset && b == '<' && byteAt(index + 1) == '?') {
+                    index = indexOf(index + 2, "?>");
+                    if (index == -1) {
+                        return -1;
+                    }
+                    index += 1;
+                }
+                else if (b == '[') {
+                    subset = true;
+                }
+                else if (b == ']') {
+                    subset = false;
+                }
+                else if (b == '>' && !subset) {
+                    return index + 1;
+                }
+            }
+            return -1;
+        } // skipDoctype(int):int
+
+        /**
+         * Returns true if the encoding declared in the XML declaration
+         * between the given indexes is one in which the document can
+         * be split.
+         */
+        private boolean isSplittableEncoding(int start, int end) throws IOException {
+            final StringBuffer decl = new StringBuffer(end - start);
+            for (int i = start; i < end; ++i) {
+                decl.append((char) byteAt(i));
+            }
+            final String s = decl.toString();
+            final int index = s.indexOf("encoding");
+            if (index == -1) {
+                return true;
+            }
+            int i = s.indexOf('=', index);
+            if (i == -1) {
+                return false;
+            }
+            i = i + 1;
+            while (i < s.length() && isSpace(s.charAt(i))) {
+                ++i;
+            }
+            if (i == s.length()) {
+                return false;
+            }
+            final int close = s.indexOf(s.charAt(i), i + 1);
+            if (close == -1) {
+                return false;
+            }
+            final String encoding = s.substring(i + 1, close).toUpperCase(Locale.ENGLISH);
+            return encoding.equals("UTF-8") || encoding.equals("UTF8") ||
+                encoding.equals("US-ASCII") || encoding.equals("ASCII") ||
+                encoding.startsWith("ISO-8859-") || encoding.startsWith("WINDOWS-125");
+        } // isSplittableEncoding(int,int):boolean
+
+        private static boolean isSpace(int b) {
+            return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+        } // isSpace(int):boolean
+
+        /** Counts the lines ended in the given bytes, as the parser does. */
+        static int countLines(byte[] bytes, int offset, int length) {
+            int lines = 0;
+            for (int i = offset, end = offset + length; i < end; ++i) {
+                final byte b = bytes[i];
+                if (b == '\n') {
+                    ++lines;
+                }
+                else if (b == '\r' && (i + 1 == end || bytes[i + 1] != '\n')) {
+                    ++lines;
+                }
+            }
+            return lines;
+        } // countLines(byte[],int,int):int
+
+    } // class Splitter
+
+    /** The outcome of the parse of a chunk. */
+    static final class ChunkResult {
+
+        /** The events of the chunk which are to be delivered. */
+        final SAXEventBuffer fEvents = new SAXEventBuffer();
+
+        /** The fatal error which ended the parse, if any. */
+        SAXParseException fFatalError;
+
+        /** Any other exception which ended the parse. */
+        Exception fException;
+
+        /** True if the parser had read all of the bytes of the chunk. */
+        boolean fInputConsumed;
+
+    } // class ChunkResult
+
+    /** Parses a chunk, recording the events to be delivered. */
+    final class ChunkParse implements Callable<ChunkResult> {
+
+        private final InputSource fInput;
+        private final Splitter fSplitter;
+        private final Chunk fChunk;
+
+        ChunkParse(InputSource input, Splitter splitter, Chunk chunk) {
+            fInput = input;
+            fSplitter = splitter;
+            fChunk = chunk;
+        }
+
+        public ChunkResult call() {
+            final ChunkResult result = new ChunkResult();
+            final ChunkInputStream stream = new ChunkInputStream(
+                    fChunk.fFirst ? null : fSplitter.fPrologue, fChunk.fBytes, fChunk.fLength,
+                    fChunk.fLast ? null : fSplitter.fRootEndTag);
+            final ChunkHandler handler = new ChunkHandler(result.fEvents, fChunk.fFirst, fChunk.fLast);
+            final InputSource source = copy(fInput);
+            source.setByteStream(stream);
+            try {
+                final XMLReader parser = createChunkParser();
+                parser.setContentHandler(handler);
+                parser.setDTDHandler(handler);
+                parser.setErrorHandler(handler);
+                parser.parse(source);
+            }
+            catch (SAXParseException e) {
+                result.fFatalError = e;
+            }
+            catch (SAXException e) {
+                result.fException = e;
+            }
+            catch (IOException e) {
+                result.fException = e;
+            }
+            catch (RuntimeException e) {
+                result.fException = e;
+            }
+            result.fInputConsumed = stream.fConsumed;
+            return result;
+        }
+
+    } // class ChunkParse
+
+    /** The input of the parser of a chunk. */
+    static final class ChunkInputStream extends InputStream {
+
+        private final byte[][] fParts;
+        private final int[] fLengths;
+        private int fPart;
+        private int fOffset;
+
+        /** True once the bytes of the chunk have been read. */
+        boolean fConsumed;
+
+        ChunkInputStream(byte[] prologue, byte[] bytes, int length, byte[] suffix) {
+            fParts = new byte[][] { prologue, bytes, suffix };
+            fLengths = new int[] {
+                prologue != null ? prologue.length : 0, length,
+                suffix != null ? suffix.length : 0 };
+        }
+
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (fPart < fParts.length && fOffset == fLengths[fPart]) {
+                if (fPart == 1) {
+                    fConsumed = true;
+                }
+                ++fPart;
+                fOffset = 0;
+            }
+            if (fPart == fParts.length) {
+                return -1;
+            }
+            final int count = Math.min(len, fLengths[fPart] - fOffset);
+            System.arraycopy(fParts[fPart], fOffset, b, off, count);
+            fOffset += count;
+            if (fPart == 1 && fOffset == fLengths[1]) {
+                fConsumed = true;
+            }
+            return count;
+        }
+
+        public int available() {
+            return fPart < fParts.length ? fLengths[fPart] - fOffset : 0;
+        }
+
+    } // class ChunkInputStream
+
+    /**
+     * Records the events of a chunk which are to be delivered: those
+     * within the root element, along with the prologue and the root start
+     * tag for the first chunk and the root end tag and epilogue for the
+     * last chunk.
+     */
+    static final class ChunkHandler
+        implements ContentHandler, DTDHandler, ErrorHandler {
+
+        private final SAXEventBuffer fEvents;
+        private final boolean fHead;
+        private final boolean fTail;
+        private int fDepth;
+        private boolean fRootSeen;
+
+        ChunkHandler(SAXEventBuffer events, boolean head, boolean tail) {
+            fEvents = events;
+            fHead = head;
+            fTail = tail;
+        }
+
+        /** Returns true if an event outside of the root element is delivered. */
+        private boolean outside() {
+            return fRootSeen ? fTail : fHead;
+        }
+
+        public void setDocumentLocator(Locator locator) {}
+
+        public void startDocument() throws SAXException {}
+
+        public void endDocument() throws SAXException {}
+
+        public void startPrefixMapping(String prefix, String uri) throws SAXException {
+            if (fDepth > 0 || outside()) {
+                fEvents.startPrefixMapping(prefix, uri);
+            }
+        }
+
+        public void endPrefixMapping(String prefix) throws SAXException {
+            if (fDepth > 0 || outside()) {
+                fEvents.endPrefixMapping(prefix);
+            }
+        }
+
+        public void startElement(String uri, String localName, String qName,
+                Attributes atts) throws SAXException {
+            if (fDepth > 0 || fHead) {
+                fEvents.startElement(uri, localName, qName, atts);
+            }
+            fRootSeen = true;
+            ++fDepth;
+        }
+
+        public void endElement(String uri, String localName, String qName)
+                throws SAXException {
+            if (--fDepth > 0 || fTail) {
+                fEvents.endElement(uri, localName, qName);
+            }
+        }
+
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            if (fDepth > 0) {
+                fEvents.characters(ch, start, length);
+            }
+        }
+
+        public void ignorableWhitespace(char[] ch, int start, int length)
+                throws SAXException {
+            if (fDepth > 0) {
+                fEvents.ignorableWhitespace(ch, start, length);
+            }
+        }
+
+        public void processingInstruction(String target, String data)
+                throws SAXException {
+            if (fDepth > 0 || outside()) {
+                fEvents.processingInstruction(target, data);
+            }
+        }
+
+        public void skippedEntity(String name) throws SAXException {
+            if (fDepth > 0 || outside()) {
+                fEvents.skippedEntity(name);
+            }
+        }
+
+        public void notationDecl(String name, String publicId, String systemId)
+                throws SAXException {
+            if (fHead) {
+                fEvents.notationDecl(name, publicId, systemId);
+            }
+        }
+
+        public void unparsedEntityDecl(String name, String publicId,
+                String systemId, String notationName) throws SAXException {
+            if (fHead) {
+                fEvents.unparsedEntityDecl(name, publicId, systemId, notationName);
+            }
+        }
+
+        public void warning(SAXParseException exception) throws SAXException {
+            if (fDepth > 0 || outside()) {
+                fEvents.warning(exception);
+            }
+        }
+
+        public void error(SAXParseException exception) throws SAXException {
+            if (fDepth > 0 || outside()) {
+                fEvents.error(exception);
+            }
+        }
+
+        public void fatalError(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+
+    } // class ChunkHandler
+
+    /** Translates the line numbers of errors in a chunk to those of the document. */
+    static final class LineOffsetErrorHandler implements ErrorHandler {
+
+        private final ErrorHandler fErrorHandler;
+        private final int fLineOffset;
+
+        LineOffsetErrorHandler(ErrorHandler errorHandler, int lineOffset) {
+            fErrorHandler = errorHandler;
+            fLineOffset = lineOffset;
+        }
+
+        public void warning(SAXParseException exception) throws SAXException {
+            fErrorHandler.warning(adjust(exception, fLineOffset));
+        }
+
+        public void error(SAXParseException exception) throws SAXException {
+            fErrorHandler.error(adjust(exception, fLineOffset));
+        }
+
+        public void fatalError(SAXParseException exception) throws SAXException {
+            fErrorHandler.fatalError(adjust(exception, fLineOffset));
+        }
+
+        static SAXParseException adjust(SAXParseException e, int lineOffset) {
+            if (lineOffset == 0 || e.getLineNumber() <= 0) {
+                return e;
+            }
+            return new SAXParseException(e.getMessage(), e.getPublicId(), e.getSystemId(),
+                    e.getLineNumber() + lineOffset, e.getColumnNumber(), e.getException());
+        }
+
+    } // class LineOffsetErrorHandler
+
+} // class ParallelSAXParser
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.parsers;
+
+/**
+ * The interface through which a <code>RecordParser</code> passes the
+ * records of a document to the application.
+ * <p>
+ * Each record is first passed to <code>processRecord</code> on a thread
+ * of the parser's executor, so several records may be processed at
+ * once. The value returned is then passed, along with the record, to
+ * <code>recordProcessed</code> on the thread which called
+ * <code>parse</code>. Calls to <code>recordProcessed</code> are never
+ * made concurrently; they are made in document order if the parser is
+ * ordered and in the order in which processing completed otherwise.
+ *
+ * @see RecordParser
+ *
+ * @author Xerces team
+ *
+ * @version $Id$
+ */
+public interface RecordHandler {
+
+    /**
+     * Processes a record. This method may be called by several threads
+     * at once.
+     *
+     * @param record The record.
+     *
+     * @return A value to be passed to <code>recordProcessed</code>.
+     *
+     * @throws Exception Thrown to stop the parse.
+     */
+    public Object processRecord(XMLRecord record) throws Exception;
+
+    /**
+     * Receives the result of the processing of a record.
+     *
+     * @param record The record.
+     * @param result The value returned by <code>processRecord</code>.
+     *
+     * @throws Exception Thrown to stop the parse.
+     */
+    public void recordProcessed(XMLRecord record, Object result) throws Exception;
+
+} // interface RecordHandler
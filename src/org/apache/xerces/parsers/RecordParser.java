@@ -0,0 +1,639 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.parsers;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
+
+import org.apache.xerces.util.SAXEventBuffer;
+import org.xml.sax.Attributes;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * A parser which splits a document into records, the subtrees rooted at
+ * the elements at a given path, and passes each record to a
+ * <code>RecordHandler</code> on the threads of an executor.
+ * <p>
+ * The document is parsed by a <code>SAXParser</code> on the thread which
+ * calls <code>parse</code>. The events of each record are stored in a
+ * compact <code>SAXEventBuffer</code>; a DOM document for the record can
+ * be requested from the record itself. If a schema has been set, each
+ * record is validated against it, on a thread of the executor, before it
+ * is passed to the handler; the schema must declare the root element of
+ * the records as a global element. Content outside of the records is
+ * not reported.
+ * <p>
+ * The path is a list of steps, each starting with a '/', from the root
+ * element of the document to the root of a record, such as
+ * <code>/root/record</code>. A step is a local name, a local name
+ * preceded by a namespace name in braces, such as
+ * <code>{http://example.org/}record</code>, or '*', which matches any
+ * element. A step without a namespace name matches elements in any
+ * namespace. Records are not nested: elements matching the path
+ * within a record are part of that record.
+ * <p>
+ * At most a given number of records may be waiting to be processed or
+ * to have their results delivered; when that number is reached, parsing
+ * stops until a record has been processed. The results of processing
+ * are delivered on the thread which called <code>parse</code>, in
+ * document order or, if the parser is not ordered, as soon as each one
+ * is available.
+ *
+ * @see RecordHandler
+ * @see XMLRecord
+ *
+ * @author Xerces team
+ *
+ * @version $Id$
+ */
+public class RecordParser {
+
+    //
+    // Data
+    //
+
+    /** Executor on which records are processed. */
+    protected final Executor fExecutor;
+
+    /** The namespace names of the steps of the path, or null for any namespace. */
+    private final String[] fStepURIs;
+
+    /** The local names of the steps of the path, or null for any name. */
+    private final String[] fStepNames;
+
+    /** The parser of documents. */
+    protected final SAXParser fParser = new SAXParser();
+
+    /** Maximum number of records which may be outstanding. */
+    protected int fMaxPendingRecords = Runtime.getRuntime().availableProcessors() * 4;
+
+    /** True if results are delivered in document order. */
+    protected boolean fOrdered = true;
+
+    /** The schema against which records are validated, or null. */
+    protected Schema fSchema;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs a record parser.
+     *
+     * @param path     The path of the roots of the records.
+     * @param executor The executor on which records are processed. The
+     *                 executor is not shut down by this parser, so it may
+     *                 be shared and used for several parses.
+     */
+    public RecordParser(String path, Executor executor) {
+        if (executor == null) {
+            throw new NullPointerException();
+        }
+        fExecutor = executor;
+        final ArrayList<String> uris = new ArrayList<String>();
+        final ArrayList<String> names = new ArrayList<String>();
+        int index = 0;
+        while (index < path.length()) {
+            if (path.charAt(index) != '/') {
+                throw new IllegalArgumentException("Invalid record path \"" + path + "\".");
+            }
+            int end = index + 1;
+            if (end < path.length() && path.charAt(end) == '{') {
+                end = path.indexOf('}', end);
+                if (end == -1) {
+                    throw new IllegalArgumentException("Invalid record path \"" + path + "\".");
+                }
+            }
+            end = path.indexOf('/', end);
+            if (end == -1) {
+                end = path.length();
+            }
+            String step = path.substring(index + 1, end);
+            String uri = null;
+            if (step.startsWith("{")) {
+                final int close = step.indexOf('}');
+                uri = step.substring(1, close);
+                step = step.substring(close + 1);
+            }
+            if (step.length() == 0 || (uri != null && step.equals("*"))) {
+                throw new IllegalArgumentException("Invalid record path \"" + path + "\".");
+            }
+            uris.add(uri);
+            names.add(step.equals("*") ? null : step);
+            index = end;
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Invalid record path \"" + path + "\".");
+        }
+        fStepURIs = uris.toArray(new String[uris.size()]);
+        fStepNames = names.toArray(new String[names.size()]);
+    } // <init>(String,Executor)
+
+    //
+    // Public methods
+    //
+
+    /**
+     * Sets the maximum number of records which may be waiting to be
+     * processed or to have their results delivered.
+     */
+    public void setMaxPendingRecords(int maxPendingRecords) {
+        if (maxPendingRecords <= 0) {
+            throw new IllegalArgumentException("The maximum number of pending records must be positive.");
+        }
+        fMaxPendingRecords = maxPendingRecords;
+    } // setMaxPendingRecords(int)
+
+    /** Returns the maximum number of records which may be outstanding. */
+    public int getMaxPendingRecords() {
+        return fMaxPendingRecords;
+    } // getMaxPendingRecords():int
+
+    /**
+     * Sets whether the results of processing are delivered in document
+     * order. The default is true.
+     */
+    public void setOrdered(boolean ordered) {
+        fOrdered = ordered;
+    } // setOrdered(boolean)
+
+    /** Returns true if the results of processing are delivered in document order. */
+    public boolean isOrdered() {
+        return fOrdered;
+    } // isOrdered():boolean
+
+    /** Sets the schema against which records are validated, or null. */
+    public void setSchema(Schema schema) {
+        fSchema = schema;
+    } // setSchema(Schema)
+
+    /** Returns the schema against which records are validated. */
+    public Schema getSchema() {
+        return fSchema;
+    } // getSchema():Schema
+
+    /** Sets a feature of the parser of documents. */
+    public void setFeature(String name, boolean value)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+        fParser.setFeature(name, value);
+    } // setFeature(String,boolean)
+
+    /** Returns a feature of the parser of documents. */
+    public boolean getFeature(String name)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+        return fParser.getFeature(name);
+    } // getFeature(String):boolean
+
+    /** Sets a property of the parser of documents. */
+    public void setProperty(String name, Object value)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+        fParser.setProperty(name, value);
+    } // setProperty(String,Object)
+
+    /** Returns a property of the parser of documents. */
+    public Object getProperty(String name)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+        return fParser.getProperty(name);
+    } // getProperty(String):Object
+
+    /** Sets the entity resolver of the parser of documents. */
+    public void setEntityResolver(EntityResolver resolver) {
+        fParser.setEntityResolver(resolver);
+    } // setEntityResolver(EntityResolver)
+
+    /** Sets the error handler of the parser of documents. */
+    public void setErrorHandler(ErrorHandler handler) {
+        fParser.setErrorHandler(handler);
+    } // setErrorHandler(ErrorHandler)
+
+    /** Parses the document with the given system identifier. */
+    public void parse(String systemId, RecordHandler handler)
+        throws IOException, SAXException {
+        parse(new InputSource(systemId), handler);
+    } // parse(String,RecordHandler)
+
+    /**
+     * Parses a document, passing each of its records to the given
+     * handler. When this method returns normally, all of the records
+     * have been processed and their results delivered. If parsing fails
+     * or the handler throws an exception, records which have not started
+     * processing are abandoned and the exception is thrown; an exception
+     * thrown by the handler is wrapped in a <code>SAXException</code>.
+     */
+    public void parse(InputSource input, RecordHandler handler)
+        throws IOException, SAXException {
+        final Splitter splitter = new Splitter(handler);
+        fParser.setContentHandler(splitter);
+        try {
+            fParser.parse(input);
+            while (splitter.fPendingCount > 0) {
+                splitter.deliver(splitter.take());
+            }
+        }
+        finally {
+            fParser.setContentHandler(null);
+            splitter.cancel();
+        }
+    } // parse(InputSource,RecordHandler)
+
+    //
+    // Classes
+    //
+
+    /**
+     * Collects the records of a document, submits them to the executor
+     * and delivers their results.
+     */
+    final class Splitter extends DefaultHandler {
+
+        /** The handler of records. */
+        private final RecordHandler fHandler;
+
+        /** Records submitted, in document order, if ordered. */
+        private final ArrayDeque<RecordTask> fSubmitted = new ArrayDeque<RecordTask>();
+
+        /** Records whose processing has completed, if not ordered. */
+        private final LinkedBlockingQueue<RecordTask> fCompleted = new LinkedBlockingQueue<RecordTask>();
+
+        /** Number of records whose results have not been delivered. */
+        int fPendingCount;
+
+        /** The validators used on each thread. */
+        private final ThreadLocal<ValidatorHandler> fValidators = new ThreadLocal<ValidatorHandler>();
+
+        /** Namespace bindings in scope: pairs of prefix and namespace name. */
+        private final ArrayList<String> fBindings = new ArrayList<String>();
+
+        /** Size of the binding list before the bindings of each open element. */
+        private int[] fBindingMarks = new int[16];
+
+        /** Size of the binding list before the bindings of the next element. */
+        private int fElementBindings;
+
+        /** The depth of the current element. */
+        private int fDepth;
+
+        /** Number of steps of the path matched by the open elements. */
+        private int fMatched;
+
+        /** The events of the current record, or null. */
+        private SAXEventBuffer fEvents;
+
+        /** The depth of the root of the current record. */
+        private int fRecordDepth;
+
+        /** The number of records found. */
+        private long fRecordCount;
+
+        /** True once the parse has ended. */
+        private volatile boolean fCancelled;
+
+        Splitter(RecordHandler handler) {
+            fHandler = handler;
+        }
+
+        //
+        // ContentHandler methods
+        //
+
+        public void startPrefixMapping(String prefix, String uri) throws SAXException {
+            if (fEvents != null) {
+                fEvents.startPrefixMapping(prefix, uri);
+            }
+            else {
+                fBindings.add(prefix);
+                fBindings.add(uri);
+            }
+        }
+
+        public void endPrefixMapping(String prefix) throws SAXException {
+            if (fEvents != null) {
+                fEvents.endPrefixMapping(prefix);
+            }
+        }
+
+        public void startElement(String uri, String localName, String qName,
+                Attributes attributes) throws SAXException {
+            if (fEvents != null) {
+                fEvents.startElement(uri, localName, qName, attributes);
+                ++fDepth;
+                return;
+            }
+            if (fDepth == fBindingMarks.length) {
+                final int[] marks = new int[fDepth << 1];
+                System.arraycopy(fBindingMarks, 0, marks, 0, fDepth);
+                fBindingMarks = marks;
+            }
+            fBindingMarks[fDepth] = fElementBindings;
+            fElementBindings = fBindings.size();
+            if (fDepth == fMatched && fMatched < fStepNames.length &&
+                    matches(fMatched, uri, localName, qName)) {
+                if (++fMatched == fStepNames.length) {
+                    // start of a record
+                    fEvents = new SAXEventBuffer();
+                    fRecordDepth = fDepth;
+                    fEvents.startDocument();
+                    startBindings();
+                    fEvents.startElement(uri, localName, qName, attributes);
+                }
+            }
+            ++fDepth;
+        }
+
+        public void endElement(String uri, String localName, String qName)
+                throws SAXException {
+            --fDepth;
+            if (fEvents != null) {
+                fEvents.endElement(uri, localName, qName);
+                if (fDepth > fRecordDepth) {
+                    return;
+                }
+                // end of a record
+                endBindings();
+                fEvents.endDocument();
+                final XMLRecord record = new XMLRecord(fRecordCount++, fEvents);
+                fEvents = null;
+                submit(record);
+            }
+            if (fMatched > fDepth) {
+                fMatched = fDepth;
+            }
+            fElementBindings = fBindingMarks[fDepth];
+            for (int i = fBindings.size() - 1; i >= fElementBindings; --i) {
+                fBindings.remove(i);
+            }
+        }
+
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            if (fEvents != null) {
+                fEvents.characters(ch, start, length);
+            }
+        }
+
+        public void ignorableWhitespace(char[] ch, int start, int length)
+                throws SAXException {
+            if (fEvents != null) {
+                fEvents.ignorableWhitespace(ch, start, length);
+            }
+        }
+
+        public void processingInstruction(String target, String data)
+                throws SAXException {
+            if (fEvents != null) {
+                fEvents.processingInstruction(target, data);
+            }
+        }
+
+        public void skippedEntity(String name) throws SAXException {
+            if (fEvents != null) {
+                fEvents.skippedEntity(name);
+            }
+        }
+
+        //
+        // Package methods
+        //
+
+        /** Waits for the next result to be delivered. */
+        RecordTask take() throws SAXException {
+            try {
+                if (fOrdered) {
+                    final RecordTask task = fSubmitted.removeFirst();
+                    try {
+                        task.get();
+                    }
+                    catch (ExecutionException e) {
+                        // reported by deliver
+                    }
+                    return task;
+                }
+                return fCompleted.take();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SAXException(e);
+            }
+        } // take():RecordTask
+
+        /** Delivers the result of processing of a record to the handler. */
+        void deliver(RecordTask task) throws SAXException {
+            --fPendingCount;
+            final Object result;
+            try {
+                result = task.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SAXException(e);
+            }
+            catch (ExecutionException e) {
+                throw wrap(e.getCause());
+            }
+            try {
+                fHandler.recordProcessed(task.fRecord, result);
+            }
+            catch (Exception e) {
+                throw wrap(e);
+            }
+        } // deliver(RecordTask)
+
+        /** Cancels the processing of records which have not started. */
+        void cancel() {
+            fCancelled = true;
+            final Iterator<RecordTask> tasks = fSubmitted.iterator();
+            while (tasks.hasNext()) {
+                tasks.next().cancel(false);
+            }
+            fSubmitted.clear();
+        } // cancel()
+
+        //
+        // Private methods
+        //
+
+        /** Returns true if an element matches a step of the path. */
+        private boolean matches(int step, String uri, String localName, String qName) {
+            final String name = fStepNames[step];
+            if (name != null && !name.equals(localName.length() > 0 ? localName : qName)) {
+                return false;
+            }
+            final String stepURI = fStepURIs[step];
+            return stepURI == null || stepURI.equals(uri);
+        } // matches(int,String,String,String):boolean
+
+        /** Records the namespace bindings in scope at the start of a record. */
+        private void startBindings() throws SAXException {
+            for (int i = 0; i < fBindings.size(); i += 2) {
+                final String prefix = fBindings.get(i);
+                if (isInScope(i, prefix)) {
+                    fEvents.startPrefixMapping(prefix, fBindings.get(i + 1));
+                }
+            }
+        } // startBindings()
+
+        /** Records the end of the namespace bindings in scope for a record. */
+        private void endBindings() throws SAXException {
+            for (int i = 0; i < fBindings.size(); i += 2) {
+                final String prefix = fBindings.get(i);
+                if (isInScope(i, prefix)) {
+                    fEvents.endPrefixMapping(prefix);
+                }
+            }
+        } // endBindings()
+
+        /**
+         * Returns true if the binding at the given index is not hidden by
+         * a later binding of the same prefix and does not undeclare the
+         * default namespace.
+         */
+        private boolean isInScope(int index, String prefix) {
+            if (prefix.length() == 0 && fBindings.get(index + 1).length() == 0) {
+                return false;
+            }
+            for (int j = index + 2; j < fBindings.size(); j += 2) {
+                if (prefix.equals(fBindings.get(j))) {
+                    return false;
+                }
+            }
+            return true;
+        } // isInScope(int,String):boolean
+
+        /** Submits a record for processing, waiting if too many are outstanding. */
+        private void submit(XMLRecord record) throws SAXException {
+            while (fPendingCount >= fMaxPendingRecords) {
+                deliver(take());
+            }
+            final RecordTask task = new RecordTask(record, new RecordProcessor(record));
+            if (fOrdered) {
+                fSubmitted.addLast(task);
+            }
+            ++fPendingCount;
+            fExecutor.execute(task);
+            // deliver the results which are ready
+            if (fOrdered) {
+                while (!fSubmitted.isEmpty() && (fSubmitted.peekFirst()).isDone()) {
+                    deliver(fSubmitted.removeFirst());
+                }
+            }
+            else {
+                RecordTask done;
+                while ((done = fCompleted.poll()) != null) {
+                    deliver(done);
+                }
+            }
+        } // submit(XMLRecord)
+
+        /** Wraps an exception thrown while processing a record. */
+        private SAXException wrap(Throwable e) {
+            if (e instanceof SAXException) {
+                return (SAXException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            return new SAXException((Exception) e);
+        } // wrap(Throwable):SAXException
+
+        /** The processing of a record. */
+        final class RecordTask extends FutureTask<Object> {
+
+            /** The record. */
+            final XMLRecord fRecord;
+
+            RecordTask(XMLRecord record, Callable<Object> processor) {
+                super(processor);
+                fRecord = record;
+            }
+
+            protected void done() {
+                if (!fOrdered && !isCancelled()) {
+                    fCompleted.add(this);
+                }
+            }
+
+        } // class RecordTask
+
+        /** Validates a record if required and passes it to the handler. */
+        final class RecordProcessor implements Callable<Object> {
+
+            /** The record. */
+            private final XMLRecord fRecord;
+
+            RecordProcessor(XMLRecord record) {
+                fRecord = record;
+            }
+
+            public Object call() throws Exception {
+                if (fCancelled) {
+                    return null;
+                }
+                if (fSchema != null) {
+                    validate();
+                }
+                return fHandler.processRecord(fRecord);
+            }
+
+            private void validate() throws SAXException {
+                ValidatorHandler validator = fValidators.get();
+                if (validator == null) {
+                    validator = fSchema.newValidatorHandler();
+                    fValidators.set(validator);
+                }
+                final XMLRecord record = fRecord;
+                validator.setErrorHandler(new ErrorHandler() {
+                    public void warning(SAXParseException e) {
+                        record.addWarning(e);
+                    }
+                    public void error(SAXParseException e) {
+                        record.addError(e);
+                    }
+                    public void fatalError(SAXParseException e) throws SAXException {
+                        record.addError(e);
+                        throw e;
+                    }
+                });
+                try {
+                    record.getEvents().replay(validator, null, null);
+                }
+                catch (SAXParseException e) {
+                    // already recorded
+                }
+            }
+
+        } // class RecordProcessor
+
+    } // class Splitter
+
+} // class RecordParser
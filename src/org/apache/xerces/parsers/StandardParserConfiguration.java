@@ -112,6 +112,14 @@ public class StandardParserConfiguration
     protected static final String TOLERATE_DUPLICATES = 
         Constants.XERCES_FEATURE_PREFIX + Constants.TOLERATE_DUPLICATES_FEATURE;
 
+    /** Feature identifier: parallel schema loading */
+    protected static final String PARALLEL_SCHEMA_LOADING = 
+        Constants.XERCES_FEATURE_PREFIX + Constants.PARALLEL_SCHEMA_LOADING_FEATURE;
+
+    /** Feature identifier: lazy schema traversal */
+    protected static final String LAZY_SCHEMA_TRAVERSAL = 
+        Constants.XERCES_FEATURE_PREFIX + Constants.LAZY_SCHEMA_TRAVERSAL_FEATURE;
+
     /** Feature identifier: whether to ignore xsi:type attributes until a global element declaration is encountered */
     protected static final String IGNORE_XSI_TYPE =
         Constants.XERCES_FEATURE_PREFIX + Constants.IGNORE_XSI_TYPE_FEATURE;
@@ -153,6 +161,14 @@ public class StandardParserConfiguration
     /** Property identifier: Schema DV Factory */
     protected static final String SCHEMA_DV_FACTORY = 
         Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_DV_FACTORY_PROPERTY;
+
+    /** Property identifier: generated content models. */
+    protected static final String COMPILED_CONTENT_MODELS = 
+        Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_COMPILED_CONTENT_MODELS_PROPERTY;
+
+    /** Property identifier: identity constraint spill threshold. */
+    protected static final String IDC_SPILL_THRESHOLD = 
+        Constants.XERCES_PROPERTY_PREFIX + Constants.IDC_SPILL_THRESHOLD_PROPERTY;
     
     //
     // Data
@@ -224,6 +240,8 @@ public class StandardParserConfiguration
             HONOUR_ALL_SCHEMALOCATIONS,
             NAMESPACE_GROWTH,
             TOLERATE_DUPLICATES,
+            PARALLEL_SCHEMA_LOADING,
+            LAZY_SCHEMA_TRAVERSAL,
             // NOTE: These shouldn't really be here but since the XML Schema
             //       validator is constructed dynamically, its recognized
             //       features might not have been set and it would cause a
@@ -246,6 +264,8 @@ public class StandardParserConfiguration
         setFeature(HONOUR_ALL_SCHEMALOCATIONS, false);
         setFeature(NAMESPACE_GROWTH, false);
         setFeature(TOLERATE_DUPLICATES, false);
+        setFeature(PARALLEL_SCHEMA_LOADING, false);
+        setFeature(LAZY_SCHEMA_TRAVERSAL, false);
 
         setFeature(IGNORE_XSI_TYPE, false);
         setFeature(ID_IDREF_CHECKING, true);
@@ -264,6 +284,8 @@ public class StandardParserConfiguration
             ROOT_TYPE_DEF,
             ROOT_ELEMENT_DECL,
             SCHEMA_DV_FACTORY,
+            COMPILED_CONTENT_MODELS,
+            IDC_SPILL_THRESHOLD,
         };
         
         addRecognizedProperties(recognizedProperties);
@@ -18,6 +18,7 @@
 package org.apache.xerces.parsers;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Locale;
@@ -40,6 +41,8 @@ import org.apache.xerces.impl.dtd.XMLDTDProcessor;
 import org.apache.xerces.impl.dtd.XMLDTDValidator;
 import org.apache.xerces.impl.dtd.XMLNSDTDValidator;
 import org.apache.xerces.impl.dv.DTDDVFactory;
+import org.apache.xerces.impl.io.FeedInputStream;
+import org.apache.xerces.impl.io.InputPendingException;
 import org.apache.xerces.impl.msg.XMLMessageFormatter;
 import org.apache.xerces.impl.validation.ValidationManager;
 import org.apache.xerces.impl.xs.XMLSchemaValidator;
@@ -60,7 +63,7 @@ import org.apache.xerces.xni.parser.XMLDocumentSource;
 import org.apache.xerces.xni.parser.XMLEntityResolver;
 import org.apache.xerces.xni.parser.XMLErrorHandler;
 import org.apache.xerces.xni.parser.XMLInputSource;
-import org.apache.xerces.xni.parser.XMLPullParserConfiguration;
+import org.apache.xerces.xni.parser.XMLPushParserConfiguration;
 
 /**
  * This class is the configuration used to parse XML 1.0 and XML 1.1 documents.
@@ -72,7 +75,7 @@ import org.apache.xerces.xni.parser.XMLPullParserConfiguration;
  * @version $Id$
  */
 public class XML11Configuration extends ParserConfigurationSettings
-    implements XMLPullParserConfiguration, XML11Configurable {
+    implements XMLPushParserConfiguration, XML11Configurable {
 
     //
     // Constants
@@ -153,6 +156,14 @@ public class XML11Configuration extends ParserConfigurationSettings
     /** Feature identifier: tolerate duplicates */
     protected static final String TOLERATE_DUPLICATES = 
         Constants.XERCES_FEATURE_PREFIX + Constants.TOLERATE_DUPLICATES_FEATURE;
+
+    /** Feature identifier: parallel schema loading */
+    protected static final String PARALLEL_SCHEMA_LOADING = 
+        Constants.XERCES_FEATURE_PREFIX + Constants.PARALLEL_SCHEMA_LOADING_FEATURE;
+
+    /** Feature identifier: lazy schema traversal */
+    protected static final String LAZY_SCHEMA_TRAVERSAL = 
+        Constants.XERCES_FEATURE_PREFIX + Constants.LAZY_SCHEMA_TRAVERSAL_FEATURE;
     
     /** Feature identifier: use grammar pool only */
     protected static final String USE_GRAMMAR_POOL_ONLY =
@@ -290,6 +301,23 @@ public class XML11Configuration extends ParserConfigurationSettings
     /** Property identifier: Schema DV Factory */
     protected static final String SCHEMA_DV_FACTORY = 
         Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_DV_FACTORY_PROPERTY;
+
+    /** Property identifier: generated content models. */
+    protected static final String COMPILED_CONTENT_MODELS = 
+        Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_COMPILED_CONTENT_MODELS_PROPERTY;
+
+    /** Property identifier: identity constraint spill threshold. */
+    protected static final String IDC_SPILL_THRESHOLD = 
+        Constants.XERCES_PROPERTY_PREFIX + Constants.IDC_SPILL_THRESHOLD_PROPERTY;
+
+    // push parsing
+
+    /** 
+     * Number of bytes which must be available before a document which
+     * is being fed is started: enough for the encoding and the version
+     * of the document to be determined.
+     */
+    private static final int MIN_FEED_START = 16;
     
     // debugging
 
@@ -351,6 +379,12 @@ public class XML11Configuration extends ParserConfigurationSettings
      */
 	protected boolean fConfigUpdated = false;
 
+    /** 
+     * The input of the document being parsed by the push parsing
+     * methods, or null if a document is not being parsed this way.
+     */
+    protected FeedInputStream fFeedInput;
+
     //
     // XML 1.0 components
     //
@@ -438,6 +472,8 @@ public class XML11Configuration extends ParserConfigurationSettings
 
     /** 
      * Constructs a parser configuration using the specified symbol table. 
+     * A <code>ConcurrentSymbolTable</code> may be shared by configurations
+     * used on different threads.
      *
      * @param symbolTable The symbol table to use.
      */
@@ -500,7 +536,7 @@ public class XML11Configuration extends ParserConfigurationSettings
 		        NORMALIZE_DATA, SCHEMA_ELEMENT_DEFAULT, SCHEMA_AUGMENT_PSVI,
 		        GENERATE_SYNTHETIC_ANNOTATIONS, VALIDATE_ANNOTATIONS,
 		        HONOUR_ALL_SCHEMALOCATIONS, NAMESPACE_GROWTH,
-		        TOLERATE_DUPLICATES, IGNORE_XSI_TYPE,
+		        TOLERATE_DUPLICATES, PARALLEL_SCHEMA_LOADING, LAZY_SCHEMA_TRAVERSAL, IGNORE_XSI_TYPE,
 		        ID_IDREF_CHECKING, IDENTITY_CONSTRAINT_CHECKING,
 		        UNPARSED_ENTITY_CHECKING, USE_GRAMMAR_POOL_ONLY,
 		        // NOTE: These shouldn't really be here but since the XML Schema
@@ -529,6 +565,8 @@ public class XML11Configuration extends ParserConfigurationSettings
         fFeatures.put(HONOUR_ALL_SCHEMALOCATIONS, Boolean.FALSE);
         fFeatures.put(NAMESPACE_GROWTH, Boolean.FALSE);
         fFeatures.put(TOLERATE_DUPLICATES, Boolean.FALSE);
+        fFeatures.put(PARALLEL_SCHEMA_LOADING, Boolean.FALSE);
+        fFeatures.put(LAZY_SCHEMA_TRAVERSAL, Boolean.FALSE);
         fFeatures.put(IGNORE_XSI_TYPE, Boolean.FALSE);
         fFeatures.put(ID_IDREF_CHECKING, Boolean.TRUE);
         fFeatures.put(IDENTITY_CONSTRAINT_CHECKING, Boolean.TRUE);
@@ -565,6 +603,8 @@ public class XML11Configuration extends ParserConfigurationSettings
                 ROOT_TYPE_DEF,
                 ROOT_ELEMENT_DECL,
                 SCHEMA_DV_FACTORY,
+                COMPILED_CONTENT_MODELS,
+                IDC_SPILL_THRESHOLD,
         };
         addRecognizedProperties(recognizedProperties);
 		
@@ -783,6 +823,14 @@ public class XML11Configuration extends ParserConfigurationSettings
      */
     public void cleanup() {
         fEntityManager.closeReaders();
+        if (fSchemaValidator != null) {
+            // left by a document whose parse did not reach its end
+            fSchemaValidator.deleteSpillFiles();
+        }
+        if (fFeedInput != null) {
+            fFeedInput = null;
+            fParseInProgress = false;
+        }
     }
 
     /**
@@ -900,6 +948,54 @@ public class XML11Configuration extends ParserConfigurationSettings
         }
 
     } // parse(boolean):boolean
+
+    //
+    // XMLPushParserConfiguration methods
+    //
+
+    /**
+     * Supplies the next bytes of the document and parses as much of
+     * the document as they allow.
+     *
+     * @param buffer The array containing the bytes.
+     * @param offset The offset of the first byte in the array.
+     * @param length The number of bytes.
+     *
+     * @exception XNIException Throws exception on XNI error.
+     * @exception java.io.IOException Throws exception on i/o error.
+     */
+    public void feed(byte[] buffer, int offset, int length)
+        throws XNIException, IOException {
+        startFeeding().feed(buffer, offset, length);
+        parseFedInput();
+    } // feed(byte[],int,int)
+
+    /**
+     * Supplies the bytes remaining in the given buffer as the next
+     * bytes of the document and parses as much of the document as
+     * they allow.
+     *
+     * @param buffer The buffer containing the bytes.
+     *
+     * @exception XNIException Throws exception on XNI error.
+     * @exception java.io.IOException Throws exception on i/o error.
+     */
+    public void feed(ByteBuffer buffer) throws XNIException, IOException {
+        startFeeding().feed(buffer);
+        parseFedInput();
+    } // feed(ByteBuffer)
+
+    /**
+     * Signals that all of the bytes of the document have been supplied
+     * and parses the remainder of the document.
+     *
+     * @exception XNIException Throws exception on XNI error.
+     * @exception java.io.IOException Throws exception on i/o error.
+     */
+    public void endOfInput() throws XNIException, IOException {
+        startFeeding().endOfInput();
+        parseFedInput();
+    } // endOfInput()
     
 	/**
 	 * Returns the state of a feature.
@@ -1574,6 +1670,59 @@ public class XML11Configuration extends ParserConfigurationSettings
         }
     } 
 
+    /**
+     * Returns the input of the document being parsed by the push
+     * parsing methods, beginning a new document if there is none.
+     */
+    private FeedInputStream startFeeding() {
+        if (fFeedInput == null) {
+            if (fParseInProgress) {
+                // REVISIT - need to add new error message
+                throw new XNIException("FWK005 parse may not be called while parsing.");
+            }
+            XMLInputSource source = fInputSource;
+            if (source == null) {
+                source = new XMLInputSource(null, null, null);
+            }
+            fFeedInput = new FeedInputStream(source.getEncoding());
+            source.setByteStream(fFeedInput);
+            source.setCharacterStream(null);
+            fInputSource = source;
+            fParseInProgress = true;
+        }
+        return fFeedInput;
+    } // startFeeding():FeedInputStream
+
+    /**
+     * Parses as much of the document being fed as possible. The
+     * document is only started once its version can be determined
+     * from the input, since version detection cannot be resumed.
+     */
+    private void parseFedInput() throws XNIException, IOException {
+        if (fInputSource != null && !fFeedInput.isEnded() &&
+            fFeedInput.available() < MIN_FEED_START) {
+            return;
+        }
+        boolean pending = false;
+        try {
+            while (parse(false)) {}
+        }
+        catch (InputPendingException e) {
+            pending = true;
+        }
+        catch (XNIException e) {
+            if (!(e.getException() instanceof InputPendingException)) {
+                throw e;
+            }
+            pending = true;
+        }
+        finally {
+            if (!pending) {
+                cleanup();
+            }
+        }
+    } // parseFedInput()
+
     private void initXML11Components() {
         if (!f11Initialized) {
 
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.parsers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.xerces.dom.DocumentImpl;
+import org.apache.xerces.util.SAXEventBuffer;
+import org.apache.xerces.xni.NamespaceContext;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * A subtree of a document found by a <code>RecordParser</code>.
+ * <p>
+ * The subtree is held as a list of SAX events which form a document on
+ * their own: the start tag of the record is preceded by prefix mappings
+ * for all of the namespace bindings in scope. A DOM document holding
+ * the subtree is built on demand.
+ * <p>
+ * A record must only be used by one thread at a time.
+ *
+ * @see RecordParser
+ *
+ * @author Xerces team
+ *
+ * @version $Id$
+ */
+public final class XMLRecord {
+
+    //
+    // Data
+    //
+
+    /** The position of this record in the document, starting at zero. */
+    private final long fIndex;
+
+    /** The events of the record. */
+    private final SAXEventBuffer fEvents;
+
+    /** The warnings reported when the record was validated. */
+    private List<SAXParseException> fWarnings = Collections.emptyList();
+
+    /** The errors reported when the record was validated. */
+    private List<SAXParseException> fErrors = Collections.emptyList();
+
+    /** The record as a DOM document, once built. */
+    private Document fDocument;
+
+    //
+    // Constructors
+    //
+
+    XMLRecord(long index, SAXEventBuffer events) {
+        fIndex = index;
+        fEvents = events;
+    } // <init>(long,SAXEventBuffer)
+
+    //
+    // Public methods
+    //
+
+    /** Returns the position of this record in the document, starting at zero. */
+    public long getIndex() {
+        return fIndex;
+    } // getIndex():long
+
+    /** Returns the events of this record. */
+    public SAXEventBuffer getEvents() {
+        return fEvents;
+    } // getEvents():SAXEventBuffer
+
+    /** Sends the events of this record to the given content handler. */
+    public void replay(ContentHandler handler) throws SAXException {
+        fEvents.replay(handler, null, null);
+    } // replay(ContentHandler)
+
+    /**
+     * Returns a DOM document whose document element is the root of this
+     * record. The document is built the first time this method is called.
+     */
+    public Document getDocument() throws SAXException {
+        if (fDocument == null) {
+            final DOMBuilder builder = new DOMBuilder();
+            fEvents.replay(builder, null, null);
+            fDocument = builder.fDocument;
+        }
+        return fDocument;
+    } // getDocument():Document
+
+    /**
+     * Returns the warnings reported when this record was validated.
+     * The list is empty if the record was not validated.
+     */
+    public List<SAXParseException> getWarnings() {
+        return fWarnings;
+    } // getWarnings():List
+
+    /**
+     * Returns the errors reported when this record was validated.
+     * The list is empty if the record was not validated.
+     */
+    public List<SAXParseException> getErrors() {
+        return fErrors;
+    } // getErrors():List
+
+    /** Returns false if errors were reported when this record was validated. */
+    public boolean isValid() {
+        return fErrors.isEmpty();
+    } // isValid():boolean
+
+    //
+    // Package methods
+    //
+
+    /** Adds a warning reported when the record was validated. */
+    void addWarning(SAXParseException warning) {
+        if (fWarnings.isEmpty()) {
+            fWarnings = new ArrayList<SAXParseException>();
+        }
+        fWarnings.add(warning);
+    } // addWarning(SAXParseException)
+
+    /** Adds an error reported when the record was validated. */
+    void addError(SAXParseException error) {
+        if (fErrors.isEmpty()) {
+            fErrors = new ArrayList<SAXParseException>();
+        }
+        fErrors.add(error);
+    } // addError(SAXParseException)
+
+    //
+    // Classes
+    //
+
+    /** Builds a DOM document from the events of a record. */
+    static final class DOMBuilder extends DefaultHandler {
+
+        /** The document. */
+        final Document fDocument = new DocumentImpl();
+
+        /** The node to which children are appended. */
+        private Node fCurrentNode = fDocument;
+
+        /** Namespace declarations for the next element. */
+        private final ArrayList<String> fDeclarations = new ArrayList<String>();
+
+        public void startPrefixMapping(String prefix, String uri) {
+            fDeclarations.add(prefix);
+            fDeclarations.add(uri);
+        }
+
+        public void startElement(String uri, String localName, String qName,
+                Attributes attributes) {
+            if (localName.length() == 0) {
+                // the record was parsed without namespace processing
+                final Element element = fDocument.createElement(qName);
+                for (int i = 0; i < attributes.getLength(); ++i) {
+                    element.setAttribute(attributes.getQName(i), attributes.getValue(i));
+                }
+                fCurrentNode.appendChild(element);
+                fCurrentNode = element;
+                return;
+            }
+            final Element element = fDocument.createElementNS(
+                    uri.length() > 0 ? uri : null, qName);
+            for (int i = 0; i < fDeclarations.size(); i += 2) {
+                final String prefix = fDeclarations.get(i);
+                element.setAttributeNS(NamespaceContext.XMLNS_URI,
+                        prefix.length() > 0 ? "xmlns:" + prefix : "xmlns",
+                        fDeclarations.get(i + 1));
+            }
+            fDeclarations.clear();
+            for (int i = 0; i < attributes.getLength(); ++i) {
+                final String name = attributes.getQName(i);
+                String attrURI = attributes.getURI(i);
+                if (name.startsWith("xmlns") &&
+                        (name.length() == 5 || name.charAt(5) == ':')) {
+                    attrURI = NamespaceContext.XMLNS_URI;
+                }
+                element.setAttributeNS(attrURI.length() > 0 ? attrURI : null,
+                        name, attributes.getValue(i));
+            }
+            fCurrentNode.appendChild(element);
+            fCurrentNode = element;
+        }
+
+        public void endElement(String uri, String localName, String qName) {
+            fCurrentNode = fCurrentNode.getParentNode();
+        }
+
+        public void characters(char[] ch, int start, int length) {
+            fCurrentNode.appendChild(fDocument.createTextNode(new String(ch, start, length)));
+        }
+
+        public void ignorableWhitespace(char[] ch, int start, int length) {
+            characters(ch, start, length);
+        }
+
+        public void processingInstruction(String target, String data) {
+            fCurrentNode.appendChild(fDocument.createProcessingInstruction(target, data));
+        }
+
+    } // class DOMBuilder
+
+} // class XMLRecord
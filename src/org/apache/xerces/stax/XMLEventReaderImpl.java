@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.stax;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.util.XMLEventAllocator;
+
+import org.apache.xerces.stax.events.AttributeImpl;
+import org.apache.xerces.stax.events.CharactersImpl;
+import org.apache.xerces.stax.events.CommentImpl;
+import org.apache.xerces.stax.events.DTDImpl;
+import org.apache.xerces.stax.events.EndDocumentImpl;
+import org.apache.xerces.stax.events.EndElementImpl;
+import org.apache.xerces.stax.events.EntityReferenceImpl;
+import org.apache.xerces.stax.events.NamespaceImpl;
+import org.apache.xerces.stax.events.ProcessingInstructionImpl;
+import org.apache.xerces.stax.events.StartDocumentImpl;
+import org.apache.xerces.stax.events.StartElementImpl;
+
+/**
+ * <p>Implementation of XMLEventReader which creates events
+ * from the state of an XMLStreamReader.</p>
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+final class XMLEventReaderImpl implements XMLEventReader {
+
+    /** The underlying stream reader. */
+    private final XMLStreamReader fReader;
+
+    /** The allocator supplied by the application, or null. */
+    private final XMLEventAllocator fAllocator;
+
+    /** An event which has been peeked at, or null. */
+    private XMLEvent fPeekedEvent;
+
+    /** True until the event the stream reader starts on has been returned. */
+    private boolean fFirst = true;
+
+    XMLEventReaderImpl(XMLStreamReader reader, XMLEventAllocator allocator) {
+        fReader = reader;
+        fAllocator = allocator;
+    }
+
+    public XMLEvent nextEvent() throws XMLStreamException {
+        if (fPeekedEvent != null) {
+            final XMLEvent event = fPeekedEvent;
+            fPeekedEvent = null;
+            return event;
+        }
+        if (fFirst) {
+            fFirst = false;
+        }
+        else if (fReader.hasNext()) {
+            fReader.next();
+        }
+        else {
+            throw new NoSuchElementException();
+        }
+        return allocate();
+    }
+
+    public boolean hasNext() {
+        if (fPeekedEvent != null || fFirst) {
+            return true;
+        }
+        try {
+            return fReader.hasNext();
+        }
+        catch (XMLStreamException e) {
+            return false;
+        }
+    }
+
+    public XMLEvent peek() throws XMLStreamException {
+        if (fPeekedEvent == null && hasNext()) {
+            fPeekedEvent = nextEvent();
+        }
+        return fPeekedEvent;
+    }
+
+    public String getElementText() throws XMLStreamException {
+        final StringBuffer buffer = new StringBuffer();
+        XMLEvent event = nextEvent();
+        while (!event.isEndElement()) {
+            final int type = event.getEventType();
+            if (type == XMLStreamConstants.CHARACTERS || type == XMLStreamConstants.CDATA ||
+                    type == XMLStreamConstants.SPACE) {
+                buffer.append(event.asCharacters().getData());
+            }
+            else if (type == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException(
+                        "Unexpected end of document when reading element text content.",
+                        event.getLocation());
+            }
+            else if (type == XMLStreamConstants.START_ELEMENT) {
+                throw new XMLStreamException(
+                        "Element text content may not contain START_ELEMENT.",
+                        event.getLocation());
+            }
+            else if (type != XMLStreamConstants.COMMENT &&
+                    type != XMLStreamConstants.PROCESSING_INSTRUCTION) {
+                throw new XMLStreamException("Unexpected event type " +
+                        XMLStreamReaderImpl.getEventTypeString(type), event.getLocation());
+            }
+            event = nextEvent();
+        }
+        return buffer.toString();
+    }
+
+    public XMLEvent nextTag() throws XMLStreamException {
+        XMLEvent event = nextEvent();
+        while ((event.isCharacters() && ((Characters) event).isWhiteSpace()) ||
+                event.isProcessingInstruction() ||
+                event.getEventType() == XMLStreamConstants.COMMENT) {
+            event = nextEvent();
+        }
+        if (!event.isStartElement() && !event.isEndElement()) {
+            throw new XMLStreamException("Expected start or end tag.", event.getLocation());
+        }
+        return event;
+    }
+
+    public Object getProperty(String name) throws IllegalArgumentException {
+        return fReader.getProperty(name);
+    }
+
+    public void close() throws XMLStreamException {
+        fReader.close();
+    }
+
+    public Object next() {
+        try {
+            return nextEvent();
+        }
+        catch (XMLStreamException e) {
+            final NoSuchElementException nse = new NoSuchElementException(e.getMessage());
+            nse.initCause(e);
+            throw nse;
+        }
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /** Creates an event from the current state of the stream reader. */
+    private XMLEvent allocate() throws XMLStreamException {
+        if (fAllocator != null) {
+            return fAllocator.allocate(fReader);
+        }
+        final XMLStreamReader reader = fReader;
+        final Location location = new ImmutableLocation(reader.getLocation());
+        switch (reader.getEventType()) {
+            case XMLStreamConstants.START_ELEMENT: {
+                final int attributeCount = reader.getAttributeCount();
+                final ArrayList<AttributeImpl> attributes = new ArrayList<AttributeImpl>(attributeCount);
+                for (int i = 0; i < attributeCount; ++i) {
+                    attributes.add(new AttributeImpl(reader.getAttributeName(i),
+                            reader.getAttributeValue(i), reader.getAttributeType(i),
+                            reader.isAttributeSpecified(i), location));
+                }
+                final NamespaceContext context = reader instanceof XMLStreamReaderImpl ?
+                        ((XMLStreamReaderImpl) reader).getNamespaceContextSnapshot() :
+                        reader.getNamespaceContext();
+                return new StartElementImpl(reader.getName(), attributes.iterator(),
+                        namespaces(location).iterator(), context, location);
+            }
+            case XMLStreamConstants.END_ELEMENT:
+                return new EndElementImpl(reader.getName(), namespaces(location).iterator(), location);
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                return new CharactersImpl(reader.getText(), reader.getEventType(), location);
+            case XMLStreamConstants.COMMENT:
+                return new CommentImpl(reader.getText(), location);
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                return new ProcessingInstructionImpl(reader.getPITarget(), reader.getPIData(), location);
+            case XMLStreamConstants.DTD:
+                return new DTDImpl(reader.getText(), location);
+            case XMLStreamConstants.ENTITY_REFERENCE:
+                return new EntityReferenceImpl(reader.getLocalName(), null, location);
+            case XMLStreamConstants.START_DOCUMENT: {
+                final String encoding = reader.getCharacterEncodingScheme();
+                return new StartDocumentImpl(encoding != null ? encoding : reader.getEncoding(),
+                        encoding != null, reader.isStandalone(), reader.standaloneSet(),
+                        reader.getVersion(), location);
+            }
+            case XMLStreamConstants.END_DOCUMENT:
+                return new EndDocumentImpl(location);
+        }
+        throw new XMLStreamException("Unexpected event type " +
+                XMLStreamReaderImpl.getEventTypeString(reader.getEventType()), location);
+    }
+
+    /** Returns the namespace declarations of the current element. */
+    private ArrayList<NamespaceImpl> namespaces(Location location) {
+        final int count = fReader.getNamespaceCount();
+        final ArrayList<NamespaceImpl> namespaces = new ArrayList<NamespaceImpl>(count);
+        for (int i = 0; i < count; ++i) {
+            namespaces.add(new NamespaceImpl(fReader.getNamespacePrefix(i),
+                    fReader.getNamespaceURI(i), location));
+        }
+        return namespaces;
+    }
+}
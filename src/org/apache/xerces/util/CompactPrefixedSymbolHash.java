@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.util;
+
+/**
+ * A compact SymbolHash whose keys are strings made of a prefix and a
+ * name joined by a comma, such as the keys of the extended component
+ * tables of schema grammars, made of a schema location and a component
+ * name. The prefix and the name of each key are stored apart, as
+ * interned strings, so that the prefix is shared by all the keys which
+ * have it and no string is kept for the whole key.
+ * <p>
+ * Keys are looked up as whole strings, and the keys returned by
+ * {@link #getEntries()} are joined again. Mappings are stored in flat
+ * arrays, as in {@link CompactSymbolHash}.
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class CompactPrefixedSymbolHash extends SymbolHash {
+
+    private static final long serialVersionUID = -2907816315325493437L;
+
+    //
+    // Constants
+    //
+
+    /** Minimum capacity of the arrays. */
+    private static final int MIN_CAPACITY = 2;
+
+    /** Separator of the prefix and the name of a key. */
+    private static final char SEPARATOR = ',';
+
+    //
+    // Data
+    //
+
+    /** The prefixes of the keys, or null for keys without separator. */
+    private String[] fPrefixes;
+
+    /** The names of the keys, after the last separator. */
+    private String[] fNames;
+
+    /** The hash codes of the keys. */
+    private int[] fHashes;
+
+    /** The values, at the index of their keys. */
+    private Object[] fValues;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs a table with the mappings of another. The keys of the
+     * table have to be strings.
+     *
+     * @param table the table to copy
+     */
+    public CompactPrefixedSymbolHash(SymbolHash table) {
+        super(0);
+        if (table instanceof CompactPrefixedSymbolHash) {
+            final CompactPrefixedSymbolHash compact = (CompactPrefixedSymbolHash) table;
+            fPrefixes = (String[]) compact.fPrefixes.clone();
+            fNames = (String[]) compact.fNames.clone();
+            fHashes = (int[]) compact.fHashes.clone();
+            fValues = (Object[]) compact.fValues.clone();
+            fNum = compact.fNum;
+            fHashMultipliers = compact.fHashMultipliers != null ? (int[]) compact.fHashMultipliers.clone() : null;
+            return;
+        }
+        fHashMultipliers = table.fHashMultipliers != null ? (int[]) table.fHashMultipliers.clone() : null;
+        allocate(getCapacity(table.getLength()));
+        final Object[] entries = table.getEntries();
+        for (int i = 0; i < entries.length; i += 2) {
+            final String key = (String) entries[i];
+            final int hash = hash(key);
+            final int index = indexOf(key, hash);
+            set(index, key, hash, entries[i + 1]);
+            ++fNum;
+        }
+    }
+
+    //
+    // SymbolHash methods
+    //
+
+    public void put(Object key, Object value) {
+        final String k = (String) key;
+        int hash = hash(k);
+        int index = indexOf(k, hash);
+        if (fNames[index] != null) {
+            fValues[index] = value;
+            return;
+        }
+        if ((fNum + 1) << 2 > fNames.length * 3) {
+            // keep the arrays at most three quarters full
+            resize(fNames.length << 1);
+            index = indexOf(k, hash);
+        }
+        else if (((index - (hash & (fNames.length - 1))) & (fNames.length - 1)) >= MAX_HASH_COLLISIONS) {
+            // select a new hash function, as SymbolHash does
+            if (fHashMultipliers == null) {
+                fHashMultipliers = new int[MULTIPLIERS_SIZE];
+            }
+            PrimeNumberSequenceGenerator.generateSequence(fHashMultipliers);
+            resize(fNames.length);
+            hash = hash(k);
+            index = indexOf(k, hash);
+        }
+        set(index, k, hash, value);
+        ++fNum;
+    }
+
+    public Object get(Object key) {
+        final String k = (String) key;
+        return fValues[indexOf(k, hash(k))];
+    }
+
+    public int getValues(Object[] elements, int from) {
+        for (int i = 0, j = 0; i < fNames.length && j < fNum; ++i) {
+            if (fNames[i] != null) {
+                elements[from + j++] = fValues[i];
+            }
+        }
+        return fNum;
+    }
+
+    public Object[] getEntries() {
+        final Object[] entries = new Object[fNum << 1];
+        for (int i = 0, j = 0; i < fNames.length && j < entries.length; ++i) {
+            if (fNames[i] != null) {
+                entries[j++] = (fPrefixes[i] != null) ? fPrefixes[i] + SEPARATOR + fNames[i] : fNames[i];
+                entries[j++] = fValues[i];
+            }
+        }
+        return entries;
+    }
+
+    public SymbolHash makeClone() {
+        return new CompactPrefixedSymbolHash(this);
+    }
+
+    public void clear() {
+        for (int i = 0; i < fNames.length; ++i) {
+            fPrefixes[i] = null;
+            fNames[i] = null;
+            fValues[i] = null;
+        }
+        fNum = 0;
+        fHashMultipliers = null;
+    }
+
+    //
+    // Private methods
+    //
+
+    /** Returns the index of a key, or of the free slot where it belongs. */
+    private int indexOf(String key, int hash) {
+        final int mask = fNames.length - 1;
+        int index = hash & mask;
+        String name;
+        while ((name = fNames[index]) != null) {
+            if (fHashes[index] == hash && matches(key, fPrefixes[index], name)) {
+                break;
+            }
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /** Stores a mapping, splitting its key. */
+    private void set(int index, String key, int hash, Object value) {
+        final int separator = key.lastIndexOf(SEPARATOR);
+        if (separator >= 0) {
+            fPrefixes[index] = key.substring(0, separator).intern();
+            fNames[index] = key.substring(separator + 1).intern();
+        }
+        else {
+            fPrefixes[index] = null;
+            fNames[index] = key.intern();
+        }
+        fHashes[index] = hash;
+        fValues[index] = value;
+    }
+
+    private void resize(int capacity) {
+        final String[] prefixes = fPrefixes;
+        final String[] names = fNames;
+        final Object[] values = fValues;
+        allocate(capacity);
+        for (int i = 0; i < names.length; ++i) {
+            if (names[i] != null) {
+                final int hash = hash(prefixes[i], names[i]);
+                int index = hash & (capacity - 1);
+                while (fNames[index] != null) {
+                    index = (index + 1) & (capacity - 1);
+                }
+                fPrefixes[index] = prefixes[i];
+                fNames[index] = names[i];
+                fHashes[index] = hash;
+                fValues[index] = values[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        fPrefixes = new String[capacity];
+        fNames = new String[capacity];
+        fHashes = new int[capacity];
+        fValues = new Object[capacity];
+    }
+
+    /**
+     * Returns the hash code the key made of a prefix and a name would
+     * have, as computed by {@link SymbolHash#hash(Object)}.
+     */
+    private int hash(String prefix, String name) {
+        int code = 0;
+        int position = 0;
+        if (prefix != null) {
+            for (int i = 0; i < prefix.length(); ++i) {
+                code = step(code, position++, prefix.charAt(i));
+            }
+            code = step(code, position++, SEPARATOR);
+        }
+        for (int i = 0; i < name.length(); ++i) {
+            code = step(code, position++, name.charAt(i));
+        }
+        return code & 0x7FFFFFFF;
+    }
+
+    private int step(int code, int position, char c) {
+        final int multiplier = (fHashMultipliers != null) ? fHashMultipliers[position & MULTIPLIERS_MASK] : 31;
+        return code * multiplier + c;
+    }
+
+    /** Whether a key is made of a prefix and a name. */
+    private static boolean matches(String key, String prefix, String name) {
+        if (prefix == null) {
+            return key.equals(name);
+        }
+        final int length = prefix.length();
+        return key.length() == length + 1 + name.length() &&
+            key.charAt(length) == SEPARATOR &&
+            key.startsWith(prefix) &&
+            key.endsWith(name);
+    }
+
+    /** Returns the capacity of the arrays for a number of mappings. */
+    private static int getCapacity(int count) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 < count << 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+} // class CompactPrefixedSymbolHash
@@ -0,0 +1,413 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+
+/**
+ * A grammar pool which may be shared by any number of threads without
+ * external synchronization.
+ * <p>
+ * Grammars are looked up without taking any lock. The set of grammars
+ * returned by <code>retrieveInitialGrammarSet</code> is computed once
+ * for each grammar type and reused until the pool is modified.
+ * <p>
+ * A <code>Loader</code> may be set on the pool; a grammar which is not
+ * in the pool is then loaded by the pool itself, at most once at a time
+ * for each description: threads which ask for a grammar which is being
+ * loaded wait for it instead of compiling it again. To avoid deadlocks
+ * between grammars which refer to one another, a thread which is
+ * already loading a grammar never waits for another one; it compiles
+ * the grammar itself, as it would without a loader.
+ * <p>
+ * Like <code>XMLGrammarPoolImpl</code>, grammars are identified by their
+ * root element name for DTD grammars and by their target namespace for
+ * schema grammars, unless the <code>equals</code> and
+ * <code>hashCode</code> methods are overridden.
+ *
+ * @see XMLGrammarPoolImpl
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public class ConcurrentGrammarPool implements XMLGrammarPool {
+
+    //
+    // Data
+    //
+
+    /** Grammars. */
+    private final ConcurrentHashMap<Key, Grammar> fGrammars = new ConcurrentHashMap<Key, Grammar>();
+
+    /** Grammars being loaded. */
+    private final ConcurrentHashMap<Key, FutureTask<Grammar>> fLoading = new ConcurrentHashMap<Key, FutureTask<Grammar>>();
+
+    /** Incremented whenever the set of grammars changes. */
+    private final AtomicInteger fVersion = new AtomicInteger();
+
+    /** The initial grammar sets, valid while the version is unchanged. */
+    private volatile InitialGrammarSets fInitialGrammarSets;
+
+    /** Whether this pool is locked. */
+    private volatile boolean fPoolIsLocked;
+
+    /** The loader of grammars which are not in the pool, or null. */
+    private volatile Loader fLoader;
+
+    /** The number of loads in progress on the current thread. */
+    private final ThreadLocal<int[]> fLoadDepth = new ThreadLocal<int[]>() {
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+
+    //
+    // Constructors
+    //
+
+    /** Constructs an empty grammar pool. */
+    public ConcurrentGrammarPool() {}
+
+    /** Constructs an empty grammar pool which loads missing grammars with the given loader. */
+    public ConcurrentGrammarPool(Loader loader) {
+        fLoader = loader;
+    } // <init>(Loader)
+
+    //
+    // XMLGrammarPool methods
+    //
+
+    public Grammar[] retrieveInitialGrammarSet(String grammarType) {
+        final int version = fVersion.get();
+        InitialGrammarSets initialSets = fInitialGrammarSets;
+        if (initialSets == null || initialSets.fVersion != version) {
+            final HashMap<String, Grammar[]> sets = new HashMap<String, Grammar[]>();
+            final HashMap<String, ArrayList<Grammar>> lists = new HashMap<String, ArrayList<Grammar>>();
+            final Iterator<Grammar> grammars = fGrammars.values().iterator();
+            while (grammars.hasNext()) {
+                final Grammar grammar = grammars.next();
+                final String type = grammar.getGrammarDescription().getGrammarType();
+                ArrayList<Grammar> list = lists.get(type);
+                if (list == null) {
+                    list = new ArrayList<Grammar>();
+                    lists.put(type, list);
+                }
+                list.add(grammar);
+            }
+            final Iterator<String> types = lists.keySet().iterator();
+            while (types.hasNext()) {
+                final String type = types.next();
+                final ArrayList<Grammar> list = lists.get(type);
+                sets.put(type, list.toArray(new Grammar[list.size()]));
+            }
+            // if the pool was modified meanwhile, the version will not match
+            initialSets = new InitialGrammarSets(version, sets);
+            fInitialGrammarSets = initialSets;
+        }
+        final Grammar[] set = initialSets.fSets.get(grammarType);
+        // the caller may modify the array
+        return set != null ? (Grammar[]) set.clone() : new Grammar[0];
+    } // retrieveInitialGrammarSet(String):Grammar[]
+
+    public void cacheGrammars(String grammarType, Grammar[] grammars) {
+        if (!fPoolIsLocked) {
+            for (int i = 0; i < grammars.length; ++i) {
+                putGrammar(grammars[i]);
+            }
+        }
+    } // cacheGrammars(String,Grammar[])
+
+    /**
+     * Returns the grammar for the given description. If it is not in the
+     * pool and a loader has been set, it is loaded unless the current
+     * thread is already loading a grammar.
+     */
+    public Grammar retrieveGrammar(XMLGrammarDescription desc) {
+        final Grammar grammar = getGrammar(desc);
+        final Loader loader = fLoader;
+        if (grammar != null || loader == null || fLoadDepth.get()[0] > 0) {
+            return grammar;
+        }
+        try {
+            return getGrammar(desc, loader);
+        }
+        catch (XNIException e) {
+            // let the caller report the error when it compiles the grammar
+            return null;
+        }
+    } // retrieveGrammar(XMLGrammarDescription):Grammar
+
+    public void lockPool() {
+        fPoolIsLocked = true;
+    } // lockPool()
+
+    public void unlockPool() {
+        fPoolIsLocked = false;
+    } // unlockPool()
+
+    public void clear() {
+        fGrammars.clear();
+        fVersion.incrementAndGet();
+    } // clear()
+
+    //
+    // Public methods
+    //
+
+    /** Sets the loader of grammars which are not in the pool, or null. */
+    public void setLoader(Loader loader) {
+        fLoader = loader;
+    } // setLoader(Loader)
+
+    /** Returns the loader of grammars which are not in the pool. */
+    public Loader getLoader() {
+        return fLoader;
+    } // getLoader():Loader
+
+    /**
+     * Puts the specified grammar into the grammar pool, unless the pool
+     * is locked.
+     *
+     * @param grammar The Grammar.
+     */
+    public void putGrammar(Grammar grammar) {
+        if (!fPoolIsLocked) {
+            fGrammars.put(new Key(grammar.getGrammarDescription()), grammar);
+            fVersion.incrementAndGet();
+        }
+    } // putGrammar(Grammar)
+
+    /**
+     * Returns the grammar associated to the specified grammar description,
+     * or null if it is not in the pool.
+     *
+     * @param desc The Grammar Description.
+     */
+    public Grammar getGrammar(XMLGrammarDescription desc) {
+        return fGrammars.get(new Key(desc));
+    } // getGrammar(XMLGrammarDescription):Grammar
+
+    /**
+     * Returns the grammar associated to the specified grammar description,
+     * loading it with the given loader if it is not in the pool. If the
+     * grammar is already being loaded by another thread, this method waits
+     * for that load to complete, unless the current thread is itself
+     * loading a grammar. A grammar which is loaded is added to the pool
+     * unless the pool is locked.
+     *
+     * @param desc   The Grammar Description.
+     * @param loader The loader.
+     *
+     * @return The grammar, or null if the loader did not find one.
+     *
+     * @throws XNIException Thrown if the grammar could not be loaded.
+     */
+    public Grammar getGrammar(final XMLGrammarDescription desc, final Loader loader)
+        throws XNIException {
+        final Key key = new Key(desc);
+        Grammar grammar = fGrammars.get(key);
+        if (grammar != null) {
+            return grammar;
+        }
+        final int[] depth = fLoadDepth.get();
+        FutureTask<Grammar> task = new FutureTask<Grammar>(new Callable<Grammar>() {
+            public Grammar call() throws Exception {
+                ++depth[0];
+                try {
+                    return loader.loadGrammar(desc);
+                }
+                finally {
+                    --depth[0];
+                }
+            }
+        });
+        final FutureTask<Grammar> existing = depth[0] == 0 ? fLoading.putIfAbsent(key, task) : null;
+        if (existing == null) {
+            // load the grammar on this thread
+            grammar = fGrammars.get(key);
+            if (grammar != null) {
+                fLoading.remove(key, task);
+                return grammar;
+            }
+            task.run();
+        }
+        else {
+            task = existing;
+        }
+        try {
+            grammar = task.get();
+            if (existing == null && grammar != null) {
+                putGrammar(grammar);
+            }
+            return grammar;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new XNIException(e);
+        }
+        catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof XNIException) {
+                throw (XNIException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new XNIException((Exception) cause);
+        }
+        finally {
+            if (existing == null) {
+                fLoading.remove(key, task);
+            }
+        }
+    } // getGrammar(XMLGrammarDescription,Loader):Grammar
+
+    /**
+     * Removes the grammar associated to the specified grammar description
+     * from the grammar pool and returns the removed grammar.
+     *
+     * @param desc The Grammar Description.
+     * @return     The removed grammar.
+     */
+    public Grammar removeGrammar(XMLGrammarDescription desc) {
+        final Grammar grammar = fGrammars.remove(new Key(desc));
+        if (grammar != null) {
+            fVersion.incrementAndGet();
+        }
+        return grammar;
+    } // removeGrammar(XMLGrammarDescription):Grammar
+
+    /**
+     * Returns true if the grammar pool contains a grammar associated
+     * to the specified grammar description.
+     *
+     * @param desc The Grammar Description.
+     */
+    public boolean containsGrammar(XMLGrammarDescription desc) {
+        return fGrammars.containsKey(new Key(desc));
+    } // containsGrammar(XMLGrammarDescription):boolean
+
+    /** Returns the number of grammars in the pool. */
+    public int getGrammarCount() {
+        return fGrammars.size();
+    } // getGrammarCount():int
+
+    /**
+     * This method checks whether two grammars are the same. Currently, we compare
+     * the root element names for DTD grammars and the target namespaces for Schema grammars.
+     * The application can override this behaviour and add its own logic.
+     *
+     * @param desc1 The grammar description
+     * @param desc2 The grammar description of the grammar to be compared to
+     * @return      True if the grammars are equal, otherwise false
+     */
+    public boolean equals(XMLGrammarDescription desc1, XMLGrammarDescription desc2) {
+        return desc1.equals(desc2);
+    } // equals(XMLGrammarDescription,XMLGrammarDescription):boolean
+
+    /**
+     * Returns the hash code value for the given grammar description.
+     *
+     * @param desc The grammar description
+     * @return     The hash code value
+     */
+    public int hashCode(XMLGrammarDescription desc) {
+        return desc.hashCode();
+    } // hashCode(XMLGrammarDescription):int
+
+    //
+    // Interfaces
+    //
+
+    /** Loads the grammars which are not in a pool. */
+    public interface Loader {
+
+        /**
+         * Loads the grammar with the given description. This method may
+         * be called by several threads at once, for different grammars.
+         *
+         * @param desc The description of the grammar.
+         *
+         * @return The grammar, or null if it cannot be found.
+         */
+        public Grammar loadGrammar(XMLGrammarDescription desc) throws Exception;
+
+    } // interface Loader
+
+    //
+    // Classes
+    //
+
+    /** The initial grammar sets computed for a version of the pool. */
+    private static final class InitialGrammarSets {
+
+        /** The version of the pool. */
+        final int fVersion;
+
+        /** The grammars, by grammar type. */
+        final HashMap<String, Grammar[]> fSets;
+
+        InitialGrammarSets(int version, HashMap<String, Grammar[]> sets) {
+            fVersion = version;
+            fSets = sets;
+        }
+
+    } // class InitialGrammarSets
+
+    /** A grammar description, compared with the methods of the pool. */
+    private final class Key {
+
+        /** The description. */
+        private final XMLGrammarDescription fDesc;
+
+        /** The hash code of the description. */
+        private final int fHash;
+
+        Key(XMLGrammarDescription desc) {
+            fDesc = desc;
+            fHash = ConcurrentGrammarPool.this.hashCode(desc);
+        }
+
+        public int hashCode() {
+            return fHash;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return fHash == other.fHash && ConcurrentGrammarPool.this.equals(fDesc, other.fDesc);
+        }
+
+    } // class Key
+
+} // class ConcurrentGrammarPool
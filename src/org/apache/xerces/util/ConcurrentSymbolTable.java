@@ -0,0 +1,422 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A symbol table which may be shared by any number of threads.
+ * <p>
+ * Like <code>SymbolTable</code>, the symbols returned are interned
+ * strings, so symbols may be compared by reference no matter which
+ * thread added them. Lookups do not take any lock. The table is divided
+ * into segments, selected by the hash code of a symbol, each of which is
+ * an open hash table whose chains are never modified once published;
+ * a symbol is added by taking the lock of its segment only. A segment
+ * grows, or selects a new hash function when one of its chains becomes
+ * too long, in the same way as a <code>SymbolTable</code>.
+ *
+ * @see SynchronizedSymbolTable
+ *
+ * @xerces.internal
+ *
+ * @version $Id$
+ */
+public final class ConcurrentSymbolTable
+    extends SymbolTable {
+
+    //
+    // Constants
+    //
+
+    /** Default number of segments. */
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 32;
+
+    //
+    // Data
+    //
+
+    /** Segments. */
+    private final Segment[] fSegments;
+
+    /** Number of bits of a hash code used to select a segment. */
+    private final int fSegmentShift;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs a concurrent symbol table with a default initial
+     * capacity and number of segments.
+     */
+    public ConcurrentSymbolTable() {
+        this(TABLE_SIZE, DEFAULT_CONCURRENCY_LEVEL);
+    } // <init>()
+
+    /**
+     * Constructs a concurrent symbol table.
+     *
+     * @param initialCapacity  The initial capacity of the table.
+     * @param concurrencyLevel The expected number of threads adding
+     *                         symbols at once. It is rounded up to a
+     *                         power of two.
+     */
+    public ConcurrentSymbolTable(int initialCapacity, int concurrencyLevel) {
+        // the base table is not used
+        super(1);
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Illegal Concurrency Level: " + concurrencyLevel);
+        }
+        int segmentCount = 1;
+        int shift = 0;
+        while (segmentCount < concurrencyLevel && segmentCount < (1 << 16)) {
+            segmentCount <<= 1;
+            ++shift;
+        }
+        fSegmentShift = 32 - shift;
+        fSegments = new Segment[segmentCount];
+        final int segmentCapacity = Math.max(initialCapacity / segmentCount, 1);
+        for (int i = 0; i < segmentCount; ++i) {
+            fSegments[i] = new Segment(segmentCapacity, fLoadFactor, fCollisionThreshold);
+        }
+    } // <init>(int,int)
+
+    //
+    // SymbolTable methods
+    //
+
+    /**
+     * Adds the specified symbol to the symbol table and returns a
+     * reference to the unique symbol. If the symbol already exists,
+     * the previous symbol reference is returned instead, in order
+     * guarantee that symbol references remain unique.
+     *
+     * @param symbol The new symbol.
+     */
+    public String addSymbol(String symbol) {
+        final Segment segment = segmentFor(symbol.hashCode());
+        final String existing = segment.get(symbol);
+        return existing != null ? existing : segment.add(symbol);
+    } // addSymbol(String):String
+
+    /**
+     * Adds the specified symbol to the symbol table and returns a
+     * reference to the unique symbol. If the symbol already exists,
+     * the previous symbol reference is returned instead, in order
+     * guarantee that symbol references remain unique.
+     *
+     * @param buffer The buffer containing the new symbol.
+     * @param offset The offset into the buffer of the new symbol.
+     * @param length The length of the new symbol in the buffer.
+     */
+    public String addSymbol(char[] buffer, int offset, int length) {
+        final Segment segment = segmentFor(stringHash(buffer, offset, length));
+        final String existing = segment.get(buffer, offset, length);
+        return existing != null ? existing : segment.add(buffer, offset, length);
+    } // addSymbol(char[],int,int):String
+
+    /**
+     * Returns true if the symbol table already contains the specified
+     * symbol.
+     *
+     * @param symbol The symbol to look for.
+     */
+    public boolean containsSymbol(String symbol) {
+        return segmentFor(symbol.hashCode()).get(symbol) != null;
+    } // containsSymbol(String):boolean
+
+    /**
+     * Returns true if the symbol table already contains the specified
+     * symbol.
+     *
+     * @param buffer The buffer containing the symbol to look for.
+     * @param offset The offset into the buffer.
+     * @param length The length of the symbol in the buffer.
+     */
+    public boolean containsSymbol(char[] buffer, int offset, int length) {
+        return segmentFor(stringHash(buffer, offset, length)).get(buffer, offset, length) != null;
+    } // containsSymbol(char[],int,int):boolean
+
+    /**
+     * Returns a hashcode value for the specified symbol. The value
+     * returned by this method is identical to the value returned
+     * by the <code>hash(char[],int,int)</code> method when called
+     * with the character array that comprises the symbol string.
+     *
+     * @param symbol The symbol to hash.
+     */
+    public int hash(String symbol) {
+        return symbol.hashCode() & 0x7FFFFFFF;
+    } // hash(String):int
+
+    /**
+     * Returns a hashcode value for the specified symbol information.
+     * The value returned by this method is identical to the value
+     * returned by the <code>hash(String)</code> method when called
+     * with the string object created from the symbol information.
+     *
+     * @param buffer The character buffer containing the symbol.
+     * @param offset The offset into the character buffer of the start
+     *               of the symbol.
+     * @param length The length of the symbol.
+     */
+    public int hash(char[] buffer, int offset, int length) {
+        return stringHash(buffer, offset, length) & 0x7FFFFFFF;
+    } // hash(char[],int,int):int
+
+    /** The base table is not used. */
+    protected void rehash() {}
+
+    /** The base table is not used. */
+    protected void rebalance() {}
+
+    //
+    // Private methods
+    //
+
+    /** Returns the segment for the given hash code. */
+    private Segment segmentFor(int hashCode) {
+        // spread the bits of the hash code, so that strings with
+        // similar hash codes fall into different segments
+        int h = hashCode * 0x9E3779B9;
+        return fSegments[fSegmentShift == 32 ? 0 : h >>> fSegmentShift];
+    } // segmentFor(int):Segment
+
+    /** Returns the value of String.hashCode() for the given characters. */
+    private static int stringHash(char[] buffer, int offset, int length) {
+        int code = 0;
+        for (int i = 0; i < length; ++i) {
+            code = code * 31 + buffer[offset + i];
+        }
+        return code;
+    } // stringHash(char[],int,int):int
+
+    //
+    // Classes
+    //
+
+    /**
+     * A symbol table entry. Entries are never modified once they have
+     * been published.
+     */
+    private static final class Node {
+
+        /** Symbol. */
+        final String symbol;
+
+        /** Symbol characters. */
+        final char[] characters;
+
+        /** The next entry. */
+        final Node next;
+
+        Node(String symbol, char[] characters, Node next) {
+            this.symbol = symbol;
+            this.characters = characters;
+            this.next = next;
+        }
+
+    } // class Node
+
+    /**
+     * The buckets of a segment, along with the hash function used to
+     * select a bucket. They are replaced together when the segment is
+     * reorganized.
+     */
+    private static final class Table {
+
+        /** Buckets. */
+        final AtomicReferenceArray<Node> buckets;
+
+        /**
+         * Hash function multipliers, or <code>null</code> if the
+         * default String.hashCode() function is used.
+         */
+        final int[] multipliers;
+
+        Table(int capacity, int[] multipliers) {
+            this.buckets = new AtomicReferenceArray<Node>(capacity);
+            this.multipliers = multipliers;
+        }
+
+        int hash(String symbol) {
+            if (multipliers == null) {
+                return symbol.hashCode() & 0x7FFFFFFF;
+            }
+            int code = 0;
+            final int length = symbol.length();
+            for (int i = 0; i < length; ++i) {
+                code = code * multipliers[i & MULTIPLIERS_MASK] + symbol.charAt(i);
+            }
+            return code & 0x7FFFFFFF;
+        }
+
+        int hash(char[] buffer, int offset, int length) {
+            int code = 0;
+            if (multipliers == null) {
+                for (int i = 0; i < length; ++i) {
+                    code = code * 31 + buffer[offset + i];
+                }
+            }
+            else {
+                for (int i = 0; i < length; ++i) {
+                    code = code * multipliers[i & MULTIPLIERS_MASK] + buffer[offset + i];
+                }
+            }
+            return code & 0x7FFFFFFF;
+        }
+
+    } // class Table
+
+    /** A segment of the symbol table. */
+    private static final class Segment {
+
+        /** The current table. */
+        private volatile Table fTable;
+
+        /** The number of entries in the segment. Guarded by this. */
+        private int fCount;
+
+        /** The segment grows when its size exceeds this threshold. */
+        private int fThreshold;
+
+        /** The load factor of the segment. */
+        private final float fLoadFactor;
+
+        /** Maximum length of a chain before a new hash function is selected. */
+        private final int fCollisionThreshold;
+
+        Segment(int capacity, float loadFactor, int collisionThreshold) {
+            fTable = new Table(capacity, null);
+            fLoadFactor = loadFactor;
+            fThreshold = (int) (capacity * loadFactor);
+            fCollisionThreshold = collisionThreshold;
+        }
+
+        /** Returns the symbol equal to the given string, or null. */
+        String get(String symbol) {
+            final Table table = fTable;
+            final AtomicReferenceArray<Node> buckets = table.buckets;
+            final int length = symbol.length();
+            OUTER: for (Node node = buckets.get(table.hash(symbol) % buckets.length());
+                    node != null; node = node.next) {
+                final char[] characters = node.characters;
+                if (characters.length == length) {
+                    for (int i = 0; i < length; ++i) {
+                        if (symbol.charAt(i) != characters[i]) {
+                            continue OUTER;
+                        }
+                    }
+                    return node.symbol;
+                }
+            }
+            return null;
+        }
+
+        /** Returns the symbol equal to the given characters, or null. */
+        String get(char[] buffer, int offset, int length) {
+            final Table table = fTable;
+            final AtomicReferenceArray<Node> buckets = table.buckets;
+            OUTER: for (Node node = buckets.get(table.hash(buffer, offset, length) % buckets.length());
+                    node != null; node = node.next) {
+                final char[] characters = node.characters;
+                if (characters.length == length) {
+                    for (int i = 0; i < length; ++i) {
+                        if (buffer[offset + i] != characters[i]) {
+                            continue OUTER;
+                        }
+                    }
+                    return node.symbol;
+                }
+            }
+            return null;
+        }
+
+        /** Adds a symbol which was not found without holding the lock. */
+        synchronized String add(String symbol) {
+            final String existing = get(symbol);
+            if (existing != null) {
+                return existing;
+            }
+            final char[] characters = new char[symbol.length()];
+            symbol.getChars(0, characters.length, characters, 0);
+            return insert(symbol.intern(), characters);
+        }
+
+        /** Adds a symbol which was not found without holding the lock. */
+        synchronized String add(char[] buffer, int offset, int length) {
+            final String existing = get(buffer, offset, length);
+            if (existing != null) {
+                return existing;
+            }
+            final char[] characters = new char[length];
+            System.arraycopy(buffer, offset, characters, 0, length);
+            return insert(new String(characters).intern(), characters);
+        }
+
+        /** Inserts a new entry. Called with the lock held. */
+        private String insert(String symbol, char[] characters) {
+            Table table = fTable;
+            int bucket = table.hash(symbol) % table.buckets.length();
+            int collisionCount = 0;
+            for (Node node = table.buckets.get(bucket); node != null; node = node.next) {
+                ++collisionCount;
+            }
+            if (fCount >= fThreshold) {
+                table = reorganize(table.buckets.length() * 2 + 1, table.multipliers);
+                bucket = table.hash(symbol) % table.buckets.length();
+            }
+            else if (collisionCount >= fCollisionThreshold) {
+                final int[] multipliers = new int[MULTIPLIERS_SIZE];
+                PrimeNumberSequenceGenerator.generateSequence(multipliers);
+                table = reorganize(table.buckets.length(), multipliers);
+                bucket = table.hash(symbol) % table.buckets.length();
+            }
+            table.buckets.set(bucket, new Node(symbol, characters, table.buckets.get(bucket)));
+            ++fCount;
+            return symbol;
+        }
+
+        /**
+         * Copies the entries into a new table and publishes it. Readers
+         * still using the old table see all of the entries they could
+         * see before. Called with the lock held.
+         */
+        private Table reorganize(int capacity, int[] multipliers) {
+            final AtomicReferenceArray<Node> oldBuckets = fTable.buckets;
+            final Table table = new Table(capacity, multipliers);
+            final AtomicReferenceArray<Node> buckets = table.buckets;
+            for (int i = oldBuckets.length(); i-- > 0;) {
+                for (Node node = oldBuckets.get(i); node != null; node = node.next) {
+                    final int index = table.hash(node.symbol) % capacity;
+                    buckets.lazySet(index, new Node(node.symbol, node.characters, buckets.get(index)));
+                }
+            }
+            fThreshold = (int) (capacity * fLoadFactor);
+            // publishing the table makes its buckets visible
+            fTable = table;
+            return table;
+        }
+
+    } // class Segment
+
+} // class ConcurrentSymbolTable
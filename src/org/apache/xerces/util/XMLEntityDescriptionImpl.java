@@ -30,6 +30,8 @@ import org.apache.xerces.impl.XMLEntityDescription;
 public class XMLEntityDescriptionImpl 
     extends XMLResourceIdentifierImpl
     implements XMLEntityDescription {
+
+    private static final long serialVersionUID = 8251612877150620464L;
     	
     //
     // Constructors
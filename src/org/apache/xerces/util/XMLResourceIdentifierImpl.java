@@ -17,6 +17,8 @@
 
 package org.apache.xerces.util;
 
+import java.io.Serializable;
+
 import org.apache.xerces.xni.XMLResourceIdentifier;
 
 /**
@@ -29,7 +31,9 @@ import org.apache.xerces.xni.XMLResourceIdentifier;
  * @version $Id$
  */
 public class XMLResourceIdentifierImpl
-    implements XMLResourceIdentifier {
+    implements XMLResourceIdentifier, Serializable {
+
+    private static final long serialVersionUID = -808825253236239828L;
 
     //
     // Data
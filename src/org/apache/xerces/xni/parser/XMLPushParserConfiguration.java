@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.xerces.xni.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.xerces.xni.XNIException;
+
+/**
+ * Represents a parser configuration that can be used as the
+ * configuration for a "push" parser. A push parser is given the
+ * bytes of the document as they become available instead of reading
+ * them from a stream, and never blocks waiting for more input.
+ * <p>
+ * A push parser using this type of configuration optionally calls
+ * the <code>setInputSource</code> method first, to supply the
+ * identifiers and encoding of the document; the byte and character
+ * streams of this input source are ignored. The parser then calls the
+ * <code>feed</code> methods as bytes of the document arrive. Each
+ * call parses as much of the document as the bytes received so far
+ * allow, delivering document information to the registered handlers
+ * on the calling thread, and then returns. The end of the document is
+ * signalled by calling the <code>endOfInput</code> method, which
+ * parses the remainder of the document.
+ * <p>
+ * Calling a <code>feed</code> method once the document has been
+ * parsed, or after an error has stopped parsing, begins a new
+ * document.
+ *
+ * @version $Id$
+ */
+public interface XMLPushParserConfiguration
+    extends XMLPullParserConfiguration {
+
+    //
+    // XMLPushParserConfiguration methods
+    //
+
+    // parsing
+
+    /**
+     * Supplies the next bytes of the document and parses as much of
+     * the document as they allow. The bytes are copied, so the array
+     * may be reused once this method returns.
+     *
+     * @param buffer The array containing the bytes.
+     * @param offset The offset of the first byte in the array.
+     * @param length The number of bytes.
+     *
+     * @exception XNIException Any XNI exception, possibly wrapping
+     *                         another exception.
+     * @exception IOException  An IO exception from the parser.
+     */
+    public void feed(byte[] buffer, int offset, int length)
+        throws XNIException, IOException;
+
+    /**
+     * Supplies the bytes remaining in the given buffer as the next
+     * bytes of the document and parses as much of the document as
+     * they allow. The position of the buffer is advanced to its limit.
+     *
+     * @param buffer The buffer containing the bytes.
+     *
+     * @exception XNIException Any XNI exception, possibly wrapping
+     *                         another exception.
+     * @exception IOException  An IO exception from the parser.
+     */
+    public void feed(ByteBuffer buffer)
+        throws XNIException, IOException;
+
+    /**
+     * Signals that all of the bytes of the document have been supplied
+     * and parses the remainder of the document.
+     *
+     * @exception XNIException Any XNI exception, possibly wrapping
+     *                         another exception.
+     * @exception IOException  An IO exception from the parser.
+     */
+    public void endOfInput() throws XNIException, IOException;
+
+} // interface XMLPushParserConfiguration
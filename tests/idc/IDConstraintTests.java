@@ -564,5 +564,100 @@ public class IDConstraintTests extends XercesAbstractTestCase {
            assertTrue(false);
         }
     }
+    
+    public void testIDConstraint28() {
+        String xmlfile = "tests/idc/idc_7_valid_1.xml";
+        String schemapath = "tests/idc/idc_7.xsd";    
+        try {
+            Schema s = fSchemaFactory.newSchema(new StreamSource(schemapath));
+            Validator v = s.newValidator();
+            v.setErrorHandler(this);
+            v.validate(new StreamSource(xmlfile));
+            assertNull(fErrSysId);
+            assertNull(fFatErrSysId);
+        } catch(Exception ex) {
+           ex.printStackTrace();
+           assertTrue(false);
+        }
+    }
+    
+    public void testIDConstraint29() {        
+        String xmlfile = "tests/idc/idc_7_invalid_1.xml";
+        String schemapath = "tests/idc/idc_7.xsd";   
+        try {
+            Schema s = fSchemaFactory.newSchema(new StreamSource(schemapath));
+            Validator v = s.newValidator();
+            v.setErrorHandler(this);
+            v.validate(new StreamSource(xmlfile));
+            assertTrue(failureList.size() == 4);
+            // values are compared in the value space of their types
+            List expectedMsgList = new ArrayList();
+            FailureMesgFragments mesgFragments = new FailureMesgFragments();
+            mesgFragments.setMessageFragment("cvc-identity-constraint.4.2.2: Duplicate key value [1.0] found for identity constraint \"id_key\" of element \"root\"");
+            expectedMsgList.add(mesgFragments);
+            mesgFragments = new FailureMesgFragments();
+            mesgFragments.setMessageFragment("cvc-identity-constraint.4.1: Duplicate unique value [2000-01-01T12:00:00Z,P0Y12M0DT0H0M0S] found for identity constraint \"time_period_unique\" of element \"root\"");
+            expectedMsgList.add(mesgFragments);
+            mesgFragments = new FailureMesgFragments();
+            mesgFragments.setMessageFragment("cvc-identity-constraint.4.1: Duplicate unique value [2000-01-01T12:00:00Z,P0Y0M1DT0H0M0S] found for identity constraint \"time_period_unique\" of element \"root\"");
+            expectedMsgList.add(mesgFragments);
+            mesgFragments = new FailureMesgFragments();
+            mesgFragments.setMessageFragment("cvc-identity-constraint.4.3: Key 'id_keyref' with value '4.0' not found for identity constraint of element 'root'");
+            expectedMsgList.add(mesgFragments);
+            assertTrue(areErrorMessagesConsistent(expectedMsgList));            
+        } catch(Exception ex) {
+           ex.printStackTrace();
+           assertTrue(false);
+        }
+    }
+    
+    public void testIDConstraint30() {
+        String xmlfile = "tests/idc/idc_8_valid_1.xml";
+        String schemapath = "tests/idc/idc_8.xsd";    
+        try {
+            Schema s = fSchemaFactory.newSchema(new StreamSource(schemapath));
+            Validator v = s.newValidator();
+            v.setErrorHandler(this);
+            v.validate(new StreamSource(xmlfile));
+            assertNull(fErrSysId);
+            assertNull(fFatErrSysId);
+        } catch(Exception ex) {
+           ex.printStackTrace();
+           assertTrue(false);
+        }
+    }
+    
+    public void testIDConstraint31() {        
+        String xmlfile = "tests/idc/idc_8_invalid_1.xml";
+        String schemapath = "tests/idc/idc_8.xsd";   
+        try {
+            Schema s = fSchemaFactory.newSchema(new StreamSource(schemapath));
+            Validator v = s.newValidator();
+            v.setErrorHandler(this);
+            v.validate(new StreamSource(xmlfile));
+            assertTrue(failureList.size() == 5);
+            // selectors only match elements at the depths of their paths
+            List expectedMsgList = new ArrayList();
+            FailureMesgFragments mesgFragments = new FailureMesgFragments();
+            mesgFragments.setMessageFragment("cvc-identity-constraint.4.2.2: Duplicate key value [1] found for identity constraint \"leaf_id\" of element \"root\"");
+            expectedMsgList.add(mesgFragments);
+            mesgFragments = new FailureMesgFragments();
+            mesgFragments.setMessageFragment("cvc-identity-constraint.4.1: Duplicate unique value [1] found for identity constraint \"leaf_child_id\" of element \"node\"");
+            expectedMsgList.add(mesgFragments);
+            mesgFragments = new FailureMesgFragments();
+            mesgFragments.setMessageFragment("cvc-identity-constraint.4.1: Duplicate unique value [b] found for identity constraint \"grandchild_name\" of element \"root\"");
+            expectedMsgList.add(mesgFragments);
+            mesgFragments = new FailureMesgFragments();
+            mesgFragments.setMessageFragment("cvc-identity-constraint.4.1: Duplicate unique value [a] found for identity constraint \"child_name\" of element \"root\"");
+            expectedMsgList.add(mesgFragments);
+            mesgFragments = new FailureMesgFragments();
+            mesgFragments.setMessageFragment("cvc-identity-constraint.4.3: Key 'leaf_ref' with value '5' not found for identity constraint of element 'root'");
+            expectedMsgList.add(mesgFragments);
+            assertTrue(areErrorMessagesConsistent(expectedMsgList));            
+        } catch(Exception ex) {
+           ex.printStackTrace();
+           assertTrue(false);
+        }
+    }
 
 }
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.io.ByteBufferInputStream;
+import org.apache.xerces.parsers.SAXParser;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests reading, marking and resetting a ByteBufferInputStream over
+ * a buffer and over a file channel mapped in small regions.
+ *
+ * @version $Id$
+ */
+public class ByteBufferInputStreamTest extends TestCase {
+
+    private static final int MAPPING_SIZE = 16;
+
+    private File fFile;
+    private byte[] fBytes;
+
+    public ByteBufferInputStreamTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        fBytes = new byte[100];
+        for (int i = 0; i < fBytes.length; ++i) {
+            fBytes[i] = (byte) i;
+        }
+        fFile = File.createTempFile("bbis", ".bin");
+        FileOutputStream out = new FileOutputStream(fFile);
+        try {
+            out.write(fBytes);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    protected void tearDown() throws Exception {
+        fFile.delete();
+    }
+
+    public void testReadBuffer() throws IOException {
+        ByteBufferInputStream in = new ByteBufferInputStream(ByteBuffer.wrap(fBytes));
+        assertEquals(100, in.available());
+        byte[] b = readAll(in, 7);
+        assertEquals(100, b.length);
+        assertBytes(fBytes, 0, b);
+        assertEquals(-1, in.read());
+    }
+
+    public void testReadChannel() throws IOException {
+        ByteBufferInputStream in = openChannel();
+        try {
+            assertEquals(100, in.getRemaining());
+            byte[] b = readAll(in, 7);
+            assertEquals(100, b.length);
+            assertBytes(fBytes, 0, b);
+            assertEquals(-1, in.read());
+            assertEquals(0, in.getRemaining());
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    public void testSkipChannel() throws IOException {
+        ByteBufferInputStream in = openChannel();
+        try {
+            assertEquals(40, in.skip(40));
+            assertEquals(40, in.read());
+            assertEquals(59, in.skip(1000));
+            assertEquals(-1, in.read());
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    public void testResetBuffer() throws IOException {
+        ByteBufferInputStream in = new ByteBufferInputStream(ByteBuffer.wrap(fBytes));
+        assertTrue(in.markSupported());
+        in.skip(10);
+        in.mark(50);
+        byte[] b = new byte[50];
+        assertEquals(50, in.read(b, 0, 50));
+        in.reset();
+        b = readAll(in, 13);
+        assertEquals(90, b.length);
+        assertBytes(fBytes, 10, b);
+    }
+
+    /** The mark is kept when the stream moves on to another region. */
+    public void testResetAcrossRegions() throws IOException {
+        ByteBufferInputStream in = openChannel();
+        try {
+            assertTrue(in.markSupported());
+            in.skip(10);
+            in.mark(50);
+            byte[] b = new byte[50];
+            int total = 0;
+            while (total < 50) {
+                total += in.read(b, total, 50 - total);
+            }
+            assertBytes(fBytes, 10, b);
+            in.reset();
+            assertEquals(10, in.read());
+            assertEquals(89, in.getRemaining());
+            b = readAll(in, 5);
+            assertEquals(89, b.length);
+            assertBytes(fBytes, 11, b);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /** A mark at the end of a region is reset within that region. */
+    public void testResetAtRegionBoundary() throws IOException {
+        ByteBufferInputStream in = openChannel();
+        try {
+            in.skip(MAPPING_SIZE);
+            in.mark(1);
+            assertEquals(MAPPING_SIZE, in.read());
+            in.reset();
+            assertEquals(MAPPING_SIZE, in.read());
+            in.skip(3 * MAPPING_SIZE);
+            in.reset();
+            byte[] b = readAll(in, 9);
+            assertEquals(100 - MAPPING_SIZE, b.length);
+            assertBytes(fBytes, MAPPING_SIZE, b);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    public void testResetWithoutMark() throws IOException {
+        ByteBufferInputStream in = openChannel();
+        try {
+            in.read();
+            in.reset();
+            fail("reset() without mark() should fail");
+        }
+        catch (IOException e) {
+            // expected
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /** Parses a document larger than a mapped region. */
+    public void testParseChannel() throws Exception {
+        StringBuffer doc = new StringBuffer("<root>");
+        for (int i = 0; i < 50; ++i) {
+            doc.append("<e n='").append(i).append("'>\u00e9\u4e2d</e>");
+        }
+        doc.append("</root>");
+        FileOutputStream out = new FileOutputStream(fFile);
+        try {
+            out.write(doc.toString().getBytes("UTF-8"));
+        }
+        finally {
+            out.close();
+        }
+        final int[] count = new int[1];
+        final StringBuffer text = new StringBuffer();
+        SAXParser parser = new SAXParser();
+        parser.setContentHandler(new DefaultHandler() {
+            public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                if ("e".equals(qName)) {
+                    assertEquals(String.valueOf(count[0]++), attributes.getValue("n"));
+                }
+            }
+            public void characters(char[] ch, int start, int length) {
+                text.append(ch, start, length);
+            }
+        });
+        parser.parse(new XMLInputSource(null, fFile.toURI().toString(),
+                null, openChannel(), null));
+        assertEquals(50, count[0]);
+        assertEquals(100, text.length());
+    }
+
+    //
+    // Private methods
+    //
+
+    private ByteBufferInputStream openChannel() throws IOException {
+        RandomAccessFile file = new RandomAccessFile(fFile, "r");
+        return new ByteBufferInputStream(file.getChannel(), MAPPING_SIZE);
+    }
+
+    private static byte[] readAll(ByteBufferInputStream in, int blockSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] b = new byte[blockSize];
+        int count;
+        while ((count = in.read(b, 0, blockSize)) != -1) {
+            out.write(b, 0, count);
+        }
+        return out.toByteArray();
+    }
+
+    private static void assertBytes(byte[] expected, int offset, byte[] actual) {
+        assertTrue(offset + actual.length <= expected.length);
+        for (int i = 0; i < actual.length; ++i) {
+            assertEquals("byte " + i, expected[offset + i], actual[i]);
+        }
+    }
+
+} // class ByteBufferInputStreamTest
@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.io.ByteBufferInputStream;
+import org.apache.xerces.parsers.SAXParser;
+import org.apache.xerces.util.ByteBufferInputSource;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests that the direct-byte-decoding feature reports the same
+ * characters and the same errors as decoding through a reader, for
+ * UTF-8 and US-ASCII documents, well-formed or not, with buffers of
+ * several sizes. The documents are also read from a ByteBuffer, with
+ * and without a backing array, and from a file channel mapped in
+ * regions so small that byte sequences span them.
+ *
+ * @version $Id$
+ */
+public class DirectByteDecodingTest extends TestCase {
+
+    private static final String DIRECT_BYTE_DECODING =
+        "http://apache.org/xml/features/scanner/direct-byte-decoding";
+
+    private static final String BUFFER_SIZE =
+        "http://apache.org/xml/properties/input-buffer-size";
+
+    private static final int[] BUFFER_SIZES = { 65, 100, 2048 };
+
+    /** Size of the regions mapped from a file channel. */
+    private static final int MAPPING_SIZE = 251;
+
+    /** The inputs a document is read from. */
+    private static final int STREAM = 0;
+    private static final int HEAP_BUFFER = 1;
+    private static final int READ_ONLY_BUFFER = 2;
+    private static final int CHANNEL = 3;
+
+    /** Malformed UTF-8 byte sequences. */
+    private static final byte[][] MALFORMED_UTF8 = {
+        { (byte) 0x80 },                                    // lone continuation byte
+        { (byte) 0xFF },                                    // invalid lead byte
+        { (byte) 0xC3, 'a' },                               // bad second byte of 2
+        { (byte) 0xE4, (byte) 0xB8, 'a' },                  // bad third byte of 3
+        { (byte) 0xE4, 'a' },                               // bad second byte of 3
+        { (byte) 0xF0, (byte) 0x9F, (byte) 0x98, 'a' },     // bad fourth byte of 4
+        { (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80 }, // above U+10FFFF
+        { (byte) 0xED, (byte) 0xA0, (byte) 0x80 },          // encoded surrogate
+    };
+
+    /** Truncated UTF-8 byte sequences, placed at the end of the input. */
+    private static final byte[][] TRUNCATED_UTF8 = {
+        { (byte) 0xC3 },
+        { (byte) 0xE4, (byte) 0xB8 },
+        { (byte) 0xF0, (byte) 0x9F, (byte) 0x98 },
+    };
+
+    public DirectByteDecodingTest(String name) {
+        super(name);
+    }
+
+    public void testUTF8() throws Exception {
+        Random random = new Random(1);
+        for (int i = 0; i < 100; ++i) {
+            compare(createDocument(random, "UTF-8", true, null, false));
+        }
+    }
+
+    public void testUTF8WithBOM() throws Exception {
+        Random random = new Random(2);
+        for (int i = 0; i < 20; ++i) {
+            byte[] document = createDocument(random, null, true, null, false);
+            byte[] withBOM = new byte[document.length + 3];
+            withBOM[0] = (byte) 0xEF;
+            withBOM[1] = (byte) 0xBB;
+            withBOM[2] = (byte) 0xBF;
+            System.arraycopy(document, 0, withBOM, 3, document.length);
+            compare(withBOM);
+        }
+    }
+
+    public void testASCII() throws Exception {
+        Random random = new Random(3);
+        for (int i = 0; i < 100; ++i) {
+            compare(createDocument(random, "US-ASCII", false, null, false));
+        }
+    }
+
+    public void testMalformedUTF8() throws Exception {
+        Random random = new Random(4);
+        for (int i = 0; i < 160; ++i) {
+            byte[] malformed = MALFORMED_UTF8[i % MALFORMED_UTF8.length];
+            assertError(compare(createDocument(random, "UTF-8", true, malformed, false)));
+        }
+    }
+
+    public void testTruncatedUTF8() throws Exception {
+        Random random = new Random(5);
+        for (int i = 0; i < 60; ++i) {
+            byte[] truncated = TRUNCATED_UTF8[i % TRUNCATED_UTF8.length];
+            assertError(compare(createDocument(random, "UTF-8", true, truncated, true)));
+        }
+    }
+
+    public void testMalformedASCII() throws Exception {
+        Random random = new Random(6);
+        for (int i = 0; i < 100; ++i) {
+            byte[] malformed = { (byte) (0x80 + random.nextInt(0x80)) };
+            assertError(compare(createDocument(random, "US-ASCII", false, malformed, false)));
+        }
+    }
+
+    //
+    // Private methods
+    //
+
+    /**
+     * Parses the document with and without the feature, with each
+     * buffer size and from each input, checks that the feature makes
+     * no difference and returns the result. The buffer size only makes
+     * a difference to how much content is reported before an error.
+     */
+    private static String compare(byte[] document) throws Exception {
+        String expected = null;
+        for (int i = 0; i < BUFFER_SIZES.length; ++i) {
+            String withReader = parse(document, false, BUFFER_SIZES[i], STREAM);
+            assertEquals("buffer size " + BUFFER_SIZES[i], withReader,
+                    parse(document, true, BUFFER_SIZES[i], STREAM));
+            // a channel is read a mapped region at a time, which changes how
+            // much content is reported before an error, so each input is
+            // compared with the reader reading the same input; each mapped
+            // region lives until it is collected, so only map at one size
+            final int inputs = (i == 0) ? CHANNEL : READ_ONLY_BUFFER;
+            for (int input = HEAP_BUFFER; input <= inputs; ++input) {
+                assertEquals("buffer size " + BUFFER_SIZES[i] + ", input " + input,
+                        parse(document, false, BUFFER_SIZES[i], input),
+                        parse(document, true, BUFFER_SIZES[i], input));
+            }
+            if (expected == null) {
+                expected = withReader;
+            }
+            else if (withReader.indexOf("!error ") == -1) {
+                assertEquals(expected, withReader);
+            }
+        }
+        return expected;
+    }
+
+    private static void assertError(String result) {
+        assertTrue(result, result.indexOf("!error ") != -1);
+    }
+
+    private static String parse(byte[] document, boolean direct, int bufferSize, int input) throws Exception {
+        SAXParser parser = new SAXParser();
+        parser.setFeature(DIRECT_BYTE_DECODING, direct);
+        parser.setProperty(BUFFER_SIZE, Integer.valueOf(bufferSize));
+        Recorder recorder = new Recorder();
+        parser.setContentHandler(recorder);
+        parser.setErrorHandler(recorder);
+        File file = null;
+        try {
+            XMLInputSource source;
+            if (input == HEAP_BUFFER) {
+                source = new ByteBufferInputSource(null, null, null, ByteBuffer.wrap(document), null);
+            }
+            else if (input == READ_ONLY_BUFFER) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(document.length);
+                buffer.put(document);
+                buffer.flip();
+                source = new ByteBufferInputSource(null, null, null, buffer.asReadOnlyBuffer(), null);
+            }
+            else if (input == CHANNEL) {
+                file = File.createTempFile("direct", ".xml");
+                FileOutputStream out = new FileOutputStream(file);
+                try {
+                    out.write(document);
+                }
+                finally {
+                    out.close();
+                }
+                source = new XMLInputSource(null, null, null, new ByteBufferInputStream(
+                        new RandomAccessFile(file, "r").getChannel(), MAPPING_SIZE), null);
+            }
+            else {
+                source = new XMLInputSource(null, null, null, new ByteArrayInputStream(document), null);
+            }
+            try {
+                parser.parse(source);
+            }
+            catch (XNIException e) {
+                // the parse exception thrown by the error handler
+                if (e.getException() instanceof SAXParseException) {
+                    throw (SAXParseException) e.getException();
+                }
+                throw e;
+            }
+        }
+        catch (SAXParseException e) {
+            recorder.flush();
+            recorder.fEvents.append("!error ").append(e.getLineNumber()).append(':')
+                .append(e.getColumnNumber()).append(' ').append(e.getMessage());
+        }
+        finally {
+            if (file != null) {
+                file.delete();
+            }
+        }
+        return recorder.toString();
+    }
+
+    /**
+     * Creates a document in the given encoding, optionally with non
+     * ASCII characters, with a byte sequence inserted in its content
+     * or appended to its content.
+     */
+    private static byte[] createDocument(Random random, String encoding,
+            boolean nonASCII, byte[] insert, boolean truncate) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (encoding != null) {
+            out.write(("<?xml version='1.0' encoding='" + encoding + "'?>").getBytes("US-ASCII"));
+        }
+        out.write((nonASCII ? "<root a='v\u00e9'>" : "<root a='v'>").getBytes("UTF-8"));
+        final int length = random.nextInt(4000);
+        final int insertAt = insert != null && !truncate ? random.nextInt(length + 1) : -1;
+        StringBuffer text = new StringBuffer();
+        for (int i = 0; i <= length; ++i) {
+            if (i == insertAt) {
+                out.write(text.toString().getBytes("UTF-8"));
+                text.setLength(0);
+                out.write(insert);
+            }
+            if (i == length) {
+                break;
+            }
+            final int kind = random.nextInt(nonASCII ? 10 : 6);
+            switch (kind) {
+                case 0: text.append("\r\n"); break;
+                case 1: text.append("<e>x</e>"); break;
+                case 2: text.append("&amp;"); break;
+                case 6: text.append('\u00e9'); break;
+                case 7: text.append('\u4e2d'); break;
+                case 8: text.append("\ud83d\ude00"); break;
+                case 9: text.append('\u07ff'); break;
+                default: text.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        out.write(text.toString().getBytes("UTF-8"));
+        if (truncate) {
+            out.write(insert);
+        }
+        else {
+            out.write("</root>".getBytes("US-ASCII"));
+        }
+        return out.toByteArray();
+    }
+
+    //
+    // Classes
+    //
+
+    /** Records the events, merging adjacent character events. */
+    static final class Recorder extends DefaultHandler {
+
+        final StringBuffer fEvents = new StringBuffer();
+        private final StringBuffer fText = new StringBuffer();
+
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            flush();
+            fEvents.append('<').append(qName);
+            for (int i = 0; i < attributes.getLength(); ++i) {
+                fEvents.append(' ').append(attributes.getQName(i)).append('=').append(attributes.getValue(i));
+            }
+            fEvents.append('>');
+        }
+
+        public void endElement(String uri, String localName, String qName) {
+            flush();
+            fEvents.append("</").append(qName).append('>');
+        }
+
+        public void characters(char[] ch, int start, int length) {
+            fText.append(ch, start, length);
+        }
+
+        void flush() {
+            fEvents.append(fText);
+            fText.setLength(0);
+        }
+
+        public String toString() {
+            return fEvents.toString();
+        }
+
+    } // class Recorder
+
+} // class DirectByteDecodingTest
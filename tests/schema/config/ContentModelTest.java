@@ -0,0 +1,639 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package schema.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CyclicBarrier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.xs.SchemaGrammar;
+import org.apache.xerces.impl.xs.XMLSchemaLoader;
+import org.apache.xerces.impl.xs.util.SchemaGrammarSerializer;
+import org.apache.xerces.jaxp.validation.XMLSchemaFactory;
+import org.apache.xerces.util.XMLGrammarPoolImpl;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Tests the DFA content models, which are minimized and find the particle
+ * matching an element by its name: random content models are checked
+ * against position automata built from their particles, with their
+ * wildcards, substitution groups and the elements expected when the
+ * content is invalid. Also tests that
+ * the first matching particle of an ambiguous model is still the one used,
+ * and that threads sharing a grammar read from a stream may use its
+ * content models for the first time concurrently.
+ *
+ * @version $Id$
+ */
+public class ContentModelTest extends TestCase {
+
+    private static final String SCHEMA_FULL_CHECKING =
+        "http://apache.org/xml/features/validation/schema-full-checking";
+
+    private static final String SCHEMA_START =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:t='urn:t'\n" +
+        "           targetNamespace='urn:t' elementFormDefault='qualified'>\n";
+
+    /**
+     * Global elements: i and j may substitute for h, and l is blocked from
+     * substituting for k.
+     */
+    private static final String GLOBAL_ELEMENTS =
+        "  <xs:element name='h' type='xs:string'/>\n" +
+        "  <xs:element name='i' type='xs:string' substitutionGroup='t:h'/>\n" +
+        "  <xs:element name='j' type='xs:string' substitutionGroup='t:i'/>\n" +
+        "  <xs:element name='k' type='xs:string' block='substitution'/>\n" +
+        "  <xs:element name='l' type='xs:string' substitutionGroup='t:k'/>\n";
+
+    /** The particles a random model is made of, each used at most once. */
+    private static final String[] LEAVES = { "a", "b", "c", "d", "e", "f", "h", "k", "w" };
+
+    /** The elements of random documents; z is not declared. */
+    private static final String[] TOKENS = { "a", "b", "c", "d", "e", "f", "h", "i", "j", "k", "l", "w", "z" };
+
+    private static final Pattern EXPECTED = Pattern.compile("One of '\\{(.*)\\}' is expected");
+
+    public ContentModelTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Random content models without ambiguity are checked against position
+     * automata, with random documents and small changes to valid ones.
+     */
+    public void testRandomModels() throws Exception {
+        Random random = new Random(1);
+        for (int n = 0; n < 300; ++n) {
+            List leaves = new ArrayList();
+            for (int i = 0; i < LEAVES.length; ++i) {
+                leaves.add(LEAVES[i]);
+            }
+            Collections.shuffle(leaves, random);
+            leaves = leaves.subList(0, 1 + random.nextInt(leaves.size()));
+            final Node model = group(leaves, random);
+            final String schema = SCHEMA_START + "  <xs:element name='root'><xs:complexType>" +
+                model.toSchema() + "</xs:complexType></xs:element>\n" + GLOBAL_ELEMENTS + "</xs:schema>\n";
+            final Automaton automaton = new Automaton(model);
+            final Validator validator = newSchema(schema, n % 4 == 0).newValidator();
+
+            for (int i = 0; i < 40; ++i) {
+                final StringBuffer document = new StringBuffer();
+                if (i % 2 == 0) {
+                    final int length = random.nextInt(7);
+                    for (int j = 0; j < length; ++j) {
+                        document.append(TOKENS[random.nextInt(TOKENS.length)]);
+                    }
+                }
+                else {
+                    model.generate(document, random);
+                    if (i % 4 == 1 && document.length() < 20) {
+                        final int position = random.nextInt(document.length() + 1);
+                        final String token = TOKENS[random.nextInt(TOKENS.length)];
+                        if (position < document.length() && random.nextBoolean()) {
+                            document.deleteCharAt(position);
+                        }
+                        else {
+                            document.insert(position, token);
+                        }
+                    }
+                }
+                final String tokens = document.toString();
+                assertEquals(schema + tokens, automaton.getError(tokens),
+                        toKey(validate(validator, tokens)));
+            }
+        }
+    }
+
+    /**
+     * Without full checking an ambiguous model is not reported, and the
+     * first particle matching an element is used, whether it matches by
+     * name, as a wildcard or as the head of a substitution group.
+     */
+    public void testFirstMatchingParticle() throws Exception {
+        final String wildcardFirst = ambiguousSchema(
+                "<xs:sequence><xs:any namespace='##targetNamespace' processContents='skip'/><xs:element name='a'/></xs:sequence>",
+                "<xs:sequence><xs:element ref='t:h'/><xs:element name='b'/></xs:sequence>");
+        assertEquals("", validate(newSchema(wildcardFirst, false).newValidator(), "ha"));
+        assertEquals("cvc-complex-type.2.4.a {\"urn:t\":a}",
+                toKey(validate(newSchema(wildcardFirst, false).newValidator(), "hb")));
+
+        final String wildcardLast = ambiguousSchema(
+                "<xs:sequence><xs:element ref='t:h'/><xs:element name='b'/></xs:sequence>",
+                "<xs:sequence><xs:any namespace='##targetNamespace' processContents='skip'/><xs:element name='a'/></xs:sequence>");
+        assertEquals("", validate(newSchema(wildcardLast, false).newValidator(), "hb"));
+        assertEquals("cvc-complex-type.2.4.a {\"urn:t\":b}",
+                toKey(validate(newSchema(wildcardLast, false).newValidator(), "ha")));
+
+        final String sameName = ambiguousSchema(
+                "<xs:sequence><xs:element name='a'/><xs:element name='b'/></xs:sequence>",
+                "<xs:sequence><xs:element name='a'/><xs:element name='c'/></xs:sequence>");
+        assertEquals("", validate(newSchema(sameName, false).newValidator(), "ab"));
+        assertEquals("cvc-complex-type.2.4.a {\"urn:t\":b}",
+                toKey(validate(newSchema(sameName, false).newValidator(), "ac")));
+
+        // j matches i by name, and h, when it comes first, as its head
+        final String headFirst = ambiguousSchema(
+                "<xs:sequence><xs:element ref='t:h'/><xs:element name='a'/></xs:sequence>",
+                "<xs:sequence><xs:element ref='t:i'/><xs:element name='b'/></xs:sequence>");
+        final Validator validator = newSchema(headFirst, false).newValidator();
+        assertEquals("", validate(validator, "ia"));
+        assertEquals("", validate(validator, "ja"));
+        assertEquals("cvc-complex-type.2.4.a {\"urn:t\":a}", toKey(validate(validator, "ib")));
+
+        final String headLast = ambiguousSchema(
+                "<xs:sequence><xs:element ref='t:i'/><xs:element name='b'/></xs:sequence>",
+                "<xs:sequence><xs:element ref='t:h'/><xs:element name='a'/></xs:sequence>");
+        assertEquals("", validate(newSchema(headLast, false).newValidator(), "ib"));
+        assertEquals("", validate(newSchema(headLast, false).newValidator(), "ha"));
+        assertEquals("cvc-complex-type.2.4.a {\"urn:t\":b}",
+                toKey(validate(newSchema(headLast, false).newValidator(), "ja")));
+    }
+
+    /** With full checking the same models violate Unique Particle Attribution. */
+    public void testUniqueParticleAttribution() throws Exception {
+        final String[][] models = {
+            { "<xs:any namespace='##targetNamespace' processContents='skip'/>", "<xs:element name='a'/>" },
+            { "<xs:element ref='t:h'/>", "<xs:element ref='t:j'/>" },
+            { "<xs:element name='a' minOccurs='0'/>", "<xs:element name='a'/>" },
+        };
+        for (int i = 0; i < models.length; ++i) {
+            final String schema = ambiguousSchema(models[i][0], models[i][1]);
+            newSchema(schema, false);
+            try {
+                newSchema(schema, true);
+                fail(schema);
+            }
+            catch (SAXParseException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("cos-nonambig:"));
+            }
+        }
+    }
+
+    /**
+     * Validators on several threads use the content models of grammars just
+     * read from a stream, whose element map indexes are built on first use.
+     */
+    public void testConcurrentFirstUse() throws Exception {
+        StringBuffer schema = new StringBuffer(SCHEMA_START);
+        schema.append("  <xs:element name='root'><xs:complexType><xs:choice maxOccurs='unbounded'>\n");
+        for (int i = 0; i < 100; ++i) {
+            schema.append("    <xs:element ref='t:g").append(i).append("'/>\n");
+        }
+        schema.append("    <xs:element ref='t:h'/>\n    <xs:element ref='t:k'/>\n")
+            .append("    <xs:sequence><xs:element name='a'/><xs:any namespace='urn:w' processContents='skip'/></xs:sequence>\n")
+            .append("  </xs:choice></xs:complexType></xs:element>\n");
+        for (int i = 0; i < 100; ++i) {
+            schema.append("  <xs:element name='g").append(i).append("' type='xs:int'/>\n");
+        }
+        schema.append(GLOBAL_ELEMENTS).append("</xs:schema>\n");
+
+        final String[] documents = new String[8];
+        for (int i = 0; i < documents.length; ++i) {
+            StringBuffer document = new StringBuffer("<t:root xmlns:t='urn:t' xmlns:w='urn:w'>");
+            if (i % 2 == 1) {
+                document.append("<t:l/><t:g").append(i).append(">x</t:g").append(i).append('>');
+            }
+            for (int j = 0; j < 100; ++j) {
+                final int g = (i * 37 + j * 11) % 100;
+                document.append("<t:g").append(g).append('>').append(j).append("</t:g").append(g).append('>');
+                document.append(j % 3 == 0 ? "<t:j/>" : j % 3 == 1 ? "<t:a/><w:x/>" : "<t:k/>");
+            }
+            documents[i] = document.append("</t:root>").toString();
+        }
+
+        // compile the content models, then write the grammar with them
+        XMLSchemaLoader loader = new XMLSchemaLoader();
+        Grammar grammar = loader.loadGrammar(new XMLInputSource(null, "urn:test", null,
+                new StringReader(schema.toString()), null));
+        final String[] expected = new String[documents.length];
+        Validator validator = newSchema(new Grammar[] { grammar }).newValidator();
+        for (int i = 0; i < documents.length; ++i) {
+            expected[i] = validateAll(validator, documents[i]);
+        }
+        assertEquals("", expected[0]);
+        assertTrue(expected[1], expected[1].indexOf("cvc-datatype-valid") != -1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SchemaGrammarSerializer.writeGrammars(new SchemaGrammar[] { (SchemaGrammar) grammar }, bytes);
+
+        final int threadCount = 8;
+        for (int round = 0; round < 20; ++round) {
+            final Schema shared = newSchema(
+                    SchemaGrammarSerializer.readGrammars(new ByteArrayInputStream(bytes.toByteArray())));
+            final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+            final Throwable[] failures = new Throwable[threadCount];
+            Thread[] threads = new Thread[threadCount];
+            for (int t = 0; t < threadCount; ++t) {
+                final int thread = t;
+                threads[t] = new Thread() {
+                    public void run() {
+                        try {
+                            Validator validator = shared.newValidator();
+                            barrier.await();
+                            for (int i = 0; i < documents.length; ++i) {
+                                final int document = (thread + i) % documents.length;
+                                assertEquals(expected[document], validateAll(validator, documents[document]));
+                            }
+                        }
+                        catch (Throwable e) {
+                            failures[thread] = e;
+                        }
+                    }
+                };
+                threads[t].start();
+            }
+            for (int t = 0; t < threadCount; ++t) {
+                threads[t].join();
+                if (failures[t] != null) {
+                    AssertionError error = new AssertionError("round " + round + ", thread " + t);
+                    error.initCause(failures[t]);
+                    throw error;
+                }
+            }
+        }
+    }
+
+    //
+    // Private methods
+    //
+
+    /** Returns a schema whose root holds a choice of two particles. */
+    private static String ambiguousSchema(String first, String second) {
+        return SCHEMA_START + "  <xs:element name='root'><xs:complexType><xs:choice>" +
+            first + second + "</xs:choice></xs:complexType></xs:element>\n" + GLOBAL_ELEMENTS + "</xs:schema>\n";
+    }
+
+    private static Schema newSchema(String schema, boolean fullChecking) throws SAXException {
+        XMLSchemaFactory factory = new XMLSchemaFactory();
+        factory.setFeature(SCHEMA_FULL_CHECKING, fullChecking);
+        factory.setErrorHandler(new ErrorHandler() {
+            public void warning(SAXParseException e) {
+            }
+            public void error(SAXParseException e) throws SAXException {
+                throw e;
+            }
+            public void fatalError(SAXParseException e) throws SAXException {
+                throw e;
+            }
+        });
+        return factory.newSchema(new StreamSource(new StringReader(schema)));
+    }
+
+    private static Schema newSchema(Grammar[] grammars) throws SAXException {
+        XMLGrammarPoolImpl pool = new XMLGrammarPoolImpl();
+        pool.cacheGrammars(XMLConstants.W3C_XML_SCHEMA_NS_URI, grammars);
+        pool.lockPool();
+        return new XMLSchemaFactory().newSchema(pool);
+    }
+
+    /**
+     * Validates a document whose root holds an empty element for each
+     * token, and returns the message of the first error, or "" if it is
+     * valid.
+     */
+    private static String validate(Validator validator, String tokens) throws Exception {
+        StringBuffer document = new StringBuffer("<t:root xmlns:t='urn:t' xmlns:w='urn:w'>");
+        for (int i = 0; i < tokens.length(); ++i) {
+            final char token = tokens.charAt(i);
+            if (token == 'w') {
+                document.append("<w:x/>");
+            }
+            else {
+                document.append("<t:").append(token).append("/>");
+            }
+        }
+        document.append("</t:root>");
+        final String[] error = { "" };
+        validator.setErrorHandler(new ErrorHandler() {
+            public void warning(SAXParseException e) {
+            }
+            public void error(SAXParseException e) {
+                if (error[0].length() == 0) {
+                    error[0] = e.getMessage();
+                }
+            }
+            public void fatalError(SAXParseException e) throws SAXException {
+                throw e;
+            }
+        });
+        validator.validate(new StreamSource(new StringReader(document.toString())));
+        return error[0];
+    }
+
+    /** Validates a document and returns all of its errors. */
+    private static String validateAll(Validator validator, String document) throws Exception {
+        final StringBuffer errors = new StringBuffer();
+        validator.setErrorHandler(new ErrorHandler() {
+            public void warning(SAXParseException e) {
+            }
+            public void error(SAXParseException e) {
+                errors.append(e.getColumnNumber()).append(' ').append(e.getMessage()).append('\n');
+            }
+            public void fatalError(SAXParseException e) throws SAXException {
+                throw e;
+            }
+        });
+        validator.validate(new StreamSource(new StringReader(document)));
+        return errors.toString();
+    }
+
+    /**
+     * Returns the code of an error and the elements it expects, sorted,
+     * with the wildcard as w, or "" if there is no error.
+     */
+    private static String toKey(String message) {
+        if (message.length() == 0) {
+            return "";
+        }
+        final String code = message.substring(0, message.indexOf(':'));
+        final Matcher matcher = EXPECTED.matcher(message);
+        if (!matcher.find()) {
+            return code;
+        }
+        TreeSet expected = new TreeSet();
+        final String[] names = matcher.group(1).split(", ");
+        for (int i = 0; i < names.length; ++i) {
+            expected.add(names[i].startsWith("WC[") ? "w" : names[i]);
+        }
+        return code + ' ' + toString(expected);
+    }
+
+    private static String toString(TreeSet set) {
+        final StringBuffer buffer = new StringBuffer("{");
+        for (Iterator i = set.iterator(); i.hasNext();) {
+            buffer.append(i.next()).append(i.hasNext() ? ", " : "");
+        }
+        return buffer.append('}').toString();
+    }
+
+    /** Returns a random group of the particles, in order. */
+    private static Node group(List leaves, Random random) {
+        final Node group = new Node(random.nextBoolean() ? "sequence" : "choice", random);
+        final int count = Math.min(leaves.size(), 1 + random.nextInt(3));
+        int start = 0;
+        for (int i = 0; i < count; ++i) {
+            final int end = (i == count - 1) ? leaves.size()
+                : start + 1 + random.nextInt(leaves.size() - start - (count - i - 1));
+            final List part = leaves.subList(start, end);
+            if (part.size() == 1 && random.nextInt(3) != 0) {
+                group.fChildren.add(new Node((String) part.get(0), random));
+            }
+            else {
+                group.fChildren.add(group(part, random));
+            }
+            start = end;
+        }
+        return group;
+    }
+
+    //
+    // Classes
+    //
+
+    /**
+     * A particle of a random content model: a model group, or an element
+     * or wildcard. Its maximum occurrence is 1 or unbounded, so that no
+     * element may match two particles.
+     */
+    static final class Node {
+
+        private static final int UNBOUNDED = -1;
+
+        final String fName;
+        final List fChildren = new ArrayList();
+        final int fMinOccurs;
+        final int fMaxOccurs;
+
+        Node(String name, Random random) {
+            fName = name;
+            fMinOccurs = random.nextInt(2);
+            fMaxOccurs = random.nextBoolean() ? 1 : UNBOUNDED;
+        }
+
+        String toSchema() {
+            final String occurs = " minOccurs='" + fMinOccurs + "' maxOccurs='" +
+                (fMaxOccurs == UNBOUNDED ? "unbounded" : "1") + "'";
+            if (fName.equals("sequence") || fName.equals("choice")) {
+                final StringBuffer buffer = new StringBuffer("<xs:").append(fName).append(occurs).append('>');
+                for (int i = 0; i < fChildren.size(); ++i) {
+                    buffer.append(((Node) fChildren.get(i)).toSchema());
+                }
+                return buffer.append("</xs:").append(fName).append('>').toString();
+            }
+            if (fName.equals("w")) {
+                return "<xs:any namespace='urn:w' processContents='skip'" + occurs + "/>";
+            }
+            if (fName.equals("h") || fName.equals("k")) {
+                return "<xs:element ref='t:" + fName + "'" + occurs + "/>";
+            }
+            return "<xs:element name='" + fName + "' type='xs:string'" + occurs + "/>";
+        }
+
+        /** Returns true if the particle may match no element. */
+        boolean isNullable() {
+            if (fMinOccurs == 0) {
+                return true;
+            }
+            if (fName.equals("sequence")) {
+                for (int i = 0; i < fChildren.size(); ++i) {
+                    if (!((Node) fChildren.get(i)).isNullable()) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            for (int i = 0; i < fChildren.size(); ++i) {
+                if (((Node) fChildren.get(i)).isNullable()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Adds the particles which may match the first element. */
+        void addFirst(Set first) {
+            if (fChildren.isEmpty()) {
+                first.add(fName);
+                return;
+            }
+            for (int i = 0; i < fChildren.size(); ++i) {
+                final Node child = (Node) fChildren.get(i);
+                child.addFirst(first);
+                if (fName.equals("sequence") && !child.isNullable()) {
+                    break;
+                }
+            }
+        }
+
+        /** Adds the particles which may match the last element. */
+        void addLast(Set last) {
+            if (fChildren.isEmpty()) {
+                last.add(fName);
+                return;
+            }
+            for (int i = fChildren.size() - 1; i >= 0; --i) {
+                final Node child = (Node) fChildren.get(i);
+                child.addLast(last);
+                if (fName.equals("sequence") && !child.isNullable()) {
+                    break;
+                }
+            }
+        }
+
+        /** Adds, for each particle, the particles which may follow it. */
+        void addFollow(Map follow) {
+            if (fName.equals("sequence")) {
+                for (int i = 0; i < fChildren.size() - 1; ++i) {
+                    final Set last = new TreeSet();
+                    ((Node) fChildren.get(i)).addLast(last);
+                    for (int j = i + 1; j < fChildren.size(); ++j) {
+                        final Node next = (Node) fChildren.get(j);
+                        for (Iterator k = last.iterator(); k.hasNext();) {
+                            next.addFirst(getFollow(follow, (String) k.next()));
+                        }
+                        if (!next.isNullable()) {
+                            break;
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < fChildren.size(); ++i) {
+                ((Node) fChildren.get(i)).addFollow(follow);
+            }
+            if (fMaxOccurs == UNBOUNDED) {
+                final Set last = new TreeSet();
+                addLast(last);
+                for (Iterator k = last.iterator(); k.hasNext();) {
+                    addFirst(getFollow(follow, (String) k.next()));
+                }
+            }
+        }
+
+        static Set getFollow(Map follow, String name) {
+            Set set = (Set) follow.get(name);
+            if (set == null) {
+                set = new TreeSet();
+                follow.put(name, set);
+            }
+            return set;
+        }
+
+        /** Appends random tokens matching the particle. */
+        void generate(StringBuffer buffer, Random random) {
+            final int count = fMinOccurs + random.nextInt(fMaxOccurs == UNBOUNDED ? 3 : 2 - fMinOccurs);
+            for (int n = 0; n < count; ++n) {
+                if (fName.equals("sequence")) {
+                    for (int i = 0; i < fChildren.size(); ++i) {
+                        ((Node) fChildren.get(i)).generate(buffer, random);
+                    }
+                }
+                else if (fName.equals("choice")) {
+                    ((Node) fChildren.get(random.nextInt(fChildren.size()))).generate(buffer, random);
+                }
+                else if (fName.equals("h")) {
+                    buffer.append("hij".charAt(random.nextInt(3)));
+                }
+                else {
+                    buffer.append(fName);
+                }
+            }
+        }
+    }
+
+    /**
+     * The position automaton of a random content model. As each particle
+     * is used once, it is deterministic: its states are the particles.
+     */
+    static final class Automaton {
+
+        final Set fFirst = new TreeSet();
+        final Set fLast = new TreeSet();
+        final Map fFollow = new HashMap();
+        final boolean fNullable;
+
+        Automaton(Node model) {
+            model.addFirst(fFirst);
+            model.addLast(fLast);
+            model.addFollow(fFollow);
+            fNullable = model.isNullable();
+        }
+
+        /**
+         * Returns the key of the first error expected for the tokens, as
+         * returned by toKey, or "" if they are valid.
+         */
+        String getError(String tokens) {
+            String state = null;
+            for (int i = 0; i < tokens.length(); ++i) {
+                final Set next = getNext(state);
+                final char token = tokens.charAt(i);
+                final String particle = (token == 'i' || token == 'j') ? "h" : String.valueOf(token);
+                if (!next.contains(particle)) {
+                    return next.isEmpty() ? "cvc-complex-type.2.4.d"
+                        : "cvc-complex-type.2.4.a " + toExpected(next);
+                }
+                state = particle;
+            }
+            if (state == null ? fNullable : fLast.contains(state)) {
+                return "";
+            }
+            return "cvc-complex-type.2.4.b " + toExpected(getNext(state));
+        }
+
+        private Set getNext(String state) {
+            if (state == null) {
+                return fFirst;
+            }
+            final Set next = (Set) fFollow.get(state);
+            return next != null ? next : Collections.EMPTY_SET;
+        }
+
+        /** Returns the particles as they are reported. */
+        private static String toExpected(Set particles) {
+            final TreeSet expected = new TreeSet();
+            for (Iterator i = particles.iterator(); i.hasNext();) {
+                final String particle = (String) i.next();
+                expected.add(particle.equals("w") ? "w" : "\"urn:t\":" + particle);
+            }
+            return ContentModelTest.toString(expected);
+        }
+    }
+
+} // class ContentModelTest
@@ -0,0 +1,601 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package schema.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.SchemaFactory;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.Constants;
+import org.apache.xerces.impl.xs.XMLSchemaLoader;
+import org.apache.xerces.xni.XMLResourceIdentifier;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.grammars.XSGrammar;
+import org.apache.xerces.xni.parser.XMLEntityResolver;
+import org.apache.xerces.xni.parser.XMLErrorHandler;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.apache.xerces.xni.parser.XMLParseException;
+import org.apache.xerces.xs.XSConstants;
+import org.apache.xerces.xs.XSModel;
+import org.apache.xerces.xs.XSNamedMap;
+import org.apache.xerces.xs.XSObject;
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests that loading a schema with parallel loading gives the same
+ * components and reports the same errors, in the same order, as loading
+ * it sequentially, that no document is prefetched when an entity
+ * resolver is set, and that failing documents neither hang the load nor
+ * leave documents being loaded after it.
+ * <p>
+ * The schema documents are served over HTTP with some latency, so that
+ * the server sees how many documents are loaded at once.
+ *
+ * @version $Id$
+ */
+public class ParallelSchemaLoadingTest extends TestCase {
+
+    private static final String PARALLEL_SCHEMA_LOADING =
+        Constants.XERCES_FEATURE_PREFIX + Constants.PARALLEL_SCHEMA_LOADING_FEATURE;
+
+    private static final String PREFETCHER_CLASS =
+        "org.apache.xerces.impl.xs.traversers.SchemaDocumentPrefetcher";
+
+    /** The latency of the server, in milliseconds. */
+    private static final int DELAY = 40;
+
+    /** The latency of the documents whose name starts with "slow". */
+    private static final int SLOW_DELAY = 800;
+
+    private static final String SCHEMA_START =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'";
+
+    /** The documents which are well-formed, valid and fetched successfully. */
+    private static final String[] VALID_DOCUMENTS = {
+        "root.xsd", "a.xsd", "a1.xsd", "a2.xsd", "b.xsd", "b1.xsd", "inc1.xsd", "inc3.xsd"
+    };
+
+    private HttpServer fServer;
+
+    private String fBase;
+
+    private String fRefusedLocation;
+
+    private final Map<String, String> fDocuments = new HashMap<String, String>();
+
+    private final Map<String, Integer> fRequests = new HashMap<String, Integer>();
+
+    private int fInFlight;
+
+    private int fMaxInFlight;
+
+    public ParallelSchemaLoadingTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        fServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        fServer.createContext("/", new DocumentHandler());
+        fServer.setExecutor(Executors.newCachedThreadPool(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "ParallelSchemaLoadingTest server");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }));
+        fServer.start();
+        fBase = "http://127.0.0.1:" + fServer.getAddress().getPort() + "/";
+        // a port on which nothing listens
+        ServerSocket socket = new ServerSocket(0);
+        fRefusedLocation = "http://127.0.0.1:" + socket.getLocalPort() + "/refused.xsd";
+        socket.close();
+        createDocuments();
+    }
+
+    protected void tearDown() throws Exception {
+        fServer.stop(0);
+        ((ExecutorService) fServer.getExecutor()).shutdownNow();
+    }
+
+    /**
+     * The components and the errors of a schema importing and including
+     * documents which are missing, malformed or invalid are the same as
+     * when the documents are loaded sequentially.
+     */
+    public void testSameAsSequential() throws Exception {
+        Set<Thread> threads = getNonDaemonThreads();
+        LoadResult sequential = load(false, null);
+        assertNull(sequential.fException);
+        assertEquals(1, fMaxInFlight);
+        assertTrue(sequential.fComponents.contains("element {urn:a}a2"));
+        assertTrue(sequential.fComponents.contains("element {urn:root}i3"));
+        assertTrue(sequential.fComponents.contains("attributeGroup {urn:b}ag"));
+        assertTrue(sequential.fComponents.contains("identityConstraint {urn:root}k"));
+        assertTrue(sequential.fErrors.size() >= 6);
+        assertMentioned(sequential.fErrors, "missing.xsd");
+        assertMentioned(sequential.fErrors, "a-missing.xsd");
+        assertMentioned(sequential.fErrors, "slow-missing.xsd");
+        assertMentioned(sequential.fErrors, "notschema.xsd");
+        assertMentioned(sequential.fErrors, fRefusedLocation);
+        assertMentioned(sequential.fErrors, "undefined");
+        Map<String, Integer> sequentialRequests = new HashMap<String, Integer>(fRequests);
+
+        for (int i = 0; i < 3; ++i) {
+            LoadResult parallel = load(true, null);
+            assertTrue(fMaxInFlight > 1);
+            assertEquals(sequential.fComponents, parallel.fComponents);
+            assertEquals(sequential.fErrors, parallel.fErrors);
+            assertNull(parallel.fException);
+            // the documents prefetched are not fetched again
+            for (int j = 0; j < VALID_DOCUMENTS.length; ++j) {
+                assertEquals(VALID_DOCUMENTS[j], sequentialRequests.get(VALID_DOCUMENTS[j]),
+                        fRequests.get(VALID_DOCUMENTS[j]));
+            }
+        }
+        assertSettled(threads);
+    }
+
+    /**
+     * A malformed document stops the load with the same errors and the
+     * same fatal error as when the documents are loaded sequentially.
+     */
+    public void testMalformed() throws Exception {
+        LoadResult sequential = load("root-malformed.xsd", false, null);
+        assertNotNull(sequential.fException);
+        assertMentioned(Collections.singletonList(sequential.fException), "malformed.xsd");
+        assertMentioned(sequential.fErrors, "missing.xsd");
+        for (int i = 0; i < 3; ++i) {
+            LoadResult parallel = load("root-malformed.xsd", true, null);
+            assertTrue(fMaxInFlight > 1);
+            assertEquals(sequential.fErrors, parallel.fErrors);
+            assertEquals(sequential.fException, parallel.fException);
+        }
+    }
+
+    /**
+     * When an entity resolver is set, every document is resolved through
+     * it, so none is prefetched; the result is the same.
+     */
+    public void testEntityResolver() throws Exception {
+        LoadResult sequential = load(false, null);
+        Set<String> expected = new HashSet<String>(fRequests.keySet());
+        // the document loaded is not resolved
+        expected.remove("root.xsd");
+        expected.add(fRefusedLocation.substring(fRefusedLocation.lastIndexOf('/') + 1));
+
+        RecordingResolver resolver = new RecordingResolver();
+        LoadResult parallel = load(true, resolver);
+        assertEquals(1, fMaxInFlight);
+        assertEquals(expected, resolver.fResolved);
+        assertEquals(sequential.fComponents, parallel.fComponents);
+        assertEquals(sequential.fErrors, parallel.fErrors);
+    }
+
+    /**
+     * The schema factory resolves documents through its resource resolver,
+     * so documents are only prefetched when no resource resolver is set.
+     */
+    public void testSchemaFactory() throws Exception {
+        SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        factory.setFeature(PARALLEL_SCHEMA_LOADING, true);
+        factory.setErrorHandler(new DefaultHandler() {
+            public void error(SAXParseException e) {
+            }
+        });
+        resetStatistics();
+        assertNotNull(factory.newSchema(new StreamSource(fBase + "a.xsd")));
+        assertTrue(fMaxInFlight > 1);
+
+        final Set<String> resolved = Collections.synchronizedSet(new HashSet<String>());
+        factory.setResourceResolver(new LSResourceResolver() {
+            public LSInput resolveResource(String type, String namespaceURI, String publicId,
+                    String systemId, String baseURI) {
+                resolved.add(systemId);
+                return null;
+            }
+        });
+        resetStatistics();
+        assertNotNull(factory.newSchema(new StreamSource(fBase + "a.xsd")));
+        assertEquals(1, fMaxInFlight);
+        assertTrue(resolved.containsAll(Arrays.asList(new String[] {"a1.xsd", "a2.xsd", "b.xsd", "b1.xsd"})));
+    }
+
+    /**
+     * A load stopped by the error handler at the first missing document
+     * neither waits for the documents still being fetched nor leaves them
+     * being loaded, and the next load is not affected.
+     */
+    public void testAbortedLoad() throws Exception {
+        fDocuments.put("abort.xsd", SCHEMA_START + " targetNamespace='urn:abort'>" +
+                "<xs:import namespace='urn:m' schemaLocation='missing.xsd'/>" +
+                "<xs:import namespace='urn:s1' schemaLocation='slow1.xsd'/>" +
+                "<xs:import namespace='urn:s2' schemaLocation='slow2.xsd'/>" +
+                "<xs:import namespace='urn:a' schemaLocation='a.xsd'/>" +
+                "</xs:schema>");
+        fDocuments.put("slow1.xsd", SCHEMA_START + " targetNamespace='urn:s1'>" +
+                "<xs:include schemaLocation='slow3.xsd'/></xs:schema>");
+        fDocuments.put("slow2.xsd", SCHEMA_START + " targetNamespace='urn:s2'/>");
+        fDocuments.put("slow3.xsd", SCHEMA_START + " targetNamespace='urn:s1'/>");
+        Set<Thread> threads = getNonDaemonThreads();
+        for (int i = 0; i < 3; ++i) {
+            resetStatistics();
+            final XMLSchemaLoader loader = new XMLSchemaLoader();
+            loader.setFeature(PARALLEL_SCHEMA_LOADING, true);
+            loader.setErrorHandler(new ErrorRecorder() {
+                public void warning(String domain, String key, XMLParseException exception) {
+                    throw exception;
+                }
+            });
+            long start = System.currentTimeMillis();
+            try {
+                callWithTimeout(new Callable<Object>() {
+                    public Object call() throws Exception {
+                        return loader.loadGrammar(new XMLInputSource(null, fBase + "abort.xsd", null));
+                    }
+                });
+                fail("the missing document was not reported");
+            }
+            catch (XMLParseException e) {
+                assertTrue(e.getMessage(), e.getMessage().indexOf("missing.xsd") != -1);
+            }
+            assertTrue(System.currentTimeMillis() - start < SLOW_DELAY);
+            assertSettled(threads);
+            // the document included by a slow document is not fetched once cancelled
+            assertNull(fRequests.get("slow3.xsd"));
+        }
+        assertEquals(load(false, null).fComponents, load(true, null).fComponents);
+        assertSettled(threads);
+    }
+
+    //
+    // Private methods
+    //
+
+    private void createDocuments() {
+        fDocuments.put("root.xsd", SCHEMA_START + " targetNamespace='urn:root'" +
+                " xmlns:r='urn:root' xmlns:a='urn:a' xmlns:b='urn:b'>" +
+                "<xs:annotation><xs:documentation>root</xs:documentation></xs:annotation>" +
+                "<xs:import namespace='urn:a' schemaLocation='a.xsd'/>" +
+                "<xs:import namespace='urn:m' schemaLocation='missing.xsd'/>" +
+                "<xs:import namespace='urn:b' schemaLocation='b.xsd'/>" +
+                "<xs:import namespace='urn:s' schemaLocation='slow-missing.xsd'/>" +
+                "<xs:import namespace='urn:x' schemaLocation='notschema.xsd'/>" +
+                "<xs:import namespace='urn:refused' schemaLocation='" + fRefusedLocation + "'/>" +
+                "<xs:include schemaLocation='inc1.xsd'/>" +
+                "<xs:include schemaLocation='inc2.xsd'/>" +
+                "<xs:element name='root'><xs:complexType><xs:sequence>" +
+                "<xs:element ref='a:a'/><xs:element ref='b:b'/><xs:element ref='r:i1'/>" +
+                "</xs:sequence></xs:complexType></xs:element>" +
+                "</xs:schema>");
+        fDocuments.put("a.xsd", SCHEMA_START + " targetNamespace='urn:a' xmlns:a='urn:a'>" +
+                "<xs:include schemaLocation='a1.xsd'/>" +
+                "<xs:import namespace='urn:b' schemaLocation='b.xsd'/>" +
+                "<xs:include schemaLocation='a-missing.xsd'/>" +
+                "<xs:include schemaLocation='a2.xsd'/>" +
+                "<xs:element name='a' type='a:t1'/>" +
+                "</xs:schema>");
+        fDocuments.put("a1.xsd", SCHEMA_START + " targetNamespace='urn:a' xmlns:a='urn:a'>" +
+                "<xs:complexType name='t1'><xs:sequence>" +
+                "<xs:element name='x' type='a:t2'/></xs:sequence></xs:complexType>" +
+                "</xs:schema>");
+        fDocuments.put("a2.xsd", SCHEMA_START + " targetNamespace='urn:a' xmlns:a='urn:a'>" +
+                "<xs:complexType name='t2'/><xs:element name='a2' type='a:t2'/>" +
+                "</xs:schema>");
+        fDocuments.put("b.xsd", SCHEMA_START + " targetNamespace='urn:b' xmlns:b='urn:b'>" +
+                "<xs:include schemaLocation='b1.xsd'/>" +
+                "<xs:element name='b' type='b:bt'/>" +
+                "</xs:schema>");
+        fDocuments.put("b1.xsd", SCHEMA_START + " targetNamespace='urn:b' xmlns:b='urn:b'>" +
+                "<xs:simpleType name='bt'><xs:restriction base='xs:string'/></xs:simpleType>" +
+                "<xs:attributeGroup name='ag'><xs:attribute name='at'/></xs:attributeGroup>" +
+                "<xs:group name='g'><xs:sequence><xs:element name='ge'/></xs:sequence></xs:group>" +
+                "</xs:schema>");
+        fDocuments.put("slow-missing.xsd", null);
+        fDocuments.put("notschema.xsd", "<schema targetNamespace='urn:x'><element name='m'/></schema>");
+        fDocuments.put("malformed.xsd", SCHEMA_START + " targetNamespace='urn:x'>" +
+                "<xs:element name='m'></xs:schema>");
+        fDocuments.put("root-malformed.xsd", SCHEMA_START + " targetNamespace='urn:root'>" +
+                "<xs:import namespace='urn:a' schemaLocation='a.xsd'/>" +
+                "<xs:import namespace='urn:m' schemaLocation='missing.xsd'/>" +
+                "<xs:import namespace='urn:x' schemaLocation='malformed.xsd'/>" +
+                "<xs:import namespace='urn:b' schemaLocation='b.xsd'/>" +
+                "<xs:include schemaLocation='inc2.xsd'/>" +
+                "</xs:schema>");
+        fDocuments.put("inc1.xsd", SCHEMA_START + " targetNamespace='urn:root'>" +
+                "<xs:include schemaLocation='inc3.xsd'/>" +
+                "<xs:element name='i1'/>" +
+                "</xs:schema>");
+        fDocuments.put("inc2.xsd", SCHEMA_START + " targetNamespace='urn:root' xmlns:r='urn:root'>" +
+                "<xs:include schemaLocation='invalid.xsd'/>" +
+                "<xs:element name='i2' type='r:undefined'/>" +
+                "</xs:schema>");
+        fDocuments.put("inc3.xsd", SCHEMA_START + " targetNamespace='urn:root'>" +
+                "<xs:element name='i3'><xs:complexType><xs:attribute name='id'/></xs:complexType>" +
+                "<xs:key name='k'><xs:selector xpath='.'/><xs:field xpath='@id'/></xs:key>" +
+                "</xs:element>" +
+                "</xs:schema>");
+        fDocuments.put("invalid.xsd", SCHEMA_START + " targetNamespace='urn:root'>" +
+                "<xs:element/><xs:bogus/><xs:element name='i4' unknown='1'/>" +
+                "</xs:schema>");
+    }
+
+    private synchronized void resetStatistics() {
+        fRequests.clear();
+        fInFlight = 0;
+        fMaxInFlight = 0;
+    }
+
+    private LoadResult load(boolean parallel, XMLEntityResolver resolver) throws Exception {
+        return load("root.xsd", parallel, resolver);
+    }
+
+    /** Loads a document, and describes the components and the errors. */
+    private LoadResult load(final String document, boolean parallel, XMLEntityResolver resolver) throws Exception {
+        resetStatistics();
+        final XMLSchemaLoader loader = new XMLSchemaLoader();
+        loader.setFeature(PARALLEL_SCHEMA_LOADING, parallel);
+        if (resolver != null) {
+            loader.setEntityResolver(resolver);
+        }
+        final ErrorRecorder errors = new ErrorRecorder();
+        loader.setErrorHandler(errors);
+        final Thread[] loadingThread = new Thread[1];
+        LoadResult result = new LoadResult();
+        try {
+            XSGrammar grammar = (XSGrammar) callWithTimeout(new Callable<Object>() {
+                public Object call() throws Exception {
+                    loadingThread[0] = Thread.currentThread();
+                    return loader.loadGrammar(new XMLInputSource(null, fBase + document, null));
+                }
+            });
+            result.fComponents = describe(grammar.toXSModel());
+        }
+        catch (XMLParseException e) {
+            result.fException = e.getExpandedSystemId() + " " + e.getMessage();
+        }
+        // errors are only reported by the thread loading the schema
+        assertEquals(Collections.singleton(loadingThread[0]), errors.fThreads);
+        result.fErrors = errors.fErrors;
+        return result;
+    }
+
+    /** Runs a task, failing if it does not complete in time. */
+    private static Object callWithTimeout(Callable<Object> task) throws Exception {
+        FutureTask<Object> future = new FutureTask<Object>(task);
+        Thread thread = new Thread(future, "ParallelSchemaLoadingTest load");
+        thread.start();
+        try {
+            return future.get(30, TimeUnit.SECONDS);
+        }
+        catch (java.util.concurrent.TimeoutException e) {
+            fail("the load did not complete");
+            return null;
+        }
+        catch (java.util.concurrent.ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static List<String> describe(XSModel model) {
+        final short[] types = {
+            XSConstants.ELEMENT_DECLARATION, XSConstants.ATTRIBUTE_DECLARATION,
+            XSConstants.TYPE_DEFINITION, XSConstants.ATTRIBUTE_GROUP,
+            XSConstants.MODEL_GROUP_DEFINITION, XSConstants.NOTATION_DECLARATION,
+            XSConstants.IDENTITY_CONSTRAINT
+        };
+        final String[] names = {
+            "element", "attribute", "type", "attributeGroup", "group", "notation", "identityConstraint"
+        };
+        List<String> components = new ArrayList<String>();
+        for (int i = 0; i < types.length; ++i) {
+            XSNamedMap map = model.getComponents(types[i]);
+            List<String> described = new ArrayList<String>();
+            for (int j = 0; j < map.getLength(); ++j) {
+                XSObject component = map.item(j);
+                described.add(names[i] + " {" + component.getNamespace() + "}" + component.getName());
+            }
+            Collections.sort(described);
+            components.addAll(described);
+        }
+        return components;
+    }
+
+    private static void assertMentioned(List<String> errors, String text) {
+        for (Iterator<String> i = errors.iterator(); i.hasNext();) {
+            if (i.next().indexOf(text) != -1) {
+                return;
+            }
+        }
+        fail(text + " not in " + errors);
+    }
+
+    private static Set<Thread> getNonDaemonThreads() {
+        Set<Thread> threads = new HashSet<Thread>();
+        for (Iterator<Thread> i = Thread.getAllStackTraces().keySet().iterator(); i.hasNext();) {
+            Thread thread = i.next();
+            if (!thread.isDaemon()) {
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
+
+    /**
+     * Checks that no document is being loaded any more, and that no
+     * thread which would keep the JVM alive has been started.
+     */
+    private void assertSettled(Set<Thread> before) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2 * SLOW_DELAY + 5000;
+        while (true) {
+            String busy = findPrefetchingThread();
+            synchronized (this) {
+                if (busy == null && fInFlight == 0) {
+                    break;
+                }
+            }
+            assertTrue("still loading: " + busy, System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+        Set<Thread> after = getNonDaemonThreads();
+        for (Iterator<Thread> i = after.iterator(); i.hasNext();) {
+            Thread thread = i.next();
+            assertTrue(thread.getName(), before.contains(thread) || !thread.isAlive());
+        }
+    }
+
+    private static String findPrefetchingThread() {
+        Map<Thread, StackTraceElement[]> stacks = Thread.getAllStackTraces();
+        for (Iterator<Map.Entry<Thread, StackTraceElement[]>> i = stacks.entrySet().iterator(); i.hasNext();) {
+            Map.Entry<Thread, StackTraceElement[]> entry = i.next();
+            StackTraceElement[] stack = entry.getValue();
+            for (int j = 0; j < stack.length; ++j) {
+                if (stack[j].getClassName().startsWith(PREFETCHER_CLASS)) {
+                    return entry.getKey().getName();
+                }
+            }
+        }
+        return null;
+    }
+
+    //
+    // Classes
+    //
+
+    private static final class LoadResult {
+        List<String> fComponents;
+        List<String> fErrors;
+        String fException;
+    }
+
+    /** Records the errors reported, and the threads reporting them. */
+    private static class ErrorRecorder implements XMLErrorHandler {
+
+        final List<String> fErrors = new ArrayList<String>();
+        final Set<Thread> fThreads = new HashSet<Thread>();
+
+        public void warning(String domain, String key, XMLParseException exception) {
+            record("warning", key, exception);
+        }
+
+        public void error(String domain, String key, XMLParseException exception) {
+            record("error", key, exception);
+        }
+
+        public void fatalError(String domain, String key, XMLParseException exception) {
+            record("fatal", key, exception);
+            throw exception;
+        }
+
+        private synchronized void record(String severity, String key, XMLParseException exception) {
+            fThreads.add(Thread.currentThread());
+            fErrors.add(severity + " " + key + " " + exception.getExpandedSystemId() + ":" +
+                    exception.getLineNumber() + ":" + exception.getColumnNumber() + " " +
+                    exception.getMessage());
+        }
+
+    } // class ErrorRecorder
+
+    /** Records the documents resolved, and lets them be resolved by default. */
+    private static final class RecordingResolver implements XMLEntityResolver {
+
+        final Set<String> fResolved = Collections.synchronizedSet(new HashSet<String>());
+
+        public XMLInputSource resolveEntity(XMLResourceIdentifier id) throws XNIException, IOException {
+            String systemId = id.getLiteralSystemId();
+            fResolved.add(systemId.substring(systemId.lastIndexOf('/') + 1));
+            return null;
+        }
+
+    } // class RecordingResolver
+
+    /** Serves the documents, counting the requests. */
+    private final class DocumentHandler implements HttpHandler {
+
+        public void handle(HttpExchange exchange) throws IOException {
+            String name = exchange.getRequestURI().getPath().substring(1);
+            synchronized (ParallelSchemaLoadingTest.this) {
+                Integer count = fRequests.get(name);
+                fRequests.put(name, Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+                fMaxInFlight = Math.max(fMaxInFlight, ++fInFlight);
+            }
+            try {
+                try {
+                    Thread.sleep(name.startsWith("slow") ? SLOW_DELAY : DELAY);
+                }
+                finally {
+                    // before responding, so that the next request is not counted with this one
+                    synchronized (ParallelSchemaLoadingTest.this) {
+                        --fInFlight;
+                    }
+                }
+                String document = fDocuments.get(name);
+                if (document == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                }
+                else {
+                    byte[] bytes = document.getBytes("UTF-8");
+                    exchange.getResponseHeaders().set("Content-Type", "application/xml");
+                    exchange.sendResponseHeaders(200, bytes.length);
+                    OutputStream out = exchange.getResponseBody();
+                    out.write(bytes);
+                    out.close();
+                }
+            }
+            catch (InterruptedException e) {
+                exchange.sendResponseHeaders(500, -1);
+            }
+            finally {
+                exchange.close();
+            }
+        }
+
+    } // class DocumentHandler
+
+} // class ParallelSchemaLoadingTest
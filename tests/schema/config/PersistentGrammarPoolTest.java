@@ -0,0 +1,349 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package schema.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Serializable;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.DeflaterOutputStream;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.Version;
+import org.apache.xerces.impl.xs.XSDDescription;
+import org.apache.xerces.impl.xs.util.PersistentGrammarPool;
+import org.apache.xerces.impl.xs.util.SchemaGrammarSerializer;
+import org.apache.xerces.parsers.SAXParser;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests writing schema grammars to a cache directory and reading them
+ * back, and that damaged files and grammars which cannot be written
+ * only make the grammars be compiled again.
+ *
+ * @version $Id$
+ */
+public class PersistentGrammarPoolTest extends TestCase {
+
+    private static final String MAIN_SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'\n" +
+        "           xmlns:o='urn:other' targetNamespace='urn:main'>\n" +
+        "  <xs:import namespace='urn:other' schemaLocation='other.xsd'/>\n" +
+        "  <xs:element name='root'>\n" +
+        "    <xs:complexType>\n" +
+        "      <xs:sequence>\n" +
+        "        <xs:element name='item' type='o:T' maxOccurs='unbounded'/>\n" +
+        "      </xs:sequence>\n" +
+        "    </xs:complexType>\n" +
+        "    <xs:key name='k'><xs:selector xpath='item'/><xs:field xpath='@id'/></xs:key>\n" +
+        "  </xs:element>\n" +
+        "</xs:schema>\n";
+
+    private static final String OTHER_SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'\n" +
+        "           xmlns='urn:other' targetNamespace='urn:other'>\n" +
+        "  <xs:simpleType name='code'>\n" +
+        "    <xs:restriction base='xs:string'><xs:pattern value='[A-Z]{2}\\d'/></xs:restriction>\n" +
+        "  </xs:simpleType>\n" +
+        "  <xs:complexType name='T'>\n" +
+        "    <xs:simpleContent>\n" +
+        "      <xs:extension base='code'>\n" +
+        "        <xs:attribute name='id' type='xs:int' use='required'/>\n" +
+        "        <xs:attribute name='d' type='xs:decimal' default='1.5'/>\n" +
+        "      </xs:extension>\n" +
+        "    </xs:simpleContent>\n" +
+        "  </xs:complexType>\n" +
+        "</xs:schema>\n";
+
+    private static final String VALID_DOCUMENT =
+        "<m:root xmlns:m='urn:main'><item id='1'>AB1</item><item id='2'>CD2</item></m:root>";
+
+    private static final String INVALID_DOCUMENT =
+        "<m:root xmlns:m='urn:main'><item id='1'>ab</item><item id='1'>CD2</item><other/></m:root>";
+
+    private File fDirectory;
+    private File fCache;
+    private File fMain;
+    private File fOther;
+
+    public PersistentGrammarPoolTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        fDirectory = File.createTempFile("persistent", "");
+        fDirectory.delete();
+        fDirectory.mkdir();
+        fCache = new File(fDirectory, "cache");
+        fMain = new File(fDirectory, "main.xsd");
+        fOther = new File(fDirectory, "other.xsd");
+        write(fMain, MAIN_SCHEMA);
+        write(fOther, OTHER_SCHEMA);
+    }
+
+    protected void tearDown() throws Exception {
+        delete(fDirectory);
+    }
+
+    public void testRoundTrip() throws Exception {
+        PersistentGrammarPool pool = new PersistentGrammarPool(fCache);
+        assertNull(retrieve(pool, "urn:main"));
+        String valid = validate(pool, VALID_DOCUMENT);
+        String invalid = validate(pool, INVALID_DOCUMENT);
+        assertEquals("", valid);
+        assertTrue(invalid, invalid.length() > 0);
+        assertEquals(1, getCacheFiles().length);
+
+        // a new pool reads both grammars from the file
+        pool = new PersistentGrammarPool(fCache);
+        assertNotNull(retrieve(pool, "urn:main"));
+        assertNotNull(retrieve(pool, "urn:other"));
+        assertEquals(valid, validate(pool, VALID_DOCUMENT));
+        assertEquals(invalid, validate(pool, INVALID_DOCUMENT));
+        assertEquals(1, getCacheFiles().length);
+    }
+
+    public void testChangedDocument() throws Exception {
+        validate(new PersistentGrammarPool(fCache), VALID_DOCUMENT);
+        write(fOther, OTHER_SCHEMA.replace("[A-Z]{2}", "[a-z]{2}"));
+        PersistentGrammarPool pool = new PersistentGrammarPool(fCache);
+        assertNull(retrieve(pool, "urn:main"));
+        String errors = validate(pool, VALID_DOCUMENT);
+        assertTrue(errors, errors.indexOf("AB1") != -1);
+    }
+
+    /** A damaged file is a cache miss, and is deleted. */
+    public void testCorruptFiles() throws Exception {
+        PersistentGrammarPool pool = new PersistentGrammarPool(fCache);
+        final String invalid = validate(pool, INVALID_DOCUMENT);
+        final File file = getCacheFiles()[0];
+        final byte[] bytes = read(file);
+
+        ArrayList<byte[]> damaged = new ArrayList<byte[]>();
+        // truncated
+        for (int length = 0; length < bytes.length; length += 1 + bytes.length / 20) {
+            byte[] b = new byte[length];
+            System.arraycopy(bytes, 0, b, 0, length);
+            damaged.add(b);
+        }
+        // garbage in the body of the file
+        for (int i = 0; i < 20; ++i) {
+            byte[] b = (byte[]) bytes.clone();
+            for (int j = bytes.length / 2 + i; j < bytes.length; j += 7 + i) {
+                b[j] ^= (byte) (0x55 + i);
+            }
+            damaged.add(b);
+        }
+        // a header with a huge count
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(0x58534731);
+        data.writeInt(Integer.MAX_VALUE);
+        damaged.add(out.toByteArray());
+
+        for (int i = 0; i < damaged.size(); ++i) {
+            write(file, (byte[]) damaged.get(i));
+            pool = new PersistentGrammarPool(fCache);
+            assertNull("damage " + i, retrieve(pool, "urn:main"));
+            assertEquals("damage " + i, invalid, validate(pool, INVALID_DOCUMENT));
+            // the grammars have been written again
+            assertEquals("damage " + i, 1, getCacheFiles().length);
+            assertNotNull("damage " + i, retrieve(new PersistentGrammarPool(fCache), "urn:main"));
+        }
+    }
+
+    /**
+     * A schema whose components form a long chain is cached and read
+     * again, and one too deep to be written is validated without caching.
+     */
+    public void testDeepSchema() throws Exception {
+        final int depth = 1000;
+        StringBuffer schema = new StringBuffer("<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>");
+        for (int i = 0; i < depth; ++i) {
+            schema.append("<xs:element name='e").append(i).append("'><xs:complexType><xs:sequence>")
+                .append("<xs:element ref='e").append(i + 1).append("' minOccurs='0'/>")
+                .append("</xs:sequence></xs:complexType></xs:element>");
+        }
+        schema.append("<xs:element name='e").append(depth).append("' type='xs:int'/></xs:schema>");
+        File file = new File(fDirectory, "deep.xsd");
+        write(file, schema.toString());
+        StringBuffer document = new StringBuffer();
+        for (int i = 0; i <= depth; ++i) {
+            document.append("<e").append(i).append('>');
+        }
+        document.append("x");
+        for (int i = depth; i >= 0; --i) {
+            document.append("</e").append(i).append('>');
+        }
+
+        String errors = validate(new PersistentGrammarPool(fCache), file, document.toString());
+        assertTrue(errors, errors.indexOf("'x'") != -1);
+        assertEquals(1, getCacheFiles().length);
+        PersistentGrammarPool pool = new PersistentGrammarPool(fCache);
+        assertNotNull(retrieve(pool, null));
+        assertEquals(errors, validate(pool, file, document.toString()));
+    }
+
+    /** Only grammar classes may be read, and no proxies. */
+    public void testRejectedClasses() throws Exception {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put("a", "b");
+        assertRejected(map);
+        assertRejected(new ArrayList<Object>());
+        assertRejected(Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[] { Runnable.class }, new Handler()));
+    }
+
+    //
+    // Private methods
+    //
+
+    private void assertRejected(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DeflaterOutputStream deflater = new DeflaterOutputStream(bytes);
+        ObjectOutputStream out = new ObjectOutputStream(deflater);
+        out.writeUTF(Version.getVersion());
+        out.writeInt(1);
+        out.writeObject(object);
+        out.flush();
+        deflater.finish();
+        try {
+            SchemaGrammarSerializer.readGrammars(new ByteArrayInputStream(bytes.toByteArray()));
+            fail(object.getClass().getName() + " should be rejected.");
+        }
+        catch (InvalidClassException e) {
+            assertTrue(e.getMessage(), e.getMessage().indexOf("not a grammar class") != -1);
+        }
+    }
+
+    private static Object retrieve(PersistentGrammarPool pool, String namespace) {
+        XSDDescription desc = new XSDDescription();
+        desc.setNamespace(namespace);
+        return pool.retrieveGrammar(desc);
+    }
+
+    private String validate(PersistentGrammarPool pool, String document) throws Exception {
+        return validate(pool, null, document);
+    }
+
+    /** Validates a document and returns its errors. */
+    private String validate(PersistentGrammarPool pool, File schema, String document) throws Exception {
+        SAXParser parser = new SAXParser();
+        parser.setFeature("http://xml.org/sax/features/validation", true);
+        parser.setFeature("http://apache.org/xml/features/validation/schema", true);
+        parser.setProperty("http://apache.org/xml/properties/internal/grammar-pool", pool);
+        if (schema != null) {
+            parser.setProperty("http://apache.org/xml/properties/schema/external-noNamespaceSchemaLocation",
+                    schema.toURI().toString());
+        }
+        else {
+            parser.setProperty("http://apache.org/xml/properties/schema/external-schemaLocation",
+                    "urn:main " + fMain.toURI().toString());
+        }
+        final StringBuffer errors = new StringBuffer();
+        parser.setErrorHandler(new DefaultHandler() {
+            public void error(SAXParseException e) {
+                errors.append(e.getLineNumber()).append(':').append(e.getColumnNumber())
+                    .append(' ').append(e.getMessage()).append('\n');
+            }
+        });
+        parser.parse(new InputSource(new StringReader(document)));
+        return errors.toString();
+    }
+
+    private File[] getCacheFiles() {
+        File[] files = fCache.listFiles();
+        for (int i = 0; i < files.length; ++i) {
+            assertTrue(files[i].getName(), files[i].getName().endsWith(".xsg"));
+        }
+        return files;
+    }
+
+    private static byte[] read(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    private static void write(File file, byte[] bytes) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private static void write(File file, String contents) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(contents);
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (int i = 0; i < files.length; ++i) {
+                delete(files[i]);
+            }
+        }
+        file.delete();
+    }
+
+    /** A handler for a proxy, which is never called. */
+    static final class Handler implements InvocationHandler, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package schema.config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.Constants;
+import org.apache.xerces.impl.xs.SchemaGrammar;
+import org.apache.xerces.impl.xs.XMLSchemaLoader;
+import org.apache.xerces.impl.xs.XSElementDecl;
+import org.apache.xerces.parsers.SAXParser;
+import org.apache.xerces.util.XMLGrammarPoolImpl;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.apache.xerces.xs.XSConstants;
+import org.apache.xerces.xs.XSNamedMap;
+import org.apache.xerces.xs.XSObject;
+import org.apache.xerces.xs.datatypes.ObjectList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests that compacting a schema grammar changes none of the components
+ * found by name, with or without location, nor the components listed,
+ * and that documents validated against compacted grammars get the same
+ * errors as against grammars which are not compacted.
+ *
+ * @version $Id$
+ */
+public class SchemaGrammarCompactionTest extends TestCase {
+
+    private static final String GRAMMAR_POOL =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.XMLGRAMMAR_POOL_PROPERTY;
+
+    private static final String SCHEMA_START =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'" +
+        " xmlns:c='urn:c' xmlns:d='urn:d'";
+
+    /** The component types which have names. */
+    private static final short[] TYPES = {
+        XSConstants.ELEMENT_DECLARATION, XSConstants.ATTRIBUTE_DECLARATION,
+        XSConstants.TYPE_DEFINITION, XSConstants.ATTRIBUTE_GROUP,
+        XSConstants.MODEL_GROUP_DEFINITION, XSConstants.NOTATION_DECLARATION,
+        XSConstants.IDENTITY_CONSTRAINT
+    };
+
+    /** Names with the same String.hashCode(). */
+    private static final String[] COLLIDING_NAMES = {"AaAa", "AaBB", "BBAa", "BBBB"};
+
+    private File fDirectory;
+
+    public SchemaGrammarCompactionTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        fDirectory = File.createTempFile("compaction", "");
+        fDirectory.delete();
+        fDirectory.mkdir();
+        StringBuffer c = new StringBuffer(SCHEMA_START).append(" targetNamespace='urn:c'>")
+            .append("<xs:import namespace='urn:d' schemaLocation='d.xsd'/>")
+            .append("<xs:include schemaLocation='c2.xsd'/>")
+            .append("<xs:notation name='n' public='n'/>")
+            .append("<xs:element name='root'><xs:complexType><xs:sequence>")
+            .append("<xs:element ref='c:item' maxOccurs='unbounded'/>")
+            .append("<xs:element ref='d:item' minOccurs='0'/>")
+            .append("<xs:element ref='c:ref' minOccurs='0' maxOccurs='unbounded'/>")
+            .append("<xs:group ref='c:g' minOccurs='0'/>")
+            .append("</xs:sequence><xs:attributeGroup ref='c:ag'/></xs:complexType>")
+            .append("<xs:key name='k'><xs:selector xpath='c:item'/><xs:field xpath='@id'/></xs:key>")
+            .append("<xs:keyref name='kr' refer='c:k'><xs:selector xpath='c:ref'/><xs:field xpath='@to'/></xs:keyref>")
+            .append("</xs:element>")
+            .append("<xs:element name='item' type='c:itemType'/>")
+            .append("<xs:complexType name='itemType'><xs:attribute name='id' type='xs:NCName'/></xs:complexType>");
+        for (int i = 0; i < 150; ++i) {
+            c.append("<xs:element name='e").append(i).append("' type='c:t").append(i).append("'/>");
+            c.append("<xs:simpleType name='t").append(i).append("'><xs:restriction base='xs:int'>")
+                .append("<xs:maxInclusive value='").append(i).append("'/></xs:restriction></xs:simpleType>");
+        }
+        for (int i = 0; i < COLLIDING_NAMES.length; ++i) {
+            c.append("<xs:element name='").append(COLLIDING_NAMES[i]).append("' type='c:t").append(i).append("'/>");
+        }
+        c.append("</xs:schema>");
+        write("c.xsd", c.toString());
+        write("c2.xsd", SCHEMA_START + " targetNamespace='urn:c'>" +
+                "<xs:element name='ref'><xs:complexType><xs:attribute name='to' type='xs:NCName'/></xs:complexType></xs:element>" +
+                "<xs:attribute name='a1' type='xs:boolean'/>" +
+                "<xs:attributeGroup name='ag'><xs:attribute ref='c:a1'/></xs:attributeGroup>" +
+                "<xs:group name='g'><xs:choice><xs:element ref='c:AaBB'/><xs:element ref='c:BBAa'/></xs:choice></xs:group>" +
+                "</xs:schema>");
+        write("d.xsd", SCHEMA_START + " targetNamespace='urn:d'>" +
+                "<xs:element name='item' type='d:itemType'/>" +
+                "<xs:element name='only'/>" +
+                "<xs:complexType name='itemType'><xs:sequence><xs:element ref='d:only' minOccurs='0'/></xs:sequence>" +
+                "</xs:complexType>" +
+                "<xs:attribute name='a1'/>" +
+                "</xs:schema>");
+    }
+
+    protected void tearDown() throws Exception {
+        File[] files = fDirectory.listFiles();
+        for (int i = 0; i < files.length; ++i) {
+            files[i].delete();
+        }
+        fDirectory.delete();
+    }
+
+    /**
+     * The components found by name, with and without location, are the
+     * same objects before and after compacting, and so are the names not
+     * found: missing names, and names of the other namespace.
+     */
+    public void testLookups() throws Exception {
+        SchemaGrammar[] grammars = load();
+        List<String> names = new ArrayList<String>();
+        List<String> locations = new ArrayList<String>();
+        for (int g = 0; g < grammars.length; ++g) {
+            collectNames(grammars[g], names, locations);
+        }
+        names.add("missing");
+        names.add("e150");
+        names.add("AaAaAa");
+        names.add("BBBB" + "Aa");
+        locations.add(null);
+        locations.add("");
+        locations.add(new File(fDirectory, "missing.xsd").toURI().toString());
+        assertTrue(names.contains("only"));
+        assertTrue(names.contains("AaBB"));
+
+        Map<String, Object>[] before = describe(grammars, names, locations);
+        for (int g = 0; g < grammars.length; ++g) {
+            grammars[g].compact();
+        }
+        Map<String, Object>[] after = describe(grammars, names, locations);
+        for (int g = 0; g < grammars.length; ++g) {
+            assertLookupsEqual(before[g], after[g]);
+        }
+        // compacting again changes nothing
+        for (int g = 0; g < grammars.length; ++g) {
+            grammars[g].compact();
+        }
+        after = describe(grammars, names, locations);
+        for (int g = 0; g < grammars.length; ++g) {
+            assertLookupsEqual(before[g], after[g]);
+        }
+
+        SchemaGrammar c = grammars[0];
+        assertEquals("urn:c", c.getTargetNamespace());
+        assertNotNull(c.getGlobalElementDecl("AaBB"));
+        assertNull(c.getGlobalElementDecl("only"));
+        assertNotSame(c.getGlobalElementDecl("item"), grammars[1].getGlobalElementDecl("item"));
+        assertNotNull(c.getGlobalElementDecl("ref", new File(fDirectory, "c2.xsd").toURI().toString()));
+        assertNull(c.getGlobalElementDecl("ref", new File(fDirectory, "c.xsd").toURI().toString()));
+    }
+
+    /** The components listed are the same before and after compacting. */
+    public void testComponents() throws Exception {
+        SchemaGrammar[] grammars = load();
+        List<List<Object>> before = new ArrayList<List<Object>>();
+        List<List<Object>> beforeExt = new ArrayList<List<Object>>();
+        for (int g = 0; g < grammars.length; ++g) {
+            for (int t = 0; t < TYPES.length; ++t) {
+                before.add(list(grammars[g].getComponents(TYPES[t])));
+                beforeExt.add(listExt(grammars[g].getComponentsExt(TYPES[t])));
+            }
+        }
+        for (int g = 0; g < grammars.length; ++g) {
+            grammars[g].compact();
+            // the lists are made again from the compact tables
+            grammars[g].resetComponents();
+        }
+        for (int g = 0, i = 0; g < grammars.length; ++g) {
+            for (int t = 0; t < TYPES.length; ++t, ++i) {
+                XSNamedMap map = grammars[g].getComponents(TYPES[t]);
+                assertEquals(before.get(i), list(map));
+                assertEquals(beforeExt.get(i), listExt(grammars[g].getComponentsExt(TYPES[t])));
+                for (int j = 0; j < map.getLength(); ++j) {
+                    XSObject component = map.item(j);
+                    assertSame(component, map.itemByName(component.getNamespace(), component.getName()));
+                    String other = "urn:c".equals(component.getNamespace()) ? "urn:d" : "urn:c";
+                    assertNull(map.itemByName(other, component.getName()));
+                }
+                assertNull(map.itemByName(grammars[g].getTargetNamespace(), "missing"));
+            }
+        }
+        XSNamedMap elements = grammars[0].getComponents(XSConstants.ELEMENT_DECLARATION);
+        assertEquals(150 + COLLIDING_NAMES.length + 3, elements.getLength());
+    }
+
+    /** Components may still be added to a compacted grammar. */
+    public void testGrowth() throws Exception {
+        SchemaGrammar grammar = load()[0];
+        grammar.compact();
+        int count = grammar.getComponents(XSConstants.ELEMENT_DECLARATION).getLength();
+        String location = new File(fDirectory, "c3.xsd").toURI().toString();
+        XSElementDecl[] added = new XSElementDecl[100];
+        for (int i = 0; i < added.length; ++i) {
+            added[i] = new XSElementDecl();
+            added[i].fName = "added" + i;
+            added[i].fTargetNamespace = "urn:c";
+            added[i].setIsGlobal();
+            grammar.addGlobalElementDecl(added[i]);
+            grammar.addGlobalElementDecl(added[i], location);
+        }
+        grammar.resetComponents();
+        assertEquals(count + added.length, grammar.getComponents(XSConstants.ELEMENT_DECLARATION).getLength());
+        for (int i = 0; i < added.length; ++i) {
+            assertSame(added[i], grammar.getGlobalElementDecl("added" + i));
+            assertSame(added[i], grammar.getGlobalElementDecl("added" + i, location));
+            assertNull(grammar.getGlobalElementDecl("added" + i, location + "x"));
+        }
+        for (int i = 0; i < 150; ++i) {
+            assertNotNull(grammar.getGlobalElementDecl("e" + i));
+        }
+    }
+
+    /**
+     * Documents validated against compacted grammars get the same errors
+     * as when validated against grammars which are not compacted.
+     */
+    public void testValidation() throws Exception {
+        SchemaGrammar[] compacted = load();
+        for (int g = 0; g < compacted.length; ++g) {
+            compacted[g].compact();
+        }
+        String[] documents = {
+            "<c:root xmlns:c='urn:c' xmlns:d='urn:d' c:a1='true'>" +
+                "<c:item id='x'/><c:item id='y'/><d:item><d:only/></d:item>" +
+                "<c:ref to='x'/><c:ref to='y'/><c:AaBB>1</c:AaBB></c:root>",
+            "<c:root xmlns:c='urn:c' xmlns:d='urn:d' c:a1='maybe'>" +
+                "<c:item id='x'/><c:item id='x'/><d:item><d:other/></d:item>" +
+                "<c:ref to='z'/><c:BBAa>5</c:BBAa></c:root>",
+            "<c:root xmlns:c='urn:c'><c:e0/></c:root>",
+            "<c:e149 xmlns:c='urn:c'>150</c:e149>",
+            "<c:AaAa xmlns:c='urn:c'>0</c:AaAa>",
+            "<c:missing xmlns:c='urn:c'/>",
+            "<d:only xmlns:d='urn:d'/>",
+            "<d:ref xmlns:d='urn:d'/>"
+        };
+        List<String> expected = validate(load(), documents);
+        List<String> actual = validate(compacted, documents);
+        assertEquals(expected, actual);
+        assertEquals("0:", expected.get(0));
+        assertEquals("6:", expected.get(6));
+        for (int i = 1; i < documents.length; ++i) {
+            if (i != 4 && i != 6) {
+                assertTrue(expected.get(i), expected.get(i).length() > 2);
+            }
+        }
+    }
+
+    //
+    // Private methods
+    //
+
+    private void write(String name, String content) throws Exception {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(new File(fDirectory, name)), "UTF-8");
+        writer.write(content);
+        writer.close();
+    }
+
+    /** Loads the grammars of urn:c and urn:d, which are not compacted. */
+    private SchemaGrammar[] load() throws Exception {
+        XMLSchemaLoader loader = new XMLSchemaLoader();
+        SchemaGrammar c = (SchemaGrammar) loader.loadGrammar(
+                new XMLInputSource(null, new File(fDirectory, "c.xsd").toURI().toString(), null));
+        SchemaGrammar d = null;
+        for (Iterator i = c.getImportedGrammars().iterator(); i.hasNext();) {
+            SchemaGrammar grammar = (SchemaGrammar) i.next();
+            if ("urn:d".equals(grammar.getTargetNamespace())) {
+                d = grammar;
+            }
+        }
+        assertNotNull(d);
+        return new SchemaGrammar[] {c, d};
+    }
+
+    /** Collects the names and the locations of the global components. */
+    private static void collectNames(SchemaGrammar grammar, List<String> names, List<String> locations) {
+        for (int t = 0; t < TYPES.length; ++t) {
+            XSNamedMap map = grammar.getComponents(TYPES[t]);
+            for (int i = 0; i < map.getLength(); ++i) {
+                if (!names.contains(map.item(i).getName())) {
+                    names.add(map.item(i).getName());
+                }
+            }
+            ObjectList ext = grammar.getComponentsExt(TYPES[t]);
+            for (int i = 0; i < ext.getLength(); i += 2) {
+                String key = (String) ext.item(i);
+                String location = key.substring(0, key.lastIndexOf(','));
+                if (!locations.contains(location)) {
+                    locations.add(location);
+                }
+            }
+        }
+    }
+
+    /** Looks up every name, with every location, in every grammar. */
+    private static Map<String, Object>[] describe(SchemaGrammar[] grammars, List<String> names, List<String> locations) {
+        Map<String, Object>[] lookups = new Map[grammars.length];
+        for (int g = 0; g < grammars.length; ++g) {
+            SchemaGrammar grammar = grammars[g];
+            Map<String, Object> map = new HashMap<String, Object>();
+            for (int n = 0; n < names.size(); ++n) {
+                // not the symbol the tables hold
+                String name = new String(names.get(n));
+                map.put("element " + name, grammar.getGlobalElementDecl(name));
+                map.put("attribute " + name, grammar.getGlobalAttributeDecl(name));
+                map.put("type " + name, grammar.getGlobalTypeDecl(name));
+                map.put("attributeGroup " + name, grammar.getGlobalAttributeGroupDecl(name));
+                map.put("group " + name, grammar.getGlobalGroupDecl(name));
+                map.put("notation " + name, grammar.getGlobalNotationDecl(name));
+                map.put("identityConstraint " + name, grammar.getIDConstraintDecl(name));
+                for (int l = 0; l < locations.size(); ++l) {
+                    String location = locations.get(l);
+                    String suffix = " " + name + " at " + location;
+                    map.put("element" + suffix, grammar.getGlobalElementDecl(name, location));
+                    map.put("attribute" + suffix, grammar.getGlobalAttributeDecl(name, location));
+                    map.put("type" + suffix, grammar.getGlobalTypeDecl(name, location));
+                    map.put("attributeGroup" + suffix, grammar.getGlobalAttributeGroupDecl(name, location));
+                    map.put("group" + suffix, grammar.getGlobalGroupDecl(name, location));
+                    map.put("notation" + suffix, grammar.getGlobalNotationDecl(name, location));
+                    map.put("identityConstraint" + suffix, grammar.getIDConstraintDecl(name, location));
+                }
+            }
+            lookups[g] = map;
+        }
+        return lookups;
+    }
+
+    private static void assertLookupsEqual(Map<String, Object> expected, Map<String, Object> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        int found = 0;
+        for (Iterator<String> i = expected.keySet().iterator(); i.hasNext();) {
+            String key = i.next();
+            assertSame(key, expected.get(key), actual.get(key));
+            if (expected.get(key) != null) {
+                ++found;
+            }
+        }
+        assertTrue(found > 0);
+    }
+
+    /** Lists the components by name, which identifies them in a map. */
+    private static List<Object> list(XSNamedMap map) {
+        Map<String, Object> byName = new HashMap<String, Object>();
+        for (int i = 0; i < map.getLength(); ++i) {
+            assertNull(byName.put(map.item(i).getName(), map.item(i)));
+        }
+        return sortByKey(byName);
+    }
+
+    /** Lists the components by key, which is made of a location and a name. */
+    private static List<Object> listExt(ObjectList list) {
+        Map<String, Object> byKey = new HashMap<String, Object>();
+        for (int i = 0; i < list.getLength(); i += 2) {
+            assertNull(byKey.put((String) list.item(i), list.item(i + 1)));
+        }
+        return sortByKey(byKey);
+    }
+
+    private static List<Object> sortByKey(Map<String, Object> map) {
+        List<Object> list = new ArrayList<Object>();
+        for (Iterator<String> i = new TreeSet<String>(map.keySet()).iterator(); i.hasNext();) {
+            String key = i.next();
+            list.add(key);
+            list.add(map.get(key));
+        }
+        return list;
+    }
+
+    /**
+     * Validates documents against grammars, each with a new parser, and
+     * returns the errors of each document.
+     */
+    private static List<String> validate(SchemaGrammar[] grammars, String[] documents) throws Exception {
+        XMLGrammarPoolImpl pool = new XMLGrammarPoolImpl();
+        pool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, (Grammar[]) grammars);
+        pool.lockPool();
+        List<String> results = new ArrayList<String>();
+        for (int i = 0; i < documents.length; ++i) {
+            SAXParser parser = new SAXParser();
+            parser.setFeature("http://xml.org/sax/features/validation", true);
+            parser.setFeature(Constants.XERCES_FEATURE_PREFIX + Constants.SCHEMA_VALIDATION_FEATURE, true);
+            parser.setProperty(GRAMMAR_POOL, pool);
+            final StringBuffer errors = new StringBuffer().append(i).append(':');
+            parser.setErrorHandler(new DefaultHandler() {
+                public void error(SAXParseException e) {
+                    errors.append(' ').append(e.getLineNumber()).append(':').append(e.getColumnNumber())
+                        .append(' ').append(e.getMessage());
+                }
+            });
+            parser.parse(new InputSource(new StringReader(documents[i])));
+            results.add(errors.toString());
+        }
+        return results;
+    }
+
+} // class SchemaGrammarCompactionTest
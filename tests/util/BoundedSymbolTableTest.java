@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.parsers.BoundedSymbolTableConfiguration;
+import org.apache.xerces.parsers.SAXParser;
+import org.apache.xerces.util.BoundedSymbolTable;
+import org.apache.xerces.util.XMLSymbols;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests that BoundedSymbolTable keeps within its capacities, promotes
+ * the symbols looked up often when the cold generation is recycled and
+ * discards the others, and that a parser using it through
+ * BoundedSymbolTableConfiguration reports identical names for the
+ * whole of a document.
+ *
+ * @version $Id$
+ */
+public class BoundedSymbolTableTest extends TestCase {
+
+    private static final int CORE_CAPACITY = 16;
+
+    private static final int COLD_CAPACITY = 64;
+
+    public BoundedSymbolTableTest(String name) {
+        super(name);
+    }
+
+    /** Neither generation grows beyond its capacity. */
+    public void testBound() {
+        BoundedSymbolTable table = new BoundedSymbolTable(CORE_CAPACITY, COLD_CAPACITY);
+        table.setPromotionThreshold(1);
+        final int pinned = table.getCoreSize();
+        assertEquals(0, table.getColdSize());
+        for (int i = 0; i < 5000; ++i) {
+            String name = "name" + i;
+            assertSame(name.intern(), table.addSymbol(name));
+            // looked up once more, so that it may be promoted
+            assertSame(name.intern(), addChars(table, name));
+            assertTrue(table.getColdSize() <= COLD_CAPACITY);
+            assertTrue(table.getCoreSize() <= pinned + CORE_CAPACITY);
+        }
+        assertEquals(pinned + CORE_CAPACITY, table.getCoreSize());
+        assertEquals(CORE_CAPACITY, table.getPromotionCount());
+        assertEquals(5000, table.getMissCount());
+        assertEquals(5000, table.getHitCount());
+        assertEquals(5000 - CORE_CAPACITY - table.getColdSize(), table.getEvictionCount());
+        // the pinned symbols are never discarded
+        assertTrue(table.containsSymbol(XMLSymbols.PREFIX_XMLNS));
+        assertTrue(table.containsSymbol(XMLSymbols.fCDATASymbol));
+    }
+
+    /** Recycling promotes the hot symbols and discards the cold ones. */
+    public void testRecycle() {
+        BoundedSymbolTable table = new BoundedSymbolTable(CORE_CAPACITY, COLD_CAPACITY);
+        table.setPromotionThreshold(3);
+        final int pinned = table.getCoreSize();
+        for (int i = 0; i < 20; ++i) {
+            String name = "n" + i;
+            table.addSymbol(name);
+            // hot symbols are looked up three more times
+            for (int j = 0; i % 2 == 0 && j < 3; ++j) {
+                table.addSymbol(name);
+            }
+        }
+        assertEquals(20, table.getColdSize());
+        table.recycle();
+        assertEquals(0, table.getColdSize());
+        assertEquals(pinned + 10, table.getCoreSize());
+        assertEquals(10, table.getPromotionCount());
+        assertEquals(10, table.getEvictionCount());
+        for (int i = 0; i < 20; ++i) {
+            assertEquals("n" + i, i % 2 == 0, table.containsSymbol("n" + i));
+        }
+        // the recycled cold generation is used again, and recycled again
+        for (int round = 0; round < 5; ++round) {
+            for (int i = 0; i < COLD_CAPACITY; ++i) {
+                String name = "r" + round + "_" + i;
+                assertSame(name.intern(), table.addSymbol(name));
+                assertTrue(table.containsSymbol(name));
+            }
+            assertEquals(COLD_CAPACITY, table.getColdSize());
+            table.recycle();
+            assertEquals(0, table.getColdSize());
+            assertFalse(table.containsSymbol("r" + round + "_0"));
+            for (int i = 0; i < 20; i += 2) {
+                assertTrue(table.containsSymbol("n" + i));
+            }
+        }
+        assertEquals(pinned + 10, table.getCoreSize());
+    }
+
+    public void testPin() {
+        BoundedSymbolTable table = new BoundedSymbolTable(0, COLD_CAPACITY);
+        final int pinned = table.getCoreSize();
+        String cold = table.addSymbol("cold");
+        assertSame(cold, table.pin(new String("cold")));
+        assertEquals(0, table.getColdSize());
+        table.addSymbol("other");
+        table.pinColdSymbols();
+        table.recycle();
+        assertTrue(table.containsSymbol("cold"));
+        assertTrue(table.containsSymbol("other"));
+        assertEquals(pinned + 2, table.getCoreSize());
+    }
+
+    /**
+     * The names of a document holding many more distinct names than the
+     * cold generation are identical from start to end, and the names
+     * used often in a document are kept for the next one.
+     */
+    public void testConfiguration() throws Exception {
+        final BoundedSymbolTable table = new BoundedSymbolTable(CORE_CAPACITY, COLD_CAPACITY);
+        SAXParser parser = new SAXParser(new BoundedSymbolTableConfiguration(table));
+        NameChecker checker = new NameChecker(table);
+        parser.setContentHandler(checker);
+
+        parser.parse(new InputSource(new StringReader(createDocument("a", 500))));
+        assertEquals(500 * 2 + 2, checker.fElementCount);
+        assertTrue(table.getColdSize() <= COLD_CAPACITY);
+        assertTrue(table.getEvictionCount() > 500);
+        assertTrue(table.containsSymbol("hot"));
+        assertTrue(table.containsSymbol("a499"));
+
+        // the next parse recycles the cold generation first
+        parser.parse(new InputSource(new StringReader(createDocument("b", 10))));
+        assertTrue(checker.fHotAtStart);
+        assertFalse(checker.fColdAtStart);
+        assertTrue(table.containsSymbol("hot"));
+        assertTrue(table.containsSymbol("b9"));
+    }
+
+    //
+    // Private methods
+    //
+
+    private static String addChars(BoundedSymbolTable table, String name) {
+        char[] buffer = ("[" + name + "]").toCharArray();
+        return table.addSymbol(buffer, 1, name.length());
+    }
+
+    /**
+     * Creates a document in which elements with distinct names, which
+     * each contain an element named "hot", are nested in groups of ten.
+     */
+    private static String createDocument(String prefix, int count) {
+        StringBuffer document = new StringBuffer("<root hot='1'>");
+        for (int group = 0; group < count; group += 10) {
+            final int end = Math.min(group + 10, count);
+            for (int i = group; i < end; ++i) {
+                document.append('<').append(prefix).append(i).append(' ').append(prefix).append(i)
+                    .append("a='v'><hot/>");
+            }
+            for (int i = end; i-- > group;) {
+                document.append("</").append(prefix).append(i).append('>');
+            }
+        }
+        document.append("<hot/></root>");
+        return document.toString();
+    }
+
+    //
+    // Classes
+    //
+
+    /** Checks that end tags report the names reported by their start tags. */
+    private static final class NameChecker extends DefaultHandler {
+
+        private final BoundedSymbolTable fTable;
+        private final ArrayList<String> fOpen = new ArrayList<String>();
+        int fElementCount;
+        boolean fHotAtStart;
+        boolean fColdAtStart;
+
+        NameChecker(BoundedSymbolTable table) {
+            fTable = table;
+        }
+
+        public void startDocument() {
+            fElementCount = 0;
+            fHotAtStart = fTable.containsSymbol("hot");
+            fColdAtStart = fTable.containsSymbol("a499");
+        }
+
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            ++fElementCount;
+            assertSame(qName.intern(), qName);
+            assertSame(localName, qName);
+            for (int i = 0; i < attributes.getLength(); ++i) {
+                assertSame(attributes.getQName(i).intern(), attributes.getQName(i));
+            }
+            fOpen.add(qName);
+        }
+
+        public void endElement(String uri, String localName, String qName) {
+            assertSame(fOpen.remove(fOpen.size() - 1), qName);
+            assertSame(localName, qName);
+        }
+
+    } // class NameChecker
+
+} // class BoundedSymbolTableTest
@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.impl.dtd.XMLDTDDescription;
+import org.apache.xerces.impl.xs.XSDDescription;
+import org.apache.xerces.util.ConcurrentGrammarPool;
+import org.apache.xerces.util.XMLGrammarPoolImpl;
+import org.apache.xerces.util.XMLResourceIdentifierImpl;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+
+/**
+ * Tests that ConcurrentGrammarPool loads a grammar requested by several
+ * threads at once only once, and that it keeps the semantics of
+ * XMLGrammarPoolImpl for caching, locking, removing and clearing.
+ *
+ * @version $Id$
+ */
+public class ConcurrentGrammarPoolTest extends TestCase {
+
+    public ConcurrentGrammarPoolTest(String name) {
+        super(name);
+    }
+
+    /** The same operations on both pools give the same results. */
+    public void testSameAsXMLGrammarPoolImpl() {
+        XMLGrammarPoolImpl expected = new XMLGrammarPoolImpl();
+        ConcurrentGrammarPool actual = new ConcurrentGrammarPool();
+        Grammar a = createSchemaGrammar("urn:a");
+        Grammar b = createSchemaGrammar("urn:b");
+        Grammar noNamespace = createSchemaGrammar(null);
+        Grammar dtd = createDTDGrammar("root");
+
+        compare(expected, actual, new Grammar[] {a, b, noNamespace, dtd});
+        expected.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] {a, noNamespace});
+        actual.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] {a, noNamespace});
+        expected.putGrammar(dtd);
+        actual.putGrammar(dtd);
+        compare(expected, actual, new Grammar[] {a, b, noNamespace, dtd});
+
+        // a locked pool accepts no grammar but still returns and removes them
+        expected.lockPool();
+        actual.lockPool();
+        expected.putGrammar(b);
+        actual.putGrammar(b);
+        expected.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] {b});
+        actual.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] {b});
+        compare(expected, actual, new Grammar[] {a, b, noNamespace, dtd});
+        assertSame(expected.removeGrammar(dtd.getGrammarDescription()),
+                actual.removeGrammar(dtd.getGrammarDescription()));
+        compare(expected, actual, new Grammar[] {a, b, noNamespace, dtd});
+
+        expected.unlockPool();
+        actual.unlockPool();
+        expected.putGrammar(b);
+        actual.putGrammar(b);
+        // a grammar with the same description replaces the previous one
+        Grammar a2 = createSchemaGrammar("urn:a");
+        expected.putGrammar(a2);
+        actual.putGrammar(a2);
+        compare(expected, actual, new Grammar[] {a, b, noNamespace, dtd});
+        assertSame(a2, actual.retrieveGrammar(a.getGrammarDescription()));
+
+        // clear empties the pool, locked or not
+        expected.lockPool();
+        actual.lockPool();
+        expected.clear();
+        actual.clear();
+        compare(expected, actual, new Grammar[] {a, b, noNamespace, dtd});
+        assertEquals(0, actual.getGrammarCount());
+        expected.unlockPool();
+        actual.unlockPool();
+        expected.putGrammar(a);
+        actual.putGrammar(a);
+        compare(expected, actual, new Grammar[] {a, b, noNamespace, dtd});
+    }
+
+    /** The initial grammar set is a copy which the caller may modify. */
+    public void testInitialGrammarSet() {
+        ConcurrentGrammarPool pool = new ConcurrentGrammarPool();
+        Grammar a = createSchemaGrammar("urn:a");
+        pool.putGrammar(a);
+        Grammar[] set = pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA);
+        assertEquals(1, set.length);
+        set[0] = null;
+        assertSame(a, pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA)[0]);
+        pool.putGrammar(createSchemaGrammar("urn:b"));
+        assertEquals(2, pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA).length);
+        pool.removeGrammar(a.getGrammarDescription());
+        assertEquals(1, pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA).length);
+        assertEquals(0, pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_DTD).length);
+    }
+
+    /**
+     * Threads which ask for a grammar while it is being loaded wait for
+     * it: the loader is called once and every thread gets its grammar.
+     */
+    public void testSingleFlight() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+        final ConcurrentGrammarPool pool = new ConcurrentGrammarPool(new ConcurrentGrammarPool.Loader() {
+            public Grammar loadGrammar(XMLGrammarDescription desc) throws Exception {
+                loads.incrementAndGet();
+                started.countDown();
+                release.await();
+                return createSchemaGrammar(desc.getNamespace());
+            }
+        });
+        final Grammar[] results = new Grammar[8];
+        Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; ++i) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    results[index] = pool.retrieveGrammar(createSchemaDescription("urn:a"));
+                }
+            };
+            threads[i].start();
+        }
+        started.await();
+        // release the load once every thread waits for it
+        waitUntilBlocked(threads);
+        release.countDown();
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i].join();
+        }
+        assertEquals(1, loads.get());
+        assertNotNull(results[0]);
+        for (int i = 1; i < results.length; ++i) {
+            assertSame(results[0], results[i]);
+        }
+        assertSame(results[0], pool.getGrammar(createSchemaDescription("urn:a")));
+        // a grammar in the pool is not loaded again
+        assertSame(results[0], pool.retrieveGrammar(createSchemaDescription("urn:a")));
+        assertEquals(1, loads.get());
+    }
+
+    /** Grammars with different descriptions are loaded at the same time. */
+    public void testIndependentLoads() throws Exception {
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        final ConcurrentGrammarPool pool = new ConcurrentGrammarPool(new ConcurrentGrammarPool.Loader() {
+            public Grammar loadGrammar(XMLGrammarDescription desc) throws Exception {
+                bothStarted.countDown();
+                // each load waits until the other has started
+                bothStarted.await();
+                return createSchemaGrammar(desc.getNamespace());
+            }
+        });
+        final Grammar[] results = new Grammar[2];
+        Thread[] threads = new Thread[2];
+        for (int i = 0; i < threads.length; ++i) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    results[index] = pool.retrieveGrammar(createSchemaDescription("urn:" + index));
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i].join(10000);
+            assertFalse(threads[i].isAlive());
+        }
+        assertEquals("urn:0", results[0].getGrammarDescription().getNamespace());
+        assertEquals("urn:1", results[1].getGrammarDescription().getNamespace());
+        assertEquals(2, pool.getGrammarCount());
+    }
+
+    /** A loader which fails or finds nothing leaves nothing in the pool. */
+    public void testFailedLoad() {
+        final AtomicInteger loads = new AtomicInteger();
+        ConcurrentGrammarPool pool = new ConcurrentGrammarPool(new ConcurrentGrammarPool.Loader() {
+            public Grammar loadGrammar(XMLGrammarDescription desc) throws Exception {
+                loads.incrementAndGet();
+                if ("urn:missing".equals(desc.getNamespace())) {
+                    return null;
+                }
+                throw new Exception("cannot load " + desc.getNamespace());
+            }
+        });
+        assertNull(pool.retrieveGrammar(createSchemaDescription("urn:missing")));
+        assertNull(pool.retrieveGrammar(createSchemaDescription("urn:error")));
+        try {
+            pool.getGrammar(createSchemaDescription("urn:error"), pool.getLoader());
+            fail("no exception");
+        }
+        catch (XNIException e) {
+            assertEquals("cannot load urn:error", e.getException().getMessage());
+        }
+        // failures are not remembered
+        assertNull(pool.retrieveGrammar(createSchemaDescription("urn:error")));
+        assertEquals(4, loads.get());
+        assertEquals(0, pool.getGrammarCount());
+    }
+
+    /** A loader which asks for another grammar gets null rather than waiting. */
+    public void testNestedLoad() {
+        final ConcurrentGrammarPool[] pool = new ConcurrentGrammarPool[1];
+        final AtomicInteger loads = new AtomicInteger();
+        pool[0] = new ConcurrentGrammarPool(new ConcurrentGrammarPool.Loader() {
+            public Grammar loadGrammar(XMLGrammarDescription desc) throws Exception {
+                loads.incrementAndGet();
+                // the grammar imports itself
+                assertNull(pool[0].retrieveGrammar(createSchemaDescription(desc.getNamespace())));
+                return createSchemaGrammar(desc.getNamespace());
+            }
+        });
+        assertNotNull(pool[0].retrieveGrammar(createSchemaDescription("urn:a")));
+        assertEquals(1, loads.get());
+    }
+
+    /** A grammar loaded while the pool is locked is returned but not cached. */
+    public void testLoadWhileLocked() {
+        final AtomicInteger loads = new AtomicInteger();
+        ConcurrentGrammarPool pool = new ConcurrentGrammarPool(new ConcurrentGrammarPool.Loader() {
+            public Grammar loadGrammar(XMLGrammarDescription desc) throws Exception {
+                loads.incrementAndGet();
+                return createSchemaGrammar(desc.getNamespace());
+            }
+        });
+        pool.lockPool();
+        assertNotNull(pool.retrieveGrammar(createSchemaDescription("urn:a")));
+        assertFalse(pool.containsGrammar(createSchemaDescription("urn:a")));
+        pool.unlockPool();
+        Grammar grammar = pool.retrieveGrammar(createSchemaDescription("urn:a"));
+        assertSame(grammar, pool.retrieveGrammar(createSchemaDescription("urn:a")));
+        assertEquals(2, loads.get());
+    }
+
+    //
+    // Private methods
+    //
+
+    /** Compares what the pools hold for each of the grammars. */
+    private static void compare(XMLGrammarPoolImpl expected, ConcurrentGrammarPool actual,
+            Grammar[] grammars) {
+        for (int i = 0; i < grammars.length; ++i) {
+            XMLGrammarDescription desc = grammars[i].getGrammarDescription();
+            assertEquals(expected.containsGrammar(desc), actual.containsGrammar(desc));
+            assertSame(expected.getGrammar(desc), actual.getGrammar(desc));
+            assertSame(expected.retrieveGrammar(desc), actual.retrieveGrammar(desc));
+        }
+        String[] types = {XMLGrammarDescription.XML_SCHEMA, XMLGrammarDescription.XML_DTD};
+        for (int i = 0; i < types.length; ++i) {
+            assertEquals(types[i],
+                    new HashSet<Grammar>(Arrays.asList(expected.retrieveInitialGrammarSet(types[i]))),
+                    new HashSet<Grammar>(Arrays.asList(actual.retrieveInitialGrammarSet(types[i]))));
+        }
+    }
+
+    /** Waits until each of the threads is blocked or has ended. */
+    private static void waitUntilBlocked(Thread[] threads) throws InterruptedException {
+        for (int i = 0; i < threads.length; ++i) {
+            Thread.State state;
+            while ((state = threads[i].getState()) != Thread.State.WAITING &&
+                    state != Thread.State.TERMINATED) {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    private static XSDDescription createSchemaDescription(String namespace) {
+        XSDDescription desc = new XSDDescription();
+        desc.setNamespace(namespace);
+        return desc;
+    }
+
+    private static Grammar createSchemaGrammar(String namespace) {
+        return new SimpleGrammar(createSchemaDescription(namespace));
+    }
+
+    private static Grammar createDTDGrammar(String rootName) {
+        return new SimpleGrammar(new XMLDTDDescription(
+                new XMLResourceIdentifierImpl(null, "a.dtd", null, "file:///a.dtd"), rootName));
+    }
+
+    //
+    // Classes
+    //
+
+    /** A grammar which only has a description. */
+    private static final class SimpleGrammar implements Grammar {
+
+        private final XMLGrammarDescription fDesc;
+
+        SimpleGrammar(XMLGrammarDescription desc) {
+            fDesc = desc;
+        }
+
+        public XMLGrammarDescription getGrammarDescription() {
+            return fDesc;
+        }
+
+    } // class SimpleGrammar
+
+} // class ConcurrentGrammarPoolTest
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util;
+
+import java.util.concurrent.CyclicBarrier;
+
+import junit.framework.TestCase;
+
+import org.apache.xerces.util.ConcurrentSymbolTable;
+
+/**
+ * Tests that ConcurrentSymbolTable returns the same interned symbol for
+ * strings and character arrays, keeps every symbol when a segment grows
+ * or selects a new hash function, and returns identical symbols to
+ * threads adding the same names at once.
+ *
+ * @version $Id$
+ */
+public class ConcurrentSymbolTableTest extends TestCase {
+
+    public ConcurrentSymbolTableTest(String name) {
+        super(name);
+    }
+
+    public void testInterned() {
+        ConcurrentSymbolTable table = new ConcurrentSymbolTable();
+        String[] names = createNames(500);
+        for (int i = 0; i < names.length; ++i) {
+            String name = names[i];
+            String symbol = (i % 2 == 0) ? table.addSymbol(new String(name)) : addChars(table, name);
+            assertSame(name.intern(), symbol);
+            assertSame(symbol, table.addSymbol(new String(name)));
+            assertSame(symbol, addChars(table, name));
+            assertTrue(table.containsSymbol(name));
+            char[] buffer = ("<" + name + ">").toCharArray();
+            assertTrue(table.containsSymbol(buffer, 1, name.length()));
+            assertEquals(table.hash(name), table.hash(buffer, 1, name.length()));
+        }
+        assertFalse(table.containsSymbol("not added"));
+    }
+
+    /** Symbols survive the growth of a segment from a tiny capacity. */
+    public void testGrowth() {
+        ConcurrentSymbolTable table = new ConcurrentSymbolTable(1, 4);
+        String[] names = createNames(20000);
+        String[] symbols = new String[names.length];
+        for (int i = 0; i < names.length; ++i) {
+            symbols[i] = (i % 3 == 0) ? addChars(table, names[i]) : table.addSymbol(new String(names[i]));
+            // check an earlier symbol after each reorganization may have happened
+            assertContains(table, names[i / 2]);
+        }
+        for (int i = 0; i < names.length; ++i) {
+            assertContains(table, names[i]);
+            assertSame(symbols[i], table.addSymbol(new String(names[i])));
+            assertSame(symbols[i], addChars(table, names[i]));
+        }
+    }
+
+    /**
+     * Strings with the same String.hashCode() fall into one chain,
+     * which makes the segment select a new hash function; the symbols
+     * added before and after must all still be found.
+     */
+    public void testCollisions() {
+        // a single segment large enough that it does not grow
+        ConcurrentSymbolTable table = new ConcurrentSymbolTable(4096, 1);
+        String[] names = createCollidingNames(8);
+        for (int i = 0; i < names.length; ++i) {
+            assertEquals(names[0].hashCode(), names[i].hashCode());
+        }
+        String[] others = createNames(200);
+        String[] symbols = new String[names.length];
+        for (int i = 0; i < names.length; ++i) {
+            table.addSymbol(others[i % others.length]);
+            symbols[i] = (i % 2 == 0) ? table.addSymbol(new String(names[i])) : addChars(table, names[i]);
+            for (int j = 0; j <= i; ++j) {
+                // a lost symbol would be added again as the same interned string
+                assertContains(table, names[j]);
+                assertSame(names[j], symbols[j], table.addSymbol(new String(names[j])));
+                assertSame(names[j], symbols[j], addChars(table, names[j]));
+            }
+        }
+        for (int i = 0; i < others.length; ++i) {
+            assertContains(table, others[i]);
+            assertSame(others[i].intern(), addChars(table, others[i]));
+        }
+        for (int i = 0; i < names.length; ++i) {
+            assertSame(names[i].intern(), symbols[i]);
+        }
+    }
+
+    /** Threads adding the same names in different orders get identical symbols. */
+    public void testConcurrentAdds() throws Exception {
+        final ConcurrentSymbolTable table = new ConcurrentSymbolTable(16, 4);
+        final String[] names = createNames(5000);
+        final String[] colliding = createCollidingNames(7);
+        final int threadCount = 6;
+        final String[][] results = new String[threadCount][names.length + colliding.length];
+        final Throwable[] failures = new Throwable[threadCount];
+        final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; ++t) {
+            final int id = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        barrier.await();
+                        final int total = names.length + colliding.length;
+                        for (int n = 0; n < total; ++n) {
+                            // each thread starts at a different place
+                            int i = (n + id * 997) % total;
+                            String name = i < names.length ? names[i] : colliding[i - names.length];
+                            results[id][i] = ((n + id) % 2 == 0)
+                                ? table.addSymbol(new String(name)) : addChars(table, name);
+                        }
+                    }
+                    catch (Throwable e) {
+                        failures[id] = e;
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threadCount; ++t) {
+            threads[t].join();
+            if (failures[t] != null) {
+                throw new RuntimeException(failures[t]);
+            }
+        }
+        for (int i = 0; i < names.length + colliding.length; ++i) {
+            String name = i < names.length ? names[i] : colliding[i - names.length];
+            assertContains(table, name);
+            String symbol = table.addSymbol(new String(name));
+            assertSame(name.intern(), symbol);
+            for (int t = 0; t < threadCount; ++t) {
+                assertSame(name, symbol, results[t][i]);
+            }
+        }
+    }
+
+    //
+    // Private methods
+    //
+
+    /** Checks that the table contains the name without adding it. */
+    private static void assertContains(ConcurrentSymbolTable table, String name) {
+        assertTrue(name, table.containsSymbol(new String(name)));
+        char[] buffer = (" " + name).toCharArray();
+        assertTrue(name, table.containsSymbol(buffer, 1, name.length()));
+    }
+
+    private static String addChars(ConcurrentSymbolTable table, String name) {
+        char[] buffer = new char[name.length() + 4];
+        name.getChars(0, name.length(), buffer, 2);
+        return table.addSymbol(buffer, 2, name.length());
+    }
+
+    /** Returns distinct names, not interned. */
+    private static String[] createNames(int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; ++i) {
+            names[i] = new StringBuffer("n").append(i % 7 == 0 ? "s:" : "").append(i).append("_")
+                .append(Integer.toString(i * 31, 36)).toString();
+        }
+        return names;
+    }
+
+    /**
+     * Returns the 2^blocks names made of "Aa" and "BB", which all have
+     * the same String.hashCode().
+     */
+    private static String[] createCollidingNames(int blocks) {
+        String[] names = new String[1 << blocks];
+        for (int i = 0; i < names.length; ++i) {
+            StringBuffer name = new StringBuffer();
+            for (int b = 0; b < blocks; ++b) {
+                name.append((i & (1 << b)) != 0 ? "BB" : "Aa");
+            }
+            names[i] = name.toString();
+        }
+        return names;
+    }
+
+} // class ConcurrentSymbolTableTest